@@ -80,6 +80,18 @@ publishing {
     }
 }
 
+// The SIMD kernels use the incubating Vector API. At runtime the module is optional, and the
+// library falls back to scalar loops when it has not been added with --add-modules.
+val vectorModule = listOf("--add-modules", "jdk.incubator.vector")
+
+tasks.withType<JavaCompile>().configureEach {
+    options.compilerArgs.addAll(vectorModule)
+}
+
+tasks.withType<Test>().configureEach {
+    jvmArgs(vectorModule)
+}
+
 tasks.jar {
     manifest {
         attributes(
@@ -92,6 +104,7 @@ tasks.jar {
 tasks.javadoc {
     (options as? StandardJavadocDocletOptions)?.apply {
         tags = listOf("apiNote", "implSpec", "implNote")
+        addStringOption("-add-modules", "jdk.incubator.vector")
         addBooleanOption("html5", true)
     }
 }
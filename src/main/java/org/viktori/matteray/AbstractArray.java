@@ -0,0 +1,211 @@
+package org.viktori.matteray;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * This class provides a skeletal implementation of the {@link Array}
+ * interface, to minimize the effort required to implement arrays which are not
+ * backed by a raw {@code Object[]}, such as arrays backed by primitive storage.
+ *
+ * <p>To implement an array, the programmer needs only to extend this class and
+ * provide implementations for the {@link #get(int)} and {@link #size()} methods.
+ * All query operations, iterators, comparison and hashing are implemented in terms
+ * of those two methods. The {@link #set(int, Object) set} operation is not
+ * supported by default, which makes subclasses immutable unless they override it.
+ *
+ * <p>Subclasses are encouraged to override {@link #subList(int, int)}, as the default
+ * implementation copies the range into an {@link ImmutableArray}, losing any
+ * specialized storage of the subclass.
+ *
+ * @param <E> the type of elements in this array
+ * @author Viktor Ingemansson
+ * @see Array
+ * @see ImmutableArray
+ */
+public abstract class AbstractArray<E> implements Array<E> {
+
+    /**
+     * Sole constructor. (For invocation by subclass constructors, typically
+     * implicit.)
+     */
+    protected AbstractArray() {
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws ArrayIndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public abstract E get(int index);
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>This implementation always throws an {@code UnsupportedOperationException}.
+     *
+     * @throws UnsupportedOperationException {@inheritDoc}
+     */
+    @Override
+    public E set(int index, E element) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> collection) {
+        for (Object e : collection) {
+            if (!contains(e)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        int size = size();
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(o, get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        for (int i = size() - 1; i >= 0; i--) {
+            if (Objects.equals(o, get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new ArrayIterator<>(this);
+    }
+
+    @Override
+    public ListIterator<E> listIterator() {
+        return new ArrayListIterator<>(this);
+    }
+
+    @Override
+    public ListIterator<E> listIterator(int index) {
+        return new ArrayListIterator<>(this, index);
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        return Spliterators.spliterator(this, Spliterator.ORDERED);
+    }
+
+    @Override
+    public Object[] toArray() {
+        int size = size();
+        Object[] array = new Object[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = get(i);
+        }
+        return array;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        int size = size();
+        if (a.length < size) {
+            // Make a new array of a's runtime type, but my contents:
+            return (T[]) Arrays.copyOf(toArray(), size, a.getClass());
+        }
+        for (int i = 0; i < size; i++) {
+            a[i] = (T) get(i);
+        }
+        if (a.length > size) {
+            a[size] = null;
+        }
+        return a;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>This implementation copies the range into a new {@link ImmutableArray}.
+     */
+    @Override
+    public Array<E> subList(int fromIndex, int toIndex) {
+        if (fromIndex == 0 && toIndex == size()) {
+            return this;
+        }
+
+        subArrayRangeCheck(fromIndex, toIndex, size());
+        Object[] elementData = new Object[toIndex - fromIndex];
+        for (int i = 0, j = fromIndex; j < toIndex; i++, j++) {
+            elementData[i] = get(j);
+        }
+        return new ImmutableArray<>(elementData, true);
+    }
+
+    static void subArrayRangeCheck(int fromIndex, int toIndex, int size) {
+        if (fromIndex < 0) {
+            throw new ArrayIndexOutOfBoundsException("fromIndex = " + fromIndex);
+        }
+        if (toIndex > size) {
+            throw new ArrayIndexOutOfBoundsException("toIndex = " + toIndex);
+        }
+        if (fromIndex > toIndex) {
+            throw new IllegalArgumentException("fromIndex(" + fromIndex +
+                    ") > toIndex(" + toIndex + ")");
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 1;
+        int size = size();
+        for (int i = 0; i < size; i++) {
+            E e = get(i);
+            hashCode = 31 * hashCode + (e == null ? 0 : e.hashCode());
+        }
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        } else if (o instanceof Array<?> a && a.size() == size()) {
+            int size = size();
+            for (int i = 0; i < size; i++) {
+                if (!Objects.equals(get(i), a.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,323 @@
+package org.viktori.matteray;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * This class provides a skeletal implementation of the {@link Matrix}
+ * interface, to minimize the effort required to implement matrices which are not
+ * backed by a raw {@code Object[][]}, such as matrices backed by primitive storage.
+ *
+ * <p>To implement a matrix, the programmer needs only to extend this class and
+ * provide implementations for the {@link #get(int, int)}, {@link #rows()} and
+ * {@link #columns()} methods. All query operations, iterators, conversions to raw arrays,
+ * comparison and hashing are implemented in terms of those methods.
+ *
+ * <p>Subclasses are encouraged to override {@link #row(int)}, {@link #column(int)} and
+ * {@link #subMatrix(int, int, int, int)}, as the default implementations copy the elements
+ * into an {@link ImmutableArray} or {@link ImmutableMatrix}, losing any specialized
+ * storage of the subclass.
+ *
+ * @param <E> the type of elements in this matrix
+ * @author Viktor Ingemansson
+ * @see Matrix
+ * @see ImmutableMatrix
+ */
+public abstract class AbstractMatrix<E> implements Matrix<E> {
+
+    /**
+     * Sole constructor. (For invocation by subclass constructors, typically
+     * implicit.)
+     */
+    protected AbstractMatrix() {
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws ArrayIndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public abstract E get(int rowIndex, int columnIndex);
+
+    @Override
+    public int size() {
+        long totalSize = (long) rows() * (long) columns();
+        return totalSize > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) totalSize;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return rows() == 0 || columns() == 0;
+    }
+
+    @Override
+    public boolean isSquare() {
+        return rows() == columns();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        int rows = rows();
+        int columns = columns();
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                if (Objects.equals(get(r, c), o)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> collection) {
+        for (Object e : collection) {
+            if (!contains(e)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new MatrixIterator<>(this);
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        return Spliterators.spliterator(this, Spliterator.ORDERED);
+    }
+
+    @Override
+    public Object[] toArray() {
+        long totalSize = (long) rows() * (long) columns();
+        if (totalSize > Integer.MAX_VALUE) {
+            throw new ArrayIndexOutOfBoundsException("Array index overflow: " + totalSize);
+        }
+
+        Object[] array = new Object[(int) totalSize];
+        int rows = rows();
+        int columns = columns();
+        int i = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                array[i++] = get(r, c);
+            }
+        }
+        return array;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        Object[] elements = toArray();
+        int size = elements.length;
+        if (a.length < size) {
+            // Make a new array of a's runtime type, but my contents:
+            return (T[]) Arrays.copyOf(elements, size, a.getClass());
+        }
+        System.arraycopy(elements, 0, a, 0, size);
+        if (a.length > size) {
+            a[size] = null;
+        }
+        return a;
+    }
+
+    @Override
+    public Object[][] toArray2D() {
+        int rows = rows();
+        int columns = columns();
+        Object[][] array2D = new Object[rows][columns];
+        for (int r = 0; r < rows; r++) {
+            Object[] row = array2D[r];
+            for (int c = 0; c < columns; c++) {
+                row[c] = get(r, c);
+            }
+        }
+        return array2D;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[][] toArray2D(T[][] a) {
+        int rows = rows();
+        int columns = columns();
+        T[][] array2D = a.length < rows
+                ? (T[][]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), rows)
+                : a;
+        for (int r = 0; r < rows; r++) {
+            if (array2D[r] == null || array2D[r].length < columns) {
+                array2D[r] = (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType().getComponentType(), columns);
+            }
+            for (int c = 0; c < columns; c++) {
+                array2D[r][c] = (T) get(r, c);
+            }
+            if (array2D[r].length > columns) {
+                array2D[r][columns] = null;
+            }
+        }
+        if (array2D.length > rows) {
+            array2D[rows] = null;
+        }
+        return array2D;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>This implementation copies the rectangle into a new {@link ImmutableMatrix}.
+     */
+    @Override
+    public Matrix<E> subMatrix(int fromRowIndex, int toRowIndex, int fromColumnIndex, int toColumnIndex) {
+        if (fromRowIndex == 0 && toRowIndex == rows() &&
+                fromColumnIndex == 0 && toColumnIndex == columns()) {
+            return this;
+        }
+
+        subMatrixRangeCheck(fromRowIndex, toRowIndex, rows());
+        subMatrixRangeCheck(fromColumnIndex, toColumnIndex, columns());
+
+        int rows = toRowIndex - fromRowIndex;
+        int columns = toColumnIndex - fromColumnIndex;
+        Object[][] elementData = new Object[rows][columns];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                elementData[i][j] = get(fromRowIndex + i, fromColumnIndex + j);
+            }
+        }
+        return new ImmutableMatrix<>(elementData, true, rows, columns);
+    }
+
+    static void subMatrixRangeCheck(int fromIndex, int toIndex, int size) {
+        if (fromIndex < 0) {
+            throw new ArrayIndexOutOfBoundsException("fromIndex = " + fromIndex);
+        }
+        if (toIndex > size) {
+            throw new ArrayIndexOutOfBoundsException("toIndex = " + toIndex);
+        }
+        if (fromIndex > toIndex) {
+            throw new IllegalArgumentException("fromIndex(" + fromIndex +
+                    ") > toIndex(" + toIndex + ")");
+        }
+    }
+
+    static int checkedSize(int rows, int columns) {
+        if (rows < 0 || columns < 0) {
+            throw new IllegalArgumentException("Illegal size: " + rows + ", " + columns);
+        }
+        long totalSize = (long) rows * (long) columns;
+        if (totalSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Matrix too large: " + rows + ", " + columns);
+        }
+        return (int) totalSize;
+    }
+
+    static int checkedIndex(int rowIndex, int columnIndex, int rows, int columns) {
+        if (rowIndex < 0 || rowIndex >= rows || columnIndex < 0 || columnIndex >= columns) {
+            throw new ArrayIndexOutOfBoundsException("Index (" + rowIndex + ", " + columnIndex + ") out of bounds for size: " + rows + ", " + columns);
+        }
+        return rowIndex * columns + columnIndex;
+    }
+
+    static void checkIndex(int index, int length) {
+        if (index < 0 || index >= length) {
+            throw new ArrayIndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>This implementation copies the row into a new {@link ImmutableArray}.
+     */
+    @Override
+    public Array<E> row(int rowIndex) {
+        int columns = columns();
+        Object[] row = new Object[columns];
+        for (int c = 0; c < columns; c++) {
+            row[c] = get(rowIndex, c);
+        }
+        return new ImmutableArray<>(row, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>This implementation copies the column into a new {@link ImmutableArray}.
+     */
+    @Override
+    public Array<E> column(int columnIndex) {
+        int rows = rows();
+        Object[] column = new Object[rows];
+        for (int r = 0; r < rows; r++) {
+            column[r] = get(r, columnIndex);
+        }
+        return new ImmutableArray<>(column, true);
+    }
+
+    @Override
+    public Array<Array<E>> rowArray() {
+        return new ImmutableArray<>(rows(), this::row);
+    }
+
+    @Override
+    public Array<Array<E>> columnArray() {
+        return new ImmutableArray<>(columns(), this::column);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 1;
+        int rows = rows();
+        int columns = columns();
+        for (int r = 0; r < rows; r++) {
+            int rowHash = 1;
+            for (int c = 0; c < columns; c++) {
+                E e = get(r, c);
+                rowHash = 31 * rowHash + (e == null ? 0 : e.hashCode());
+            }
+            result = 31 * result + rowHash;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        } else if (o instanceof Matrix<?> m && m.rows() == rows() && m.columns() == columns()) {
+            int rows = rows();
+            int columns = columns();
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < columns; c++) {
+                    if (!Objects.equals(get(r, c), m.get(r, c))) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append("[");
+        int rows = rows();
+        for (int r = 0; r < rows; r++) {
+            if (r > 0) {
+                stringBuilder.append(", ");
+            }
+            stringBuilder.append(row(r));
+        }
+        stringBuilder.append("]");
+        return stringBuilder.toString();
+    }
+}
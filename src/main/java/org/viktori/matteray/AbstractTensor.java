@@ -0,0 +1,541 @@
+package org.viktori.matteray;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+
+/**
+ * This class provides a skeletal implementation of the {@link Tensor} interface, for tensors
+ * backed by a single flat buffer. The position of the element at indices
+ * {@code (i0, i1, ..., in)} in the buffer is {@code offset + i0 * strides[0] + ... + in * strides[n]},
+ * which lets slices, sub tensors and permutations share the buffer of the tensor they were
+ * created from.
+ *
+ * <p>To implement a tensor, the programmer needs only to extend this class and provide
+ * implementations for {@link #elementAt(int)}, {@link #view(int[], int[], int)} and
+ * {@link #copy()}. Everything else, including the {@link Array} and {@link Matrix} views,
+ * is implemented in terms of those methods.
+ *
+ * @param <E> the type of elements in this tensor
+ * @author Viktor Ingemansson
+ * @see Tensor
+ * @see ImmutableTensor
+ */
+public abstract class AbstractTensor<E> implements Tensor<E>, Serializable {
+
+    @java.io.Serial
+    private static final long serialVersionUID = 4113896513040277602L;
+
+    /**
+     * Length of each axis
+     */
+    private final int[] shape;
+
+    /**
+     * Distance in the buffer between two consecutive indices, for each axis
+     */
+    private final int[] strides;
+
+    /**
+     * Position in the buffer of the first element
+     */
+    private final int offset;
+
+    /**
+     * Total number of elements
+     */
+    private final int size;
+
+    /**
+     * Constructor for subclasses, which describes how the tensor is laid out in the buffer
+     * of the subclass. The arrays are trusted, and must not be modified afterwards.
+     *
+     * @param shape   length of each axis
+     * @param strides distance in the buffer between two consecutive indices, for each axis
+     * @param offset  position in the buffer of the first element
+     * @throws IllegalArgumentException if the shape and strides are of different length,
+     *                                  or the shape is invalid
+     */
+    protected AbstractTensor(int[] shape, int[] strides, int offset) {
+        if (shape.length != strides.length) {
+            throw new IllegalArgumentException("Shape and strides must be of equal length, but were " + shape.length + " and " + strides.length);
+        }
+        this.shape = shape;
+        this.strides = strides;
+        this.offset = offset;
+        this.size = checkedSize(shape);
+    }
+
+    /**
+     * Returns the number of elements of a tensor with the specified shape.
+     *
+     * @param shape the shape of a tensor
+     * @return the product of all lengths in the shape
+     * @throws IllegalArgumentException if any length is negative, or the product overflows
+     */
+    protected static int checkedSize(int[] shape) {
+        long size = 1;
+        for (int length : shape) {
+            if (length < 0) {
+                throw new IllegalArgumentException("Illegal shape: " + Arrays.toString(shape));
+            }
+            size *= length;
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Tensor too large: " + Arrays.toString(shape));
+            }
+        }
+        return (int) size;
+    }
+
+    /**
+     * Returns the strides of a tensor with the specified shape, laid out contiguously in
+     * row-major order.
+     *
+     * @param shape the shape of a tensor
+     * @return the row-major strides for the shape
+     */
+    protected static int[] rowMajorStrides(int[] shape) {
+        int[] strides = new int[shape.length];
+        int stride = 1;
+        for (int axis = shape.length - 1; axis >= 0; axis--) {
+            strides[axis] = stride;
+            stride *= Math.max(shape[axis], 1);
+        }
+        return strides;
+    }
+
+    /**
+     * Returns the element at the specified position in the buffer of this tensor.
+     *
+     * @param offset the position in the buffer
+     * @return the element at the position
+     */
+    protected abstract E elementAt(int offset);
+
+    /**
+     * Creates a tensor sharing the buffer of this tensor, but with a different layout.
+     *
+     * @param shape   length of each axis of the view
+     * @param strides strides of the view
+     * @param offset  position in the buffer of the first element of the view
+     * @return a view into the same buffer
+     */
+    protected abstract AbstractTensor<E> view(int[] shape, int[] strides, int offset);
+
+    /**
+     * Creates a tensor with the same shape and elements as this tensor, backed by a new
+     * buffer laid out contiguously in row-major order.
+     *
+     * @return a contiguous copy of this tensor
+     */
+    protected abstract AbstractTensor<E> copy();
+
+    /**
+     * Returns the position in the buffer of the first element of this tensor.
+     *
+     * @return the offset of this tensor
+     */
+    protected final int offset() {
+        return offset;
+    }
+
+    /**
+     * Returns {@code true} if the elements of this tensor are laid out contiguously in
+     * row-major order in the buffer, starting at {@link #offset()}.
+     *
+     * @return {@code true} if this tensor is contiguous
+     */
+    protected final boolean isContiguous() {
+        int expected = 1;
+        for (int axis = shape.length - 1; axis >= 0; axis--) {
+            if (shape[axis] != 1 && strides[axis] != expected) {
+                return false;
+            }
+            expected *= shape[axis];
+        }
+        return true;
+    }
+
+    /**
+     * Performs the action for the buffer position of every element in this tensor, in
+     * row-major order.
+     *
+     * @param action the action to perform for each buffer position
+     */
+    protected final void forEachOffset(IntConsumer action) {
+        if (size == 0) {
+            return;
+        }
+        if (isContiguous()) {
+            for (int i = offset, end = offset + size; i < end; i++) {
+                action.accept(i);
+            }
+            return;
+        }
+        int rank = shape.length;
+        int[] indices = new int[rank];
+        int position = offset;
+        int innerLength = shape[rank - 1];
+        int innerStride = strides[rank - 1];
+        for (int remaining = size; remaining > 0; remaining -= innerLength) {
+            for (int i = 0, p = position; i < innerLength; i++, p += innerStride) {
+                action.accept(p);
+            }
+            // Advance the odometer over every axis but the innermost
+            for (int axis = rank - 2; axis >= 0; axis--) {
+                position += strides[axis];
+                if (++indices[axis] < shape[axis]) {
+                    break;
+                }
+                position -= strides[axis] * shape[axis];
+                indices[axis] = 0;
+            }
+        }
+    }
+
+    @Override
+    public E get(int... indices) {
+        return elementAt(offsetOf(indices));
+    }
+
+    /**
+     * Returns the position in the buffer of the element at the specified indices.
+     *
+     * @param indices the indices of the element, one for each axis
+     * @return the position of the element in the buffer
+     * @throws IllegalArgumentException       if the number of indices is not equal to the rank
+     * @throws ArrayIndexOutOfBoundsException if any index is out of range
+     */
+    protected final int offsetOf(int... indices) {
+        if (indices.length != shape.length) {
+            throw new IllegalArgumentException("Expected " + shape.length + " indices, but got " + indices.length);
+        }
+        int position = offset;
+        for (int axis = 0; axis < shape.length; axis++) {
+            int index = indices[axis];
+            if (index < 0 || index >= shape[axis]) {
+                throw new ArrayIndexOutOfBoundsException("Index " + index + " out of bounds for axis " + axis + " of length " + shape[axis]);
+            }
+            position += index * strides[axis];
+        }
+        return position;
+    }
+
+    @Override
+    public int rank() {
+        return shape.length;
+    }
+
+    @Override
+    public int[] shape() {
+        return shape.clone();
+    }
+
+    @Override
+    public int dimension(int axis) {
+        return shape[axis];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public Tensor<E> slice(int axis, int index) {
+        checkAxis(axis);
+        if (index < 0 || index >= shape[axis]) {
+            throw new ArrayIndexOutOfBoundsException("Index " + index + " out of bounds for axis " + axis + " of length " + shape[axis]);
+        }
+        return view(removeAxis(shape, axis), removeAxis(strides, axis), offset + index * strides[axis]);
+    }
+
+    private static int[] removeAxis(int[] values, int axis) {
+        int[] removed = new int[values.length - 1];
+        System.arraycopy(values, 0, removed, 0, axis);
+        System.arraycopy(values, axis + 1, removed, axis, values.length - axis - 1);
+        return removed;
+    }
+
+    @Override
+    public Tensor<E> subTensor(int axis, int fromIndex, int toIndex) {
+        checkAxis(axis);
+        if (fromIndex == 0 && toIndex == shape[axis]) {
+            return this;
+        }
+        AbstractMatrix.subMatrixRangeCheck(fromIndex, toIndex, shape[axis]);
+        int[] subShape = shape.clone();
+        subShape[axis] = toIndex - fromIndex;
+        return view(subShape, strides, offset + fromIndex * strides[axis]);
+    }
+
+    @Override
+    public Tensor<E> permute(int... axes) {
+        if (axes.length != shape.length) {
+            throw new IllegalArgumentException("Expected " + shape.length + " axes, but got " + axes.length);
+        }
+        boolean[] used = new boolean[axes.length];
+        int[] permutedShape = new int[axes.length];
+        int[] permutedStrides = new int[axes.length];
+        for (int i = 0; i < axes.length; i++) {
+            int axis = axes[i];
+            if (axis < 0 || axis >= axes.length || used[axis]) {
+                throw new IllegalArgumentException("Axes must be a permutation of all axes, but were " + Arrays.toString(axes));
+            }
+            used[axis] = true;
+            permutedShape[i] = shape[axis];
+            permutedStrides[i] = strides[axis];
+        }
+        return view(permutedShape, permutedStrides, offset);
+    }
+
+    @Override
+    public Tensor<E> reshape(int... shape) {
+        int[] newShape = shape.clone();
+        if (checkedSize(newShape) != size) {
+            throw new IllegalArgumentException("Cannot reshape " + Arrays.toString(this.shape) + " into " + Arrays.toString(newShape));
+        }
+        AbstractTensor<E> contiguous = isContiguous() ? this : copy();
+        return contiguous.view(newShape, rowMajorStrides(newShape), contiguous.offset);
+    }
+
+    @Override
+    public Matrix<E> asMatrix() {
+        if (shape.length != 2) {
+            throw new IllegalStateException("Only a tensor of rank 2 can be viewed as a matrix, but rank was " + shape.length);
+        }
+        return new MatrixView<>(this);
+    }
+
+    @Override
+    public Array<E> asArray() {
+        if (shape.length != 1) {
+            throw new IllegalStateException("Only a tensor of rank 1 can be viewed as an array, but rank was " + shape.length);
+        }
+        return new ArrayView<>(this);
+    }
+
+    private void checkAxis(int axis) {
+        if (axis < 0 || axis >= shape.length) {
+            throw new ArrayIndexOutOfBoundsException("Axis " + axis + " out of bounds for rank " + shape.length);
+        }
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        for (E e : this) {
+            if (Objects.equals(e, o)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> collection) {
+        for (Object e : collection) {
+            if (!contains(e)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new TensorIterator();
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        return Spliterators.spliterator(this, Spliterator.IMMUTABLE | Spliterator.ORDERED);
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] array = new Object[size];
+        int[] i = {0};
+        forEachOffset(p -> array[i[0]++] = elementAt(p));
+        return array;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        Object[] elements = toArray();
+        if (a.length < size) {
+            // Make a new array of a's runtime type, but my contents:
+            return (T[]) Arrays.copyOf(elements, size, a.getClass());
+        }
+        System.arraycopy(elements, 0, a, 0, size);
+        if (a.length > size) {
+            a[size] = null;
+        }
+        return a;
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = Arrays.hashCode(shape);
+        for (E e : this) {
+            hashCode = 31 * hashCode + (e == null ? 0 : e.hashCode());
+        }
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        } else if (o instanceof Tensor<?> t && Arrays.equals(shape, t.shape())) {
+            Iterator<?> other = t.iterator();
+            for (E e : this) {
+                if (!Objects.equals(e, other.next())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+        appendTo(stringBuilder, 0, offset);
+        return stringBuilder.toString();
+    }
+
+    private void appendTo(StringBuilder stringBuilder, int axis, int position) {
+        if (axis == shape.length) {
+            stringBuilder.append(elementAt(position));
+            return;
+        }
+        stringBuilder.append("[");
+        for (int i = 0; i < shape[axis]; i++) {
+            if (i > 0) {
+                stringBuilder.append(", ");
+            }
+            appendTo(stringBuilder, axis + 1, position + i * strides[axis]);
+        }
+        stringBuilder.append("]");
+    }
+
+    /**
+     * Iterator over the elements in row-major order, advancing the buffer position like an
+     * odometer instead of recomputing it from the indices.
+     */
+    private final class TensorIterator implements Iterator<E> {
+        private final int[] indices = new int[shape.length];
+        private int position = offset;
+        private int remaining = size;
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            E next = elementAt(position);
+            if (--remaining > 0) {
+                for (int axis = shape.length - 1; axis >= 0; axis--) {
+                    position += strides[axis];
+                    if (++indices[axis] < shape[axis]) {
+                        break;
+                    }
+                    position -= strides[axis] * shape[axis];
+                    indices[axis] = 0;
+                }
+            }
+            return next;
+        }
+    }
+
+    /**
+     * Matrix view of a tensor of rank two. Rows, columns and sub matrices are views as well.
+     */
+    private static final class MatrixView<E> extends AbstractMatrix<E> {
+        private final AbstractTensor<E> tensor;
+
+        private MatrixView(AbstractTensor<E> tensor) {
+            this.tensor = tensor;
+        }
+
+        @Override
+        public E get(int rowIndex, int columnIndex) {
+            if (rowIndex < 0 || rowIndex >= rows() || columnIndex < 0 || columnIndex >= columns()) {
+                throw new ArrayIndexOutOfBoundsException("Index (" + rowIndex + ", " + columnIndex + ") out of bounds for size: " + rows() + ", " + columns());
+            }
+            return tensor.elementAt(tensor.offset + rowIndex * tensor.strides[0] + columnIndex * tensor.strides[1]);
+        }
+
+        @Override
+        public int rows() {
+            return tensor.shape[0];
+        }
+
+        @Override
+        public int columns() {
+            return tensor.shape[1];
+        }
+
+        @Override
+        public Matrix<E> subMatrix(int fromRowIndex, int toRowIndex, int fromColumnIndex, int toColumnIndex) {
+            return tensor.subTensor(0, fromRowIndex, toRowIndex).subTensor(1, fromColumnIndex, toColumnIndex).asMatrix();
+        }
+
+        @Override
+        public Array<E> row(int rowIndex) {
+            return tensor.slice(0, rowIndex).asArray();
+        }
+
+        @Override
+        public Array<E> column(int columnIndex) {
+            return tensor.slice(1, columnIndex).asArray();
+        }
+    }
+
+    /**
+     * Array view of a tensor of rank one. Sub arrays are views as well.
+     */
+    private static final class ArrayView<E> extends AbstractArray<E> {
+        private final AbstractTensor<E> tensor;
+
+        private ArrayView(AbstractTensor<E> tensor) {
+            this.tensor = tensor;
+        }
+
+        @Override
+        public E get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new ArrayIndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+            }
+            return tensor.elementAt(tensor.offset + index * tensor.strides[0]);
+        }
+
+        @Override
+        public int size() {
+            return tensor.shape[0];
+        }
+
+        @Override
+        public Array<E> subList(int fromIndex, int toIndex) {
+            return tensor.subTensor(0, fromIndex, toIndex).asArray();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.viktori.matteray;
+
+import java.io.Serializable;
+
+/**
+ * Immutable complex number, with a real and an imaginary {@code double} part. It is the
+ * element type of {@link ComplexArray} and {@link ComplexMatrix}, which store their elements
+ * unboxed as interleaved real and imaginary parts, and only create {@code Complex}
+ * instances when elements are accessed through the {@link Array} or {@link Matrix} interface.
+ *
+ * <p>Two complex numbers are equal if both their real and imaginary parts are equal, as
+ * compared by {@link Double#compare(double, double)}.
+ *
+ * @author Viktor Ingemansson
+ * @see ComplexArray
+ * @see ComplexMatrix
+ */
+public final class Complex implements Serializable {
+
+    @java.io.Serial
+    private static final long serialVersionUID = 5384051823305516452L;
+
+    /**
+     * The complex number {@code 0 + 0i}
+     */
+    public static final Complex ZERO = new Complex(0.0, 0.0);
+
+    /**
+     * The complex number {@code 1 + 0i}
+     */
+    public static final Complex ONE = new Complex(1.0, 0.0);
+
+    /**
+     * The complex number {@code 0 + 1i}
+     */
+    public static final Complex I = new Complex(0.0, 1.0);
+
+    private final double real;
+    private final double imaginary;
+
+    private Complex(double real, double imaginary) {
+        this.real = real;
+        this.imaginary = imaginary;
+    }
+
+    /**
+     * Returns a complex number with the specified real and imaginary parts.
+     *
+     * @param real      the real part
+     * @param imaginary the imaginary part
+     * @return a complex number {@code real + imaginary * i}
+     */
+    public static Complex of(double real, double imaginary) {
+        return new Complex(real, imaginary);
+    }
+
+    /**
+     * Returns a complex number with the specified real part, and no imaginary part.
+     *
+     * @param real the real part
+     * @return a complex number {@code real + 0i}
+     */
+    public static Complex of(double real) {
+        return new Complex(real, 0.0);
+    }
+
+    /**
+     * Returns the real part of this complex number.
+     *
+     * @return the real part
+     */
+    public double real() {
+        return real;
+    }
+
+    /**
+     * Returns the imaginary part of this complex number.
+     *
+     * @return the imaginary part
+     */
+    public double imaginary() {
+        return imaginary;
+    }
+
+    /**
+     * Returns the sum of this complex number and the specified complex number.
+     *
+     * @param other the complex number to add
+     * @return {@code this + other}
+     */
+    public Complex plus(Complex other) {
+        return new Complex(real + other.real, imaginary + other.imaginary);
+    }
+
+    /**
+     * Returns the difference between this complex number and the specified complex number.
+     *
+     * @param other the complex number to subtract
+     * @return {@code this - other}
+     */
+    public Complex minus(Complex other) {
+        return new Complex(real - other.real, imaginary - other.imaginary);
+    }
+
+    /**
+     * Returns the product of this complex number and the specified complex number.
+     *
+     * @param other the complex number to multiply with
+     * @return {@code this * other}
+     */
+    public Complex times(Complex other) {
+        return new Complex(real * other.real - imaginary * other.imaginary,
+                real * other.imaginary + imaginary * other.real);
+    }
+
+    /**
+     * Returns the complex conjugate of this complex number.
+     *
+     * @return {@code real - imaginary * i}
+     */
+    public Complex conjugate() {
+        return new Complex(real, -imaginary);
+    }
+
+    /**
+     * Returns the absolute value (modulus) of this complex number.
+     *
+     * @return {@code sqrt(real^2 + imaginary^2)}, computed without undue overflow
+     */
+    public double abs() {
+        return Math.hypot(real, imaginary);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Double.hashCode(real) + Double.hashCode(imaginary);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Complex c && Double.compare(real, c.real) == 0 && Double.compare(imaginary, c.imaginary) == 0;
+    }
+
+    @Override
+    public String toString() {
+        if (imaginary < 0 || imaginary == 0 && 1 / imaginary < 0) {
+            return real + "-" + (-imaginary) + "i";
+        }
+        return real + "+" + imaginary + "i";
+    }
+}
@@ -0,0 +1,315 @@
+package org.viktori.matteray;
+
+import org.viktori.matteray.function.ArrayIndexFunction;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * Complex number array which implements the {@code Array} interface. It is immutable, and
+ * stores its elements unboxed in a single {@code double[]}, with the real and imaginary part
+ * of each element interleaved, i.e. {@code [re0, im0, re1, im1, ...]}.
+ *
+ * <p>A {@link Complex} instance is created each time an element is accessed through the
+ * {@link Array} interface. Use {@link #getReal(int)} and {@link #getImaginary(int)} to
+ * read elements without allocating, and the complex operations in
+ * {@link org.viktori.matteray.util.ArrayUtils ArrayUtils} to compute on them.
+ * The array does not permit {@code null} elements.
+ *
+ * <p>The {@code size}, {@code isEmpty}, {@code get}, {@code getReal}, {@code getImaginary},
+ * {@code iterator}, and {@code listIterator} operations run in constant
+ * time.
+ * <p>
+ * Due to its immutable nature, the implementation is thread safe.
+ *
+ * @author Viktor Ingemansson
+ * @see Array
+ * @see Complex
+ * @see ComplexMatrix
+ */
+public class ComplexArray extends AbstractArray<Complex> implements Cloneable, Serializable {
+
+    @java.io.Serial
+    private static final long serialVersionUID = -1046712925541587040L;
+
+    /**
+     * Shared empty array
+     */
+    private static final double[] EMPTY_ARRAY = new double[0];
+
+    /**
+     * Raw array to hold the interleaved real and imaginary parts
+     */
+    private final double[] elementData;
+
+    /**
+     * Constructs an immutable complex array with the specified length, and function
+     * to populate values with.
+     *
+     * @param length       the length of the array
+     * @param initFunction the function to initialize values in the array
+     * @throws IllegalArgumentException if the specified length is negative
+     * @throws NullPointerException     if the function returns null
+     */
+    public ComplexArray(int length, ArrayIndexFunction<Complex> initFunction) {
+        this(initiateArrayFromFunction(length, initFunction), true);
+    }
+
+    private static double[] initiateArrayFromFunction(int length, ArrayIndexFunction<Complex> initFunction) {
+        if (length > 0) {
+            double[] elementData = new double[checkedLength(length)];
+            for (int i = 0; i < length; i++) {
+                Complex value = initFunction.valueOf(i);
+                elementData[2 * i] = value.real();
+                elementData[2 * i + 1] = value.imaginary();
+            }
+            return elementData;
+        } else if (length == 0) {
+            return EMPTY_ARRAY;
+        } else {
+            throw new IllegalArgumentException("Illegal Length: " + length);
+        }
+    }
+
+    /**
+     * Constructs an immutable complex array from the specified real and imaginary parts.
+     *
+     * @param real      the real parts of the elements
+     * @param imaginary the imaginary parts of the elements
+     * @throws IllegalArgumentException if the arrays are of different length
+     */
+    public ComplexArray(double[] real, double[] imaginary) {
+        this(interleave(real, imaginary), true);
+    }
+
+    private static double[] interleave(double[] real, double[] imaginary) {
+        if (real.length != imaginary.length) {
+            throw new IllegalArgumentException("Real and imaginary parts must be of equal length, but lengths were " + real.length + " and " + imaginary.length);
+        }
+        double[] elementData = new double[checkedLength(real.length)];
+        for (int i = 0; i < real.length; i++) {
+            elementData[2 * i] = real[i];
+            elementData[2 * i + 1] = imaginary[i];
+        }
+        return elementData;
+    }
+
+    /**
+     * Constructs an immutable complex array containing the elements of the specified
+     * collection, in the order they are returned by the collection's iterator.
+     *
+     * @param collection the collection whose elements are to be placed into this array
+     * @throws NullPointerException if the specified collection is null, or contains null elements
+     */
+    public ComplexArray(Collection<? extends Complex> collection) {
+        this(collection instanceof ComplexArray ca ? ca.elementData : toInterleaved(collection), true);
+    }
+
+    private static double[] toInterleaved(Collection<? extends Complex> collection) {
+        double[] elementData = new double[checkedLength(collection.size())];
+        int i = 0;
+        for (Complex value : collection) {
+            elementData[i++] = value.real();
+            elementData[i++] = value.imaginary();
+        }
+        return elementData;
+    }
+
+    private static int checkedLength(int length) {
+        if (length > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("Array too large: " + length);
+        }
+        return 2 * length;
+    }
+
+    /**
+     * Internal constructor to create an empty array.
+     */
+    protected ComplexArray() {
+        this.elementData = EMPTY_ARRAY;
+    }
+
+    /**
+     * Internal constructor to create an array based on a raw interleaved array, which also gives
+     * you the ability to trust it. When trusted, the array will not be cloned. This can be used
+     * when we know the array cannot be modified from the outside.
+     *
+     * @param elementData the raw array of interleaved real and imaginary parts to hold
+     * @param trusted if the array is trusted, it will use the array as it is without cloning it.
+     * @throws IllegalArgumentException if the array length is odd
+     */
+    protected ComplexArray(double[] elementData, boolean trusted) {
+        if (elementData.length % 2 != 0) {
+            throw new IllegalArgumentException("Illegal data length " + elementData.length + " for interleaved complex data");
+        }
+        if (elementData.length == 0) {
+            this.elementData = EMPTY_ARRAY;
+        } else if (trusted) {
+            this.elementData = elementData;
+        } else {
+            this.elementData = elementData.clone();
+        }
+    }
+
+    /**
+     * Returns the element at the specified position in this array.
+     *
+     * @param index index of the element to return
+     * @return the element at the specified position in this array
+     * @throws ArrayIndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public Complex get(int index) {
+        checkIndex(index);
+        return Complex.of(elementData[2 * index], elementData[2 * index + 1]);
+    }
+
+    /**
+     * Returns the real part of the element at the specified position in this array.
+     *
+     * @param index index of the element
+     * @return the real part of the element at the specified position in this array
+     * @throws ArrayIndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public double getReal(int index) {
+        checkIndex(index);
+        return elementData[2 * index];
+    }
+
+    /**
+     * Returns the imaginary part of the element at the specified position in this array.
+     *
+     * @param index index of the element
+     * @return the imaginary part of the element at the specified position in this array
+     * @throws ArrayIndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public double getImaginary(int index) {
+        checkIndex(index);
+        return elementData[2 * index + 1];
+    }
+
+    private void checkIndex(int index) {
+        AbstractMatrix.checkIndex(index, elementData.length / 2);
+    }
+
+    @Override
+    public int size() {
+        return elementData.length / 2;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (o instanceof Complex c) {
+            for (int i = 0; i < elementData.length; i += 2) {
+                if (Double.compare(elementData[i], c.real()) == 0 && Double.compare(elementData[i + 1], c.imaginary()) == 0) {
+                    return i / 2;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        if (o instanceof Complex c) {
+            for (int i = elementData.length - 2; i >= 0; i -= 2) {
+                if (Double.compare(elementData[i], c.real()) == 0 && Double.compare(elementData[i + 1], c.imaginary()) == 0) {
+                    return i / 2;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public Spliterator<Complex> spliterator() {
+        return Spliterators.spliterator(this, Spliterator.IMMUTABLE | Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /**
+     * Returns a new raw array containing the real and imaginary parts of all of the elements
+     * in this array, interleaved and in proper sequence. The caller is free to modify the
+     * returned array.
+     *
+     * @return a new {@code double[]} of length {@code 2 * size()}
+     */
+    public double[] toInterleavedArray() {
+        return elementData.clone();
+    }
+
+    /**
+     * Returns a new raw array containing the real parts of all of the elements in this array,
+     * in proper sequence. The caller is free to modify the returned array.
+     *
+     * @return a new {@code double[]} with the real parts of this array
+     */
+    public double[] toRealArray() {
+        double[] real = new double[elementData.length / 2];
+        for (int i = 0; i < real.length; i++) {
+            real[i] = elementData[2 * i];
+        }
+        return real;
+    }
+
+    /**
+     * Returns a new raw array containing the imaginary parts of all of the elements in this
+     * array, in proper sequence. The caller is free to modify the returned array.
+     *
+     * @return a new {@code double[]} with the imaginary parts of this array
+     */
+    public double[] toImaginaryArray() {
+        double[] imaginary = new double[elementData.length / 2];
+        for (int i = 0; i < imaginary.length; i++) {
+            imaginary[i] = elementData[2 * i + 1];
+        }
+        return imaginary;
+    }
+
+    @Override
+    public ComplexArray subList(int fromIndex, int toIndex) {
+        int size = elementData.length / 2;
+        if (fromIndex == 0 && toIndex == size) {
+            return this;
+        }
+
+        subArrayRangeCheck(fromIndex, toIndex, size);
+        return new ComplexArray(Arrays.copyOfRange(elementData, 2 * fromIndex, 2 * toIndex), true);
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 1;
+        for (int i = 0; i < elementData.length; i += 2) {
+            hashCode = 31 * hashCode + 31 * Double.hashCode(elementData[i]) + Double.hashCode(elementData[i + 1]);
+        }
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof ComplexArray ca) {
+            return Arrays.equals(elementData, ca.elementData);
+        }
+        return super.equals(o);
+    }
+
+    /**
+     * Returns a shallow copy of this {@code ComplexArray} instance.
+     *
+     * @return a clone of this {@code ComplexArray} instance
+     */
+    @Override
+    public Object clone() {
+        try {
+            return super.clone();
+        } catch (CloneNotSupportedException e) {
+            // This shouldn't happen
+            throw new InternalError(e);
+        }
+    }
+}
@@ -0,0 +1,407 @@
+package org.viktori.matteray;
+
+import org.viktori.matteray.function.MatrixIndexFunction;
+
+import java.io.Serializable;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * Complex number matrix which implements the {@code Matrix} interface. It is immutable, and
+ * stores its elements unboxed in a single row-major {@code double[]}, with the real and
+ * imaginary part of each element interleaved, i.e. {@code [re00, im00, re01, im01, ...]}.
+ *
+ * <p>A {@link Complex} instance is created each time an element is accessed through the
+ * {@link Matrix} interface. Use {@link #getReal(int, int)} and {@link #getImaginary(int, int)}
+ * to read elements without allocating, and the complex operations in
+ * {@link org.viktori.matteray.util.MatrixUtils MatrixUtils} to compute on them.
+ * Rows and columns are returned as {@link ComplexArray ComplexArrays}.
+ * The matrix does not permit {@code null} elements.
+ *
+ * <p>The {@link #conjugateTranspose()} of a matrix is a view sharing the same elements, so it
+ * is created in constant time.
+ * <p>
+ * Due to its immutable nature, the implementation is thread safe.
+ *
+ * @author Viktor Ingemansson
+ * @see Matrix
+ * @see Complex
+ * @see ComplexArray
+ */
+public class ComplexMatrix extends AbstractMatrix<Complex> implements Cloneable, Serializable {
+
+    @java.io.Serial
+    private static final long serialVersionUID = 7411237400865911286L;
+
+    /**
+     * Shared empty matrix
+     */
+    private static final double[] EMPTY_MATRIX = new double[0];
+
+    /**
+     * Raw array to hold the interleaved real and imaginary parts
+     */
+    private final double[] elementData;
+
+    /**
+     * Row count of the matrix
+     */
+    private final int rows;
+
+    /**
+     * Column count of the matrix
+     */
+    private final int columns;
+
+    /**
+     * Distance in elements between two rows, which is {@code columns} unless this is a view
+     */
+    private final int rowStride;
+
+    /**
+     * Distance in elements between two columns, which is {@code 1} unless this is a view
+     */
+    private final int columnStride;
+
+    /**
+     * If the imaginary parts should be negated when read
+     */
+    private final boolean conjugated;
+
+    /**
+     * Constructs an immutable square complex matrix with the specified length (width and height),
+     * and function to populate values with.
+     *
+     * @param length       the row and column count the matrix (i.e its height and width)
+     * @param initFunction the function to initialize values in the matrix
+     * @throws IllegalArgumentException if the specified length is negative
+     * @throws NullPointerException     if the function returns null
+     */
+    public ComplexMatrix(int length, MatrixIndexFunction<Complex> initFunction) {
+        this(length, length, initFunction);
+    }
+
+    /**
+     * Constructs an immutable complex matrix with the specified row and column count, and
+     * function to populate values with.
+     *
+     * @param rows         row count in the matrix (i.e. its height)
+     * @param columns      column count in the matrix (i.e. its width)
+     * @param initFunction the function to initialize values in the matrix
+     * @throws IllegalArgumentException if the specified row or column count is negative,
+     *                                  or if the matrix is too large to be stored
+     * @throws NullPointerException     if the function returns null
+     */
+    public ComplexMatrix(int rows, int columns, MatrixIndexFunction<Complex> initFunction) {
+        this(initiateMatrixFromFunction(rows, columns, initFunction), true, rows, columns);
+    }
+
+    private static double[] initiateMatrixFromFunction(int rows, int columns, MatrixIndexFunction<Complex> initFunction) {
+        double[] elementData = new double[checkedLength(rows, columns)];
+        for (int r = 0, i = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                Complex value = initFunction.valueOf(r, c);
+                elementData[i++] = value.real();
+                elementData[i++] = value.imaginary();
+            }
+        }
+        return elementData;
+    }
+
+    /**
+     * Constructs an immutable complex matrix from the specified rows of real and imaginary parts.
+     *
+     * @param real      the rows of real parts
+     * @param imaginary the rows of imaginary parts
+     * @throws IllegalArgumentException if column count is not consistent across all rows,
+     *                                  or if the real and imaginary parts are of different size
+     */
+    public ComplexMatrix(double[][] real, double[][] imaginary) {
+        this(interleave(real, imaginary), true, real.length, real.length > 0 ? real[0].length : 0);
+    }
+
+    private static double[] interleave(double[][] real, double[][] imaginary) {
+        int rows = real.length;
+        int columns = rows > 0 ? real[0].length : 0;
+        if (imaginary.length != rows) {
+            throw new IllegalArgumentException("Real and imaginary parts must have equal row count, but row counts were " + rows + " and " + imaginary.length);
+        }
+        double[] elementData = new double[checkedLength(rows, columns)];
+        for (int r = 0, i = 0; r < rows; r++) {
+            if (real[r].length != columns || imaginary[r].length != columns) {
+                throw new IllegalArgumentException("Number of columns in matrix must be consistent across all rows");
+            }
+            for (int c = 0; c < columns; c++) {
+                elementData[i++] = real[r][c];
+                elementData[i++] = imaginary[r][c];
+            }
+        }
+        return elementData;
+    }
+
+    /**
+     * Constructs an immutable complex matrix containing the elements of the specified
+     * matrix, in the same positions.
+     *
+     * @param matrix the matrix whose elements are to be placed into this matrix
+     * @throws NullPointerException if the specified matrix is null, or contains null elements
+     */
+    public ComplexMatrix(Matrix<? extends Complex> matrix) {
+        this(matrix instanceof ComplexMatrix cm ? cm.toInterleavedArray() : initiateMatrixFromFunction(matrix.rows(), matrix.columns(), matrix::get),
+                true, matrix.rows(), matrix.columns());
+    }
+
+    /**
+     * Constructs an empty immutable complex matrix.
+     */
+    public ComplexMatrix() {
+        this(EMPTY_MATRIX, true, 0, 0);
+    }
+
+    /**
+     * Internal constructor to create a matrix based on a raw row-major interleaved array, which
+     * also gives you the ability to trust it. When trusted, the array will not be cloned. This can
+     * be used when we know the array cannot be modified from the outside.
+     *
+     * @param elementData the raw row-major array of interleaved real and imaginary parts to hold
+     * @param trusted if the array is trusted, it will use the array as it is without cloning it.
+     * @param rows row count to set
+     * @param columns column count to set
+     * @throws IllegalArgumentException if the array length is not {@code 2 * rows * columns}
+     */
+    protected ComplexMatrix(double[] elementData, boolean trusted, int rows, int columns) {
+        if (elementData.length != checkedLength(rows, columns)) {
+            throw new IllegalArgumentException("Illegal data length " + elementData.length + " for size: " + rows + ", " + columns);
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.rowStride = columns;
+        this.columnStride = 1;
+        this.conjugated = false;
+        if (elementData.length == 0) {
+            this.elementData = EMPTY_MATRIX;
+        } else if (trusted) {
+            this.elementData = elementData;
+        } else {
+            this.elementData = elementData.clone();
+        }
+    }
+
+    /**
+     * Internal constructor to create a view of the elements of another matrix.
+     */
+    private ComplexMatrix(double[] elementData, int rows, int columns, int rowStride, int columnStride, boolean conjugated) {
+        this.elementData = elementData;
+        this.rows = rows;
+        this.columns = columns;
+        this.rowStride = rowStride;
+        this.columnStride = columnStride;
+        this.conjugated = conjugated;
+    }
+
+    private static int checkedLength(int rows, int columns) {
+        int size = checkedSize(rows, columns);
+        if (size > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("Matrix too large: " + rows + ", " + columns);
+        }
+        return 2 * size;
+    }
+
+    /**
+     * Returns the element at the specified position in this matrix.
+     *
+     * @param rowIndex    row index of the element to return
+     * @param columnIndex column index of the element to return
+     * @return the element at the specified position in this matrix
+     * @throws ArrayIndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public Complex get(int rowIndex, int columnIndex) {
+        int i = dataIndex(rowIndex, columnIndex);
+        return Complex.of(elementData[i], conjugated ? -elementData[i + 1] : elementData[i + 1]);
+    }
+
+    /**
+     * Returns the real part of the element at the specified position in this matrix.
+     *
+     * @param rowIndex    row index of the element
+     * @param columnIndex column index of the element
+     * @return the real part of the element at the specified position in this matrix
+     * @throws ArrayIndexOutOfBoundsException if any index &lt; 0 || index &gt;= rows()/columns()
+     */
+    public double getReal(int rowIndex, int columnIndex) {
+        return elementData[dataIndex(rowIndex, columnIndex)];
+    }
+
+    /**
+     * Returns the imaginary part of the element at the specified position in this matrix.
+     *
+     * @param rowIndex    row index of the element
+     * @param columnIndex column index of the element
+     * @return the imaginary part of the element at the specified position in this matrix
+     * @throws ArrayIndexOutOfBoundsException if any index &lt; 0 || index &gt;= rows()/columns()
+     */
+    public double getImaginary(int rowIndex, int columnIndex) {
+        double imaginary = elementData[dataIndex(rowIndex, columnIndex) + 1];
+        return conjugated ? -imaginary : imaginary;
+    }
+
+    private int dataIndex(int rowIndex, int columnIndex) {
+        checkedIndex(rowIndex, columnIndex, rows, columns);
+        return 2 * (rowIndex * rowStride + columnIndex * columnStride);
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int columns() {
+        return columns;
+    }
+
+    /**
+     * Returns the conjugate transpose (Hermitian transpose) of this matrix, where the element
+     * at {@code (r, c)} is the complex conjugate of the element at {@code (c, r)} in this matrix.
+     * The returned matrix is a view which shares the elements of this matrix, so no elements
+     * are copied.
+     *
+     * @return the conjugate transpose of this matrix
+     */
+    public ComplexMatrix conjugateTranspose() {
+        return new ComplexMatrix(elementData, columns, rows, columnStride, rowStride, !conjugated);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o instanceof Complex c) {
+            for (int r = 0; r < rows; r++) {
+                for (int col = 0; col < columns; col++) {
+                    if (Double.compare(getReal(r, col), c.real()) == 0 && Double.compare(getImaginary(r, col), c.imaginary()) == 0) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Spliterator<Complex> spliterator() {
+        return Spliterators.spliterator(this, Spliterator.IMMUTABLE | Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /**
+     * Returns a new raw array containing the real and imaginary parts of all of the elements
+     * in this matrix, interleaved and flattened in row-major order. The caller is free to
+     * modify the returned array.
+     *
+     * @return a new {@code double[]} of length {@code 2 * rows() * columns()}
+     */
+    public double[] toInterleavedArray() {
+        if (rowStride == columns && columnStride == 1 && !conjugated) {
+            return elementData.clone();
+        }
+        double[] array = new double[2 * rows * columns];
+        for (int r = 0, i = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                int j = 2 * (r * rowStride + c * columnStride);
+                array[i++] = elementData[j];
+                array[i++] = conjugated ? -elementData[j + 1] : elementData[j + 1];
+            }
+        }
+        return array;
+    }
+
+    @Override
+    public ComplexMatrix subMatrix(int fromRowIndex, int toRowIndex, int fromColumnIndex, int toColumnIndex) {
+        if (fromRowIndex == 0 && toRowIndex == rows &&
+                fromColumnIndex == 0 && toColumnIndex == columns) {
+            return this;
+        }
+
+        subMatrixRangeCheck(fromRowIndex, toRowIndex, rows);
+        subMatrixRangeCheck(fromColumnIndex, toColumnIndex, columns);
+
+        int rows = toRowIndex - fromRowIndex;
+        int columns = toColumnIndex - fromColumnIndex;
+        double[] elementData = new double[2 * rows * columns];
+        for (int r = fromRowIndex, i = 0; r < toRowIndex; r++) {
+            for (int c = fromColumnIndex; c < toColumnIndex; c++) {
+                elementData[i++] = getReal(r, c);
+                elementData[i++] = getImaginary(r, c);
+            }
+        }
+        return new ComplexMatrix(elementData, true, rows, columns);
+    }
+
+    @Override
+    public ComplexArray row(int rowIndex) {
+        checkIndex(rowIndex, rows);
+        double[] row = new double[2 * columns];
+        for (int c = 0, i = 0; c < columns; c++) {
+            row[i++] = getReal(rowIndex, c);
+            row[i++] = getImaginary(rowIndex, c);
+        }
+        return new ComplexArray(row, true);
+    }
+
+    @Override
+    public ComplexArray column(int columnIndex) {
+        checkIndex(columnIndex, columns);
+        double[] column = new double[2 * rows];
+        for (int r = 0, i = 0; r < rows; r++) {
+            column[i++] = getReal(r, columnIndex);
+            column[i++] = getImaginary(r, columnIndex);
+        }
+        return new ComplexArray(column, true);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (int r = 0; r < rows; r++) {
+            int rowHash = 1;
+            for (int c = 0; c < columns; c++) {
+                rowHash = 31 * rowHash + 31 * Double.hashCode(getReal(r, c)) + Double.hashCode(getImaginary(r, c));
+            }
+            result = 31 * result + rowHash;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof ComplexMatrix cm) {
+            if (rows != cm.rows || columns != cm.columns) {
+                return false;
+            }
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < columns; c++) {
+                    if (Double.compare(getReal(r, c), cm.getReal(r, c)) != 0 ||
+                            Double.compare(getImaginary(r, c), cm.getImaginary(r, c)) != 0) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return super.equals(o);
+    }
+
+    /**
+     * Returns a shallow copy of this {@code ComplexMatrix} instance.
+     *
+     * @return a clone of this {@code ComplexMatrix} instance
+     */
+    @Override
+    public Object clone() {
+        try {
+            return super.clone();
+        } catch (CloneNotSupportedException e) {
+            // This shouldn't happen
+            throw new InternalError(e);
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package org.viktori.matteray;
+
+import org.viktori.matteray.function.DoubleMatrixIndexFunction;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * Primitive {@code double} matrix which implements the {@code Matrix} interface. It is
+ * immutable, and stores its elements unboxed in a single row-major {@code double[]}, which uses a
+ * fraction of the memory of an {@link ImmutableMatrix} holding boxed {@link Double} values.
+ *
+ * <p>Elements are boxed when accessed through the {@link Matrix} interface. Use
+ * {@link #getDouble(int, int)} or {@link #toDoubleArray()} to access them without boxing.
+ * Rows and columns are returned as {@link DoubleArray DoubleArrays}.
+ * The matrix does not permit {@code null} elements.
+ * <p>
+ * Due to its immutable nature, the implementation is thread safe.
+ *
+ * @author Viktor Ingemansson
+ * @see Matrix
+ * @see DoubleArray
+ */
+public class DoubleMatrix extends AbstractMatrix<Double> implements Cloneable, Serializable {
+
+    @java.io.Serial
+    private static final long serialVersionUID = 6033075112491920446L;
+
+    /**
+     * Shared empty matrix
+     */
+    private static final double[] EMPTY_MATRIX = new double[0];
+
+    /**
+     * Raw row-major array to hold elements
+     */
+    private final double[] elementData;
+
+    /**
+     * Row count of the matrix
+     */
+    private final int rows;
+
+    /**
+     * Column count of the matrix
+     */
+    private final int columns;
+
+    /**
+     * Constructs an immutable square double matrix with the specified length (width and height),
+     * and function to populate values with.
+     *
+     * @param length       the row and column count the matrix (i.e its height and width)
+     * @param initFunction the function to initialize values in the matrix
+     * @throws IllegalArgumentException if the specified length is negative
+     */
+    public DoubleMatrix(int length, DoubleMatrixIndexFunction initFunction) {
+        this(length, length, initFunction);
+    }
+
+    /**
+     * Constructs an immutable double matrix with the specified row and column count, and function
+     * to populate values with.
+     *
+     * @param rows         row count in the matrix (i.e. its height)
+     * @param columns      column count in the matrix (i.e. its width)
+     * @param initFunction the function to initialize values in the matrix
+     * @throws IllegalArgumentException if the specified row or column count is negative,
+     *                                  or if the matrix is too large to be stored
+     */
+    public DoubleMatrix(int rows, int columns, DoubleMatrixIndexFunction initFunction) {
+        this(initiateMatrixFromFunction(rows, columns, initFunction), true, rows, columns);
+    }
+
+    private static double[] initiateMatrixFromFunction(int rows, int columns, DoubleMatrixIndexFunction initFunction) {
+        double[] elementData = new double[checkedSize(rows, columns)];
+        for (int r = 0, i = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++, i++) {
+                elementData[i] = initFunction.valueOf(r, c);
+            }
+        }
+        return elementData;
+    }
+
+    /**
+     * Constructs an immutable double matrix based on the specified rows.
+     * Note that the rows are copied internally to guarantee immutability.
+     *
+     * @param elementData the raw rows of data to hold
+     * @throws IllegalArgumentException if column count is not consistent across all rows
+     */
+    public DoubleMatrix(double[]... elementData) {
+        this(flatten(elementData), true, elementData.length, elementData.length > 0 ? elementData[0].length : 0);
+    }
+
+    private static double[] flatten(double[][] elementData) {
+        int columns = elementData.length > 0 ? elementData[0].length : 0;
+        double[] flattened = new double[checkedSize(elementData.length, columns)];
+        for (int r = 0; r < elementData.length; r++) {
+            if (elementData[r].length != columns) {
+                throw new IllegalArgumentException("Number of columns in matrix must be consistent across all rows");
+            }
+            System.arraycopy(elementData[r], 0, flattened, r * columns, columns);
+        }
+        return flattened;
+    }
+
+    /**
+     * Constructs an immutable double matrix containing the elements of the specified
+     * matrix, in the same positions. Each element is converted with {@link Number#doubleValue()}.
+     *
+     * @param matrix the matrix whose elements are to be placed into this matrix
+     * @throws NullPointerException if the specified matrix is null, or contains null elements
+     */
+    public DoubleMatrix(Matrix<? extends Number> matrix) {
+        this(matrix instanceof DoubleMatrix dm ? dm.elementData : toDoubles(matrix), true, matrix.rows(), matrix.columns());
+    }
+
+    private static double[] toDoubles(Matrix<? extends Number> matrix) {
+        if (matrix instanceof SparseDoubleMatrix sm) {
+            return sm.toDoubleArray();
+        }
+        int rows = matrix.rows();
+        int columns = matrix.columns();
+        double[] elementData = new double[checkedSize(rows, columns)];
+        for (int r = 0, i = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++, i++) {
+                elementData[i] = matrix.get(r, c).doubleValue();
+            }
+        }
+        return elementData;
+    }
+
+    /**
+     * Constructs an empty immutable double matrix.
+     */
+    public DoubleMatrix() {
+        this(EMPTY_MATRIX, true, 0, 0);
+    }
+
+    /**
+     * Internal constructor to create a matrix based on a raw row-major array, which also gives you
+     * the ability to trust it. When trusted, the array will not be cloned. This can be used when we
+     * know the array cannot be modified from the outside.
+     *
+     * @param elementData the raw row-major array of data to hold
+     * @param trusted if the array is trusted, it will use the array as it is without cloning it.
+     * @param rows row count to set
+     * @param columns column count to set
+     * @throws IllegalArgumentException if the array length is not {@code rows * columns}
+     */
+    protected DoubleMatrix(double[] elementData, boolean trusted, int rows, int columns) {
+        if (elementData.length != checkedSize(rows, columns)) {
+            throw new IllegalArgumentException("Illegal data length " + elementData.length + " for size: " + rows + ", " + columns);
+        }
+        this.rows = rows;
+        this.columns = columns;
+        if (elementData.length == 0) {
+            this.elementData = EMPTY_MATRIX;
+        } else if (trusted) {
+            this.elementData = elementData;
+        } else {
+            this.elementData = elementData.clone();
+        }
+    }
+
+    /**
+     * Returns the element at the specified position in this matrix.
+     *
+     * @param rowIndex    row index of the element to return
+     * @param columnIndex column index of the element to return
+     * @return the element at the specified position in this matrix
+     * @throws ArrayIndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public Double get(int rowIndex, int columnIndex) {
+        return getDouble(rowIndex, columnIndex);
+    }
+
+    /**
+     * Returns the element at the specified position in this matrix, without boxing it.
+     *
+     * @param rowIndex    row index of the element to return
+     * @param columnIndex column index of the element to return
+     * @return the element at the specified position in this matrix
+     * @throws ArrayIndexOutOfBoundsException if any index &lt; 0 || index &gt;= rows()/columns()
+     */
+    public double getDouble(int rowIndex, int columnIndex) {
+        return elementData[checkedIndex(rowIndex, columnIndex, rows, columns)];
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int columns() {
+        return columns;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o instanceof Double d) {
+            double value = d;
+            for (double e : elementData) {
+                if (Double.compare(e, value) == 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Spliterator<Double> spliterator() {
+        return Spliterators.spliterator(this, Spliterator.IMMUTABLE | Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /**
+     * Returns a new raw array containing all of the elements in this matrix, flattened in
+     * row-major order. The caller is free to modify the returned array.
+     *
+     * @return a new {@code double[]} of length {@code rows() * columns()}
+     */
+    public double[] toDoubleArray() {
+        return elementData.clone();
+    }
+
+    @Override
+    public DoubleMatrix subMatrix(int fromRowIndex, int toRowIndex, int fromColumnIndex, int toColumnIndex) {
+        if (fromRowIndex == 0 && toRowIndex == rows &&
+                fromColumnIndex == 0 && toColumnIndex == columns) {
+            return this;
+        }
+
+        subMatrixRangeCheck(fromRowIndex, toRowIndex, rows);
+        subMatrixRangeCheck(fromColumnIndex, toColumnIndex, columns);
+
+        int rows = toRowIndex - fromRowIndex;
+        int columns = toColumnIndex - fromColumnIndex;
+        double[] elementData = new double[rows * columns];
+        for (int i = 0, r = fromRowIndex; r < toRowIndex; i++, r++) {
+            System.arraycopy(this.elementData, r * this.columns + fromColumnIndex, elementData, i * columns, columns);
+        }
+        return new DoubleMatrix(elementData, true, rows, columns);
+    }
+
+    @Override
+    public DoubleArray row(int rowIndex) {
+        checkIndex(rowIndex, rows);
+        int from = rowIndex * columns;
+        return new DoubleArray(Arrays.copyOfRange(elementData, from, from + columns), true);
+    }
+
+    @Override
+    public DoubleArray column(int columnIndex) {
+        checkIndex(columnIndex, columns);
+        double[] column = new double[rows];
+        for (int r = 0, i = columnIndex; r < rows; r++, i += columns) {
+            column[r] = elementData[i];
+        }
+        return new DoubleArray(column, true);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (int r = 0, i = 0; r < rows; r++) {
+            int rowHash = 1;
+            for (int c = 0; c < columns; c++, i++) {
+                rowHash = 31 * rowHash + Double.hashCode(elementData[i]);
+            }
+            result = 31 * result + rowHash;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof DoubleMatrix dm) {
+            return rows == dm.rows && columns == dm.columns && Arrays.equals(elementData, dm.elementData);
+        }
+        return super.equals(o);
+    }
+
+    /**
+     * Returns a shallow copy of this {@code DoubleMatrix} instance.
+     *
+     * @return a clone of this {@code DoubleMatrix} instance
+     */
+    @Override
+    public Object clone() {
+        try {
+            return super.clone();
+        } catch (CloneNotSupportedException e) {
+            // This shouldn't happen
+            throw new InternalError(e);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package org.viktori.matteray;
+
+import java.util.Arrays;
+
+/**
+ * Primitive {@code double} tensor which implements the {@code Tensor} interface. It is
+ * immutable, and stores its elements unboxed in a single flat {@code double[]}. Slices, sub
+ * tensors, permutations and reshapes of a contiguous tensor are views sharing that array.
+ *
+ * <p>Elements are boxed when accessed through the {@link Tensor} interface. Use
+ * {@link #getDouble(int...)} or {@link #toDoubleArray()} to access them without boxing.
+ * The tensor does not permit {@code null} elements.
+ * <p>
+ * Due to its immutable nature, the implementation is thread safe, and views can be
+ * shared freely.
+ *
+ * @author Viktor Ingemansson
+ * @see Tensor
+ * @see ImmutableTensor
+ */
+public class DoubleTensor extends AbstractTensor<Double> {
+
+    @java.io.Serial
+    private static final long serialVersionUID = -1578300930472938317L;
+
+    /**
+     * Raw flat array to hold elements
+     */
+    private final double[] elementData;
+
+    /**
+     * Constructs an immutable double tensor of the specified shape, containing the specified
+     * elements in row-major order. Note that the array is copied internally to guarantee
+     * immutability.
+     *
+     * @param elementData the elements, in row-major order
+     * @param shape       the shape of the tensor
+     * @throws IllegalArgumentException if the number of elements does not match the shape
+     */
+    public DoubleTensor(double[] elementData, int... shape) {
+        this(checkedLength(elementData.clone(), shape), shape.clone(), rowMajorStrides(shape), 0);
+    }
+
+    /**
+     * Constructs an immutable double tensor with the same shape and elements as the specified
+     * tensor. Each element is converted with {@link Number#doubleValue()}.
+     *
+     * @param tensor the tensor whose elements are to be placed into this tensor
+     * @throws NullPointerException if the specified tensor is null, or contains null elements
+     */
+    public DoubleTensor(Tensor<? extends Number> tensor) {
+        this(toDoubles(tensor), tensor.shape(), rowMajorStrides(tensor.shape()), 0);
+    }
+
+    private static double[] toDoubles(Tensor<? extends Number> tensor) {
+        if (tensor instanceof DoubleTensor dt) {
+            return dt.toDoubleArray();
+        }
+        double[] elementData = new double[tensor.size()];
+        int i = 0;
+        for (Number number : tensor) {
+            elementData[i++] = number.doubleValue();
+        }
+        return elementData;
+    }
+
+    private static double[] checkedLength(double[] elementData, int[] shape) {
+        int size = checkedSize(shape);
+        if (elementData.length != size) {
+            throw new IllegalArgumentException("Illegal data length " + elementData.length + " for shape of size " + size);
+        }
+        return elementData;
+    }
+
+    /**
+     * Internal constructor to create a tensor, or a view of a tensor, based on a trusted
+     * flat array. The array will not be cloned, so it must not be modified from the outside.
+     *
+     * @param elementData the raw flat array holding the elements
+     * @param shape       length of each axis
+     * @param strides     strides of each axis
+     * @param offset      position in the array of the first element
+     */
+    protected DoubleTensor(double[] elementData, int[] shape, int[] strides, int offset) {
+        super(shape, strides, offset);
+        this.elementData = elementData;
+    }
+
+    /**
+     * Get the element at a given position in this tensor, without boxing it.
+     *
+     * @param indices the indices of the element to be returned, one for each axis
+     * @return the element at the given position in this tensor
+     * @throws IllegalArgumentException       if the number of indices is not equal to the rank
+     * @throws ArrayIndexOutOfBoundsException if any index is out of range
+     */
+    public double getDouble(int... indices) {
+        return elementData[offsetOf(indices)];
+    }
+
+    /**
+     * Returns a new raw array containing all of the elements in this tensor, flattened in
+     * row-major order. The caller is free to modify the returned array.
+     *
+     * @return a new {@code double[]} of length {@code size()}
+     */
+    public double[] toDoubleArray() {
+        if (isContiguous()) {
+            int offset = offset();
+            return Arrays.copyOfRange(elementData, offset, offset + size());
+        }
+        double[] array = new double[size()];
+        int[] i = {0};
+        forEachOffset(p -> array[i[0]++] = elementData[p]);
+        return array;
+    }
+
+    @Override
+    protected Double elementAt(int offset) {
+        return elementData[offset];
+    }
+
+    @Override
+    protected DoubleTensor view(int[] shape, int[] strides, int offset) {
+        return new DoubleTensor(elementData, shape, strides, offset);
+    }
+
+    @Override
+    protected DoubleTensor copy() {
+        return new DoubleTensor(toDoubleArray(), shape(), rowMajorStrides(shape()), 0);
+    }
+
+    @Override
+    public DoubleTensor slice(int axis, int index) {
+        return (DoubleTensor) super.slice(axis, index);
+    }
+
+    @Override
+    public DoubleTensor subTensor(int axis, int fromIndex, int toIndex) {
+        return (DoubleTensor) super.subTensor(axis, fromIndex, toIndex);
+    }
+
+    @Override
+    public DoubleTensor permute(int... axes) {
+        return (DoubleTensor) super.permute(axes);
+    }
+
+    @Override
+    public DoubleTensor reshape(int... shape) {
+        return (DoubleTensor) super.reshape(shape);
+    }
+}
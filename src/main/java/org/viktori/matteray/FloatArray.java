@@ -0,0 +1,244 @@
+package org.viktori.matteray;
+
+import org.viktori.matteray.function.FloatArrayIndexFunction;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * Primitive {@code float} array wrapper which implements the {@code Array} interface. It is
+ * immutable, and stores its elements unboxed in a single {@code float[]}, which uses a fraction of
+ * the memory of an {@link ImmutableArray} holding boxed {@link Float} values.
+ *
+ * <p>Elements are boxed when accessed through the {@link Array} interface. Use
+ * {@link #getFloat(int)} or {@link #toFloatArray()} to access them without boxing.
+ * The array does not permit {@code null} elements.
+ *
+ * <p>The {@code size}, {@code isEmpty}, {@code get}, {@code getFloat},
+ * {@code iterator}, and {@code listIterator} operations run in constant
+ * time.
+ * <p>
+ * Due to its immutable nature, the implementation is thread safe.
+ *
+ * @author Viktor Ingemansson
+ * @see Array
+ * @see FloatMatrix
+ * @see HalfFloatArray
+ */
+public class FloatArray extends AbstractArray<Float> implements Cloneable, Serializable {
+
+    @java.io.Serial
+    private static final long serialVersionUID = 3170985420126735201L;
+
+    /**
+     * Shared empty array
+     */
+    private static final float[] EMPTY_ARRAY = new float[0];
+
+    /**
+     * Raw array to hold the elements
+     */
+    private final float[] elementData;
+
+    /**
+     * Constructs an immutable float array with the specified length, and function
+     * to populate values with.
+     *
+     * @param length       the length of the array
+     * @param initFunction the function to initialize values in the array
+     * @throws IllegalArgumentException if the specified length is negative
+     */
+    public FloatArray(int length, FloatArrayIndexFunction initFunction) {
+        this(initiateArrayFromFunction(length, initFunction), true);
+    }
+
+    private static float[] initiateArrayFromFunction(int length, FloatArrayIndexFunction initFunction) {
+        if (length > 0) {
+            float[] elementData = new float[length];
+            for (int i = 0; i < length; i++) {
+                elementData[i] = initFunction.valueOf(i);
+            }
+            return elementData;
+        } else if (length == 0) {
+            return EMPTY_ARRAY;
+        } else {
+            throw new IllegalArgumentException("Illegal Length: " + length);
+        }
+    }
+
+    /**
+     * Constructs an immutable float array based on the specified arguments.
+     * Note that the array is copied internally to guarantee immutability.
+     *
+     * @param elementData the raw array of data to hold
+     */
+    public FloatArray(float... elementData) {
+        this(elementData, false);
+    }
+
+    /**
+     * Constructs an immutable float array containing the elements of the specified
+     * collection, in the order they are returned by the collection's iterator.
+     * Each element is converted with {@link Number#floatValue()}.
+     *
+     * @param collection the collection whose elements are to be placed into this array
+     * @throws NullPointerException if the specified collection is null, or contains null elements
+     */
+    public FloatArray(Collection<? extends Number> collection) {
+        this(collection instanceof FloatArray fa ? fa.elementData : toFloats(collection), true);
+    }
+
+    private static float[] toFloats(Collection<? extends Number> collection) {
+        float[] elementData = new float[collection.size()];
+        int i = 0;
+        for (Number number : collection) {
+            elementData[i++] = number.floatValue();
+        }
+        return elementData;
+    }
+
+    /**
+     * Internal constructor to create an empty array.
+     */
+    protected FloatArray() {
+        this.elementData = EMPTY_ARRAY;
+    }
+
+    /**
+     * Internal constructor to create an array based on a raw array, which also gives you
+     * the ability to trust it. When trusted, the array will not be cloned. This can be used when we
+     * know the array cannot be modified from the outside.
+     *
+     * @param elementData the raw array of data to hold
+     * @param trusted if the array is trusted, it will use the array as it is without cloning it.
+     */
+    protected FloatArray(float[] elementData, boolean trusted) {
+        if (elementData.length == 0) {
+            this.elementData = EMPTY_ARRAY;
+        } else if (trusted) {
+            this.elementData = elementData;
+        } else {
+            this.elementData = elementData.clone();
+        }
+    }
+
+    /**
+     * Returns the element at the specified position in this array.
+     *
+     * @param index index of the element to return
+     * @return the element at the specified position in this array
+     * @throws ArrayIndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public Float get(int index) {
+        return elementData[index];
+    }
+
+    /**
+     * Returns the element at the specified position in this array, without boxing it.
+     *
+     * @param index index of the element to return
+     * @return the element at the specified position in this array
+     * @throws ArrayIndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public float getFloat(int index) {
+        return elementData[index];
+    }
+
+    @Override
+    public int size() {
+        return elementData.length;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (o instanceof Float f) {
+            float value = f;
+            for (int i = 0; i < elementData.length; i++) {
+                if (Float.compare(elementData[i], value) == 0) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        if (o instanceof Float f) {
+            float value = f;
+            for (int i = elementData.length - 1; i >= 0; i--) {
+                if (Float.compare(elementData[i], value) == 0) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public Spliterator<Float> spliterator() {
+        return Spliterators.spliterator(this, Spliterator.IMMUTABLE | Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /**
+     * Returns a new raw array containing all of the elements in this array, in proper sequence.
+     * The caller is free to modify the returned array.
+     *
+     * @return a new {@code float[]} with the elements of this array
+     */
+    public float[] toFloatArray() {
+        return elementData.clone();
+    }
+
+    @Override
+    public FloatArray subList(int fromIndex, int toIndex) {
+        if (fromIndex == 0 && toIndex == elementData.length) {
+            return this;
+        }
+
+        subArrayRangeCheck(fromIndex, toIndex, elementData.length);
+        return new FloatArray(Arrays.copyOfRange(elementData, fromIndex, toIndex), true);
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 1;
+        for (float e : elementData) {
+            hashCode = 31 * hashCode + Float.hashCode(e);
+        }
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof FloatArray fa) {
+            return Arrays.equals(elementData, fa.elementData);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(elementData);
+    }
+
+    /**
+     * Returns a shallow copy of this {@code FloatArray} instance.
+     *
+     * @return a clone of this {@code FloatArray} instance
+     */
+    @Override
+    public Object clone() {
+        try {
+            return super.clone();
+        } catch (CloneNotSupportedException e) {
+            // This shouldn't happen
+            throw new InternalError(e);
+        }
+    }
+}
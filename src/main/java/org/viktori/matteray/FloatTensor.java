@@ -0,0 +1,152 @@
+package org.viktori.matteray;
+
+import java.util.Arrays;
+
+/**
+ * Primitive {@code float} tensor which implements the {@code Tensor} interface. It is
+ * immutable, and stores its elements unboxed in a single flat {@code float[]}. Slices, sub
+ * tensors, permutations and reshapes of a contiguous tensor are views sharing that array.
+ *
+ * <p>Elements are boxed when accessed through the {@link Tensor} interface. Use
+ * {@link #getFloat(int...)} or {@link #toFloatArray()} to access them without boxing.
+ * The tensor does not permit {@code null} elements.
+ * <p>
+ * Due to its immutable nature, the implementation is thread safe, and views can be
+ * shared freely.
+ *
+ * @author Viktor Ingemansson
+ * @see Tensor
+ * @see ImmutableTensor
+ */
+public class FloatTensor extends AbstractTensor<Float> {
+
+    @java.io.Serial
+    private static final long serialVersionUID = 7728310215337049820L;
+
+    /**
+     * Raw flat array to hold elements
+     */
+    private final float[] elementData;
+
+    /**
+     * Constructs an immutable float tensor of the specified shape, containing the specified
+     * elements in row-major order. Note that the array is copied internally to guarantee
+     * immutability.
+     *
+     * @param elementData the elements, in row-major order
+     * @param shape       the shape of the tensor
+     * @throws IllegalArgumentException if the number of elements does not match the shape
+     */
+    public FloatTensor(float[] elementData, int... shape) {
+        this(checkedLength(elementData.clone(), shape), shape.clone(), rowMajorStrides(shape), 0);
+    }
+
+    /**
+     * Constructs an immutable float tensor with the same shape and elements as the specified
+     * tensor. Each element is converted with {@link Number#floatValue()}.
+     *
+     * @param tensor the tensor whose elements are to be placed into this tensor
+     * @throws NullPointerException if the specified tensor is null, or contains null elements
+     */
+    public FloatTensor(Tensor<? extends Number> tensor) {
+        this(toFloats(tensor), tensor.shape(), rowMajorStrides(tensor.shape()), 0);
+    }
+
+    private static float[] toFloats(Tensor<? extends Number> tensor) {
+        if (tensor instanceof FloatTensor dt) {
+            return dt.toFloatArray();
+        }
+        float[] elementData = new float[tensor.size()];
+        int i = 0;
+        for (Number number : tensor) {
+            elementData[i++] = number.floatValue();
+        }
+        return elementData;
+    }
+
+    private static float[] checkedLength(float[] elementData, int[] shape) {
+        int size = checkedSize(shape);
+        if (elementData.length != size) {
+            throw new IllegalArgumentException("Illegal data length " + elementData.length + " for shape of size " + size);
+        }
+        return elementData;
+    }
+
+    /**
+     * Internal constructor to create a tensor, or a view of a tensor, based on a trusted
+     * flat array. The array will not be cloned, so it must not be modified from the outside.
+     *
+     * @param elementData the raw flat array holding the elements
+     * @param shape       length of each axis
+     * @param strides     strides of each axis
+     * @param offset      position in the array of the first element
+     */
+    protected FloatTensor(float[] elementData, int[] shape, int[] strides, int offset) {
+        super(shape, strides, offset);
+        this.elementData = elementData;
+    }
+
+    /**
+     * Get the element at a given position in this tensor, without boxing it.
+     *
+     * @param indices the indices of the element to be returned, one for each axis
+     * @return the element at the given position in this tensor
+     * @throws IllegalArgumentException       if the number of indices is not equal to the rank
+     * @throws ArrayIndexOutOfBoundsException if any index is out of range
+     */
+    public float getFloat(int... indices) {
+        return elementData[offsetOf(indices)];
+    }
+
+    /**
+     * Returns a new raw array containing all of the elements in this tensor, flattened in
+     * row-major order. The caller is free to modify the returned array.
+     *
+     * @return a new {@code float[]} of length {@code size()}
+     */
+    public float[] toFloatArray() {
+        if (isContiguous()) {
+            int offset = offset();
+            return Arrays.copyOfRange(elementData, offset, offset + size());
+        }
+        float[] array = new float[size()];
+        int[] i = {0};
+        forEachOffset(p -> array[i[0]++] = elementData[p]);
+        return array;
+    }
+
+    @Override
+    protected Float elementAt(int offset) {
+        return elementData[offset];
+    }
+
+    @Override
+    protected FloatTensor view(int[] shape, int[] strides, int offset) {
+        return new FloatTensor(elementData, shape, strides, offset);
+    }
+
+    @Override
+    protected FloatTensor copy() {
+        return new FloatTensor(toFloatArray(), shape(), rowMajorStrides(shape()), 0);
+    }
+
+    @Override
+    public FloatTensor slice(int axis, int index) {
+        return (FloatTensor) super.slice(axis, index);
+    }
+
+    @Override
+    public FloatTensor subTensor(int axis, int fromIndex, int toIndex) {
+        return (FloatTensor) super.subTensor(axis, fromIndex, toIndex);
+    }
+
+    @Override
+    public FloatTensor permute(int... axes) {
+        return (FloatTensor) super.permute(axes);
+    }
+
+    @Override
+    public FloatTensor reshape(int... shape) {
+        return (FloatTensor) super.reshape(shape);
+    }
+}
@@ -0,0 +1,244 @@
+package org.viktori.matteray;
+
+import org.viktori.matteray.function.FloatArrayIndexFunction;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * Compact {@code float} array which implements the {@code Array} interface, and stores
+ * its elements in IEEE 754 half-precision (binary16), using two bytes per element. It is
+ * immutable, and suitable for large amounts of data that tolerates reduced precision.
+ *
+ * <p>Elements are rounded to the nearest half-precision value when the array is created,
+ * and are widened back to {@code float} (exactly) when read. Half-precision has 11 bits of
+ * precision, and a range of about &plusmn;65504; larger values are stored as infinity.
+ * Use {@link #getFloat(int)} or {@link #getDouble(int)} to read elements without boxing.
+ * The array does not permit {@code null} elements.
+ *
+ * <p>The {@code size}, {@code isEmpty}, {@code get}, {@code getFloat},
+ * {@code iterator}, and {@code listIterator} operations run in constant
+ * time.
+ * <p>
+ * Due to its immutable nature, the implementation is thread safe.
+ *
+ * @author Viktor Ingemansson
+ * @see Array
+ * @see FloatArray
+ * @see HalfFloatMatrix
+ */
+public class HalfFloatArray extends AbstractArray<Float> implements Cloneable, Serializable {
+
+    @java.io.Serial
+    private static final long serialVersionUID = -4470115082217305946L;
+
+    /**
+     * Shared empty array
+     */
+    private static final short[] EMPTY_ARRAY = new short[0];
+
+    /**
+     * Raw array to hold the half-precision bits of the elements
+     */
+    private final short[] elementData;
+
+    /**
+     * Constructs an immutable half-precision array with the specified length, and function
+     * to populate values with.
+     *
+     * @param length       the length of the array
+     * @param initFunction the function to initialize values in the array
+     * @throws IllegalArgumentException if the specified length is negative
+     */
+    public HalfFloatArray(int length, FloatArrayIndexFunction initFunction) {
+        this(initiateArrayFromFunction(length, initFunction));
+    }
+
+    private static short[] initiateArrayFromFunction(int length, FloatArrayIndexFunction initFunction) {
+        if (length > 0) {
+            short[] elementData = new short[length];
+            for (int i = 0; i < length; i++) {
+                elementData[i] = HalfFloats.fromFloat(initFunction.valueOf(i));
+            }
+            return elementData;
+        } else if (length == 0) {
+            return EMPTY_ARRAY;
+        } else {
+            throw new IllegalArgumentException("Illegal Length: " + length);
+        }
+    }
+
+    /**
+     * Constructs an immutable half-precision array based on the specified arguments.
+     *
+     * @param elementData the raw array of data to hold
+     */
+    public HalfFloatArray(float... elementData) {
+        this(elementData.length, i -> elementData[i]);
+    }
+
+    /**
+     * Constructs an immutable half-precision array containing the elements of the specified
+     * collection, in the order they are returned by the collection's iterator.
+     * Each element is converted with {@link Number#floatValue()}.
+     *
+     * @param collection the collection whose elements are to be placed into this array
+     * @throws NullPointerException if the specified collection is null, or contains null elements
+     */
+    public HalfFloatArray(Collection<? extends Number> collection) {
+        this(collection instanceof HalfFloatArray ha ? ha.elementData : toHalfFloats(collection));
+    }
+
+    private static short[] toHalfFloats(Collection<? extends Number> collection) {
+        short[] elementData = new short[collection.size()];
+        int i = 0;
+        for (Number number : collection) {
+            elementData[i++] = HalfFloats.fromFloat(number.floatValue());
+        }
+        return elementData;
+    }
+
+    /**
+     * Internal constructor to create an empty array.
+     */
+    protected HalfFloatArray() {
+        this.elementData = EMPTY_ARRAY;
+    }
+
+    /**
+     * Internal constructor to create an array based on raw half-precision bits. The array is
+     * trusted and will not be cloned, so it must not be modified from the outside.
+     *
+     * @param elementData the raw half-precision bits to hold
+     */
+    private HalfFloatArray(short[] elementData) {
+        this.elementData = elementData.length == 0 ? EMPTY_ARRAY : elementData;
+    }
+
+    /**
+     * Returns the element at the specified position in this array.
+     *
+     * @param index index of the element to return
+     * @return the element at the specified position in this array
+     * @throws ArrayIndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public Float get(int index) {
+        return HalfFloats.toFloat(elementData[index]);
+    }
+
+    /**
+     * Returns the element at the specified position in this array, widened to {@code float}.
+     *
+     * @param index index of the element to return
+     * @return the element at the specified position in this array
+     * @throws ArrayIndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public float getFloat(int index) {
+        return HalfFloats.toFloat(elementData[index]);
+    }
+
+    /**
+     * Returns the element at the specified position in this array, widened to {@code double}.
+     *
+     * @param index index of the element to return
+     * @return the element at the specified position in this array
+     * @throws ArrayIndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public double getDouble(int index) {
+        return HalfFloats.toFloat(elementData[index]);
+    }
+
+    @Override
+    public int size() {
+        return elementData.length;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (o instanceof Float f) {
+            float value = f;
+            for (int i = 0; i < elementData.length; i++) {
+                if (Float.compare(HalfFloats.toFloat(elementData[i]), value) == 0) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        if (o instanceof Float f) {
+            float value = f;
+            for (int i = elementData.length - 1; i >= 0; i--) {
+                if (Float.compare(HalfFloats.toFloat(elementData[i]), value) == 0) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public Spliterator<Float> spliterator() {
+        return Spliterators.spliterator(this, Spliterator.IMMUTABLE | Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /**
+     * Returns a new raw array containing all of the elements in this array widened
+     * to {@code float}, in proper sequence. The caller is free to modify the returned array.
+     *
+     * @return a new {@code float[]} with the elements of this array
+     */
+    public float[] toFloatArray() {
+        float[] array = new float[elementData.length];
+        for (int i = 0; i < elementData.length; i++) {
+            array[i] = HalfFloats.toFloat(elementData[i]);
+        }
+        return array;
+    }
+
+    @Override
+    public HalfFloatArray subList(int fromIndex, int toIndex) {
+        if (fromIndex == 0 && toIndex == elementData.length) {
+            return this;
+        }
+
+        subArrayRangeCheck(fromIndex, toIndex, elementData.length);
+        return new HalfFloatArray(Arrays.copyOfRange(elementData, fromIndex, toIndex));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof HalfFloatArray ha) {
+            return Arrays.equals(elementData, ha.elementData) || super.equals(o);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toFloatArray());
+    }
+
+    /**
+     * Returns a shallow copy of this {@code HalfFloatArray} instance.
+     *
+     * @return a clone of this {@code HalfFloatArray} instance
+     */
+    @Override
+    public Object clone() {
+        try {
+            return super.clone();
+        } catch (CloneNotSupportedException e) {
+            // This shouldn't happen
+            throw new InternalError(e);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package org.viktori.matteray;
+
+import org.viktori.matteray.function.FloatMatrixIndexFunction;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * Compact {@code float} matrix which implements the {@code Matrix} interface, and stores its
+ * elements in IEEE 754 half-precision (binary16), using two bytes per element in a single
+ * row-major {@code short[]}. It is immutable, and suitable for large matrices that tolerate
+ * reduced precision, such as model weights or heatmaps.
+ *
+ * <p>Elements are rounded to the nearest half-precision value when the matrix is created,
+ * and are widened back to {@code float} (exactly) when read. Half-precision has 11 bits of
+ * precision, and a range of about &plusmn;65504; larger values are stored as infinity.
+ * Use {@link #getFloat(int, int)} or {@link #getDouble(int, int)} to read elements without
+ * boxing. Rows and columns are returned as {@link HalfFloatArray HalfFloatArrays}.
+ * The matrix does not permit {@code null} elements.
+ * <p>
+ * Due to its immutable nature, the implementation is thread safe.
+ *
+ * @author Viktor Ingemansson
+ * @see Matrix
+ * @see FloatMatrix
+ * @see HalfFloatArray
+ */
+public class HalfFloatMatrix extends AbstractMatrix<Float> implements Cloneable, Serializable {
+
+    @java.io.Serial
+    private static final long serialVersionUID = 8394225108561342787L;
+
+    /**
+     * Shared empty matrix
+     */
+    private static final short[] EMPTY_MATRIX = new short[0];
+
+    /**
+     * Raw row-major array to hold the half-precision bits of the elements
+     */
+    private final short[] elementData;
+
+    /**
+     * Row count of the matrix
+     */
+    private final int rows;
+
+    /**
+     * Column count of the matrix
+     */
+    private final int columns;
+
+    /**
+     * Constructs an immutable square half-precision matrix with the specified length (width and height),
+     * and function to populate values with.
+     *
+     * @param length       the row and column count the matrix (i.e its height and width)
+     * @param initFunction the function to initialize values in the matrix
+     * @throws IllegalArgumentException if the specified length is negative
+     */
+    public HalfFloatMatrix(int length, FloatMatrixIndexFunction initFunction) {
+        this(length, length, initFunction);
+    }
+
+    /**
+     * Constructs an immutable half-precision matrix with the specified row and column count, and function
+     * to populate values with.
+     *
+     * @param rows         row count in the matrix (i.e. its height)
+     * @param columns      column count in the matrix (i.e. its width)
+     * @param initFunction the function to initialize values in the matrix
+     * @throws IllegalArgumentException if the specified row or column count is negative,
+     *                                  or if the matrix is too large to be stored
+     */
+    public HalfFloatMatrix(int rows, int columns, FloatMatrixIndexFunction initFunction) {
+        this(initiateMatrixFromFunction(rows, columns, initFunction), rows, columns);
+    }
+
+    private static short[] initiateMatrixFromFunction(int rows, int columns, FloatMatrixIndexFunction initFunction) {
+        short[] elementData = new short[checkedSize(rows, columns)];
+        for (int r = 0, i = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++, i++) {
+                elementData[i] = HalfFloats.fromFloat(initFunction.valueOf(r, c));
+            }
+        }
+        return elementData;
+    }
+
+    /**
+     * Constructs an immutable half-precision matrix based on the specified rows.
+     *
+     * @param elementData the raw rows of data to hold
+     * @throws IllegalArgumentException if column count is not consistent across all rows
+     */
+    public HalfFloatMatrix(float[]... elementData) {
+        this(flatten(elementData), elementData.length, elementData.length > 0 ? elementData[0].length : 0);
+    }
+
+    private static short[] flatten(float[][] elementData) {
+        int columns = elementData.length > 0 ? elementData[0].length : 0;
+        short[] flattened = new short[checkedSize(elementData.length, columns)];
+        for (int r = 0, i = 0; r < elementData.length; r++) {
+            if (elementData[r].length != columns) {
+                throw new IllegalArgumentException("Number of columns in matrix must be consistent across all rows");
+            }
+            for (int c = 0; c < columns; c++, i++) {
+                flattened[i] = HalfFloats.fromFloat(elementData[r][c]);
+            }
+        }
+        return flattened;
+    }
+
+    /**
+     * Constructs an immutable half-precision matrix containing the elements of the specified
+     * matrix, in the same positions. Each element is converted with {@link Number#floatValue()}.
+     *
+     * @param matrix the matrix whose elements are to be placed into this matrix
+     * @throws NullPointerException if the specified matrix is null, or contains null elements
+     */
+    public HalfFloatMatrix(Matrix<? extends Number> matrix) {
+        this(matrix instanceof HalfFloatMatrix hm ? hm.elementData : toHalfFloats(matrix), matrix.rows(), matrix.columns());
+    }
+
+    private static short[] toHalfFloats(Matrix<? extends Number> matrix) {
+        int rows = matrix.rows();
+        int columns = matrix.columns();
+        short[] elementData = new short[checkedSize(rows, columns)];
+        for (int r = 0, i = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++, i++) {
+                elementData[i] = HalfFloats.fromFloat(matrix.get(r, c).floatValue());
+            }
+        }
+        return elementData;
+    }
+
+    /**
+     * Constructs an empty immutable half-precision matrix.
+     */
+    public HalfFloatMatrix() {
+        this(EMPTY_MATRIX, 0, 0);
+    }
+
+    /**
+     * Internal constructor to create a matrix based on raw row-major half-precision bits.
+     * The array is trusted and will not be cloned, so it must not be modified from the outside.
+     *
+     * @param elementData the raw row-major half-precision bits to hold
+     * @param rows row count to set
+     * @param columns column count to set
+     */
+    private HalfFloatMatrix(short[] elementData, int rows, int columns) {
+        if (elementData.length != checkedSize(rows, columns)) {
+            throw new IllegalArgumentException("Illegal data length " + elementData.length + " for size: " + rows + ", " + columns);
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.elementData = elementData.length == 0 ? EMPTY_MATRIX : elementData;
+    }
+
+    /**
+     * Returns the element at the specified position in this matrix.
+     *
+     * @param rowIndex    row index of the element to return
+     * @param columnIndex column index of the element to return
+     * @return the element at the specified position in this matrix
+     * @throws ArrayIndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public Float get(int rowIndex, int columnIndex) {
+        return getFloat(rowIndex, columnIndex);
+    }
+
+    /**
+     * Returns the element at the specified position in this matrix, widened to {@code float}.
+     *
+     * @param rowIndex    row index of the element to return
+     * @param columnIndex column index of the element to return
+     * @return the element at the specified position in this matrix
+     * @throws ArrayIndexOutOfBoundsException if any index &lt; 0 || index &gt;= rows()/columns()
+     */
+    public float getFloat(int rowIndex, int columnIndex) {
+        return HalfFloats.toFloat(elementData[checkedIndex(rowIndex, columnIndex, rows, columns)]);
+    }
+
+    /**
+     * Returns the element at the specified position in this matrix, widened to {@code double}.
+     *
+     * @param rowIndex    row index of the element to return
+     * @param columnIndex column index of the element to return
+     * @return the element at the specified position in this matrix
+     * @throws ArrayIndexOutOfBoundsException if any index &lt; 0 || index &gt;= rows()/columns()
+     */
+    public double getDouble(int rowIndex, int columnIndex) {
+        return getFloat(rowIndex, columnIndex);
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int columns() {
+        return columns;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o instanceof Float f) {
+            float value = f;
+            for (short e : elementData) {
+                if (Float.compare(HalfFloats.toFloat(e), value) == 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Spliterator<Float> spliterator() {
+        return Spliterators.spliterator(this, Spliterator.IMMUTABLE | Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /**
+     * Returns a new raw array containing all of the elements in this matrix widened to
+     * {@code float}, flattened in row-major order. The caller is free to modify the returned array.
+     *
+     * @return a new {@code float[]} of length {@code rows() * columns()}
+     */
+    public float[] toFloatArray() {
+        float[] array = new float[elementData.length];
+        for (int i = 0; i < elementData.length; i++) {
+            array[i] = HalfFloats.toFloat(elementData[i]);
+        }
+        return array;
+    }
+
+    @Override
+    public HalfFloatMatrix subMatrix(int fromRowIndex, int toRowIndex, int fromColumnIndex, int toColumnIndex) {
+        if (fromRowIndex == 0 && toRowIndex == rows &&
+                fromColumnIndex == 0 && toColumnIndex == columns) {
+            return this;
+        }
+
+        subMatrixRangeCheck(fromRowIndex, toRowIndex, rows);
+        subMatrixRangeCheck(fromColumnIndex, toColumnIndex, columns);
+
+        int rows = toRowIndex - fromRowIndex;
+        int columns = toColumnIndex - fromColumnIndex;
+        short[] elementData = new short[rows * columns];
+        for (int i = 0, r = fromRowIndex; r < toRowIndex; i++, r++) {
+            System.arraycopy(this.elementData, r * this.columns + fromColumnIndex, elementData, i * columns, columns);
+        }
+        return new HalfFloatMatrix(elementData, rows, columns);
+    }
+
+    @Override
+    public HalfFloatArray row(int rowIndex) {
+        checkIndex(rowIndex, rows);
+        int from = rowIndex * columns;
+        return new HalfFloatArray(columns, c -> HalfFloats.toFloat(elementData[from + c]));
+    }
+
+    @Override
+    public HalfFloatArray column(int columnIndex) {
+        checkIndex(columnIndex, columns);
+        return new HalfFloatArray(rows, r -> HalfFloats.toFloat(elementData[r * columns + columnIndex]));
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (int r = 0, i = 0; r < rows; r++) {
+            int rowHash = 1;
+            for (int c = 0; c < columns; c++, i++) {
+                rowHash = 31 * rowHash + Float.hashCode(HalfFloats.toFloat(elementData[i]));
+            }
+            result = 31 * result + rowHash;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof HalfFloatMatrix hm && rows == hm.rows && columns == hm.columns
+                && Arrays.equals(elementData, hm.elementData)) {
+            return true;
+        }
+        return super.equals(o);
+    }
+
+    /**
+     * Returns a shallow copy of this {@code HalfFloatMatrix} instance.
+     *
+     * @return a clone of this {@code HalfFloatMatrix} instance
+     */
+    @Override
+    public Object clone() {
+        try {
+            return super.clone();
+        } catch (CloneNotSupportedException e) {
+            // This shouldn't happen
+            throw new InternalError(e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.viktori.matteray;
+
+/**
+ * Conversions between {@code float} values and IEEE 754 half-precision (binary16) values,
+ * encoded as the raw bits of a {@code short}. Used by the half-precision storage of
+ * {@link HalfFloatArray} and {@link HalfFloatMatrix}.
+ *
+ * <p>Narrowing rounds to the nearest representable value, with ties to even. Values too large
+ * for half-precision become infinity, and values too small become (signed) zero.
+ * Widening is always exact.
+ *
+ * @author Viktor Ingemansson
+ */
+final class HalfFloats {
+
+    private HalfFloats() {
+        // static class
+    }
+
+    /**
+     * Narrow a {@code float} into half-precision bits.
+     *
+     * @param value value to narrow
+     * @return the half-precision bits closest to the value
+     */
+    static short fromFloat(float value) {
+        int bits = Float.floatToRawIntBits(value);
+        int sign = (bits >>> 16) & 0x8000;
+        int exponent = (bits >>> 23) & 0xff;
+        int mantissa = bits & 0x7fffff;
+
+        if (exponent == 0xff) {
+            // Infinity stays infinity, NaN stays (quiet) NaN
+            return (short) (sign | 0x7c00 | (mantissa != 0 ? 0x200 | (mantissa >>> 13) : 0));
+        }
+
+        int halfExponent = exponent - 127 + 15;
+        if (halfExponent >= 0x1f) {
+            return (short) (sign | 0x7c00);
+        } else if (halfExponent <= 0) {
+            if (halfExponent < -10) {
+                return (short) sign;
+            }
+            // Subnormal half, add the implicit leading bit and shift it into place
+            mantissa |= 0x800000;
+            int shift = 14 - halfExponent;
+            int roundBit = 1 << (shift - 1);
+            int halfMantissa = mantissa >>> shift;
+            if ((mantissa & roundBit) != 0 && (mantissa & (3 * roundBit - 1)) != 0) {
+                halfMantissa++;
+            }
+            return (short) (sign | halfMantissa);
+        }
+
+        int half = sign | (halfExponent << 10) | (mantissa >>> 13);
+        // Round to nearest even, a carry into the exponent is the correct result
+        if ((mantissa & 0x1000) != 0 && (mantissa & 0x2fff) != 0) {
+            half++;
+        }
+        return (short) half;
+    }
+
+    /**
+     * Widen half-precision bits into a {@code float}.
+     *
+     * @param half half-precision bits to widen
+     * @return the exact {@code float} value of the half-precision bits
+     */
+    static float toFloat(short half) {
+        int bits = half & 0xffff;
+        int sign = (bits & 0x8000) << 16;
+        int exponent = (bits >>> 10) & 0x1f;
+        int mantissa = bits & 0x3ff;
+
+        if (exponent == 0x1f) {
+            return Float.intBitsToFloat(sign | 0x7f800000 | (mantissa << 13));
+        } else if (exponent == 0) {
+            float subnormal = mantissa * 0x1p-24f;
+            return sign != 0 ? -subnormal : subnormal;
+        }
+        return Float.intBitsToFloat(sign | ((exponent + 112) << 23) | (mantissa << 13));
+    }
+}
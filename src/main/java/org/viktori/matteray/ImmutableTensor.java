@@ -0,0 +1,124 @@
+package org.viktori.matteray;
+
+import org.viktori.matteray.function.TensorIndexFunction;
+
+/**
+ * Java array wrapper which implements the {@code Tensor} interface, which is immutable.
+ * All elements are held in a single flat {@code Object[]}, and slices, sub tensors,
+ * permutations and reshapes of a contiguous tensor are views sharing that array.
+ * The class permits all elements, including {@code null}.
+ * <p>
+ * Due to its immutable nature, the implementation is thread safe, and views can be
+ * shared freely.
+ *
+ * @param <E> the type of elements in this tensor
+ * @author Viktor Ingemansson
+ * @see Tensor
+ * @see ImmutableMatrix
+ */
+public class ImmutableTensor<E> extends AbstractTensor<E> {
+
+    @java.io.Serial
+    private static final long serialVersionUID = -6025633790451370411L;
+
+    /**
+     * Raw flat array to hold elements
+     */
+    private final Object[] elementData;
+
+    /**
+     * Constructs an immutable tensor with the specified shape, and function to populate
+     * values with. The function is called in row-major order.
+     *
+     * @param shape        the shape of the tensor
+     * @param initFunction the function to initialize values in the tensor
+     * @throws IllegalArgumentException if any length in the shape is negative
+     */
+    public ImmutableTensor(int[] shape, TensorIndexFunction<E> initFunction) {
+        this(shape.clone(), initiateTensorFromFunction(shape.clone(), initFunction));
+    }
+
+    private static <E> Object[] initiateTensorFromFunction(int[] shape, TensorIndexFunction<E> initFunction) {
+        Object[] elementData = new Object[checkedSize(shape)];
+        int[] indices = new int[shape.length];
+        for (int i = 0; i < elementData.length; i++) {
+            elementData[i] = initFunction.valueOf(indices);
+            for (int axis = shape.length - 1; axis >= 0 && ++indices[axis] == shape[axis]; axis--) {
+                indices[axis] = 0;
+            }
+        }
+        return elementData;
+    }
+
+    /**
+     * Constructs an immutable tensor of the specified shape, containing the specified
+     * elements in row-major order. Note that the array is shallow copied internally to
+     * guarantee immutability.
+     *
+     * @param elementData the elements, in row-major order
+     * @param shape       the shape of the tensor
+     * @throws IllegalArgumentException if the number of elements does not match the shape
+     */
+    public ImmutableTensor(E[] elementData, int... shape) {
+        this(shape.clone(), elementData.clone());
+    }
+
+    /**
+     * Constructs an immutable tensor of rank two containing the elements of the specified
+     * matrix, in the same positions.
+     *
+     * @param matrix the matrix whose elements are to be placed into this tensor
+     * @throws NullPointerException if the specified matrix is null
+     */
+    public ImmutableTensor(Matrix<? extends E> matrix) {
+        this(new int[]{matrix.rows(), matrix.columns()}, matrix.toArray());
+    }
+
+    /**
+     * Constructs an immutable tensor of rank one containing the elements of the specified
+     * array, in the same positions.
+     *
+     * @param array the array whose elements are to be placed into this tensor
+     * @throws NullPointerException if the specified array is null
+     */
+    public ImmutableTensor(Array<? extends E> array) {
+        this(new int[]{array.size()}, array.toArray());
+    }
+
+    private ImmutableTensor(int[] shape, Object[] elementData) {
+        this(elementData, shape, rowMajorStrides(shape), 0);
+        if (elementData.length != size()) {
+            throw new IllegalArgumentException("Illegal data length " + elementData.length + " for shape of size " + size());
+        }
+    }
+
+    /**
+     * Internal constructor to create a tensor, or a view of a tensor, based on a trusted
+     * flat array. The array will not be cloned, so it must not be modified from the outside.
+     *
+     * @param elementData the raw flat array holding the elements
+     * @param shape       length of each axis
+     * @param strides     strides of each axis
+     * @param offset      position in the array of the first element
+     */
+    protected ImmutableTensor(Object[] elementData, int[] shape, int[] strides, int offset) {
+        super(shape, strides, offset);
+        this.elementData = elementData;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected E elementAt(int offset) {
+        return (E) elementData[offset];
+    }
+
+    @Override
+    protected ImmutableTensor<E> view(int[] shape, int[] strides, int offset) {
+        return new ImmutableTensor<>(elementData, shape, strides, offset);
+    }
+
+    @Override
+    protected ImmutableTensor<E> copy() {
+        return new ImmutableTensor<>(shape(), toArray());
+    }
+}
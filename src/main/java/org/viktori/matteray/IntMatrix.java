@@ -0,0 +1,300 @@
+package org.viktori.matteray;
+
+import org.viktori.matteray.function.IntMatrixIndexFunction;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * Primitive {@code int} matrix which implements the {@code Matrix} interface. It is
+ * immutable, and stores its elements unboxed in a single row-major {@code int[]}, which uses a
+ * fraction of the memory of an {@link ImmutableMatrix} holding boxed {@link Integer} values.
+ *
+ * <p>Elements are boxed when accessed through the {@link Matrix} interface. Use
+ * {@link #getInt(int, int)} or {@link #toIntArray()} to access them without boxing.
+ * Rows and columns are returned as {@link IntArray IntArrays}.
+ * The matrix does not permit {@code null} elements.
+ * <p>
+ * Due to its immutable nature, the implementation is thread safe.
+ *
+ * @author Viktor Ingemansson
+ * @see Matrix
+ * @see IntArray
+ */
+public class IntMatrix extends AbstractMatrix<Integer> implements Cloneable, Serializable {
+
+    @java.io.Serial
+    private static final long serialVersionUID = -351132154207636344L;
+
+    /**
+     * Shared empty matrix
+     */
+    private static final int[] EMPTY_MATRIX = new int[0];
+
+    /**
+     * Raw row-major array to hold elements
+     */
+    private final int[] elementData;
+
+    /**
+     * Row count of the matrix
+     */
+    private final int rows;
+
+    /**
+     * Column count of the matrix
+     */
+    private final int columns;
+
+    /**
+     * Constructs an immutable square int matrix with the specified length (width and height),
+     * and function to populate values with.
+     *
+     * @param length       the row and column count the matrix (i.e its height and width)
+     * @param initFunction the function to initialize values in the matrix
+     * @throws IllegalArgumentException if the specified length is negative
+     */
+    public IntMatrix(int length, IntMatrixIndexFunction initFunction) {
+        this(length, length, initFunction);
+    }
+
+    /**
+     * Constructs an immutable int matrix with the specified row and column count, and function
+     * to populate values with.
+     *
+     * @param rows         row count in the matrix (i.e. its height)
+     * @param columns      column count in the matrix (i.e. its width)
+     * @param initFunction the function to initialize values in the matrix
+     * @throws IllegalArgumentException if the specified row or column count is negative,
+     *                                  or if the matrix is too large to be stored
+     */
+    public IntMatrix(int rows, int columns, IntMatrixIndexFunction initFunction) {
+        this(initiateMatrixFromFunction(rows, columns, initFunction), true, rows, columns);
+    }
+
+    private static int[] initiateMatrixFromFunction(int rows, int columns, IntMatrixIndexFunction initFunction) {
+        int[] elementData = new int[checkedSize(rows, columns)];
+        for (int r = 0, i = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++, i++) {
+                elementData[i] = initFunction.valueOf(r, c);
+            }
+        }
+        return elementData;
+    }
+
+    /**
+     * Constructs an immutable int matrix based on the specified rows.
+     * Note that the rows are copied internally to guarantee immutability.
+     *
+     * @param elementData the raw rows of data to hold
+     * @throws IllegalArgumentException if column count is not consistent across all rows
+     */
+    public IntMatrix(int[]... elementData) {
+        this(flatten(elementData), true, elementData.length, elementData.length > 0 ? elementData[0].length : 0);
+    }
+
+    private static int[] flatten(int[][] elementData) {
+        int columns = elementData.length > 0 ? elementData[0].length : 0;
+        int[] flattened = new int[checkedSize(elementData.length, columns)];
+        for (int r = 0; r < elementData.length; r++) {
+            if (elementData[r].length != columns) {
+                throw new IllegalArgumentException("Number of columns in matrix must be consistent across all rows");
+            }
+            System.arraycopy(elementData[r], 0, flattened, r * columns, columns);
+        }
+        return flattened;
+    }
+
+    /**
+     * Constructs an immutable int matrix containing the elements of the specified
+     * matrix, in the same positions. Each element is converted with {@link Number#intValue()}.
+     *
+     * @param matrix the matrix whose elements are to be placed into this matrix
+     * @throws NullPointerException if the specified matrix is null, or contains null elements
+     */
+    public IntMatrix(Matrix<? extends Number> matrix) {
+        this(matrix instanceof IntMatrix im ? im.elementData : toInts(matrix), true, matrix.rows(), matrix.columns());
+    }
+
+    private static int[] toInts(Matrix<? extends Number> matrix) {
+        int rows = matrix.rows();
+        int columns = matrix.columns();
+        int[] elementData = new int[checkedSize(rows, columns)];
+        for (int r = 0, i = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++, i++) {
+                elementData[i] = matrix.get(r, c).intValue();
+            }
+        }
+        return elementData;
+    }
+
+    /**
+     * Constructs an empty immutable int matrix.
+     */
+    public IntMatrix() {
+        this(EMPTY_MATRIX, true, 0, 0);
+    }
+
+    /**
+     * Internal constructor to create a matrix based on a raw row-major array, which also gives you
+     * the ability to trust it. When trusted, the array will not be cloned. This can be used when we
+     * know the array cannot be modified from the outside.
+     *
+     * @param elementData the raw row-major array of data to hold
+     * @param trusted if the array is trusted, it will use the array as it is without cloning it.
+     * @param rows row count to set
+     * @param columns column count to set
+     * @throws IllegalArgumentException if the array length is not {@code rows * columns}
+     */
+    protected IntMatrix(int[] elementData, boolean trusted, int rows, int columns) {
+        if (elementData.length != checkedSize(rows, columns)) {
+            throw new IllegalArgumentException("Illegal data length " + elementData.length + " for size: " + rows + ", " + columns);
+        }
+        this.rows = rows;
+        this.columns = columns;
+        if (elementData.length == 0) {
+            this.elementData = EMPTY_MATRIX;
+        } else if (trusted) {
+            this.elementData = elementData;
+        } else {
+            this.elementData = elementData.clone();
+        }
+    }
+
+    /**
+     * Returns the element at the specified position in this matrix.
+     *
+     * @param rowIndex    row index of the element to return
+     * @param columnIndex column index of the element to return
+     * @return the element at the specified position in this matrix
+     * @throws ArrayIndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public Integer get(int rowIndex, int columnIndex) {
+        return getInt(rowIndex, columnIndex);
+    }
+
+    /**
+     * Returns the element at the specified position in this matrix, without boxing it.
+     *
+     * @param rowIndex    row index of the element to return
+     * @param columnIndex column index of the element to return
+     * @return the element at the specified position in this matrix
+     * @throws ArrayIndexOutOfBoundsException if any index &lt; 0 || index &gt;= rows()/columns()
+     */
+    public int getInt(int rowIndex, int columnIndex) {
+        return elementData[checkedIndex(rowIndex, columnIndex, rows, columns)];
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int columns() {
+        return columns;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o instanceof Integer n) {
+            int value = n;
+            for (int e : elementData) {
+                if (Integer.compare(e, value) == 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Spliterator<Integer> spliterator() {
+        return Spliterators.spliterator(this, Spliterator.IMMUTABLE | Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /**
+     * Returns a new raw array containing all of the elements in this matrix, flattened in
+     * row-major order. The caller is free to modify the returned array.
+     *
+     * @return a new {@code int[]} of length {@code rows() * columns()}
+     */
+    public int[] toIntArray() {
+        return elementData.clone();
+    }
+
+    @Override
+    public IntMatrix subMatrix(int fromRowIndex, int toRowIndex, int fromColumnIndex, int toColumnIndex) {
+        if (fromRowIndex == 0 && toRowIndex == rows &&
+                fromColumnIndex == 0 && toColumnIndex == columns) {
+            return this;
+        }
+
+        subMatrixRangeCheck(fromRowIndex, toRowIndex, rows);
+        subMatrixRangeCheck(fromColumnIndex, toColumnIndex, columns);
+
+        int rows = toRowIndex - fromRowIndex;
+        int columns = toColumnIndex - fromColumnIndex;
+        int[] elementData = new int[rows * columns];
+        for (int i = 0, r = fromRowIndex; r < toRowIndex; i++, r++) {
+            System.arraycopy(this.elementData, r * this.columns + fromColumnIndex, elementData, i * columns, columns);
+        }
+        return new IntMatrix(elementData, true, rows, columns);
+    }
+
+    @Override
+    public IntArray row(int rowIndex) {
+        checkIndex(rowIndex, rows);
+        int from = rowIndex * columns;
+        return new IntArray(Arrays.copyOfRange(elementData, from, from + columns), true);
+    }
+
+    @Override
+    public IntArray column(int columnIndex) {
+        checkIndex(columnIndex, columns);
+        int[] column = new int[rows];
+        for (int r = 0, i = columnIndex; r < rows; r++, i += columns) {
+            column[r] = elementData[i];
+        }
+        return new IntArray(column, true);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (int r = 0, i = 0; r < rows; r++) {
+            int rowHash = 1;
+            for (int c = 0; c < columns; c++, i++) {
+                rowHash = 31 * rowHash + Integer.hashCode(elementData[i]);
+            }
+            result = 31 * result + rowHash;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof IntMatrix im) {
+            return rows == im.rows && columns == im.columns && Arrays.equals(elementData, im.elementData);
+        }
+        return super.equals(o);
+    }
+
+    /**
+     * Returns a shallow copy of this {@code IntMatrix} instance.
+     *
+     * @return a clone of this {@code IntMatrix} instance
+     */
+    @Override
+    public Object clone() {
+        try {
+            return super.clone();
+        } catch (CloneNotSupportedException e) {
+            // This shouldn't happen
+            throw new InternalError(e);
+        }
+    }
+}
@@ -0,0 +1,522 @@
+package org.viktori.matteray;
+
+import org.viktori.matteray.function.DoubleMatrixIndexFunction;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * Sparse {@code double} matrix which implements the {@code Matrix} interface. It is immutable,
+ * and stores only its non-zero elements, in compressed sparse row (CSR) format: the column
+ * indices and values of the non-zero elements in row-major order, and for each row the position
+ * of its first element. A matrix with a few non-zero elements per row, such as the adjacency
+ * matrix of a graph, uses a tiny fraction of the memory of a {@link DoubleMatrix}.
+ *
+ * <p>Every element which is not stored is zero. Zeros, including negative zero, are never stored,
+ * so {@code -0.0} is read back as {@code 0.0}. Reading a single element searches its row, so it
+ * takes logarithmic time in the number of non-zero elements of the row. Use
+ * {@link #toRowPointerArray()}, {@link #toColumnIndexArray()} and {@link #toValueArray()} to read
+ * the compressed rows directly. The compressed sparse column (CSC) format of a matrix is the
+ * compressed sparse row format of its {@link #transpose()}.
+ *
+ * <p>{@link org.viktori.matteray.util.MatrixUtils#multiply(SparseDoubleMatrix, DoubleMatrix)} and
+ * its overloads multiply sparse matrices without ever reading the elements which are not stored.
+ * The matrix does not permit {@code null} elements.
+ * <p>
+ * Due to its immutable nature, the implementation is thread safe.
+ *
+ * @author Viktor Ingemansson
+ * @see Matrix
+ * @see DoubleMatrix
+ */
+public class SparseDoubleMatrix extends AbstractMatrix<Double> implements Cloneable, Serializable {
+
+    @java.io.Serial
+    private static final long serialVersionUID = 2905637716280241534L;
+
+    /**
+     * Shared empty column index and value arrays
+     */
+    private static final int[] EMPTY_INDICES = new int[0];
+    private static final double[] EMPTY_VALUES = new double[0];
+
+    /**
+     * Position of the first element of each row, followed by the number of non-zero elements
+     */
+    private final int[] rowPointers;
+
+    /**
+     * Column index of each non-zero element, ascending within each row
+     */
+    private final int[] columnIndices;
+
+    /**
+     * Value of each non-zero element
+     */
+    private final double[] values;
+
+    /**
+     * Row count of the matrix
+     */
+    private final int rows;
+
+    /**
+     * Column count of the matrix
+     */
+    private final int columns;
+
+    /**
+     * Constructs an immutable sparse double matrix with the specified row and column count, and
+     * function to populate values with. The function is called for every element, so this
+     * constructor is only suitable for matrices which are small enough to be stored densely.
+     *
+     * @param rows         row count in the matrix (i.e. its height)
+     * @param columns      column count in the matrix (i.e. its width)
+     * @param initFunction the function to initialize values in the matrix
+     * @throws IllegalArgumentException if the specified row or column count is negative,
+     *                                  or if the matrix has too many non-zero elements
+     */
+    public SparseDoubleMatrix(int rows, int columns, DoubleMatrixIndexFunction initFunction) {
+        this(compress(rows, columns, initFunction), rows, columns);
+    }
+
+    /**
+     * Constructs an immutable sparse double matrix containing the non-zero elements of the
+     * specified matrix, in the same positions. Each element is converted with
+     * {@link Number#doubleValue()}.
+     *
+     * @param matrix the matrix whose elements are to be placed into this matrix
+     * @throws NullPointerException if the specified matrix is null, or contains null elements
+     */
+    public SparseDoubleMatrix(Matrix<? extends Number> matrix) {
+        this(matrix instanceof SparseDoubleMatrix sm ? new CompressedRows(sm.rowPointers, sm.columnIndices, sm.values)
+                : compress(matrix.rows(), matrix.columns(), (r, c) -> matrix.get(r, c).doubleValue()), matrix.rows(), matrix.columns());
+    }
+
+    /**
+     * Constructs an immutable sparse double matrix from arrays in compressed sparse row format.
+     * The arrays are copied internally to guarantee immutability, and any zeros in the values
+     * are dropped.
+     *
+     * @param rows          row count in the matrix (i.e. its height)
+     * @param columns       column count in the matrix (i.e. its width)
+     * @param rowPointers   position of the first element of each row in the other arrays,
+     *                      followed by their length, i.e. an array of length {@code rows + 1}
+     * @param columnIndices column index of each element, strictly ascending within each row
+     * @param values        value of each element
+     * @throws IllegalArgumentException if the arrays are not a valid compressed sparse row matrix
+     *                                  of the specified size
+     */
+    public SparseDoubleMatrix(int rows, int columns, int[] rowPointers, int[] columnIndices, double[] values) {
+        this(rowPointers.clone(), columnIndices.clone(), values.clone(), true, rows, columns);
+    }
+
+    /**
+     * Constructs an empty immutable sparse double matrix.
+     */
+    public SparseDoubleMatrix() {
+        this(new int[1], EMPTY_INDICES, EMPTY_VALUES, true, 0, 0);
+    }
+
+    /**
+     * Internal constructor to create a matrix based on arrays in compressed sparse row format,
+     * which also gives you the ability to trust them. When trusted, the arrays will not be
+     * cloned. This can be used when we know the arrays cannot be modified from the outside.
+     * The arrays are validated either way, and any zeros in the values are dropped.
+     *
+     * @param rowPointers position of the first element of each row, followed by the number of elements
+     * @param columnIndices column index of each element, strictly ascending within each row
+     * @param values value of each element
+     * @param trusted if the arrays are trusted, it will use them as they are without cloning them
+     * @param rows row count to set
+     * @param columns column count to set
+     * @throws IllegalArgumentException if the arrays are not a valid compressed sparse row matrix
+     *                                  of the specified size
+     */
+    protected SparseDoubleMatrix(int[] rowPointers, int[] columnIndices, double[] values, boolean trusted, int rows, int columns) {
+        this(validated(trusted ? rowPointers : rowPointers.clone(), trusted ? columnIndices : columnIndices.clone(),
+                trusted ? values : values.clone(), rows, columns), rows, columns);
+    }
+
+    private SparseDoubleMatrix(CompressedRows compressed, int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.rowPointers = compressed.rowPointers;
+        this.columnIndices = compressed.columnIndices.length == 0 ? EMPTY_INDICES : compressed.columnIndices;
+        this.values = compressed.values.length == 0 ? EMPTY_VALUES : compressed.values;
+    }
+
+    /**
+     * Arrays of a matrix in compressed sparse row format, which have been validated
+     */
+    private record CompressedRows(int[] rowPointers, int[] columnIndices, double[] values) {
+    }
+
+    /**
+     * Returns a sparse matrix of the specified size, where each element is the sum of the values
+     * at its position in the specified coordinate lists. The lists may be in any order, and may
+     * contain the same position several times.
+     *
+     * @param rows          row count in the matrix (i.e. its height)
+     * @param columns       column count in the matrix (i.e. its width)
+     * @param rowIndices    row index of each value
+     * @param columnIndices column index of each value
+     * @param values        values to place into the matrix
+     * @return a new sparse matrix with the summed values
+     * @throws IllegalArgumentException if the lists are of different length, or the row or column
+     *                                  count is negative
+     * @throws ArrayIndexOutOfBoundsException if any index is outside the matrix
+     */
+    public static SparseDoubleMatrix fromTriplets(int rows, int columns, int[] rowIndices, int[] columnIndices, double[] values) {
+        if (rows < 0 || columns < 0) {
+            throw new IllegalArgumentException("Illegal size: " + rows + ", " + columns);
+        }
+        if (rowIndices.length != columnIndices.length || rowIndices.length != values.length) {
+            throw new IllegalArgumentException("Coordinate lists must be of equal length, but lengths were "
+                    + rowIndices.length + ", " + columnIndices.length + " and " + values.length);
+        }
+        int[] rowPointers = new int[rows + 1];
+        for (int i = 0; i < rowIndices.length; i++) {
+            checkedIndex(rowIndices[i], columnIndices[i], rows, columns);
+            rowPointers[rowIndices[i] + 1]++;
+        }
+        for (int r = 0; r < rows; r++) {
+            rowPointers[r + 1] += rowPointers[r];
+        }
+
+        // Bucket the entries by row, then sort and merge each row by column
+        int[] next = Arrays.copyOf(rowPointers, rows);
+        int[] order = new int[rowIndices.length];
+        for (int i = 0; i < rowIndices.length; i++) {
+            order[next[rowIndices[i]]++] = i;
+        }
+        int[] mergedColumns = new int[order.length];
+        double[] mergedValues = new double[order.length];
+        int[] mergedPointers = new int[rows + 1];
+        long[] keys = new long[0];
+        int count = 0;
+        for (int r = 0; r < rows; r++) {
+            int from = rowPointers[r];
+            int length = rowPointers[r + 1] - from;
+            if (keys.length < length) {
+                keys = new long[length];
+            }
+            for (int i = 0; i < length; i++) {
+                keys[i] = (long) columnIndices[order[from + i]] << 32 | order[from + i];
+            }
+            Arrays.sort(keys, 0, length);
+            for (int i = 0; i < length; i++) {
+                int column = (int) (keys[i] >>> 32);
+                double value = values[(int) keys[i]];
+                if (count > mergedPointers[r] && mergedColumns[count - 1] == column) {
+                    mergedValues[count - 1] += value;
+                } else {
+                    mergedColumns[count] = column;
+                    mergedValues[count++] = value;
+                }
+            }
+            mergedPointers[r + 1] = count;
+        }
+        return new SparseDoubleMatrix(mergedPointers, Arrays.copyOf(mergedColumns, count), Arrays.copyOf(mergedValues, count), true, rows, columns);
+    }
+
+    private static CompressedRows compress(int rows, int columns, DoubleMatrixIndexFunction function) {
+        if (rows < 0 || columns < 0) {
+            throw new IllegalArgumentException("Illegal size: " + rows + ", " + columns);
+        }
+        int[] rowPointers = new int[rows + 1];
+        int[] columnIndices = new int[Math.min(16, checkedCapacity((long) rows * columns))];
+        double[] values = new double[columnIndices.length];
+        int count = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                double value = function.valueOf(r, c);
+                if (value != 0.0) {
+                    if (count == values.length) {
+                        int capacity = checkedCapacity(2L * count);
+                        columnIndices = Arrays.copyOf(columnIndices, capacity);
+                        values = Arrays.copyOf(values, capacity);
+                    }
+                    columnIndices[count] = c;
+                    values[count++] = value;
+                }
+            }
+            rowPointers[r + 1] = count;
+        }
+        return new CompressedRows(rowPointers, Arrays.copyOf(columnIndices, count), Arrays.copyOf(values, count));
+    }
+
+    private static int checkedCapacity(long capacity) {
+        return (int) Math.min(capacity, Integer.MAX_VALUE - 8);
+    }
+
+    private static CompressedRows validated(int[] rowPointers, int[] columnIndices, double[] values, int rows, int columns) {
+        if (rows < 0 || columns < 0) {
+            throw new IllegalArgumentException("Illegal size: " + rows + ", " + columns);
+        }
+        if (rowPointers.length != rows + 1 || rowPointers[0] != 0 || rowPointers[rows] != columnIndices.length
+                || columnIndices.length != values.length) {
+            throw new IllegalArgumentException("Illegal compressed rows for size: " + rows + ", " + columns);
+        }
+        boolean hasZeros = false;
+        for (int r = 0; r < rows; r++) {
+            int from = rowPointers[r];
+            int to = rowPointers[r + 1];
+            if (from > to) {
+                throw new IllegalArgumentException("Illegal row pointers " + from + ", " + to + " for row " + r);
+            }
+            for (int i = from; i < to; i++) {
+                if (columnIndices[i] < 0 || columnIndices[i] >= columns || (i > from && columnIndices[i] <= columnIndices[i - 1])) {
+                    throw new IllegalArgumentException("Illegal column index " + columnIndices[i] + " in row " + r);
+                }
+                hasZeros |= values[i] == 0.0;
+            }
+        }
+        return hasZeros ? withoutZeros(rowPointers, columnIndices, values, rows) : new CompressedRows(rowPointers, columnIndices, values);
+    }
+
+    private static CompressedRows withoutZeros(int[] rowPointers, int[] columnIndices, double[] values, int rows) {
+        int[] keptPointers = new int[rows + 1];
+        int count = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int i = rowPointers[r]; i < rowPointers[r + 1]; i++) {
+                if (values[i] != 0.0) {
+                    columnIndices[count] = columnIndices[i];
+                    values[count++] = values[i];
+                }
+            }
+            keptPointers[r + 1] = count;
+        }
+        return new CompressedRows(keptPointers, Arrays.copyOf(columnIndices, count), Arrays.copyOf(values, count));
+    }
+
+    /**
+     * Returns the element at the specified position in this matrix.
+     *
+     * @param rowIndex    row index of the element to return
+     * @param columnIndex column index of the element to return
+     * @return the element at the specified position in this matrix
+     * @throws ArrayIndexOutOfBoundsException {@inheritDoc}
+     */
+    @Override
+    public Double get(int rowIndex, int columnIndex) {
+        return getDouble(rowIndex, columnIndex);
+    }
+
+    /**
+     * Returns the element at the specified position in this matrix, without boxing it.
+     *
+     * @param rowIndex    row index of the element to return
+     * @param columnIndex column index of the element to return
+     * @return the element at the specified position in this matrix
+     * @throws ArrayIndexOutOfBoundsException if any index &lt; 0 || index &gt;= rows()/columns()
+     */
+    public double getDouble(int rowIndex, int columnIndex) {
+        if (rowIndex < 0 || rowIndex >= rows || columnIndex < 0 || columnIndex >= columns) {
+            throw new ArrayIndexOutOfBoundsException("Index (" + rowIndex + ", " + columnIndex + ") out of bounds for size: " + rows + ", " + columns);
+        }
+        int i = Arrays.binarySearch(columnIndices, rowPointers[rowIndex], rowPointers[rowIndex + 1], columnIndex);
+        return i >= 0 ? values[i] : 0.0;
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int columns() {
+        return columns;
+    }
+
+    /**
+     * Returns the number of elements which are stored, i.e. the number of non-zero elements.
+     *
+     * @return the number of non-zero elements in this matrix
+     */
+    public int nonZeroCount() {
+        return values.length;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o instanceof Double d) {
+            double value = d;
+            if (value == 0.0) {
+                // -0.0 is never stored, and 0.0 is present wherever an element is not stored
+                return Double.compare(value, 0.0) == 0 && values.length < (long) rows * columns;
+            }
+            for (double e : values) {
+                if (Double.compare(e, value) == 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Spliterator<Double> spliterator() {
+        return Spliterators.spliterator(this, Spliterator.IMMUTABLE | Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /**
+     * Returns a new raw array containing all of the elements in this matrix, including the zeros,
+     * flattened in row-major order. The caller is free to modify the returned array.
+     *
+     * @return a new {@code double[]} of length {@code rows() * columns()}
+     * @throws IllegalArgumentException if the matrix is too large to be stored densely
+     */
+    public double[] toDoubleArray() {
+        double[] array = new double[checkedSize(rows, columns)];
+        for (int r = 0; r < rows; r++) {
+            for (int i = rowPointers[r], offset = r * columns; i < rowPointers[r + 1]; i++) {
+                array[offset + columnIndices[i]] = values[i];
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Returns a new raw array with the position of the first non-zero element of each row in
+     * {@link #toColumnIndexArray()} and {@link #toValueArray()}, followed by the number of
+     * non-zero elements. The caller is free to modify the returned array.
+     *
+     * @return a new {@code int[]} of length {@code rows() + 1}
+     */
+    public int[] toRowPointerArray() {
+        return rowPointers.clone();
+    }
+
+    /**
+     * Returns a new raw array with the column index of each non-zero element, in row-major order.
+     * The caller is free to modify the returned array.
+     *
+     * @return a new {@code int[]} of length {@link #nonZeroCount()}
+     */
+    public int[] toColumnIndexArray() {
+        return columnIndices.clone();
+    }
+
+    /**
+     * Returns a new raw array with the value of each non-zero element, in row-major order.
+     * The caller is free to modify the returned array.
+     *
+     * @return a new {@code double[]} of length {@link #nonZeroCount()}
+     */
+    public double[] toValueArray() {
+        return values.clone();
+    }
+
+    /**
+     * Returns the transpose of this matrix, i.e. a matrix where the rows are the columns of this
+     * matrix. The compressed rows of the transpose are the compressed columns of this matrix.
+     * It takes linear time in the number of non-zero elements.
+     *
+     * @return a new sparse matrix which is the transpose of this matrix
+     */
+    public SparseDoubleMatrix transpose() {
+        int[] transposedPointers = new int[columns + 1];
+        for (int column : columnIndices) {
+            transposedPointers[column + 1]++;
+        }
+        for (int c = 0; c < columns; c++) {
+            transposedPointers[c + 1] += transposedPointers[c];
+        }
+        int[] next = Arrays.copyOf(transposedPointers, columns);
+        int[] transposedColumns = new int[values.length];
+        double[] transposedValues = new double[values.length];
+        for (int r = 0; r < rows; r++) {
+            for (int i = rowPointers[r]; i < rowPointers[r + 1]; i++) {
+                int j = next[columnIndices[i]]++;
+                transposedColumns[j] = r;
+                transposedValues[j] = values[i];
+            }
+        }
+        return new SparseDoubleMatrix(new CompressedRows(transposedPointers, transposedColumns, transposedValues), columns, rows);
+    }
+
+    @Override
+    public SparseDoubleMatrix subMatrix(int fromRowIndex, int toRowIndex, int fromColumnIndex, int toColumnIndex) {
+        if (fromRowIndex == 0 && toRowIndex == rows &&
+                fromColumnIndex == 0 && toColumnIndex == columns) {
+            return this;
+        }
+
+        subMatrixRangeCheck(fromRowIndex, toRowIndex, rows);
+        subMatrixRangeCheck(fromColumnIndex, toColumnIndex, columns);
+
+        int rows = toRowIndex - fromRowIndex;
+        int[] subPointers = new int[rows + 1];
+        int[] subColumns = new int[rowPointers[toRowIndex] - rowPointers[fromRowIndex]];
+        double[] subValues = new double[subColumns.length];
+        int count = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int i = rowPointers[fromRowIndex + r]; i < rowPointers[fromRowIndex + r + 1]; i++) {
+                if (columnIndices[i] >= fromColumnIndex && columnIndices[i] < toColumnIndex) {
+                    subColumns[count] = columnIndices[i] - fromColumnIndex;
+                    subValues[count++] = values[i];
+                }
+            }
+            subPointers[r + 1] = count;
+        }
+        return new SparseDoubleMatrix(new CompressedRows(subPointers, Arrays.copyOf(subColumns, count), Arrays.copyOf(subValues, count)),
+                rows, toColumnIndex - fromColumnIndex);
+    }
+
+    @Override
+    public DoubleArray row(int rowIndex) {
+        checkIndex(rowIndex, rows);
+        double[] row = new double[columns];
+        for (int i = rowPointers[rowIndex]; i < rowPointers[rowIndex + 1]; i++) {
+            row[columnIndices[i]] = values[i];
+        }
+        return new DoubleArray(row, true);
+    }
+
+    @Override
+    public DoubleArray column(int columnIndex) {
+        checkIndex(columnIndex, columns);
+        return new DoubleArray(rows, r -> getDouble(r, columnIndex));
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (int r = 0; r < rows; r++) {
+            int rowHash = 1;
+            for (int c = 0, i = rowPointers[r]; c < columns; c++) {
+                double value = i < rowPointers[r + 1] && columnIndices[i] == c ? values[i++] : 0.0;
+                rowHash = 31 * rowHash + Double.hashCode(value);
+            }
+            result = 31 * result + rowHash;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof SparseDoubleMatrix sm) {
+            return rows == sm.rows && columns == sm.columns && Arrays.equals(rowPointers, sm.rowPointers)
+                    && Arrays.equals(columnIndices, sm.columnIndices) && Arrays.equals(values, sm.values);
+        }
+        return super.equals(o);
+    }
+
+    /**
+     * Returns a shallow copy of this {@code SparseDoubleMatrix} instance.
+     *
+     * @return a clone of this {@code SparseDoubleMatrix} instance
+     */
+    @Override
+    public Object clone() {
+        try {
+            return super.clone();
+        } catch (CloneNotSupportedException e) {
+            // This shouldn't happen
+            throw new InternalError(e);
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package org.viktori.matteray;
+
+import org.viktori.matteray.function.TensorIndexFunction;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.function.Predicate;
+
+/**
+ * An ordered, n-dimensional grid of elements, with a fixed shape and random access. It
+ * generalizes {@link Array} (one dimension) and {@link Matrix} (two dimensions) to any number
+ * of dimensions, and can be used as a collection in itself, iterated in row-major order
+ * (the last index varies fastest).
+ *
+ * <p>The number of dimensions is the {@linkplain #rank() rank} of the tensor, and the length of
+ * each dimension (axis) is given by its {@linkplain #shape() shape}. A tensor of rank zero holds
+ * a single element.
+ *
+ * <p>Implementations are typically backed by a single flat buffer together with a stride per
+ * axis, which makes {@linkplain #slice(int, int) slicing}, {@linkplain #subTensor(int, int, int)
+ * narrowing}, {@linkplain #permute(int...) permuting} and (where possible)
+ * {@linkplain #reshape(int...) reshaping} zero-copy views of the same buffer. Tensors of rank one
+ * and two can be viewed as an {@link Array} or {@link Matrix}, which makes them interoperate with
+ * the utilities for arrays and matrices.
+ *
+ * <p>Since tensors are of fixed size, any operation that affects the size of the
+ * collection is prohibited, and will result in an {@link UnsupportedOperationException}.
+ *
+ * @param <E> the type of elements in this tensor
+ *
+ * @author Viktor Ingemansson
+ * @see Collection
+ * @see Array
+ * @see Matrix
+ */
+public interface Tensor<E> extends Collection<E> {
+
+    // Positional Access Operation
+
+    /**
+     * Get the element at a given position in this tensor.
+     *
+     * @param indices the indices of the element to be returned, one for each axis
+     * @return the element at the given position in this tensor
+     * @throws IllegalArgumentException       if the number of indices is not equal to the rank
+     * @throws ArrayIndexOutOfBoundsException if any index &lt; 0 || index &gt;= dimension of its axis
+     */
+    E get(int... indices);
+
+    // Query operations
+
+    /**
+     * Returns the rank, i.e. the number of dimensions (axes), of this tensor.
+     *
+     * @return the rank of this tensor
+     */
+    int rank();
+
+    /**
+     * Returns the shape of this tensor, i.e. the length of every axis. The returned array is
+     * a copy and is safe to modify.
+     *
+     * @return an array of length {@code rank()} with the length of each axis
+     */
+    int[] shape();
+
+    /**
+     * Returns the length of the specified axis.
+     *
+     * @param axis the axis, from {@code 0} to {@code rank() - 1}
+     * @return the length of the axis
+     * @throws ArrayIndexOutOfBoundsException if the axis is out of range
+     */
+    int dimension(int axis);
+
+    /**
+     * Returns the number of elements in this tensor, which is the product of its shape.
+     *
+     * @return the number of elements in this tensor
+     */
+    int size();
+
+    // View
+
+    /**
+     * Returns a view of this tensor with the specified axis fixed to an index, which removes
+     * the axis. For example, slicing axis {@code 0} of a tensor with shape {@code [4, 3, 2]}
+     * at index {@code 1} returns the tensor of shape {@code [3, 2]} found at that index.
+     *
+     * <p>No elements are copied.
+     *
+     * @param axis  the axis to fix
+     * @param index the index to fix the axis at
+     * @return a view of rank {@code rank() - 1}
+     * @throws ArrayIndexOutOfBoundsException if the axis or the index is out of range
+     */
+    Tensor<E> slice(int axis, int index);
+
+    /**
+     * Returns a view of the portion of this tensor between the specified
+     * {@code fromIndex}, inclusive, and {@code toIndex}, exclusive, along the specified axis.
+     * The rank of the view is the same as this tensor.
+     *
+     * <p>No elements are copied.
+     *
+     * @param axis      the axis to narrow
+     * @param fromIndex low endpoint (inclusive) along the axis
+     * @param toIndex   high endpoint (exclusive) along the axis
+     * @return a view of the specified range along the axis
+     * @throws ArrayIndexOutOfBoundsException for an illegal axis or endpoint index value
+     * @throws IllegalArgumentException       if the endpoint indices are out of order
+     */
+    Tensor<E> subTensor(int axis, int fromIndex, int toIndex);
+
+    /**
+     * Returns a view of this tensor with its axes reordered. Axis {@code i} of the returned
+     * tensor is axis {@code axes[i]} of this tensor, so {@code permute(1, 0)} transposes a
+     * tensor of rank two.
+     *
+     * <p>No elements are copied.
+     *
+     * @param axes a permutation of {@code 0, 1, ..., rank() - 1}
+     * @return a view with permuted axes
+     * @throws IllegalArgumentException if the axes are not a permutation of all axes
+     */
+    Tensor<E> permute(int... axes);
+
+    /**
+     * Returns a tensor with the same elements in row-major order, but with a different shape.
+     * If the elements of this tensor are laid out contiguously in row-major order, the returned
+     * tensor is a view, otherwise the elements are copied into new storage first.
+     *
+     * @param shape the new shape
+     * @return a tensor of the specified shape
+     * @throws IllegalArgumentException if the new shape does not have the same number of
+     *                                  elements, or has a negative length
+     */
+    Tensor<E> reshape(int... shape);
+
+    /**
+     * Returns a matrix view of this tensor, which must be of rank two. Axis {@code 0}
+     * is used for rows and axis {@code 1} for columns.
+     *
+     * <p>No elements are copied, and the rows, columns and sub matrices of the view are views
+     * as well.
+     *
+     * @return a matrix view of this tensor
+     * @throws IllegalStateException if the rank of this tensor is not two
+     */
+    Matrix<E> asMatrix();
+
+    /**
+     * Returns an array view of this tensor, which must be of rank one.
+     *
+     * <p>No elements are copied.
+     *
+     * @return an array view of this tensor
+     * @throws IllegalStateException if the rank of this tensor is not one
+     */
+    Array<E> asArray();
+
+    /**
+     * Returns an iterator over the elements in this tensor, in row-major order.
+     *
+     * @return an {@code Iterator} over the elements in this tensor
+     */
+    Iterator<E> iterator();
+
+    // Comparison and hashing
+
+    /**
+     * Compares the specified object with this tensor for equality. Returns
+     * {@code true} if and only if the specified object is also a tensor, both tensors have
+     * the same shape, and all corresponding pairs of elements in the two tensors are
+     * <i>equal</i>. (Two elements {@code e1} and {@code e2} are <i>equal</i> if
+     * {@code Objects.equals(e1, e2)}.)
+     *
+     * @param o the object to be compared for equality with this tensor
+     * @return {@code true} if the specified object is equal to this tensor
+     */
+    boolean equals(Object o);
+
+    /**
+     * Returns the hash code value for this tensor. The hash code of a tensor
+     * is defined to be the result of the following calculation:
+     * <pre>{@code
+     *     int hashCode = Arrays.hashCode(tensor.shape());
+     *     for (E e : tensor)
+     *         hashCode = 31*hashCode + (e==null ? 0 : e.hashCode());
+     * }</pre>
+     *
+     * @return the hash code value for this tensor
+     */
+    int hashCode();
+
+    /**
+     * Adding an object to a fixed size tensor is not supported, but it is part of the
+     * {@link Collection} API. This action will always throw an {@link UnsupportedOperationException}.
+     *
+     * @param e element whose presence in this collection is to be ensured
+     * @return nothing, as it will always throw an exception
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    default boolean add(E e) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Adding objects to a fixed size tensor is not supported, but it is part of the
+     * {@link Collection} API. This action will always throw an {@link UnsupportedOperationException}.
+     *
+     * @param c collection containing elements to be added to this collection
+     * @return nothing, as it will always throw an exception
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    default boolean addAll(Collection<? extends E> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Removing an object from a fixed size tensor is not supported, but it is part of the
+     * {@link Collection} API. This action will always throw an {@link UnsupportedOperationException}.
+     *
+     * @param o element to be removed from this collection, if present
+     * @return nothing, as it will always throw an exception
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    default boolean remove(Object o) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Removing objects from a fixed size tensor is not supported, but it is part of the
+     * {@link Collection} API. This action will always throw an {@link UnsupportedOperationException}.
+     *
+     * @param filter a predicate which returns {@code true} for elements to be removed
+     * @return nothing, as it will always throw an exception
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    default boolean removeIf(Predicate<? super E> filter) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Removing objects from a fixed size tensor is not supported, but it is part of the
+     * {@link Collection} API. This action will always throw an {@link UnsupportedOperationException}.
+     *
+     * @param c collection containing elements to be removed from this collection
+     * @return nothing, as it will always throw an exception
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    default boolean removeAll(Collection<?> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Removing objects from a fixed size tensor is not supported, but it is part of the
+     * {@link Collection} API. This action will always throw an {@link UnsupportedOperationException}.
+     *
+     * @param c collection containing elements to be retained in this collection
+     * @return nothing, as it will always throw an exception
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    default boolean retainAll(Collection<?> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Removing objects from a fixed size tensor is not supported, but it is part of the
+     * {@link Collection} API. This action will always throw an {@link UnsupportedOperationException}.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    default void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns an immutable tensor with the specified shape, and function
+     * to populate values with.
+     *
+     * @param <E>          the {@code Tensor}'s element type
+     * @param shape        the shape of the tensor
+     * @param initFunction the function to initialize values in the tensor
+     * @return a {@code Tensor} of the specified shape containing the elements given by the
+     *         init function
+     * @throws NullPointerException     if the shape or the init function is null
+     * @throws IllegalArgumentException if any length in the shape is negative
+     */
+    static <E> Tensor<E> of(int[] shape, TensorIndexFunction<E> initFunction) {
+        return new ImmutableTensor<>(shape, initFunction);
+    }
+
+    /**
+     * Returns an immutable tensor of rank two containing the elements of the specified matrix.
+     *
+     * @param <E>    the {@code Tensor}'s element type
+     * @param matrix the matrix whose elements are to be placed into the tensor
+     * @return a {@code Tensor} of shape {@code [rows, columns]}
+     * @throws NullPointerException if the matrix is null
+     */
+    static <E> Tensor<E> copyOf(Matrix<? extends E> matrix) {
+        return new ImmutableTensor<>(matrix);
+    }
+
+    /**
+     * Returns an immutable tensor of rank one containing the elements of the specified array.
+     *
+     * @param <E>   the {@code Tensor}'s element type
+     * @param array the array whose elements are to be placed into the tensor
+     * @return a {@code Tensor} of shape {@code [size]}
+     * @throws NullPointerException if the array is null
+     */
+    static <E> Tensor<E> copyOf(Array<? extends E> array) {
+        return new ImmutableTensor<>(array);
+    }
+}
@@ -0,0 +1,22 @@
+package org.viktori.matteray.function;
+
+/**
+ * Represents a function that accepts an index and produces a
+ * {@code double}-valued result. This is the {@code double}-producing
+ * primitive specialization for {@link ArrayIndexFunction}.
+ *
+ * <p>This is a <a href="package-summary.html">functional interface</a>
+ * whose functional method is {@link #valueOf(int)}.
+ *
+ * @see ArrayIndexFunction
+ */
+@FunctionalInterface
+public interface DoubleArrayIndexFunction {
+    /**
+     * Applies this function to the given argument index.
+     *
+     * @param index    the index to apply the function to
+     * @return the function result
+     */
+    double valueOf(int index);
+}
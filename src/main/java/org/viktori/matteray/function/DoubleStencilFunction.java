@@ -0,0 +1,53 @@
+package org.viktori.matteray.function;
+
+/**
+ * Represents a function that accepts the neighbourhood of an element in a matrix and produces
+ * a {@code double}-valued result, such as one time step of a cellular automaton or a
+ * diffusion.
+ *
+ * <p>This is a <a href="package-summary.html">functional interface</a>
+ * whose functional method is {@link #valueOf(Neighbourhood)}.
+ *
+ * @see DoubleMatrixIndexFunction
+ */
+@FunctionalInterface
+public interface DoubleStencilFunction {
+    /**
+     * Applies this function to the given neighbourhood.
+     *
+     * @param neighbourhood the neighbourhood of the element to apply the function to
+     * @return the function result
+     */
+    double valueOf(Neighbourhood neighbourhood);
+
+    /**
+     * The elements around one element of a matrix, within a radius. A neighbourhood is only
+     * valid during the call it is passed to, as it is reused for the next element.
+     */
+    interface Neighbourhood {
+        /**
+         * Returns the element at the specified offset from the center element, or the value
+         * given by the border of the stencil if the offset is outside of the matrix.
+         *
+         * @param rowOffset    offset of the row, from {@code -radius} to {@code radius}
+         * @param columnOffset offset of the column, from {@code -radius} to {@code radius}
+         * @return the element at the offset
+         * @throws IndexOutOfBoundsException if either offset is outside of the radius
+         */
+        double get(int rowOffset, int columnOffset);
+
+        /**
+         * Returns the row index of the center element.
+         *
+         * @return the row index
+         */
+        int rowIndex();
+
+        /**
+         * Returns the column index of the center element.
+         *
+         * @return the column index
+         */
+        int columnIndex();
+    }
+}
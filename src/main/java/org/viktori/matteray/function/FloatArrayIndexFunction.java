@@ -0,0 +1,22 @@
+package org.viktori.matteray.function;
+
+/**
+ * Represents a function that accepts an index and produces a
+ * {@code float}-valued result. This is the {@code float}-producing
+ * primitive specialization for {@link ArrayIndexFunction}.
+ *
+ * <p>This is a <a href="package-summary.html">functional interface</a>
+ * whose functional method is {@link #valueOf(int)}.
+ *
+ * @see ArrayIndexFunction
+ */
+@FunctionalInterface
+public interface FloatArrayIndexFunction {
+    /**
+     * Applies this function to the given argument index.
+     *
+     * @param index    the index to apply the function to
+     * @return the function result
+     */
+    float valueOf(int index);
+}
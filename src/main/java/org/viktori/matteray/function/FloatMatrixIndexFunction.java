@@ -0,0 +1,23 @@
+package org.viktori.matteray.function;
+
+/**
+ * Represents a function that accepts row and column indices and produces a
+ * {@code float}-valued result. This is the {@code float}-producing
+ * primitive specialization for {@link MatrixIndexFunction}.
+ *
+ * <p>This is a <a href="package-summary.html">functional interface</a>
+ * whose functional method is {@link #valueOf(int, int)}.
+ *
+ * @see MatrixIndexFunction
+ */
+@FunctionalInterface
+public interface FloatMatrixIndexFunction {
+    /**
+     * Applies this function to the given argument indices.
+     *
+     * @param rowIndex    the row index to apply the function to
+     * @param columnIndex the column index to apply the function to
+     * @return the function result
+     */
+    float valueOf(int rowIndex, int columnIndex);
+}
@@ -0,0 +1,22 @@
+package org.viktori.matteray.function;
+
+/**
+ * Represents a function that accepts the indices of a position in a tensor and produces a
+ * result.
+ *
+ * <p>This is a <a href="package-summary.html">functional interface</a>
+ * whose functional method is {@link #valueOf(int[])}.
+ *
+ * @param <E> the type of the result of the function
+ */
+@FunctionalInterface
+public interface TensorIndexFunction<E> {
+    /**
+     * Applies this function to the given argument indices. The indices array may be reused
+     * between invocations, so it must not be modified or retained by the function.
+     *
+     * @param indices the indices, one for each axis, to apply the function to
+     * @return the function result
+     */
+    E valueOf(int[] indices);
+}
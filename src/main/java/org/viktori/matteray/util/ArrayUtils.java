@@ -1,13 +1,22 @@
 package org.viktori.matteray.util;
 
 import org.viktori.matteray.Array;
+import org.viktori.matteray.Complex;
+import org.viktori.matteray.ComplexArray;
+import org.viktori.matteray.DoubleArray;
+import org.viktori.matteray.FloatArray;
 import org.viktori.matteray.ImmutableArray;
+import org.viktori.matteray.IntArray;
+import org.viktori.matteray.LongArray;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiFunction;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
@@ -23,6 +32,11 @@ import java.util.stream.Stream;
  * <p>The methods of this class all throw a {@code NullPointerException}
  * if the arrays or class objects provided to them are null.
  *
+ * <p>The overloads for {@link DoubleArray}, {@link FloatArray} and {@link IntArray} use
+ * SIMD instructions through the incubating Vector API when the {@code jdk.incubator.vector}
+ * module has been added to the runtime, and plain loops otherwise. Floating point sums may
+ * then differ in the last bits, since the elements are added in a different order.
+ *
  * @author Viktor Ingemansson
  * @see Collections
  * @see Array
@@ -33,6 +47,28 @@ public final class ArrayUtils {
         // static class
     }
 
+    /**
+     * Number of elements below which a parallel operation runs in the calling thread
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 18;
+
+    /**
+     * Whether each element of the result of a scan includes the element at the same index.
+     */
+    public enum ScanMode {
+        /**
+         * Each element of the result includes the elements up to and including its index,
+         * so the last element is the total of the whole array.
+         */
+        INCLUSIVE,
+
+        /**
+         * Each element of the result includes the elements before its index, so the first
+         * element is the identity and the total of the whole array is left out.
+         */
+        EXCLUSIVE
+    }
+
     /**
      * Apply a function on each element of an array and return a new immutable array with the result.
      * There is no strict type requirement, so it is possible to return a different type. This works
@@ -70,29 +106,165 @@ public final class ArrayUtils {
     }
 
     /**
-     * Sort a comparable array according to its natural order.
+     * Sort a comparable array according to its natural order. Arrays of {@code Integer},
+     * {@code Long}, {@code Float} or {@code Double}, including the primitive arrays, are sorted
+     * as primitives, and then boxed again.
      *
      * @param array array to sort
      * @return a new immutable array, sorted by its natural order
      */
     public static <E extends Comparable<E>> Array<E> toSorted(Array<E> array) {
-        Object[] rawArray = array.toArray();
-        Arrays.sort(rawArray);
-        return new SortedImmutableArray<>(rawArray);
+        return new SortedImmutableArray<>(SortKernels.sort(array, null, false));
     }
 
     /**
-     * Sort a comparable array based on a comparator.
+     * Sort a comparable array based on a comparator. Arrays of {@code Integer}, {@code Long},
+     * {@code Float} or {@code Double}, including the primitive arrays, are sorted as primitives
+     * if the comparator is {@link Comparator#naturalOrder()} or {@link Comparator#reverseOrder()}.
      *
      * @param array array to sort
      * @param comparator comparator to sort with
      * @return a new immutable array, sorted according to comparator
      */
-    @SuppressWarnings("unchecked")
     public static <E> Array<E> toSorted(Array<E> array, Comparator<? super E> comparator) {
-        Object[] rawArray = array.toArray();
-        Arrays.sort(rawArray, (Comparator<Object>) Objects.requireNonNull(comparator));
-        return new SortedImmutableArray<>(rawArray);
+        return new SortedImmutableArray<>(SortKernels.sort(array, Objects.requireNonNull(comparator), false));
+    }
+
+    /**
+     * Sort a comparable array according to its natural order, in parallel with
+     * {@link Arrays#parallelSort}, which runs on the common {@link ForkJoinPool}, and sorts
+     * small arrays in the calling thread. The result is the same as {@link #toSorted(Array)}.
+     *
+     * @param array array to sort
+     * @return a new immutable array, sorted by its natural order
+     */
+    public static <E extends Comparable<E>> Array<E> parallelToSorted(Array<E> array) {
+        return new SortedImmutableArray<>(SortKernels.sort(array, null, true));
+    }
+
+    /**
+     * Sort a comparable array based on a comparator, in parallel with
+     * {@link Arrays#parallelSort}, which runs on the common {@link ForkJoinPool}, and sorts
+     * small arrays in the calling thread. The result is the same as
+     * {@link #toSorted(Array, Comparator)}, since both sorts are stable.
+     *
+     * @param array array to sort
+     * @param comparator comparator to sort with
+     * @return a new immutable array, sorted according to comparator
+     */
+    public static <E> Array<E> parallelToSorted(Array<E> array, Comparator<? super E> comparator) {
+        return new SortedImmutableArray<>(SortKernels.sort(array, Objects.requireNonNull(comparator), true));
+    }
+
+    /**
+     * Returns the {@code k} greatest elements of a comparable array according to its natural
+     * order, from the greatest to the smallest. The elements are kept in a heap of {@code k}
+     * elements while the array is read once, which takes {@code O(n log k)} time instead of
+     * sorting the whole array. The order of equal elements is not specified.
+     *
+     * @param array array to select from
+     * @param k     number of elements to select, which is the size of the array if greater
+     * @return a new immutable array with the greatest elements
+     * @throws IllegalArgumentException if {@code k} is negative
+     * @throws NullPointerException if the array is null
+     */
+    public static <E extends Comparable<E>> Array<E> topK(Array<E> array, int k) {
+        return topK(array, k, Comparator.naturalOrder());
+    }
+
+    /**
+     * Returns the {@code k} greatest elements of an array according to a comparator, from the
+     * greatest to the smallest. The elements are kept in a heap of {@code k} elements while
+     * the array is read once, which takes {@code O(n log k)} time instead of sorting the whole
+     * array. The order of equal elements is not specified.
+     *
+     * @param array      array to select from
+     * @param k          number of elements to select, which is the size of the array if greater
+     * @param comparator comparator to order the elements with
+     * @return a new immutable array with the greatest elements
+     * @throws IllegalArgumentException if {@code k} is negative
+     * @throws NullPointerException if the array or the comparator is null
+     */
+    public static <E> Array<E> topK(Array<E> array, int k, Comparator<? super E> comparator) {
+        Objects.requireNonNull(comparator);
+        validateCountNotNegative(k);
+        return new TrustedImmutableArray<>(SelectKernels.top(array.toArray(), k, comparator, null));
+    }
+
+    /**
+     * Returns the {@code k} greatest elements of an array according to a comparator, selected
+     * in parallel on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #topK(Array, int, Comparator)}, except for the order of equal elements.
+     *
+     * @param array      array to select from
+     * @param k          number of elements to select, which is the size of the array if greater
+     * @param comparator comparator to order the elements with
+     * @return a new immutable array with the greatest elements
+     * @throws IllegalArgumentException if {@code k} is negative
+     * @throws NullPointerException if the array or the comparator is null
+     */
+    public static <E> Array<E> parallelTopK(Array<E> array, int k, Comparator<? super E> comparator) {
+        return parallelTopK(array, k, comparator, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the {@code k} greatest elements of an array according to a comparator, selected
+     * in parallel on the specified {@link ForkJoinPool}. Each block of the array keeps its own
+     * heap of {@code k} elements, and the heaps are merged at the end. The result is the same
+     * as {@link #topK(Array, int, Comparator)}, except for the order of equal elements.
+     *
+     * @param array      array to select from
+     * @param k          number of elements to select, which is the size of the array if greater
+     * @param comparator comparator to order the elements with
+     * @param pool       pool to select the elements in
+     * @return a new immutable array with the greatest elements
+     * @throws IllegalArgumentException if {@code k} is negative
+     * @throws NullPointerException if the array, the comparator or the pool is null
+     */
+    public static <E> Array<E> parallelTopK(Array<E> array, int k, Comparator<? super E> comparator, ForkJoinPool pool) {
+        Objects.requireNonNull(comparator);
+        Objects.requireNonNull(pool);
+        validateCountNotNegative(k);
+        ForkJoinPool selectingPool = array.size() >= PARALLEL_THRESHOLD ? pool : null;
+        return new TrustedImmutableArray<>(SelectKernels.top(array.toArray(), k, comparator, selectingPool));
+    }
+
+    /**
+     * Returns the element at an index of a comparable array, if it was sorted according to
+     * its natural order, i.e. the same element as {@code toSorted(array).get(n)}. The element
+     * is found with an introselect on a copy of the array, which takes expected {@code O(n)}
+     * time.
+     *
+     * @param array array to select from
+     * @param n     index of the element in the sorted order
+     * @return the element at the index of the sorted array
+     * @throws ArrayIndexOutOfBoundsException if the index is out of range
+     * @throws NullPointerException if the array is null
+     */
+    public static <E extends Comparable<E>> E nthElement(Array<E> array, int n) {
+        return nthElement(array, n, Comparator.naturalOrder());
+    }
+
+    /**
+     * Returns the element at an index of an array, if it was sorted according to a
+     * comparator, i.e. an element which compares equal to
+     * {@code toSorted(array, comparator).get(n)}. The element is found with an introselect on
+     * a copy of the array, which takes expected {@code O(n)} time.
+     *
+     * @param array      array to select from
+     * @param n          index of the element in the sorted order
+     * @param comparator comparator to order the elements with
+     * @return the element at the index of the sorted array
+     * @throws ArrayIndexOutOfBoundsException if the index is out of range
+     * @throws NullPointerException if the array or the comparator is null
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> E nthElement(Array<E> array, int n, Comparator<? super E> comparator) {
+        Objects.requireNonNull(comparator);
+        validateIndex(n, array.size());
+        Object[] elements = array.toArray();
+        SelectKernels.select(elements, n, comparator);
+        return (E) elements[n];
     }
 
     private static class SortedImmutableArray<E> extends ImmutableArray<E> {
@@ -164,6 +336,117 @@ public final class ArrayUtils {
        return Optional.ofNullable(aggregate(array, accumulator, null));
     }
 
+    /**
+     * Returns the inclusive scan of an array with an accumulator function, where each element
+     * of the result is the accumulation of the elements up to and including it, i.e.
+     * {@code [a, b, c] -> [a, f(a, b), f(f(a, b), c)]}. This is the running form of
+     * {@link #aggregate(Array, BinaryOperator)}, but {@code null} elements are passed to the
+     * accumulator like any other element.
+     *
+     * @param array       array to scan
+     * @param accumulator function to accumulate values with
+     * @param <E>         the type of elements in the array
+     * @return a new immutable array with the scan of the elements
+     * @throws NullPointerException if the array or the accumulator is null
+     */
+    public static <E> Array<E> scan(Array<E> array, BinaryOperator<E> accumulator) {
+        Objects.requireNonNull(accumulator);
+        return new TrustedImmutableArray<>(ScanKernels.scan(array.toArray(), accumulator, null, false, false, null));
+    }
+
+    /**
+     * Returns the scan of an array with an accumulator function, starting from an identity.
+     * For an inclusive scan each element of the result is the accumulation of the identity and
+     * the elements up to and including it, i.e. {@code [a, b] -> [f(i, a), f(f(i, a), b)]},
+     * and for an exclusive scan the elements before it, i.e. {@code [a, b] -> [i, f(i, a)]}.
+     *
+     * @param array       array to scan
+     * @param accumulator function to accumulate values with
+     * @param identity    value to start the scan from
+     * @param mode        whether each element of the result includes the element at its index
+     * @param <E>         the type of elements in the array
+     * @return a new immutable array with the scan of the elements
+     * @throws NullPointerException if the array, the accumulator or the mode is null
+     */
+    public static <E> Array<E> scan(Array<E> array, BinaryOperator<E> accumulator, E identity, ScanMode mode) {
+        Objects.requireNonNull(accumulator);
+        return new TrustedImmutableArray<>(ScanKernels.scan(array.toArray(), accumulator, identity, true, isExclusive(mode), null));
+    }
+
+    /**
+     * Returns the inclusive scan of an array with an accumulator function, computed in
+     * parallel on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #scan(Array, BinaryOperator)} if the accumulator is associative.
+     *
+     * @param array       array to scan
+     * @param accumulator associative function to accumulate values with
+     * @param <E>         the type of elements in the array
+     * @return a new immutable array with the scan of the elements
+     * @throws NullPointerException if the array or the accumulator is null
+     */
+    public static <E> Array<E> parallelScan(Array<E> array, BinaryOperator<E> accumulator) {
+        return parallelScan(array, accumulator, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the inclusive scan of an array with an accumulator function, computed in
+     * parallel on the specified {@link ForkJoinPool}. The array is split in blocks, whose
+     * totals are accumulated concurrently, and which are then scanned concurrently from the
+     * accumulation of the blocks before them. The result is the same as
+     * {@link #scan(Array, BinaryOperator)} if the accumulator is associative.
+     *
+     * @param array       array to scan
+     * @param accumulator associative function to accumulate values with
+     * @param pool        pool to scan the array in
+     * @param <E>         the type of elements in the array
+     * @return a new immutable array with the scan of the elements
+     * @throws NullPointerException if the array, the accumulator or the pool is null
+     */
+    public static <E> Array<E> parallelScan(Array<E> array, BinaryOperator<E> accumulator, ForkJoinPool pool) {
+        Objects.requireNonNull(accumulator);
+        Objects.requireNonNull(pool);
+        return new TrustedImmutableArray<>(ScanKernels.scan(array.toArray(), accumulator, null, false, false, scanningPool(array, pool)));
+    }
+
+    /**
+     * Returns the scan of an array with an accumulator function, starting from an identity,
+     * computed in parallel on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #scan(Array, BinaryOperator, Object, ScanMode)} if the accumulator is associative
+     * and the identity is its identity.
+     *
+     * @param array       array to scan
+     * @param accumulator associative function to accumulate values with
+     * @param identity    identity of the accumulator
+     * @param mode        whether each element of the result includes the element at its index
+     * @param <E>         the type of elements in the array
+     * @return a new immutable array with the scan of the elements
+     * @throws NullPointerException if the array, the accumulator or the mode is null
+     */
+    public static <E> Array<E> parallelScan(Array<E> array, BinaryOperator<E> accumulator, E identity, ScanMode mode) {
+        return parallelScan(array, accumulator, identity, mode, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the scan of an array with an accumulator function, starting from an identity,
+     * computed in parallel on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #scan(Array, BinaryOperator, Object, ScanMode)} if the accumulator is associative
+     * and the identity is its identity.
+     *
+     * @param array       array to scan
+     * @param accumulator associative function to accumulate values with
+     * @param identity    identity of the accumulator
+     * @param mode        whether each element of the result includes the element at its index
+     * @param pool        pool to scan the array in
+     * @param <E>         the type of elements in the array
+     * @return a new immutable array with the scan of the elements
+     * @throws NullPointerException if the array, the accumulator, the mode or the pool is null
+     */
+    public static <E> Array<E> parallelScan(Array<E> array, BinaryOperator<E> accumulator, E identity, ScanMode mode, ForkJoinPool pool) {
+        Objects.requireNonNull(accumulator);
+        Objects.requireNonNull(pool);
+        return new TrustedImmutableArray<>(ScanKernels.scan(array.toArray(), accumulator, identity, true, isExclusive(mode), scanningPool(array, pool)));
+    }
+
     /**
      * Return a new array representing the dot product between two arrays. The dot product is
      * calculated by multiplying each pair of values and then summing them.
@@ -218,9 +501,1224 @@ public final class ArrayUtils {
         return result;
     }
 
-    private static void validateArraysOfEqualSize(Array<?> vector1, Array<?> vector2) {
-        if (vector1.size() != vector2.size()) {
-            throw new IllegalArgumentException("Vectors for must be of equal size, but sizes were " + vector1.size() + " and " + vector2.size());
+    /**
+     * Returns the dot product between two arrays in the specified semiring, i.e. the sum of the
+     * products of each pair of values, or the zero of the semiring if the arrays are empty.
+     *
+     * <p>The built-in semirings of {@link Semiring} are computed on unboxed values without
+     * calling any functions, and the boolean semiring returns as soon as it finds a pair of true
+     * values. Any other semiring skips the pairs where either value is the annihilator of the
+     * semiring, if it has one. Note that {@code double} arithmetic is summed like
+     * {@link #dotProduct(DoubleArray, DoubleArray)}, which may change the last bits of the sum.
+     *
+     * @param vector1 first vector
+     * @param vector2 second vector
+     * @param semiring semiring to compute the dot product in
+     * @return the dot product of the arrays
+     * @throws IllegalArgumentException if vectors are of different size
+     * @throws NullPointerException if any argument is null, or any vector contains null elements
+     *                              and the semiring is built-in
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> E dotProduct(Array<E> vector1, Array<E> vector2, Semiring<E> semiring) {
+        Objects.requireNonNull(vector1);
+        Objects.requireNonNull(vector2);
+        Objects.requireNonNull(semiring);
+        validateArraysOfEqualSize(vector1, vector2);
+
+        Object result = switch (Semirings.kindOf(semiring)) {
+            case DOUBLE_ARITHMETIC -> dotProduct(toDoubleArray(vector1), toDoubleArray(vector2));
+            case LONG_ARITHMETIC -> dotProductLong(toLongArray(vector1).toLongArray(), toLongArray(vector2).toLongArray());
+            case INT_ARITHMETIC -> dotProduct(toIntArray(vector1), toIntArray(vector2));
+            case MIN_PLUS -> dotProductMinPlus(toDoubleArray(vector1).toDoubleArray(), toDoubleArray(vector2).toDoubleArray());
+            case MAX_PLUS -> dotProductMaxPlus(toDoubleArray(vector1).toDoubleArray(), toDoubleArray(vector2).toDoubleArray());
+            case MAX_TIMES -> dotProductMaxTimes(toDoubleArray(vector1).toDoubleArray(), toDoubleArray(vector2).toDoubleArray());
+            case OR_AND -> dotProductOrAnd(vector1, vector2);
+            case CUSTOM -> dotProductCustom(vector1, vector2, semiring);
+        };
+        return (E) result;
+    }
+
+    private static long dotProductLong(long[] x, long[] y) {
+        long sum = 0;
+        for (int i = 0; i < x.length; i++) {
+            sum += x[i] * y[i];
+        }
+        return sum;
+    }
+
+    private static double dotProductMinPlus(double[] x, double[] y) {
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < x.length; i++) {
+            // NaN is positive infinity plus negative infinity, i.e. zero, which never wins
+            double value = x[i] + y[i];
+            if (value < min) {
+                min = value;
+            }
+        }
+        return min;
+    }
+
+    private static double dotProductMaxPlus(double[] x, double[] y) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < x.length; i++) {
+            double value = x[i] + y[i];
+            if (value > max) {
+                max = value;
+            }
+        }
+        return max;
+    }
+
+    private static double dotProductMaxTimes(double[] x, double[] y) {
+        double max = 0.0;
+        for (int i = 0; i < x.length; i++) {
+            double value = x[i] * y[i];
+            if (value > max) {
+                max = value;
+            }
+        }
+        return max;
+    }
+
+    private static boolean dotProductOrAnd(Array<?> vector1, Array<?> vector2) {
+        for (int i = 0; i < vector1.size(); i++) {
+            if ((Boolean) vector1.get(i) && (Boolean) vector2.get(i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <E> E dotProductCustom(Array<E> vector1, Array<E> vector2, Semiring<E> semiring) {
+        E annihilator = semiring.annihilator().orElse(null);
+        E result = semiring.zero();
+        for (int i = 0; i < vector1.size(); i++) {
+            E x = vector1.get(i);
+            E y = vector2.get(i);
+            if (annihilator == null || !(annihilator.equals(x) || annihilator.equals(y))) {
+                result = semiring.plus(result, semiring.times(x, y));
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DoubleArray toDoubleArray(Array<?> array) {
+        return new DoubleArray((Collection<? extends Number>) array);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static LongArray toLongArray(Array<?> array) {
+        return new LongArray((Collection<? extends Number>) array);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static IntArray toIntArray(Array<?> array) {
+        return new IntArray((Collection<? extends Number>) array);
+    }
+
+    /**
+     * Returns the dot product between two complex arrays of equal size, computed directly on
+     * the interleaved real and imaginary parts without creating intermediate {@link Complex}
+     * instances. Note that no element is conjugated, i.e. the result is {@code sum(x[i] * y[i])}.
+     *
+     * @param vector1 first vector
+     * @param vector2 second vector
+     * @return the dot product of the arrays, or zero if they are empty
+     * @throws IllegalArgumentException if vectors are of different size
+     * @throws NullPointerException if any of the vectors is null
+     */
+    public static Complex dotProduct(ComplexArray vector1, ComplexArray vector2) {
+        validateArraysOfEqualSize(vector1, vector2);
+        double[] x = vector1.toInterleavedArray();
+        double[] y = vector2.toInterleavedArray();
+        double re = 0.0;
+        double im = 0.0;
+        for (int i = 0; i < x.length; i += 2) {
+            re += x[i] * y[i] - x[i + 1] * y[i + 1];
+            im += x[i] * y[i + 1] + x[i + 1] * y[i];
+        }
+        return Complex.of(re, im);
+    }
+
+    /**
+     * Returns the element-wise sum of two complex arrays of equal size.
+     *
+     * @param array1 first array
+     * @param array2 second array
+     * @return a new complex array where each element is {@code array1[i] + array2[i]}
+     * @throws IllegalArgumentException if the arrays are of different size
+     * @throws NullPointerException if any of the arrays is null
+     */
+    public static ComplexArray add(ComplexArray array1, ComplexArray array2) {
+        validateArraysOfEqualSize(array1, array2);
+        double[] sum = array1.toInterleavedArray();
+        double[] other = array2.toInterleavedArray();
+        for (int i = 0; i < sum.length; i++) {
+            sum[i] += other[i];
+        }
+        return new TrustedComplexArray(sum);
+    }
+
+    /**
+     * Returns the element-wise difference of two complex arrays of equal size.
+     *
+     * @param array1 first array
+     * @param array2 second array
+     * @return a new complex array where each element is {@code array1[i] - array2[i]}
+     * @throws IllegalArgumentException if the arrays are of different size
+     * @throws NullPointerException if any of the arrays is null
+     */
+    public static ComplexArray subtract(ComplexArray array1, ComplexArray array2) {
+        validateArraysOfEqualSize(array1, array2);
+        double[] difference = array1.toInterleavedArray();
+        double[] other = array2.toInterleavedArray();
+        for (int i = 0; i < difference.length; i++) {
+            difference[i] -= other[i];
+        }
+        return new TrustedComplexArray(difference);
+    }
+
+    /**
+     * Returns the element-wise product of two complex arrays of equal size.
+     *
+     * @param array1 first array
+     * @param array2 second array
+     * @return a new complex array where each element is {@code array1[i] * array2[i]}
+     * @throws IllegalArgumentException if the arrays are of different size
+     * @throws NullPointerException if any of the arrays is null
+     */
+    public static ComplexArray multiplyElementWise(ComplexArray array1, ComplexArray array2) {
+        validateArraysOfEqualSize(array1, array2);
+        double[] product = array1.toInterleavedArray();
+        double[] other = array2.toInterleavedArray();
+        for (int i = 0; i < product.length; i += 2) {
+            double re = product[i];
+            double im = product[i + 1];
+            product[i] = re * other[i] - im * other[i + 1];
+            product[i + 1] = re * other[i + 1] + im * other[i];
+        }
+        return new TrustedComplexArray(product);
+    }
+
+    /**
+     * Returns the specified complex array, with each element multiplied by the specified factor.
+     *
+     * @param array  array to scale
+     * @param factor factor to multiply each element with
+     * @return a new complex array where each element is {@code array[i] * factor}
+     * @throws NullPointerException if the array or the factor is null
+     */
+    public static ComplexArray scale(ComplexArray array, Complex factor) {
+        Objects.requireNonNull(factor);
+        double[] product = array.toInterleavedArray();
+        double factorRe = factor.real();
+        double factorIm = factor.imaginary();
+        for (int i = 0; i < product.length; i += 2) {
+            double re = product[i];
+            double im = product[i + 1];
+            product[i] = re * factorRe - im * factorIm;
+            product[i + 1] = re * factorIm + im * factorRe;
+        }
+        return new TrustedComplexArray(product);
+    }
+
+    /**
+     * Returns the dot product of two {@code double} vectors of equal size, computed with SIMD
+     * instructions when available (see {@link ArrayUtils} for details).
+     *
+     * @param vector1 first vector
+     * @param vector2 second vector
+     * @return the dot product of the arrays, or zero if they are empty
+     * @throws IllegalArgumentException if vectors are of different size
+     * @throws NullPointerException if any of the vectors is null
+     */
+    public static double dotProduct(DoubleArray vector1, DoubleArray vector2) {
+        validateArraysOfEqualSize(vector1, vector2);
+        return PrimitiveOps.INSTANCE.dot(vector1.toDoubleArray(), vector2.toDoubleArray());
+    }
+
+    /**
+     * Returns the element-wise sum of two {@code double} arrays of equal size.
+     *
+     * @param array1 first array
+     * @param array2 second array
+     * @return a new array where each element is {@code array1[i] + array2[i]}
+     * @throws IllegalArgumentException if the arrays are of different size
+     * @throws NullPointerException if any of the arrays is null
+     */
+    public static DoubleArray add(DoubleArray array1, DoubleArray array2) {
+        validateArraysOfEqualSize(array1, array2);
+        double[] sum = array1.toDoubleArray();
+        PrimitiveOps.INSTANCE.add(sum, array2.toDoubleArray(), sum);
+        return new TrustedDoubleArray(sum);
+    }
+
+    /**
+     * Returns the element-wise product of two {@code double} arrays of equal size.
+     *
+     * @param array1 first array
+     * @param array2 second array
+     * @return a new array where each element is {@code array1[i] * array2[i]}
+     * @throws IllegalArgumentException if the arrays are of different size
+     * @throws NullPointerException if any of the arrays is null
+     */
+    public static DoubleArray multiplyElementWise(DoubleArray array1, DoubleArray array2) {
+        validateArraysOfEqualSize(array1, array2);
+        double[] product = array1.toDoubleArray();
+        PrimitiveOps.INSTANCE.multiply(product, array2.toDoubleArray(), product);
+        return new TrustedDoubleArray(product);
+    }
+
+    /**
+     * Returns the specified {@code double} array, with each element multiplied by the specified factor.
+     *
+     * @param array  array to scale
+     * @param factor factor to multiply each element with
+     * @return a new array where each element is {@code array[i] * factor}
+     * @throws NullPointerException if the array is null
+     */
+    public static DoubleArray scale(DoubleArray array, double factor) {
+        double[] product = array.toDoubleArray();
+        PrimitiveOps.INSTANCE.scale(product, factor, product);
+        return new TrustedDoubleArray(product);
+    }
+
+    /**
+     * Returns {@code alpha * x + y} for two {@code double} vectors of equal size.
+     *
+     * @param alpha factor to multiply each element of {@code x} with
+     * @param x     vector to scale
+     * @param y     vector to add
+     * @return a new array where each element is {@code alpha * x[i] + y[i]}
+     * @throws IllegalArgumentException if the vectors are of different size
+     * @throws NullPointerException if any of the vectors is null
+     */
+    public static DoubleArray axpy(double alpha, DoubleArray x, DoubleArray y) {
+        validateArraysOfEqualSize(x, y);
+        double[] result = y.toDoubleArray();
+        PrimitiveOps.INSTANCE.axpy(alpha, x.toDoubleArray(), result);
+        return new TrustedDoubleArray(result);
+    }
+
+    /**
+     * Returns the sum of all elements in a {@code double} array.
+     *
+     * @param array array to sum
+     * @return the sum of the elements, or zero if the array is empty
+     * @throws NullPointerException if the array is null
+     */
+    public static double sum(DoubleArray array) {
+        return PrimitiveOps.INSTANCE.sum(array.toDoubleArray());
+    }
+
+    /**
+     * Returns the smallest element in a {@code double} array. As with {@link Math#min(double, double)},
+     * the result is NaN if any element is NaN.
+     *
+     * @param array array to search
+     * @return the smallest element
+     * @throws NoSuchElementException if the array is empty
+     * @throws NullPointerException if the array is null
+     */
+    public static double min(DoubleArray array) {
+        validateArrayNotEmpty(array);
+        return PrimitiveOps.INSTANCE.min(array.toDoubleArray());
+    }
+
+    /**
+     * Returns the largest element in a {@code double} array. As with {@link Math#max(double, double)},
+     * the result is NaN if any element is NaN.
+     *
+     * @param array array to search
+     * @return the largest element
+     * @throws NoSuchElementException if the array is empty
+     * @throws NullPointerException if the array is null
+     */
+    public static double max(DoubleArray array) {
+        validateArrayNotEmpty(array);
+        return PrimitiveOps.INSTANCE.max(array.toDoubleArray());
+    }
+
+    /**
+     * Returns the cumulative sums of a {@code double} array, where each element of the
+     * result is the sum of the elements up to it, or before it for an exclusive scan, which
+     * starts from zero. The elements are added in order, like a plain loop.
+     *
+     * @param array array to scan
+     * @param mode  whether each element of the result includes the element at its index
+     * @return a new array with the scan of the elements
+     * @throws NullPointerException if the array or the mode is null
+     */
+    public static DoubleArray cumulativeSum(DoubleArray array, ScanMode mode) {
+        return new TrustedDoubleArray(ScanKernels.scan(array.toDoubleArray(), ScanKernels.Op.SUM, isExclusive(mode), null));
+    }
+
+    /**
+     * Returns the cumulative sums of a {@code double} array, computed in parallel on the common
+     * {@link ForkJoinPool}. The result is the same as {@link #cumulativeSum(DoubleArray, ScanMode)},
+     * except that the sums may differ in the last bits, since the totals of the blocks of the
+     * array are added separately.
+     *
+     * @param array array to scan
+     * @param mode  whether each element of the result includes the element at its index
+     * @return a new array with the scan of the elements
+     * @throws NullPointerException if the array or the mode is null
+     */
+    public static DoubleArray parallelCumulativeSum(DoubleArray array, ScanMode mode) {
+        return parallelCumulativeSum(array, mode, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the cumulative sums of a {@code double} array, computed in parallel on the specified
+     * {@link ForkJoinPool}. The result is the same as {@link #cumulativeSum(DoubleArray, ScanMode)},
+     * except that the sums may differ in the last bits, since the totals of the blocks of the
+     * array are added separately.
+     *
+     * @param array array to scan
+     * @param mode  whether each element of the result includes the element at its index
+     * @param pool  pool to scan the array in
+     * @return a new array with the scan of the elements
+     * @throws NullPointerException if the array, the mode or the pool is null
+     */
+    public static DoubleArray parallelCumulativeSum(DoubleArray array, ScanMode mode, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return new TrustedDoubleArray(ScanKernels.scan(array.toDoubleArray(), ScanKernels.Op.SUM, isExclusive(mode), scanningPool(array, pool)));
+    }
+
+    /**
+     * Returns the running maxima of a {@code double} array, where each element of the
+     * result is the largest of the elements up to it, or before it for an exclusive scan,
+     * which starts from {@code Double.NEGATIVE_INFINITY}. As with
+     * {@link Math#max(double, double)}, a NaN is carried through the rest of the result.
+     *
+     * @param array array to scan
+     * @param mode  whether each element of the result includes the element at its index
+     * @return a new array with the scan of the elements
+     * @throws NullPointerException if the array or the mode is null
+     */
+    public static DoubleArray cumulativeMax(DoubleArray array, ScanMode mode) {
+        return new TrustedDoubleArray(ScanKernels.scan(array.toDoubleArray(), ScanKernels.Op.MAX, isExclusive(mode), null));
+    }
+
+    /**
+     * Returns the running maxima of a {@code double} array, computed in parallel on the common
+     * {@link ForkJoinPool}. The result is the same as {@link #cumulativeMax(DoubleArray, ScanMode)}.
+     *
+     * @param array array to scan
+     * @param mode  whether each element of the result includes the element at its index
+     * @return a new array with the scan of the elements
+     * @throws NullPointerException if the array or the mode is null
+     */
+    public static DoubleArray parallelCumulativeMax(DoubleArray array, ScanMode mode) {
+        return parallelCumulativeMax(array, mode, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the running maxima of a {@code double} array, computed in parallel on the specified
+     * {@link ForkJoinPool}. The result is the same as {@link #cumulativeMax(DoubleArray, ScanMode)}.
+     *
+     * @param array array to scan
+     * @param mode  whether each element of the result includes the element at its index
+     * @param pool  pool to scan the array in
+     * @return a new array with the scan of the elements
+     * @throws NullPointerException if the array, the mode or the pool is null
+     */
+    public static DoubleArray parallelCumulativeMax(DoubleArray array, ScanMode mode, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return new TrustedDoubleArray(ScanKernels.scan(array.toDoubleArray(), ScanKernels.Op.MAX, isExclusive(mode), scanningPool(array, pool)));
+    }
+
+    /**
+     * Returns the running minima of a {@code double} array, where each element of the
+     * result is the smallest of the elements up to it, or before it for an exclusive scan,
+     * which starts from {@code Double.POSITIVE_INFINITY}. As with
+     * {@link Math#min(double, double)}, a NaN is carried through the rest of the result.
+     *
+     * @param array array to scan
+     * @param mode  whether each element of the result includes the element at its index
+     * @return a new array with the scan of the elements
+     * @throws NullPointerException if the array or the mode is null
+     */
+    public static DoubleArray cumulativeMin(DoubleArray array, ScanMode mode) {
+        return new TrustedDoubleArray(ScanKernels.scan(array.toDoubleArray(), ScanKernels.Op.MIN, isExclusive(mode), null));
+    }
+
+    /**
+     * Returns the running minima of a {@code double} array, computed in parallel on the common
+     * {@link ForkJoinPool}. The result is the same as {@link #cumulativeMin(DoubleArray, ScanMode)}.
+     *
+     * @param array array to scan
+     * @param mode  whether each element of the result includes the element at its index
+     * @return a new array with the scan of the elements
+     * @throws NullPointerException if the array or the mode is null
+     */
+    public static DoubleArray parallelCumulativeMin(DoubleArray array, ScanMode mode) {
+        return parallelCumulativeMin(array, mode, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the running minima of a {@code double} array, computed in parallel on the specified
+     * {@link ForkJoinPool}. The result is the same as {@link #cumulativeMin(DoubleArray, ScanMode)}.
+     *
+     * @param array array to scan
+     * @param mode  whether each element of the result includes the element at its index
+     * @param pool  pool to scan the array in
+     * @return a new array with the scan of the elements
+     * @throws NullPointerException if the array, the mode or the pool is null
+     */
+    public static DoubleArray parallelCumulativeMin(DoubleArray array, ScanMode mode, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return new TrustedDoubleArray(ScanKernels.scan(array.toDoubleArray(), ScanKernels.Op.MIN, isExclusive(mode), scanningPool(array, pool)));
+    }
+
+    /**
+     * Returns the element at an index of a {@code double} array, if it was sorted, i.e. the
+     * same element as {@code toSorted(array).get(n)}, where {@code -0.0} is before {@code 0.0}
+     * and NaN is after everything else. The element is found with an introselect on a copy of
+     * the array, which takes expected {@code O(n)} time.
+     *
+     * @param array array to select from
+     * @param n     index of the element in the sorted order
+     * @return the element at the index of the sorted array
+     * @throws ArrayIndexOutOfBoundsException if the index is out of range
+     * @throws NullPointerException if the array is null
+     */
+    public static double nthElement(DoubleArray array, int n) {
+        validateIndex(n, array.size());
+        long[] keys = toKeys(array);
+        SelectKernels.select(keys, n);
+        return SelectKernels.fromKey(keys[n]);
+    }
+
+    /**
+     * Returns the median of a {@code double} array, which is the mean of the two middle
+     * elements if the size is even. This is the same as {@code percentile(array, 50.0)}.
+     *
+     * @param array array to find the median of
+     * @return the median of the array
+     * @throws NoSuchElementException if the array is empty
+     * @throws NullPointerException if the array is null
+     */
+    public static double median(DoubleArray array) {
+        return percentile(array, 50.0);
+    }
+
+    /**
+     * Returns a percentile of a {@code double} array, interpolated linearly between the two
+     * elements closest to the rank {@code (size - 1) * percentile / 100} of the sorted array.
+     * NaN is ordered after everything else, like in {@link #toSorted(Array)}. The elements are
+     * found with an introselect on a copy of the array, which takes expected {@code O(n)} time.
+     *
+     * @param array      array to find the percentile of
+     * @param percentile percentile to find, from {@code 0.0} to {@code 100.0}
+     * @return the percentile of the array
+     * @throws IllegalArgumentException if the percentile is out of range
+     * @throws NoSuchElementException if the array is empty
+     * @throws NullPointerException if the array is null
+     */
+    public static double percentile(DoubleArray array, double percentile) {
+        validatePercentile(percentile);
+        validateArrayNotEmpty(array);
+        return percentileOfKeys(toKeys(array), percentile, true);
+    }
+
+    /**
+     * Returns the dot product of two {@code float} vectors of equal size, computed with SIMD
+     * instructions when available (see {@link ArrayUtils} for details).
+     *
+     * @param vector1 first vector
+     * @param vector2 second vector
+     * @return the dot product of the arrays, or zero if they are empty
+     * @throws IllegalArgumentException if vectors are of different size
+     * @throws NullPointerException if any of the vectors is null
+     */
+    public static float dotProduct(FloatArray vector1, FloatArray vector2) {
+        validateArraysOfEqualSize(vector1, vector2);
+        return PrimitiveOps.INSTANCE.dot(vector1.toFloatArray(), vector2.toFloatArray());
+    }
+
+    /**
+     * Returns the element-wise sum of two {@code float} arrays of equal size.
+     *
+     * @param array1 first array
+     * @param array2 second array
+     * @return a new array where each element is {@code array1[i] + array2[i]}
+     * @throws IllegalArgumentException if the arrays are of different size
+     * @throws NullPointerException if any of the arrays is null
+     */
+    public static FloatArray add(FloatArray array1, FloatArray array2) {
+        validateArraysOfEqualSize(array1, array2);
+        float[] sum = array1.toFloatArray();
+        PrimitiveOps.INSTANCE.add(sum, array2.toFloatArray(), sum);
+        return new TrustedFloatArray(sum);
+    }
+
+    /**
+     * Returns the element-wise product of two {@code float} arrays of equal size.
+     *
+     * @param array1 first array
+     * @param array2 second array
+     * @return a new array where each element is {@code array1[i] * array2[i]}
+     * @throws IllegalArgumentException if the arrays are of different size
+     * @throws NullPointerException if any of the arrays is null
+     */
+    public static FloatArray multiplyElementWise(FloatArray array1, FloatArray array2) {
+        validateArraysOfEqualSize(array1, array2);
+        float[] product = array1.toFloatArray();
+        PrimitiveOps.INSTANCE.multiply(product, array2.toFloatArray(), product);
+        return new TrustedFloatArray(product);
+    }
+
+    /**
+     * Returns the specified {@code float} array, with each element multiplied by the specified factor.
+     *
+     * @param array  array to scale
+     * @param factor factor to multiply each element with
+     * @return a new array where each element is {@code array[i] * factor}
+     * @throws NullPointerException if the array is null
+     */
+    public static FloatArray scale(FloatArray array, float factor) {
+        float[] product = array.toFloatArray();
+        PrimitiveOps.INSTANCE.scale(product, factor, product);
+        return new TrustedFloatArray(product);
+    }
+
+    /**
+     * Returns {@code alpha * x + y} for two {@code float} vectors of equal size.
+     *
+     * @param alpha factor to multiply each element of {@code x} with
+     * @param x     vector to scale
+     * @param y     vector to add
+     * @return a new array where each element is {@code alpha * x[i] + y[i]}
+     * @throws IllegalArgumentException if the vectors are of different size
+     * @throws NullPointerException if any of the vectors is null
+     */
+    public static FloatArray axpy(float alpha, FloatArray x, FloatArray y) {
+        validateArraysOfEqualSize(x, y);
+        float[] result = y.toFloatArray();
+        PrimitiveOps.INSTANCE.axpy(alpha, x.toFloatArray(), result);
+        return new TrustedFloatArray(result);
+    }
+
+    /**
+     * Returns the sum of all elements in a {@code float} array.
+     *
+     * @param array array to sum
+     * @return the sum of the elements, or zero if the array is empty
+     * @throws NullPointerException if the array is null
+     */
+    public static float sum(FloatArray array) {
+        return PrimitiveOps.INSTANCE.sum(array.toFloatArray());
+    }
+
+    /**
+     * Returns the smallest element in a {@code float} array. As with {@link Math#min(float, float)},
+     * the result is NaN if any element is NaN.
+     *
+     * @param array array to search
+     * @return the smallest element
+     * @throws NoSuchElementException if the array is empty
+     * @throws NullPointerException if the array is null
+     */
+    public static float min(FloatArray array) {
+        validateArrayNotEmpty(array);
+        return PrimitiveOps.INSTANCE.min(array.toFloatArray());
+    }
+
+    /**
+     * Returns the largest element in a {@code float} array. As with {@link Math#max(float, float)},
+     * the result is NaN if any element is NaN.
+     *
+     * @param array array to search
+     * @return the largest element
+     * @throws NoSuchElementException if the array is empty
+     * @throws NullPointerException if the array is null
+     */
+    public static float max(FloatArray array) {
+        validateArrayNotEmpty(array);
+        return PrimitiveOps.INSTANCE.max(array.toFloatArray());
+    }
+
+    /**
+     * Returns the dot product of two {@code int} vectors of equal size, computed with SIMD
+     * instructions when available (see {@link ArrayUtils} for details). The arithmetic
+     * overflows silently, like the {@code int} operators.
+     *
+     * @param vector1 first vector
+     * @param vector2 second vector
+     * @return the dot product of the arrays, or zero if they are empty
+     * @throws IllegalArgumentException if vectors are of different size
+     * @throws NullPointerException if any of the vectors is null
+     */
+    public static int dotProduct(IntArray vector1, IntArray vector2) {
+        validateArraysOfEqualSize(vector1, vector2);
+        return PrimitiveOps.INSTANCE.dot(vector1.toIntArray(), vector2.toIntArray());
+    }
+
+    /**
+     * Returns the element-wise sum of two {@code int} arrays of equal size.
+     *
+     * @param array1 first array
+     * @param array2 second array
+     * @return a new array where each element is {@code array1[i] + array2[i]}
+     * @throws IllegalArgumentException if the arrays are of different size
+     * @throws NullPointerException if any of the arrays is null
+     */
+    public static IntArray add(IntArray array1, IntArray array2) {
+        validateArraysOfEqualSize(array1, array2);
+        int[] sum = array1.toIntArray();
+        PrimitiveOps.INSTANCE.add(sum, array2.toIntArray(), sum);
+        return new TrustedIntArray(sum);
+    }
+
+    /**
+     * Returns the element-wise product of two {@code int} arrays of equal size.
+     *
+     * @param array1 first array
+     * @param array2 second array
+     * @return a new array where each element is {@code array1[i] * array2[i]}
+     * @throws IllegalArgumentException if the arrays are of different size
+     * @throws NullPointerException if any of the arrays is null
+     */
+    public static IntArray multiplyElementWise(IntArray array1, IntArray array2) {
+        validateArraysOfEqualSize(array1, array2);
+        int[] product = array1.toIntArray();
+        PrimitiveOps.INSTANCE.multiply(product, array2.toIntArray(), product);
+        return new TrustedIntArray(product);
+    }
+
+    /**
+     * Returns the specified {@code int} array, with each element multiplied by the specified factor.
+     *
+     * @param array  array to scale
+     * @param factor factor to multiply each element with
+     * @return a new array where each element is {@code array[i] * factor}
+     * @throws NullPointerException if the array is null
+     */
+    public static IntArray scale(IntArray array, int factor) {
+        int[] product = array.toIntArray();
+        PrimitiveOps.INSTANCE.scale(product, factor, product);
+        return new TrustedIntArray(product);
+    }
+
+    /**
+     * Returns {@code alpha * x + y} for two {@code int} vectors of equal size.
+     *
+     * @param alpha factor to multiply each element of {@code x} with
+     * @param x     vector to scale
+     * @param y     vector to add
+     * @return a new array where each element is {@code alpha * x[i] + y[i]}
+     * @throws IllegalArgumentException if the vectors are of different size
+     * @throws NullPointerException if any of the vectors is null
+     */
+    public static IntArray axpy(int alpha, IntArray x, IntArray y) {
+        validateArraysOfEqualSize(x, y);
+        int[] result = y.toIntArray();
+        PrimitiveOps.INSTANCE.axpy(alpha, x.toIntArray(), result);
+        return new TrustedIntArray(result);
+    }
+
+    /**
+     * Returns the sum of all elements in an {@code int} array.
+     *
+     * @param array array to sum
+     * @return the sum of the elements, or zero if the array is empty
+     * @throws NullPointerException if the array is null
+     */
+    public static int sum(IntArray array) {
+        return PrimitiveOps.INSTANCE.sum(array.toIntArray());
+    }
+
+    /**
+     * Returns the smallest element in an {@code int} array.
+     *
+     * @param array array to search
+     * @return the smallest element
+     * @throws NoSuchElementException if the array is empty
+     * @throws NullPointerException if the array is null
+     */
+    public static int min(IntArray array) {
+        validateArrayNotEmpty(array);
+        return PrimitiveOps.INSTANCE.min(array.toIntArray());
+    }
+
+    /**
+     * Returns the largest element in an {@code int} array.
+     *
+     * @param array array to search
+     * @return the largest element
+     * @throws NoSuchElementException if the array is empty
+     * @throws NullPointerException if the array is null
+     */
+    public static int max(IntArray array) {
+        validateArrayNotEmpty(array);
+        return PrimitiveOps.INSTANCE.max(array.toIntArray());
+    }
+
+    /**
+     * Returns the element at an index of an {@code int} array, if it was sorted, i.e. the
+     * same element as {@code toSorted(array).get(n)}. The element is found with an introselect
+     * on a copy of the array, which takes expected {@code O(n)} time.
+     *
+     * @param array array to select from
+     * @param n     index of the element in the sorted order
+     * @return the element at the index of the sorted array
+     * @throws ArrayIndexOutOfBoundsException if the index is out of range
+     * @throws NullPointerException if the array is null
+     */
+    public static int nthElement(IntArray array, int n) {
+        validateIndex(n, array.size());
+        long[] values = toLongs(array);
+        SelectKernels.select(values, n);
+        return (int) values[n];
+    }
+
+    /**
+     * Returns the median of an {@code int} array, which is the mean of the two middle
+     * elements if the size is even. This is the same as {@code percentile(array, 50.0)}.
+     *
+     * @param array array to find the median of
+     * @return the median of the array
+     * @throws NoSuchElementException if the array is empty
+     * @throws NullPointerException if the array is null
+     */
+    public static double median(IntArray array) {
+        return percentile(array, 50.0);
+    }
+
+    /**
+     * Returns a percentile of an {@code int} array, interpolated linearly between the two
+     * elements closest to the rank {@code (size - 1) * percentile / 100} of the sorted array.
+     * The elements are found with an introselect on a copy of the array, which takes expected
+     * {@code O(n)} time.
+     *
+     * @param array      array to find the percentile of
+     * @param percentile percentile to find, from {@code 0.0} to {@code 100.0}
+     * @return the percentile of the array
+     * @throws IllegalArgumentException if the percentile is out of range
+     * @throws NoSuchElementException if the array is empty
+     * @throws NullPointerException if the array is null
+     */
+    public static double percentile(IntArray array, double percentile) {
+        validatePercentile(percentile);
+        validateArrayNotEmpty(array);
+        return percentileOfKeys(toLongs(array), percentile, false);
+    }
+
+    /**
+     * Returns the cumulative sums of an {@code int} array, where each element of the
+     * result is the sum of the elements up to it, or before it for an exclusive scan, which
+     * starts from zero. The sums overflow silently like the {@code int} operators.
+     *
+     * @param array array to scan
+     * @param mode  whether each element of the result includes the element at its index
+     * @return a new array with the scan of the elements
+     * @throws NullPointerException if the array or the mode is null
+     */
+    public static IntArray cumulativeSum(IntArray array, ScanMode mode) {
+        return new TrustedIntArray(ScanKernels.scan(array.toIntArray(), ScanKernels.Op.SUM, isExclusive(mode), null));
+    }
+
+    /**
+     * Returns the cumulative sums of an {@code int} array, computed in parallel on the common
+     * {@link ForkJoinPool}. The result is the same as {@link #cumulativeSum(IntArray, ScanMode)}.
+     *
+     * @param array array to scan
+     * @param mode  whether each element of the result includes the element at its index
+     * @return a new array with the scan of the elements
+     * @throws NullPointerException if the array or the mode is null
+     */
+    public static IntArray parallelCumulativeSum(IntArray array, ScanMode mode) {
+        return parallelCumulativeSum(array, mode, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the cumulative sums of an {@code int} array, computed in parallel on the specified
+     * {@link ForkJoinPool}. The result is the same as {@link #cumulativeSum(IntArray, ScanMode)}.
+     *
+     * @param array array to scan
+     * @param mode  whether each element of the result includes the element at its index
+     * @param pool  pool to scan the array in
+     * @return a new array with the scan of the elements
+     * @throws NullPointerException if the array, the mode or the pool is null
+     */
+    public static IntArray parallelCumulativeSum(IntArray array, ScanMode mode, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return new TrustedIntArray(ScanKernels.scan(array.toIntArray(), ScanKernels.Op.SUM, isExclusive(mode), scanningPool(array, pool)));
+    }
+
+    /**
+     * Returns the running maxima of an {@code int} array, where each element of the
+     * result is the largest of the elements up to it, or before it for an exclusive scan,
+     * which starts from {@code Integer.MIN_VALUE}.
+     *
+     * @param array array to scan
+     * @param mode  whether each element of the result includes the element at its index
+     * @return a new array with the scan of the elements
+     * @throws NullPointerException if the array or the mode is null
+     */
+    public static IntArray cumulativeMax(IntArray array, ScanMode mode) {
+        return new TrustedIntArray(ScanKernels.scan(array.toIntArray(), ScanKernels.Op.MAX, isExclusive(mode), null));
+    }
+
+    /**
+     * Returns the running maxima of an {@code int} array, computed in parallel on the common
+     * {@link ForkJoinPool}. The result is the same as {@link #cumulativeMax(IntArray, ScanMode)}.
+     *
+     * @param array array to scan
+     * @param mode  whether each element of the result includes the element at its index
+     * @return a new array with the scan of the elements
+     * @throws NullPointerException if the array or the mode is null
+     */
+    public static IntArray parallelCumulativeMax(IntArray array, ScanMode mode) {
+        return parallelCumulativeMax(array, mode, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the running maxima of an {@code int} array, computed in parallel on the specified
+     * {@link ForkJoinPool}. The result is the same as {@link #cumulativeMax(IntArray, ScanMode)}.
+     *
+     * @param array array to scan
+     * @param mode  whether each element of the result includes the element at its index
+     * @param pool  pool to scan the array in
+     * @return a new array with the scan of the elements
+     * @throws NullPointerException if the array, the mode or the pool is null
+     */
+    public static IntArray parallelCumulativeMax(IntArray array, ScanMode mode, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return new TrustedIntArray(ScanKernels.scan(array.toIntArray(), ScanKernels.Op.MAX, isExclusive(mode), scanningPool(array, pool)));
+    }
+
+    /**
+     * Returns the running minima of an {@code int} array, where each element of the
+     * result is the smallest of the elements up to it, or before it for an exclusive scan,
+     * which starts from {@code Integer.MAX_VALUE}.
+     *
+     * @param array array to scan
+     * @param mode  whether each element of the result includes the element at its index
+     * @return a new array with the scan of the elements
+     * @throws NullPointerException if the array or the mode is null
+     */
+    public static IntArray cumulativeMin(IntArray array, ScanMode mode) {
+        return new TrustedIntArray(ScanKernels.scan(array.toIntArray(), ScanKernels.Op.MIN, isExclusive(mode), null));
+    }
+
+    /**
+     * Returns the running minima of an {@code int} array, computed in parallel on the common
+     * {@link ForkJoinPool}. The result is the same as {@link #cumulativeMin(IntArray, ScanMode)}.
+     *
+     * @param array array to scan
+     * @param mode  whether each element of the result includes the element at its index
+     * @return a new array with the scan of the elements
+     * @throws NullPointerException if the array or the mode is null
+     */
+    public static IntArray parallelCumulativeMin(IntArray array, ScanMode mode) {
+        return parallelCumulativeMin(array, mode, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the running minima of an {@code int} array, computed in parallel on the specified
+     * {@link ForkJoinPool}. The result is the same as {@link #cumulativeMin(IntArray, ScanMode)}.
+     *
+     * @param array array to scan
+     * @param mode  whether each element of the result includes the element at its index
+     * @param pool  pool to scan the array in
+     * @return a new array with the scan of the elements
+     * @throws NullPointerException if the array, the mode or the pool is null
+     */
+    public static IntArray parallelCumulativeMin(IntArray array, ScanMode mode, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return new TrustedIntArray(ScanKernels.scan(array.toIntArray(), ScanKernels.Op.MIN, isExclusive(mode), scanningPool(array, pool)));
+    }
+
+    /**
+     * Returns the element at an index of a {@code long} array, if it was sorted, i.e. the
+     * same element as {@code toSorted(array).get(n)}. The element is found with an introselect
+     * on a copy of the array, which takes expected {@code O(n)} time.
+     *
+     * @param array array to select from
+     * @param n     index of the element in the sorted order
+     * @return the element at the index of the sorted array
+     * @throws ArrayIndexOutOfBoundsException if the index is out of range
+     * @throws NullPointerException if the array is null
+     */
+    public static long nthElement(LongArray array, int n) {
+        validateIndex(n, array.size());
+        long[] values = array.toLongArray();
+        SelectKernels.select(values, n);
+        return values[n];
+    }
+
+    /**
+     * Returns the median of a {@code long} array, which is the mean of the two middle
+     * elements if the size is even. This is the same as {@code percentile(array, 50.0)}.
+     *
+     * @param array array to find the median of
+     * @return the median of the array
+     * @throws NoSuchElementException if the array is empty
+     * @throws NullPointerException if the array is null
+     */
+    public static double median(LongArray array) {
+        return percentile(array, 50.0);
+    }
+
+    /**
+     * Returns a percentile of a {@code long} array, interpolated linearly between the two
+     * elements closest to the rank {@code (size - 1) * percentile / 100} of the sorted array.
+     * The elements are found with an introselect on a copy of the array, which takes expected
+     * {@code O(n)} time.
+     *
+     * @param array      array to find the percentile of
+     * @param percentile percentile to find, from {@code 0.0} to {@code 100.0}
+     * @return the percentile of the array
+     * @throws IllegalArgumentException if the percentile is out of range
+     * @throws NoSuchElementException if the array is empty
+     * @throws NullPointerException if the array is null
+     */
+    public static double percentile(LongArray array, double percentile) {
+        validatePercentile(percentile);
+        validateArrayNotEmpty(array);
+        return percentileOfKeys(array.toLongArray(), percentile, false);
+    }
+
+    /**
+     * Returns the cumulative sums of a {@code long} array, where each element of the
+     * result is the sum of the elements up to it, or before it for an exclusive scan, which
+     * starts from zero. The sums overflow silently like the {@code long} operators.
+     *
+     * @param array array to scan
+     * @param mode  whether each element of the result includes the element at its index
+     * @return a new array with the scan of the elements
+     * @throws NullPointerException if the array or the mode is null
+     */
+    public static LongArray cumulativeSum(LongArray array, ScanMode mode) {
+        return new TrustedLongArray(ScanKernels.scan(array.toLongArray(), ScanKernels.Op.SUM, isExclusive(mode), null));
+    }
+
+    /**
+     * Returns the cumulative sums of a {@code long} array, computed in parallel on the common
+     * {@link ForkJoinPool}. The result is the same as {@link #cumulativeSum(LongArray, ScanMode)}.
+     *
+     * @param array array to scan
+     * @param mode  whether each element of the result includes the element at its index
+     * @return a new array with the scan of the elements
+     * @throws NullPointerException if the array or the mode is null
+     */
+    public static LongArray parallelCumulativeSum(LongArray array, ScanMode mode) {
+        return parallelCumulativeSum(array, mode, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the cumulative sums of a {@code long} array, computed in parallel on the specified
+     * {@link ForkJoinPool}. The result is the same as {@link #cumulativeSum(LongArray, ScanMode)}.
+     *
+     * @param array array to scan
+     * @param mode  whether each element of the result includes the element at its index
+     * @param pool  pool to scan the array in
+     * @return a new array with the scan of the elements
+     * @throws NullPointerException if the array, the mode or the pool is null
+     */
+    public static LongArray parallelCumulativeSum(LongArray array, ScanMode mode, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return new TrustedLongArray(ScanKernels.scan(array.toLongArray(), ScanKernels.Op.SUM, isExclusive(mode), scanningPool(array, pool)));
+    }
+
+    /**
+     * Returns the running maxima of a {@code long} array, where each element of the
+     * result is the largest of the elements up to it, or before it for an exclusive scan,
+     * which starts from {@code Long.MIN_VALUE}.
+     *
+     * @param array array to scan
+     * @param mode  whether each element of the result includes the element at its index
+     * @return a new array with the scan of the elements
+     * @throws NullPointerException if the array or the mode is null
+     */
+    public static LongArray cumulativeMax(LongArray array, ScanMode mode) {
+        return new TrustedLongArray(ScanKernels.scan(array.toLongArray(), ScanKernels.Op.MAX, isExclusive(mode), null));
+    }
+
+    /**
+     * Returns the running maxima of a {@code long} array, computed in parallel on the common
+     * {@link ForkJoinPool}. The result is the same as {@link #cumulativeMax(LongArray, ScanMode)}.
+     *
+     * @param array array to scan
+     * @param mode  whether each element of the result includes the element at its index
+     * @return a new array with the scan of the elements
+     * @throws NullPointerException if the array or the mode is null
+     */
+    public static LongArray parallelCumulativeMax(LongArray array, ScanMode mode) {
+        return parallelCumulativeMax(array, mode, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the running maxima of a {@code long} array, computed in parallel on the specified
+     * {@link ForkJoinPool}. The result is the same as {@link #cumulativeMax(LongArray, ScanMode)}.
+     *
+     * @param array array to scan
+     * @param mode  whether each element of the result includes the element at its index
+     * @param pool  pool to scan the array in
+     * @return a new array with the scan of the elements
+     * @throws NullPointerException if the array, the mode or the pool is null
+     */
+    public static LongArray parallelCumulativeMax(LongArray array, ScanMode mode, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return new TrustedLongArray(ScanKernels.scan(array.toLongArray(), ScanKernels.Op.MAX, isExclusive(mode), scanningPool(array, pool)));
+    }
+
+    /**
+     * Returns the running minima of a {@code long} array, where each element of the
+     * result is the smallest of the elements up to it, or before it for an exclusive scan,
+     * which starts from {@code Long.MAX_VALUE}.
+     *
+     * @param array array to scan
+     * @param mode  whether each element of the result includes the element at its index
+     * @return a new array with the scan of the elements
+     * @throws NullPointerException if the array or the mode is null
+     */
+    public static LongArray cumulativeMin(LongArray array, ScanMode mode) {
+        return new TrustedLongArray(ScanKernels.scan(array.toLongArray(), ScanKernels.Op.MIN, isExclusive(mode), null));
+    }
+
+    /**
+     * Returns the running minima of a {@code long} array, computed in parallel on the common
+     * {@link ForkJoinPool}. The result is the same as {@link #cumulativeMin(LongArray, ScanMode)}.
+     *
+     * @param array array to scan
+     * @param mode  whether each element of the result includes the element at its index
+     * @return a new array with the scan of the elements
+     * @throws NullPointerException if the array or the mode is null
+     */
+    public static LongArray parallelCumulativeMin(LongArray array, ScanMode mode) {
+        return parallelCumulativeMin(array, mode, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the running minima of a {@code long} array, computed in parallel on the specified
+     * {@link ForkJoinPool}. The result is the same as {@link #cumulativeMin(LongArray, ScanMode)}.
+     *
+     * @param array array to scan
+     * @param mode  whether each element of the result includes the element at its index
+     * @param pool  pool to scan the array in
+     * @return a new array with the scan of the elements
+     * @throws NullPointerException if the array, the mode or the pool is null
+     */
+    public static LongArray parallelCumulativeMin(LongArray array, ScanMode mode, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return new TrustedLongArray(ScanKernels.scan(array.toLongArray(), ScanKernels.Op.MIN, isExclusive(mode), scanningPool(array, pool)));
+    }
+
+    private static class TrustedImmutableArray<E> extends ImmutableArray<E> {
+        private TrustedImmutableArray(Object[] elementData) {
+            super(elementData, true);
+        }
+    }
+
+    private static class TrustedComplexArray extends ComplexArray {
+        private TrustedComplexArray(double[] elementData) {
+            super(elementData, true);
+        }
+    }
+
+    private static class TrustedDoubleArray extends DoubleArray {
+        private TrustedDoubleArray(double[] elementData) {
+            super(elementData, true);
+        }
+    }
+
+    private static class TrustedFloatArray extends FloatArray {
+        private TrustedFloatArray(float[] elementData) {
+            super(elementData, true);
+        }
+    }
+
+    private static class TrustedIntArray extends IntArray {
+        private TrustedIntArray(int[] elementData) {
+            super(elementData, true);
+        }
+    }
+
+    private static class TrustedLongArray extends LongArray {
+        private TrustedLongArray(long[] elementData) {
+            super(elementData, true);
+        }
+    }
+
+    private static long[] toKeys(DoubleArray array) {
+        long[] keys = new long[array.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = SelectKernels.toKey(array.getDouble(i));
+        }
+        return keys;
+    }
+
+    private static long[] toLongs(IntArray array) {
+        long[] values = new long[array.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = array.getInt(i);
+        }
+        return values;
+    }
+
+    /**
+     * Returns the percentile of the values, which are keys of {@code double} values if
+     * {@code doubles} is set. The lower of the two elements to interpolate between is
+     * selected, and the upper one is the smallest element after it.
+     */
+    private static double percentileOfKeys(long[] keys, double percentile, boolean doubles) {
+        double rank = (keys.length - 1) * (percentile / 100.0);
+        int lower = (int) rank;
+        SelectKernels.select(keys, lower);
+        double value = doubles ? SelectKernels.fromKey(keys[lower]) : keys[lower];
+        double fraction = rank - lower;
+        if (fraction == 0.0) {
+            return value;
+        }
+        long upperKey = SelectKernels.min(keys, lower + 1);
+        double upper = doubles ? SelectKernels.fromKey(upperKey) : upperKey;
+        return value == upper ? value : value + fraction * (upper - value);
+    }
+
+    private static boolean isExclusive(ScanMode mode) {
+        return Objects.requireNonNull(mode) == ScanMode.EXCLUSIVE;
+    }
+
+    /**
+     * Returns the pool to scan the array in, or null if the array is too small to be worth
+     * splitting, or the pool only has one thread, since a parallel scan reads the array twice.
+     */
+    private static ForkJoinPool scanningPool(Array<?> array, ForkJoinPool pool) {
+        return array.size() >= PARALLEL_THRESHOLD && pool.getParallelism() > 1 ? pool : null;
+    }
+
+    private static void validateArraysOfEqualSize(Array<?> vector1, Array<?> vector2) {
+        if (vector1.size() != vector2.size()) {
+            throw new IllegalArgumentException("Vectors for must be of equal size, but sizes were " + vector1.size() + " and " + vector2.size());
+        }
+    }
+
+    private static void validateArrayNotEmpty(Array<?> array) {
+        if (array.isEmpty()) {
+            throw new NoSuchElementException("Array must not be empty");
+        }
+    }
+
+    private static void validateCountNotNegative(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative, but was " + count);
+        }
+    }
+
+    private static void validateIndex(int index, int length) {
+        if (index < 0 || index >= length) {
+            throw new ArrayIndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+        }
+    }
+
+    private static void validatePercentile(double percentile) {
+        if (!(percentile >= 0.0 && percentile <= 100.0)) {
+            throw new IllegalArgumentException("Percentile must be from 0 to 100, but was " + percentile);
         }
     }
 
@@ -0,0 +1,84 @@
+package org.viktori.matteray.util;
+
+/**
+ * A policy for reading the elements outside of a matrix, which a stencil or convolution in
+ * {@link MatrixUtils} needs for the elements near the edges.
+ *
+ * <ul>
+ *     <li>{@link #clamp()} reads the nearest element on the edge, so the edges extend outwards.</li>
+ *     <li>{@link #wrap()} reads the element from the opposite edge, as if the matrix was a torus,
+ *     which suits periodic grids.</li>
+ *     <li>{@link #constant(double)} reads the same value everywhere outside, such as zero
+ *     padding.</li>
+ * </ul>
+ *
+ * <p>A border is immutable, and thread safe.
+ *
+ * @author Viktor Ingemansson
+ * @see MatrixUtils#convolve(org.viktori.matteray.DoubleMatrix, org.viktori.matteray.DoubleMatrix, Border)
+ * @see MatrixUtils#stencil(org.viktori.matteray.DoubleMatrix, int, Border, org.viktori.matteray.function.DoubleStencilFunction)
+ */
+public final class Border {
+
+    enum Kind {
+        CLAMP, WRAP, CONSTANT
+    }
+
+    private static final Border CLAMP = new Border(Kind.CLAMP, 0.0);
+    private static final Border WRAP = new Border(Kind.WRAP, 0.0);
+
+    private final Kind kind;
+
+    /**
+     * Value outside of the matrix, for a constant border
+     */
+    private final double value;
+
+    private Border(Kind kind, double value) {
+        this.kind = kind;
+        this.value = value;
+    }
+
+    /**
+     * Returns a border which reads the nearest element on the edge of the matrix, i.e. the
+     * indices are clamped to the matrix.
+     *
+     * @return a clamping border
+     */
+    public static Border clamp() {
+        return CLAMP;
+    }
+
+    /**
+     * Returns a border which reads the element from the opposite edge of the matrix, i.e. the
+     * indices wrap around modulo the size of the matrix.
+     *
+     * @return a wrapping border
+     */
+    public static Border wrap() {
+        return WRAP;
+    }
+
+    /**
+     * Returns a border which reads the specified value for every element outside of the matrix.
+     *
+     * @param value value outside of the matrix
+     * @return a constant border
+     */
+    public static Border constant(double value) {
+        return new Border(Kind.CONSTANT, value);
+    }
+
+    Kind kind() {
+        return kind;
+    }
+
+    double value() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return kind == Kind.CONSTANT ? "constant(" + value + ")" : kind.name().toLowerCase();
+    }
+}
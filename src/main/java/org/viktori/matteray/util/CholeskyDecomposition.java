@@ -0,0 +1,175 @@
+package org.viktori.matteray.util;
+
+import org.viktori.matteray.Array;
+import org.viktori.matteray.DoubleArray;
+import org.viktori.matteray.DoubleMatrix;
+import org.viktori.matteray.Matrix;
+
+import java.util.Objects;
+
+/**
+ * Cholesky decomposition of a symmetric positive-definite matrix of numbers, such as a
+ * covariance matrix. The matrix {@code A} is factored into a lower triangular matrix {@code L},
+ * such that {@code A = L * L^T}. It takes half the work of an {@link LUDecomposition}, needs no
+ * pivoting, and a decomposition can be reused for any number of right-hand sides.
+ *
+ * <p>Only the lower triangle of the matrix, including the diagonal, is used, so the upper
+ * triangle may hold anything, and {@link Matrix#get} is never called above the diagonal. A
+ * matrix which only stores one triangle can be passed as it is. The factorization is computed
+ * on a single row-major {@code double[]}, with each element of {@code L} computed as a dot
+ * product of two rows, which runs with SIMD instructions when available.
+ *
+ * <p>A decomposition is immutable, and thread safe.
+ *
+ * @author Viktor Ingemansson
+ * @see LUDecomposition
+ */
+public final class CholeskyDecomposition {
+
+    /**
+     * Row-major lower triangular factor, with zeros above the diagonal
+     */
+    private final double[] factor;
+
+    /**
+     * Row and column count of the matrix
+     */
+    private final int size;
+
+    private CholeskyDecomposition(double[] factor, int size) {
+        this.factor = factor;
+        this.size = size;
+    }
+
+    /**
+     * Computes the Cholesky decomposition of the specified symmetric positive-definite matrix,
+     * reading only its lower triangle.
+     *
+     * @param matrix matrix to decompose
+     * @return the decomposition of the matrix
+     * @throws IllegalArgumentException if the matrix is not square, or not positive definite
+     * @throws NullPointerException if the matrix is null, or contains null elements
+     */
+    public static CholeskyDecomposition decompose(Matrix<? extends Number> matrix) {
+        Objects.requireNonNull(matrix);
+        if (!matrix.isSquare()) {
+            throw new IllegalArgumentException("Matrix must be square, but size was " + matrix.rows() + "x" + matrix.columns());
+        }
+        int size = matrix.rows();
+        double[] factor = DecompositionKernels.toRowMajorLower(matrix);
+        if (!DecompositionKernels.factorCholesky(factor, size)) {
+            throw new IllegalArgumentException("Matrix must be positive definite");
+        }
+        return new CholeskyDecomposition(factor, size);
+    }
+
+    /**
+     * Returns the row and column count of the decomposed matrix.
+     *
+     * @return the size of the matrix
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the lower triangular factor {@code L}.
+     *
+     * @return a new matrix with the lower factor
+     */
+    public DoubleMatrix lower() {
+        return new TrustedDoubleMatrix(factor.clone(), size, size);
+    }
+
+    /**
+     * Returns the determinant of the decomposed matrix, which is the square of the product of
+     * the diagonal of {@code L}. The determinant of an empty matrix is one.
+     *
+     * @return the determinant of the matrix
+     */
+    public double determinant() {
+        double product = 1.0;
+        for (int i = 0; i < size; i++) {
+            product *= factor[i * size + i];
+        }
+        return product * product;
+    }
+
+    /**
+     * Solves the linear system {@code A * x = b} for the specified vector {@code b}, where
+     * {@code A} is the decomposed matrix.
+     *
+     * @param vector right-hand side, with one element per row of the matrix
+     * @return a new array with the solution
+     * @throws IllegalArgumentException if the size of the vector is different from the size of
+     *                                  the matrix
+     * @throws NullPointerException if the vector is null, or contains null elements
+     */
+    public DoubleArray solve(Array<? extends Number> vector) {
+        Objects.requireNonNull(vector);
+        if (vector.size() != size) {
+            throw new IllegalArgumentException("Size of vector must be equal to size of matrix, but sizes were " + vector.size() + " and " + size);
+        }
+
+        double[] solution = new double[size];
+        for (int i = 0; i < size; i++) {
+            solution[i] = vector.get(i).doubleValue();
+        }
+        DecompositionKernels.solveLower(factor, size, solution, 1);
+        DecompositionKernels.solveLowerTranspose(factor, size, solution, 1);
+        return new TrustedDoubleArray(solution);
+    }
+
+    /**
+     * Solves the linear system {@code A * X = B} for the specified matrix {@code B}, where
+     * {@code A} is the decomposed matrix. Each column of the result is the solution for the
+     * matching column of {@code B}, and all columns are solved in the same pass.
+     *
+     * @param matrix right-hand sides, with one row per row of the matrix
+     * @return a new matrix with the solutions
+     * @throws IllegalArgumentException if the row count of the right-hand sides is different from
+     *                                  the size of the matrix
+     * @throws NullPointerException if the matrix is null, or contains null elements
+     */
+    public DoubleMatrix solve(Matrix<? extends Number> matrix) {
+        Objects.requireNonNull(matrix);
+        if (matrix.rows() != size) {
+            throw new IllegalArgumentException("Row count of matrix must be equal to size of decomposed matrix, but was " + matrix.rows() + " and " + size);
+        }
+
+        int columns = matrix.columns();
+        double[] solution = DecompositionKernels.toRowMajor(matrix);
+        DecompositionKernels.solveLower(factor, size, solution, columns);
+        DecompositionKernels.solveLowerTranspose(factor, size, solution, columns);
+        return new TrustedDoubleMatrix(solution, size, columns);
+    }
+
+    /**
+     * Returns the inverse of the decomposed matrix, by solving for each column of the identity
+     * matrix. Solving a system with {@link #solve} is both faster and more accurate than
+     * multiplying with the inverse.
+     *
+     * @return a new matrix with the inverse
+     */
+    public DoubleMatrix inverse() {
+        double[] inverse = new double[size * size];
+        for (int i = 0; i < size; i++) {
+            inverse[i * size + i] = 1.0;
+        }
+        DecompositionKernels.solveLower(factor, size, inverse, size);
+        DecompositionKernels.solveLowerTranspose(factor, size, inverse, size);
+        return new TrustedDoubleMatrix(inverse, size, size);
+    }
+
+    private static class TrustedDoubleMatrix extends DoubleMatrix {
+        private TrustedDoubleMatrix(double[] elementData, int rows, int columns) {
+            super(elementData, true, rows, columns);
+        }
+    }
+
+    private static class TrustedDoubleArray extends DoubleArray {
+        private TrustedDoubleArray(double[] elementData) {
+            super(elementData, true);
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package org.viktori.matteray.util;
+
+import org.viktori.matteray.IntMatrix;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The connected components of a grid, i.e. the regions of elements which are connected through
+ * their neighbours, as labeled by {@link MatrixUtils#connectedComponents}. Each component has
+ * a label from {@code 0} to {@code count() - 1}, in the order their first element appears
+ * row by row, and elements which are not part of any component have the label {@code -1}.
+ *
+ * <p>The components are found with a union-find over the elements, which needs no queue or
+ * recursion. The rows are split in bands which are labeled concurrently, and the components
+ * which cross the edges between the bands are merged afterwards, so the labels are the same
+ * however the rows were split.
+ *
+ * <p>The components are immutable, and thread safe.
+ *
+ * @author Viktor Ingemansson
+ * @see MatrixUtils#connectedComponents(org.viktori.matteray.Matrix, Connectivity)
+ */
+public final class ConnectedComponents {
+
+    /**
+     * Number of elements below which the components are labeled in the calling thread
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 18;
+
+    /**
+     * Which neighbours of an element it is connected to.
+     */
+    public enum Connectivity {
+        /**
+         * The four neighbours which share an edge with the element, i.e. above, below, left and right.
+         */
+        FOUR,
+
+        /**
+         * The eight neighbours which share an edge or a corner with the element.
+         */
+        EIGHT
+    }
+
+    private final int[] labels;
+    private final int rows;
+    private final int columns;
+    private final int[] sizes;
+    private final int[] minRows;
+    private final int[] minColumns;
+    private final int[] maxRows;
+    private final int[] maxColumns;
+
+    private ConnectedComponents(int[] labels, int rows, int columns, int count) {
+        this.labels = labels;
+        this.rows = rows;
+        this.columns = columns;
+        this.sizes = new int[count];
+        this.minRows = new int[count];
+        this.minColumns = new int[count];
+        this.maxRows = new int[count];
+        this.maxColumns = new int[count];
+        Arrays.fill(minColumns, Integer.MAX_VALUE);
+        for (int r = 0, p = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++, p++) {
+                int label = labels[p];
+                if (label >= 0) {
+                    if (sizes[label]++ == 0) {
+                        // The first element of a component is on its top row
+                        minRows[label] = r;
+                    }
+                    minColumns[label] = Math.min(minColumns[label], c);
+                    maxColumns[label] = Math.max(maxColumns[label], c);
+                    maxRows[label] = r;
+                }
+            }
+        }
+    }
+
+    /**
+     * Labels the connected components of the grid of classes in row-major order, where
+     * neighbours with equal classes are connected. If the grid has a background, elements of
+     * the background class are not part of any component.
+     *
+     * @param classes class of each element, which is overwritten with the labels
+     * @param hasBackground if the elements of the background class are left out
+     * @param background class of the elements to leave out
+     * @param pool pool to label the bands in, or null to label in the calling thread
+     */
+    static ConnectedComponents label(int[] classes, int rows, int columns, boolean hasBackground, int background,
+                                     Connectivity connectivity, ForkJoinPool pool) {
+        boolean eight = connectivity == Connectivity.EIGHT;
+        int[] parents = new int[classes.length];
+        int grain = pool == null || classes.length < PARALLEL_THRESHOLD ? Math.max(rows, 1) : ParallelRanges.grainFor(pool, rows, 1, 1);
+        int bands = (rows + grain - 1) / grain;
+        int[] roots = new int[bands + 1];
+
+        forEachBand(pool, bands, band -> {
+            int fromRow = band * grain;
+            int toRow = Math.min(rows, fromRow + grain);
+            for (int r = fromRow; r < toRow; r++) {
+                for (int c = 0, p = r * columns; c < columns; c++, p++) {
+                    if (hasBackground && classes[p] == background) {
+                        parents[p] = -1;
+                    } else {
+                        parents[p] = p;
+                        connect(classes, parents, columns, c, p, c > 0, r > fromRow, eight);
+                    }
+                }
+            }
+        });
+        // Merge the components across the edges between the bands
+        for (int band = 1; band < bands; band++) {
+            int r = band * grain;
+            for (int c = 0, p = r * columns; c < columns; c++, p++) {
+                if (parents[p] >= 0) {
+                    connect(classes, parents, columns, c, p, false, true, eight);
+                }
+            }
+        }
+
+        // Point every element directly at its root, and count the roots of each band
+        forEachBand(pool, bands, band -> {
+            int from = band * grain * columns;
+            int to = Math.min(rows, (band + 1) * grain) * columns;
+            int count = 0;
+            for (int p = from; p < to; p++) {
+                int parent = parents[p];
+                if (parent >= 0) {
+                    while (parents[parent] != parent) {
+                        parent = parents[parent];
+                    }
+                    parents[p] = parent;
+                    if (parent == p) {
+                        count++;
+                    }
+                }
+            }
+            roots[band + 1] = count;
+        });
+        for (int band = 0; band < bands; band++) {
+            roots[band + 1] += roots[band];
+        }
+        // The classes are no longer needed, so the labels are written over them
+        forEachBand(pool, bands, band -> {
+            int label = roots[band];
+            for (int p = band * grain * columns, to = Math.min(rows, (band + 1) * grain) * columns; p < to; p++) {
+                if (parents[p] == p) {
+                    classes[p] = label++;
+                }
+            }
+        });
+        forEachBand(pool, bands, band -> {
+            for (int p = band * grain * columns, to = Math.min(rows, (band + 1) * grain) * columns; p < to; p++) {
+                int parent = parents[p];
+                if (parent < 0) {
+                    classes[p] = -1;
+                } else if (parent != p) {
+                    classes[p] = classes[parent];
+                }
+            }
+        });
+        return new ConnectedComponents(classes, rows, columns, roots[bands]);
+    }
+
+    /**
+     * Joins an element with the neighbours before it in row-major order which have the same
+     * class. The root of the element is kept in hand, so only the roots of the neighbours are
+     * looked up.
+     */
+    private static void connect(int[] classes, int[] parents, int columns, int c, int p, boolean hasLeft, boolean hasAbove, boolean eight) {
+        int root = find(parents, p);
+        int elementClass = classes[p];
+        if (hasLeft && classes[p - 1] == elementClass) {
+            root = union(parents, root, p - 1);
+        }
+        if (hasAbove) {
+            int above = p - columns;
+            if (classes[above] == elementClass) {
+                root = union(parents, root, above);
+            }
+            if (eight && c > 0 && classes[above - 1] == elementClass) {
+                root = union(parents, root, above - 1);
+            }
+            if (eight && c < columns - 1 && classes[above + 1] == elementClass) {
+                root = union(parents, root, above + 1);
+            }
+        }
+    }
+
+    /**
+     * Joins the set with the specified root with the set of an element, keeping the root with
+     * the lowest index, so every parent is before its child in row-major order, and the root
+     * of a component is its first element. Returns the root of the joined set.
+     */
+    private static int union(int[] parents, int root, int q) {
+        int rootQ = find(parents, q);
+        if (rootQ < root) {
+            parents[root] = rootQ;
+            return rootQ;
+        }
+        if (root < rootQ) {
+            parents[rootQ] = root;
+        }
+        return root;
+    }
+
+    /**
+     * Returns the root of an element, and halves the path to it on the way.
+     */
+    private static int find(int[] parents, int p) {
+        while (parents[p] != p) {
+            parents[p] = parents[parents[p]];
+            p = parents[p];
+        }
+        return p;
+    }
+
+    private static void forEachBand(ForkJoinPool pool, int bands, BandAction action) {
+        if (pool == null || bands <= 1) {
+            for (int band = 0; band < bands; band++) {
+                action.run(band);
+            }
+        } else {
+            ParallelRanges.forRange(pool, 0, bands, 1, (from, to) -> {
+                for (int band = from; band < to; band++) {
+                    action.run(band);
+                }
+            });
+        }
+    }
+
+    @FunctionalInterface
+    private interface BandAction {
+        void run(int band);
+    }
+
+    /**
+     * Returns the number of components.
+     *
+     * @return the number of components
+     */
+    public int count() {
+        return sizes.length;
+    }
+
+    /**
+     * Returns the label of each element, which is {@code -1} for elements which are not part of
+     * any component.
+     *
+     * @return a new matrix with the label of each element
+     */
+    public IntMatrix labels() {
+        return new TrustedIntMatrix(labels.clone(), rows, columns);
+    }
+
+    /**
+     * Returns the label of the element at the specified position.
+     *
+     * @param rowIndex row index of the element
+     * @param columnIndex column index of the element
+     * @return the label of the element, or {@code -1} if it is not part of any component
+     * @throws ArrayIndexOutOfBoundsException if either index is out of range
+     */
+    public int label(int rowIndex, int columnIndex) {
+        validateIndex(rowIndex, rows);
+        validateIndex(columnIndex, columns);
+        return labels[rowIndex * columns + columnIndex];
+    }
+
+    /**
+     * Returns the number of elements in the specified component.
+     *
+     * @param label label of the component
+     * @return the size of the component
+     * @throws ArrayIndexOutOfBoundsException if the label is out of range
+     */
+    public int size(int label) {
+        validateIndex(label, sizes.length);
+        return sizes[label];
+    }
+
+    /**
+     * Returns the index of the top row of the bounding box of the specified component.
+     *
+     * @param label label of the component
+     * @return the first row of the component
+     * @throws ArrayIndexOutOfBoundsException if the label is out of range
+     */
+    public int minRow(int label) {
+        validateIndex(label, sizes.length);
+        return minRows[label];
+    }
+
+    /**
+     * Returns the index of the leftmost column of the bounding box of the specified component.
+     *
+     * @param label label of the component
+     * @return the first column of the component
+     * @throws ArrayIndexOutOfBoundsException if the label is out of range
+     */
+    public int minColumn(int label) {
+        validateIndex(label, sizes.length);
+        return minColumns[label];
+    }
+
+    /**
+     * Returns the index of the bottom row of the bounding box of the specified component,
+     * which is inclusive.
+     *
+     * @param label label of the component
+     * @return the last row of the component
+     * @throws ArrayIndexOutOfBoundsException if the label is out of range
+     */
+    public int maxRow(int label) {
+        validateIndex(label, sizes.length);
+        return maxRows[label];
+    }
+
+    /**
+     * Returns the index of the rightmost column of the bounding box of the specified component,
+     * which is inclusive.
+     *
+     * @param label label of the component
+     * @return the last column of the component
+     * @throws ArrayIndexOutOfBoundsException if the label is out of range
+     */
+    public int maxColumn(int label) {
+        validateIndex(label, sizes.length);
+        return maxColumns[label];
+    }
+
+    private static void validateIndex(int index, int length) {
+        if (index < 0 || index >= length) {
+            throw new ArrayIndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+        }
+    }
+
+    private static class TrustedIntMatrix extends IntMatrix {
+        private TrustedIntMatrix(int[] elementData, int rows, int columns) {
+            super(elementData, true, rows, columns);
+        }
+    }
+}
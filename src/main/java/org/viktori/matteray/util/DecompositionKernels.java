@@ -0,0 +1,658 @@
+package org.viktori.matteray.util;
+
+import org.viktori.matteray.DoubleMatrix;
+import org.viktori.matteray.Matrix;
+import org.viktori.matteray.SparseDoubleMatrix;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Internal kernels for the matrix decompositions, such as {@link LUDecomposition}. All matrices
+ * are stored row-major in a single {@code double[]}, which is factored in place.
+ * Right-hand sides are row-major {@code double[]} with one row per row of the matrix, so each
+ * step of a substitution is an axpy of whole rows, which runs with SIMD instructions when
+ * available.
+ *
+ * @author Viktor Ingemansson
+ */
+final class DecompositionKernels {
+
+    /**
+     * Number of columns in each panel of a blocked factorization
+     */
+    static final int BLOCK = 64;
+
+    /**
+     * Number of multiply-adds below which a trailing update runs in the calling thread
+     */
+    private static final long PARALLEL_THRESHOLD = 1L << 18;
+
+    /**
+     * Number of QL iterations for a single eigenvalue after which it is taken not to converge
+     */
+    private static final int MAX_ITERATIONS = 60;
+
+    private DecompositionKernels() {
+        // static class
+    }
+
+    /**
+     * Returns a new row-major array with the elements of the specified matrix, which is the
+     * only copy made of a primitive matrix.
+     */
+    static double[] toRowMajor(Matrix<? extends Number> matrix) {
+        if (matrix instanceof DoubleMatrix dm) {
+            return dm.toDoubleArray();
+        } else if (matrix instanceof SparseDoubleMatrix sm) {
+            return sm.toDoubleArray();
+        }
+        int rows = matrix.rows();
+        int columns = matrix.columns();
+        double[] elementData = new double[rows * columns];
+        for (int r = 0, i = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++, i++) {
+                elementData[i] = matrix.get(r, c).doubleValue();
+            }
+        }
+        return elementData;
+    }
+
+    /**
+     * Returns a new row-major array with the elements on and below the diagonal of the specified
+     * square matrix. The elements above the diagonal are zero, or copied in bulk from a primitive
+     * matrix, but never read with {@link Matrix#get}.
+     */
+    static double[] toRowMajorLower(Matrix<? extends Number> matrix) {
+        if (matrix instanceof DoubleMatrix dm) {
+            return dm.toDoubleArray();
+        }
+        int n = matrix.rows();
+        double[] elementData = new double[n * n];
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c <= r; c++) {
+                elementData[r * n + c] = matrix.get(r, c).doubleValue();
+            }
+        }
+        return elementData;
+    }
+
+    /**
+     * Factors the {@code n x n} matrix {@code a} in place into a unit lower triangular matrix
+     * {@code L}, stored below the diagonal, and an upper triangular matrix {@code U}, stored on
+     * and above it, such that {@code P * A = L * U}. Whole rows are swapped by partial pivoting,
+     * and {@code permutation[i]} is set to the original index of row {@code i}.
+     *
+     * <p>The factorization is blocked and right-looking: a panel of {@link #BLOCK} columns is
+     * factored, the matching block row of {@code U} is solved, and the trailing matrix is
+     * updated with the product of the two, by bands of rows in parallel if a pool is given.
+     * A zero pivot leaves its column as it is, so a singular matrix is factored to the end.
+     *
+     * @return true if the number of row swaps is even
+     */
+    static boolean factorLU(double[] a, int n, int[] permutation, ForkJoinPool pool) {
+        PrimitiveOps ops = PrimitiveOps.INSTANCE;
+        for (int i = 0; i < n; i++) {
+            permutation[i] = i;
+        }
+        boolean even = true;
+        for (int panel = 0; panel < n; panel += BLOCK) {
+            int from = panel;
+            int to = Math.min(panel + BLOCK, n);
+            for (int j = from; j < to; j++) {
+                int pivotRow = j;
+                double max = Math.abs(a[j * n + j]);
+                for (int i = j + 1; i < n; i++) {
+                    double value = Math.abs(a[i * n + j]);
+                    if (value > max) {
+                        max = value;
+                        pivotRow = i;
+                    }
+                }
+                if (pivotRow != j) {
+                    swapRows(a, n, j, pivotRow);
+                    int index = permutation[j];
+                    permutation[j] = permutation[pivotRow];
+                    permutation[pivotRow] = index;
+                    even = !even;
+                }
+                double pivot = a[j * n + j];
+                if (pivot != 0.0) {
+                    for (int i = j + 1; i < n; i++) {
+                        double multiplier = a[i * n + j] /= pivot;
+                        if (multiplier != 0.0) {
+                            ops.axpy(-multiplier, a, j * n + j + 1, a, i * n + j + 1, to - j - 1);
+                        }
+                    }
+                }
+            }
+            if (to < n) {
+                // The block row of U right of the panel is L11^-1 * A12
+                for (int j = from; j < to; j++) {
+                    for (int i = j + 1; i < to; i++) {
+                        ops.axpy(-a[i * n + j], a, j * n + to, a, i * n + to, n - to);
+                    }
+                }
+                ParallelRanges.RangeAction update = (fromRow, toRow) -> updateTrailing(a, n, from, to, fromRow, toRow);
+                if (pool != null && (long) (n - to) * (n - to) * (to - from) >= PARALLEL_THRESHOLD) {
+                    ParallelRanges.forRange(pool, to, n, ParallelRanges.grainFor(pool, n - to, 1, 1), update);
+                } else {
+                    update.run(to, n);
+                }
+            }
+        }
+        return even;
+    }
+
+    /**
+     * Subtracts the product of columns {@code from} to {@code to} of {@code L} and the matching
+     * rows of {@code U} from rows {@code fromRow} to {@code toRow} of the trailing matrix, which
+     * starts at row and column {@code to}.
+     */
+    private static void updateTrailing(double[] a, int n, int from, int to, int fromRow, int toRow) {
+        PrimitiveOps ops = PrimitiveOps.INSTANCE;
+        for (int i = fromRow; i < toRow; i++) {
+            for (int k = from; k < to; k++) {
+                double multiplier = a[i * n + k];
+                if (multiplier != 0.0) {
+                    ops.axpy(-multiplier, a, k * n + to, a, i * n + to, n - to);
+                }
+            }
+        }
+    }
+
+    private static void swapRows(double[] a, int n, int row1, int row2) {
+        for (int c = 0, i = row1 * n, j = row2 * n; c < n; c++, i++, j++) {
+            double value = a[i];
+            a[i] = a[j];
+            a[j] = value;
+        }
+    }
+
+    /**
+     * Solves {@code L * X = B} in place, where {@code L} is the unit lower triangular matrix
+     * stored below the diagonal of {@code l}, and {@code B} has the specified column count.
+     */
+    static void solveUnitLower(double[] l, int n, double[] b, int columns) {
+        PrimitiveOps ops = PrimitiveOps.INSTANCE;
+        for (int i = 0; i < n; i++) {
+            for (int k = 0; k < i; k++) {
+                double multiplier = l[i * n + k];
+                if (multiplier != 0.0) {
+                    ops.axpy(-multiplier, b, k * columns, b, i * columns, columns);
+                }
+            }
+        }
+    }
+
+    /**
+     * Solves {@code U * X = B} in place, where {@code U} is the upper triangular matrix stored on
+     * and above the diagonal of {@code u}, and {@code B} has the specified column count.
+     */
+    static void solveUpper(double[] u, int n, double[] b, int columns) {
+        PrimitiveOps ops = PrimitiveOps.INSTANCE;
+        for (int i = n - 1; i >= 0; i--) {
+            for (int k = i + 1; k < n; k++) {
+                double multiplier = u[i * n + k];
+                if (multiplier != 0.0) {
+                    ops.axpy(-multiplier, b, k * columns, b, i * columns, columns);
+                }
+            }
+            double diagonal = u[i * n + i];
+            for (int c = 0, j = i * columns; c < columns; c++, j++) {
+                b[j] /= diagonal;
+            }
+        }
+    }
+
+    /**
+     * Factors the symmetric {@code n x n} matrix {@code a} in place into a lower triangular
+     * matrix {@code L} such that {@code A = L * L^T}, by the row-oriented Cholesky-Crout method.
+     * Each element of {@code L} is a dot product of two rows of {@code L} which have already
+     * been computed, so only the lower triangle of {@code a} is read. The upper triangle is set
+     * to zero.
+     *
+     * @return false if the matrix is not positive definite, in which case {@code a} is only
+     *         partly factored
+     */
+    static boolean factorCholesky(double[] a, int n) {
+        PrimitiveOps ops = PrimitiveOps.INSTANCE;
+        for (int i = 0; i < n; i++) {
+            int row = i * n;
+            for (int j = 0; j < i; j++) {
+                a[row + j] = (a[row + j] - ops.dot(a, row, a, j * n, j)) / a[j * n + j];
+            }
+            double diagonal = a[row + i] - ops.dot(a, row, a, row, i);
+            // Also fails for NaN
+            if (!(diagonal > 0.0)) {
+                return false;
+            }
+            a[row + i] = Math.sqrt(diagonal);
+            for (int j = i + 1; j < n; j++) {
+                a[row + j] = 0.0;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Solves {@code L * X = B} in place, where {@code L} is the lower triangular matrix stored on
+     * and below the diagonal of {@code l}, and {@code B} has the specified column count.
+     */
+    static void solveLower(double[] l, int n, double[] b, int columns) {
+        PrimitiveOps ops = PrimitiveOps.INSTANCE;
+        for (int i = 0; i < n; i++) {
+            for (int k = 0; k < i; k++) {
+                double multiplier = l[i * n + k];
+                if (multiplier != 0.0) {
+                    ops.axpy(-multiplier, b, k * columns, b, i * columns, columns);
+                }
+            }
+            double diagonal = l[i * n + i];
+            for (int c = 0, j = i * columns; c < columns; c++, j++) {
+                b[j] /= diagonal;
+            }
+        }
+    }
+
+    /**
+     * Solves {@code L^T * X = B} in place, where {@code L} is the lower triangular matrix stored
+     * on and below the diagonal of {@code l}, and {@code B} has the specified column count. Each
+     * row of the solution is finished in turn from the bottom, and then subtracted from the rows
+     * above it, so {@code L} is read by rows without being transposed.
+     */
+    static void solveLowerTranspose(double[] l, int n, double[] b, int columns) {
+        PrimitiveOps ops = PrimitiveOps.INSTANCE;
+        for (int i = n - 1; i >= 0; i--) {
+            double diagonal = l[i * n + i];
+            for (int c = 0, j = i * columns; c < columns; c++, j++) {
+                b[j] /= diagonal;
+            }
+            for (int k = 0; k < i; k++) {
+                double multiplier = l[i * n + k];
+                if (multiplier != 0.0) {
+                    ops.axpy(-multiplier, b, i * columns, b, k * columns, columns);
+                }
+            }
+        }
+    }
+
+    /**
+     * Factors the {@code rows x columns} matrix {@code a}, with at least as many rows as columns,
+     * in place into {@code Q * R} by Householder reflections. {@code R} is stored on and above
+     * the diagonal, and each reflection {@code H = I - tau * v * v^T} below it, as the vector
+     * {@code v} whose first element is an implicit one, with {@code tau} in {@code tau}.
+     *
+     * <p>The factorization is blocked: the reflections of a panel of {@link #BLOCK} columns are
+     * computed one by one, and then applied to the trailing columns together, in the compact
+     * form {@code I - V * T * V^T}. Both passes over the trailing matrix are row axpys.
+     */
+    static void factorQR(double[] a, int rows, int columns, double[] tau) {
+        double[] workspace = new double[Math.min(BLOCK, columns)];
+        for (int from = 0; from < columns; from += BLOCK) {
+            int to = Math.min(from + BLOCK, columns);
+            for (int j = from; j < to; j++) {
+                tau[j] = householder(a, rows, columns, j);
+                if (tau[j] != 0.0 && j + 1 < to) {
+                    applyReflection(a, rows, columns, j, tau[j], a, columns, j + 1, to - j - 1, workspace);
+                }
+            }
+            if (to < columns) {
+                applyBlockReflection(a, rows, columns, from, to, tau);
+            }
+        }
+    }
+
+    /**
+     * Computes the reflection which zeroes column {@code j} below the diagonal, storing the
+     * new diagonal element and the vector of the reflection in place, and returns its
+     * {@code tau}, which is zero if the column is already zero below the diagonal.
+     */
+    private static double householder(double[] a, int rows, int columns, int j) {
+        double alpha = a[j * columns + j];
+        double sigma = 0.0;
+        for (int i = j + 1; i < rows; i++) {
+            double value = a[i * columns + j];
+            sigma += value * value;
+        }
+        if (sigma == 0.0) {
+            return 0.0;
+        }
+        double beta = -Math.copySign(Math.sqrt(alpha * alpha + sigma), alpha);
+        double scale = 1.0 / (alpha - beta);
+        for (int i = j + 1; i < rows; i++) {
+            a[i * columns + j] *= scale;
+        }
+        a[j * columns + j] = beta;
+        return (beta - alpha) / beta;
+    }
+
+    /**
+     * Applies the reflection stored in column {@code j} of {@code a} to {@code length} columns
+     * of {@code b} from {@code offset}, in rows {@code j} and below. {@code b} has a row stride
+     * of {@code stride}, and the workspace must hold at least {@code length} elements.
+     */
+    static void applyReflection(double[] a, int rows, int columns, int j, double tau,
+                                double[] b, int stride, int offset, int length, double[] workspace) {
+        PrimitiveOps ops = PrimitiveOps.INSTANCE;
+        // w = v^T * B, then B -= tau * v * w
+        System.arraycopy(b, j * stride + offset, workspace, 0, length);
+        for (int i = j + 1; i < rows; i++) {
+            double v = a[i * columns + j];
+            if (v != 0.0) {
+                ops.axpy(v, b, i * stride + offset, workspace, 0, length);
+            }
+        }
+        ops.axpy(-tau, workspace, 0, b, j * stride + offset, length);
+        for (int i = j + 1; i < rows; i++) {
+            double v = a[i * columns + j];
+            if (v != 0.0) {
+                ops.axpy(-tau * v, workspace, 0, b, i * stride + offset, length);
+            }
+        }
+    }
+
+    /**
+     * Applies the transposed product of the reflections stored in columns {@code from} to
+     * {@code to} of {@code a} to the columns right of them.
+     */
+    private static void applyBlockReflection(double[] a, int rows, int columns, int from, int to, double[] tau) {
+        PrimitiveOps ops = PrimitiveOps.INSTANCE;
+        int block = to - from;
+        int width = columns - to;
+
+        // The upper triangular T, such that H(from) * ... * H(to - 1) = I - V * T * V^T
+        double[] t = new double[block * block];
+        for (int j = 0; j < block; j++) {
+            int start = from + j;
+            for (int i = 0; i < j; i++) {
+                double dot = a[start * columns + from + i];
+                for (int r = start + 1; r < rows; r++) {
+                    dot += a[r * columns + from + i] * a[r * columns + start];
+                }
+                t[i * block + j] = -tau[start] * dot;
+            }
+            for (int i = 0; i < j; i++) {
+                double sum = 0.0;
+                for (int k = i; k < j; k++) {
+                    sum += t[i * block + k] * t[k * block + j];
+                }
+                t[i * block + j] = sum;
+            }
+            t[j * block + j] = tau[start];
+        }
+
+        // W = V^T * A2
+        double[] w = new double[block * width];
+        for (int r = from; r < rows; r++) {
+            for (int j = 0; j < block && from + j <= r; j++) {
+                double v = r == from + j ? 1.0 : a[r * columns + from + j];
+                if (v != 0.0) {
+                    ops.axpy(v, a, r * columns + to, w, j * width, width);
+                }
+            }
+        }
+        // W = T^T * W, from the bottom row up so each row is read before it is overwritten
+        for (int j = block - 1; j >= 0; j--) {
+            double diagonal = t[j * block + j];
+            for (int c = 0, k = j * width; c < width; c++, k++) {
+                w[k] *= diagonal;
+            }
+            for (int i = 0; i < j; i++) {
+                double value = t[i * block + j];
+                if (value != 0.0) {
+                    ops.axpy(value, w, i * width, w, j * width, width);
+                }
+            }
+        }
+        // A2 -= V * W
+        for (int r = from; r < rows; r++) {
+            for (int j = 0; j < block && from + j <= r; j++) {
+                double v = r == from + j ? 1.0 : a[r * columns + from + j];
+                if (v != 0.0) {
+                    ops.axpy(-v, w, j * width, a, r * columns + to, width);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reduces the symmetric {@code n x n} matrix {@code a}, stored in full, in place to a
+     * tridiagonal matrix {@code T = Q^T * A * Q} by Householder reflections. The diagonal of
+     * {@code T} is stored in {@code diagonal} and the element right of each diagonal element in
+     * {@code offDiagonal}, whose last element is zero. The reflection of step {@code k} is
+     * {@code H = I - tau * v * v^T}, where {@code v} is stored in row {@code k} right of the
+     * off-diagonal element, with an implicit one in its place.
+     *
+     * <p>Each step computes the product of the trailing matrix and {@code v}, and updates the
+     * trailing matrix with two rank one updates, as dot products and axpys of whole rows, by bands
+     * of rows in parallel if a pool is given. The matrix is kept in full, rather than only its
+     * lower triangle, so that both passes read rows and never columns.
+     */
+    static void tridiagonalize(double[] a, int n, double[] diagonal, double[] offDiagonal, double[] tau, ForkJoinPool pool) {
+        PrimitiveOps ops = PrimitiveOps.INSTANCE;
+        double[] v = new double[n];
+        double[] w = new double[n];
+        for (int k = 0; k < n - 1; k++) {
+            int length = n - k - 1;
+            int start = k * n + k + 1;
+            diagonal[k] = a[k * n + k];
+            double alpha = a[start];
+            double sigma = ops.dot(a, start + 1, a, start + 1, length - 1);
+            if (sigma == 0.0) {
+                offDiagonal[k] = alpha;
+                tau[k] = 0.0;
+                continue;
+            }
+            double beta = -Math.copySign(Math.sqrt(alpha * alpha + sigma), alpha);
+            double scale = 1.0 / (alpha - beta);
+            for (int i = start + 1; i < start + length; i++) {
+                a[i] *= scale;
+            }
+            a[start] = beta;
+            offDiagonal[k] = beta;
+            double t = tau[k] = (beta - alpha) / beta;
+            v[0] = 1.0;
+            System.arraycopy(a, start + 1, v, 1, length - 1);
+
+            // w = t * A22 * v - (t^2 / 2) * (v^T * A22 * v) * v, then A22 -= v * w^T + w * v^T
+            int offset = k + 1;
+            boolean parallel = pool != null && (long) length * length >= PARALLEL_THRESHOLD;
+            ParallelRanges.RangeAction product = (fromRow, toRow) -> {
+                for (int i = fromRow; i < toRow; i++) {
+                    w[i - offset] = t * ops.dot(a, i * n + offset, v, 0, length);
+                }
+            };
+            ParallelRanges.RangeAction update = (fromRow, toRow) -> {
+                for (int i = fromRow; i < toRow; i++) {
+                    ops.axpy(-v[i - offset], w, 0, a, i * n + offset, length);
+                    ops.axpy(-w[i - offset], v, 0, a, i * n + offset, length);
+                }
+            };
+            if (parallel) {
+                ParallelRanges.forRange(pool, offset, n, ParallelRanges.grainFor(pool, length, 1, 1), product);
+            } else {
+                product.run(offset, n);
+            }
+            ops.axpy(-0.5 * t * ops.dot(w, 0, v, 0, length), v, 0, w, 0, length);
+            if (parallel) {
+                ParallelRanges.forRange(pool, offset, n, ParallelRanges.grainFor(pool, length, 1, 1), update);
+            } else {
+                update.run(offset, n);
+            }
+        }
+        if (n > 0) {
+            diagonal[n - 1] = a[n * n - 1];
+            offDiagonal[n - 1] = 0.0;
+        }
+    }
+
+    /**
+     * Returns {@code Q^T} of a reduction by {@link #tridiagonalize}, as a new row-major array.
+     * The reflections are applied from the last to the first, each to the rows it changes, so
+     * that each row is updated with a dot product and an axpy of its own, by bands of rows in
+     * parallel if a pool is given.
+     */
+    static double[] accumulateTransposed(double[] a, int n, double[] tau, ForkJoinPool pool) {
+        PrimitiveOps ops = PrimitiveOps.INSTANCE;
+        double[] z = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            z[i * n + i] = 1.0;
+        }
+        double[] v = new double[n];
+        for (int k = n - 2; k >= 0; k--) {
+            double t = tau[k];
+            if (t == 0.0) {
+                continue;
+            }
+            int length = n - k - 1;
+            int offset = k + 1;
+            v[0] = 1.0;
+            System.arraycopy(a, k * n + k + 2, v, 1, length - 1);
+            ParallelRanges.RangeAction reflect = (fromRow, toRow) -> {
+                for (int i = fromRow; i < toRow; i++) {
+                    double dot = ops.dot(z, i * n + offset, v, 0, length);
+                    if (dot != 0.0) {
+                        ops.axpy(-t * dot, v, 0, z, i * n + offset, length);
+                    }
+                }
+            };
+            if (pool != null && (long) length * length >= PARALLEL_THRESHOLD) {
+                ParallelRanges.forRange(pool, offset, n, ParallelRanges.grainFor(pool, length, 1, 1), reflect);
+            } else {
+                reflect.run(offset, n);
+            }
+        }
+        return z;
+    }
+
+    /**
+     * Computes the eigenvalues of the symmetric tridiagonal matrix with the specified diagonal
+     * and off-diagonal, by the QL algorithm with implicit shifts, storing them in ascending order
+     * in {@code diagonal}. The off-diagonal is overwritten.
+     *
+     * <p>If {@code z} is not null, it must hold the {@code n x n} row-major {@code Q^T} of the
+     * reduction, and is updated in place with the rotations of each sweep, so that its rows
+     * become the eigenvectors in the order of the eigenvalues. Each rotation combines two
+     * adjacent rows, and the rotations of a sweep are applied together, to bands of columns in
+     * parallel if a pool is given.
+     *
+     * @return false if the eigenvalues did not converge
+     */
+    static boolean diagonalize(double[] diagonal, double[] offDiagonal, int n, double[] z, ForkJoinPool pool) {
+        double[] d = diagonal;
+        double[] e = offDiagonal;
+        double[] cosines = z != null ? new double[n] : null;
+        double[] sines = z != null ? new double[n] : null;
+        double epsilon = Math.ulp(1.0);
+        double shift = 0.0;
+        double norm = 0.0;
+        for (int l = 0; l < n; l++) {
+            norm = Math.max(norm, Math.abs(d[l]) + Math.abs(e[l]));
+            int m = l;
+            while (m < n - 1 && Math.abs(e[m]) > epsilon * norm) {
+                m++;
+            }
+            int iterations = 0;
+            while (m > l && Math.abs(e[l]) > epsilon * norm) {
+                if (++iterations > MAX_ITERATIONS) {
+                    return false;
+                }
+                // Shift by the eigenvalue of the leading 2x2 block which is closest to d[l]
+                double g = d[l];
+                double p = (d[l + 1] - g) / (2.0 * e[l]);
+                double r = Math.copySign(Math.hypot(p, 1.0), p);
+                d[l] = e[l] / (p + r);
+                d[l + 1] = e[l] * (p + r);
+                double next = d[l + 1];
+                double h = g - d[l];
+                for (int i = l + 2; i < n; i++) {
+                    d[i] -= h;
+                }
+                shift += h;
+
+                // Chase the bulge from the bottom of the block up, one rotation per row
+                p = d[m];
+                double c = 1.0;
+                double c2 = c;
+                double c3 = c;
+                double following = e[l + 1];
+                double s = 0.0;
+                double s2 = 0.0;
+                for (int i = m - 1; i >= l; i--) {
+                    c3 = c2;
+                    c2 = c;
+                    s2 = s;
+                    g = c * e[i];
+                    h = c * p;
+                    r = Math.hypot(p, e[i]);
+                    e[i + 1] = s * r;
+                    s = e[i] / r;
+                    c = p / r;
+                    p = c * d[i] - s * g;
+                    d[i + 1] = h + s * (c * g + s * d[i]);
+                    if (z != null) {
+                        cosines[m - 1 - i] = c;
+                        sines[m - 1 - i] = s;
+                    }
+                }
+                p = -s * s2 * c3 * following * e[l] / next;
+                e[l] = s * p;
+                d[l] = c * p;
+
+                if (z != null) {
+                    int last = m;
+                    int first = l;
+                    ParallelRanges.RangeAction rotate = (fromColumn, toColumn) ->
+                            rotateRows(z, n, first, last, cosines, sines, fromColumn, toColumn);
+                    if (pool != null && (long) (m - l) * n >= PARALLEL_THRESHOLD / 4) {
+                        ParallelRanges.forRange(pool, 0, n, ParallelRanges.grainFor(pool, n, 8, 8), rotate);
+                    } else {
+                        rotate.run(0, n);
+                    }
+                }
+            }
+            d[l] += shift;
+            e[l] = 0.0;
+        }
+
+        // Selection sort, which swaps each eigenvector at most once
+        for (int i = 0; i < n - 1; i++) {
+            int min = i;
+            for (int j = i + 1; j < n; j++) {
+                if (d[j] < d[min]) {
+                    min = j;
+                }
+            }
+            if (min != i) {
+                double value = d[i];
+                d[i] = d[min];
+                d[min] = value;
+                if (z != null) {
+                    swapRows(z, n, i, min);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Applies the rotations of a sweep from row {@code last - 1} up to row {@code first} to the
+     * columns {@code fromColumn} to {@code toColumn} of {@code z}, where each rotation combines a
+     * row with the row below it.
+     */
+    private static void rotateRows(double[] z, int n, int first, int last, double[] cosines, double[] sines,
+                                   int fromColumn, int toColumn) {
+        for (int i = last - 1, k = 0; i >= first; i--, k++) {
+            double c = cosines[k];
+            double s = sines[k];
+            int upper = i * n;
+            int lower = upper + n;
+            for (int j = fromColumn; j < toColumn; j++) {
+                double x = z[upper + j];
+                double y = z[lower + j];
+                z[lower + j] = s * x + c * y;
+                z[upper + j] = c * x - s * y;
+            }
+        }
+    }
+}
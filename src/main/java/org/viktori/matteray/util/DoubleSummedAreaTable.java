@@ -0,0 +1,157 @@
+package org.viktori.matteray.util;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A summed-area table of a matrix of primitive {@code double} elements, as built by
+ * {@link MatrixUtils#summedAreaTable(org.viktori.matteray.DoubleMatrix)}, which answers the
+ * sum, mean and count of any rectangle of the matrix in constant time.
+ *
+ * <p>The table holds the sum of every rectangle which starts at the top left corner of the
+ * matrix, so the sum of any other rectangle is found from the four rectangles which end at
+ * its corners. The sums are stored unboxed in a row-major array with an extra leading row and
+ * column of zeros, so no query needs to check whether a corner is on an edge of the matrix.
+ *
+ * <p>A sum is the difference of prefix sums, which may be much larger than the sum itself, so
+ * it is subject to rounding errors in proportion to the sums of the whole table, not only to
+ * the elements of the rectangle.
+ *
+ * <p>The table is immutable, and thread safe.
+ *
+ * @author Viktor Ingemansson
+ * @see LongSummedAreaTable
+ * @see SummedAreaTable
+ */
+public final class DoubleSummedAreaTable {
+
+    private final double[] sums;
+    private final int rows;
+    private final int columns;
+
+    private DoubleSummedAreaTable(double[] sums, int rows, int columns) {
+        this.sums = sums;
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    /**
+     * Builds the table of the specified row-major elements. Without a pool, the table is built
+     * in a single pass. With a pool, the prefix sums of each row are summed in bands of rows,
+     * and then down each column in bands of columns, which adds the same values in the same
+     * order, so the table is the same either way.
+     *
+     * @param pool pool to build the table in, or null to build it in the calling thread
+     */
+    static DoubleSummedAreaTable build(double[] a, int rows, int columns, ForkJoinPool pool) {
+        int width = columns + 1;
+        double[] sums = new double[Math.multiplyExact(rows + 1, width)];
+        if (pool == null) {
+            for (int r = 0; r < rows; r++) {
+                double rowSum = 0.0;
+                for (int c = 0, i = (r + 1) * width + 1, p = r * columns; c < columns; c++, i++, p++) {
+                    rowSum += a[p];
+                    sums[i] = sums[i - width] + rowSum;
+                }
+            }
+        } else {
+            ParallelRanges.forRange(pool, 0, rows, ParallelRanges.grainFor(pool, rows, 1, 1), (from, to) -> {
+                for (int r = from; r < to; r++) {
+                    double rowSum = 0.0;
+                    for (int c = 0, i = (r + 1) * width + 1, p = r * columns; c < columns; c++, i++, p++) {
+                        rowSum += a[p];
+                        sums[i] = rowSum;
+                    }
+                }
+            });
+            sumColumns(sums, rows, width, pool);
+        }
+        return new DoubleSummedAreaTable(sums, rows, columns);
+    }
+
+    /**
+     * Adds the sum above each element of the table to it, in bands of columns, which each run
+     * down all rows.
+     */
+    private static void sumColumns(double[] sums, int rows, int width, ForkJoinPool pool) {
+        ParallelRanges.forRange(pool, 1, width, ParallelRanges.grainFor(pool, width - 1, 8, 64), (from, to) -> {
+            for (int r = 1; r <= rows; r++) {
+                for (int i = r * width + from, end = r * width + to; i < end; i++) {
+                    sums[i] = sums[i - width] + sums[i];
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the number of rows of the matrix of this table.
+     *
+     * @return the number of rows
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns of the matrix of this table.
+     *
+     * @return the number of columns
+     */
+    public int columns() {
+        return columns;
+    }
+
+    /**
+     * Returns the sum of the elements in the specified rectangle of the matrix, i.e. of the
+     * elements of {@code subMatrix(fromRowIndex, toRowIndex, fromColumnIndex, toColumnIndex)}.
+     * The sum of an empty rectangle is {@code 0.0}.
+     *
+     * @param fromRowIndex    first row of the rectangle (inclusive)
+     * @param toRowIndex      last row of the rectangle (exclusive)
+     * @param fromColumnIndex first column of the rectangle (inclusive)
+     * @param toColumnIndex   last column of the rectangle (exclusive)
+     * @return the sum of the elements in the rectangle
+     * @throws ArrayIndexOutOfBoundsException for an illegal endpoint index value
+     * @throws IllegalArgumentException       if the endpoint indices are out of order
+     */
+    public double sum(int fromRowIndex, int toRowIndex, int fromColumnIndex, int toColumnIndex) {
+        SummedAreaTable.validateRange(fromRowIndex, toRowIndex, rows);
+        SummedAreaTable.validateRange(fromColumnIndex, toColumnIndex, columns);
+        int width = columns + 1;
+        int top = fromRowIndex * width;
+        int bottom = toRowIndex * width;
+        return (sums[bottom + toColumnIndex] - sums[top + toColumnIndex]) - (sums[bottom + fromColumnIndex] - sums[top + fromColumnIndex]);
+    }
+
+    /**
+     * Returns the mean of the elements in the specified rectangle of the matrix, which is
+     * {@code NaN} if the rectangle is empty.
+     *
+     * @param fromRowIndex    first row of the rectangle (inclusive)
+     * @param toRowIndex      last row of the rectangle (exclusive)
+     * @param fromColumnIndex first column of the rectangle (inclusive)
+     * @param toColumnIndex   last column of the rectangle (exclusive)
+     * @return the mean of the elements in the rectangle
+     * @throws ArrayIndexOutOfBoundsException for an illegal endpoint index value
+     * @throws IllegalArgumentException       if the endpoint indices are out of order
+     */
+    public double mean(int fromRowIndex, int toRowIndex, int fromColumnIndex, int toColumnIndex) {
+        return sum(fromRowIndex, toRowIndex, fromColumnIndex, toColumnIndex) / count(fromRowIndex, toRowIndex, fromColumnIndex, toColumnIndex);
+    }
+
+    /**
+     * Returns the number of elements in the specified rectangle of the matrix.
+     *
+     * @param fromRowIndex    first row of the rectangle (inclusive)
+     * @param toRowIndex      last row of the rectangle (exclusive)
+     * @param fromColumnIndex first column of the rectangle (inclusive)
+     * @param toColumnIndex   last column of the rectangle (exclusive)
+     * @return the number of elements in the rectangle
+     * @throws ArrayIndexOutOfBoundsException for an illegal endpoint index value
+     * @throws IllegalArgumentException       if the endpoint indices are out of order
+     */
+    public int count(int fromRowIndex, int toRowIndex, int fromColumnIndex, int toColumnIndex) {
+        SummedAreaTable.validateRange(fromRowIndex, toRowIndex, rows);
+        SummedAreaTable.validateRange(fromColumnIndex, toColumnIndex, columns);
+        return (toRowIndex - fromRowIndex) * (toColumnIndex - fromColumnIndex);
+    }
+}
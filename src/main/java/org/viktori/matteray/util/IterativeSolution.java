@@ -0,0 +1,86 @@
+package org.viktori.matteray.util;
+
+import org.viktori.matteray.DoubleArray;
+
+/**
+ * The result of solving a linear system with one of the {@link IterativeSolvers}: the
+ * approximate solution, and how it was reached.
+ *
+ * <p>A solution is immutable, and thread safe.
+ *
+ * @author Viktor Ingemansson
+ * @see IterativeSolvers
+ */
+public final class IterativeSolution {
+
+    /**
+     * Approximate solution
+     */
+    private final double[] solution;
+
+    /**
+     * Number of iterations which were run
+     */
+    private final int iterations;
+
+    /**
+     * Norm of the residual of the solution
+     */
+    private final double residualNorm;
+
+    /**
+     * If the residual is within the tolerance
+     */
+    private final boolean converged;
+
+    IterativeSolution(double[] solution, int iterations, double residualNorm, boolean converged) {
+        this.solution = solution;
+        this.iterations = iterations;
+        this.residualNorm = residualNorm;
+        this.converged = converged;
+    }
+
+    /**
+     * Returns the approximate solution {@code x} of the system {@code A * x = b}.
+     *
+     * @return a new array with the solution
+     */
+    public DoubleArray solution() {
+        return new TrustedDoubleArray(solution.clone());
+    }
+
+    /**
+     * Returns the number of iterations which were run.
+     *
+     * @return the number of iterations
+     */
+    public int iterations() {
+        return iterations;
+    }
+
+    /**
+     * Returns the norm of the residual {@code b - A * x} of the solution, as tracked by the
+     * solver.
+     *
+     * @return the norm of the residual
+     */
+    public double residualNorm() {
+        return residualNorm;
+    }
+
+    /**
+     * Returns if the norm of the residual is within the tolerance. If not, the iteration budget
+     * was spent first, or the method broke down, and the solution is the best estimate found.
+     *
+     * @return true if the solver converged
+     */
+    public boolean isConverged() {
+        return converged;
+    }
+
+    private static class TrustedDoubleArray extends DoubleArray {
+        private TrustedDoubleArray(double[] elementData) {
+            super(elementData, true);
+        }
+    }
+}
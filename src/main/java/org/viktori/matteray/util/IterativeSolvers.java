@@ -0,0 +1,446 @@
+package org.viktori.matteray.util;
+
+import org.viktori.matteray.Array;
+import org.viktori.matteray.DoubleArray;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class consists exclusively of static methods that solve large linear systems
+ * {@code A * x = b} iteratively, where {@code A} is a {@link LinearOperator}, so it is only ever
+ * multiplied with vectors. This is used when the matrix is too large to be factored, such as a
+ * {@link org.viktori.matteray.SparseDoubleMatrix} from a grid with millions of points, whose
+ * factors would be dense.
+ *
+ * <ul>
+ *     <li>{@link #conjugateGradient} solves systems where {@code A} is symmetric and positive
+ *     definite, such as discretized Poisson equations, with one product per iteration.</li>
+ *     <li>{@link #biConjugateGradientStabilized} (BiCGSTAB) solves systems where {@code A} is
+ *     not symmetric, with two products per iteration.</li>
+ * </ul>
+ *
+ * <p>Both methods start from zero, and take a {@link Preconditioner}, which usually reduces
+ * the number of iterations a lot, a tolerance, and a maximum number of iterations. They stop
+ * when the norm of the residual {@code b - A * x} is at most the tolerance times the norm of
+ * {@code b}, or when the iterations are spent, and report the norm of the residual of every
+ * iteration to a {@link ProgressListener}. All work vectors are allocated once before the first
+ * iteration.
+ *
+ * <p>The parallel versions compute the dot products and vector updates by fixed chunks in
+ * parallel, with the same result as the serial versions. The products with the operator are
+ * computed in parallel if the operator is, such as one from {@link LinearOperator#parallelOf}.
+ *
+ * @author Viktor Ingemansson
+ * @see LinearOperator
+ * @see Preconditioner
+ */
+public final class IterativeSolvers {
+
+    /**
+     * Number of elements in each chunk of a dot product, which are summed in order, so the
+     * result does not depend on how the chunks are split between threads
+     */
+    private static final int CHUNK = 1 << 13;
+
+    /**
+     * Size of vectors below which the vector operations run in the calling thread
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private static final ProgressListener NO_PROGRESS = (iteration, residualNorm) -> {
+    };
+
+    private IterativeSolvers() {
+        // static class
+    }
+
+    /**
+     * Listener of the progress of an iterative solver.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        /**
+         * Called after each iteration of a solver, in the calling thread.
+         *
+         * @param iteration    number of the iteration, starting at one
+         * @param residualNorm norm of the residual after the iteration
+         */
+        void iterationCompleted(int iteration, double residualNorm);
+    }
+
+    /**
+     * Solves the system {@code A * x = b} for a symmetric positive-definite operator by the
+     * conjugate gradient method, without preconditioning.
+     *
+     * @param operator symmetric positive-definite square operator {@code A}
+     * @param rightHandSide right-hand side {@code b}, with one element per row of the operator
+     * @param tolerance maximum norm of the residual, relative to the norm of the right-hand side
+     * @param maxIterations maximum number of iterations
+     * @return the solution
+     * @throws IllegalArgumentException if the operator is not square or not positive definite,
+     *                                  or the size of the right-hand side is different from its
+     *                                  size, or if the tolerance is negative or NaN, or the
+     *                                  maximum number of iterations is less than one
+     * @throws NullPointerException if any argument is null, or the right-hand side contains
+     *                              null elements
+     * @see #conjugateGradient(LinearOperator, Array, Preconditioner, double, int, ProgressListener)
+     */
+    public static IterativeSolution conjugateGradient(LinearOperator operator, Array<? extends Number> rightHandSide,
+                                                      double tolerance, int maxIterations) {
+        Objects.requireNonNull(operator);
+        return conjugateGradient(operator, rightHandSide, Preconditioner.identity(operator.rows()), tolerance, maxIterations, NO_PROGRESS, null);
+    }
+
+    /**
+     * Solves the system {@code A * x = b} for a symmetric positive-definite operator by the
+     * preconditioned conjugate gradient method. The preconditioner must also be symmetric and
+     * positive definite, such as {@link Preconditioner#jacobi}, or
+     * {@link Preconditioner#incompleteLU} of a symmetric matrix. Each iteration computes one
+     * product with the operator, and applies the preconditioner once.
+     *
+     * @param operator symmetric positive-definite square operator {@code A}
+     * @param rightHandSide right-hand side {@code b}, with one element per row of the operator
+     * @param preconditioner preconditioner of the operator
+     * @param tolerance maximum norm of the residual, relative to the norm of the right-hand side
+     * @param maxIterations maximum number of iterations
+     * @param listener listener of the residual of each iteration
+     * @return the solution
+     * @throws IllegalArgumentException if the operator is not square or not positive definite,
+     *                                  or the size of the right-hand side or the preconditioner
+     *                                  is different from its size, or if the tolerance is
+     *                                  negative or NaN, or the maximum number of iterations is
+     *                                  less than one
+     * @throws NullPointerException if any argument is null, or the right-hand side contains
+     *                              null elements
+     */
+    public static IterativeSolution conjugateGradient(LinearOperator operator, Array<? extends Number> rightHandSide,
+                                                      Preconditioner preconditioner, double tolerance, int maxIterations,
+                                                      ProgressListener listener) {
+        return conjugateGradient(operator, rightHandSide, preconditioner, tolerance, maxIterations, listener, null);
+    }
+
+    /**
+     * Solves the system {@code A * x = b} for a symmetric positive-definite operator by the
+     * preconditioned conjugate gradient method, with the vector operations computed in parallel
+     * on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #conjugateGradient(LinearOperator, Array, Preconditioner, double, int, ProgressListener)}.
+     *
+     * @param operator symmetric positive-definite square operator {@code A}
+     * @param rightHandSide right-hand side {@code b}, with one element per row of the operator
+     * @param preconditioner preconditioner of the operator
+     * @param tolerance maximum norm of the residual, relative to the norm of the right-hand side
+     * @param maxIterations maximum number of iterations
+     * @param listener listener of the residual of each iteration
+     * @param pool pool to compute the vector operations in
+     * @return the solution
+     * @throws IllegalArgumentException if the operator is not square or not positive definite,
+     *                                  or the size of the right-hand side or the preconditioner
+     *                                  is different from its size, or if the tolerance is
+     *                                  negative or NaN, or the maximum number of iterations is
+     *                                  less than one
+     * @throws NullPointerException if any argument is null, or the right-hand side contains
+     *                              null elements
+     */
+    public static IterativeSolution parallelConjugateGradient(LinearOperator operator, Array<? extends Number> rightHandSide,
+                                                              Preconditioner preconditioner, double tolerance, int maxIterations,
+                                                              ProgressListener listener, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return conjugateGradient(operator, rightHandSide, preconditioner, tolerance, maxIterations, listener, pool);
+    }
+
+    private static IterativeSolution conjugateGradient(LinearOperator operator, Array<? extends Number> rightHandSide,
+                                                       Preconditioner preconditioner, double tolerance, int maxIterations,
+                                                       ProgressListener listener, ForkJoinPool pool) {
+        int size = validateArguments(operator, rightHandSide, preconditioner, tolerance, maxIterations, listener);
+        double[] partials = new double[Math.max(1, (size + CHUNK - 1) / CHUNK)];
+        double[] r = toDoubles(rightHandSide);
+        double[] x = new double[size];
+        double residualNorm = Math.sqrt(dot(r, r, partials, pool));
+        double target = tolerance * residualNorm;
+        if (residualNorm == 0.0) {
+            return new IterativeSolution(x, 0, 0.0, true);
+        }
+
+        // Without preconditioning, z is the residual itself
+        boolean identity = preconditioner instanceof Preconditioners.Identity;
+        double[] z = identity ? r : new double[size];
+        double[] p = new double[size];
+        double[] q = new double[size];
+        if (!identity) {
+            preconditioner.apply(r, z);
+        }
+        System.arraycopy(z, 0, p, 0, size);
+        double rz = dot(r, z, partials, pool);
+        for (int iteration = 1; iteration <= maxIterations; iteration++) {
+            operator.apply(p, q);
+            double pq = dot(p, q, partials, pool);
+            if (!(pq > 0.0)) {
+                throw new IllegalArgumentException("Operator must be positive definite");
+            }
+            double alpha = rz / pq;
+            forElements(size, pool, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    x[i] += alpha * p[i];
+                    r[i] -= alpha * q[i];
+                }
+            });
+            residualNorm = Math.sqrt(dot(r, r, partials, pool));
+            listener.iterationCompleted(iteration, residualNorm);
+            if (residualNorm <= target) {
+                return new IterativeSolution(x, iteration, residualNorm, true);
+            }
+            if (!identity) {
+                preconditioner.apply(r, z);
+            }
+            double next = dot(r, z, partials, pool);
+            double beta = next / rz;
+            rz = next;
+            forElements(size, pool, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    p[i] = z[i] + beta * p[i];
+                }
+            });
+        }
+        return new IterativeSolution(x, maxIterations, residualNorm, false);
+    }
+
+    /**
+     * Solves the system {@code A * x = b} for any non-singular operator by the biconjugate
+     * gradient stabilized method (BiCGSTAB), without preconditioning.
+     *
+     * @param operator non-singular square operator {@code A}
+     * @param rightHandSide right-hand side {@code b}, with one element per row of the operator
+     * @param tolerance maximum norm of the residual, relative to the norm of the right-hand side
+     * @param maxIterations maximum number of iterations
+     * @return the solution
+     * @throws IllegalArgumentException if the operator is not square, or the size of the
+     *                                  right-hand side is different from its size, or if the
+     *                                  tolerance is negative or NaN, or the maximum number of
+     *                                  iterations is less than one
+     * @throws NullPointerException if any argument is null, or the right-hand side contains
+     *                              null elements
+     * @see #biConjugateGradientStabilized(LinearOperator, Array, Preconditioner, double, int, ProgressListener)
+     */
+    public static IterativeSolution biConjugateGradientStabilized(LinearOperator operator, Array<? extends Number> rightHandSide,
+                                                                  double tolerance, int maxIterations) {
+        Objects.requireNonNull(operator);
+        return biConjugateGradientStabilized(operator, rightHandSide, Preconditioner.identity(operator.rows()), tolerance, maxIterations,
+                NO_PROGRESS, null);
+    }
+
+    /**
+     * Solves the system {@code A * x = b} for any non-singular operator by the preconditioned
+     * biconjugate gradient stabilized method (BiCGSTAB), with the preconditioner applied from
+     * the right. Each iteration computes two products with the operator, and applies the
+     * preconditioner twice. The method may break down before converging, in which case the
+     * solution so far is returned as not converged.
+     *
+     * @param operator non-singular square operator {@code A}
+     * @param rightHandSide right-hand side {@code b}, with one element per row of the operator
+     * @param preconditioner preconditioner of the operator
+     * @param tolerance maximum norm of the residual, relative to the norm of the right-hand side
+     * @param maxIterations maximum number of iterations
+     * @param listener listener of the residual of each iteration
+     * @return the solution
+     * @throws IllegalArgumentException if the operator is not square, or the size of the
+     *                                  right-hand side or the preconditioner is different from
+     *                                  its size, or if the tolerance is negative or NaN, or the
+     *                                  maximum number of iterations is less than one
+     * @throws NullPointerException if any argument is null, or the right-hand side contains
+     *                              null elements
+     */
+    public static IterativeSolution biConjugateGradientStabilized(LinearOperator operator, Array<? extends Number> rightHandSide,
+                                                                  Preconditioner preconditioner, double tolerance, int maxIterations,
+                                                                  ProgressListener listener) {
+        return biConjugateGradientStabilized(operator, rightHandSide, preconditioner, tolerance, maxIterations, listener, null);
+    }
+
+    /**
+     * Solves the system {@code A * x = b} for any non-singular operator by the preconditioned
+     * biconjugate gradient stabilized method (BiCGSTAB), with the vector operations computed in
+     * parallel on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #biConjugateGradientStabilized(LinearOperator, Array, Preconditioner, double, int, ProgressListener)}.
+     *
+     * @param operator non-singular square operator {@code A}
+     * @param rightHandSide right-hand side {@code b}, with one element per row of the operator
+     * @param preconditioner preconditioner of the operator
+     * @param tolerance maximum norm of the residual, relative to the norm of the right-hand side
+     * @param maxIterations maximum number of iterations
+     * @param listener listener of the residual of each iteration
+     * @param pool pool to compute the vector operations in
+     * @return the solution
+     * @throws IllegalArgumentException if the operator is not square, or the size of the
+     *                                  right-hand side or the preconditioner is different from
+     *                                  its size, or if the tolerance is negative or NaN, or the
+     *                                  maximum number of iterations is less than one
+     * @throws NullPointerException if any argument is null, or the right-hand side contains
+     *                              null elements
+     */
+    public static IterativeSolution parallelBiConjugateGradientStabilized(LinearOperator operator, Array<? extends Number> rightHandSide,
+                                                                          Preconditioner preconditioner, double tolerance, int maxIterations,
+                                                                          ProgressListener listener, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return biConjugateGradientStabilized(operator, rightHandSide, preconditioner, tolerance, maxIterations, listener, pool);
+    }
+
+    private static IterativeSolution biConjugateGradientStabilized(LinearOperator operator, Array<? extends Number> rightHandSide,
+                                                                   Preconditioner preconditioner, double tolerance, int maxIterations,
+                                                                   ProgressListener listener, ForkJoinPool pool) {
+        int size = validateArguments(operator, rightHandSide, preconditioner, tolerance, maxIterations, listener);
+        double[] partials = new double[Math.max(1, (size + CHUNK - 1) / CHUNK)];
+        double[] r = toDoubles(rightHandSide);
+        double[] x = new double[size];
+        double residualNorm = Math.sqrt(dot(r, r, partials, pool));
+        double target = tolerance * residualNorm;
+        if (residualNorm == 0.0) {
+            return new IterativeSolution(x, 0, 0.0, true);
+        }
+
+        // The residual is updated in place to s, and then to the next residual
+        boolean identity = preconditioner instanceof Preconditioners.Identity;
+        double[] shadow = r.clone();
+        double[] p = new double[size];
+        double[] v = new double[size];
+        double[] t = new double[size];
+        double[] pHat = identity ? p : new double[size];
+        double[] sHat = identity ? r : new double[size];
+        double rho = 1.0;
+        double alpha = 1.0;
+        double omega = 1.0;
+        for (int iteration = 1; iteration <= maxIterations; iteration++) {
+            double next = dot(shadow, r, partials, pool);
+            if (next == 0.0) {
+                return new IterativeSolution(x, iteration - 1, residualNorm, false);
+            }
+            double beta = (next / rho) * (alpha / omega);
+            rho = next;
+            double w = omega;
+            forElements(size, pool, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    p[i] = r[i] + beta * (p[i] - w * v[i]);
+                }
+            });
+            if (!identity) {
+                preconditioner.apply(p, pHat);
+            }
+            operator.apply(pHat, v);
+            double shadowV = dot(shadow, v, partials, pool);
+            if (shadowV == 0.0) {
+                return new IterativeSolution(x, iteration - 1, residualNorm, false);
+            }
+            double a = alpha = rho / shadowV;
+            forElements(size, pool, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    r[i] -= a * v[i];
+                }
+            });
+            double sNorm = Math.sqrt(dot(r, r, partials, pool));
+            if (sNorm <= target) {
+                forElements(size, pool, (from, to) -> {
+                    for (int i = from; i < to; i++) {
+                        x[i] += a * pHat[i];
+                    }
+                });
+                listener.iterationCompleted(iteration, sNorm);
+                return new IterativeSolution(x, iteration, sNorm, true);
+            }
+            if (!identity) {
+                preconditioner.apply(r, sHat);
+            }
+            operator.apply(sHat, t);
+            double tt = dot(t, t, partials, pool);
+            double o = omega = tt == 0.0 ? 0.0 : dot(t, r, partials, pool) / tt;
+            forElements(size, pool, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    x[i] += a * pHat[i] + o * sHat[i];
+                    r[i] -= o * t[i];
+                }
+            });
+            residualNorm = Math.sqrt(dot(r, r, partials, pool));
+            listener.iterationCompleted(iteration, residualNorm);
+            if (residualNorm <= target) {
+                return new IterativeSolution(x, iteration, residualNorm, true);
+            }
+            if (omega == 0.0) {
+                return new IterativeSolution(x, iteration, residualNorm, false);
+            }
+        }
+        return new IterativeSolution(x, maxIterations, residualNorm, false);
+    }
+
+    private static int validateArguments(LinearOperator operator, Array<? extends Number> rightHandSide, Preconditioner preconditioner,
+                                         double tolerance, int maxIterations, ProgressListener listener) {
+        Objects.requireNonNull(operator);
+        Objects.requireNonNull(rightHandSide);
+        Objects.requireNonNull(preconditioner);
+        Objects.requireNonNull(listener);
+        if (!operator.isSquare()) {
+            throw new IllegalArgumentException("Operator must be square, but size was " + operator.rows() + "x" + operator.columns());
+        }
+        int size = operator.rows();
+        if (rightHandSide.size() != size) {
+            throw new IllegalArgumentException("Size of right-hand side must be equal to size of operator, but sizes were "
+                    + rightHandSide.size() + " and " + size);
+        }
+        if (preconditioner.size() != size) {
+            throw new IllegalArgumentException("Size of preconditioner must be equal to size of operator, but sizes were "
+                    + preconditioner.size() + " and " + size);
+        }
+        if (!(tolerance >= 0.0)) {
+            throw new IllegalArgumentException("Tolerance must not be negative, but was " + tolerance);
+        }
+        if (maxIterations < 1) {
+            throw new IllegalArgumentException("Maximum number of iterations must be positive, but was " + maxIterations);
+        }
+        return size;
+    }
+
+    private static double[] toDoubles(Array<? extends Number> array) {
+        if (array instanceof DoubleArray da) {
+            return da.toDoubleArray();
+        }
+        double[] values = new double[array.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = array.get(i).doubleValue();
+        }
+        return values;
+    }
+
+    /**
+     * Returns the dot product of two vectors, as the sum in order of the dot products of their
+     * chunks, which are computed in parallel if a pool is given.
+     */
+    private static double dot(double[] x, double[] y, double[] partials, ForkJoinPool pool) {
+        PrimitiveOps ops = PrimitiveOps.INSTANCE;
+        int size = x.length;
+        int chunks = (size + CHUNK - 1) / CHUNK;
+        ParallelRanges.RangeAction action = (from, to) -> {
+            for (int c = from; c < to; c++) {
+                int offset = c * CHUNK;
+                partials[c] = ops.dot(x, offset, y, offset, Math.min(CHUNK, size - offset));
+            }
+        };
+        if (pool == null || size < PARALLEL_THRESHOLD) {
+            action.run(0, chunks);
+        } else {
+            ParallelRanges.forRange(pool, 0, chunks, ParallelRanges.grainFor(pool, chunks, 1, 1), action);
+        }
+        double sum = 0.0;
+        for (int c = 0; c < chunks; c++) {
+            sum += partials[c];
+        }
+        return sum;
+    }
+
+    /**
+     * Runs an element-wise vector operation, in parallel if a pool is given.
+     */
+    private static void forElements(int size, ForkJoinPool pool, ParallelRanges.RangeAction action) {
+        if (pool == null || size < PARALLEL_THRESHOLD) {
+            action.run(0, size);
+        } else {
+            ParallelRanges.forRange(pool, 0, size, ParallelRanges.grainFor(pool, size, CHUNK, CHUNK), action);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package org.viktori.matteray.util;
+
+import org.viktori.matteray.Array;
+import org.viktori.matteray.DoubleArray;
+import org.viktori.matteray.DoubleMatrix;
+import org.viktori.matteray.Matrix;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * LU decomposition of a square matrix of numbers, with partial pivoting. The matrix {@code A}
+ * is factored into a permutation matrix {@code P}, a unit lower triangular matrix {@code L} and
+ * an upper triangular matrix {@code U}, such that {@code P * A = L * U}. Once factored, linear
+ * systems {@code A * X = B} are solved with two triangular substitutions, so a decomposition
+ * can be reused for any number of right-hand sides. The determinant and the inverse are
+ * computed from the same factors.
+ *
+ * <p>The factorization is computed on a single row-major {@code double[]}, which is the only copy
+ * of the matrix that is made. It is blocked, so that the bulk of the work is an update of the
+ * trailing matrix with a panel of columns, which stays in cache and runs with SIMD instructions
+ * when available. {@link #parallelDecompose} updates bands of rows of the trailing matrix
+ * concurrently, with the same result as {@link #decompose}.
+ *
+ * <p>A decomposition is immutable, and thread safe.
+ *
+ * @author Viktor Ingemansson
+ * @see MatrixUtils
+ */
+public final class LUDecomposition {
+
+    /**
+     * Row-major factors, with L below the diagonal and U on and above it
+     */
+    private final double[] factors;
+
+    /**
+     * Original row index of each row of the factors
+     */
+    private final int[] permutation;
+
+    /**
+     * Row and column count of the matrix
+     */
+    private final int size;
+
+    /**
+     * If the number of row swaps is even, i.e. the determinant of P is one
+     */
+    private final boolean evenPermutation;
+
+    private LUDecomposition(double[] factors, int[] permutation, int size, boolean evenPermutation) {
+        this.factors = factors;
+        this.permutation = permutation;
+        this.size = size;
+        this.evenPermutation = evenPermutation;
+    }
+
+    /**
+     * Computes the LU decomposition of the specified square matrix.
+     *
+     * @param matrix matrix to decompose
+     * @return the decomposition of the matrix
+     * @throws IllegalArgumentException if the matrix is not square
+     * @throws NullPointerException if the matrix is null, or contains null elements
+     */
+    public static LUDecomposition decompose(Matrix<? extends Number> matrix) {
+        return decompose(matrix, null);
+    }
+
+    /**
+     * Computes the LU decomposition of the specified square matrix, with the updates of the
+     * trailing matrix computed in parallel on the common {@link ForkJoinPool}. The result is the
+     * same as {@link #decompose(Matrix)}. Small matrices are decomposed in the calling thread.
+     *
+     * @param matrix matrix to decompose
+     * @return the decomposition of the matrix
+     * @throws IllegalArgumentException if the matrix is not square
+     * @throws NullPointerException if the matrix is null, or contains null elements
+     */
+    public static LUDecomposition parallelDecompose(Matrix<? extends Number> matrix) {
+        return parallelDecompose(matrix, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the LU decomposition of the specified square matrix, with the updates of the
+     * trailing matrix computed in parallel on the specified {@link ForkJoinPool}. The result is
+     * the same as {@link #decompose(Matrix)}. Small matrices are decomposed in the calling thread.
+     *
+     * @param matrix matrix to decompose
+     * @param pool pool to compute the updates in
+     * @return the decomposition of the matrix
+     * @throws IllegalArgumentException if the matrix is not square
+     * @throws NullPointerException if the matrix or the pool is null, or the matrix contains null
+     *                              elements
+     */
+    public static LUDecomposition parallelDecompose(Matrix<? extends Number> matrix, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return decompose(matrix, pool);
+    }
+
+    private static LUDecomposition decompose(Matrix<? extends Number> matrix, ForkJoinPool pool) {
+        Objects.requireNonNull(matrix);
+        if (!matrix.isSquare()) {
+            throw new IllegalArgumentException("Matrix must be square, but size was " + matrix.rows() + "x" + matrix.columns());
+        }
+        int size = matrix.rows();
+        double[] factors = DecompositionKernels.toRowMajor(matrix);
+        int[] permutation = new int[size];
+        boolean evenPermutation = DecompositionKernels.factorLU(factors, size, permutation, pool);
+        return new LUDecomposition(factors, permutation, size, evenPermutation);
+    }
+
+    /**
+     * Returns the row and column count of the decomposed matrix.
+     *
+     * @return the size of the matrix
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns if the decomposed matrix is singular, i.e. if any diagonal element of {@code U} is
+     * exactly zero. A matrix which is nearly singular is not detected, but solving with it
+     * gives very large or infinite elements.
+     *
+     * @return true if the matrix is singular
+     */
+    public boolean isSingular() {
+        for (int i = 0; i < size; i++) {
+            if (factors[i * size + i] == 0.0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the determinant of the decomposed matrix, which is the product of the diagonal of
+     * {@code U}, negated if an odd number of rows were swapped. The determinant of an empty
+     * matrix is one.
+     *
+     * @return the determinant of the matrix
+     */
+    public double determinant() {
+        double determinant = evenPermutation ? 1.0 : -1.0;
+        for (int i = 0; i < size; i++) {
+            determinant *= factors[i * size + i];
+        }
+        return determinant;
+    }
+
+    /**
+     * Returns the unit lower triangular factor {@code L}.
+     *
+     * @return a new matrix with the lower factor
+     */
+    public DoubleMatrix lower() {
+        double[] lower = new double[size * size];
+        for (int r = 0; r < size; r++) {
+            System.arraycopy(factors, r * size, lower, r * size, r);
+            lower[r * size + r] = 1.0;
+        }
+        return new TrustedDoubleMatrix(lower, size, size);
+    }
+
+    /**
+     * Returns the upper triangular factor {@code U}.
+     *
+     * @return a new matrix with the upper factor
+     */
+    public DoubleMatrix upper() {
+        double[] upper = new double[size * size];
+        for (int r = 0; r < size; r++) {
+            System.arraycopy(factors, r * size + r, upper, r * size + r, size - r);
+        }
+        return new TrustedDoubleMatrix(upper, size, size);
+    }
+
+    /**
+     * Returns the row permutation {@code P}, as the original row index of each row of
+     * {@code L * U}. The caller is free to modify the returned array.
+     *
+     * @return a new array with the original index of each row
+     */
+    public int[] toPermutationArray() {
+        return permutation.clone();
+    }
+
+    /**
+     * Solves the linear system {@code A * x = b} for the specified vector {@code b}, where
+     * {@code A} is the decomposed matrix.
+     *
+     * @param vector right-hand side, with one element per row of the matrix
+     * @return a new array with the solution
+     * @throws IllegalArgumentException if the size of the vector is different from the size of
+     *                                  the matrix
+     * @throws IllegalStateException if the matrix is singular
+     * @throws NullPointerException if the vector is null, or contains null elements
+     */
+    public DoubleArray solve(Array<? extends Number> vector) {
+        Objects.requireNonNull(vector);
+        if (vector.size() != size) {
+            throw new IllegalArgumentException("Size of vector must be equal to size of matrix, but sizes were " + vector.size() + " and " + size);
+        }
+        validateNotSingular();
+
+        double[] solution = new double[size];
+        for (int i = 0; i < size; i++) {
+            solution[i] = vector.get(permutation[i]).doubleValue();
+        }
+        DecompositionKernels.solveUnitLower(factors, size, solution, 1);
+        DecompositionKernels.solveUpper(factors, size, solution, 1);
+        return new TrustedDoubleArray(solution);
+    }
+
+    /**
+     * Solves the linear system {@code A * X = B} for the specified matrix {@code B}, where
+     * {@code A} is the decomposed matrix. Each column of the result is the solution for the
+     * matching column of {@code B}, and all columns are solved in the same pass.
+     *
+     * @param matrix right-hand sides, with one row per row of the matrix
+     * @return a new matrix with the solutions
+     * @throws IllegalArgumentException if the row count of the right-hand sides is different from
+     *                                  the size of the matrix
+     * @throws IllegalStateException if the matrix is singular
+     * @throws NullPointerException if the matrix is null, or contains null elements
+     */
+    public DoubleMatrix solve(Matrix<? extends Number> matrix) {
+        Objects.requireNonNull(matrix);
+        if (matrix.rows() != size) {
+            throw new IllegalArgumentException("Row count of matrix must be equal to size of decomposed matrix, but was " + matrix.rows() + " and " + size);
+        }
+        validateNotSingular();
+
+        int columns = matrix.columns();
+        double[] rightHandSides = DecompositionKernels.toRowMajor(matrix);
+        double[] solution = new double[size * columns];
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(rightHandSides, permutation[i] * columns, solution, i * columns, columns);
+        }
+        DecompositionKernels.solveUnitLower(factors, size, solution, columns);
+        DecompositionKernels.solveUpper(factors, size, solution, columns);
+        return new TrustedDoubleMatrix(solution, size, columns);
+    }
+
+    /**
+     * Returns the inverse of the decomposed matrix, by solving for each column of the identity
+     * matrix. Solving a system with {@link #solve} is both faster and more accurate than
+     * multiplying with the inverse.
+     *
+     * @return a new matrix with the inverse
+     * @throws IllegalStateException if the matrix is singular
+     */
+    public DoubleMatrix inverse() {
+        validateNotSingular();
+
+        double[] inverse = new double[size * size];
+        for (int i = 0; i < size; i++) {
+            inverse[i * size + permutation[i]] = 1.0;
+        }
+        DecompositionKernels.solveUnitLower(factors, size, inverse, size);
+        DecompositionKernels.solveUpper(factors, size, inverse, size);
+        return new TrustedDoubleMatrix(inverse, size, size);
+    }
+
+    private void validateNotSingular() {
+        if (isSingular()) {
+            throw new IllegalStateException("Matrix is singular");
+        }
+    }
+
+    private static class TrustedDoubleMatrix extends DoubleMatrix {
+        private TrustedDoubleMatrix(double[] elementData, int rows, int columns) {
+            super(elementData, true, rows, columns);
+        }
+    }
+
+    private static class TrustedDoubleArray extends DoubleArray {
+        private TrustedDoubleArray(double[] elementData) {
+            super(elementData, true);
+        }
+    }
+}
@@ -0,0 +1,540 @@
+package org.viktori.matteray.util;
+
+/**
+ * Internal kernels used by {@link MatrixUtils} which move the elements of a matrix to new
+ * positions, without computing anything from them. The kernels work on raw row-major arrays,
+ * and on a range of rows, so a parallel operation can split the work across threads.
+ *
+ * <p>Reading a matrix along its columns touches a new cache line for every element, so the
+ * kernels walk the matrix in square tiles which are small enough that both the rows which are
+ * read and the rows which are written stay in the cache while the tile is moved.
+ *
+ * @author Viktor Ingemansson
+ */
+final class LayoutKernels {
+
+    /**
+     * Number of rows and columns of each tile
+     */
+    static final int TILE = 32;
+
+    private LayoutKernels() {
+        // static class
+    }
+
+    /**
+     * Returns the number of tiles needed to cover the specified length.
+     */
+    static int tilesFor(int length) {
+        return (length + TILE - 1) / TILE;
+    }
+
+    /**
+     * Writes the transpose of the {@code rows x columns} matrix {@code a} into {@code t}, for the
+     * rows {@code fromRow} to {@code toRow} of the transpose, which are columns of {@code a}.
+     */
+    static void transpose(Object[][] a, Object[][] t, int rows, int fromRow, int toRow) {
+        for (int c0 = fromRow; c0 < toRow; c0 += TILE) {
+            int c1 = Math.min(c0 + TILE, toRow);
+            for (int r0 = 0; r0 < rows; r0 += TILE) {
+                int r1 = Math.min(r0 + TILE, rows);
+                for (int c = c0; c < c1; c++) {
+                    Object[] row = t[c];
+                    for (int r = r0; r < r1; r++) {
+                        row[r] = a[r][c];
+                    }
+                }
+            }
+        }
+    }
+
+    static void transpose(double[] a, double[] t, int rows, int columns, int fromRow, int toRow) {
+        for (int c0 = fromRow; c0 < toRow; c0 += TILE) {
+            int c1 = Math.min(c0 + TILE, toRow);
+            for (int r0 = 0; r0 < rows; r0 += TILE) {
+                int r1 = Math.min(r0 + TILE, rows);
+                for (int c = c0; c < c1; c++) {
+                    int offset = c * rows;
+                    for (int r = r0; r < r1; r++) {
+                        t[offset + r] = a[r * columns + c];
+                    }
+                }
+            }
+        }
+    }
+
+    static void transpose(float[] a, float[] t, int rows, int columns, int fromRow, int toRow) {
+        for (int c0 = fromRow; c0 < toRow; c0 += TILE) {
+            int c1 = Math.min(c0 + TILE, toRow);
+            for (int r0 = 0; r0 < rows; r0 += TILE) {
+                int r1 = Math.min(r0 + TILE, rows);
+                for (int c = c0; c < c1; c++) {
+                    int offset = c * rows;
+                    for (int r = r0; r < r1; r++) {
+                        t[offset + r] = a[r * columns + c];
+                    }
+                }
+            }
+        }
+    }
+
+    static void transpose(long[] a, long[] t, int rows, int columns, int fromRow, int toRow) {
+        for (int c0 = fromRow; c0 < toRow; c0 += TILE) {
+            int c1 = Math.min(c0 + TILE, toRow);
+            for (int r0 = 0; r0 < rows; r0 += TILE) {
+                int r1 = Math.min(r0 + TILE, rows);
+                for (int c = c0; c < c1; c++) {
+                    int offset = c * rows;
+                    for (int r = r0; r < r1; r++) {
+                        t[offset + r] = a[r * columns + c];
+                    }
+                }
+            }
+        }
+    }
+
+    static void transpose(int[] a, int[] t, int rows, int columns, int fromRow, int toRow) {
+        for (int c0 = fromRow; c0 < toRow; c0 += TILE) {
+            int c1 = Math.min(c0 + TILE, toRow);
+            for (int r0 = 0; r0 < rows; r0 += TILE) {
+                int r1 = Math.min(r0 + TILE, rows);
+                for (int c = c0; c < c1; c++) {
+                    int offset = c * rows;
+                    for (int r = r0; r < r1; r++) {
+                        t[offset + r] = a[r * columns + c];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Transposes the square matrix {@code a} in place, for the pairs of tile rows
+     * {@code fromPair} to {@code toPair}. Pair {@code p} is the tile rows {@code p} and
+     * {@code tiles - 1 - p}, which together hold the same number of tiles for every pair, as
+     * each tile row only swaps the tiles on and right of the diagonal.
+     */
+    static void transposeSquare(Object[][] a, int size, int fromPair, int toPair) {
+        int tiles = tilesFor(size);
+        for (int p = fromPair; p < toPair; p++) {
+            transposeTileRow(a, size, p);
+            if (tiles - 1 - p != p) {
+                transposeTileRow(a, size, tiles - 1 - p);
+            }
+        }
+    }
+
+    private static void transposeTileRow(Object[][] a, int size, int tileRow) {
+        int r0 = tileRow * TILE;
+        int r1 = Math.min(r0 + TILE, size);
+        for (int c0 = r0; c0 < size; c0 += TILE) {
+            int c1 = Math.min(c0 + TILE, size);
+            for (int r = r0; r < r1; r++) {
+                Object[] row = a[r];
+                for (int c = Math.max(c0, r + 1); c < c1; c++) {
+                    Object element = row[c];
+                    row[c] = a[c][r];
+                    a[c][r] = element;
+                }
+            }
+        }
+    }
+
+    static void transposeSquare(double[] a, int size, int fromPair, int toPair) {
+        int tiles = tilesFor(size);
+        for (int p = fromPair; p < toPair; p++) {
+            transposeTileRow(a, size, p);
+            if (tiles - 1 - p != p) {
+                transposeTileRow(a, size, tiles - 1 - p);
+            }
+        }
+    }
+
+    private static void transposeTileRow(double[] a, int size, int tileRow) {
+        int r0 = tileRow * TILE;
+        int r1 = Math.min(r0 + TILE, size);
+        for (int c0 = r0; c0 < size; c0 += TILE) {
+            int c1 = Math.min(c0 + TILE, size);
+            for (int r = r0; r < r1; r++) {
+                for (int c = Math.max(c0, r + 1); c < c1; c++) {
+                    double element = a[r * size + c];
+                    a[r * size + c] = a[c * size + r];
+                    a[c * size + r] = element;
+                }
+            }
+        }
+    }
+
+    static void transposeSquare(float[] a, int size, int fromPair, int toPair) {
+        int tiles = tilesFor(size);
+        for (int p = fromPair; p < toPair; p++) {
+            transposeTileRow(a, size, p);
+            if (tiles - 1 - p != p) {
+                transposeTileRow(a, size, tiles - 1 - p);
+            }
+        }
+    }
+
+    private static void transposeTileRow(float[] a, int size, int tileRow) {
+        int r0 = tileRow * TILE;
+        int r1 = Math.min(r0 + TILE, size);
+        for (int c0 = r0; c0 < size; c0 += TILE) {
+            int c1 = Math.min(c0 + TILE, size);
+            for (int r = r0; r < r1; r++) {
+                for (int c = Math.max(c0, r + 1); c < c1; c++) {
+                    float element = a[r * size + c];
+                    a[r * size + c] = a[c * size + r];
+                    a[c * size + r] = element;
+                }
+            }
+        }
+    }
+
+    static void transposeSquare(long[] a, int size, int fromPair, int toPair) {
+        int tiles = tilesFor(size);
+        for (int p = fromPair; p < toPair; p++) {
+            transposeTileRow(a, size, p);
+            if (tiles - 1 - p != p) {
+                transposeTileRow(a, size, tiles - 1 - p);
+            }
+        }
+    }
+
+    private static void transposeTileRow(long[] a, int size, int tileRow) {
+        int r0 = tileRow * TILE;
+        int r1 = Math.min(r0 + TILE, size);
+        for (int c0 = r0; c0 < size; c0 += TILE) {
+            int c1 = Math.min(c0 + TILE, size);
+            for (int r = r0; r < r1; r++) {
+                for (int c = Math.max(c0, r + 1); c < c1; c++) {
+                    long element = a[r * size + c];
+                    a[r * size + c] = a[c * size + r];
+                    a[c * size + r] = element;
+                }
+            }
+        }
+    }
+
+    static void transposeSquare(int[] a, int size, int fromPair, int toPair) {
+        int tiles = tilesFor(size);
+        for (int p = fromPair; p < toPair; p++) {
+            transposeTileRow(a, size, p);
+            if (tiles - 1 - p != p) {
+                transposeTileRow(a, size, tiles - 1 - p);
+            }
+        }
+    }
+
+    private static void transposeTileRow(int[] a, int size, int tileRow) {
+        int r0 = tileRow * TILE;
+        int r1 = Math.min(r0 + TILE, size);
+        for (int c0 = r0; c0 < size; c0 += TILE) {
+            int c1 = Math.min(c0 + TILE, size);
+            for (int r = r0; r < r1; r++) {
+                for (int c = Math.max(c0, r + 1); c < c1; c++) {
+                    int element = a[r * size + c];
+                    a[r * size + c] = a[c * size + r];
+                    a[c * size + r] = element;
+                }
+            }
+        }
+    }
+
+    /**
+     * Rotates the square matrix {@code a} a quarter turn in place, for the rows {@code fromRow}
+     * to {@code toRow} of its top left quadrant. The element at {@code (r, c)} of the quadrant
+     * starts a cycle of four elements, one in each quadrant, which are moved one step along the
+     * cycle, so every element but the center one is moved exactly once, and each row of the
+     * quadrant is the same amount of work.
+     */
+    static void rotateSquare(Object[][] a, int size, boolean clockwise, int fromRow, int toRow) {
+        int half = (size + 1) / 2;
+        int last = size - 1;
+        for (int r0 = fromRow; r0 < toRow; r0 += TILE) {
+            int r1 = Math.min(r0 + TILE, toRow);
+            for (int c0 = 0; c0 < half; c0 += TILE) {
+                int c1 = Math.min(c0 + TILE, half);
+                for (int r = r0; r < r1; r++) {
+                    for (int c = c0; c < c1; c++) {
+                        Object element = a[r][c];
+                        if (clockwise) {
+                            a[r][c] = a[last - c][r];
+                            a[last - c][r] = a[last - r][last - c];
+                            a[last - r][last - c] = a[c][last - r];
+                            a[c][last - r] = element;
+                        } else {
+                            a[r][c] = a[c][last - r];
+                            a[c][last - r] = a[last - r][last - c];
+                            a[last - r][last - c] = a[last - c][r];
+                            a[last - c][r] = element;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reverses the order of the elements in each of the rows {@code fromRow} to {@code toRow}
+     * of {@code a}.
+     */
+    static void reverseRows(Object[][] a, int fromRow, int toRow) {
+        for (int r = fromRow; r < toRow; r++) {
+            Object[] row = a[r];
+            for (int i = 0, j = row.length - 1; i < j; i++, j--) {
+                Object element = row[i];
+                row[i] = row[j];
+                row[j] = element;
+            }
+        }
+    }
+
+    /**
+     * Swaps the references of each of the rows {@code fromRow} to {@code toRow} of {@code a}
+     * with its mirror {@code a.length - 1 - r}, where {@code toRow} is at most
+     * {@code a.length / 2}.
+     */
+    static void swapRows(Object[][] a, int fromRow, int toRow) {
+        for (int r = fromRow; r < toRow; r++) {
+            Object[] row = a[r];
+            a[r] = a[a.length - 1 - r];
+            a[a.length - 1 - r] = row;
+        }
+    }
+
+    static void rotateSquare(double[] a, int size, boolean clockwise, int fromRow, int toRow) {
+        int half = (size + 1) / 2;
+        int last = size - 1;
+        for (int r0 = fromRow; r0 < toRow; r0 += TILE) {
+            int r1 = Math.min(r0 + TILE, toRow);
+            for (int c0 = 0; c0 < half; c0 += TILE) {
+                int c1 = Math.min(c0 + TILE, half);
+                for (int r = r0; r < r1; r++) {
+                    for (int c = c0; c < c1; c++) {
+                        int p0 = r * size + c;
+                        int p1 = c * size + last - r;
+                        int p2 = (last - r) * size + last - c;
+                        int p3 = (last - c) * size + r;
+                        double element = a[p0];
+                        if (clockwise) {
+                            a[p0] = a[p3];
+                            a[p3] = a[p2];
+                            a[p2] = a[p1];
+                            a[p1] = element;
+                        } else {
+                            a[p0] = a[p1];
+                            a[p1] = a[p2];
+                            a[p2] = a[p3];
+                            a[p3] = element;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    static void reverseRows(double[] a, int columns, int fromRow, int toRow) {
+        for (int r = fromRow; r < toRow; r++) {
+            reverse(a, r * columns, r * columns + columns - 1, columns / 2);
+        }
+    }
+
+    /**
+     * Swaps each of the rows {@code fromRow} to {@code toRow} of {@code a} with its mirror
+     * {@code rows - 1 - r}, where {@code toRow} is at most {@code rows / 2}.
+     */
+    static void swapRows(double[] a, int rows, int columns, int fromRow, int toRow) {
+        for (int r = fromRow; r < toRow; r++) {
+            int i = r * columns;
+            int j = (rows - 1 - r) * columns;
+            for (int c = 0; c < columns; c++) {
+                double element = a[i + c];
+                a[i + c] = a[j + c];
+                a[j + c] = element;
+            }
+        }
+    }
+
+    /**
+     * Swaps {@code count} elements of {@code a} from {@code first} and up, with the elements
+     * from {@code last} and down, which reverses the range if they meet in the middle.
+     */
+    static void reverse(double[] a, int first, int last, int count) {
+        for (int k = 0; k < count; k++) {
+            double element = a[first + k];
+            a[first + k] = a[last - k];
+            a[last - k] = element;
+        }
+    }
+
+    static void rotateSquare(float[] a, int size, boolean clockwise, int fromRow, int toRow) {
+        int half = (size + 1) / 2;
+        int last = size - 1;
+        for (int r0 = fromRow; r0 < toRow; r0 += TILE) {
+            int r1 = Math.min(r0 + TILE, toRow);
+            for (int c0 = 0; c0 < half; c0 += TILE) {
+                int c1 = Math.min(c0 + TILE, half);
+                for (int r = r0; r < r1; r++) {
+                    for (int c = c0; c < c1; c++) {
+                        int p0 = r * size + c;
+                        int p1 = c * size + last - r;
+                        int p2 = (last - r) * size + last - c;
+                        int p3 = (last - c) * size + r;
+                        float element = a[p0];
+                        if (clockwise) {
+                            a[p0] = a[p3];
+                            a[p3] = a[p2];
+                            a[p2] = a[p1];
+                            a[p1] = element;
+                        } else {
+                            a[p0] = a[p1];
+                            a[p1] = a[p2];
+                            a[p2] = a[p3];
+                            a[p3] = element;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    static void reverseRows(float[] a, int columns, int fromRow, int toRow) {
+        for (int r = fromRow; r < toRow; r++) {
+            reverse(a, r * columns, r * columns + columns - 1, columns / 2);
+        }
+    }
+
+    static void swapRows(float[] a, int rows, int columns, int fromRow, int toRow) {
+        for (int r = fromRow; r < toRow; r++) {
+            int i = r * columns;
+            int j = (rows - 1 - r) * columns;
+            for (int c = 0; c < columns; c++) {
+                float element = a[i + c];
+                a[i + c] = a[j + c];
+                a[j + c] = element;
+            }
+        }
+    }
+
+    static void reverse(float[] a, int first, int last, int count) {
+        for (int k = 0; k < count; k++) {
+            float element = a[first + k];
+            a[first + k] = a[last - k];
+            a[last - k] = element;
+        }
+    }
+
+    static void rotateSquare(long[] a, int size, boolean clockwise, int fromRow, int toRow) {
+        int half = (size + 1) / 2;
+        int last = size - 1;
+        for (int r0 = fromRow; r0 < toRow; r0 += TILE) {
+            int r1 = Math.min(r0 + TILE, toRow);
+            for (int c0 = 0; c0 < half; c0 += TILE) {
+                int c1 = Math.min(c0 + TILE, half);
+                for (int r = r0; r < r1; r++) {
+                    for (int c = c0; c < c1; c++) {
+                        int p0 = r * size + c;
+                        int p1 = c * size + last - r;
+                        int p2 = (last - r) * size + last - c;
+                        int p3 = (last - c) * size + r;
+                        long element = a[p0];
+                        if (clockwise) {
+                            a[p0] = a[p3];
+                            a[p3] = a[p2];
+                            a[p2] = a[p1];
+                            a[p1] = element;
+                        } else {
+                            a[p0] = a[p1];
+                            a[p1] = a[p2];
+                            a[p2] = a[p3];
+                            a[p3] = element;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    static void reverseRows(long[] a, int columns, int fromRow, int toRow) {
+        for (int r = fromRow; r < toRow; r++) {
+            reverse(a, r * columns, r * columns + columns - 1, columns / 2);
+        }
+    }
+
+    static void swapRows(long[] a, int rows, int columns, int fromRow, int toRow) {
+        for (int r = fromRow; r < toRow; r++) {
+            int i = r * columns;
+            int j = (rows - 1 - r) * columns;
+            for (int c = 0; c < columns; c++) {
+                long element = a[i + c];
+                a[i + c] = a[j + c];
+                a[j + c] = element;
+            }
+        }
+    }
+
+    static void reverse(long[] a, int first, int last, int count) {
+        for (int k = 0; k < count; k++) {
+            long element = a[first + k];
+            a[first + k] = a[last - k];
+            a[last - k] = element;
+        }
+    }
+
+    static void rotateSquare(int[] a, int size, boolean clockwise, int fromRow, int toRow) {
+        int half = (size + 1) / 2;
+        int last = size - 1;
+        for (int r0 = fromRow; r0 < toRow; r0 += TILE) {
+            int r1 = Math.min(r0 + TILE, toRow);
+            for (int c0 = 0; c0 < half; c0 += TILE) {
+                int c1 = Math.min(c0 + TILE, half);
+                for (int r = r0; r < r1; r++) {
+                    for (int c = c0; c < c1; c++) {
+                        int p0 = r * size + c;
+                        int p1 = c * size + last - r;
+                        int p2 = (last - r) * size + last - c;
+                        int p3 = (last - c) * size + r;
+                        int element = a[p0];
+                        if (clockwise) {
+                            a[p0] = a[p3];
+                            a[p3] = a[p2];
+                            a[p2] = a[p1];
+                            a[p1] = element;
+                        } else {
+                            a[p0] = a[p1];
+                            a[p1] = a[p2];
+                            a[p2] = a[p3];
+                            a[p3] = element;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    static void reverseRows(int[] a, int columns, int fromRow, int toRow) {
+        for (int r = fromRow; r < toRow; r++) {
+            reverse(a, r * columns, r * columns + columns - 1, columns / 2);
+        }
+    }
+
+    static void swapRows(int[] a, int rows, int columns, int fromRow, int toRow) {
+        for (int r = fromRow; r < toRow; r++) {
+            int i = r * columns;
+            int j = (rows - 1 - r) * columns;
+            for (int c = 0; c < columns; c++) {
+                int element = a[i + c];
+                a[i + c] = a[j + c];
+                a[j + c] = element;
+            }
+        }
+    }
+
+    static void reverse(int[] a, int first, int last, int count) {
+        for (int k = 0; k < count; k++) {
+            int element = a[first + k];
+            a[first + k] = a[last - k];
+            a[last - k] = element;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.viktori.matteray.util;
+
+import org.viktori.matteray.Matrix;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+
+/**
+ * A linear operator on {@code double} vectors, i.e. a matrix {@code A} which is only known by
+ * its product {@code y = A * x} with a vector. Iterative solvers, such as
+ * {@link PartialEigenDecomposition}, only need this product, so they work the same on dense and
+ * sparse matrices, and on operators which are never stored as a matrix at all, such as a graph
+ * which is traversed on the fly, or a product of several matrices.
+ *
+ * <p>An operator is created from a {@link Matrix} with {@link #of(Matrix)}, which copies the
+ * matrix once into primitive storage, and keeps a {@link org.viktori.matteray.SparseDoubleMatrix}
+ * sparse. {@link #parallelOf} computes each product by bands of rows in parallel, with bands of
+ * a sparse matrix balanced by their number of non-zero elements. An operator defined by a
+ * function is created with {@link #of(int, BiConsumer)}.
+ *
+ * <p>The vectors are plain {@code double[]}, so that a solver can reuse the same vectors for
+ * every product without allocating any.
+ *
+ * @author Viktor Ingemansson
+ * @see PartialEigenDecomposition
+ */
+public interface LinearOperator {
+
+    /**
+     * Returns the row count of this operator, which is the size of its products.
+     *
+     * @return the row count of this operator
+     */
+    int rows();
+
+    /**
+     * Returns the column count of this operator, which is the size of the vectors it is applied
+     * to.
+     *
+     * @return the column count of this operator
+     */
+    int columns();
+
+    /**
+     * Returns if this operator is square, i.e. maps vectors to vectors of the same size.
+     *
+     * @return true if the row count is equal to the column count
+     */
+    default boolean isSquare() {
+        return rows() == columns();
+    }
+
+    /**
+     * Computes the product of this operator and the vector {@code x}, and stores it in
+     * {@code y}. Every element of {@code y} is overwritten, and {@code x} is not modified. The
+     * arrays must be distinct, and are not retained.
+     *
+     * @param x vector to apply this operator to, with one element per column
+     * @param y vector to store the product in, with one element per row
+     * @throws IllegalArgumentException if the size of either vector does not match this operator
+     * @throws NullPointerException if either vector is null
+     */
+    void apply(double[] x, double[] y);
+
+    /**
+     * Returns an operator which multiplies with the specified matrix. The matrix is copied, so
+     * later changes to it are not seen by the operator.
+     *
+     * @param matrix matrix to multiply with
+     * @return an operator for the matrix
+     * @throws NullPointerException if the matrix is null, or contains null elements
+     */
+    static LinearOperator of(Matrix<? extends Number> matrix) {
+        return LinearOperators.of(matrix, null);
+    }
+
+    /**
+     * Returns an operator which multiplies with the specified matrix, by bands of rows in
+     * parallel on the common {@link ForkJoinPool}. Products which are too small to be worth
+     * splitting are computed in the calling thread. The matrix is copied, so later changes to
+     * it are not seen by the operator.
+     *
+     * @param matrix matrix to multiply with
+     * @return an operator for the matrix
+     * @throws NullPointerException if the matrix is null, or contains null elements
+     */
+    static LinearOperator parallelOf(Matrix<? extends Number> matrix) {
+        return parallelOf(matrix, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns an operator which multiplies with the specified matrix, by bands of rows in
+     * parallel on the specified {@link ForkJoinPool}. Products which are too small to be worth
+     * splitting are computed in the calling thread. The matrix is copied, so later changes to
+     * it are not seen by the operator.
+     *
+     * @param matrix matrix to multiply with
+     * @param pool pool to compute the products in
+     * @return an operator for the matrix
+     * @throws NullPointerException if the matrix or the pool is null, or the matrix contains
+     *                              null elements
+     */
+    static LinearOperator parallelOf(Matrix<? extends Number> matrix, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return LinearOperators.of(matrix, pool);
+    }
+
+    /**
+     * Returns a square operator of the specified size, whose product is computed by the
+     * specified function. The function is called with {@code x} and {@code y}, and must store
+     * the product of {@code x} in {@code y}, like {@link #apply}.
+     *
+     * @param size row and column count of the operator
+     * @param product function to compute the product, i.e. (x, y) -> y = A * x
+     * @return an operator with the specified product
+     * @throws IllegalArgumentException if the size is negative
+     * @throws NullPointerException if the function is null
+     */
+    static LinearOperator of(int size, BiConsumer<double[], double[]> product) {
+        return of(size, size, product);
+    }
+
+    /**
+     * Returns an operator of the specified size, whose product is computed by the specified
+     * function. The function is called with {@code x} and {@code y}, and must store the product
+     * of {@code x} in {@code y}, like {@link #apply}.
+     *
+     * @param rows row count of the operator
+     * @param columns column count of the operator
+     * @param product function to compute the product, i.e. (x, y) -> y = A * x
+     * @return an operator with the specified product
+     * @throws IllegalArgumentException if the row or column count is negative
+     * @throws NullPointerException if the function is null
+     */
+    static LinearOperator of(int rows, int columns, BiConsumer<double[], double[]> product) {
+        return new LinearOperators.FunctionOperator(rows, columns, product);
+    }
+}
@@ -0,0 +1,94 @@
+package org.viktori.matteray.util;
+
+import org.viktori.matteray.Matrix;
+import org.viktori.matteray.SparseDoubleMatrix;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+
+/**
+ * Internal implementations of {@link LinearOperator}, for dense and sparse matrices and for
+ * functions.
+ *
+ * @author Viktor Ingemansson
+ */
+final class LinearOperators {
+
+    /**
+     * Number of multiply-adds below which a product runs in the calling thread
+     */
+    private static final long PARALLEL_THRESHOLD = 1L << 18;
+
+    /**
+     * Minimum number of non-zero elements in each band of a parallel sparse product
+     */
+    private static final int SPARSE_GRAIN = 1 << 12;
+
+    private LinearOperators() {
+        // static class
+    }
+
+    /**
+     * Returns an operator for the specified matrix, which is parallel if a pool is given.
+     */
+    static LinearOperator of(Matrix<? extends Number> matrix, ForkJoinPool pool) {
+        Objects.requireNonNull(matrix);
+        if (matrix instanceof SparseDoubleMatrix sm) {
+            return new SparseOperator(sm.toRowPointerArray(), sm.toColumnIndexArray(), sm.toValueArray(), sm.rows(), sm.columns(), pool);
+        }
+        return new DenseOperator(DecompositionKernels.toRowMajor(matrix), matrix.rows(), matrix.columns(), pool);
+    }
+
+    private static void validateSizes(LinearOperator operator, double[] x, double[] y) {
+        if (x.length != operator.columns() || y.length != operator.rows()) {
+            throw new IllegalArgumentException("Sizes of vectors must be " + operator.columns() + " and " + operator.rows() + ", but were "
+                    + x.length + " and " + y.length);
+        }
+    }
+
+    private record DenseOperator(double[] elementData, int rows, int columns, ForkJoinPool pool) implements LinearOperator {
+
+        @Override
+        public void apply(double[] x, double[] y) {
+            validateSizes(this, x, y);
+            if (pool == null || (long) rows * columns < PARALLEL_THRESHOLD || rows <= 1) {
+                MatrixKernels.multiplyMatrixVectorDouble(elementData, x, y, 0, rows, columns);
+            } else {
+                ParallelRanges.forRange(pool, 0, rows, ParallelRanges.grainFor(pool, rows, 1, 1),
+                        (from, to) -> MatrixKernels.multiplyMatrixVectorDouble(elementData, x, y, from, to, columns));
+            }
+        }
+    }
+
+    private record SparseOperator(int[] rowPointers, int[] columnIndices, double[] values, int rows, int columns,
+                                  ForkJoinPool pool) implements LinearOperator {
+
+        @Override
+        public void apply(double[] x, double[] y) {
+            validateSizes(this, x, y);
+            ParallelRanges.RangeAction action = (from, to) -> SparseKernels.multiplySparseVector(rowPointers, columnIndices, values, x, y, from, to);
+            if (pool == null || values.length < PARALLEL_THRESHOLD || rows <= 1) {
+                action.run(0, rows);
+            } else {
+                SparseKernels.forBalancedRows(pool, rowPointers, SPARSE_GRAIN, action);
+            }
+        }
+    }
+
+    record FunctionOperator(int rows, int columns, BiConsumer<double[], double[]> product) implements LinearOperator {
+
+        FunctionOperator {
+            if (rows < 0 || columns < 0) {
+                throw new IllegalArgumentException("Size must not be negative, but was " + rows + "x" + columns);
+            }
+            Objects.requireNonNull(product);
+        }
+
+        @Override
+        public void apply(double[] x, double[] y) {
+            validateSizes(this, x, y);
+            product.accept(x, y);
+        }
+    }
+}
@@ -0,0 +1,777 @@
+package org.viktori.matteray.util;
+
+import java.util.Arrays;
+import java.util.function.BinaryOperator;
+
+/**
+ * Internal multiplication kernels used by {@link MatrixUtils}. The kernels work on raw
+ * arrays which have already been extracted from the operand matrices, and write into a
+ * preallocated result, so they never allocate per element.
+ *
+ * <p>All kernels operate on a range of result rows, or result columns for vector-matrix
+ * products, which lets the parallel multiplication split the work across threads without
+ * copying.
+ *
+ * @author Viktor Ingemansson
+ */
+final class MatrixKernels {
+
+    /**
+     * Tile length used by the generic kernel. A tile of each operand is 64x64 references,
+     * which keeps the working set well within the L2 cache.
+     */
+    static final int GENERIC_BLOCK_SIZE = 64;
+
+    /**
+     * Row count of the register tile computed by the primitive micro-kernels
+     */
+    static final int MR = 4;
+
+    /**
+     * Column count of the register tile computed by the primitive micro-kernels
+     */
+    static final int NR = 4;
+
+    /**
+     * Panel depth of the primitive kernels, so a packed {@value #MR}-row strip of the first
+     * operand fits in the L1 cache
+     */
+    static final int KC = 256;
+
+    /**
+     * Panel height of the first operand in the primitive kernels, sized for the L2 cache
+     */
+    static final int MC = 64;
+
+    /**
+     * Panel width of the second operand in the primitive kernels, sized for the L3 cache
+     */
+    static final int NC = 1024;
+
+    private MatrixKernels() {
+        // static class
+    }
+
+    /**
+     * Computes rows {@code fromRow} to {@code toRow} (exclusive) of the product of {@code a} and
+     * {@code b} with the specified product and sum functions, using i-k-j ordering within
+     * cache-sized tiles. Each output cell is accumulated in ascending {@code k} order, so the
+     * result is the same as folding the dot product from left to right, even if the sum
+     * function is not associative or commutative.
+     *
+     * <p>If {@code hasIdentity} is true, the result rows must already be filled with the identity,
+     * and every product is added to it. Otherwise, the first product of each cell is used as is.
+     *
+     * @param a           rows of the first matrix
+     * @param b           rows of the second matrix
+     * @param c           rows of the result, with {@code b[0].length} columns
+     * @param fromRow     first result row to compute (inclusive)
+     * @param toRow       last result row to compute (exclusive)
+     * @param inner       column count of the first matrix, and row count of the second
+     * @param columns     column count of the second matrix
+     * @param product     function to calculate the product of two values
+     * @param sum         function to calculate the sum of two values
+     * @param hasIdentity if the result is prefilled with the identity
+     */
+    static <E> void multiplyGeneric(Object[][] a, Object[][] b, Object[][] c, int fromRow, int toRow, int inner, int columns,
+                                    BinaryOperator<E> product, BinaryOperator<E> sum, boolean hasIdentity) {
+        multiplyGeneric(a, b, c, fromRow, toRow, inner, columns, product, sum, hasIdentity, null);
+    }
+
+    /**
+     * Same as {@link #multiplyGeneric(Object[][], Object[][], Object[][], int, int, int, int,
+     * BinaryOperator, BinaryOperator, boolean)}, but skips every element of {@code a} which is
+     * equal to {@code annihilator}, unless it is null. This requires that the result is prefilled
+     * with the identity, and that the product of the annihilator and any value is the identity.
+     */
+    @SuppressWarnings("unchecked")
+    static <E> void multiplyGeneric(Object[][] a, Object[][] b, Object[][] c, int fromRow, int toRow, int inner, int columns,
+                                    BinaryOperator<E> product, BinaryOperator<E> sum, boolean hasIdentity, Object annihilator) {
+        for (int jj = 0; jj < columns; jj += GENERIC_BLOCK_SIZE) {
+            int jEnd = Math.min(jj + GENERIC_BLOCK_SIZE, columns);
+            for (int kk = 0; kk < inner; kk += GENERIC_BLOCK_SIZE) {
+                int kEnd = Math.min(kk + GENERIC_BLOCK_SIZE, inner);
+                for (int i = fromRow; i < toRow; i++) {
+                    Object[] aRow = a[i];
+                    Object[] cRow = c[i];
+                    for (int k = kk; k < kEnd; k++) {
+                        E aValue = (E) aRow[k];
+                        Object[] bRow = b[k];
+                        if (k == 0 && !hasIdentity) {
+                            for (int j = jj; j < jEnd; j++) {
+                                cRow[j] = product.apply(aValue, (E) bRow[j]);
+                            }
+                        } else if (annihilator == null || !annihilator.equals(aValue)) {
+                            for (int j = jj; j < jEnd; j++) {
+                                cRow[j] = sum.apply((E) cRow[j], product.apply(aValue, (E) bRow[j]));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes rows {@code fromRow} to {@code toRow} (exclusive) of the min-plus product of the
+     * row-major matrices {@code a} and {@code b}, into {@code c}. Elements of {@code a} which are
+     * positive infinity are skipped, and so are sums which are NaN, since those are products
+     * with positive infinity in the min-plus semiring.
+     */
+    static void multiplyMinPlus(double[] a, double[] b, double[] c, int fromRow, int toRow, int inner, int columns) {
+        for (int i = fromRow; i < toRow; i++) {
+            int cOffset = i * columns;
+            Arrays.fill(c, cOffset, cOffset + columns, Double.POSITIVE_INFINITY);
+            for (int k = 0; k < inner; k++) {
+                double aValue = a[i * inner + k];
+                if (aValue == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                for (int j = 0, bOffset = k * columns; j < columns; j++) {
+                    double value = aValue + b[bOffset + j];
+                    if (value < c[cOffset + j]) {
+                        c[cOffset + j] = value;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes rows {@code fromRow} to {@code toRow} (exclusive) of the max-plus product of the
+     * row-major matrices {@code a} and {@code b}, into {@code c}. Elements of {@code a} which are
+     * negative infinity are skipped, and so are sums which are NaN, since those are products
+     * with negative infinity in the max-plus semiring.
+     */
+    static void multiplyMaxPlus(double[] a, double[] b, double[] c, int fromRow, int toRow, int inner, int columns) {
+        for (int i = fromRow; i < toRow; i++) {
+            int cOffset = i * columns;
+            Arrays.fill(c, cOffset, cOffset + columns, Double.NEGATIVE_INFINITY);
+            for (int k = 0; k < inner; k++) {
+                double aValue = a[i * inner + k];
+                if (aValue == Double.NEGATIVE_INFINITY) {
+                    continue;
+                }
+                for (int j = 0, bOffset = k * columns; j < columns; j++) {
+                    double value = aValue + b[bOffset + j];
+                    if (value > c[cOffset + j]) {
+                        c[cOffset + j] = value;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes rows {@code fromRow} to {@code toRow} (exclusive) of the max-times product of the
+     * row-major matrices {@code a} and {@code b}, into {@code c}. Elements of {@code a} which are
+     * zero are skipped, and so are products which are NaN, since those are products with zero
+     * in the max-times semiring.
+     */
+    static void multiplyMaxTimes(double[] a, double[] b, double[] c, int fromRow, int toRow, int inner, int columns) {
+        for (int i = fromRow; i < toRow; i++) {
+            int cOffset = i * columns;
+            Arrays.fill(c, cOffset, cOffset + columns, 0.0);
+            for (int k = 0; k < inner; k++) {
+                double aValue = a[i * inner + k];
+                if (aValue == 0.0) {
+                    continue;
+                }
+                for (int j = 0, bOffset = k * columns; j < columns; j++) {
+                    double value = aValue * b[bOffset + j];
+                    if (value > c[cOffset + j]) {
+                        c[cOffset + j] = value;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes rows {@code fromRow} to {@code toRow} (exclusive) of the boolean or-and product of
+     * {@code a} and {@code b}, with the rows of {@code b} and the result packed as bits into
+     * {@code long} words, {@code words} per row. Each true element of {@code a} ors a whole row
+     * of {@code b} into the result, 64 columns at a time, and false elements are skipped.
+     */
+    static void multiplyOrAnd(boolean[][] a, long[] b, long[] c, int fromRow, int toRow, int inner, int words) {
+        for (int i = fromRow; i < toRow; i++) {
+            boolean[] aRow = a[i];
+            int cOffset = i * words;
+            for (int k = 0; k < inner; k++) {
+                if (aRow[k]) {
+                    for (int w = 0, bOffset = k * words; w < words; w++) {
+                        c[cOffset + w] |= b[bOffset + w];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes elements {@code fromRow} to {@code toRow} (exclusive) of the product of the
+     * matrix {@code a} and the vector {@code x}, into {@code y}. Each row is read once, and its
+     * dot product with the vector is folded from left to right, starting from the identity if
+     * {@code hasIdentity} is true, and from the first product otherwise.
+     */
+    @SuppressWarnings("unchecked")
+    static <E> void multiplyMatrixVectorGeneric(Object[][] a, Object[] x, Object[] y, int fromRow, int toRow, int columns,
+                                                BinaryOperator<E> product, BinaryOperator<E> sum, boolean hasIdentity, E identity) {
+        for (int i = fromRow; i < toRow; i++) {
+            Object[] row = a[i];
+            E result = identity;
+            for (int k = 0; k < columns; k++) {
+                E term = product.apply((E) row[k], (E) x[k]);
+                result = k == 0 && !hasIdentity ? term : sum.apply(result, term);
+            }
+            y[i] = result;
+        }
+    }
+
+    /**
+     * Computes elements {@code fromColumn} to {@code toColumn} (exclusive) of the product of the
+     * vector {@code x} and the matrix {@code a}, into {@code y}. The matrix is read row by row,
+     * and each element of the result is accumulated in ascending row order, like
+     * {@link #multiplyGeneric}. If {@code hasIdentity} is true, the result must already be
+     * filled with the identity.
+     */
+    @SuppressWarnings("unchecked")
+    static <E> void multiplyVectorMatrixGeneric(Object[] x, Object[][] a, Object[] y, int fromColumn, int toColumn, int rows,
+                                                BinaryOperator<E> product, BinaryOperator<E> sum, boolean hasIdentity) {
+        for (int k = 0; k < rows; k++) {
+            E xValue = (E) x[k];
+            Object[] row = a[k];
+            if (k == 0 && !hasIdentity) {
+                for (int j = fromColumn; j < toColumn; j++) {
+                    y[j] = product.apply(xValue, (E) row[j]);
+                }
+            } else {
+                for (int j = fromColumn; j < toColumn; j++) {
+                    y[j] = sum.apply((E) y[j], product.apply(xValue, (E) row[j]));
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes elements {@code fromRow} to {@code toRow} (exclusive) of the product of the
+     * row-major {@code double} matrix {@code a} and the vector {@code x}, into {@code y}. Each
+     * row is read once, as a dot product with the vector.
+     */
+    static void multiplyMatrixVectorDouble(double[] a, double[] x, double[] y, int fromRow, int toRow, int columns) {
+        PrimitiveOps ops = PrimitiveOps.INSTANCE;
+        for (int i = fromRow; i < toRow; i++) {
+            y[i] = ops.dot(a, i * columns, x, 0, columns);
+        }
+    }
+
+    /**
+     * Computes elements {@code fromColumn} to {@code toColumn} (exclusive) of the product of the
+     * vector {@code x} and the row-major {@code double} matrix {@code a}, adding it to {@code y}.
+     * The matrix is read row by row, and each row is scaled by an element of the vector and
+     * added to the result.
+     */
+    static void multiplyVectorMatrixDouble(double[] x, double[] a, double[] y, int fromColumn, int toColumn, int rows, int columns) {
+        PrimitiveOps ops = PrimitiveOps.INSTANCE;
+        for (int k = 0; k < rows; k++) {
+            ops.axpy(x[k], a, k * columns + fromColumn, y, fromColumn, toColumn - fromColumn);
+        }
+    }
+
+    /**
+     * Computes elements {@code fromRow} to {@code toRow} (exclusive) of the product of the
+     * row-major {@code float} matrix {@code a} and the vector {@code x}, into {@code y}. Each
+     * row is read once, as a dot product with the vector.
+     */
+    static void multiplyMatrixVectorFloat(float[] a, float[] x, float[] y, int fromRow, int toRow, int columns) {
+        PrimitiveOps ops = PrimitiveOps.INSTANCE;
+        for (int i = fromRow; i < toRow; i++) {
+            y[i] = ops.dot(a, i * columns, x, 0, columns);
+        }
+    }
+
+    /**
+     * Computes elements {@code fromColumn} to {@code toColumn} (exclusive) of the product of the
+     * vector {@code x} and the row-major {@code float} matrix {@code a}, adding it to {@code y}.
+     * The matrix is read row by row, and each row is scaled by an element of the vector and
+     * added to the result.
+     */
+    static void multiplyVectorMatrixFloat(float[] x, float[] a, float[] y, int fromColumn, int toColumn, int rows, int columns) {
+        PrimitiveOps ops = PrimitiveOps.INSTANCE;
+        for (int k = 0; k < rows; k++) {
+            ops.axpy(x[k], a, k * columns + fromColumn, y, fromColumn, toColumn - fromColumn);
+        }
+    }
+
+    /**
+     * Computes elements {@code fromRow} to {@code toRow} (exclusive) of the product of the
+     * row-major {@code long} matrix {@code a} and the vector {@code x}, into {@code y}. Each
+     * row is read once, as a dot product with the vector.
+     */
+    static void multiplyMatrixVectorLong(long[] a, long[] x, long[] y, int fromRow, int toRow, int columns) {
+        for (int i = fromRow; i < toRow; i++) {
+            long sum = 0;
+            for (int k = 0, offset = i * columns; k < columns; k++) {
+                sum += a[offset + k] * x[k];
+            }
+            y[i] = sum;
+        }
+    }
+
+    /**
+     * Computes elements {@code fromColumn} to {@code toColumn} (exclusive) of the product of the
+     * vector {@code x} and the row-major {@code long} matrix {@code a}, adding it to {@code y}.
+     * The matrix is read row by row, and each row is scaled by an element of the vector and
+     * added to the result.
+     */
+    static void multiplyVectorMatrixLong(long[] x, long[] a, long[] y, int fromColumn, int toColumn, int rows, int columns) {
+        for (int k = 0; k < rows; k++) {
+            long xValue = x[k];
+            for (int j = fromColumn, offset = k * columns; j < toColumn; j++) {
+                y[j] += xValue * a[offset + j];
+            }
+        }
+    }
+
+    /**
+     * Multiplies two square matrices stored in buffers of type {@code T}, overwriting {@code c}
+     * with the product. {@code a} and {@code b} may be the same buffer, but never {@code c}.
+     */
+    @FunctionalInterface
+    interface BufferProduct<T> {
+        void multiply(T a, T b, T c);
+    }
+
+    /**
+     * Copies all elements of one buffer of type {@code T} to another.
+     */
+    @FunctionalInterface
+    interface BufferCopy<T> {
+        void copy(T from, T to);
+    }
+
+    /**
+     * Raises the square matrix in {@code base} to the specified positive power by repeated
+     * squaring, i.e. with at most {@code 2 * log2(exponent)} products. The three buffers are
+     * swapped between the products, so nothing is allocated per product, and the contents of
+     * all of them are overwritten.
+     *
+     * @param base     buffer with the matrix to raise
+     * @param result   buffer for the result
+     * @param scratch  buffer for intermediate products
+     * @param exponent the power to raise the matrix to, which must be at least one
+     * @param product  function to multiply two buffers into a third
+     * @param copy     function to copy one buffer to another
+     * @return the buffer holding the result, which is one of the three specified buffers
+     */
+    static <T> T powerBySquaring(T base, T result, T scratch, int exponent, BufferProduct<T> product, BufferCopy<T> copy) {
+        boolean empty = true;
+        while (true) {
+            if ((exponent & 1) != 0) {
+                if (empty) {
+                    copy.copy(base, result);
+                    empty = false;
+                } else {
+                    product.multiply(result, base, scratch);
+                    T swap = result;
+                    result = scratch;
+                    scratch = swap;
+                }
+            }
+            exponent >>>= 1;
+            if (exponent == 0) {
+                return result;
+            }
+            product.multiply(base, base, scratch);
+            T swap = base;
+            base = scratch;
+            scratch = swap;
+        }
+    }
+
+    /**
+     * Returns new result rows for a generic product, filled with the identity if there is one.
+     */
+    static Object[][] newGenericResult(int rows, int columns, boolean hasIdentity, Object identity) {
+        Object[][] c = new Object[rows][columns];
+        if (hasIdentity && identity != null) {
+            for (Object[] row : c) {
+                Arrays.fill(row, identity);
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Computes rows {@code fromRow} to {@code toRow} (exclusive) of the product of the row-major
+     * {@code double} matrices {@code a} and {@code b}, adding it to {@code c}. Panels of both
+     * operands are packed into contiguous buffers, and each {@value #MR}x{@value #NR} tile of the
+     * result is accumulated in registers by {@link PrimitiveOps#microKernelDouble}.
+     *
+     * @param a       the first matrix, with {@code inner} columns
+     * @param b       the second matrix, with {@code columns} columns
+     * @param c       the result, with {@code columns} columns
+     * @param fromRow first result row to compute (inclusive)
+     * @param toRow   last result row to compute (exclusive)
+     * @param inner   column count of the first matrix, and row count of the second
+     * @param columns column count of the second matrix
+     */
+    static void multiplyDouble(double[] a, double[] b, double[] c, int fromRow, int toRow, int inner, int columns) {
+        if (fromRow >= toRow || inner == 0 || columns == 0) {
+            return;
+        }
+        int kcMax = Math.min(KC, inner);
+        double[] packedA = new double[roundUp(Math.min(MC, toRow - fromRow), MR) * kcMax];
+        double[] packedB = new double[roundUp(Math.min(NC, columns), NR) * kcMax];
+        double[] edge = new double[MR * NR];
+        PrimitiveOps ops = PrimitiveOps.INSTANCE;
+        for (int jc = 0; jc < columns; jc += NC) {
+            int nc = Math.min(NC, columns - jc);
+            for (int pc = 0; pc < inner; pc += KC) {
+                int kc = Math.min(KC, inner - pc);
+                packPanelB(b, columns, pc, kc, jc, nc, packedB);
+                for (int ic = fromRow; ic < toRow; ic += MC) {
+                    int mc = Math.min(MC, toRow - ic);
+                    packPanelA(a, inner, ic, mc, pc, kc, packedA);
+                    for (int jr = 0; jr < nc; jr += NR) {
+                        for (int ir = 0; ir < mc; ir += MR) {
+                            ops.microKernelDouble(kc, packedA, ir * kc, packedB, jr * kc, c, (ic + ir) * columns + jc + jr, columns,
+                                    Math.min(MR, mc - ir), Math.min(NR, nc - jr), edge);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Packs rows {@code ic} to {@code ic + mc} and columns {@code pc} to {@code pc + kc} of
+     * {@code a} into strips of {@value #MR} rows, stored column by column and padded with zeros.
+     */
+    private static void packPanelA(double[] a, int inner, int ic, int mc, int pc, int kc, double[] packed) {
+        for (int ir = 0; ir < mc; ir += MR) {
+            int strip = ir * kc;
+            int height = Math.min(MR, mc - ir);
+            for (int i = 0; i < MR; i++) {
+                if (i < height) {
+                    int row = (ic + ir + i) * inner + pc;
+                    for (int p = 0; p < kc; p++) {
+                        packed[strip + p * MR + i] = a[row + p];
+                    }
+                } else {
+                    for (int p = 0; p < kc; p++) {
+                        packed[strip + p * MR + i] = 0;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Packs rows {@code pc} to {@code pc + kc} and columns {@code jc} to {@code jc + nc} of
+     * {@code b} into strips of {@value #NR} columns, stored row by row and padded with zeros.
+     */
+    private static void packPanelB(double[] b, int columns, int pc, int kc, int jc, int nc, double[] packed) {
+        for (int jr = 0; jr < nc; jr += NR) {
+            int strip = jr * kc;
+            int width = Math.min(NR, nc - jr);
+            for (int p = 0; p < kc; p++) {
+                int row = (pc + p) * columns + jc + jr;
+                int to = strip + p * NR;
+                for (int j = 0; j < width; j++) {
+                    packed[to + j] = b[row + j];
+                }
+                for (int j = width; j < NR; j++) {
+                    packed[to + j] = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Multiplies one packed strip of A with one packed strip of B, and adds the
+     * {@code height}x{@code width} top left part of the resulting tile to {@code c}. This is the
+     * scalar implementation used by {@link PrimitiveOps}.
+     */
+    static void microKernelDouble(int kc, double[] a, int aOffset, double[] b, int bOffset, double[] c, int cOffset, int columns,
+                                  int height, int width, double[] edge) {
+        double c00 = 0, c01 = 0, c02 = 0, c03 = 0;
+        double c10 = 0, c11 = 0, c12 = 0, c13 = 0;
+        double c20 = 0, c21 = 0, c22 = 0, c23 = 0;
+        double c30 = 0, c31 = 0, c32 = 0, c33 = 0;
+        for (int p = 0, i = aOffset, j = bOffset; p < kc; p++, i += MR, j += NR) {
+            double a0 = a[i], a1 = a[i + 1], a2 = a[i + 2], a3 = a[i + 3];
+            double b0 = b[j], b1 = b[j + 1], b2 = b[j + 2], b3 = b[j + 3];
+            c00 += a0 * b0; c01 += a0 * b1; c02 += a0 * b2; c03 += a0 * b3;
+            c10 += a1 * b0; c11 += a1 * b1; c12 += a1 * b2; c13 += a1 * b3;
+            c20 += a2 * b0; c21 += a2 * b1; c22 += a2 * b2; c23 += a2 * b3;
+            c30 += a3 * b0; c31 += a3 * b1; c32 += a3 * b2; c33 += a3 * b3;
+        }
+        if (height == MR && width == NR) {
+            int r0 = cOffset, r1 = r0 + columns, r2 = r1 + columns, r3 = r2 + columns;
+            c[r0] += c00; c[r0 + 1] += c01; c[r0 + 2] += c02; c[r0 + 3] += c03;
+            c[r1] += c10; c[r1 + 1] += c11; c[r1 + 2] += c12; c[r1 + 3] += c13;
+            c[r2] += c20; c[r2 + 1] += c21; c[r2 + 2] += c22; c[r2 + 3] += c23;
+            c[r3] += c30; c[r3 + 1] += c31; c[r3 + 2] += c32; c[r3 + 3] += c33;
+        } else {
+            edge[0] = c00; edge[1] = c01; edge[2] = c02; edge[3] = c03;
+            edge[4] = c10; edge[5] = c11; edge[6] = c12; edge[7] = c13;
+            edge[8] = c20; edge[9] = c21; edge[10] = c22; edge[11] = c23;
+            edge[12] = c30; edge[13] = c31; edge[14] = c32; edge[15] = c33;
+            for (int i = 0; i < height; i++) {
+                for (int j = 0; j < width; j++) {
+                    c[cOffset + i * columns + j] += edge[i * NR + j];
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes rows {@code fromRow} to {@code toRow} (exclusive) of the product of the row-major
+     * {@code float} matrices {@code a} and {@code b}, adding it to {@code c}. Panels of both
+     * operands are packed into contiguous buffers, and each {@value #MR}x{@value #NR} tile of the
+     * result is accumulated in registers by {@link PrimitiveOps#microKernelFloat}.
+     *
+     * @param a       the first matrix, with {@code inner} columns
+     * @param b       the second matrix, with {@code columns} columns
+     * @param c       the result, with {@code columns} columns
+     * @param fromRow first result row to compute (inclusive)
+     * @param toRow   last result row to compute (exclusive)
+     * @param inner   column count of the first matrix, and row count of the second
+     * @param columns column count of the second matrix
+     */
+    static void multiplyFloat(float[] a, float[] b, float[] c, int fromRow, int toRow, int inner, int columns) {
+        if (fromRow >= toRow || inner == 0 || columns == 0) {
+            return;
+        }
+        int kcMax = Math.min(KC, inner);
+        float[] packedA = new float[roundUp(Math.min(MC, toRow - fromRow), MR) * kcMax];
+        float[] packedB = new float[roundUp(Math.min(NC, columns), NR) * kcMax];
+        float[] edge = new float[MR * NR];
+        PrimitiveOps ops = PrimitiveOps.INSTANCE;
+        for (int jc = 0; jc < columns; jc += NC) {
+            int nc = Math.min(NC, columns - jc);
+            for (int pc = 0; pc < inner; pc += KC) {
+                int kc = Math.min(KC, inner - pc);
+                packPanelB(b, columns, pc, kc, jc, nc, packedB);
+                for (int ic = fromRow; ic < toRow; ic += MC) {
+                    int mc = Math.min(MC, toRow - ic);
+                    packPanelA(a, inner, ic, mc, pc, kc, packedA);
+                    for (int jr = 0; jr < nc; jr += NR) {
+                        for (int ir = 0; ir < mc; ir += MR) {
+                            ops.microKernelFloat(kc, packedA, ir * kc, packedB, jr * kc, c, (ic + ir) * columns + jc + jr, columns,
+                                    Math.min(MR, mc - ir), Math.min(NR, nc - jr), edge);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Packs rows {@code ic} to {@code ic + mc} and columns {@code pc} to {@code pc + kc} of
+     * {@code a} into strips of {@value #MR} rows, stored column by column and padded with zeros.
+     */
+    private static void packPanelA(float[] a, int inner, int ic, int mc, int pc, int kc, float[] packed) {
+        for (int ir = 0; ir < mc; ir += MR) {
+            int strip = ir * kc;
+            int height = Math.min(MR, mc - ir);
+            for (int i = 0; i < MR; i++) {
+                if (i < height) {
+                    int row = (ic + ir + i) * inner + pc;
+                    for (int p = 0; p < kc; p++) {
+                        packed[strip + p * MR + i] = a[row + p];
+                    }
+                } else {
+                    for (int p = 0; p < kc; p++) {
+                        packed[strip + p * MR + i] = 0;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Packs rows {@code pc} to {@code pc + kc} and columns {@code jc} to {@code jc + nc} of
+     * {@code b} into strips of {@value #NR} columns, stored row by row and padded with zeros.
+     */
+    private static void packPanelB(float[] b, int columns, int pc, int kc, int jc, int nc, float[] packed) {
+        for (int jr = 0; jr < nc; jr += NR) {
+            int strip = jr * kc;
+            int width = Math.min(NR, nc - jr);
+            for (int p = 0; p < kc; p++) {
+                int row = (pc + p) * columns + jc + jr;
+                int to = strip + p * NR;
+                for (int j = 0; j < width; j++) {
+                    packed[to + j] = b[row + j];
+                }
+                for (int j = width; j < NR; j++) {
+                    packed[to + j] = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Multiplies one packed strip of A with one packed strip of B, and adds the
+     * {@code height}x{@code width} top left part of the resulting tile to {@code c}. This is the
+     * scalar implementation used by {@link PrimitiveOps}.
+     */
+    static void microKernelFloat(int kc, float[] a, int aOffset, float[] b, int bOffset, float[] c, int cOffset, int columns,
+                                 int height, int width, float[] edge) {
+        float c00 = 0, c01 = 0, c02 = 0, c03 = 0;
+        float c10 = 0, c11 = 0, c12 = 0, c13 = 0;
+        float c20 = 0, c21 = 0, c22 = 0, c23 = 0;
+        float c30 = 0, c31 = 0, c32 = 0, c33 = 0;
+        for (int p = 0, i = aOffset, j = bOffset; p < kc; p++, i += MR, j += NR) {
+            float a0 = a[i], a1 = a[i + 1], a2 = a[i + 2], a3 = a[i + 3];
+            float b0 = b[j], b1 = b[j + 1], b2 = b[j + 2], b3 = b[j + 3];
+            c00 += a0 * b0; c01 += a0 * b1; c02 += a0 * b2; c03 += a0 * b3;
+            c10 += a1 * b0; c11 += a1 * b1; c12 += a1 * b2; c13 += a1 * b3;
+            c20 += a2 * b0; c21 += a2 * b1; c22 += a2 * b2; c23 += a2 * b3;
+            c30 += a3 * b0; c31 += a3 * b1; c32 += a3 * b2; c33 += a3 * b3;
+        }
+        if (height == MR && width == NR) {
+            int r0 = cOffset, r1 = r0 + columns, r2 = r1 + columns, r3 = r2 + columns;
+            c[r0] += c00; c[r0 + 1] += c01; c[r0 + 2] += c02; c[r0 + 3] += c03;
+            c[r1] += c10; c[r1 + 1] += c11; c[r1 + 2] += c12; c[r1 + 3] += c13;
+            c[r2] += c20; c[r2 + 1] += c21; c[r2 + 2] += c22; c[r2 + 3] += c23;
+            c[r3] += c30; c[r3 + 1] += c31; c[r3 + 2] += c32; c[r3 + 3] += c33;
+        } else {
+            edge[0] = c00; edge[1] = c01; edge[2] = c02; edge[3] = c03;
+            edge[4] = c10; edge[5] = c11; edge[6] = c12; edge[7] = c13;
+            edge[8] = c20; edge[9] = c21; edge[10] = c22; edge[11] = c23;
+            edge[12] = c30; edge[13] = c31; edge[14] = c32; edge[15] = c33;
+            for (int i = 0; i < height; i++) {
+                for (int j = 0; j < width; j++) {
+                    c[cOffset + i * columns + j] += edge[i * NR + j];
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes rows {@code fromRow} to {@code toRow} (exclusive) of the product of the row-major
+     * {@code long} matrices {@code a} and {@code b}, adding it to {@code c}. Panels of both
+     * operands are packed into contiguous buffers, and each {@value #MR}x{@value #NR} tile of the
+     * result is accumulated in local variables by {@link #microKernelLong}.
+     *
+     * @param a       the first matrix, with {@code inner} columns
+     * @param b       the second matrix, with {@code columns} columns
+     * @param c       the result, with {@code columns} columns
+     * @param fromRow first result row to compute (inclusive)
+     * @param toRow   last result row to compute (exclusive)
+     * @param inner   column count of the first matrix, and row count of the second
+     * @param columns column count of the second matrix
+     */
+    static void multiplyLong(long[] a, long[] b, long[] c, int fromRow, int toRow, int inner, int columns) {
+        if (fromRow >= toRow || inner == 0 || columns == 0) {
+            return;
+        }
+        int kcMax = Math.min(KC, inner);
+        long[] packedA = new long[roundUp(Math.min(MC, toRow - fromRow), MR) * kcMax];
+        long[] packedB = new long[roundUp(Math.min(NC, columns), NR) * kcMax];
+        long[] edge = new long[MR * NR];
+        for (int jc = 0; jc < columns; jc += NC) {
+            int nc = Math.min(NC, columns - jc);
+            for (int pc = 0; pc < inner; pc += KC) {
+                int kc = Math.min(KC, inner - pc);
+                packPanelB(b, columns, pc, kc, jc, nc, packedB);
+                for (int ic = fromRow; ic < toRow; ic += MC) {
+                    int mc = Math.min(MC, toRow - ic);
+                    packPanelA(a, inner, ic, mc, pc, kc, packedA);
+                    for (int jr = 0; jr < nc; jr += NR) {
+                        for (int ir = 0; ir < mc; ir += MR) {
+                            microKernelLong(kc, packedA, ir * kc, packedB, jr * kc, c, (ic + ir) * columns + jc + jr, columns,
+                                    Math.min(MR, mc - ir), Math.min(NR, nc - jr), edge);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Packs rows {@code ic} to {@code ic + mc} and columns {@code pc} to {@code pc + kc} of
+     * {@code a} into strips of {@value #MR} rows, stored column by column and padded with zeros.
+     */
+    private static void packPanelA(long[] a, int inner, int ic, int mc, int pc, int kc, long[] packed) {
+        for (int ir = 0; ir < mc; ir += MR) {
+            int strip = ir * kc;
+            int height = Math.min(MR, mc - ir);
+            for (int i = 0; i < MR; i++) {
+                if (i < height) {
+                    int row = (ic + ir + i) * inner + pc;
+                    for (int p = 0; p < kc; p++) {
+                        packed[strip + p * MR + i] = a[row + p];
+                    }
+                } else {
+                    for (int p = 0; p < kc; p++) {
+                        packed[strip + p * MR + i] = 0;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Packs rows {@code pc} to {@code pc + kc} and columns {@code jc} to {@code jc + nc} of
+     * {@code b} into strips of {@value #NR} columns, stored row by row and padded with zeros.
+     */
+    private static void packPanelB(long[] b, int columns, int pc, int kc, int jc, int nc, long[] packed) {
+        for (int jr = 0; jr < nc; jr += NR) {
+            int strip = jr * kc;
+            int width = Math.min(NR, nc - jr);
+            for (int p = 0; p < kc; p++) {
+                int row = (pc + p) * columns + jc + jr;
+                int to = strip + p * NR;
+                for (int j = 0; j < width; j++) {
+                    packed[to + j] = b[row + j];
+                }
+                for (int j = width; j < NR; j++) {
+                    packed[to + j] = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Multiplies one packed strip of A with one packed strip of B, and adds the
+     * {@code height}x{@code width} top left part of the resulting tile to {@code c}.
+     */
+    private static void microKernelLong(int kc, long[] a, int aOffset, long[] b, int bOffset, long[] c, int cOffset, int columns,
+                                          int height, int width, long[] edge) {
+        long c00 = 0, c01 = 0, c02 = 0, c03 = 0;
+        long c10 = 0, c11 = 0, c12 = 0, c13 = 0;
+        long c20 = 0, c21 = 0, c22 = 0, c23 = 0;
+        long c30 = 0, c31 = 0, c32 = 0, c33 = 0;
+        for (int p = 0, i = aOffset, j = bOffset; p < kc; p++, i += MR, j += NR) {
+            long a0 = a[i], a1 = a[i + 1], a2 = a[i + 2], a3 = a[i + 3];
+            long b0 = b[j], b1 = b[j + 1], b2 = b[j + 2], b3 = b[j + 3];
+            c00 += a0 * b0; c01 += a0 * b1; c02 += a0 * b2; c03 += a0 * b3;
+            c10 += a1 * b0; c11 += a1 * b1; c12 += a1 * b2; c13 += a1 * b3;
+            c20 += a2 * b0; c21 += a2 * b1; c22 += a2 * b2; c23 += a2 * b3;
+            c30 += a3 * b0; c31 += a3 * b1; c32 += a3 * b2; c33 += a3 * b3;
+        }
+        if (height == MR && width == NR) {
+            int r0 = cOffset, r1 = r0 + columns, r2 = r1 + columns, r3 = r2 + columns;
+            c[r0] += c00; c[r0 + 1] += c01; c[r0 + 2] += c02; c[r0 + 3] += c03;
+            c[r1] += c10; c[r1 + 1] += c11; c[r1 + 2] += c12; c[r1 + 3] += c13;
+            c[r2] += c20; c[r2 + 1] += c21; c[r2 + 2] += c22; c[r2 + 3] += c23;
+            c[r3] += c30; c[r3 + 1] += c31; c[r3 + 2] += c32; c[r3 + 3] += c33;
+        } else {
+            edge[0] = c00; edge[1] = c01; edge[2] = c02; edge[3] = c03;
+            edge[4] = c10; edge[5] = c11; edge[6] = c12; edge[7] = c13;
+            edge[8] = c20; edge[9] = c21; edge[10] = c22; edge[11] = c23;
+            edge[12] = c30; edge[13] = c31; edge[14] = c32; edge[15] = c33;
+            for (int i = 0; i < height; i++) {
+                for (int j = 0; j < width; j++) {
+                    c[cOffset + i * columns + j] += edge[i * NR + j];
+                }
+            }
+        }
+    }
+
+    private static int roundUp(int value, int multiple) {
+        return (value + multiple - 1) / multiple * multiple;
+    }
+}
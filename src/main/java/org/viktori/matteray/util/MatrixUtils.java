@@ -1,13 +1,31 @@
 package org.viktori.matteray.util;
 
+import org.viktori.matteray.Array;
+import org.viktori.matteray.Complex;
+import org.viktori.matteray.ComplexMatrix;
+import org.viktori.matteray.DoubleArray;
+import org.viktori.matteray.DoubleMatrix;
+import org.viktori.matteray.FloatArray;
+import org.viktori.matteray.FloatMatrix;
+import org.viktori.matteray.ImmutableArray;
 import org.viktori.matteray.ImmutableMatrix;
+import org.viktori.matteray.IntMatrix;
+import org.viktori.matteray.LongArray;
+import org.viktori.matteray.LongMatrix;
 import org.viktori.matteray.Matrix;
+import org.viktori.matteray.SparseDoubleMatrix;
+import org.viktori.matteray.function.DoubleStencilFunction;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiFunction;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 /**
@@ -26,6 +44,16 @@ import java.util.stream.Stream;
  */
 public final class MatrixUtils {
 
+    /**
+     * Number of multiply-adds below which a parallel multiplication runs in the calling thread
+     */
+    private static final long PARALLEL_THRESHOLD = 1L << 18;
+
+    /**
+     * Minimum number of non-zero elements in each band of a parallel sparse multiplication
+     */
+    private static final int SPARSE_GRAIN = 1 << 12;
+
     private MatrixUtils() {
         // static class
     }
@@ -104,65 +132,4621 @@ public final class MatrixUtils {
     }
 
     /**
-     * Return a new matrix based on the mapping function for each position.
+     * Returns a new immutable matrix which is the transpose of the specified matrix, i.e. a
+     * matrix where the element at {@code (r, c)} is the element at {@code (c, r)} of the
+     * specified matrix. The elements are moved in square tiles, so both the rows which are read
+     * and the rows which are written stay in the cache, instead of striding across all rows of
+     * the matrix for every element.
      *
-     * @param matrix to map
-     * @param mappingFunction function to map each element with
-     * @return a new immutable matrix based on the mapping function
+     * @param matrix matrix to transpose
+     * @return a new immutable matrix with {@code matrix.columns()} rows and {@code matrix.rows()}
+     *         columns
+     * @throws NullPointerException if the matrix is null
      */
-    public static <E1, E2> Matrix<E2> toMapped(Matrix<E1> matrix, Function<E1, E2> mappingFunction) {
-        return new ImmutableMatrix<>(matrix.rows(), matrix.columns(), (r, c) -> mappingFunction.apply(matrix.get(r, c)));
+    public static <E> Matrix<E> transpose(Matrix<E> matrix) {
+        Objects.requireNonNull(matrix);
+        return transposeGeneric(matrix, null);
     }
 
     /**
-     * Performs matrix multiplication between the specified matrices, based on the specified
-     * productFunction and sumFunction. The resulting matrix will be a matrix where each value is
-     * calculated as the dot product from the row in the first matrix and the column of the second
-     * matrix. This also means the number of rows will be taken from the first matrix, and number of
-     * columns from the second matrix.
+     * Returns a new immutable matrix which is the transpose of the specified matrix, computed
+     * in parallel on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #transpose(Matrix)}, but bands of rows of the transpose are written concurrently.
+     * Small matrices are transposed in the calling thread.
      *
-     * @param matrix1 first matrix
-     * @param matrix2 second matrix
-     * @param productFunction function to calculate the product of two values, i.e. (x, y) -> x * y
-     * @param sumFunction function to calculate a sum of two values, i.e. (x, y) -> x + y
-     * @return a new immutable matrix with the multiplied result.
-     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count,
-     *                                  or this count is zero
+     * @param matrix matrix to transpose
+     * @return a new immutable matrix with {@code matrix.columns()} rows and {@code matrix.rows()}
+     *         columns
+     * @throws NullPointerException if the matrix is null
      */
-    public static <E> Matrix<E> multiply(Matrix<E> matrix1, Matrix<E> matrix2, BinaryOperator<E> productFunction, BinaryOperator<E> sumFunction) {
-        Objects.requireNonNull(matrix1);
-        Objects.requireNonNull(matrix2);
-        Objects.requireNonNull(productFunction);
-        Objects.requireNonNull(sumFunction);
-        validateMatrix1ColumnsEqualToMatrix2Rows(matrix1, matrix2);
-        validateMatrix1RowsAndMatrix2ColumnsNotEmptyWhenNoIdentityProvided(matrix1, matrix2);
+    public static <E> Matrix<E> parallelTranspose(Matrix<E> matrix) {
+        return parallelTranspose(matrix, ForkJoinPool.commonPool());
+    }
 
-        return new ImmutableMatrix<>(matrix1.rows(), matrix2.columns(), (r, c) -> ArrayUtils.dotProduct(matrix1.row(r), matrix2.column(c), productFunction, sumFunction));
+    /**
+     * Returns a new immutable matrix which is the transpose of the specified matrix, computed
+     * in parallel on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #transpose(Matrix)}, but bands of rows of the transpose are written concurrently.
+     * Small matrices are transposed in the calling thread.
+     *
+     * @param matrix matrix to transpose
+     * @param pool pool to write the bands in
+     * @return a new immutable matrix with {@code matrix.columns()} rows and {@code matrix.rows()}
+     *         columns
+     * @throws NullPointerException if the matrix or the pool is null
+     */
+    public static <E> Matrix<E> parallelTranspose(Matrix<E> matrix, ForkJoinPool pool) {
+        Objects.requireNonNull(matrix);
+        Objects.requireNonNull(pool);
+        return transposeGeneric(matrix, pool);
     }
 
     /**
-     * Performs matrix multiplication between the specified matrices, based on the specified
-     * productFunction and sumFunction. The resulting matrix will be a matrix where each value is
-     * calculated as the dot product from the row in the first matrix and the column of the second
-     * matrix. This also means the number of rows will be taken from the first matrix, and number of
-     * columns from the second matrix.
+     * Returns the transpose of the specified primitive {@code double} matrix. The elements are
+     * moved in square tiles without boxing them, see {@link #transpose(Matrix)}.
      *
-     * @param matrix1 first matrix
-     * @param matrix2 second matrix
-     * @param productFunction function to calculate the product of two values, i.e. (x, y) -> x * y
-     * @param sumFunction function to calculate a sum of two values, i.e. (x, y) -> x + y
-     * @param identity value to return to represent zero, when dot product built from zero
-     * @return a new immutable matrix with the multiplied result.
-     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     * @param matrix matrix to transpose
+     * @return a new matrix with {@code matrix.columns()} rows and {@code matrix.rows()} columns
+     * @throws NullPointerException if the matrix is null
      */
-    public static <E> Matrix<E> multiply(Matrix<E> matrix1, Matrix<E> matrix2, BinaryOperator<E> productFunction, BinaryOperator<E> sumFunction, E identity) {
-        Objects.requireNonNull(matrix1);
-        Objects.requireNonNull(matrix2);
-        Objects.requireNonNull(productFunction);
-        Objects.requireNonNull(sumFunction);
-        validateMatrix1ColumnsEqualToMatrix2Rows(matrix1, matrix2);
+    public static DoubleMatrix transpose(DoubleMatrix matrix) {
+        Objects.requireNonNull(matrix);
+        return transposeDouble(matrix, null);
+    }
+
+    /**
+     * Returns the transpose of the specified primitive {@code double} matrix, computed in
+     * parallel on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #transpose(DoubleMatrix)}.
+     *
+     * @param matrix matrix to transpose
+     * @return a new matrix with {@code matrix.columns()} rows and {@code matrix.rows()} columns
+     * @throws NullPointerException if the matrix is null
+     */
+    public static DoubleMatrix parallelTranspose(DoubleMatrix matrix) {
+        return parallelTranspose(matrix, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the transpose of the specified primitive {@code double} matrix, computed in
+     * parallel on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #transpose(DoubleMatrix)}.
+     *
+     * @param matrix matrix to transpose
+     * @param pool pool to write the bands in
+     * @return a new matrix with {@code matrix.columns()} rows and {@code matrix.rows()} columns
+     * @throws NullPointerException if the matrix or the pool is null
+     */
+    public static DoubleMatrix parallelTranspose(DoubleMatrix matrix, ForkJoinPool pool) {
+        Objects.requireNonNull(matrix);
+        Objects.requireNonNull(pool);
+        return transposeDouble(matrix, pool);
+    }
+
+    /**
+     * Returns the transpose of the specified primitive {@code float} matrix. The elements are
+     * moved in square tiles without boxing them, see {@link #transpose(Matrix)}.
+     *
+     * @param matrix matrix to transpose
+     * @return a new matrix with {@code matrix.columns()} rows and {@code matrix.rows()} columns
+     * @throws NullPointerException if the matrix is null
+     */
+    public static FloatMatrix transpose(FloatMatrix matrix) {
+        Objects.requireNonNull(matrix);
+        return transposeFloat(matrix, null);
+    }
+
+    /**
+     * Returns the transpose of the specified primitive {@code float} matrix, computed in
+     * parallel on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #transpose(FloatMatrix)}.
+     *
+     * @param matrix matrix to transpose
+     * @return a new matrix with {@code matrix.columns()} rows and {@code matrix.rows()} columns
+     * @throws NullPointerException if the matrix is null
+     */
+    public static FloatMatrix parallelTranspose(FloatMatrix matrix) {
+        return parallelTranspose(matrix, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the transpose of the specified primitive {@code float} matrix, computed in
+     * parallel on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #transpose(FloatMatrix)}.
+     *
+     * @param matrix matrix to transpose
+     * @param pool pool to write the bands in
+     * @return a new matrix with {@code matrix.columns()} rows and {@code matrix.rows()} columns
+     * @throws NullPointerException if the matrix or the pool is null
+     */
+    public static FloatMatrix parallelTranspose(FloatMatrix matrix, ForkJoinPool pool) {
+        Objects.requireNonNull(matrix);
+        Objects.requireNonNull(pool);
+        return transposeFloat(matrix, pool);
+    }
+
+    /**
+     * Returns the transpose of the specified primitive {@code long} matrix. The elements are
+     * moved in square tiles without boxing them, see {@link #transpose(Matrix)}.
+     *
+     * @param matrix matrix to transpose
+     * @return a new matrix with {@code matrix.columns()} rows and {@code matrix.rows()} columns
+     * @throws NullPointerException if the matrix is null
+     */
+    public static LongMatrix transpose(LongMatrix matrix) {
+        Objects.requireNonNull(matrix);
+        return transposeLong(matrix, null);
+    }
+
+    /**
+     * Returns the transpose of the specified primitive {@code long} matrix, computed in
+     * parallel on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #transpose(LongMatrix)}.
+     *
+     * @param matrix matrix to transpose
+     * @return a new matrix with {@code matrix.columns()} rows and {@code matrix.rows()} columns
+     * @throws NullPointerException if the matrix is null
+     */
+    public static LongMatrix parallelTranspose(LongMatrix matrix) {
+        return parallelTranspose(matrix, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the transpose of the specified primitive {@code long} matrix, computed in
+     * parallel on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #transpose(LongMatrix)}.
+     *
+     * @param matrix matrix to transpose
+     * @param pool pool to write the bands in
+     * @return a new matrix with {@code matrix.columns()} rows and {@code matrix.rows()} columns
+     * @throws NullPointerException if the matrix or the pool is null
+     */
+    public static LongMatrix parallelTranspose(LongMatrix matrix, ForkJoinPool pool) {
+        Objects.requireNonNull(matrix);
+        Objects.requireNonNull(pool);
+        return transposeLong(matrix, pool);
+    }
+
+    /**
+     * Returns the transpose of the specified primitive {@code int} matrix. The elements are
+     * moved in square tiles without boxing them, see {@link #transpose(Matrix)}.
+     *
+     * @param matrix matrix to transpose
+     * @return a new matrix with {@code matrix.columns()} rows and {@code matrix.rows()} columns
+     * @throws NullPointerException if the matrix is null
+     */
+    public static IntMatrix transpose(IntMatrix matrix) {
+        Objects.requireNonNull(matrix);
+        return transposeInt(matrix, null);
+    }
+
+    /**
+     * Returns the transpose of the specified primitive {@code int} matrix, computed in
+     * parallel on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #transpose(IntMatrix)}.
+     *
+     * @param matrix matrix to transpose
+     * @return a new matrix with {@code matrix.columns()} rows and {@code matrix.rows()} columns
+     * @throws NullPointerException if the matrix is null
+     */
+    public static IntMatrix parallelTranspose(IntMatrix matrix) {
+        return parallelTranspose(matrix, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the transpose of the specified primitive {@code int} matrix, computed in
+     * parallel on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #transpose(IntMatrix)}.
+     *
+     * @param matrix matrix to transpose
+     * @param pool pool to write the bands in
+     * @return a new matrix with {@code matrix.columns()} rows and {@code matrix.rows()} columns
+     * @throws NullPointerException if the matrix or the pool is null
+     */
+    public static IntMatrix parallelTranspose(IntMatrix matrix, ForkJoinPool pool) {
+        Objects.requireNonNull(matrix);
+        Objects.requireNonNull(pool);
+        return transposeInt(matrix, pool);
+    }
+
+    /**
+     * Transposes the specified square two-dimensional array in place, by swapping each element
+     * above the diagonal with its mirror below the diagonal. This is useful for data which is
+     * owned by the caller, such as the result of {@link Matrix#toArray2D()}, as nothing is
+     * allocated. The elements are swapped in square tiles, see {@link #transpose(Matrix)}.
+     *
+     * @param matrix array of rows to transpose
+     * @throws IllegalArgumentException if the length of any row is different from the number of
+     *                                  rows
+     * @throws NullPointerException if the array or any of its rows is null
+     */
+    public static void transposeInPlace(Object[][] matrix) {
+        validateSquareArray(matrix);
+        transposeSquareGeneric(matrix, null);
+    }
+
+    /**
+     * Transposes the specified square two-dimensional array in place, in parallel on the common
+     * {@link ForkJoinPool}. The result is the same as {@link #transposeInPlace(Object[][])},
+     * but bands of tiles are swapped concurrently. Small arrays are transposed in the calling
+     * thread.
+     *
+     * @param matrix array of rows to transpose
+     * @throws IllegalArgumentException if the length of any row is different from the number of
+     *                                  rows
+     * @throws NullPointerException if the array or any of its rows is null
+     */
+    public static void parallelTransposeInPlace(Object[][] matrix) {
+        parallelTransposeInPlace(matrix, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Transposes the specified square two-dimensional array in place, in parallel on the
+     * specified {@link ForkJoinPool}. The result is the same as
+     * {@link #transposeInPlace(Object[][])}, but bands of tiles are swapped concurrently. Small
+     * arrays are transposed in the calling thread.
+     *
+     * @param matrix array of rows to transpose
+     * @param pool pool to swap the bands in
+     * @throws IllegalArgumentException if the length of any row is different from the number of
+     *                                  rows
+     * @throws NullPointerException if the array, any of its rows, or the pool is null
+     */
+    public static void parallelTransposeInPlace(Object[][] matrix, ForkJoinPool pool) {
+        validateSquareArray(matrix);
+        Objects.requireNonNull(pool);
+        transposeSquareGeneric(matrix, pool);
+    }
+
+    /**
+     * Transposes the specified square matrix of primitive {@code double} elements in place. The
+     * elements are stored in row-major order, i.e. the layout of
+     * {@link DoubleMatrix#toDoubleArray()}, and nothing is allocated. See
+     * {@link #transposeInPlace(Object[][])}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param size number of rows and columns of the matrix
+     * @throws IllegalArgumentException if the length of the array is not {@code size * size}
+     * @throws NullPointerException if the array is null
+     */
+    public static void transposeInPlace(double[] matrix, int size) {
+        validateSquareArray(matrix.length, size);
+        transposeSquareDouble(matrix, size, null);
+    }
+
+    /**
+     * Transposes the specified square matrix of primitive {@code double} elements in place, in
+     * parallel on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #transposeInPlace(double[], int)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param size number of rows and columns of the matrix
+     * @throws IllegalArgumentException if the length of the array is not {@code size * size}
+     * @throws NullPointerException if the array is null
+     */
+    public static void parallelTransposeInPlace(double[] matrix, int size) {
+        parallelTransposeInPlace(matrix, size, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Transposes the specified square matrix of primitive {@code double} elements in place, in
+     * parallel on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #transposeInPlace(double[], int)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param size number of rows and columns of the matrix
+     * @param pool pool to swap the bands in
+     * @throws IllegalArgumentException if the length of the array is not {@code size * size}
+     * @throws NullPointerException if the array or the pool is null
+     */
+    public static void parallelTransposeInPlace(double[] matrix, int size, ForkJoinPool pool) {
+        validateSquareArray(matrix.length, size);
+        Objects.requireNonNull(pool);
+        transposeSquareDouble(matrix, size, pool);
+    }
+
+    /**
+     * Transposes the specified square matrix of primitive {@code float} elements in place. The
+     * elements are stored in row-major order, i.e. the layout of
+     * {@link FloatMatrix#toFloatArray()}, and nothing is allocated. See
+     * {@link #transposeInPlace(Object[][])}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param size number of rows and columns of the matrix
+     * @throws IllegalArgumentException if the length of the array is not {@code size * size}
+     * @throws NullPointerException if the array is null
+     */
+    public static void transposeInPlace(float[] matrix, int size) {
+        validateSquareArray(matrix.length, size);
+        transposeSquareFloat(matrix, size, null);
+    }
+
+    /**
+     * Transposes the specified square matrix of primitive {@code float} elements in place, in
+     * parallel on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #transposeInPlace(float[], int)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param size number of rows and columns of the matrix
+     * @throws IllegalArgumentException if the length of the array is not {@code size * size}
+     * @throws NullPointerException if the array is null
+     */
+    public static void parallelTransposeInPlace(float[] matrix, int size) {
+        parallelTransposeInPlace(matrix, size, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Transposes the specified square matrix of primitive {@code float} elements in place, in
+     * parallel on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #transposeInPlace(float[], int)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param size number of rows and columns of the matrix
+     * @param pool pool to swap the bands in
+     * @throws IllegalArgumentException if the length of the array is not {@code size * size}
+     * @throws NullPointerException if the array or the pool is null
+     */
+    public static void parallelTransposeInPlace(float[] matrix, int size, ForkJoinPool pool) {
+        validateSquareArray(matrix.length, size);
+        Objects.requireNonNull(pool);
+        transposeSquareFloat(matrix, size, pool);
+    }
+
+    /**
+     * Transposes the specified square matrix of primitive {@code long} elements in place. The
+     * elements are stored in row-major order, i.e. the layout of
+     * {@link LongMatrix#toLongArray()}, and nothing is allocated. See
+     * {@link #transposeInPlace(Object[][])}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param size number of rows and columns of the matrix
+     * @throws IllegalArgumentException if the length of the array is not {@code size * size}
+     * @throws NullPointerException if the array is null
+     */
+    public static void transposeInPlace(long[] matrix, int size) {
+        validateSquareArray(matrix.length, size);
+        transposeSquareLong(matrix, size, null);
+    }
+
+    /**
+     * Transposes the specified square matrix of primitive {@code long} elements in place, in
+     * parallel on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #transposeInPlace(long[], int)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param size number of rows and columns of the matrix
+     * @throws IllegalArgumentException if the length of the array is not {@code size * size}
+     * @throws NullPointerException if the array is null
+     */
+    public static void parallelTransposeInPlace(long[] matrix, int size) {
+        parallelTransposeInPlace(matrix, size, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Transposes the specified square matrix of primitive {@code long} elements in place, in
+     * parallel on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #transposeInPlace(long[], int)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param size number of rows and columns of the matrix
+     * @param pool pool to swap the bands in
+     * @throws IllegalArgumentException if the length of the array is not {@code size * size}
+     * @throws NullPointerException if the array or the pool is null
+     */
+    public static void parallelTransposeInPlace(long[] matrix, int size, ForkJoinPool pool) {
+        validateSquareArray(matrix.length, size);
+        Objects.requireNonNull(pool);
+        transposeSquareLong(matrix, size, pool);
+    }
+
+    /**
+     * Transposes the specified square matrix of primitive {@code int} elements in place. The
+     * elements are stored in row-major order, i.e. the layout of
+     * {@link IntMatrix#toIntArray()}, and nothing is allocated. See
+     * {@link #transposeInPlace(Object[][])}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param size number of rows and columns of the matrix
+     * @throws IllegalArgumentException if the length of the array is not {@code size * size}
+     * @throws NullPointerException if the array is null
+     */
+    public static void transposeInPlace(int[] matrix, int size) {
+        validateSquareArray(matrix.length, size);
+        transposeSquareInt(matrix, size, null);
+    }
+
+    /**
+     * Transposes the specified square matrix of primitive {@code int} elements in place, in
+     * parallel on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #transposeInPlace(int[], int)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param size number of rows and columns of the matrix
+     * @throws IllegalArgumentException if the length of the array is not {@code size * size}
+     * @throws NullPointerException if the array is null
+     */
+    public static void parallelTransposeInPlace(int[] matrix, int size) {
+        parallelTransposeInPlace(matrix, size, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Transposes the specified square matrix of primitive {@code int} elements in place, in
+     * parallel on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #transposeInPlace(int[], int)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param size number of rows and columns of the matrix
+     * @param pool pool to swap the bands in
+     * @throws IllegalArgumentException if the length of the array is not {@code size * size}
+     * @throws NullPointerException if the array or the pool is null
+     */
+    public static void parallelTransposeInPlace(int[] matrix, int size, ForkJoinPool pool) {
+        validateSquareArray(matrix.length, size);
+        Objects.requireNonNull(pool);
+        transposeSquareInt(matrix, size, pool);
+    }
+
+    private static <E> Matrix<E> transposeGeneric(Matrix<E> matrix, ForkJoinPool pool) {
+        int rows = matrix.rows();
+        int columns = matrix.columns();
+        Object[][] a = matrix.toArray2D();
+        Object[][] t = new Object[columns][rows];
+        runTiled(pool, columns, (long) rows * columns, LayoutKernels.TILE, (from, to) -> LayoutKernels.transpose(a, t, rows, from, to));
+        return new TrustedImmutableMatrix<>(t, columns, rows);
+    }
+
+    private static DoubleMatrix transposeDouble(DoubleMatrix matrix, ForkJoinPool pool) {
+        int rows = matrix.rows();
+        int columns = matrix.columns();
+        double[] a = matrix.toDoubleArray();
+        double[] t = new double[rows * columns];
+        runTiled(pool, columns, (long) rows * columns, LayoutKernels.TILE, (from, to) -> LayoutKernels.transpose(a, t, rows, columns, from, to));
+        return new TrustedDoubleMatrix(t, columns, rows);
+    }
+
+    private static FloatMatrix transposeFloat(FloatMatrix matrix, ForkJoinPool pool) {
+        int rows = matrix.rows();
+        int columns = matrix.columns();
+        float[] a = matrix.toFloatArray();
+        float[] t = new float[rows * columns];
+        runTiled(pool, columns, (long) rows * columns, LayoutKernels.TILE, (from, to) -> LayoutKernels.transpose(a, t, rows, columns, from, to));
+        return new TrustedFloatMatrix(t, columns, rows);
+    }
+
+    private static LongMatrix transposeLong(LongMatrix matrix, ForkJoinPool pool) {
+        int rows = matrix.rows();
+        int columns = matrix.columns();
+        long[] a = matrix.toLongArray();
+        long[] t = new long[rows * columns];
+        runTiled(pool, columns, (long) rows * columns, LayoutKernels.TILE, (from, to) -> LayoutKernels.transpose(a, t, rows, columns, from, to));
+        return new TrustedLongMatrix(t, columns, rows);
+    }
+
+    private static IntMatrix transposeInt(IntMatrix matrix, ForkJoinPool pool) {
+        int rows = matrix.rows();
+        int columns = matrix.columns();
+        int[] a = matrix.toIntArray();
+        int[] t = new int[rows * columns];
+        runTiled(pool, columns, (long) rows * columns, LayoutKernels.TILE, (from, to) -> LayoutKernels.transpose(a, t, rows, columns, from, to));
+        return new TrustedIntMatrix(t, columns, rows);
+    }
+
+    private static void transposeSquareGeneric(Object[][] matrix, ForkJoinPool pool) {
+        int size = matrix.length;
+        runTiled(pool, (LayoutKernels.tilesFor(size) + 1) / 2, (long) size * size, 1,
+                (from, to) -> LayoutKernels.transposeSquare(matrix, size, from, to));
+    }
+
+    private static void transposeSquareDouble(double[] matrix, int size, ForkJoinPool pool) {
+        runTiled(pool, (LayoutKernels.tilesFor(size) + 1) / 2, (long) size * size, 1,
+                (from, to) -> LayoutKernels.transposeSquare(matrix, size, from, to));
+    }
+
+    private static void transposeSquareFloat(float[] matrix, int size, ForkJoinPool pool) {
+        runTiled(pool, (LayoutKernels.tilesFor(size) + 1) / 2, (long) size * size, 1,
+                (from, to) -> LayoutKernels.transposeSquare(matrix, size, from, to));
+    }
+
+    private static void transposeSquareLong(long[] matrix, int size, ForkJoinPool pool) {
+        runTiled(pool, (LayoutKernels.tilesFor(size) + 1) / 2, (long) size * size, 1,
+                (from, to) -> LayoutKernels.transposeSquare(matrix, size, from, to));
+    }
+
+    private static void transposeSquareInt(int[] matrix, int size, ForkJoinPool pool) {
+        runTiled(pool, (LayoutKernels.tilesFor(size) + 1) / 2, (long) size * size, 1,
+                (from, to) -> LayoutKernels.transposeSquare(matrix, size, from, to));
+    }
 
-        return new ImmutableMatrix<>(matrix1.rows(), matrix2.columns(), (r, c) -> ArrayUtils.dotProduct(matrix1.row(r), matrix2.column(c), productFunction, sumFunction, identity));
+    /**
+     * Runs the action over the range {@code 0} to {@code length} in the calling thread, or
+     * split across the pool if there is one and the matrix is large enough. The parts are
+     * aligned to {@code alignment}, so no tile is split across threads.
+     */
+    private static void runTiled(ForkJoinPool pool, int length, long elements, int alignment, ParallelRanges.RangeAction action) {
+        if (pool == null || elements < PARALLEL_THRESHOLD) {
+            action.run(0, length);
+        } else {
+            ParallelRanges.forRange(pool, 0, length, ParallelRanges.grainFor(pool, length, alignment, alignment), action);
+        }
+    }
+
+    /**
+     * Rotates the specified square two-dimensional array in place, based on the specified
+     * rotation. This gives the same elements as {@link #toRotated(Matrix, Matrix.Rotation)},
+     * without allocating anything, which is useful for grids which are owned by the caller and
+     * rotated over and over. A quarter turn moves the elements in cycles of four, one in each
+     * quadrant, and a half turn reverses the order of the rows and of the elements in each row.
+     *
+     * @param matrix array of rows to rotate
+     * @param rotation {@link Matrix.Rotation Rotation} to apply
+     * @throws IllegalArgumentException if the length of any row is different from the number of
+     *                                  rows
+     * @throws NullPointerException if the array, any of its rows, or the rotation is null
+     * @see Matrix.Rotation
+     */
+    public static void rotateInPlace(Object[][] matrix, Matrix.Rotation rotation) {
+        validateSquareArray(matrix);
+        Objects.requireNonNull(rotation);
+        rotateSquareGeneric(matrix, rotation, null);
+    }
+
+    /**
+     * Rotates the specified square two-dimensional array in place, in parallel on the common
+     * {@link ForkJoinPool}. The result is the same as
+     * {@link #rotateInPlace(Object[][], Matrix.Rotation)}, but bands of rows are moved
+     * concurrently. Small arrays are rotated in the calling thread.
+     *
+     * @param matrix array of rows to rotate
+     * @param rotation {@link Matrix.Rotation Rotation} to apply
+     * @throws IllegalArgumentException if the length of any row is different from the number of
+     *                                  rows
+     * @throws NullPointerException if the array, any of its rows, or the rotation is null
+     */
+    public static void parallelRotateInPlace(Object[][] matrix, Matrix.Rotation rotation) {
+        parallelRotateInPlace(matrix, rotation, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Rotates the specified square two-dimensional array in place, in parallel on the specified
+     * {@link ForkJoinPool}. The result is the same as
+     * {@link #rotateInPlace(Object[][], Matrix.Rotation)}, but bands of rows are moved
+     * concurrently. Small arrays are rotated in the calling thread.
+     *
+     * @param matrix array of rows to rotate
+     * @param rotation {@link Matrix.Rotation Rotation} to apply
+     * @param pool pool to move the bands in
+     * @throws IllegalArgumentException if the length of any row is different from the number of
+     *                                  rows
+     * @throws NullPointerException if the array, any of its rows, the rotation or the pool is null
+     */
+    public static void parallelRotateInPlace(Object[][] matrix, Matrix.Rotation rotation, ForkJoinPool pool) {
+        validateSquareArray(matrix);
+        Objects.requireNonNull(rotation);
+        Objects.requireNonNull(pool);
+        rotateSquareGeneric(matrix, rotation, pool);
+    }
+
+    /**
+     * Rotates the specified square matrix of primitive {@code double} elements in place, based
+     * on the specified rotation. The elements are stored in row-major order, i.e. the layout of
+     * {@link DoubleMatrix#toDoubleArray()}, and nothing is allocated. See
+     * {@link #rotateInPlace(Object[][], Matrix.Rotation)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param size number of rows and columns of the matrix
+     * @param rotation {@link Matrix.Rotation Rotation} to apply
+     * @throws IllegalArgumentException if the length of the array is not {@code size * size}
+     * @throws NullPointerException if the array or the rotation is null
+     */
+    public static void rotateInPlace(double[] matrix, int size, Matrix.Rotation rotation) {
+        validateSquareArray(matrix.length, size);
+        Objects.requireNonNull(rotation);
+        rotateSquareDouble(matrix, size, rotation, null);
+    }
+
+    /**
+     * Rotates the specified square matrix of primitive {@code double} elements in place, in
+     * parallel on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #rotateInPlace(double[], int, Matrix.Rotation)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param size number of rows and columns of the matrix
+     * @param rotation {@link Matrix.Rotation Rotation} to apply
+     * @throws IllegalArgumentException if the length of the array is not {@code size * size}
+     * @throws NullPointerException if the array or the rotation is null
+     */
+    public static void parallelRotateInPlace(double[] matrix, int size, Matrix.Rotation rotation) {
+        parallelRotateInPlace(matrix, size, rotation, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Rotates the specified square matrix of primitive {@code double} elements in place, in
+     * parallel on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #rotateInPlace(double[], int, Matrix.Rotation)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param size number of rows and columns of the matrix
+     * @param rotation {@link Matrix.Rotation Rotation} to apply
+     * @param pool pool to move the bands in
+     * @throws IllegalArgumentException if the length of the array is not {@code size * size}
+     * @throws NullPointerException if the array, the rotation or the pool is null
+     */
+    public static void parallelRotateInPlace(double[] matrix, int size, Matrix.Rotation rotation, ForkJoinPool pool) {
+        validateSquareArray(matrix.length, size);
+        Objects.requireNonNull(rotation);
+        Objects.requireNonNull(pool);
+        rotateSquareDouble(matrix, size, rotation, pool);
+    }
+
+    /**
+     * Rotates the specified square matrix of primitive {@code float} elements in place, based
+     * on the specified rotation. The elements are stored in row-major order, i.e. the layout of
+     * {@link FloatMatrix#toFloatArray()}, and nothing is allocated. See
+     * {@link #rotateInPlace(Object[][], Matrix.Rotation)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param size number of rows and columns of the matrix
+     * @param rotation {@link Matrix.Rotation Rotation} to apply
+     * @throws IllegalArgumentException if the length of the array is not {@code size * size}
+     * @throws NullPointerException if the array or the rotation is null
+     */
+    public static void rotateInPlace(float[] matrix, int size, Matrix.Rotation rotation) {
+        validateSquareArray(matrix.length, size);
+        Objects.requireNonNull(rotation);
+        rotateSquareFloat(matrix, size, rotation, null);
+    }
+
+    /**
+     * Rotates the specified square matrix of primitive {@code float} elements in place, in
+     * parallel on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #rotateInPlace(float[], int, Matrix.Rotation)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param size number of rows and columns of the matrix
+     * @param rotation {@link Matrix.Rotation Rotation} to apply
+     * @throws IllegalArgumentException if the length of the array is not {@code size * size}
+     * @throws NullPointerException if the array or the rotation is null
+     */
+    public static void parallelRotateInPlace(float[] matrix, int size, Matrix.Rotation rotation) {
+        parallelRotateInPlace(matrix, size, rotation, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Rotates the specified square matrix of primitive {@code float} elements in place, in
+     * parallel on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #rotateInPlace(float[], int, Matrix.Rotation)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param size number of rows and columns of the matrix
+     * @param rotation {@link Matrix.Rotation Rotation} to apply
+     * @param pool pool to move the bands in
+     * @throws IllegalArgumentException if the length of the array is not {@code size * size}
+     * @throws NullPointerException if the array, the rotation or the pool is null
+     */
+    public static void parallelRotateInPlace(float[] matrix, int size, Matrix.Rotation rotation, ForkJoinPool pool) {
+        validateSquareArray(matrix.length, size);
+        Objects.requireNonNull(rotation);
+        Objects.requireNonNull(pool);
+        rotateSquareFloat(matrix, size, rotation, pool);
+    }
+
+    /**
+     * Rotates the specified square matrix of primitive {@code long} elements in place, based
+     * on the specified rotation. The elements are stored in row-major order, i.e. the layout of
+     * {@link LongMatrix#toLongArray()}, and nothing is allocated. See
+     * {@link #rotateInPlace(Object[][], Matrix.Rotation)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param size number of rows and columns of the matrix
+     * @param rotation {@link Matrix.Rotation Rotation} to apply
+     * @throws IllegalArgumentException if the length of the array is not {@code size * size}
+     * @throws NullPointerException if the array or the rotation is null
+     */
+    public static void rotateInPlace(long[] matrix, int size, Matrix.Rotation rotation) {
+        validateSquareArray(matrix.length, size);
+        Objects.requireNonNull(rotation);
+        rotateSquareLong(matrix, size, rotation, null);
+    }
+
+    /**
+     * Rotates the specified square matrix of primitive {@code long} elements in place, in
+     * parallel on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #rotateInPlace(long[], int, Matrix.Rotation)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param size number of rows and columns of the matrix
+     * @param rotation {@link Matrix.Rotation Rotation} to apply
+     * @throws IllegalArgumentException if the length of the array is not {@code size * size}
+     * @throws NullPointerException if the array or the rotation is null
+     */
+    public static void parallelRotateInPlace(long[] matrix, int size, Matrix.Rotation rotation) {
+        parallelRotateInPlace(matrix, size, rotation, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Rotates the specified square matrix of primitive {@code long} elements in place, in
+     * parallel on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #rotateInPlace(long[], int, Matrix.Rotation)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param size number of rows and columns of the matrix
+     * @param rotation {@link Matrix.Rotation Rotation} to apply
+     * @param pool pool to move the bands in
+     * @throws IllegalArgumentException if the length of the array is not {@code size * size}
+     * @throws NullPointerException if the array, the rotation or the pool is null
+     */
+    public static void parallelRotateInPlace(long[] matrix, int size, Matrix.Rotation rotation, ForkJoinPool pool) {
+        validateSquareArray(matrix.length, size);
+        Objects.requireNonNull(rotation);
+        Objects.requireNonNull(pool);
+        rotateSquareLong(matrix, size, rotation, pool);
+    }
+
+    /**
+     * Rotates the specified square matrix of primitive {@code int} elements in place, based
+     * on the specified rotation. The elements are stored in row-major order, i.e. the layout of
+     * {@link IntMatrix#toIntArray()}, and nothing is allocated. See
+     * {@link #rotateInPlace(Object[][], Matrix.Rotation)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param size number of rows and columns of the matrix
+     * @param rotation {@link Matrix.Rotation Rotation} to apply
+     * @throws IllegalArgumentException if the length of the array is not {@code size * size}
+     * @throws NullPointerException if the array or the rotation is null
+     */
+    public static void rotateInPlace(int[] matrix, int size, Matrix.Rotation rotation) {
+        validateSquareArray(matrix.length, size);
+        Objects.requireNonNull(rotation);
+        rotateSquareInt(matrix, size, rotation, null);
+    }
+
+    /**
+     * Rotates the specified square matrix of primitive {@code int} elements in place, in
+     * parallel on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #rotateInPlace(int[], int, Matrix.Rotation)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param size number of rows and columns of the matrix
+     * @param rotation {@link Matrix.Rotation Rotation} to apply
+     * @throws IllegalArgumentException if the length of the array is not {@code size * size}
+     * @throws NullPointerException if the array or the rotation is null
+     */
+    public static void parallelRotateInPlace(int[] matrix, int size, Matrix.Rotation rotation) {
+        parallelRotateInPlace(matrix, size, rotation, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Rotates the specified square matrix of primitive {@code int} elements in place, in
+     * parallel on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #rotateInPlace(int[], int, Matrix.Rotation)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param size number of rows and columns of the matrix
+     * @param rotation {@link Matrix.Rotation Rotation} to apply
+     * @param pool pool to move the bands in
+     * @throws IllegalArgumentException if the length of the array is not {@code size * size}
+     * @throws NullPointerException if the array, the rotation or the pool is null
+     */
+    public static void parallelRotateInPlace(int[] matrix, int size, Matrix.Rotation rotation, ForkJoinPool pool) {
+        validateSquareArray(matrix.length, size);
+        Objects.requireNonNull(rotation);
+        Objects.requireNonNull(pool);
+        rotateSquareInt(matrix, size, rotation, pool);
+    }
+
+    /**
+     * Mirrors the specified two-dimensional array in place, based on the specified mirroring
+     * axis. This gives the same elements as {@link #toMirrored(Matrix, Matrix.Axis)}, without
+     * allocating anything. Mirroring over {@link Matrix.Axis#ROWS ROWS} reverses the elements in
+     * each row, and over {@link Matrix.Axis#COLUMNS COLUMNS} only swaps the rows themselves.
+     *
+     * @param matrix array of rows to mirror
+     * @param axis {@link Matrix.Axis Axis} to mirror over
+     * @throws IllegalArgumentException if the rows are not all of the same length
+     * @throws NullPointerException if the array, any of its rows, or the axis is null
+     */
+    public static void mirrorInPlace(Object[][] matrix, Matrix.Axis axis) {
+        validateRectangularArray(matrix);
+        Objects.requireNonNull(axis);
+        mirrorGeneric(matrix, axis, null);
+    }
+
+    /**
+     * Mirrors the specified two-dimensional array in place, in parallel on the common
+     * {@link ForkJoinPool}. The result is the same as
+     * {@link #mirrorInPlace(Object[][], Matrix.Axis)}, but bands of rows are reversed
+     * concurrently. Small arrays are mirrored in the calling thread.
+     *
+     * @param matrix array of rows to mirror
+     * @param axis {@link Matrix.Axis Axis} to mirror over
+     * @throws IllegalArgumentException if the rows are not all of the same length
+     * @throws NullPointerException if the array, any of its rows, or the axis is null
+     */
+    public static void parallelMirrorInPlace(Object[][] matrix, Matrix.Axis axis) {
+        parallelMirrorInPlace(matrix, axis, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Mirrors the specified two-dimensional array in place, in parallel on the specified
+     * {@link ForkJoinPool}. The result is the same as
+     * {@link #mirrorInPlace(Object[][], Matrix.Axis)}, but bands of rows are reversed
+     * concurrently. Small arrays are mirrored in the calling thread.
+     *
+     * @param matrix array of rows to mirror
+     * @param axis {@link Matrix.Axis Axis} to mirror over
+     * @param pool pool to reverse the bands in
+     * @throws IllegalArgumentException if the rows are not all of the same length
+     * @throws NullPointerException if the array, any of its rows, the axis or the pool is null
+     */
+    public static void parallelMirrorInPlace(Object[][] matrix, Matrix.Axis axis, ForkJoinPool pool) {
+        validateRectangularArray(matrix);
+        Objects.requireNonNull(axis);
+        Objects.requireNonNull(pool);
+        mirrorGeneric(matrix, axis, pool);
+    }
+
+    /**
+     * Mirrors the specified matrix of primitive {@code double} elements in place, based on the
+     * specified mirroring axis. The elements are stored in row-major order, i.e. the layout of
+     * {@link DoubleMatrix#toDoubleArray()}, and nothing is allocated. See
+     * {@link #mirrorInPlace(Object[][], Matrix.Axis)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param rows number of rows of the matrix
+     * @param columns number of columns of the matrix
+     * @param axis {@link Matrix.Axis Axis} to mirror over
+     * @throws IllegalArgumentException if the length of the array is not {@code rows * columns}
+     * @throws NullPointerException if the array or the axis is null
+     */
+    public static void mirrorInPlace(double[] matrix, int rows, int columns, Matrix.Axis axis) {
+        validateRectangularArray(matrix.length, rows, columns);
+        Objects.requireNonNull(axis);
+        mirrorDouble(matrix, rows, columns, axis, null);
+    }
+
+    /**
+     * Mirrors the specified matrix of primitive {@code double} elements in place, in parallel
+     * on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #mirrorInPlace(double[], int, int, Matrix.Axis)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param rows number of rows of the matrix
+     * @param columns number of columns of the matrix
+     * @param axis {@link Matrix.Axis Axis} to mirror over
+     * @throws IllegalArgumentException if the length of the array is not {@code rows * columns}
+     * @throws NullPointerException if the array or the axis is null
+     */
+    public static void parallelMirrorInPlace(double[] matrix, int rows, int columns, Matrix.Axis axis) {
+        parallelMirrorInPlace(matrix, rows, columns, axis, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Mirrors the specified matrix of primitive {@code double} elements in place, in parallel
+     * on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #mirrorInPlace(double[], int, int, Matrix.Axis)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param rows number of rows of the matrix
+     * @param columns number of columns of the matrix
+     * @param axis {@link Matrix.Axis Axis} to mirror over
+     * @param pool pool to reverse the bands in
+     * @throws IllegalArgumentException if the length of the array is not {@code rows * columns}
+     * @throws NullPointerException if the array, the axis or the pool is null
+     */
+    public static void parallelMirrorInPlace(double[] matrix, int rows, int columns, Matrix.Axis axis, ForkJoinPool pool) {
+        validateRectangularArray(matrix.length, rows, columns);
+        Objects.requireNonNull(axis);
+        Objects.requireNonNull(pool);
+        mirrorDouble(matrix, rows, columns, axis, pool);
+    }
+
+    /**
+     * Mirrors the specified matrix of primitive {@code float} elements in place, based on the
+     * specified mirroring axis. The elements are stored in row-major order, i.e. the layout of
+     * {@link FloatMatrix#toFloatArray()}, and nothing is allocated. See
+     * {@link #mirrorInPlace(Object[][], Matrix.Axis)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param rows number of rows of the matrix
+     * @param columns number of columns of the matrix
+     * @param axis {@link Matrix.Axis Axis} to mirror over
+     * @throws IllegalArgumentException if the length of the array is not {@code rows * columns}
+     * @throws NullPointerException if the array or the axis is null
+     */
+    public static void mirrorInPlace(float[] matrix, int rows, int columns, Matrix.Axis axis) {
+        validateRectangularArray(matrix.length, rows, columns);
+        Objects.requireNonNull(axis);
+        mirrorFloat(matrix, rows, columns, axis, null);
+    }
+
+    /**
+     * Mirrors the specified matrix of primitive {@code float} elements in place, in parallel
+     * on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #mirrorInPlace(float[], int, int, Matrix.Axis)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param rows number of rows of the matrix
+     * @param columns number of columns of the matrix
+     * @param axis {@link Matrix.Axis Axis} to mirror over
+     * @throws IllegalArgumentException if the length of the array is not {@code rows * columns}
+     * @throws NullPointerException if the array or the axis is null
+     */
+    public static void parallelMirrorInPlace(float[] matrix, int rows, int columns, Matrix.Axis axis) {
+        parallelMirrorInPlace(matrix, rows, columns, axis, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Mirrors the specified matrix of primitive {@code float} elements in place, in parallel
+     * on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #mirrorInPlace(float[], int, int, Matrix.Axis)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param rows number of rows of the matrix
+     * @param columns number of columns of the matrix
+     * @param axis {@link Matrix.Axis Axis} to mirror over
+     * @param pool pool to reverse the bands in
+     * @throws IllegalArgumentException if the length of the array is not {@code rows * columns}
+     * @throws NullPointerException if the array, the axis or the pool is null
+     */
+    public static void parallelMirrorInPlace(float[] matrix, int rows, int columns, Matrix.Axis axis, ForkJoinPool pool) {
+        validateRectangularArray(matrix.length, rows, columns);
+        Objects.requireNonNull(axis);
+        Objects.requireNonNull(pool);
+        mirrorFloat(matrix, rows, columns, axis, pool);
+    }
+
+    /**
+     * Mirrors the specified matrix of primitive {@code long} elements in place, based on the
+     * specified mirroring axis. The elements are stored in row-major order, i.e. the layout of
+     * {@link LongMatrix#toLongArray()}, and nothing is allocated. See
+     * {@link #mirrorInPlace(Object[][], Matrix.Axis)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param rows number of rows of the matrix
+     * @param columns number of columns of the matrix
+     * @param axis {@link Matrix.Axis Axis} to mirror over
+     * @throws IllegalArgumentException if the length of the array is not {@code rows * columns}
+     * @throws NullPointerException if the array or the axis is null
+     */
+    public static void mirrorInPlace(long[] matrix, int rows, int columns, Matrix.Axis axis) {
+        validateRectangularArray(matrix.length, rows, columns);
+        Objects.requireNonNull(axis);
+        mirrorLong(matrix, rows, columns, axis, null);
+    }
+
+    /**
+     * Mirrors the specified matrix of primitive {@code long} elements in place, in parallel
+     * on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #mirrorInPlace(long[], int, int, Matrix.Axis)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param rows number of rows of the matrix
+     * @param columns number of columns of the matrix
+     * @param axis {@link Matrix.Axis Axis} to mirror over
+     * @throws IllegalArgumentException if the length of the array is not {@code rows * columns}
+     * @throws NullPointerException if the array or the axis is null
+     */
+    public static void parallelMirrorInPlace(long[] matrix, int rows, int columns, Matrix.Axis axis) {
+        parallelMirrorInPlace(matrix, rows, columns, axis, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Mirrors the specified matrix of primitive {@code long} elements in place, in parallel
+     * on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #mirrorInPlace(long[], int, int, Matrix.Axis)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param rows number of rows of the matrix
+     * @param columns number of columns of the matrix
+     * @param axis {@link Matrix.Axis Axis} to mirror over
+     * @param pool pool to reverse the bands in
+     * @throws IllegalArgumentException if the length of the array is not {@code rows * columns}
+     * @throws NullPointerException if the array, the axis or the pool is null
+     */
+    public static void parallelMirrorInPlace(long[] matrix, int rows, int columns, Matrix.Axis axis, ForkJoinPool pool) {
+        validateRectangularArray(matrix.length, rows, columns);
+        Objects.requireNonNull(axis);
+        Objects.requireNonNull(pool);
+        mirrorLong(matrix, rows, columns, axis, pool);
+    }
+
+    /**
+     * Mirrors the specified matrix of primitive {@code int} elements in place, based on the
+     * specified mirroring axis. The elements are stored in row-major order, i.e. the layout of
+     * {@link IntMatrix#toIntArray()}, and nothing is allocated. See
+     * {@link #mirrorInPlace(Object[][], Matrix.Axis)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param rows number of rows of the matrix
+     * @param columns number of columns of the matrix
+     * @param axis {@link Matrix.Axis Axis} to mirror over
+     * @throws IllegalArgumentException if the length of the array is not {@code rows * columns}
+     * @throws NullPointerException if the array or the axis is null
+     */
+    public static void mirrorInPlace(int[] matrix, int rows, int columns, Matrix.Axis axis) {
+        validateRectangularArray(matrix.length, rows, columns);
+        Objects.requireNonNull(axis);
+        mirrorInt(matrix, rows, columns, axis, null);
+    }
+
+    /**
+     * Mirrors the specified matrix of primitive {@code int} elements in place, in parallel
+     * on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #mirrorInPlace(int[], int, int, Matrix.Axis)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param rows number of rows of the matrix
+     * @param columns number of columns of the matrix
+     * @param axis {@link Matrix.Axis Axis} to mirror over
+     * @throws IllegalArgumentException if the length of the array is not {@code rows * columns}
+     * @throws NullPointerException if the array or the axis is null
+     */
+    public static void parallelMirrorInPlace(int[] matrix, int rows, int columns, Matrix.Axis axis) {
+        parallelMirrorInPlace(matrix, rows, columns, axis, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Mirrors the specified matrix of primitive {@code int} elements in place, in parallel
+     * on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #mirrorInPlace(int[], int, int, Matrix.Axis)}.
+     *
+     * @param matrix elements of the matrix in row-major order
+     * @param rows number of rows of the matrix
+     * @param columns number of columns of the matrix
+     * @param axis {@link Matrix.Axis Axis} to mirror over
+     * @param pool pool to reverse the bands in
+     * @throws IllegalArgumentException if the length of the array is not {@code rows * columns}
+     * @throws NullPointerException if the array, the axis or the pool is null
+     */
+    public static void parallelMirrorInPlace(int[] matrix, int rows, int columns, Matrix.Axis axis, ForkJoinPool pool) {
+        validateRectangularArray(matrix.length, rows, columns);
+        Objects.requireNonNull(axis);
+        Objects.requireNonNull(pool);
+        mirrorInt(matrix, rows, columns, axis, pool);
+    }
+
+    private static void rotateSquareGeneric(Object[][] matrix, Matrix.Rotation rotation, ForkJoinPool pool) {
+        int size = matrix.length;
+        boolean parallel = pool != null && (long) size * size >= PARALLEL_THRESHOLD;
+        switch (rotation) {
+            case NONE -> {
+            }
+            case HALF -> {
+                mirrorGeneric(matrix, Matrix.Axis.ROWS, parallel ? pool : null);
+                LayoutKernels.swapRows(matrix, 0, size / 2);
+            }
+            default -> {
+                boolean clockwise = rotation == Matrix.Rotation.RIGHT;
+                if (parallel) {
+                    ParallelRanges.forRange(pool, 0, size / 2, ParallelRanges.grainFor(pool, size / 2, LayoutKernels.TILE, LayoutKernels.TILE),
+                            (from, to) -> LayoutKernels.rotateSquare(matrix, size, clockwise, from, to));
+                } else {
+                    LayoutKernels.rotateSquare(matrix, size, clockwise, 0, size / 2);
+                }
+            }
+        }
+    }
+
+    private static void mirrorGeneric(Object[][] matrix, Matrix.Axis axis, ForkJoinPool pool) {
+        int rows = matrix.length;
+        if (axis == Matrix.Axis.COLUMNS) {
+            LayoutKernels.swapRows(matrix, 0, rows / 2);
+        } else if (pool != null && rows > 0 && (long) rows * matrix[0].length >= PARALLEL_THRESHOLD) {
+            ParallelRanges.forRange(pool, 0, rows, ParallelRanges.grainFor(pool, rows, 1, 1),
+                    (from, to) -> LayoutKernels.reverseRows(matrix, from, to));
+        } else {
+            LayoutKernels.reverseRows(matrix, 0, rows);
+        }
+    }
+
+    private static void rotateSquareDouble(double[] matrix, int size, Matrix.Rotation rotation, ForkJoinPool pool) {
+        boolean parallel = pool != null && (long) size * size >= PARALLEL_THRESHOLD;
+        switch (rotation) {
+            case NONE -> {
+            }
+            case HALF -> {
+                // A half turn reverses the row-major order of all elements
+                int last = matrix.length - 1;
+                int half = matrix.length / 2;
+                if (parallel) {
+                    ParallelRanges.forRange(pool, 0, half, ParallelRanges.grainFor(pool, half, 1, 1),
+                            (from, to) -> LayoutKernels.reverse(matrix, from, last - from, to - from));
+                } else {
+                    LayoutKernels.reverse(matrix, 0, last, half);
+                }
+            }
+            default -> {
+                boolean clockwise = rotation == Matrix.Rotation.RIGHT;
+                if (parallel) {
+                    ParallelRanges.forRange(pool, 0, size / 2, ParallelRanges.grainFor(pool, size / 2, LayoutKernels.TILE, LayoutKernels.TILE),
+                            (from, to) -> LayoutKernels.rotateSquare(matrix, size, clockwise, from, to));
+                } else {
+                    LayoutKernels.rotateSquare(matrix, size, clockwise, 0, size / 2);
+                }
+            }
+        }
+    }
+
+    private static void mirrorDouble(double[] matrix, int rows, int columns, Matrix.Axis axis, ForkJoinPool pool) {
+        boolean parallel = pool != null && (long) rows * columns >= PARALLEL_THRESHOLD;
+        if (axis == Matrix.Axis.COLUMNS) {
+            if (parallel) {
+                ParallelRanges.forRange(pool, 0, rows / 2, ParallelRanges.grainFor(pool, rows / 2, 1, 1),
+                        (from, to) -> LayoutKernels.swapRows(matrix, rows, columns, from, to));
+            } else {
+                LayoutKernels.swapRows(matrix, rows, columns, 0, rows / 2);
+            }
+        } else if (parallel) {
+            ParallelRanges.forRange(pool, 0, rows, ParallelRanges.grainFor(pool, rows, 1, 1),
+                    (from, to) -> LayoutKernels.reverseRows(matrix, columns, from, to));
+        } else {
+            LayoutKernels.reverseRows(matrix, columns, 0, rows);
+        }
+    }
+
+    private static void rotateSquareFloat(float[] matrix, int size, Matrix.Rotation rotation, ForkJoinPool pool) {
+        boolean parallel = pool != null && (long) size * size >= PARALLEL_THRESHOLD;
+        switch (rotation) {
+            case NONE -> {
+            }
+            case HALF -> {
+                // A half turn reverses the row-major order of all elements
+                int last = matrix.length - 1;
+                int half = matrix.length / 2;
+                if (parallel) {
+                    ParallelRanges.forRange(pool, 0, half, ParallelRanges.grainFor(pool, half, 1, 1),
+                            (from, to) -> LayoutKernels.reverse(matrix, from, last - from, to - from));
+                } else {
+                    LayoutKernels.reverse(matrix, 0, last, half);
+                }
+            }
+            default -> {
+                boolean clockwise = rotation == Matrix.Rotation.RIGHT;
+                if (parallel) {
+                    ParallelRanges.forRange(pool, 0, size / 2, ParallelRanges.grainFor(pool, size / 2, LayoutKernels.TILE, LayoutKernels.TILE),
+                            (from, to) -> LayoutKernels.rotateSquare(matrix, size, clockwise, from, to));
+                } else {
+                    LayoutKernels.rotateSquare(matrix, size, clockwise, 0, size / 2);
+                }
+            }
+        }
+    }
+
+    private static void mirrorFloat(float[] matrix, int rows, int columns, Matrix.Axis axis, ForkJoinPool pool) {
+        boolean parallel = pool != null && (long) rows * columns >= PARALLEL_THRESHOLD;
+        if (axis == Matrix.Axis.COLUMNS) {
+            if (parallel) {
+                ParallelRanges.forRange(pool, 0, rows / 2, ParallelRanges.grainFor(pool, rows / 2, 1, 1),
+                        (from, to) -> LayoutKernels.swapRows(matrix, rows, columns, from, to));
+            } else {
+                LayoutKernels.swapRows(matrix, rows, columns, 0, rows / 2);
+            }
+        } else if (parallel) {
+            ParallelRanges.forRange(pool, 0, rows, ParallelRanges.grainFor(pool, rows, 1, 1),
+                    (from, to) -> LayoutKernels.reverseRows(matrix, columns, from, to));
+        } else {
+            LayoutKernels.reverseRows(matrix, columns, 0, rows);
+        }
+    }
+
+    private static void rotateSquareLong(long[] matrix, int size, Matrix.Rotation rotation, ForkJoinPool pool) {
+        boolean parallel = pool != null && (long) size * size >= PARALLEL_THRESHOLD;
+        switch (rotation) {
+            case NONE -> {
+            }
+            case HALF -> {
+                // A half turn reverses the row-major order of all elements
+                int last = matrix.length - 1;
+                int half = matrix.length / 2;
+                if (parallel) {
+                    ParallelRanges.forRange(pool, 0, half, ParallelRanges.grainFor(pool, half, 1, 1),
+                            (from, to) -> LayoutKernels.reverse(matrix, from, last - from, to - from));
+                } else {
+                    LayoutKernels.reverse(matrix, 0, last, half);
+                }
+            }
+            default -> {
+                boolean clockwise = rotation == Matrix.Rotation.RIGHT;
+                if (parallel) {
+                    ParallelRanges.forRange(pool, 0, size / 2, ParallelRanges.grainFor(pool, size / 2, LayoutKernels.TILE, LayoutKernels.TILE),
+                            (from, to) -> LayoutKernels.rotateSquare(matrix, size, clockwise, from, to));
+                } else {
+                    LayoutKernels.rotateSquare(matrix, size, clockwise, 0, size / 2);
+                }
+            }
+        }
+    }
+
+    private static void mirrorLong(long[] matrix, int rows, int columns, Matrix.Axis axis, ForkJoinPool pool) {
+        boolean parallel = pool != null && (long) rows * columns >= PARALLEL_THRESHOLD;
+        if (axis == Matrix.Axis.COLUMNS) {
+            if (parallel) {
+                ParallelRanges.forRange(pool, 0, rows / 2, ParallelRanges.grainFor(pool, rows / 2, 1, 1),
+                        (from, to) -> LayoutKernels.swapRows(matrix, rows, columns, from, to));
+            } else {
+                LayoutKernels.swapRows(matrix, rows, columns, 0, rows / 2);
+            }
+        } else if (parallel) {
+            ParallelRanges.forRange(pool, 0, rows, ParallelRanges.grainFor(pool, rows, 1, 1),
+                    (from, to) -> LayoutKernels.reverseRows(matrix, columns, from, to));
+        } else {
+            LayoutKernels.reverseRows(matrix, columns, 0, rows);
+        }
+    }
+
+    private static void rotateSquareInt(int[] matrix, int size, Matrix.Rotation rotation, ForkJoinPool pool) {
+        boolean parallel = pool != null && (long) size * size >= PARALLEL_THRESHOLD;
+        switch (rotation) {
+            case NONE -> {
+            }
+            case HALF -> {
+                // A half turn reverses the row-major order of all elements
+                int last = matrix.length - 1;
+                int half = matrix.length / 2;
+                if (parallel) {
+                    ParallelRanges.forRange(pool, 0, half, ParallelRanges.grainFor(pool, half, 1, 1),
+                            (from, to) -> LayoutKernels.reverse(matrix, from, last - from, to - from));
+                } else {
+                    LayoutKernels.reverse(matrix, 0, last, half);
+                }
+            }
+            default -> {
+                boolean clockwise = rotation == Matrix.Rotation.RIGHT;
+                if (parallel) {
+                    ParallelRanges.forRange(pool, 0, size / 2, ParallelRanges.grainFor(pool, size / 2, LayoutKernels.TILE, LayoutKernels.TILE),
+                            (from, to) -> LayoutKernels.rotateSquare(matrix, size, clockwise, from, to));
+                } else {
+                    LayoutKernels.rotateSquare(matrix, size, clockwise, 0, size / 2);
+                }
+            }
+        }
+    }
+
+    private static void mirrorInt(int[] matrix, int rows, int columns, Matrix.Axis axis, ForkJoinPool pool) {
+        boolean parallel = pool != null && (long) rows * columns >= PARALLEL_THRESHOLD;
+        if (axis == Matrix.Axis.COLUMNS) {
+            if (parallel) {
+                ParallelRanges.forRange(pool, 0, rows / 2, ParallelRanges.grainFor(pool, rows / 2, 1, 1),
+                        (from, to) -> LayoutKernels.swapRows(matrix, rows, columns, from, to));
+            } else {
+                LayoutKernels.swapRows(matrix, rows, columns, 0, rows / 2);
+            }
+        } else if (parallel) {
+            ParallelRanges.forRange(pool, 0, rows, ParallelRanges.grainFor(pool, rows, 1, 1),
+                    (from, to) -> LayoutKernels.reverseRows(matrix, columns, from, to));
+        } else {
+            LayoutKernels.reverseRows(matrix, columns, 0, rows);
+        }
+    }
+
+    /**
+     * Return a new matrix based on the mapping function for each position.
+     *
+     * @param matrix to map
+     * @param mappingFunction function to map each element with
+     * @return a new immutable matrix based on the mapping function
+     */
+    public static <E1, E2> Matrix<E2> toMapped(Matrix<E1> matrix, Function<E1, E2> mappingFunction) {
+        return new ImmutableMatrix<>(matrix.rows(), matrix.columns(), (r, c) -> mappingFunction.apply(matrix.get(r, c)));
+    }
+
+    /**
+     * Performs matrix multiplication between the specified matrices, based on the specified
+     * productFunction and sumFunction. The resulting matrix will be a matrix where each value is
+     * calculated as the dot product from the row in the first matrix and the column of the second
+     * matrix. This also means the number of rows will be taken from the first matrix, and number of
+     * columns from the second matrix.
+     *
+     * <p>The elements of both matrices are read once, and the product is computed in cache-sized
+     * blocks without allocating anything per element. The terms of each dot product are still
+     * summed from left to right, so the sum function does not need to be associative.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @param productFunction function to calculate the product of two values, i.e. (x, y) -> x * y
+     * @param sumFunction function to calculate a sum of two values, i.e. (x, y) -> x + y
+     * @return a new immutable matrix with the multiplied result.
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count,
+     *                                  or this count is zero
+     */
+    public static <E> Matrix<E> multiply(Matrix<E> matrix1, Matrix<E> matrix2, BinaryOperator<E> productFunction, BinaryOperator<E> sumFunction) {
+        Objects.requireNonNull(matrix1);
+        Objects.requireNonNull(matrix2);
+        Objects.requireNonNull(productFunction);
+        Objects.requireNonNull(sumFunction);
+        validateMatrix1ColumnsEqualToMatrix2Rows(matrix1, matrix2);
+        validateMatrix1RowsAndMatrix2ColumnsNotEmptyWhenNoIdentityProvided(matrix1, matrix2);
+
+        return multiplyGeneric(matrix1, matrix2, productFunction, sumFunction, false, null, null, null);
+    }
+
+    /**
+     * Performs matrix multiplication between the specified matrices, based on the specified
+     * productFunction and sumFunction. The resulting matrix will be a matrix where each value is
+     * calculated as the dot product from the row in the first matrix and the column of the second
+     * matrix. This also means the number of rows will be taken from the first matrix, and number of
+     * columns from the second matrix.
+     *
+     * <p>The elements of both matrices are read once, and the product is computed in cache-sized
+     * blocks without allocating anything per element. The terms of each dot product are still
+     * summed from left to right, so the sum function does not need to be associative.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @param productFunction function to calculate the product of two values, i.e. (x, y) -> x * y
+     * @param sumFunction function to calculate a sum of two values, i.e. (x, y) -> x + y
+     * @param identity value to return to represent zero, when dot product built from zero
+     * @return a new immutable matrix with the multiplied result.
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     */
+    public static <E> Matrix<E> multiply(Matrix<E> matrix1, Matrix<E> matrix2, BinaryOperator<E> productFunction, BinaryOperator<E> sumFunction, E identity) {
+        Objects.requireNonNull(matrix1);
+        Objects.requireNonNull(matrix2);
+        Objects.requireNonNull(productFunction);
+        Objects.requireNonNull(sumFunction);
+        validateMatrix1ColumnsEqualToMatrix2Rows(matrix1, matrix2);
+
+        return multiplyGeneric(matrix1, matrix2, productFunction, sumFunction, true, identity, null, null);
+    }
+
+    /**
+     * Performs matrix multiplication between the specified matrices in the specified semiring.
+     * The resulting matrix will be a matrix where each value is the sum, in the semiring, of the
+     * products of the row in the first matrix and the column of the second matrix. If the
+     * matrices are of size zero, all values are the zero of the semiring.
+     *
+     * <p>The built-in semirings of {@link Semiring} are computed on unboxed values without
+     * calling any functions. Ordinary arithmetic uses the same kernels as the primitive
+     * overloads, such as {@link #multiply(DoubleMatrix, DoubleMatrix)}, the tropical semirings
+     * skip every element of the first matrix which is the annihilator, and the boolean semiring
+     * ors whole rows of the second matrix packed as bits. Any other semiring is computed like
+     * {@link #multiply(Matrix, Matrix, BinaryOperator, BinaryOperator, Object)}, but skips the
+     * annihilator of the semiring if it has one. Note that the terms of each sum may be added in
+     * another order than from left to right, which can change the last bits of a
+     * {@code double} sum.
+     *
+     * <p>If either matrix is a {@link SparseDoubleMatrix}, ordinary {@code double} arithmetic
+     * uses the sparse kernels, such as {@link #multiply(SparseDoubleMatrix, DoubleMatrix)}, which
+     * never multiply the zeros which are not stored. The product of two sparse matrices is
+     * sparse.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @param semiring semiring to compute the product in
+     * @return a new matrix with the multiplied result.
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     * @throws NullPointerException if any argument is null, or any matrix contains null elements
+     *                              and the semiring is built-in
+     */
+    public static <E> Matrix<E> multiply(Matrix<E> matrix1, Matrix<E> matrix2, Semiring<E> semiring) {
+        return multiplySemiring(matrix1, matrix2, semiring, null);
+    }
+
+    /**
+     * Performs matrix multiplication between the specified matrices in the specified semiring in
+     * parallel on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(Matrix, Matrix, Semiring)}, but bands of rows of the result are computed
+     * concurrently. Small products are computed in the calling thread, as splitting them costs
+     * more than it gains.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @param semiring semiring to compute the product in, which must be thread safe
+     * @return a new matrix with the multiplied result.
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     */
+    public static <E> Matrix<E> parallelMultiply(Matrix<E> matrix1, Matrix<E> matrix2, Semiring<E> semiring) {
+        return parallelMultiply(matrix1, matrix2, semiring, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Performs matrix multiplication between the specified matrices in the specified semiring in
+     * parallel on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(Matrix, Matrix, Semiring)}, but bands of rows of the result are computed
+     * concurrently. Small products are computed in the calling thread, as splitting them costs
+     * more than it gains.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @param semiring semiring to compute the product in, which must be thread safe
+     * @param pool pool to compute the bands in
+     * @return a new matrix with the multiplied result.
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     */
+    public static <E> Matrix<E> parallelMultiply(Matrix<E> matrix1, Matrix<E> matrix2, Semiring<E> semiring, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return multiplySemiring(matrix1, matrix2, semiring, pool);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> Matrix<E> multiplySemiring(Matrix<E> matrix1, Matrix<E> matrix2, Semiring<E> semiring, ForkJoinPool pool) {
+        Objects.requireNonNull(matrix1);
+        Objects.requireNonNull(matrix2);
+        Objects.requireNonNull(semiring);
+        validateMatrix1ColumnsEqualToMatrix2Rows(matrix1, matrix2);
+
+        Semirings.Kind kind = Semirings.kindOf(semiring);
+        Matrix<?> product = switch (kind) {
+            case DOUBLE_ARITHMETIC -> matrix1 instanceof SparseDoubleMatrix || matrix2 instanceof SparseDoubleMatrix
+                    ? multiplySparse(matrix1, matrix2, pool)
+                    : multiplyDouble(toDoubleMatrix(matrix1), toDoubleMatrix(matrix2), pool);
+            case LONG_ARITHMETIC -> multiplyLong(toLongMatrix(matrix1), toLongMatrix(matrix2), pool);
+            // The low 32 bits of each long sum are the wrapped int sum
+            case INT_ARITHMETIC -> new IntMatrix(multiplyLong(toLongMatrix(matrix1), toLongMatrix(matrix2), pool));
+            case MIN_PLUS, MAX_PLUS, MAX_TIMES -> multiplyTropical(toDoubleMatrix(matrix1), toDoubleMatrix(matrix2), kind, pool);
+            case OR_AND -> multiplyOrAnd(matrix1, matrix2, pool);
+            case CUSTOM -> multiplyGeneric(matrix1, matrix2, semiring::times, semiring::plus, true, semiring.zero(),
+                    semiring.annihilator().orElse(null), pool);
+        };
+        return (Matrix<E>) product;
+    }
+
+    private static Matrix<Double> multiplySparse(Matrix<?> matrix1, Matrix<?> matrix2, ForkJoinPool pool) {
+        if (matrix1 instanceof SparseDoubleMatrix sparse1) {
+            return matrix2 instanceof SparseDoubleMatrix sparse2
+                    ? multiplySparseSparse(sparse1, sparse2, pool)
+                    : multiplySparseDense(sparse1, toDoubleMatrix(matrix2), pool);
+        }
+        return multiplyDenseSparse(toDoubleMatrix(matrix1), (SparseDoubleMatrix) matrix2, pool);
+    }
+
+    private static DoubleMatrix multiplyTropical(DoubleMatrix matrix1, DoubleMatrix matrix2, Semirings.Kind kind, ForkJoinPool pool) {
+        int rows = matrix1.rows();
+        int inner = matrix1.columns();
+        int columns = matrix2.columns();
+        double[] a = matrix1.toDoubleArray();
+        double[] b = matrix2.toDoubleArray();
+        double[] product = new double[rows * columns];
+        ParallelRanges.RangeAction action = switch (kind) {
+            case MIN_PLUS -> (from, to) -> MatrixKernels.multiplyMinPlus(a, b, product, from, to, inner, columns);
+            case MAX_PLUS -> (from, to) -> MatrixKernels.multiplyMaxPlus(a, b, product, from, to, inner, columns);
+            default -> (from, to) -> MatrixKernels.multiplyMaxTimes(a, b, product, from, to, inner, columns);
+        };
+        if (pool == null || !isWorthSplitting(rows, inner, columns)) {
+            action.run(0, rows);
+        } else {
+            ParallelRanges.forRange(pool, 0, rows, ParallelRanges.grainFor(pool, rows, 1, 1), action);
+        }
+        return new TrustedDoubleMatrix(product, rows, columns);
+    }
+
+    private static Matrix<Boolean> multiplyOrAnd(Matrix<?> matrix1, Matrix<?> matrix2, ForkJoinPool pool) {
+        int rows = matrix1.rows();
+        int inner = matrix1.columns();
+        int columns = matrix2.columns();
+        int words = (columns + Long.SIZE - 1) / Long.SIZE;
+        Object[][] elements1 = matrix1.toArray2D();
+        boolean[][] a = new boolean[rows][inner];
+        for (int r = 0; r < rows; r++) {
+            for (int k = 0; k < inner; k++) {
+                a[r][k] = (Boolean) elements1[r][k];
+            }
+        }
+        Object[][] elements2 = matrix2.toArray2D();
+        long[] b = new long[inner * words];
+        for (int k = 0; k < inner; k++) {
+            for (int c = 0; c < columns; c++) {
+                if ((Boolean) elements2[k][c]) {
+                    b[k * words + c / Long.SIZE] |= 1L << c;
+                }
+            }
+        }
+        long[] bits = new long[rows * words];
+        if (pool == null || !isWorthSplitting(rows, inner, words)) {
+            MatrixKernels.multiplyOrAnd(a, b, bits, 0, rows, inner, words);
+        } else {
+            ParallelRanges.forRange(pool, 0, rows, ParallelRanges.grainFor(pool, rows, 1, 1),
+                    (from, to) -> MatrixKernels.multiplyOrAnd(a, b, bits, from, to, inner, words));
+        }
+        Object[][] product = new Object[rows][columns];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                product[r][c] = (bits[r * words + c / Long.SIZE] & 1L << c) != 0;
+            }
+        }
+        return new TrustedImmutableMatrix<>(product, rows, columns);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DoubleMatrix toDoubleMatrix(Matrix<?> matrix) {
+        return new DoubleMatrix((Matrix<? extends Number>) matrix);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static LongMatrix toLongMatrix(Matrix<?> matrix) {
+        return new LongMatrix((Matrix<? extends Number>) matrix);
+    }
+
+    /**
+     * Performs matrix multiplication between the specified matrices in parallel on the common
+     * {@link ForkJoinPool}, based on the specified productFunction and sumFunction. The result is
+     * the same as {@link #multiply(Matrix, Matrix, BinaryOperator, BinaryOperator)}, but bands of
+     * rows of the result are computed concurrently. Small products are computed in the calling
+     * thread, as splitting them costs more than it gains.
+     *
+     * <p>The functions are called concurrently from several threads, so they must be thread safe.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @param productFunction function to calculate the product of two values, i.e. (x, y) -> x * y
+     * @param sumFunction function to calculate a sum of two values, i.e. (x, y) -> x + y
+     * @return a new immutable matrix with the multiplied result.
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count,
+     *                                  or this count is zero
+     */
+    public static <E> Matrix<E> parallelMultiply(Matrix<E> matrix1, Matrix<E> matrix2, BinaryOperator<E> productFunction, BinaryOperator<E> sumFunction) {
+        return parallelMultiply(matrix1, matrix2, productFunction, sumFunction, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Performs matrix multiplication between the specified matrices in parallel on the specified
+     * {@link ForkJoinPool}, based on the specified productFunction and sumFunction. The result is
+     * the same as {@link #multiply(Matrix, Matrix, BinaryOperator, BinaryOperator)}, but bands of
+     * rows of the result are computed concurrently. Small products are computed in the calling
+     * thread, as splitting them costs more than it gains.
+     *
+     * <p>The functions are called concurrently from several threads, so they must be thread safe.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @param productFunction function to calculate the product of two values, i.e. (x, y) -> x * y
+     * @param sumFunction function to calculate a sum of two values, i.e. (x, y) -> x + y
+     * @param pool pool to compute the bands in
+     * @return a new immutable matrix with the multiplied result.
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count,
+     *                                  or this count is zero
+     */
+    public static <E> Matrix<E> parallelMultiply(Matrix<E> matrix1, Matrix<E> matrix2, BinaryOperator<E> productFunction, BinaryOperator<E> sumFunction,
+                                                 ForkJoinPool pool) {
+        Objects.requireNonNull(matrix1);
+        Objects.requireNonNull(matrix2);
+        Objects.requireNonNull(productFunction);
+        Objects.requireNonNull(sumFunction);
+        Objects.requireNonNull(pool);
+        validateMatrix1ColumnsEqualToMatrix2Rows(matrix1, matrix2);
+        validateMatrix1RowsAndMatrix2ColumnsNotEmptyWhenNoIdentityProvided(matrix1, matrix2);
+
+        return multiplyGeneric(matrix1, matrix2, productFunction, sumFunction, false, null, null, pool);
+    }
+
+    /**
+     * Performs matrix multiplication between the specified matrices in parallel on the specified
+     * {@link ForkJoinPool}, based on the specified productFunction and sumFunction. The result is
+     * the same as {@link #multiply(Matrix, Matrix, BinaryOperator, BinaryOperator, Object)}, but
+     * bands of rows of the result are computed concurrently. Small products are computed in the
+     * calling thread, as splitting them costs more than it gains.
+     *
+     * <p>The functions are called concurrently from several threads, so they must be thread safe.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @param productFunction function to calculate the product of two values, i.e. (x, y) -> x * y
+     * @param sumFunction function to calculate a sum of two values, i.e. (x, y) -> x + y
+     * @param identity value to return to represent zero, when dot product built from zero
+     * @param pool pool to compute the bands in
+     * @return a new immutable matrix with the multiplied result.
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     */
+    public static <E> Matrix<E> parallelMultiply(Matrix<E> matrix1, Matrix<E> matrix2, BinaryOperator<E> productFunction, BinaryOperator<E> sumFunction,
+                                                 E identity, ForkJoinPool pool) {
+        Objects.requireNonNull(matrix1);
+        Objects.requireNonNull(matrix2);
+        Objects.requireNonNull(productFunction);
+        Objects.requireNonNull(sumFunction);
+        Objects.requireNonNull(pool);
+        validateMatrix1ColumnsEqualToMatrix2Rows(matrix1, matrix2);
+
+        return multiplyGeneric(matrix1, matrix2, productFunction, sumFunction, true, identity, null, pool);
+    }
+
+    private static <E> Matrix<E> multiplyGeneric(Matrix<E> matrix1, Matrix<E> matrix2, BinaryOperator<E> productFunction, BinaryOperator<E> sumFunction,
+                                                 boolean hasIdentity, E identity, E annihilator, ForkJoinPool pool) {
+        int rows = matrix1.rows();
+        int inner = matrix1.columns();
+        int columns = matrix2.columns();
+        Object[][] a = matrix1.toArray2D();
+        Object[][] b = matrix2.toArray2D();
+        Object[][] product = MatrixKernels.newGenericResult(rows, columns, hasIdentity, identity);
+        if (pool == null || !isWorthSplitting(rows, inner, columns)) {
+            MatrixKernels.multiplyGeneric(a, b, product, 0, rows, inner, columns, productFunction, sumFunction, hasIdentity, annihilator);
+        } else {
+            ParallelRanges.forRange(pool, 0, rows, ParallelRanges.grainFor(pool, rows, 1, 1),
+                    (from, to) -> MatrixKernels.multiplyGeneric(a, b, product, from, to, inner, columns, productFunction, sumFunction, hasIdentity, annihilator));
+        }
+        return new TrustedImmutableMatrix<>(product, rows, columns);
+    }
+
+    private static boolean isWorthSplitting(int rows, int inner, int columns) {
+        return (long) rows * inner * columns >= PARALLEL_THRESHOLD && rows > 1;
+    }
+
+    private static class TrustedImmutableMatrix<E> extends ImmutableMatrix<E> {
+        private TrustedImmutableMatrix(Object[][] elementData, int rows, int columns) {
+            super(elementData, true, rows, columns);
+        }
+    }
+
+    /**
+     * Performs matrix multiplication between the specified primitive {@code double} matrices.
+     * The product is computed on the unboxed elements, with packed operand panels and a
+     * register-blocked kernel, which is far faster than the generic
+     * {@link #multiply(Matrix, Matrix, BinaryOperator, BinaryOperator)}. The number of rows will be
+     * taken from the first matrix, and number of columns from the second matrix. If the column
+     * count of the first matrix is zero, all elements of the result are zero.
+     *
+     * <p>A boxed {@code Matrix<Double>} can be multiplied by first converting it with
+     * {@link DoubleMatrix#DoubleMatrix(Matrix)}.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @return a new double matrix with the multiplied result
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     * @throws NullPointerException if any of the matrices is null
+     */
+    public static DoubleMatrix multiply(DoubleMatrix matrix1, DoubleMatrix matrix2) {
+        Objects.requireNonNull(matrix1);
+        Objects.requireNonNull(matrix2);
+        validateMatrix1ColumnsEqualToMatrix2Rows(matrix1, matrix2);
+
+        return multiplyDouble(matrix1, matrix2, null);
+    }
+
+    /**
+     * Performs matrix multiplication between the specified primitive {@code double} matrices in
+     * parallel on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(DoubleMatrix, DoubleMatrix)}, but bands of rows of the result are computed
+     * concurrently. Small products are computed in the calling thread.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @return a new double matrix with the multiplied result
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     * @throws NullPointerException if any of the matrices is null
+     */
+    public static DoubleMatrix parallelMultiply(DoubleMatrix matrix1, DoubleMatrix matrix2) {
+        return parallelMultiply(matrix1, matrix2, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Performs matrix multiplication between the specified primitive {@code double} matrices in
+     * parallel on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(DoubleMatrix, DoubleMatrix)}, but bands of rows of the result are computed
+     * concurrently. Small products are computed in the calling thread.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @param pool pool to compute the bands in
+     * @return a new double matrix with the multiplied result
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     * @throws NullPointerException if any of the matrices or the pool is null
+     */
+    public static DoubleMatrix parallelMultiply(DoubleMatrix matrix1, DoubleMatrix matrix2, ForkJoinPool pool) {
+        Objects.requireNonNull(matrix1);
+        Objects.requireNonNull(matrix2);
+        Objects.requireNonNull(pool);
+        validateMatrix1ColumnsEqualToMatrix2Rows(matrix1, matrix2);
+
+        return multiplyDouble(matrix1, matrix2, pool);
+    }
+
+    private static DoubleMatrix multiplyDouble(DoubleMatrix matrix1, DoubleMatrix matrix2, ForkJoinPool pool) {
+        int rows = matrix1.rows();
+        int inner = matrix1.columns();
+        int columns = matrix2.columns();
+        double[] a = matrix1.toDoubleArray();
+        double[] b = matrix2.toDoubleArray();
+        double[] product = new double[rows * columns];
+        if (pool == null || !isWorthSplitting(rows, inner, columns)) {
+            MatrixKernels.multiplyDouble(a, b, product, 0, rows, inner, columns);
+        } else {
+            ParallelRanges.forRange(pool, 0, rows, ParallelRanges.grainFor(pool, rows, MatrixKernels.MR, MatrixKernels.MR),
+                    (from, to) -> MatrixKernels.multiplyDouble(a, b, product, from, to, inner, columns));
+        }
+        return new TrustedDoubleMatrix(product, rows, columns);
+    }
+
+    /**
+     * Performs matrix multiplication between the specified primitive {@code float} matrices.
+     * The product is computed on the unboxed elements, with packed operand panels and a
+     * register-blocked kernel, which is far faster than the generic
+     * {@link #multiply(Matrix, Matrix, BinaryOperator, BinaryOperator)}. The number of rows will be
+     * taken from the first matrix, and number of columns from the second matrix. If the column
+     * count of the first matrix is zero, all elements of the result are zero.
+     *
+     * <p>A boxed {@code Matrix<Float>} can be multiplied by first converting it with
+     * {@link FloatMatrix#FloatMatrix(Matrix)}.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @return a new float matrix with the multiplied result
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     * @throws NullPointerException if any of the matrices is null
+     */
+    public static FloatMatrix multiply(FloatMatrix matrix1, FloatMatrix matrix2) {
+        Objects.requireNonNull(matrix1);
+        Objects.requireNonNull(matrix2);
+        validateMatrix1ColumnsEqualToMatrix2Rows(matrix1, matrix2);
+
+        return multiplyFloat(matrix1, matrix2, null);
+    }
+
+    /**
+     * Performs matrix multiplication between the specified primitive {@code float} matrices in
+     * parallel on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(FloatMatrix, FloatMatrix)}, but bands of rows of the result are computed
+     * concurrently. Small products are computed in the calling thread.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @return a new float matrix with the multiplied result
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     * @throws NullPointerException if any of the matrices is null
+     */
+    public static FloatMatrix parallelMultiply(FloatMatrix matrix1, FloatMatrix matrix2) {
+        return parallelMultiply(matrix1, matrix2, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Performs matrix multiplication between the specified primitive {@code float} matrices in
+     * parallel on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(FloatMatrix, FloatMatrix)}, but bands of rows of the result are computed
+     * concurrently. Small products are computed in the calling thread.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @param pool pool to compute the bands in
+     * @return a new float matrix with the multiplied result
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     * @throws NullPointerException if any of the matrices or the pool is null
+     */
+    public static FloatMatrix parallelMultiply(FloatMatrix matrix1, FloatMatrix matrix2, ForkJoinPool pool) {
+        Objects.requireNonNull(matrix1);
+        Objects.requireNonNull(matrix2);
+        Objects.requireNonNull(pool);
+        validateMatrix1ColumnsEqualToMatrix2Rows(matrix1, matrix2);
+
+        return multiplyFloat(matrix1, matrix2, pool);
+    }
+
+    private static FloatMatrix multiplyFloat(FloatMatrix matrix1, FloatMatrix matrix2, ForkJoinPool pool) {
+        int rows = matrix1.rows();
+        int inner = matrix1.columns();
+        int columns = matrix2.columns();
+        float[] a = matrix1.toFloatArray();
+        float[] b = matrix2.toFloatArray();
+        float[] product = new float[rows * columns];
+        if (pool == null || !isWorthSplitting(rows, inner, columns)) {
+            MatrixKernels.multiplyFloat(a, b, product, 0, rows, inner, columns);
+        } else {
+            ParallelRanges.forRange(pool, 0, rows, ParallelRanges.grainFor(pool, rows, MatrixKernels.MR, MatrixKernels.MR),
+                    (from, to) -> MatrixKernels.multiplyFloat(a, b, product, from, to, inner, columns));
+        }
+        return new TrustedFloatMatrix(product, rows, columns);
+    }
+
+    /**
+     * Performs matrix multiplication between the specified primitive {@code long} matrices.
+     * The product is computed on the unboxed elements, with packed operand panels and a
+     * register-blocked kernel, which is far faster than the generic
+     * {@link #multiply(Matrix, Matrix, BinaryOperator, BinaryOperator)}. The number of rows will be
+     * taken from the first matrix, and number of columns from the second matrix. If the column
+     * count of the first matrix is zero, all elements of the result are zero. Like {@code long}
+     * arithmetic, the result silently overflows.
+     *
+     * <p>A boxed {@code Matrix<Long>} can be multiplied by first converting it with
+     * {@link LongMatrix#LongMatrix(Matrix)}.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @return a new long matrix with the multiplied result
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     * @throws NullPointerException if any of the matrices is null
+     */
+    public static LongMatrix multiply(LongMatrix matrix1, LongMatrix matrix2) {
+        Objects.requireNonNull(matrix1);
+        Objects.requireNonNull(matrix2);
+        validateMatrix1ColumnsEqualToMatrix2Rows(matrix1, matrix2);
+
+        return multiplyLong(matrix1, matrix2, null);
+    }
+
+    /**
+     * Performs matrix multiplication between the specified primitive {@code long} matrices in
+     * parallel on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(LongMatrix, LongMatrix)}, but bands of rows of the result are computed
+     * concurrently. Small products are computed in the calling thread.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @return a new long matrix with the multiplied result
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     * @throws NullPointerException if any of the matrices is null
+     */
+    public static LongMatrix parallelMultiply(LongMatrix matrix1, LongMatrix matrix2) {
+        return parallelMultiply(matrix1, matrix2, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Performs matrix multiplication between the specified primitive {@code long} matrices in
+     * parallel on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(LongMatrix, LongMatrix)}, but bands of rows of the result are computed
+     * concurrently. Small products are computed in the calling thread.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @param pool pool to compute the bands in
+     * @return a new long matrix with the multiplied result
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     * @throws NullPointerException if any of the matrices or the pool is null
+     */
+    public static LongMatrix parallelMultiply(LongMatrix matrix1, LongMatrix matrix2, ForkJoinPool pool) {
+        Objects.requireNonNull(matrix1);
+        Objects.requireNonNull(matrix2);
+        Objects.requireNonNull(pool);
+        validateMatrix1ColumnsEqualToMatrix2Rows(matrix1, matrix2);
+
+        return multiplyLong(matrix1, matrix2, pool);
+    }
+
+    private static LongMatrix multiplyLong(LongMatrix matrix1, LongMatrix matrix2, ForkJoinPool pool) {
+        int rows = matrix1.rows();
+        int inner = matrix1.columns();
+        int columns = matrix2.columns();
+        long[] a = matrix1.toLongArray();
+        long[] b = matrix2.toLongArray();
+        long[] product = new long[rows * columns];
+        if (pool == null || !isWorthSplitting(rows, inner, columns)) {
+            MatrixKernels.multiplyLong(a, b, product, 0, rows, inner, columns);
+        } else {
+            ParallelRanges.forRange(pool, 0, rows, ParallelRanges.grainFor(pool, rows, MatrixKernels.MR, MatrixKernels.MR),
+                    (from, to) -> MatrixKernels.multiplyLong(a, b, product, from, to, inner, columns));
+        }
+        return new TrustedLongMatrix(product, rows, columns);
+    }
+
+    /**
+     * Performs matrix multiplication between the specified matrices with the Strassen-Winograd
+     * algorithm, which needs O(n<sup>2.81</sup>) multiplications instead of O(n<sup>3</sup>). The
+     * elements must form a ring, e.g. integers, rationals or polynomials: the sum function must
+     * be associative and commutative with {@code zero} as its identity, the difference function
+     * its inverse, and the product function must distribute over the sum. Products of matrices
+     * with fewer than a hundred or so rows or columns use the classical algorithm.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @param productFunction function to calculate the product of two values, i.e. (x, y) -> x * y
+     * @param sumFunction function to calculate a sum of two values, i.e. (x, y) -> x + y
+     * @param differenceFunction function to calculate a difference of two values, i.e. (x, y) -> x - y
+     * @param zero the additive identity, which is also the result of empty dot products
+     * @return a new immutable matrix with the multiplied result.
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     * @throws NullPointerException if any of the matrices, functions or zero is null
+     */
+    public static <E> Matrix<E> strassenMultiply(Matrix<E> matrix1, Matrix<E> matrix2, BinaryOperator<E> productFunction, BinaryOperator<E> sumFunction,
+                                                 BinaryOperator<E> differenceFunction, E zero) {
+        return strassenMultiplyGeneric(matrix1, matrix2, productFunction, sumFunction, differenceFunction, zero, null);
+    }
+
+    /**
+     * Performs matrix multiplication between the specified matrices with the Strassen-Winograd
+     * algorithm, like {@link #strassenMultiply(Matrix, Matrix, BinaryOperator, BinaryOperator, BinaryOperator, Object)},
+     * but computes the seven sub-products of the top levels of the recursion in parallel on the
+     * specified {@link ForkJoinPool}. The functions must be thread safe.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @param productFunction function to calculate the product of two values, i.e. (x, y) -> x * y
+     * @param sumFunction function to calculate a sum of two values, i.e. (x, y) -> x + y
+     * @param differenceFunction function to calculate a difference of two values, i.e. (x, y) -> x - y
+     * @param zero the additive identity, which is also the result of empty dot products
+     * @param pool pool to compute the sub-products in
+     * @return a new immutable matrix with the multiplied result.
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     * @throws NullPointerException if any of the matrices, functions, zero or the pool is null
+     */
+    public static <E> Matrix<E> strassenMultiply(Matrix<E> matrix1, Matrix<E> matrix2, BinaryOperator<E> productFunction, BinaryOperator<E> sumFunction,
+                                                 BinaryOperator<E> differenceFunction, E zero, ForkJoinPool pool) {
+        return strassenMultiplyGeneric(matrix1, matrix2, productFunction, sumFunction, differenceFunction, zero, Objects.requireNonNull(pool));
+    }
+
+    private static <E> Matrix<E> strassenMultiplyGeneric(Matrix<E> matrix1, Matrix<E> matrix2, BinaryOperator<E> productFunction, BinaryOperator<E> sumFunction,
+                                                         BinaryOperator<E> differenceFunction, E zero, ForkJoinPool pool) {
+        Objects.requireNonNull(matrix1);
+        Objects.requireNonNull(matrix2);
+        Objects.requireNonNull(productFunction);
+        Objects.requireNonNull(sumFunction);
+        Objects.requireNonNull(differenceFunction);
+        Objects.requireNonNull(zero);
+        validateMatrix1ColumnsEqualToMatrix2Rows(matrix1, matrix2);
+
+        int rows = matrix1.rows();
+        int columns = matrix2.columns();
+        StrassenKernels.Ring<E> ring = new StrassenKernels.Ring<>(productFunction, sumFunction, differenceFunction, zero);
+        Object[][] product = StrassenKernels.multiplyGeneric(matrix1.toArray2D(), matrix2.toArray2D(), rows, matrix1.columns(), columns, ring, pool);
+        return new TrustedImmutableMatrix<>(product, rows, columns);
+    }
+
+    /**
+     * Performs matrix multiplication between the specified primitive {@code double} matrices with
+     * the Strassen-Winograd algorithm, which needs O(n<sup>2.81</sup>) operations instead of
+     * O(n<sup>3</sup>). It pays off for large matrices, where every dimension is well above
+     * a few thousand; smaller products, and the sub-products at the bottom of the recursion,
+     * use the same kernel as {@link #multiply(DoubleMatrix, DoubleMatrix)}.
+     *
+     * <p>The result is mathematically equal to {@link #multiply(DoubleMatrix, DoubleMatrix)},
+     * but rounding errors are somewhat larger, as each element is computed from sums and
+     * differences of sub-products.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @return a new double matrix with the multiplied result
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     * @throws NullPointerException if any of the matrices is null
+     */
+    public static DoubleMatrix strassenMultiply(DoubleMatrix matrix1, DoubleMatrix matrix2) {
+        Objects.requireNonNull(matrix1);
+        Objects.requireNonNull(matrix2);
+        validateMatrix1ColumnsEqualToMatrix2Rows(matrix1, matrix2);
+
+        return strassenMultiplyDouble(matrix1, matrix2, null);
+    }
+
+    /**
+     * Performs matrix multiplication between the specified primitive {@code double} matrices with
+     * the Strassen-Winograd algorithm, like {@link #strassenMultiply(DoubleMatrix, DoubleMatrix)},
+     * but computes the seven sub-products of the top levels of the recursion in parallel on the
+     * specified {@link ForkJoinPool}.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @param pool pool to compute the sub-products in
+     * @return a new double matrix with the multiplied result
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     * @throws NullPointerException if any of the matrices or the pool is null
+     */
+    public static DoubleMatrix strassenMultiply(DoubleMatrix matrix1, DoubleMatrix matrix2, ForkJoinPool pool) {
+        Objects.requireNonNull(matrix1);
+        Objects.requireNonNull(matrix2);
+        Objects.requireNonNull(pool);
+        validateMatrix1ColumnsEqualToMatrix2Rows(matrix1, matrix2);
+
+        return strassenMultiplyDouble(matrix1, matrix2, pool);
+    }
+
+    private static DoubleMatrix strassenMultiplyDouble(DoubleMatrix matrix1, DoubleMatrix matrix2, ForkJoinPool pool) {
+        int rows = matrix1.rows();
+        int columns = matrix2.columns();
+        double[] product = StrassenKernels.multiplyDouble(matrix1.toDoubleArray(), matrix2.toDoubleArray(), rows, matrix1.columns(), columns, pool);
+        return new TrustedDoubleMatrix(product, rows, columns);
+    }
+
+    /**
+     * Performs matrix multiplication between the specified primitive {@code float} matrices with
+     * the Strassen-Winograd algorithm, which needs O(n<sup>2.81</sup>) operations instead of
+     * O(n<sup>3</sup>). It pays off for large matrices, where every dimension is well above
+     * a few thousand; smaller products, and the sub-products at the bottom of the recursion,
+     * use the same kernel as {@link #multiply(FloatMatrix, FloatMatrix)}.
+     *
+     * <p>The result is mathematically equal to {@link #multiply(FloatMatrix, FloatMatrix)},
+     * but rounding errors are somewhat larger, as each element is computed from sums and
+     * differences of sub-products.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @return a new float matrix with the multiplied result
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     * @throws NullPointerException if any of the matrices is null
+     */
+    public static FloatMatrix strassenMultiply(FloatMatrix matrix1, FloatMatrix matrix2) {
+        Objects.requireNonNull(matrix1);
+        Objects.requireNonNull(matrix2);
+        validateMatrix1ColumnsEqualToMatrix2Rows(matrix1, matrix2);
+
+        return strassenMultiplyFloat(matrix1, matrix2, null);
+    }
+
+    /**
+     * Performs matrix multiplication between the specified primitive {@code float} matrices with
+     * the Strassen-Winograd algorithm, like {@link #strassenMultiply(FloatMatrix, FloatMatrix)},
+     * but computes the seven sub-products of the top levels of the recursion in parallel on the
+     * specified {@link ForkJoinPool}.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @param pool pool to compute the sub-products in
+     * @return a new float matrix with the multiplied result
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     * @throws NullPointerException if any of the matrices or the pool is null
+     */
+    public static FloatMatrix strassenMultiply(FloatMatrix matrix1, FloatMatrix matrix2, ForkJoinPool pool) {
+        Objects.requireNonNull(matrix1);
+        Objects.requireNonNull(matrix2);
+        Objects.requireNonNull(pool);
+        validateMatrix1ColumnsEqualToMatrix2Rows(matrix1, matrix2);
+
+        return strassenMultiplyFloat(matrix1, matrix2, pool);
+    }
+
+    private static FloatMatrix strassenMultiplyFloat(FloatMatrix matrix1, FloatMatrix matrix2, ForkJoinPool pool) {
+        int rows = matrix1.rows();
+        int columns = matrix2.columns();
+        float[] product = StrassenKernels.multiplyFloat(matrix1.toFloatArray(), matrix2.toFloatArray(), rows, matrix1.columns(), columns, pool);
+        return new TrustedFloatMatrix(product, rows, columns);
+    }
+
+    /**
+     * Performs matrix multiplication between the specified primitive {@code long} matrices with
+     * the Strassen-Winograd algorithm, which needs O(n<sup>2.81</sup>) operations instead of
+     * O(n<sup>3</sup>). It pays off for large matrices, where every dimension is well above
+     * a few thousand; smaller products, and the sub-products at the bottom of the recursion,
+     * use the same kernel as {@link #multiply(LongMatrix, LongMatrix)}.
+     *
+     * <p>The result is exactly equal to {@link #multiply(LongMatrix, LongMatrix)}, also when
+     * the arithmetic overflows.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @return a new long matrix with the multiplied result
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     * @throws NullPointerException if any of the matrices is null
+     */
+    public static LongMatrix strassenMultiply(LongMatrix matrix1, LongMatrix matrix2) {
+        Objects.requireNonNull(matrix1);
+        Objects.requireNonNull(matrix2);
+        validateMatrix1ColumnsEqualToMatrix2Rows(matrix1, matrix2);
+
+        return strassenMultiplyLong(matrix1, matrix2, null);
+    }
+
+    /**
+     * Performs matrix multiplication between the specified primitive {@code long} matrices with
+     * the Strassen-Winograd algorithm, like {@link #strassenMultiply(LongMatrix, LongMatrix)},
+     * but computes the seven sub-products of the top levels of the recursion in parallel on the
+     * specified {@link ForkJoinPool}.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @param pool pool to compute the sub-products in
+     * @return a new long matrix with the multiplied result
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     * @throws NullPointerException if any of the matrices or the pool is null
+     */
+    public static LongMatrix strassenMultiply(LongMatrix matrix1, LongMatrix matrix2, ForkJoinPool pool) {
+        Objects.requireNonNull(matrix1);
+        Objects.requireNonNull(matrix2);
+        Objects.requireNonNull(pool);
+        validateMatrix1ColumnsEqualToMatrix2Rows(matrix1, matrix2);
+
+        return strassenMultiplyLong(matrix1, matrix2, pool);
+    }
+
+    private static LongMatrix strassenMultiplyLong(LongMatrix matrix1, LongMatrix matrix2, ForkJoinPool pool) {
+        int rows = matrix1.rows();
+        int columns = matrix2.columns();
+        long[] product = StrassenKernels.multiplyLong(matrix1.toLongArray(), matrix2.toLongArray(), rows, matrix1.columns(), columns, pool);
+        return new TrustedLongMatrix(product, rows, columns);
+    }
+
+    /**
+     * Multiplies the specified matrix with the specified column vector, based on the specified
+     * productFunction and sumFunction. Each element of the resulting array is the dot product of
+     * a row in the matrix and the vector, so the size of the result is the row count of the
+     * matrix. The result is the same as multiplying with a matrix of one column, but the rows of
+     * the matrix are read once and the dot products are written straight into the result.
+     *
+     * @param matrix matrix to multiply
+     * @param vector vector to multiply with, with one element per column of the matrix
+     * @param productFunction function to calculate the product of two values, i.e. (x, y) -> x * y
+     * @param sumFunction function to calculate a sum of two values, i.e. (x, y) -> x + y
+     * @return a new immutable array with the multiplied result
+     * @throws IllegalArgumentException if the column count of the matrix is different from the size
+     *                                  of the vector, or this count is zero
+     */
+    public static <E> Array<E> multiply(Matrix<E> matrix, Array<E> vector, BinaryOperator<E> productFunction, BinaryOperator<E> sumFunction) {
+        Objects.requireNonNull(matrix);
+        Objects.requireNonNull(vector);
+        Objects.requireNonNull(productFunction);
+        Objects.requireNonNull(sumFunction);
+        validateMatrixColumnsEqualToVectorSize(matrix, vector);
+        validateInnerSizeNotEmptyWhenNoIdentityProvided(matrix.rows(), vector.size());
+
+        return multiplyMatrixVectorGeneric(matrix, vector, productFunction, sumFunction, false, null, null);
+    }
+
+    /**
+     * Multiplies the specified matrix with the specified column vector, based on the specified
+     * productFunction and sumFunction. Each element of the resulting array is the dot product of
+     * a row in the matrix and the vector, so the size of the result is the row count of the
+     * matrix. The result is the same as multiplying with a matrix of one column, but the rows of
+     * the matrix are read once and the dot products are written straight into the result.
+     *
+     * @param matrix matrix to multiply
+     * @param vector vector to multiply with, with one element per column of the matrix
+     * @param productFunction function to calculate the product of two values, i.e. (x, y) -> x * y
+     * @param sumFunction function to calculate a sum of two values, i.e. (x, y) -> x + y
+     * @param identity value to return to represent zero, when dot product built from zero
+     * @return a new immutable array with the multiplied result
+     * @throws IllegalArgumentException if the column count of the matrix is different from the size
+     *                                  of the vector
+     */
+    public static <E> Array<E> multiply(Matrix<E> matrix, Array<E> vector, BinaryOperator<E> productFunction, BinaryOperator<E> sumFunction, E identity) {
+        Objects.requireNonNull(matrix);
+        Objects.requireNonNull(vector);
+        Objects.requireNonNull(productFunction);
+        Objects.requireNonNull(sumFunction);
+        validateMatrixColumnsEqualToVectorSize(matrix, vector);
+
+        return multiplyMatrixVectorGeneric(matrix, vector, productFunction, sumFunction, true, identity, null);
+    }
+
+    /**
+     * Multiplies the specified row vector with the specified matrix, based on the specified
+     * productFunction and sumFunction. Each element of the resulting array is the dot product of
+     * the vector and a column in the matrix, so the size of the result is the column count of the
+     * matrix. The result is the same as multiplying a matrix of one row, but the matrix is read
+     * row by row instead of column by column, and the dot products are accumulated straight into
+     * the result. The terms of each dot product are still summed from left to right.
+     *
+     * @param vector vector to multiply, with one element per row of the matrix
+     * @param matrix matrix to multiply with
+     * @param productFunction function to calculate the product of two values, i.e. (x, y) -> x * y
+     * @param sumFunction function to calculate a sum of two values, i.e. (x, y) -> x + y
+     * @return a new immutable array with the multiplied result
+     * @throws IllegalArgumentException if the size of the vector is different from the row count of
+     *                                  the matrix, or this count is zero
+     */
+    public static <E> Array<E> multiply(Array<E> vector, Matrix<E> matrix, BinaryOperator<E> productFunction, BinaryOperator<E> sumFunction) {
+        Objects.requireNonNull(vector);
+        Objects.requireNonNull(matrix);
+        Objects.requireNonNull(productFunction);
+        Objects.requireNonNull(sumFunction);
+        validateVectorSizeEqualToMatrixRows(vector, matrix);
+        validateInnerSizeNotEmptyWhenNoIdentityProvided(matrix.columns(), vector.size());
+
+        return multiplyVectorMatrixGeneric(vector, matrix, productFunction, sumFunction, false, null, null);
+    }
+
+    /**
+     * Multiplies the specified row vector with the specified matrix, based on the specified
+     * productFunction and sumFunction. Each element of the resulting array is the dot product of
+     * the vector and a column in the matrix, so the size of the result is the column count of the
+     * matrix. The result is the same as multiplying a matrix of one row, but the matrix is read
+     * row by row instead of column by column, and the dot products are accumulated straight into
+     * the result. The terms of each dot product are still summed from left to right.
+     *
+     * @param vector vector to multiply, with one element per row of the matrix
+     * @param matrix matrix to multiply with
+     * @param productFunction function to calculate the product of two values, i.e. (x, y) -> x * y
+     * @param sumFunction function to calculate a sum of two values, i.e. (x, y) -> x + y
+     * @param identity value to return to represent zero, when dot product built from zero
+     * @return a new immutable array with the multiplied result
+     * @throws IllegalArgumentException if the size of the vector is different from the row count of
+     *                                  the matrix
+     */
+    public static <E> Array<E> multiply(Array<E> vector, Matrix<E> matrix, BinaryOperator<E> productFunction, BinaryOperator<E> sumFunction, E identity) {
+        Objects.requireNonNull(vector);
+        Objects.requireNonNull(matrix);
+        Objects.requireNonNull(productFunction);
+        Objects.requireNonNull(sumFunction);
+        validateVectorSizeEqualToMatrixRows(vector, matrix);
+
+        return multiplyVectorMatrixGeneric(vector, matrix, productFunction, sumFunction, true, identity, null);
+    }
+
+    /**
+     * Multiplies the specified matrix with the specified column vector in parallel on the common
+     * {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(Matrix, Array, BinaryOperator, BinaryOperator)}, but bands of rows are
+     * computed concurrently. Small products are computed in the calling thread.
+     *
+     * <p>The functions are called concurrently from several threads, so they must be thread safe.
+     *
+     * @param matrix matrix to multiply
+     * @param vector vector to multiply with, with one element per column of the matrix
+     * @param productFunction function to calculate the product of two values, i.e. (x, y) -> x * y
+     * @param sumFunction function to calculate a sum of two values, i.e. (x, y) -> x + y
+     * @return a new immutable array with the multiplied result
+     * @throws IllegalArgumentException if the column count of the matrix is different from the size
+     *                                  of the vector, or this count is zero
+     */
+    public static <E> Array<E> parallelMultiply(Matrix<E> matrix, Array<E> vector, BinaryOperator<E> productFunction, BinaryOperator<E> sumFunction) {
+        return parallelMultiply(matrix, vector, productFunction, sumFunction, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Multiplies the specified matrix with the specified column vector in parallel on the
+     * specified {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(Matrix, Array, BinaryOperator, BinaryOperator)}, but bands of rows are
+     * computed concurrently. Small products are computed in the calling thread.
+     *
+     * <p>The functions are called concurrently from several threads, so they must be thread safe.
+     *
+     * @param matrix matrix to multiply
+     * @param vector vector to multiply with, with one element per column of the matrix
+     * @param productFunction function to calculate the product of two values, i.e. (x, y) -> x * y
+     * @param sumFunction function to calculate a sum of two values, i.e. (x, y) -> x + y
+     * @param pool pool to compute the bands in
+     * @return a new immutable array with the multiplied result
+     * @throws IllegalArgumentException if the column count of the matrix is different from the size
+     *                                  of the vector, or this count is zero
+     */
+    public static <E> Array<E> parallelMultiply(Matrix<E> matrix, Array<E> vector, BinaryOperator<E> productFunction, BinaryOperator<E> sumFunction,
+                                                ForkJoinPool pool) {
+        Objects.requireNonNull(matrix);
+        Objects.requireNonNull(vector);
+        Objects.requireNonNull(productFunction);
+        Objects.requireNonNull(sumFunction);
+        Objects.requireNonNull(pool);
+        validateMatrixColumnsEqualToVectorSize(matrix, vector);
+        validateInnerSizeNotEmptyWhenNoIdentityProvided(matrix.rows(), vector.size());
+
+        return multiplyMatrixVectorGeneric(matrix, vector, productFunction, sumFunction, false, null, pool);
+    }
+
+    /**
+     * Multiplies the specified matrix with the specified column vector in parallel on the
+     * specified {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(Matrix, Array, BinaryOperator, BinaryOperator, Object)}, but bands of rows
+     * are computed concurrently. Small products are computed in the calling thread.
+     *
+     * <p>The functions are called concurrently from several threads, so they must be thread safe.
+     *
+     * @param matrix matrix to multiply
+     * @param vector vector to multiply with, with one element per column of the matrix
+     * @param productFunction function to calculate the product of two values, i.e. (x, y) -> x * y
+     * @param sumFunction function to calculate a sum of two values, i.e. (x, y) -> x + y
+     * @param identity value to return to represent zero, when dot product built from zero
+     * @param pool pool to compute the bands in
+     * @return a new immutable array with the multiplied result
+     * @throws IllegalArgumentException if the column count of the matrix is different from the size
+     *                                  of the vector
+     */
+    public static <E> Array<E> parallelMultiply(Matrix<E> matrix, Array<E> vector, BinaryOperator<E> productFunction, BinaryOperator<E> sumFunction,
+                                                E identity, ForkJoinPool pool) {
+        Objects.requireNonNull(matrix);
+        Objects.requireNonNull(vector);
+        Objects.requireNonNull(productFunction);
+        Objects.requireNonNull(sumFunction);
+        Objects.requireNonNull(pool);
+        validateMatrixColumnsEqualToVectorSize(matrix, vector);
+
+        return multiplyMatrixVectorGeneric(matrix, vector, productFunction, sumFunction, true, identity, pool);
+    }
+
+    /**
+     * Multiplies the specified row vector with the specified matrix in parallel on the common
+     * {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(Array, Matrix, BinaryOperator, BinaryOperator)}, but bands of columns are
+     * computed concurrently. Small products are computed in the calling thread.
+     *
+     * <p>The functions are called concurrently from several threads, so they must be thread safe.
+     *
+     * @param vector vector to multiply, with one element per row of the matrix
+     * @param matrix matrix to multiply with
+     * @param productFunction function to calculate the product of two values, i.e. (x, y) -> x * y
+     * @param sumFunction function to calculate a sum of two values, i.e. (x, y) -> x + y
+     * @return a new immutable array with the multiplied result
+     * @throws IllegalArgumentException if the size of the vector is different from the row count of
+     *                                  the matrix, or this count is zero
+     */
+    public static <E> Array<E> parallelMultiply(Array<E> vector, Matrix<E> matrix, BinaryOperator<E> productFunction, BinaryOperator<E> sumFunction) {
+        return parallelMultiply(vector, matrix, productFunction, sumFunction, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Multiplies the specified row vector with the specified matrix in parallel on the specified
+     * {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(Array, Matrix, BinaryOperator, BinaryOperator)}, but bands of columns are
+     * computed concurrently. Small products are computed in the calling thread.
+     *
+     * <p>The functions are called concurrently from several threads, so they must be thread safe.
+     *
+     * @param vector vector to multiply, with one element per row of the matrix
+     * @param matrix matrix to multiply with
+     * @param productFunction function to calculate the product of two values, i.e. (x, y) -> x * y
+     * @param sumFunction function to calculate a sum of two values, i.e. (x, y) -> x + y
+     * @param pool pool to compute the bands in
+     * @return a new immutable array with the multiplied result
+     * @throws IllegalArgumentException if the size of the vector is different from the row count of
+     *                                  the matrix, or this count is zero
+     */
+    public static <E> Array<E> parallelMultiply(Array<E> vector, Matrix<E> matrix, BinaryOperator<E> productFunction, BinaryOperator<E> sumFunction,
+                                                ForkJoinPool pool) {
+        Objects.requireNonNull(vector);
+        Objects.requireNonNull(matrix);
+        Objects.requireNonNull(productFunction);
+        Objects.requireNonNull(sumFunction);
+        Objects.requireNonNull(pool);
+        validateVectorSizeEqualToMatrixRows(vector, matrix);
+        validateInnerSizeNotEmptyWhenNoIdentityProvided(matrix.columns(), vector.size());
+
+        return multiplyVectorMatrixGeneric(vector, matrix, productFunction, sumFunction, false, null, pool);
+    }
+
+    /**
+     * Multiplies the specified row vector with the specified matrix in parallel on the specified
+     * {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(Array, Matrix, BinaryOperator, BinaryOperator, Object)}, but bands of
+     * columns are computed concurrently. Small products are computed in the calling thread.
+     *
+     * <p>The functions are called concurrently from several threads, so they must be thread safe.
+     *
+     * @param vector vector to multiply, with one element per row of the matrix
+     * @param matrix matrix to multiply with
+     * @param productFunction function to calculate the product of two values, i.e. (x, y) -> x * y
+     * @param sumFunction function to calculate a sum of two values, i.e. (x, y) -> x + y
+     * @param identity value to return to represent zero, when dot product built from zero
+     * @param pool pool to compute the bands in
+     * @return a new immutable array with the multiplied result
+     * @throws IllegalArgumentException if the size of the vector is different from the row count of
+     *                                  the matrix
+     */
+    public static <E> Array<E> parallelMultiply(Array<E> vector, Matrix<E> matrix, BinaryOperator<E> productFunction, BinaryOperator<E> sumFunction,
+                                                E identity, ForkJoinPool pool) {
+        Objects.requireNonNull(vector);
+        Objects.requireNonNull(matrix);
+        Objects.requireNonNull(productFunction);
+        Objects.requireNonNull(sumFunction);
+        Objects.requireNonNull(pool);
+        validateVectorSizeEqualToMatrixRows(vector, matrix);
+
+        return multiplyVectorMatrixGeneric(vector, matrix, productFunction, sumFunction, true, identity, pool);
+    }
+
+    private static <E> Array<E> multiplyMatrixVectorGeneric(Matrix<E> matrix, Array<E> vector, BinaryOperator<E> productFunction,
+                                                            BinaryOperator<E> sumFunction, boolean hasIdentity, E identity, ForkJoinPool pool) {
+        int rows = matrix.rows();
+        int columns = matrix.columns();
+        Object[][] a = matrix.toArray2D();
+        Object[] x = vector.toArray();
+        Object[] product = new Object[rows];
+        if (pool == null || !isWorthSplitting(rows, columns, 1)) {
+            MatrixKernels.multiplyMatrixVectorGeneric(a, x, product, 0, rows, columns, productFunction, sumFunction, hasIdentity, identity);
+        } else {
+            ParallelRanges.forRange(pool, 0, rows, ParallelRanges.grainFor(pool, rows, 1, 1),
+                    (from, to) -> MatrixKernels.multiplyMatrixVectorGeneric(a, x, product, from, to, columns, productFunction, sumFunction, hasIdentity, identity));
+        }
+        return new TrustedImmutableArray<>(product);
+    }
+
+    private static <E> Array<E> multiplyVectorMatrixGeneric(Array<E> vector, Matrix<E> matrix, BinaryOperator<E> productFunction,
+                                                            BinaryOperator<E> sumFunction, boolean hasIdentity, E identity, ForkJoinPool pool) {
+        int rows = matrix.rows();
+        int columns = matrix.columns();
+        Object[] x = vector.toArray();
+        Object[][] a = matrix.toArray2D();
+        Object[] product = new Object[columns];
+        if (hasIdentity) {
+            Arrays.fill(product, identity);
+        }
+        if (pool == null || !isWorthSplitting(columns, rows, 1)) {
+            MatrixKernels.multiplyVectorMatrixGeneric(x, a, product, 0, columns, rows, productFunction, sumFunction, hasIdentity);
+        } else {
+            ParallelRanges.forRange(pool, 0, columns, ParallelRanges.grainFor(pool, columns, 1, 1),
+                    (from, to) -> MatrixKernels.multiplyVectorMatrixGeneric(x, a, product, from, to, rows, productFunction, sumFunction, hasIdentity));
+        }
+        return new TrustedImmutableArray<>(product);
+    }
+
+    private static class TrustedImmutableArray<E> extends ImmutableArray<E> {
+        private TrustedImmutableArray(Object[] elementData) {
+            super(elementData, true);
+        }
+    }
+
+    /**
+     * Multiplies the specified {@code double} matrix with the specified column vector. Each row
+     * of the matrix is read once, and its dot product with the vector is computed on the unboxed
+     * elements, with SIMD instructions when available.
+     *
+     * @param matrix matrix to multiply
+     * @param vector vector to multiply with, with one element per column of the matrix
+     * @return a new array with the multiplied result, with one element per row of the matrix
+     * @throws IllegalArgumentException if the column count of the matrix is different from the size
+     *                                  of the vector
+     * @throws NullPointerException if any of the arguments is null
+     */
+    public static DoubleArray multiply(DoubleMatrix matrix, DoubleArray vector) {
+        return multiplyMatrixVectorDouble(matrix, vector, null);
+    }
+
+    /**
+     * Multiplies the specified {@code double} matrix with the specified column vector in parallel
+     * on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(DoubleMatrix, DoubleArray)}, but bands of rows are computed concurrently.
+     * Small products are computed in the calling thread.
+     *
+     * @param matrix matrix to multiply
+     * @param vector vector to multiply with, with one element per column of the matrix
+     * @return a new array with the multiplied result, with one element per row of the matrix
+     * @throws IllegalArgumentException if the column count of the matrix is different from the size
+     *                                  of the vector
+     * @throws NullPointerException if any of the arguments is null
+     */
+    public static DoubleArray parallelMultiply(DoubleMatrix matrix, DoubleArray vector) {
+        return parallelMultiply(matrix, vector, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Multiplies the specified {@code double} matrix with the specified column vector in parallel
+     * on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(DoubleMatrix, DoubleArray)}, but bands of rows are computed concurrently.
+     * Small products are computed in the calling thread.
+     *
+     * @param matrix matrix to multiply
+     * @param vector vector to multiply with, with one element per column of the matrix
+     * @param pool pool to compute the bands in
+     * @return a new array with the multiplied result, with one element per row of the matrix
+     * @throws IllegalArgumentException if the column count of the matrix is different from the size
+     *                                  of the vector
+     * @throws NullPointerException if any of the arguments is null
+     */
+    public static DoubleArray parallelMultiply(DoubleMatrix matrix, DoubleArray vector, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return multiplyMatrixVectorDouble(matrix, vector, pool);
+    }
+
+    /**
+     * Multiplies the specified row vector with the specified {@code double} matrix. The matrix is
+     * read once, row by row, and each row is scaled by an element of the vector and added to the
+     * result on the unboxed elements, with SIMD instructions when available.
+     *
+     * @param vector vector to multiply, with one element per row of the matrix
+     * @param matrix matrix to multiply with
+     * @return a new array with the multiplied result, with one element per column of the matrix
+     * @throws IllegalArgumentException if the size of the vector is different from the row count of
+     *                                  the matrix
+     * @throws NullPointerException if any of the arguments is null
+     */
+    public static DoubleArray multiply(DoubleArray vector, DoubleMatrix matrix) {
+        return multiplyVectorMatrixDouble(vector, matrix, null);
+    }
+
+    /**
+     * Multiplies the specified row vector with the specified {@code double} matrix in parallel on
+     * the common {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(DoubleArray, DoubleMatrix)}, but bands of columns are computed
+     * concurrently. Small products are computed in the calling thread.
+     *
+     * @param vector vector to multiply, with one element per row of the matrix
+     * @param matrix matrix to multiply with
+     * @return a new array with the multiplied result, with one element per column of the matrix
+     * @throws IllegalArgumentException if the size of the vector is different from the row count of
+     *                                  the matrix
+     * @throws NullPointerException if any of the arguments is null
+     */
+    public static DoubleArray parallelMultiply(DoubleArray vector, DoubleMatrix matrix) {
+        return parallelMultiply(vector, matrix, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Multiplies the specified row vector with the specified {@code double} matrix in parallel on
+     * the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(DoubleArray, DoubleMatrix)}, but bands of columns are computed
+     * concurrently. Small products are computed in the calling thread.
+     *
+     * @param vector vector to multiply, with one element per row of the matrix
+     * @param matrix matrix to multiply with
+     * @param pool pool to compute the bands in
+     * @return a new array with the multiplied result, with one element per column of the matrix
+     * @throws IllegalArgumentException if the size of the vector is different from the row count of
+     *                                  the matrix
+     * @throws NullPointerException if any of the arguments is null
+     */
+    public static DoubleArray parallelMultiply(DoubleArray vector, DoubleMatrix matrix, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return multiplyVectorMatrixDouble(vector, matrix, pool);
+    }
+
+    private static DoubleArray multiplyMatrixVectorDouble(DoubleMatrix matrix, DoubleArray vector, ForkJoinPool pool) {
+        Objects.requireNonNull(matrix);
+        Objects.requireNonNull(vector);
+        validateMatrixColumnsEqualToVectorSize(matrix, vector);
+
+        int rows = matrix.rows();
+        int columns = matrix.columns();
+        double[] a = matrix.toDoubleArray();
+        double[] x = vector.toDoubleArray();
+        double[] product = new double[rows];
+        if (pool == null || !isWorthSplitting(rows, columns, 1)) {
+            MatrixKernels.multiplyMatrixVectorDouble(a, x, product, 0, rows, columns);
+        } else {
+            ParallelRanges.forRange(pool, 0, rows, ParallelRanges.grainFor(pool, rows, 1, 1),
+                    (from, to) -> MatrixKernels.multiplyMatrixVectorDouble(a, x, product, from, to, columns));
+        }
+        return new TrustedDoubleArray(product);
+    }
+
+    private static DoubleArray multiplyVectorMatrixDouble(DoubleArray vector, DoubleMatrix matrix, ForkJoinPool pool) {
+        Objects.requireNonNull(vector);
+        Objects.requireNonNull(matrix);
+        validateVectorSizeEqualToMatrixRows(vector, matrix);
+
+        int rows = matrix.rows();
+        int columns = matrix.columns();
+        double[] x = vector.toDoubleArray();
+        double[] a = matrix.toDoubleArray();
+        double[] product = new double[columns];
+        if (pool == null || !isWorthSplitting(columns, rows, 1)) {
+            MatrixKernels.multiplyVectorMatrixDouble(x, a, product, 0, columns, rows, columns);
+        } else {
+            // Bands are aligned to whole cache lines, so no two threads write to the same line
+            ParallelRanges.forRange(pool, 0, columns, ParallelRanges.grainFor(pool, columns, 16, 64),
+                    (from, to) -> MatrixKernels.multiplyVectorMatrixDouble(x, a, product, from, to, rows, columns));
+        }
+        return new TrustedDoubleArray(product);
+    }
+
+    /**
+     * Multiplies the specified {@code float} matrix with the specified column vector. Each row
+     * of the matrix is read once, and its dot product with the vector is computed on the unboxed
+     * elements, with SIMD instructions when available.
+     *
+     * @param matrix matrix to multiply
+     * @param vector vector to multiply with, with one element per column of the matrix
+     * @return a new array with the multiplied result, with one element per row of the matrix
+     * @throws IllegalArgumentException if the column count of the matrix is different from the size
+     *                                  of the vector
+     * @throws NullPointerException if any of the arguments is null
+     */
+    public static FloatArray multiply(FloatMatrix matrix, FloatArray vector) {
+        return multiplyMatrixVectorFloat(matrix, vector, null);
+    }
+
+    /**
+     * Multiplies the specified {@code float} matrix with the specified column vector in parallel
+     * on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(FloatMatrix, FloatArray)}, but bands of rows are computed concurrently.
+     * Small products are computed in the calling thread.
+     *
+     * @param matrix matrix to multiply
+     * @param vector vector to multiply with, with one element per column of the matrix
+     * @return a new array with the multiplied result, with one element per row of the matrix
+     * @throws IllegalArgumentException if the column count of the matrix is different from the size
+     *                                  of the vector
+     * @throws NullPointerException if any of the arguments is null
+     */
+    public static FloatArray parallelMultiply(FloatMatrix matrix, FloatArray vector) {
+        return parallelMultiply(matrix, vector, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Multiplies the specified {@code float} matrix with the specified column vector in parallel
+     * on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(FloatMatrix, FloatArray)}, but bands of rows are computed concurrently.
+     * Small products are computed in the calling thread.
+     *
+     * @param matrix matrix to multiply
+     * @param vector vector to multiply with, with one element per column of the matrix
+     * @param pool pool to compute the bands in
+     * @return a new array with the multiplied result, with one element per row of the matrix
+     * @throws IllegalArgumentException if the column count of the matrix is different from the size
+     *                                  of the vector
+     * @throws NullPointerException if any of the arguments is null
+     */
+    public static FloatArray parallelMultiply(FloatMatrix matrix, FloatArray vector, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return multiplyMatrixVectorFloat(matrix, vector, pool);
+    }
+
+    /**
+     * Multiplies the specified row vector with the specified {@code float} matrix. The matrix is
+     * read once, row by row, and each row is scaled by an element of the vector and added to the
+     * result on the unboxed elements, with SIMD instructions when available.
+     *
+     * @param vector vector to multiply, with one element per row of the matrix
+     * @param matrix matrix to multiply with
+     * @return a new array with the multiplied result, with one element per column of the matrix
+     * @throws IllegalArgumentException if the size of the vector is different from the row count of
+     *                                  the matrix
+     * @throws NullPointerException if any of the arguments is null
+     */
+    public static FloatArray multiply(FloatArray vector, FloatMatrix matrix) {
+        return multiplyVectorMatrixFloat(vector, matrix, null);
+    }
+
+    /**
+     * Multiplies the specified row vector with the specified {@code float} matrix in parallel on
+     * the common {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(FloatArray, FloatMatrix)}, but bands of columns are computed
+     * concurrently. Small products are computed in the calling thread.
+     *
+     * @param vector vector to multiply, with one element per row of the matrix
+     * @param matrix matrix to multiply with
+     * @return a new array with the multiplied result, with one element per column of the matrix
+     * @throws IllegalArgumentException if the size of the vector is different from the row count of
+     *                                  the matrix
+     * @throws NullPointerException if any of the arguments is null
+     */
+    public static FloatArray parallelMultiply(FloatArray vector, FloatMatrix matrix) {
+        return parallelMultiply(vector, matrix, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Multiplies the specified row vector with the specified {@code float} matrix in parallel on
+     * the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(FloatArray, FloatMatrix)}, but bands of columns are computed
+     * concurrently. Small products are computed in the calling thread.
+     *
+     * @param vector vector to multiply, with one element per row of the matrix
+     * @param matrix matrix to multiply with
+     * @param pool pool to compute the bands in
+     * @return a new array with the multiplied result, with one element per column of the matrix
+     * @throws IllegalArgumentException if the size of the vector is different from the row count of
+     *                                  the matrix
+     * @throws NullPointerException if any of the arguments is null
+     */
+    public static FloatArray parallelMultiply(FloatArray vector, FloatMatrix matrix, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return multiplyVectorMatrixFloat(vector, matrix, pool);
+    }
+
+    private static FloatArray multiplyMatrixVectorFloat(FloatMatrix matrix, FloatArray vector, ForkJoinPool pool) {
+        Objects.requireNonNull(matrix);
+        Objects.requireNonNull(vector);
+        validateMatrixColumnsEqualToVectorSize(matrix, vector);
+
+        int rows = matrix.rows();
+        int columns = matrix.columns();
+        float[] a = matrix.toFloatArray();
+        float[] x = vector.toFloatArray();
+        float[] product = new float[rows];
+        if (pool == null || !isWorthSplitting(rows, columns, 1)) {
+            MatrixKernels.multiplyMatrixVectorFloat(a, x, product, 0, rows, columns);
+        } else {
+            ParallelRanges.forRange(pool, 0, rows, ParallelRanges.grainFor(pool, rows, 1, 1),
+                    (from, to) -> MatrixKernels.multiplyMatrixVectorFloat(a, x, product, from, to, columns));
+        }
+        return new TrustedFloatArray(product);
+    }
+
+    private static FloatArray multiplyVectorMatrixFloat(FloatArray vector, FloatMatrix matrix, ForkJoinPool pool) {
+        Objects.requireNonNull(vector);
+        Objects.requireNonNull(matrix);
+        validateVectorSizeEqualToMatrixRows(vector, matrix);
+
+        int rows = matrix.rows();
+        int columns = matrix.columns();
+        float[] x = vector.toFloatArray();
+        float[] a = matrix.toFloatArray();
+        float[] product = new float[columns];
+        if (pool == null || !isWorthSplitting(columns, rows, 1)) {
+            MatrixKernels.multiplyVectorMatrixFloat(x, a, product, 0, columns, rows, columns);
+        } else {
+            // Bands are aligned to whole cache lines, so no two threads write to the same line
+            ParallelRanges.forRange(pool, 0, columns, ParallelRanges.grainFor(pool, columns, 16, 64),
+                    (from, to) -> MatrixKernels.multiplyVectorMatrixFloat(x, a, product, from, to, rows, columns));
+        }
+        return new TrustedFloatArray(product);
+    }
+
+    /**
+     * Multiplies the specified {@code long} matrix with the specified column vector. Each row
+     * of the matrix is read once, and its dot product with the vector is computed on the unboxed
+     * elements.
+     *
+     * @param matrix matrix to multiply
+     * @param vector vector to multiply with, with one element per column of the matrix
+     * @return a new array with the multiplied result, with one element per row of the matrix
+     * @throws IllegalArgumentException if the column count of the matrix is different from the size
+     *                                  of the vector
+     * @throws NullPointerException if any of the arguments is null
+     */
+    public static LongArray multiply(LongMatrix matrix, LongArray vector) {
+        return multiplyMatrixVectorLong(matrix, vector, null);
+    }
+
+    /**
+     * Multiplies the specified {@code long} matrix with the specified column vector in parallel
+     * on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(LongMatrix, LongArray)}, but bands of rows are computed concurrently.
+     * Small products are computed in the calling thread.
+     *
+     * @param matrix matrix to multiply
+     * @param vector vector to multiply with, with one element per column of the matrix
+     * @return a new array with the multiplied result, with one element per row of the matrix
+     * @throws IllegalArgumentException if the column count of the matrix is different from the size
+     *                                  of the vector
+     * @throws NullPointerException if any of the arguments is null
+     */
+    public static LongArray parallelMultiply(LongMatrix matrix, LongArray vector) {
+        return parallelMultiply(matrix, vector, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Multiplies the specified {@code long} matrix with the specified column vector in parallel
+     * on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(LongMatrix, LongArray)}, but bands of rows are computed concurrently.
+     * Small products are computed in the calling thread.
+     *
+     * @param matrix matrix to multiply
+     * @param vector vector to multiply with, with one element per column of the matrix
+     * @param pool pool to compute the bands in
+     * @return a new array with the multiplied result, with one element per row of the matrix
+     * @throws IllegalArgumentException if the column count of the matrix is different from the size
+     *                                  of the vector
+     * @throws NullPointerException if any of the arguments is null
+     */
+    public static LongArray parallelMultiply(LongMatrix matrix, LongArray vector, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return multiplyMatrixVectorLong(matrix, vector, pool);
+    }
+
+    /**
+     * Multiplies the specified row vector with the specified {@code long} matrix. The matrix is
+     * read once, row by row, and each row is scaled by an element of the vector and added to the
+     * result on the unboxed elements.
+     *
+     * @param vector vector to multiply, with one element per row of the matrix
+     * @param matrix matrix to multiply with
+     * @return a new array with the multiplied result, with one element per column of the matrix
+     * @throws IllegalArgumentException if the size of the vector is different from the row count of
+     *                                  the matrix
+     * @throws NullPointerException if any of the arguments is null
+     */
+    public static LongArray multiply(LongArray vector, LongMatrix matrix) {
+        return multiplyVectorMatrixLong(vector, matrix, null);
+    }
+
+    /**
+     * Multiplies the specified row vector with the specified {@code long} matrix in parallel on
+     * the common {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(LongArray, LongMatrix)}, but bands of columns are computed
+     * concurrently. Small products are computed in the calling thread.
+     *
+     * @param vector vector to multiply, with one element per row of the matrix
+     * @param matrix matrix to multiply with
+     * @return a new array with the multiplied result, with one element per column of the matrix
+     * @throws IllegalArgumentException if the size of the vector is different from the row count of
+     *                                  the matrix
+     * @throws NullPointerException if any of the arguments is null
+     */
+    public static LongArray parallelMultiply(LongArray vector, LongMatrix matrix) {
+        return parallelMultiply(vector, matrix, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Multiplies the specified row vector with the specified {@code long} matrix in parallel on
+     * the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(LongArray, LongMatrix)}, but bands of columns are computed
+     * concurrently. Small products are computed in the calling thread.
+     *
+     * @param vector vector to multiply, with one element per row of the matrix
+     * @param matrix matrix to multiply with
+     * @param pool pool to compute the bands in
+     * @return a new array with the multiplied result, with one element per column of the matrix
+     * @throws IllegalArgumentException if the size of the vector is different from the row count of
+     *                                  the matrix
+     * @throws NullPointerException if any of the arguments is null
+     */
+    public static LongArray parallelMultiply(LongArray vector, LongMatrix matrix, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return multiplyVectorMatrixLong(vector, matrix, pool);
+    }
+
+    private static LongArray multiplyMatrixVectorLong(LongMatrix matrix, LongArray vector, ForkJoinPool pool) {
+        Objects.requireNonNull(matrix);
+        Objects.requireNonNull(vector);
+        validateMatrixColumnsEqualToVectorSize(matrix, vector);
+
+        int rows = matrix.rows();
+        int columns = matrix.columns();
+        long[] a = matrix.toLongArray();
+        long[] x = vector.toLongArray();
+        long[] product = new long[rows];
+        if (pool == null || !isWorthSplitting(rows, columns, 1)) {
+            MatrixKernels.multiplyMatrixVectorLong(a, x, product, 0, rows, columns);
+        } else {
+            ParallelRanges.forRange(pool, 0, rows, ParallelRanges.grainFor(pool, rows, 1, 1),
+                    (from, to) -> MatrixKernels.multiplyMatrixVectorLong(a, x, product, from, to, columns));
+        }
+        return new TrustedLongArray(product);
+    }
+
+    private static LongArray multiplyVectorMatrixLong(LongArray vector, LongMatrix matrix, ForkJoinPool pool) {
+        Objects.requireNonNull(vector);
+        Objects.requireNonNull(matrix);
+        validateVectorSizeEqualToMatrixRows(vector, matrix);
+
+        int rows = matrix.rows();
+        int columns = matrix.columns();
+        long[] x = vector.toLongArray();
+        long[] a = matrix.toLongArray();
+        long[] product = new long[columns];
+        if (pool == null || !isWorthSplitting(columns, rows, 1)) {
+            MatrixKernels.multiplyVectorMatrixLong(x, a, product, 0, columns, rows, columns);
+        } else {
+            // Bands are aligned to whole cache lines, so no two threads write to the same line
+            ParallelRanges.forRange(pool, 0, columns, ParallelRanges.grainFor(pool, columns, 16, 64),
+                    (from, to) -> MatrixKernels.multiplyVectorMatrixLong(x, a, product, from, to, rows, columns));
+        }
+        return new TrustedLongArray(product);
+    }
+
+    /**
+     * Multiplies the specified sparse matrix with the specified column vector. Only the stored
+     * elements of the matrix are read, so the work is proportional to its number of non-zero
+     * elements.
+     *
+     * @param matrix sparse matrix to multiply
+     * @param vector vector to multiply with, with one element per column of the matrix
+     * @return a new array with the multiplied result, with one element per row of the matrix
+     * @throws IllegalArgumentException if the column count of the matrix is different from the size
+     *                                  of the vector
+     * @throws NullPointerException if any of the arguments is null
+     */
+    public static DoubleArray multiply(SparseDoubleMatrix matrix, DoubleArray vector) {
+        return multiplySparseVector(matrix, vector, null);
+    }
+
+    /**
+     * Multiplies the specified sparse matrix with the specified column vector in parallel on the
+     * common {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(SparseDoubleMatrix, DoubleArray)}, but bands of rows with about the same
+     * number of non-zero elements are computed concurrently. Small products are computed in the
+     * calling thread.
+     *
+     * @param matrix sparse matrix to multiply
+     * @param vector vector to multiply with, with one element per column of the matrix
+     * @return a new array with the multiplied result, with one element per row of the matrix
+     * @throws IllegalArgumentException if the column count of the matrix is different from the size
+     *                                  of the vector
+     * @throws NullPointerException if any of the arguments is null
+     */
+    public static DoubleArray parallelMultiply(SparseDoubleMatrix matrix, DoubleArray vector) {
+        return parallelMultiply(matrix, vector, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Multiplies the specified sparse matrix with the specified column vector in parallel on the
+     * specified {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(SparseDoubleMatrix, DoubleArray)}, but bands of rows with about the same
+     * number of non-zero elements are computed concurrently. Small products are computed in the
+     * calling thread.
+     *
+     * @param matrix sparse matrix to multiply
+     * @param vector vector to multiply with, with one element per column of the matrix
+     * @param pool pool to compute the bands in
+     * @return a new array with the multiplied result, with one element per row of the matrix
+     * @throws IllegalArgumentException if the column count of the matrix is different from the size
+     *                                  of the vector
+     * @throws NullPointerException if any of the arguments is null
+     */
+    public static DoubleArray parallelMultiply(SparseDoubleMatrix matrix, DoubleArray vector, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return multiplySparseVector(matrix, vector, pool);
+    }
+
+    private static DoubleArray multiplySparseVector(SparseDoubleMatrix matrix, DoubleArray vector, ForkJoinPool pool) {
+        Objects.requireNonNull(matrix);
+        Objects.requireNonNull(vector);
+        validateMatrixColumnsEqualToVectorSize(matrix, vector);
+
+        int[] pointers = matrix.toRowPointerArray();
+        int[] columns = matrix.toColumnIndexArray();
+        double[] values = matrix.toValueArray();
+        double[] x = vector.toDoubleArray();
+        double[] product = new double[matrix.rows()];
+        ParallelRanges.RangeAction action = (from, to) -> SparseKernels.multiplySparseVector(pointers, columns, values, x, product, from, to);
+        if (pool == null || !isWorthSplitting(matrix.rows(), values.length)) {
+            action.run(0, matrix.rows());
+        } else {
+            SparseKernels.forBalancedRows(pool, pointers, SPARSE_GRAIN, action);
+        }
+        return new TrustedDoubleArray(product);
+    }
+
+    /**
+     * Performs matrix multiplication between the specified sparse matrix and dense matrix. Each
+     * stored element of the sparse matrix scales a row of the dense matrix, which is added to a
+     * row of the result, so the work is proportional to the number of non-zero elements times
+     * the column count of the dense matrix. The zeros which are not stored are never multiplied,
+     * so an infinity or NaN in the dense matrix only spreads through stored elements.
+     *
+     * @param matrix1 first matrix, which is sparse
+     * @param matrix2 second matrix
+     * @return a new double matrix with the multiplied result
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     * @throws NullPointerException if any of the matrices is null
+     */
+    public static DoubleMatrix multiply(SparseDoubleMatrix matrix1, DoubleMatrix matrix2) {
+        return multiplySparseDense(matrix1, matrix2, null);
+    }
+
+    /**
+     * Performs matrix multiplication between the specified sparse matrix and dense matrix in
+     * parallel on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(SparseDoubleMatrix, DoubleMatrix)}, but bands of rows with about the same
+     * number of non-zero elements are computed concurrently. Small products are computed in the
+     * calling thread.
+     *
+     * @param matrix1 first matrix, which is sparse
+     * @param matrix2 second matrix
+     * @return a new double matrix with the multiplied result
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     * @throws NullPointerException if any of the matrices is null
+     */
+    public static DoubleMatrix parallelMultiply(SparseDoubleMatrix matrix1, DoubleMatrix matrix2) {
+        return parallelMultiply(matrix1, matrix2, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Performs matrix multiplication between the specified sparse matrix and dense matrix in
+     * parallel on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(SparseDoubleMatrix, DoubleMatrix)}, but bands of rows with about the same
+     * number of non-zero elements are computed concurrently. Small products are computed in the
+     * calling thread.
+     *
+     * @param matrix1 first matrix, which is sparse
+     * @param matrix2 second matrix
+     * @param pool pool to compute the bands in
+     * @return a new double matrix with the multiplied result
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     * @throws NullPointerException if any of the matrices or the pool is null
+     */
+    public static DoubleMatrix parallelMultiply(SparseDoubleMatrix matrix1, DoubleMatrix matrix2, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return multiplySparseDense(matrix1, matrix2, pool);
+    }
+
+    private static DoubleMatrix multiplySparseDense(SparseDoubleMatrix matrix1, DoubleMatrix matrix2, ForkJoinPool pool) {
+        Objects.requireNonNull(matrix1);
+        Objects.requireNonNull(matrix2);
+        validateMatrix1ColumnsEqualToMatrix2Rows(matrix1, matrix2);
+
+        int rows = matrix1.rows();
+        int columns = matrix2.columns();
+        int[] pointers = matrix1.toRowPointerArray();
+        int[] indices = matrix1.toColumnIndexArray();
+        double[] values = matrix1.toValueArray();
+        double[] b = matrix2.toDoubleArray();
+        double[] product = new double[rows * columns];
+        ParallelRanges.RangeAction action = (from, to) -> SparseKernels.multiplySparseDense(pointers, indices, values, b, product, from, to, columns);
+        if (pool == null || !isWorthSplitting(rows, (long) values.length * columns)) {
+            action.run(0, rows);
+        } else {
+            SparseKernels.forBalancedRows(pool, pointers, Math.max(1, SPARSE_GRAIN / Math.max(1, columns)), action);
+        }
+        return new TrustedDoubleMatrix(product, rows, columns);
+    }
+
+    /**
+     * Performs matrix multiplication between the specified dense matrix and sparse matrix. Each
+     * element of the dense matrix scales the stored elements of a row of the sparse matrix, which
+     * are added to a row of the result, so the work is proportional to the row count of the dense
+     * matrix times the number of non-zero elements. The zeros which are not stored are never
+     * multiplied, so an infinity or NaN in the dense matrix only spreads through stored elements.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix, which is sparse
+     * @return a new double matrix with the multiplied result
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     * @throws NullPointerException if any of the matrices is null
+     */
+    public static DoubleMatrix multiply(DoubleMatrix matrix1, SparseDoubleMatrix matrix2) {
+        return multiplyDenseSparse(matrix1, matrix2, null);
+    }
+
+    /**
+     * Performs matrix multiplication between the specified dense matrix and sparse matrix in
+     * parallel on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(DoubleMatrix, SparseDoubleMatrix)}, but bands of rows of the result are
+     * computed concurrently. Small products are computed in the calling thread.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix, which is sparse
+     * @return a new double matrix with the multiplied result
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     * @throws NullPointerException if any of the matrices is null
+     */
+    public static DoubleMatrix parallelMultiply(DoubleMatrix matrix1, SparseDoubleMatrix matrix2) {
+        return parallelMultiply(matrix1, matrix2, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Performs matrix multiplication between the specified dense matrix and sparse matrix in
+     * parallel on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(DoubleMatrix, SparseDoubleMatrix)}, but bands of rows of the result are
+     * computed concurrently. Small products are computed in the calling thread.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix, which is sparse
+     * @param pool pool to compute the bands in
+     * @return a new double matrix with the multiplied result
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     * @throws NullPointerException if any of the matrices or the pool is null
+     */
+    public static DoubleMatrix parallelMultiply(DoubleMatrix matrix1, SparseDoubleMatrix matrix2, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return multiplyDenseSparse(matrix1, matrix2, pool);
+    }
+
+    private static DoubleMatrix multiplyDenseSparse(DoubleMatrix matrix1, SparseDoubleMatrix matrix2, ForkJoinPool pool) {
+        Objects.requireNonNull(matrix1);
+        Objects.requireNonNull(matrix2);
+        validateMatrix1ColumnsEqualToMatrix2Rows(matrix1, matrix2);
+
+        int rows = matrix1.rows();
+        int inner = matrix1.columns();
+        int columns = matrix2.columns();
+        double[] a = matrix1.toDoubleArray();
+        int[] pointers = matrix2.toRowPointerArray();
+        int[] indices = matrix2.toColumnIndexArray();
+        double[] values = matrix2.toValueArray();
+        double[] product = new double[rows * columns];
+        ParallelRanges.RangeAction action = (from, to) -> SparseKernels.multiplyDenseSparse(a, pointers, indices, values, product, from, to, inner, columns);
+        if (pool == null || !isWorthSplitting(rows, (long) rows * (values.length + inner))) {
+            action.run(0, rows);
+        } else {
+            ParallelRanges.forRange(pool, 0, rows, ParallelRanges.grainFor(pool, rows, 1, 1), action);
+        }
+        return new TrustedDoubleMatrix(product, rows, columns);
+    }
+
+    /**
+     * Performs matrix multiplication between the specified sparse matrices, and returns the
+     * product as a sparse matrix. Each row of the result is accumulated from the stored elements
+     * of a row of the first matrix and the matching rows of the second matrix, so the work is
+     * proportional to the number of multiply-adds which involve no zeros which are not stored.
+     * Elements of the result which are not reached by any such product, or whose terms cancel out
+     * to zero, are not stored.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @return a new sparse matrix with the multiplied result
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count,
+     *                                  or the result has too many non-zero elements
+     * @throws NullPointerException if any of the matrices is null
+     */
+    public static SparseDoubleMatrix multiply(SparseDoubleMatrix matrix1, SparseDoubleMatrix matrix2) {
+        return multiplySparseSparse(matrix1, matrix2, null);
+    }
+
+    /**
+     * Performs matrix multiplication between the specified sparse matrices in parallel on the
+     * common {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(SparseDoubleMatrix, SparseDoubleMatrix)}, but bands of rows with about the
+     * same number of non-zero elements are computed concurrently. Small products are computed in
+     * the calling thread.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @return a new sparse matrix with the multiplied result
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count,
+     *                                  or the result has too many non-zero elements
+     * @throws NullPointerException if any of the matrices is null
+     */
+    public static SparseDoubleMatrix parallelMultiply(SparseDoubleMatrix matrix1, SparseDoubleMatrix matrix2) {
+        return parallelMultiply(matrix1, matrix2, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Performs matrix multiplication between the specified sparse matrices in parallel on the
+     * specified {@link ForkJoinPool}. The result is the same as
+     * {@link #multiply(SparseDoubleMatrix, SparseDoubleMatrix)}, but bands of rows with about the
+     * same number of non-zero elements are computed concurrently. Small products are computed in
+     * the calling thread.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @param pool pool to compute the bands in
+     * @return a new sparse matrix with the multiplied result
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count,
+     *                                  or the result has too many non-zero elements
+     * @throws NullPointerException if any of the matrices or the pool is null
+     */
+    public static SparseDoubleMatrix parallelMultiply(SparseDoubleMatrix matrix1, SparseDoubleMatrix matrix2, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return multiplySparseSparse(matrix1, matrix2, pool);
+    }
+
+    private static SparseDoubleMatrix multiplySparseSparse(SparseDoubleMatrix matrix1, SparseDoubleMatrix matrix2, ForkJoinPool pool) {
+        Objects.requireNonNull(matrix1);
+        Objects.requireNonNull(matrix2);
+        validateMatrix1ColumnsEqualToMatrix2Rows(matrix1, matrix2);
+
+        int rows = matrix1.rows();
+        int columns = matrix2.columns();
+        int[] aPointers = matrix1.toRowPointerArray();
+        int[] aColumns = matrix1.toColumnIndexArray();
+        double[] aValues = matrix1.toValueArray();
+        int[] bPointers = matrix2.toRowPointerArray();
+        int[] bColumns = matrix2.toColumnIndexArray();
+        double[] bValues = matrix2.toValueArray();
+        long work = 0;
+        for (int column : aColumns) {
+            work += bPointers[column + 1] - bPointers[column];
+        }
+        boolean parallel = pool != null && isWorthSplitting(rows, work);
+
+        // The first pass counts the elements of each row, so the second can write them in place
+        int[] cPointers = new int[rows + 1];
+        ParallelRanges.RangeAction count = (from, to) -> SparseKernels.countSparseSparse(aPointers, aColumns, bPointers, bColumns, cPointers, from, to, columns);
+        if (parallel) {
+            SparseKernels.forBalancedRows(pool, aPointers, SPARSE_GRAIN, count);
+        } else {
+            count.run(0, rows);
+        }
+        long nonZeros = 0;
+        for (int r = 0; r < rows; r++) {
+            nonZeros += cPointers[r + 1];
+            if (nonZeros > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Product has too many non-zero elements: " + rows + ", " + columns);
+            }
+            cPointers[r + 1] = (int) nonZeros;
+        }
+        int[] cColumns = new int[(int) nonZeros];
+        double[] cValues = new double[(int) nonZeros];
+        ParallelRanges.RangeAction multiply = (from, to) -> SparseKernels.multiplySparseSparse(aPointers, aColumns, aValues,
+                bPointers, bColumns, bValues, cPointers, cColumns, cValues, from, to, columns);
+        if (parallel) {
+            SparseKernels.forBalancedRows(pool, aPointers, SPARSE_GRAIN, multiply);
+        } else {
+            multiply.run(0, rows);
+        }
+        return new TrustedSparseDoubleMatrix(cPointers, cColumns, cValues, rows, columns);
+    }
+
+    private static boolean isWorthSplitting(int rows, long work) {
+        return work >= PARALLEL_THRESHOLD && rows > 1;
+    }
+
+    /**
+     * Raises the specified square matrix to the specified power, based on the specified
+     * productFunction and sumFunction. The result is the same as multiplying the matrix with
+     * itself with {@link #multiply(Matrix, Matrix, BinaryOperator, BinaryOperator)}
+     * {@code exponent - 1} times, but it is computed by repeated squaring, with at most
+     * {@code 2 * log2(exponent)} products. The intermediate products are computed in buffers
+     * which are reused, rather than in new matrices.
+     *
+     * <p>Repeated squaring relies on matrix multiplication being associative, which it is if the
+     * sum function is associative and commutative, and the product function distributes over it.
+     *
+     * @param matrix square matrix to raise
+     * @param exponent the power to raise the matrix to, which must be at least one
+     * @param productFunction function to calculate the product of two values, i.e. (x, y) -> x * y
+     * @param sumFunction function to calculate a sum of two values, i.e. (x, y) -> x + y
+     * @return a new immutable matrix with the matrix raised to the power
+     * @throws IllegalArgumentException if the matrix is not square, or the exponent is less than one
+     */
+    public static <E> Matrix<E> power(Matrix<E> matrix, int exponent, BinaryOperator<E> productFunction, BinaryOperator<E> sumFunction) {
+        Objects.requireNonNull(matrix);
+        Objects.requireNonNull(productFunction);
+        Objects.requireNonNull(sumFunction);
+        validateSquareMatrix(matrix);
+        validateExponentPositive(exponent);
+
+        return powerGeneric(matrix, exponent, productFunction, sumFunction, false, null, null);
+    }
+
+    /**
+     * Raises the specified square matrix to the specified power, based on the specified
+     * productFunction and sumFunction. The result is the same as multiplying the matrix with
+     * itself with {@link #multiply(Matrix, Matrix, BinaryOperator, BinaryOperator, Object)}
+     * {@code exponent - 1} times, but it is computed by repeated squaring, with at most
+     * {@code 2 * log2(exponent)} products. The intermediate products are computed in buffers
+     * which are reused, rather than in new matrices.
+     *
+     * <p>Repeated squaring relies on matrix multiplication being associative, which it is if the
+     * sum function is associative and commutative, and the product function distributes over it.
+     *
+     * @param matrix square matrix to raise
+     * @param exponent the power to raise the matrix to, which must be at least one
+     * @param productFunction function to calculate the product of two values, i.e. (x, y) -> x * y
+     * @param sumFunction function to calculate a sum of two values, i.e. (x, y) -> x + y
+     * @param identity value to return to represent zero, when dot product built from zero
+     * @return a new immutable matrix with the matrix raised to the power
+     * @throws IllegalArgumentException if the matrix is not square, or the exponent is less than one
+     */
+    public static <E> Matrix<E> power(Matrix<E> matrix, int exponent, BinaryOperator<E> productFunction, BinaryOperator<E> sumFunction, E identity) {
+        Objects.requireNonNull(matrix);
+        Objects.requireNonNull(productFunction);
+        Objects.requireNonNull(sumFunction);
+        validateSquareMatrix(matrix);
+        validateExponentPositive(exponent);
+
+        return powerGeneric(matrix, exponent, productFunction, sumFunction, true, identity, null);
+    }
+
+    /**
+     * Raises the specified square matrix to the specified power in the specified semiring, by
+     * repeated squaring with at most {@code 2 * log2(exponent)} products, which are computed
+     * like {@link #multiply(Matrix, Matrix, Semiring)} in buffers which are reused. The power
+     * zero is the identity matrix of the semiring, with one on the diagonal and zero elsewhere.
+     *
+     * <p>For example, the power {@code k} of a matrix of edge weights in the
+     * {@link Semiring#minPlus() min-plus} semiring holds the lengths of the shortest paths with
+     * {@code k} edges, and the power {@code k} of a transition matrix in
+     * {@link Semiring#doubleArithmetic() double arithmetic} steps a Markov chain {@code k} times.
+     *
+     * @param matrix square matrix to raise
+     * @param exponent the power to raise the matrix to, which must not be negative
+     * @param semiring semiring to compute the products in
+     * @return a new matrix with the matrix raised to the power
+     * @throws IllegalArgumentException if the matrix is not square, or the exponent is negative
+     * @throws NullPointerException if any argument is null, or the matrix contains null elements
+     *                              and the semiring is built-in
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> Matrix<E> power(Matrix<E> matrix, int exponent, Semiring<E> semiring) {
+        Objects.requireNonNull(matrix);
+        Objects.requireNonNull(semiring);
+        validateSquareMatrix(matrix);
+        validateExponentNotNegative(exponent);
+
+        if (exponent == 0) {
+            return identityMatrix(matrix.rows(), semiring.zero(), semiring.one());
+        }
+        Semirings.Kind kind = Semirings.kindOf(semiring);
+        Matrix<?> power = switch (kind) {
+            case DOUBLE_ARITHMETIC -> power(toDoubleMatrix(matrix), exponent);
+            case LONG_ARITHMETIC -> power(toLongMatrix(matrix), exponent);
+            // The low 32 bits of each long sum are the wrapped int sum
+            case INT_ARITHMETIC -> new IntMatrix(power(toLongMatrix(matrix), exponent));
+            case MIN_PLUS, MAX_PLUS, MAX_TIMES -> powerTropical(toDoubleMatrix(matrix), exponent, kind);
+            case OR_AND, CUSTOM -> powerGeneric(matrix, exponent, semiring::times, semiring::plus, true, semiring.zero(),
+                    semiring.annihilator().orElse(null));
+        };
+        return (Matrix<E>) power;
+    }
+
+    private static <E> Matrix<E> powerGeneric(Matrix<E> matrix, int exponent, BinaryOperator<E> productFunction, BinaryOperator<E> sumFunction,
+                                              boolean hasIdentity, E identity, E annihilator) {
+        int size = matrix.rows();
+        Object[][] power = MatrixKernels.powerBySquaring(matrix.toArray2D(), new Object[size][size], new Object[size][size], exponent,
+                (a, b, c) -> {
+                    if (hasIdentity) {
+                        for (Object[] row : c) {
+                            Arrays.fill(row, identity);
+                        }
+                    }
+                    MatrixKernels.multiplyGeneric(a, b, c, 0, size, size, size, productFunction, sumFunction, hasIdentity, annihilator);
+                },
+                (from, to) -> {
+                    for (int r = 0; r < size; r++) {
+                        System.arraycopy(from[r], 0, to[r], 0, size);
+                    }
+                });
+        return new TrustedImmutableMatrix<>(power, size, size);
+    }
+
+    private static DoubleMatrix powerTropical(DoubleMatrix matrix, int exponent, Semirings.Kind kind) {
+        int size = matrix.rows();
+        MatrixKernels.BufferProduct<double[]> product = switch (kind) {
+            case MIN_PLUS -> (a, b, c) -> MatrixKernels.multiplyMinPlus(a, b, c, 0, size, size, size);
+            case MAX_PLUS -> (a, b, c) -> MatrixKernels.multiplyMaxPlus(a, b, c, 0, size, size, size);
+            default -> (a, b, c) -> MatrixKernels.multiplyMaxTimes(a, b, c, 0, size, size, size);
+        };
+        double[] power = MatrixKernels.powerBySquaring(matrix.toDoubleArray(), new double[size * size], new double[size * size], exponent,
+                product, (from, to) -> System.arraycopy(from, 0, to, 0, from.length));
+        return new TrustedDoubleMatrix(power, size, size);
+    }
+
+    private static <E> Matrix<E> identityMatrix(int size, E zero, E one) {
+        Object[][] identity = new Object[size][size];
+        for (int r = 0; r < size; r++) {
+            Arrays.fill(identity[r], zero);
+            identity[r][r] = one;
+        }
+        return new TrustedImmutableMatrix<>(identity, size, size);
+    }
+
+    /**
+     * Raises the specified square {@code double} matrix to the specified power, by repeated
+     * squaring with at most {@code 2 * log2(exponent)} products. The products are computed like
+     * {@link #multiply(DoubleMatrix, DoubleMatrix)}, in three buffers which are reused between
+     * the products. The power zero is the identity matrix.
+     *
+     * @param matrix square matrix to raise
+     * @param exponent the power to raise the matrix to, which must not be negative
+     * @return a new matrix with the matrix raised to the power
+     * @throws IllegalArgumentException if the matrix is not square, or the exponent is negative
+     * @throws NullPointerException if the matrix is null
+     */
+    public static DoubleMatrix power(DoubleMatrix matrix, int exponent) {
+        Objects.requireNonNull(matrix);
+        validateSquareMatrix(matrix);
+        validateExponentNotNegative(exponent);
+
+        int size = matrix.rows();
+        double[] power;
+        if (exponent == 0) {
+            power = new double[size * size];
+            for (int i = 0; i < size; i++) {
+                power[i * size + i] = 1.0;
+            }
+        } else {
+            power = MatrixKernels.powerBySquaring(matrix.toDoubleArray(), new double[size * size], new double[size * size], exponent,
+                    (a, b, c) -> {
+                        Arrays.fill(c, 0.0);
+                        MatrixKernels.multiplyDouble(a, b, c, 0, size, size, size);
+                    },
+                    (from, to) -> System.arraycopy(from, 0, to, 0, from.length));
+        }
+        return new TrustedDoubleMatrix(power, size, size);
+    }
+
+    /**
+     * Raises the specified square {@code float} matrix to the specified power, by repeated
+     * squaring with at most {@code 2 * log2(exponent)} products. The products are computed like
+     * {@link #multiply(FloatMatrix, FloatMatrix)}, in three buffers which are reused between
+     * the products. The power zero is the identity matrix.
+     *
+     * @param matrix square matrix to raise
+     * @param exponent the power to raise the matrix to, which must not be negative
+     * @return a new matrix with the matrix raised to the power
+     * @throws IllegalArgumentException if the matrix is not square, or the exponent is negative
+     * @throws NullPointerException if the matrix is null
+     */
+    public static FloatMatrix power(FloatMatrix matrix, int exponent) {
+        Objects.requireNonNull(matrix);
+        validateSquareMatrix(matrix);
+        validateExponentNotNegative(exponent);
+
+        int size = matrix.rows();
+        float[] power;
+        if (exponent == 0) {
+            power = new float[size * size];
+            for (int i = 0; i < size; i++) {
+                power[i * size + i] = 1.0f;
+            }
+        } else {
+            power = MatrixKernels.powerBySquaring(matrix.toFloatArray(), new float[size * size], new float[size * size], exponent,
+                    (a, b, c) -> {
+                        Arrays.fill(c, 0.0f);
+                        MatrixKernels.multiplyFloat(a, b, c, 0, size, size, size);
+                    },
+                    (from, to) -> System.arraycopy(from, 0, to, 0, from.length));
+        }
+        return new TrustedFloatMatrix(power, size, size);
+    }
+
+    /**
+     * Raises the specified square {@code long} matrix to the specified power, by repeated
+     * squaring with at most {@code 2 * log2(exponent)} products. The products are computed like
+     * {@link #multiply(LongMatrix, LongMatrix)}, in three buffers which are reused between
+     * the products. The power zero is the identity matrix. The arithmetic overflows silently,
+     * like the {@code long} operators.
+     *
+     * @param matrix square matrix to raise
+     * @param exponent the power to raise the matrix to, which must not be negative
+     * @return a new matrix with the matrix raised to the power
+     * @throws IllegalArgumentException if the matrix is not square, or the exponent is negative
+     * @throws NullPointerException if the matrix is null
+     */
+    public static LongMatrix power(LongMatrix matrix, int exponent) {
+        Objects.requireNonNull(matrix);
+        validateSquareMatrix(matrix);
+        validateExponentNotNegative(exponent);
+
+        int size = matrix.rows();
+        long[] power;
+        if (exponent == 0) {
+            power = new long[size * size];
+            for (int i = 0; i < size; i++) {
+                power[i * size + i] = 1L;
+            }
+        } else {
+            power = MatrixKernels.powerBySquaring(matrix.toLongArray(), new long[size * size], new long[size * size], exponent,
+                    (a, b, c) -> {
+                        Arrays.fill(c, 0L);
+                        MatrixKernels.multiplyLong(a, b, c, 0, size, size, size);
+                    },
+                    (from, to) -> System.arraycopy(from, 0, to, 0, from.length));
+        }
+        return new TrustedLongMatrix(power, size, size);
+    }
+
+    /**
+     * Returns the convolution of the specified matrix with the specified kernel, i.e. a matrix
+     * of the same size where each element is the weighted sum of the elements around the same
+     * position. The kernel is centered on its element {@code (kernel.rows() / 2,
+     * kernel.columns() / 2)}, and its element {@code (i, j)} is the weight of the element at the
+     * offset {@code (i - kernel.rows() / 2, j - kernel.columns() / 2)}. As is common for image
+     * filters, the kernel is not flipped, so this is strictly a cross-correlation, which is the
+     * same for symmetric kernels such as blurs.
+     *
+     * <p>The elements outside of the matrix are read through the specified {@link Border}.
+     * Only the elements near the edges need them, so the interior of each row is computed
+     * without any bounds checks, one pass over the row for each weight.
+     *
+     * @param matrix matrix to convolve
+     * @param kernel weights of the neighbourhood
+     * @param border policy for the elements outside of the matrix
+     * @return a new matrix of the same size as the matrix
+     * @throws IllegalArgumentException if the kernel is empty
+     * @throws NullPointerException if the matrix, the kernel or the border is null
+     */
+    public static DoubleMatrix convolve(DoubleMatrix matrix, DoubleMatrix kernel, Border border) {
+        return convolve(matrix, kernel, border, 1);
+    }
+
+    /**
+     * Returns the convolution of the specified matrix with the specified kernel, repeated for
+     * the specified number of steps, such as the time steps of a diffusion. Each step convolves
+     * the result of the previous step, as {@link #convolve(DoubleMatrix, DoubleMatrix, Border)}
+     * does, but all steps share two buffers which are swapped between the steps, so nothing is
+     * allocated per step.
+     *
+     * @param matrix matrix to convolve
+     * @param kernel weights of the neighbourhood
+     * @param border policy for the elements outside of the matrix
+     * @param steps number of times to convolve
+     * @return a new matrix of the same size as the matrix, or the matrix itself if the number of
+     *         steps is zero
+     * @throws IllegalArgumentException if the kernel is empty, or the number of steps is negative
+     * @throws NullPointerException if the matrix, the kernel or the border is null
+     */
+    public static DoubleMatrix convolve(DoubleMatrix matrix, DoubleMatrix kernel, Border border, int steps) {
+        validateConvolution(matrix, kernel, border, steps);
+        return convolveDouble(matrix, kernel, border, steps, null);
+    }
+
+    /**
+     * Returns the convolution of the specified matrix with the specified kernel, computed in
+     * parallel on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #convolve(DoubleMatrix, DoubleMatrix, Border)}, but bands of rows are computed
+     * concurrently. Small matrices are convolved in the calling thread.
+     *
+     * @param matrix matrix to convolve
+     * @param kernel weights of the neighbourhood
+     * @param border policy for the elements outside of the matrix
+     * @return a new matrix of the same size as the matrix
+     * @throws IllegalArgumentException if the kernel is empty
+     * @throws NullPointerException if the matrix, the kernel or the border is null
+     */
+    public static DoubleMatrix parallelConvolve(DoubleMatrix matrix, DoubleMatrix kernel, Border border) {
+        return parallelConvolve(matrix, kernel, border, 1, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the convolution of the specified matrix with the specified kernel, computed in
+     * parallel on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #convolve(DoubleMatrix, DoubleMatrix, Border)}, but bands of rows are computed
+     * concurrently. Small matrices are convolved in the calling thread.
+     *
+     * @param matrix matrix to convolve
+     * @param kernel weights of the neighbourhood
+     * @param border policy for the elements outside of the matrix
+     * @param pool pool to compute the bands in
+     * @return a new matrix of the same size as the matrix
+     * @throws IllegalArgumentException if the kernel is empty
+     * @throws NullPointerException if the matrix, the kernel, the border or the pool is null
+     */
+    public static DoubleMatrix parallelConvolve(DoubleMatrix matrix, DoubleMatrix kernel, Border border, ForkJoinPool pool) {
+        return parallelConvolve(matrix, kernel, border, 1, pool);
+    }
+
+    /**
+     * Returns the convolution of the specified matrix with the specified kernel, repeated for
+     * the specified number of steps, and computed in parallel on the common
+     * {@link ForkJoinPool}. The result is the same as
+     * {@link #convolve(DoubleMatrix, DoubleMatrix, Border, int)}, but bands of rows of each
+     * step are computed concurrently.
+     *
+     * @param matrix matrix to convolve
+     * @param kernel weights of the neighbourhood
+     * @param border policy for the elements outside of the matrix
+     * @param steps number of times to convolve
+     * @return a new matrix of the same size as the matrix, or the matrix itself if the number of
+     *         steps is zero
+     * @throws IllegalArgumentException if the kernel is empty, or the number of steps is negative
+     * @throws NullPointerException if the matrix, the kernel or the border is null
+     */
+    public static DoubleMatrix parallelConvolve(DoubleMatrix matrix, DoubleMatrix kernel, Border border, int steps) {
+        return parallelConvolve(matrix, kernel, border, steps, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the convolution of the specified matrix with the specified kernel, repeated for
+     * the specified number of steps, and computed in parallel on the specified
+     * {@link ForkJoinPool}. The result is the same as
+     * {@link #convolve(DoubleMatrix, DoubleMatrix, Border, int)}, but bands of rows of each
+     * step are computed concurrently.
+     *
+     * @param matrix matrix to convolve
+     * @param kernel weights of the neighbourhood
+     * @param border policy for the elements outside of the matrix
+     * @param steps number of times to convolve
+     * @param pool pool to compute the bands in
+     * @return a new matrix of the same size as the matrix, or the matrix itself if the number of
+     *         steps is zero
+     * @throws IllegalArgumentException if the kernel is empty, or the number of steps is negative
+     * @throws NullPointerException if the matrix, the kernel, the border or the pool is null
+     */
+    public static DoubleMatrix parallelConvolve(DoubleMatrix matrix, DoubleMatrix kernel, Border border, int steps, ForkJoinPool pool) {
+        validateConvolution(matrix, kernel, border, steps);
+        Objects.requireNonNull(pool);
+        return convolveDouble(matrix, kernel, border, steps, pool);
+    }
+
+    private static void validateConvolution(DoubleMatrix matrix, DoubleMatrix kernel, Border border, int steps) {
+        Objects.requireNonNull(matrix);
+        Objects.requireNonNull(kernel);
+        Objects.requireNonNull(border);
+        if (kernel.rows() == 0 || kernel.columns() == 0) {
+            throw new IllegalArgumentException("Kernel must not be empty");
+        }
+        validateStepsNotNegative(steps);
+    }
+
+    private static DoubleMatrix convolveDouble(DoubleMatrix matrix, DoubleMatrix kernel, Border border, int steps, ForkJoinPool pool) {
+        int rows = matrix.rows();
+        int columns = matrix.columns();
+        int kernelRows = kernel.rows();
+        int kernelColumns = kernel.columns();
+        double[] weights = kernel.toDoubleArray();
+        return runStencilSteps(matrix, steps, (long) rows * columns * weights.length, pool, (source, target, from, to) ->
+                StencilKernels.convolve(source, target, rows, columns, weights, kernelRows, kernelColumns, border, from, to));
+    }
+
+    /**
+     * Returns the result of the specified function applied to the neighbourhood of each element
+     * of the specified matrix, such as one step of a cellular automaton. The neighbourhood holds
+     * the elements within the specified radius along both the rows and the columns, i.e. a
+     * square of {@code 2 * radius + 1} elements on each side, and the elements outside of the
+     * matrix are read through the specified {@link Border}.
+     *
+     * <p>Only the elements within the radius of the edges need the border, so the
+     * neighbourhoods of the interior read the matrix directly, without resolving any indices.
+     * A single neighbourhood object is reused for all elements, so nothing is allocated per
+     * element.
+     *
+     * @param matrix matrix to apply the function to
+     * @param radius radius of the neighbourhood
+     * @param border policy for the elements outside of the matrix
+     * @param function function to compute each element from its neighbourhood
+     * @return a new matrix of the same size as the matrix
+     * @throws IllegalArgumentException if the radius is negative
+     * @throws NullPointerException if the matrix, the border or the function is null
+     */
+    public static DoubleMatrix stencil(DoubleMatrix matrix, int radius, Border border, DoubleStencilFunction function) {
+        return stencil(matrix, radius, border, function, 1);
+    }
+
+    /**
+     * Returns the result of the specified function applied to the neighbourhood of each
+     * element, repeated for the specified number of steps, such as the generations of a
+     * cellular automaton. Each step applies the function to the result of the previous step,
+     * as {@link #stencil(DoubleMatrix, int, Border, DoubleStencilFunction)} does, but all steps
+     * share two buffers which are swapped between the steps, so nothing is allocated per step.
+     *
+     * @param matrix matrix to apply the function to
+     * @param radius radius of the neighbourhood
+     * @param border policy for the elements outside of the matrix
+     * @param function function to compute each element from its neighbourhood
+     * @param steps number of times to apply the function
+     * @return a new matrix of the same size as the matrix, or the matrix itself if the number of
+     *         steps is zero
+     * @throws IllegalArgumentException if the radius or the number of steps is negative
+     * @throws NullPointerException if the matrix, the border or the function is null
+     */
+    public static DoubleMatrix stencil(DoubleMatrix matrix, int radius, Border border, DoubleStencilFunction function, int steps) {
+        validateStencil(matrix, radius, border, function, steps);
+        return stencilDouble(matrix, radius, border, function, steps, null);
+    }
+
+    /**
+     * Returns the result of the specified function applied to the neighbourhood of each
+     * element, computed in parallel on the common {@link ForkJoinPool}. The result is the same
+     * as {@link #stencil(DoubleMatrix, int, Border, DoubleStencilFunction)}, but bands of rows
+     * are computed concurrently. Small matrices are computed in the calling thread.
+     *
+     * <p>The function is called concurrently from several threads, so it must be thread safe.
+     *
+     * @param matrix matrix to apply the function to
+     * @param radius radius of the neighbourhood
+     * @param border policy for the elements outside of the matrix
+     * @param function function to compute each element from its neighbourhood
+     * @return a new matrix of the same size as the matrix
+     * @throws IllegalArgumentException if the radius is negative
+     * @throws NullPointerException if the matrix, the border or the function is null
+     */
+    public static DoubleMatrix parallelStencil(DoubleMatrix matrix, int radius, Border border, DoubleStencilFunction function) {
+        return parallelStencil(matrix, radius, border, function, 1, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the result of the specified function applied to the neighbourhood of each
+     * element, computed in parallel on the specified {@link ForkJoinPool}. The result is the
+     * same as {@link #stencil(DoubleMatrix, int, Border, DoubleStencilFunction)}, but bands of
+     * rows are computed concurrently. Small matrices are computed in the calling thread.
+     *
+     * <p>The function is called concurrently from several threads, so it must be thread safe.
+     *
+     * @param matrix matrix to apply the function to
+     * @param radius radius of the neighbourhood
+     * @param border policy for the elements outside of the matrix
+     * @param function function to compute each element from its neighbourhood
+     * @param pool pool to compute the bands in
+     * @return a new matrix of the same size as the matrix
+     * @throws IllegalArgumentException if the radius is negative
+     * @throws NullPointerException if the matrix, the border, the function or the pool is null
+     */
+    public static DoubleMatrix parallelStencil(DoubleMatrix matrix, int radius, Border border, DoubleStencilFunction function, ForkJoinPool pool) {
+        return parallelStencil(matrix, radius, border, function, 1, pool);
+    }
+
+    /**
+     * Returns the result of the specified function applied to the neighbourhood of each
+     * element, repeated for the specified number of steps, and computed in parallel on the
+     * common {@link ForkJoinPool}. The result is the same as
+     * {@link #stencil(DoubleMatrix, int, Border, DoubleStencilFunction, int)}, but bands of
+     * rows of each step are computed concurrently.
+     *
+     * <p>The function is called concurrently from several threads, so it must be thread safe.
+     *
+     * @param matrix matrix to apply the function to
+     * @param radius radius of the neighbourhood
+     * @param border policy for the elements outside of the matrix
+     * @param function function to compute each element from its neighbourhood
+     * @param steps number of times to apply the function
+     * @return a new matrix of the same size as the matrix, or the matrix itself if the number of
+     *         steps is zero
+     * @throws IllegalArgumentException if the radius or the number of steps is negative
+     * @throws NullPointerException if the matrix, the border or the function is null
+     */
+    public static DoubleMatrix parallelStencil(DoubleMatrix matrix, int radius, Border border, DoubleStencilFunction function, int steps) {
+        return parallelStencil(matrix, radius, border, function, steps, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the result of the specified function applied to the neighbourhood of each
+     * element, repeated for the specified number of steps, and computed in parallel on the
+     * specified {@link ForkJoinPool}. The result is the same as
+     * {@link #stencil(DoubleMatrix, int, Border, DoubleStencilFunction, int)}, but bands of
+     * rows of each step are computed concurrently.
+     *
+     * <p>The function is called concurrently from several threads, so it must be thread safe.
+     *
+     * @param matrix matrix to apply the function to
+     * @param radius radius of the neighbourhood
+     * @param border policy for the elements outside of the matrix
+     * @param function function to compute each element from its neighbourhood
+     * @param steps number of times to apply the function
+     * @param pool pool to compute the bands in
+     * @return a new matrix of the same size as the matrix, or the matrix itself if the number of
+     *         steps is zero
+     * @throws IllegalArgumentException if the radius or the number of steps is negative
+     * @throws NullPointerException if the matrix, the border, the function or the pool is null
+     */
+    public static DoubleMatrix parallelStencil(DoubleMatrix matrix, int radius, Border border, DoubleStencilFunction function, int steps,
+                                               ForkJoinPool pool) {
+        validateStencil(matrix, radius, border, function, steps);
+        Objects.requireNonNull(pool);
+        return stencilDouble(matrix, radius, border, function, steps, pool);
+    }
+
+    private static void validateStencil(DoubleMatrix matrix, int radius, Border border, DoubleStencilFunction function, int steps) {
+        Objects.requireNonNull(matrix);
+        Objects.requireNonNull(border);
+        Objects.requireNonNull(function);
+        if (radius < 0) {
+            throw new IllegalArgumentException("Radius must not be negative, but was " + radius);
+        }
+        validateStepsNotNegative(steps);
+    }
+
+    private static DoubleMatrix stencilDouble(DoubleMatrix matrix, int radius, Border border, DoubleStencilFunction function, int steps,
+                                              ForkJoinPool pool) {
+        int rows = matrix.rows();
+        int columns = matrix.columns();
+        long width = 2L * radius + 1;
+        return runStencilSteps(matrix, steps, (long) rows * columns * width * width, pool, (source, target, from, to) ->
+                StencilKernels.stencil(source, target, rows, columns, radius, border, function, from, to));
+    }
+
+    /**
+     * Runs the steps of a stencil, each from the result of the previous step, between two
+     * buffers which are swapped after each step.
+     */
+    private static DoubleMatrix runStencilSteps(DoubleMatrix matrix, int steps, long work, ForkJoinPool pool, StencilKernels.StepAction action) {
+        if (steps == 0) {
+            return matrix;
+        }
+        int rows = matrix.rows();
+        double[] source = matrix.toDoubleArray();
+        double[] target = new double[source.length];
+        boolean parallel = pool != null && isWorthSplitting(rows, work);
+        for (int step = 0; step < steps; step++) {
+            double[] from = source;
+            double[] to = target;
+            if (parallel) {
+                ParallelRanges.forRange(pool, 0, rows, ParallelRanges.grainFor(pool, rows, 1, 1),
+                        (fromRow, toRow) -> action.run(from, to, fromRow, toRow));
+            } else {
+                action.run(from, to, 0, rows);
+            }
+            source = to;
+            target = from;
+        }
+        return new TrustedDoubleMatrix(source, rows, matrix.columns());
+    }
+
+    /**
+     * Returns the connected components of the specified grid, where neighbouring elements are
+     * connected if they are equal, as by {@link Objects#equals(Object, Object)}. Every element
+     * is part of exactly one component. See {@link ConnectedComponents} for the labels, sizes
+     * and bounding boxes of the components.
+     *
+     * <p>The elements are first mapped to numbers, one for each distinct value, and the
+     * components are then found with a union-find over the numbers, without allocating anything
+     * per element.
+     *
+     * @param matrix grid to find the components of
+     * @param connectivity which neighbours of each element it is connected to
+     * @return the connected components of the grid
+     * @throws NullPointerException if the matrix or the connectivity is null
+     */
+    public static <E> ConnectedComponents connectedComponents(Matrix<E> matrix, ConnectedComponents.Connectivity connectivity) {
+        Objects.requireNonNull(matrix);
+        Objects.requireNonNull(connectivity);
+        return ConnectedComponents.label(toClasses(matrix), matrix.rows(), matrix.columns(), false, 0, connectivity, null);
+    }
+
+    /**
+     * Returns the connected components of the elements of the specified grid which match the
+     * specified predicate, such as the foreground of an image. Neighbouring elements are
+     * connected if both match, and the elements which do not match have the label {@code -1}.
+     *
+     * @param matrix grid to find the components of
+     * @param predicate predicate for the elements which are part of a component
+     * @param connectivity which neighbours of each element it is connected to
+     * @return the connected components of the grid
+     * @throws NullPointerException if the matrix, the predicate or the connectivity is null
+     */
+    public static <E> ConnectedComponents connectedComponents(Matrix<E> matrix, Predicate<? super E> predicate,
+                                                              ConnectedComponents.Connectivity connectivity) {
+        Objects.requireNonNull(matrix);
+        Objects.requireNonNull(predicate);
+        Objects.requireNonNull(connectivity);
+        return connectedComponentsMatching(matrix, predicate, connectivity, null);
+    }
+
+    /**
+     * Returns the connected components of the specified grid of primitive {@code int}
+     * elements, where neighbouring elements are connected if they are equal. The result is the
+     * same as {@link #connectedComponents(Matrix, ConnectedComponents.Connectivity)}, but the
+     * elements are compared unboxed.
+     *
+     * @param matrix grid to find the components of
+     * @param connectivity which neighbours of each element it is connected to
+     * @return the connected components of the grid
+     * @throws NullPointerException if the matrix or the connectivity is null
+     */
+    public static ConnectedComponents connectedComponents(IntMatrix matrix, ConnectedComponents.Connectivity connectivity) {
+        Objects.requireNonNull(matrix);
+        Objects.requireNonNull(connectivity);
+        return ConnectedComponents.label(matrix.toIntArray(), matrix.rows(), matrix.columns(), false, 0, connectivity, null);
+    }
+
+    /**
+     * Returns the connected components of the specified grid, where neighbouring elements are
+     * connected if they are equal, found in parallel on the common {@link ForkJoinPool}. The
+     * result is the same as {@link #connectedComponents(Matrix, ConnectedComponents.Connectivity)},
+     * but bands of rows are labeled concurrently, and then merged. Small grids are labeled in
+     * the calling thread.
+     *
+     * @param matrix grid to find the components of
+     * @param connectivity which neighbours of each element it is connected to
+     * @return the connected components of the grid
+     * @throws NullPointerException if the matrix or the connectivity is null
+     */
+    public static <E> ConnectedComponents parallelConnectedComponents(Matrix<E> matrix, ConnectedComponents.Connectivity connectivity) {
+        return parallelConnectedComponents(matrix, connectivity, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the connected components of the specified grid, where neighbouring elements are
+     * connected if they are equal, found in parallel on the specified {@link ForkJoinPool}. The
+     * result is the same as {@link #connectedComponents(Matrix, ConnectedComponents.Connectivity)},
+     * but bands of rows are labeled concurrently, and then merged. Small grids are labeled in
+     * the calling thread.
+     *
+     * @param matrix grid to find the components of
+     * @param connectivity which neighbours of each element it is connected to
+     * @param pool pool to label the bands in
+     * @return the connected components of the grid
+     * @throws NullPointerException if the matrix, the connectivity or the pool is null
+     */
+    public static <E> ConnectedComponents parallelConnectedComponents(Matrix<E> matrix, ConnectedComponents.Connectivity connectivity,
+                                                                      ForkJoinPool pool) {
+        Objects.requireNonNull(matrix);
+        Objects.requireNonNull(connectivity);
+        Objects.requireNonNull(pool);
+        return ConnectedComponents.label(toClasses(matrix), matrix.rows(), matrix.columns(), false, 0, connectivity, pool);
+    }
+
+    /**
+     * Returns the connected components of the elements of the specified grid which match the
+     * specified predicate, found in parallel on the common {@link ForkJoinPool}. The result is
+     * the same as {@link #connectedComponents(Matrix, Predicate, ConnectedComponents.Connectivity)},
+     * but bands of rows are labeled concurrently, and then merged.
+     *
+     * <p>The predicate is called concurrently from several threads, so it must be thread safe.
+     *
+     * @param matrix grid to find the components of
+     * @param predicate predicate for the elements which are part of a component
+     * @param connectivity which neighbours of each element it is connected to
+     * @return the connected components of the grid
+     * @throws NullPointerException if the matrix, the predicate or the connectivity is null
+     */
+    public static <E> ConnectedComponents parallelConnectedComponents(Matrix<E> matrix, Predicate<? super E> predicate,
+                                                                      ConnectedComponents.Connectivity connectivity) {
+        return parallelConnectedComponents(matrix, predicate, connectivity, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the connected components of the elements of the specified grid which match the
+     * specified predicate, found in parallel on the specified {@link ForkJoinPool}. The result
+     * is the same as {@link #connectedComponents(Matrix, Predicate, ConnectedComponents.Connectivity)},
+     * but bands of rows are labeled concurrently, and then merged.
+     *
+     * <p>The predicate is called concurrently from several threads, so it must be thread safe.
+     *
+     * @param matrix grid to find the components of
+     * @param predicate predicate for the elements which are part of a component
+     * @param connectivity which neighbours of each element it is connected to
+     * @param pool pool to label the bands in
+     * @return the connected components of the grid
+     * @throws NullPointerException if the matrix, the predicate, the connectivity or the pool is null
+     */
+    public static <E> ConnectedComponents parallelConnectedComponents(Matrix<E> matrix, Predicate<? super E> predicate,
+                                                                      ConnectedComponents.Connectivity connectivity, ForkJoinPool pool) {
+        Objects.requireNonNull(matrix);
+        Objects.requireNonNull(predicate);
+        Objects.requireNonNull(connectivity);
+        Objects.requireNonNull(pool);
+        return connectedComponentsMatching(matrix, predicate, connectivity, pool);
+    }
+
+    /**
+     * Returns the connected components of the specified grid of primitive {@code int}
+     * elements, found in parallel on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #connectedComponents(IntMatrix, ConnectedComponents.Connectivity)}.
+     *
+     * @param matrix grid to find the components of
+     * @param connectivity which neighbours of each element it is connected to
+     * @return the connected components of the grid
+     * @throws NullPointerException if the matrix or the connectivity is null
+     */
+    public static ConnectedComponents parallelConnectedComponents(IntMatrix matrix, ConnectedComponents.Connectivity connectivity) {
+        return parallelConnectedComponents(matrix, connectivity, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the connected components of the specified grid of primitive {@code int}
+     * elements, found in parallel on the specified {@link ForkJoinPool}. The result is the same
+     * as {@link #connectedComponents(IntMatrix, ConnectedComponents.Connectivity)}.
+     *
+     * @param matrix grid to find the components of
+     * @param connectivity which neighbours of each element it is connected to
+     * @param pool pool to label the bands in
+     * @return the connected components of the grid
+     * @throws NullPointerException if the matrix, the connectivity or the pool is null
+     */
+    public static ConnectedComponents parallelConnectedComponents(IntMatrix matrix, ConnectedComponents.Connectivity connectivity,
+                                                                  ForkJoinPool pool) {
+        Objects.requireNonNull(matrix);
+        Objects.requireNonNull(connectivity);
+        Objects.requireNonNull(pool);
+        return ConnectedComponents.label(matrix.toIntArray(), matrix.rows(), matrix.columns(), false, 0, connectivity, pool);
+    }
+
+    /**
+     * Maps each element of the matrix to a number, which is equal for equal elements.
+     */
+    private static int[] toClasses(Matrix<?> matrix) {
+        int columns = matrix.columns();
+        int[] classes = new int[Math.multiplyExact(matrix.rows(), columns)];
+        Map<Object, Integer> numbers = new HashMap<>();
+        Object[][] elements = matrix.toArray2D();
+        for (int r = 0; r < elements.length; r++) {
+            for (int c = 0; c < columns; c++) {
+                classes[r * columns + c] = numbers.computeIfAbsent(elements[r][c], e -> numbers.size());
+            }
+        }
+        return classes;
+    }
+
+    private static <E> ConnectedComponents connectedComponentsMatching(Matrix<E> matrix, Predicate<? super E> predicate,
+                                                                       ConnectedComponents.Connectivity connectivity, ForkJoinPool pool) {
+        int rows = matrix.rows();
+        int columns = matrix.columns();
+        int[] classes = new int[Math.multiplyExact(rows, columns)];
+        Object[][] elements = matrix.toArray2D();
+        ParallelRanges.RangeAction action = (from, to) -> {
+            for (int r = from; r < to; r++) {
+                for (int c = 0; c < columns; c++) {
+                    @SuppressWarnings("unchecked")
+                    E element = (E) elements[r][c];
+                    classes[r * columns + c] = predicate.test(element) ? 1 : 0;
+                }
+            }
+        };
+        if (pool == null || !isWorthSplitting(rows, classes.length)) {
+            action.run(0, rows);
+        } else {
+            ParallelRanges.forRange(pool, 0, rows, ParallelRanges.grainFor(pool, rows, 1, 1), action);
+        }
+        return ConnectedComponents.label(classes, rows, columns, true, 0, connectivity, pool);
+    }
+
+    /**
+     * Returns the summed-area table of the specified matrix of primitive {@code double}
+     * elements, which answers the sum, mean and count of any rectangle of the matrix in
+     * constant time. The table is built in a single pass over the elements.
+     *
+     * @param matrix matrix to sum
+     * @return the summed-area table of the matrix
+     * @throws NullPointerException if the matrix is null
+     */
+    public static DoubleSummedAreaTable summedAreaTable(DoubleMatrix matrix) {
+        return DoubleSummedAreaTable.build(matrix.toDoubleArray(), matrix.rows(), matrix.columns(), null);
+    }
+
+    /**
+     * Returns the summed-area table of the specified matrix of primitive {@code double}
+     * elements, built in parallel on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #summedAreaTable(DoubleMatrix)}.
+     *
+     * @param matrix matrix to sum
+     * @return the summed-area table of the matrix
+     * @throws NullPointerException if the matrix is null
+     */
+    public static DoubleSummedAreaTable parallelSummedAreaTable(DoubleMatrix matrix) {
+        return parallelSummedAreaTable(matrix, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the summed-area table of the specified matrix of primitive {@code double}
+     * elements, built in parallel on the specified {@link ForkJoinPool}. The rows are summed in
+     * bands of rows, and then the columns in bands of columns. The result is the same as
+     * {@link #summedAreaTable(DoubleMatrix)}.
+     *
+     * @param matrix matrix to sum
+     * @param pool pool to build the table in
+     * @return the summed-area table of the matrix
+     * @throws NullPointerException if the matrix or the pool is null
+     */
+    public static DoubleSummedAreaTable parallelSummedAreaTable(DoubleMatrix matrix, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return DoubleSummedAreaTable.build(matrix.toDoubleArray(), matrix.rows(), matrix.columns(), summingPool(matrix, pool));
+    }
+
+    /**
+     * Returns the summed-area table of the specified matrix of primitive {@code long}
+     * elements, which answers the sum, mean and count of any rectangle of the matrix in
+     * constant time. The table is built in a single pass over the elements.
+     *
+     * @param matrix matrix to sum
+     * @return the summed-area table of the matrix
+     * @throws NullPointerException if the matrix is null
+     */
+    public static LongSummedAreaTable summedAreaTable(LongMatrix matrix) {
+        return LongSummedAreaTable.build(matrix.toLongArray(), matrix.rows(), matrix.columns(), null);
+    }
+
+    /**
+     * Returns the summed-area table of the specified matrix of primitive {@code long}
+     * elements, built in parallel on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #summedAreaTable(LongMatrix)}.
+     *
+     * @param matrix matrix to sum
+     * @return the summed-area table of the matrix
+     * @throws NullPointerException if the matrix is null
+     */
+    public static LongSummedAreaTable parallelSummedAreaTable(LongMatrix matrix) {
+        return parallelSummedAreaTable(matrix, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the summed-area table of the specified matrix of primitive {@code long}
+     * elements, built in parallel on the specified {@link ForkJoinPool}. The result is the same
+     * as {@link #summedAreaTable(LongMatrix)}.
+     *
+     * @param matrix matrix to sum
+     * @param pool pool to build the table in
+     * @return the summed-area table of the matrix
+     * @throws NullPointerException if the matrix or the pool is null
+     */
+    public static LongSummedAreaTable parallelSummedAreaTable(LongMatrix matrix, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return LongSummedAreaTable.build(matrix.toLongArray(), matrix.rows(), matrix.columns(), summingPool(matrix, pool));
+    }
+
+    /**
+     * Returns the summed-area table of the specified matrix of primitive {@code int}
+     * elements, which are summed as {@code long}, so the sums do not overflow. The table is
+     * built in a single pass over the elements.
+     *
+     * @param matrix matrix to sum
+     * @return the summed-area table of the matrix
+     * @throws NullPointerException if the matrix is null
+     */
+    public static LongSummedAreaTable summedAreaTable(IntMatrix matrix) {
+        return LongSummedAreaTable.build(matrix.toIntArray(), matrix.rows(), matrix.columns(), null);
+    }
+
+    /**
+     * Returns the summed-area table of the specified matrix of primitive {@code int}
+     * elements, built in parallel on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #summedAreaTable(IntMatrix)}.
+     *
+     * @param matrix matrix to sum
+     * @return the summed-area table of the matrix
+     * @throws NullPointerException if the matrix is null
+     */
+    public static LongSummedAreaTable parallelSummedAreaTable(IntMatrix matrix) {
+        return parallelSummedAreaTable(matrix, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the summed-area table of the specified matrix of primitive {@code int}
+     * elements, built in parallel on the specified {@link ForkJoinPool}. The result is the same
+     * as {@link #summedAreaTable(IntMatrix)}.
+     *
+     * @param matrix matrix to sum
+     * @param pool pool to build the table in
+     * @return the summed-area table of the matrix
+     * @throws NullPointerException if the matrix or the pool is null
+     */
+    public static LongSummedAreaTable parallelSummedAreaTable(IntMatrix matrix, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return LongSummedAreaTable.build(matrix.toIntArray(), matrix.rows(), matrix.columns(), summingPool(matrix, pool));
+    }
+
+    /**
+     * Returns a summed-area table which counts the elements of the specified matrix which
+     * match the specified predicate, i.e. the table of a matrix which is one where the
+     * predicate matches and zero elsewhere. The sum of any rectangle of the table is the
+     * number of elements in it which match.
+     *
+     * @param matrix matrix to count the elements of
+     * @param predicate predicate of the elements to count
+     * @param <E> the type of elements in the matrix
+     * @return the summed-area table of the matching elements
+     * @throws NullPointerException if the matrix or the predicate is null
+     */
+    public static <E> LongSummedAreaTable summedAreaTable(Matrix<E> matrix, Predicate<? super E> predicate) {
+        Objects.requireNonNull(predicate);
+        return LongSummedAreaTable.build(toMatches(matrix, predicate, null), matrix.rows(), matrix.columns(), null);
+    }
+
+    /**
+     * Returns a summed-area table which counts the elements of the specified matrix which
+     * match the specified predicate, built in parallel on the common {@link ForkJoinPool}. The
+     * result is the same as {@link #summedAreaTable(Matrix, Predicate)}.
+     *
+     * @param matrix matrix to count the elements of
+     * @param predicate predicate of the elements to count
+     * @param <E> the type of elements in the matrix
+     * @return the summed-area table of the matching elements
+     * @throws NullPointerException if the matrix or the predicate is null
+     */
+    public static <E> LongSummedAreaTable parallelSummedAreaTable(Matrix<E> matrix, Predicate<? super E> predicate) {
+        return parallelSummedAreaTable(matrix, predicate, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns a summed-area table which counts the elements of the specified matrix which
+     * match the specified predicate, built in parallel on the specified {@link ForkJoinPool}.
+     * The predicate is tested in bands of rows. The result is the same as
+     * {@link #summedAreaTable(Matrix, Predicate)}.
+     *
+     * @param matrix matrix to count the elements of
+     * @param predicate predicate of the elements to count
+     * @param pool pool to build the table in
+     * @param <E> the type of elements in the matrix
+     * @return the summed-area table of the matching elements
+     * @throws NullPointerException if the matrix, the predicate or the pool is null
+     */
+    public static <E> LongSummedAreaTable parallelSummedAreaTable(Matrix<E> matrix, Predicate<? super E> predicate, ForkJoinPool pool) {
+        Objects.requireNonNull(predicate);
+        Objects.requireNonNull(pool);
+        ForkJoinPool summingPool = summingPool(matrix, pool);
+        return LongSummedAreaTable.build(toMatches(matrix, predicate, summingPool), matrix.rows(), matrix.columns(), summingPool);
+    }
+
+    /**
+     * Returns the summed-area table of the specified matrix, based on the specified sum and
+     * difference, which answers the sum and count of any rectangle of the matrix in constant
+     * time. The sum must be associative and commutative with the identity {@code zero}, and
+     * the difference must undo it, i.e. {@code minus(plus(x, y), y)} must equal {@code x}.
+     * The table is built in a single pass over the elements.
+     *
+     * @param matrix matrix to sum
+     * @param plus function to calculate the sum of two values, i.e. (x, y) -> x + y
+     * @param minus function to calculate the difference of two values, i.e. (x, y) -> x - y
+     * @param zero identity of the sum
+     * @param <E> the type of elements in the matrix
+     * @return the summed-area table of the matrix
+     * @throws NullPointerException if any argument is null
+     */
+    public static <E> SummedAreaTable<E> summedAreaTable(Matrix<E> matrix, BinaryOperator<E> plus, BinaryOperator<E> minus, E zero) {
+        validateGroup(plus, minus, zero);
+        return SummedAreaTable.build(matrix.toArray2D(), matrix.rows(), matrix.columns(), plus, minus, zero, null);
+    }
+
+    /**
+     * Returns the summed-area table of the specified matrix, based on the specified sum and
+     * difference, built in parallel on the common {@link ForkJoinPool}. The result is the same
+     * as {@link #summedAreaTable(Matrix, BinaryOperator, BinaryOperator, Object)}.
+     *
+     * @param matrix matrix to sum
+     * @param plus function to calculate the sum of two values, i.e. (x, y) -> x + y
+     * @param minus function to calculate the difference of two values, i.e. (x, y) -> x - y
+     * @param zero identity of the sum
+     * @param <E> the type of elements in the matrix
+     * @return the summed-area table of the matrix
+     * @throws NullPointerException if any argument is null
+     */
+    public static <E> SummedAreaTable<E> parallelSummedAreaTable(Matrix<E> matrix, BinaryOperator<E> plus, BinaryOperator<E> minus,
+                                                                 E zero) {
+        return parallelSummedAreaTable(matrix, plus, minus, zero, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the summed-area table of the specified matrix, based on the specified sum and
+     * difference, built in parallel on the specified {@link ForkJoinPool}. The rows are summed
+     * in bands of rows, and then the columns in bands of columns. The result is the same as
+     * {@link #summedAreaTable(Matrix, BinaryOperator, BinaryOperator, Object)}.
+     *
+     * @param matrix matrix to sum
+     * @param plus function to calculate the sum of two values, i.e. (x, y) -> x + y
+     * @param minus function to calculate the difference of two values, i.e. (x, y) -> x - y
+     * @param zero identity of the sum
+     * @param pool pool to build the table in
+     * @param <E> the type of elements in the matrix
+     * @return the summed-area table of the matrix
+     * @throws NullPointerException if any argument is null
+     */
+    public static <E> SummedAreaTable<E> parallelSummedAreaTable(Matrix<E> matrix, BinaryOperator<E> plus, BinaryOperator<E> minus,
+                                                                 E zero, ForkJoinPool pool) {
+        validateGroup(plus, minus, zero);
+        Objects.requireNonNull(pool);
+        return SummedAreaTable.build(matrix.toArray2D(), matrix.rows(), matrix.columns(), plus, minus, zero, summingPool(matrix, pool));
+    }
+
+    /**
+     * Returns the pool to build a summed-area table of the matrix in, or null if the matrix is
+     * too small to be worth splitting.
+     */
+    private static ForkJoinPool summingPool(Matrix<?> matrix, ForkJoinPool pool) {
+        return isWorthSplitting(matrix.rows(), (long) matrix.rows() * matrix.columns()) ? pool : null;
+    }
+
+    private static <E> int[] toMatches(Matrix<E> matrix, Predicate<? super E> predicate, ForkJoinPool pool) {
+        int rows = matrix.rows();
+        int columns = matrix.columns();
+        int[] matches = new int[Math.multiplyExact(rows, columns)];
+        Object[][] elements = matrix.toArray2D();
+        ParallelRanges.RangeAction action = (from, to) -> {
+            for (int r = from; r < to; r++) {
+                for (int c = 0; c < columns; c++) {
+                    @SuppressWarnings("unchecked")
+                    E element = (E) elements[r][c];
+                    matches[r * columns + c] = predicate.test(element) ? 1 : 0;
+                }
+            }
+        };
+        if (pool == null) {
+            action.run(0, rows);
+        } else {
+            ParallelRanges.forRange(pool, 0, rows, ParallelRanges.grainFor(pool, rows, 1, 1), action);
+        }
+        return matches;
+    }
+
+    /**
+     * Performs complex matrix multiplication between the specified matrices. The elements are
+     * multiplied directly on their interleaved real and imaginary parts, without creating any
+     * {@link Complex} instances. The number of rows will be taken from the first matrix, and
+     * number of columns from the second matrix. If the column count of the first matrix is zero,
+     * all elements of the result are zero.
+     *
+     * <p>To multiply with the conjugate transpose of a matrix, pass
+     * {@link ComplexMatrix#conjugateTranspose()}.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @return a new complex matrix with the multiplied result
+     * @throws IllegalArgumentException if matrix 1 column count is different from matrix 2 row count
+     * @throws NullPointerException if any of the matrices is null
+     */
+    public static ComplexMatrix multiply(ComplexMatrix matrix1, ComplexMatrix matrix2) {
+        Objects.requireNonNull(matrix1);
+        Objects.requireNonNull(matrix2);
+        validateMatrix1ColumnsEqualToMatrix2Rows(matrix1, matrix2);
+
+        int rows = matrix1.rows();
+        int inner = matrix1.columns();
+        int columns = matrix2.columns();
+        double[] a = matrix1.toInterleavedArray();
+        double[] b = matrix2.toInterleavedArray();
+        double[] product = new double[2 * rows * columns];
+        for (int r = 0; r < rows; r++) {
+            int productRow = 2 * r * columns;
+            for (int k = 0; k < inner; k++) {
+                double re = a[2 * (r * inner + k)];
+                double im = a[2 * (r * inner + k) + 1];
+                int bRow = 2 * k * columns;
+                for (int j = 0; j < 2 * columns; j += 2) {
+                    double bRe = b[bRow + j];
+                    double bIm = b[bRow + j + 1];
+                    product[productRow + j] += re * bRe - im * bIm;
+                    product[productRow + j + 1] += re * bIm + im * bRe;
+                }
+            }
+        }
+        return new TrustedComplexMatrix(product, rows, columns);
+    }
+
+    /**
+     * Returns the element-wise sum of two complex matrices of equal size.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @return a new complex matrix where each element is {@code matrix1(r, c) + matrix2(r, c)}
+     * @throws IllegalArgumentException if the matrices are of different size
+     * @throws NullPointerException if any of the matrices is null
+     */
+    public static ComplexMatrix add(ComplexMatrix matrix1, ComplexMatrix matrix2) {
+        validateMatricesOfEqualSize(matrix1, matrix2);
+        double[] sum = matrix1.toInterleavedArray();
+        double[] other = matrix2.toInterleavedArray();
+        for (int i = 0; i < sum.length; i++) {
+            sum[i] += other[i];
+        }
+        return new TrustedComplexMatrix(sum, matrix1.rows(), matrix1.columns());
+    }
+
+    /**
+     * Returns the element-wise difference of two complex matrices of equal size.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @return a new complex matrix where each element is {@code matrix1(r, c) - matrix2(r, c)}
+     * @throws IllegalArgumentException if the matrices are of different size
+     * @throws NullPointerException if any of the matrices is null
+     */
+    public static ComplexMatrix subtract(ComplexMatrix matrix1, ComplexMatrix matrix2) {
+        validateMatricesOfEqualSize(matrix1, matrix2);
+        double[] difference = matrix1.toInterleavedArray();
+        double[] other = matrix2.toInterleavedArray();
+        for (int i = 0; i < difference.length; i++) {
+            difference[i] -= other[i];
+        }
+        return new TrustedComplexMatrix(difference, matrix1.rows(), matrix1.columns());
+    }
+
+    /**
+     * Returns the element-wise (Hadamard) product of two complex matrices of equal size.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @return a new complex matrix where each element is {@code matrix1(r, c) * matrix2(r, c)}
+     * @throws IllegalArgumentException if the matrices are of different size
+     * @throws NullPointerException if any of the matrices is null
+     */
+    public static ComplexMatrix multiplyElementWise(ComplexMatrix matrix1, ComplexMatrix matrix2) {
+        validateMatricesOfEqualSize(matrix1, matrix2);
+        double[] product = matrix1.toInterleavedArray();
+        double[] other = matrix2.toInterleavedArray();
+        for (int i = 0; i < product.length; i += 2) {
+            double re = product[i];
+            double im = product[i + 1];
+            product[i] = re * other[i] - im * other[i + 1];
+            product[i + 1] = re * other[i + 1] + im * other[i];
+        }
+        return new TrustedComplexMatrix(product, matrix1.rows(), matrix1.columns());
+    }
+
+    /**
+     * Returns the specified complex matrix, with each element multiplied by the specified factor.
+     *
+     * @param matrix matrix to scale
+     * @param factor factor to multiply each element with
+     * @return a new complex matrix where each element is {@code matrix(r, c) * factor}
+     * @throws NullPointerException if the matrix or the factor is null
+     */
+    public static ComplexMatrix scale(ComplexMatrix matrix, Complex factor) {
+        Objects.requireNonNull(factor);
+        double[] product = matrix.toInterleavedArray();
+        double factorRe = factor.real();
+        double factorIm = factor.imaginary();
+        for (int i = 0; i < product.length; i += 2) {
+            double re = product[i];
+            double im = product[i + 1];
+            product[i] = re * factorRe - im * factorIm;
+            product[i + 1] = re * factorIm + im * factorRe;
+        }
+        return new TrustedComplexMatrix(product, matrix.rows(), matrix.columns());
+    }
+
+    /**
+     * Returns the element-wise sum of two {@code double} matrices of equal size, computed with
+     * SIMD instructions when available.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @return a new matrix where each element is {@code matrix1(r, c) + matrix2(r, c)}
+     * @throws IllegalArgumentException if the matrices are of different size
+     * @throws NullPointerException if any of the matrices is null
+     */
+    public static DoubleMatrix add(DoubleMatrix matrix1, DoubleMatrix matrix2) {
+        validateMatricesOfEqualSize(matrix1, matrix2);
+        double[] sum = matrix1.toDoubleArray();
+        PrimitiveOps.INSTANCE.add(sum, matrix2.toDoubleArray(), sum);
+        return new TrustedDoubleMatrix(sum, matrix1.rows(), matrix1.columns());
+    }
+
+    /**
+     * Returns the element-wise (Hadamard) product of two {@code double} matrices of equal size,
+     * computed with SIMD instructions when available.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @return a new matrix where each element is {@code matrix1(r, c) * matrix2(r, c)}
+     * @throws IllegalArgumentException if the matrices are of different size
+     * @throws NullPointerException if any of the matrices is null
+     */
+    public static DoubleMatrix multiplyElementWise(DoubleMatrix matrix1, DoubleMatrix matrix2) {
+        validateMatricesOfEqualSize(matrix1, matrix2);
+        double[] product = matrix1.toDoubleArray();
+        PrimitiveOps.INSTANCE.multiply(product, matrix2.toDoubleArray(), product);
+        return new TrustedDoubleMatrix(product, matrix1.rows(), matrix1.columns());
+    }
+
+    /**
+     * Returns the specified {@code double} matrix, with each element multiplied by the specified
+     * factor, computed with SIMD instructions when available.
+     *
+     * @param matrix matrix to scale
+     * @param factor factor to multiply each element with
+     * @return a new matrix where each element is {@code matrix(r, c) * factor}
+     * @throws NullPointerException if the matrix is null
+     */
+    public static DoubleMatrix scale(DoubleMatrix matrix, double factor) {
+        double[] product = matrix.toDoubleArray();
+        PrimitiveOps.INSTANCE.scale(product, factor, product);
+        return new TrustedDoubleMatrix(product, matrix.rows(), matrix.columns());
+    }
+
+    /**
+     * Returns the element-wise sum of two {@code float} matrices of equal size, computed with
+     * SIMD instructions when available.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @return a new matrix where each element is {@code matrix1(r, c) + matrix2(r, c)}
+     * @throws IllegalArgumentException if the matrices are of different size
+     * @throws NullPointerException if any of the matrices is null
+     */
+    public static FloatMatrix add(FloatMatrix matrix1, FloatMatrix matrix2) {
+        validateMatricesOfEqualSize(matrix1, matrix2);
+        float[] sum = matrix1.toFloatArray();
+        PrimitiveOps.INSTANCE.add(sum, matrix2.toFloatArray(), sum);
+        return new TrustedFloatMatrix(sum, matrix1.rows(), matrix1.columns());
+    }
+
+    /**
+     * Returns the element-wise (Hadamard) product of two {@code float} matrices of equal size,
+     * computed with SIMD instructions when available.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @return a new matrix where each element is {@code matrix1(r, c) * matrix2(r, c)}
+     * @throws IllegalArgumentException if the matrices are of different size
+     * @throws NullPointerException if any of the matrices is null
+     */
+    public static FloatMatrix multiplyElementWise(FloatMatrix matrix1, FloatMatrix matrix2) {
+        validateMatricesOfEqualSize(matrix1, matrix2);
+        float[] product = matrix1.toFloatArray();
+        PrimitiveOps.INSTANCE.multiply(product, matrix2.toFloatArray(), product);
+        return new TrustedFloatMatrix(product, matrix1.rows(), matrix1.columns());
+    }
+
+    /**
+     * Returns the specified {@code float} matrix, with each element multiplied by the specified
+     * factor, computed with SIMD instructions when available.
+     *
+     * @param matrix matrix to scale
+     * @param factor factor to multiply each element with
+     * @return a new matrix where each element is {@code matrix(r, c) * factor}
+     * @throws NullPointerException if the matrix is null
+     */
+    public static FloatMatrix scale(FloatMatrix matrix, float factor) {
+        float[] product = matrix.toFloatArray();
+        PrimitiveOps.INSTANCE.scale(product, factor, product);
+        return new TrustedFloatMatrix(product, matrix.rows(), matrix.columns());
+    }
+
+    /**
+     * Returns the element-wise sum of two {@code int} matrices of equal size, computed with
+     * SIMD instructions when available.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @return a new matrix where each element is {@code matrix1(r, c) + matrix2(r, c)}
+     * @throws IllegalArgumentException if the matrices are of different size
+     * @throws NullPointerException if any of the matrices is null
+     */
+    public static IntMatrix add(IntMatrix matrix1, IntMatrix matrix2) {
+        validateMatricesOfEqualSize(matrix1, matrix2);
+        int[] sum = matrix1.toIntArray();
+        PrimitiveOps.INSTANCE.add(sum, matrix2.toIntArray(), sum);
+        return new TrustedIntMatrix(sum, matrix1.rows(), matrix1.columns());
+    }
+
+    /**
+     * Returns the element-wise (Hadamard) product of two {@code int} matrices of equal size,
+     * computed with SIMD instructions when available.
+     *
+     * @param matrix1 first matrix
+     * @param matrix2 second matrix
+     * @return a new matrix where each element is {@code matrix1(r, c) * matrix2(r, c)}
+     * @throws IllegalArgumentException if the matrices are of different size
+     * @throws NullPointerException if any of the matrices is null
+     */
+    public static IntMatrix multiplyElementWise(IntMatrix matrix1, IntMatrix matrix2) {
+        validateMatricesOfEqualSize(matrix1, matrix2);
+        int[] product = matrix1.toIntArray();
+        PrimitiveOps.INSTANCE.multiply(product, matrix2.toIntArray(), product);
+        return new TrustedIntMatrix(product, matrix1.rows(), matrix1.columns());
+    }
+
+    /**
+     * Returns the specified {@code int} matrix, with each element multiplied by the specified
+     * factor, computed with SIMD instructions when available.
+     *
+     * @param matrix matrix to scale
+     * @param factor factor to multiply each element with
+     * @return a new matrix where each element is {@code matrix(r, c) * factor}
+     * @throws NullPointerException if the matrix is null
+     */
+    public static IntMatrix scale(IntMatrix matrix, int factor) {
+        int[] product = matrix.toIntArray();
+        PrimitiveOps.INSTANCE.scale(product, factor, product);
+        return new TrustedIntMatrix(product, matrix.rows(), matrix.columns());
+    }
+
+    private static class TrustedDoubleArray extends DoubleArray {
+        private TrustedDoubleArray(double[] elementData) {
+            super(elementData, true);
+        }
+    }
+
+    private static class TrustedFloatArray extends FloatArray {
+        private TrustedFloatArray(float[] elementData) {
+            super(elementData, true);
+        }
+    }
+
+    private static class TrustedLongArray extends LongArray {
+        private TrustedLongArray(long[] elementData) {
+            super(elementData, true);
+        }
+    }
+
+    private static class TrustedSparseDoubleMatrix extends SparseDoubleMatrix {
+        private TrustedSparseDoubleMatrix(int[] rowPointers, int[] columnIndices, double[] values, int rows, int columns) {
+            super(rowPointers, columnIndices, values, true, rows, columns);
+        }
+    }
+
+    private static class TrustedDoubleMatrix extends DoubleMatrix {
+        private TrustedDoubleMatrix(double[] elementData, int rows, int columns) {
+            super(elementData, true, rows, columns);
+        }
+    }
+
+    private static class TrustedFloatMatrix extends FloatMatrix {
+        private TrustedFloatMatrix(float[] elementData, int rows, int columns) {
+            super(elementData, true, rows, columns);
+        }
+    }
+
+    private static class TrustedLongMatrix extends LongMatrix {
+        private TrustedLongMatrix(long[] elementData, int rows, int columns) {
+            super(elementData, true, rows, columns);
+        }
+    }
+
+    private static class TrustedIntMatrix extends IntMatrix {
+        private TrustedIntMatrix(int[] elementData, int rows, int columns) {
+            super(elementData, true, rows, columns);
+        }
+    }
+
+    private static class TrustedComplexMatrix extends ComplexMatrix {
+        private TrustedComplexMatrix(double[] elementData, int rows, int columns) {
+            super(elementData, true, rows, columns);
+        }
+    }
+
+    private static void validateSquareMatrix(Matrix<?> matrix) {
+        if (matrix.rows() != matrix.columns()) {
+            throw new IllegalArgumentException("Matrix must be square, but size was " + matrix.rows() + "x" + matrix.columns());
+        }
+    }
+
+    private static void validateSquareArray(Object[][] matrix) {
+        Objects.requireNonNull(matrix);
+        for (int r = 0; r < matrix.length; r++) {
+            if (matrix[r].length != matrix.length) {
+                throw new IllegalArgumentException("Array must be square, but row " + r + " had length " + matrix[r].length + " of " + matrix.length + " rows");
+            }
+        }
+    }
+
+    private static void validateSquareArray(int length, int size) {
+        if (size < 0 || length != (long) size * size) {
+            throw new IllegalArgumentException("Length of array must be size * size, but length was " + length + " and size was " + size);
+        }
+    }
+
+    private static void validateRectangularArray(Object[][] matrix) {
+        Objects.requireNonNull(matrix);
+        for (int r = 1; r < matrix.length; r++) {
+            if (matrix[r].length != matrix[0].length) {
+                throw new IllegalArgumentException("Array must be rectangular, but row " + r + " had length " + matrix[r].length + " and row 0 " + matrix[0].length);
+            }
+        }
+    }
+
+    private static void validateRectangularArray(int length, int rows, int columns) {
+        if (rows < 0 || columns < 0 || length != (long) rows * columns) {
+            throw new IllegalArgumentException("Length of array must be rows * columns, but length was " + length + " and size was " + rows + "x" + columns);
+        }
+    }
+
+    private static void validateStepsNotNegative(int steps) {
+        if (steps < 0) {
+            throw new IllegalArgumentException("Number of steps must not be negative, but was " + steps);
+        }
+    }
+
+    private static <E> void validateGroup(BinaryOperator<E> plus, BinaryOperator<E> minus, E zero) {
+        Objects.requireNonNull(plus);
+        Objects.requireNonNull(minus);
+        Objects.requireNonNull(zero);
+    }
+
+    private static void validateExponentPositive(int exponent) {
+        if (exponent < 1) {
+            throw new IllegalArgumentException("Exponent must be at least one, but was " + exponent);
+        }
+    }
+
+    private static void validateExponentNotNegative(int exponent) {
+        if (exponent < 0) {
+            throw new IllegalArgumentException("Exponent must not be negative, but was " + exponent);
+        }
+    }
+
+    private static void validateMatrixColumnsEqualToVectorSize(Matrix<?> matrix, Array<?> vector) {
+        if (matrix.columns() != vector.size()) {
+            throw new IllegalArgumentException("Column count of matrix must be equal to size of vector, but column count was " + matrix.columns() + " and size was " + vector.size());
+        }
+    }
+
+    private static void validateVectorSizeEqualToMatrixRows(Array<?> vector, Matrix<?> matrix) {
+        if (vector.size() != matrix.rows()) {
+            throw new IllegalArgumentException("Size of vector must be equal to row count of matrix, but size was " + vector.size() + " and rows were " + matrix.rows());
+        }
+    }
+
+    private static void validateInnerSizeNotEmptyWhenNoIdentityProvided(int resultSize, int innerSize) {
+        if (innerSize == 0 && resultSize > 0) {
+            throw new IllegalArgumentException("Size of vector must not be zero when no identity provided");
+        }
+    }
+
+    private static void validateMatricesOfEqualSize(Matrix<?> matrix1, Matrix<?> matrix2) {
+        if (matrix1.rows() != matrix2.rows() || matrix1.columns() != matrix2.columns()) {
+            throw new IllegalArgumentException("Matrices must be of equal size, but sizes were " + matrix1.rows() + "x" + matrix1.columns() + " and " + matrix2.rows() + "x" + matrix2.columns());
+        }
     }
 
     private static void validateMatrix1ColumnsEqualToMatrix2Rows(Matrix<?> matrix1, Matrix<?> matrix2) {
@@ -0,0 +1,92 @@
+package org.viktori.matteray.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Internal helper for running an action over a range of indices in parallel, by recursively
+ * splitting the range in halves on a {@link ForkJoinPool} until each part is no longer than a
+ * grain size.
+ *
+ * @author Viktor Ingemansson
+ */
+final class ParallelRanges {
+
+    private ParallelRanges() {
+        // static class
+    }
+
+    /**
+     * Represents an action on a half-open range of indices.
+     */
+    @FunctionalInterface
+    interface RangeAction {
+        /**
+         * Performs this action on the specified range.
+         *
+         * @param from first index of the range (inclusive)
+         * @param to   last index of the range (exclusive)
+         */
+        void run(int from, int to);
+    }
+
+    /**
+     * Runs the action over the range {@code from} to {@code to} (exclusive), split into parts of
+     * at most {@code grain} indices, and waits for all parts to complete. If the range is not
+     * longer than the grain, or the pool only has one thread, the action runs directly in the
+     * calling thread. Any exception thrown by the action is rethrown by this method.
+     *
+     * @param pool   pool to run the parts in
+     * @param from   first index of the range (inclusive)
+     * @param to     last index of the range (exclusive)
+     * @param grain  maximum length of each part, which must be at least one
+     * @param action action to run for each part
+     */
+    static void forRange(ForkJoinPool pool, int from, int to, int grain, RangeAction action) {
+        if (to - from <= grain || pool.getParallelism() <= 1) {
+            action.run(from, to);
+        } else {
+            pool.invoke(new RangeTask(from, to, grain, action));
+        }
+    }
+
+    /**
+     * Returns a grain size which splits the specified length into about four parts per thread
+     * in the pool, rounded up to a multiple of {@code alignment}, and at least {@code minimum}.
+     */
+    static int grainFor(ForkJoinPool pool, int length, int alignment, int minimum) {
+        int parts = Math.max(1, pool.getParallelism() * 4);
+        int grain = Math.max(minimum, (length + parts - 1) / parts);
+        return (grain + alignment - 1) / alignment * alignment;
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+
+        @java.io.Serial
+        private static final long serialVersionUID = 4139025263873305872L;
+
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final transient RangeAction action;
+
+        private RangeTask(int from, int to, int grain, RangeAction action) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                action.run(from, to);
+            } else {
+                // Split on a multiple of the grain, so every part but the last is aligned
+                int parts = (to - from + grain - 1) / grain;
+                int middle = from + parts / 2 * grain;
+                invokeAll(new RangeTask(from, middle, grain, action), new RangeTask(middle, to, grain, action));
+            }
+        }
+    }
+}
@@ -0,0 +1,488 @@
+package org.viktori.matteray.util;
+
+import org.viktori.matteray.DoubleArray;
+import org.viktori.matteray.DoubleMatrix;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * A few eigenvalues and eigenvectors of a large square {@link LinearOperator}, computed by an
+ * iterative method which only multiplies the operator with vectors. This is used when the
+ * operator is too large for a {@link SymmetricEigenDecomposition}, such as the adjacency matrix
+ * or Laplacian of a graph with millions of nodes in a
+ * {@link org.viktori.matteray.SparseDoubleMatrix}, and only the top eigenvectors are needed,
+ * such as for a spectral embedding or for centrality.
+ *
+ * <ul>
+ *     <li>{@link #powerIteration} finds the eigenvalue of largest magnitude, of any operator
+ *     which has a single such eigenvalue, such as the transition matrix of PageRank.</li>
+ *     <li>{@link #lanczos} finds the largest eigenvalues of a symmetric operator, by the Lanczos
+ *     method with thick restarts. The smallest eigenvalues are the largest ones of the negated
+ *     operator.</li>
+ * </ul>
+ *
+ * <p>Both methods stop when the residual {@code |A * x - lambda * x|} of each eigenvector
+ * {@code x} is at most a tolerance times the magnitude of the largest eigenvalue found, or when
+ * the iteration budget is spent, in which case {@link #isConverged()} is false and the best
+ * estimates are returned. The vectors of the iteration are allocated once, and the products are
+ * computed in parallel if the operator is, such as one from {@link LinearOperator#parallelOf}.
+ * The start vector is pseudorandom with a fixed seed, so the results are repeatable.
+ *
+ * <p>A decomposition is immutable, and thread safe.
+ *
+ * @author Viktor Ingemansson
+ * @see LinearOperator
+ * @see SymmetricEigenDecomposition
+ */
+public final class PartialEigenDecomposition {
+
+    /**
+     * Tolerance of the residuals, relative to the largest eigenvalue, when none is given
+     */
+    private static final double DEFAULT_TOLERANCE = 1e-10;
+
+    /**
+     * Maximum number of products of power iteration, when none is given
+     */
+    private static final int DEFAULT_MAX_ITERATIONS = 10_000;
+
+    /**
+     * Maximum number of restarts of the Lanczos method, when none is given
+     */
+    private static final int DEFAULT_MAX_RESTARTS = 300;
+
+    /**
+     * Number of elements of the basis vectors combined at a time when restarting
+     */
+    private static final int RESTART_BLOCK = 256;
+
+    /**
+     * Seed of the start vector
+     */
+    private static final long SEED = 0x5DEECE66DL;
+
+    /**
+     * Eigenvalues, in descending order
+     */
+    private final double[] eigenvalues;
+
+    /**
+     * Row-major eigenvectors, one per row, in the order of the eigenvalues
+     */
+    private final double[] eigenvectors;
+
+    /**
+     * Size of the operator
+     */
+    private final int size;
+
+    /**
+     * Number of products with the operator
+     */
+    private final int iterations;
+
+    /**
+     * If the residuals are within the tolerance
+     */
+    private final boolean converged;
+
+    private PartialEigenDecomposition(double[] eigenvalues, double[] eigenvectors, int size, int iterations, boolean converged) {
+        this.eigenvalues = eigenvalues;
+        this.eigenvectors = eigenvectors;
+        this.size = size;
+        this.iterations = iterations;
+        this.converged = converged;
+    }
+
+    /**
+     * Computes the eigenvalue of largest magnitude, and its eigenvector, of the specified
+     * operator by power iteration, with a tolerance of {@code 1e-10} and at most 10000 products.
+     *
+     * @param operator square operator to decompose
+     * @return the decomposition, with one eigenvalue
+     * @throws IllegalArgumentException if the operator is not square, or is empty
+     * @throws NullPointerException if the operator is null
+     * @see #powerIteration(LinearOperator, double, int)
+     */
+    public static PartialEigenDecomposition powerIteration(LinearOperator operator) {
+        return powerIteration(operator, DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS);
+    }
+
+    /**
+     * Computes the eigenvalue of largest magnitude, and its eigenvector, of the specified
+     * operator by power iteration. Each iteration multiplies the operator with the current
+     * vector, and estimates the eigenvalue by the Rayleigh quotient. The rate of convergence
+     * is the ratio of the magnitudes of the second largest and the largest eigenvalues, so it
+     * is slow when they are close, and there is no convergence if two eigenvalues of largest
+     * magnitude differ, such as {@code 1} and {@code -1}.
+     *
+     * @param operator square operator to decompose
+     * @param tolerance maximum residual, relative to the magnitude of the eigenvalue
+     * @param maxIterations maximum number of products with the operator
+     * @return the decomposition, with one eigenvalue
+     * @throws IllegalArgumentException if the operator is not square, or is empty, or if the
+     *                                  tolerance is negative or NaN, or the maximum number of
+     *                                  iterations is less than one
+     * @throws NullPointerException if the operator is null
+     */
+    public static PartialEigenDecomposition powerIteration(LinearOperator operator, double tolerance, int maxIterations) {
+        int size = validateOperator(operator, 1);
+        validateTolerance(tolerance);
+        if (maxIterations < 1) {
+            throw new IllegalArgumentException("Maximum number of iterations must be positive, but was " + maxIterations);
+        }
+
+        PrimitiveOps ops = PrimitiveOps.INSTANCE;
+        double[] x = startVector(size);
+        double[] y = new double[size];
+        double eigenvalue = 0.0;
+        int iterations = 0;
+        boolean converged = false;
+        while (iterations < maxIterations) {
+            operator.apply(x, y);
+            iterations++;
+            eigenvalue = ops.dot(x, 0, y, 0, size);
+            double norm = Math.sqrt(ops.dot(y, 0, y, 0, size));
+            if (norm == 0.0) {
+                // x is in the null space, so it is an eigenvector of zero
+                converged = true;
+                break;
+            }
+            double residual = 0.0;
+            for (int i = 0; i < size; i++) {
+                double difference = y[i] - eigenvalue * x[i];
+                residual += difference * difference;
+            }
+            if (Math.sqrt(residual) <= tolerance * Math.abs(eigenvalue)) {
+                converged = true;
+                break;
+            }
+            double[] next = y;
+            y = x;
+            x = next;
+            double scale = 1.0 / norm;
+            for (int i = 0; i < size; i++) {
+                x[i] *= scale;
+            }
+        }
+        return new PartialEigenDecomposition(new double[]{eigenvalue}, x, size, iterations, converged);
+    }
+
+    /**
+     * Computes the specified number of largest eigenvalues, and their eigenvectors, of the
+     * specified symmetric operator by the Lanczos method, with a tolerance of {@code 1e-10} and
+     * at most 300 restarts.
+     *
+     * @param operator symmetric operator to decompose
+     * @param count number of eigenvalues to compute
+     * @return the decomposition, with the eigenvalues in descending order
+     * @throws IllegalArgumentException if the operator is not square, or the count is less than
+     *                                  one or greater than the size of the operator
+     * @throws NullPointerException if the operator is null
+     * @see #lanczos(LinearOperator, int, double, int)
+     */
+    public static PartialEigenDecomposition lanczos(LinearOperator operator, int count) {
+        return lanczos(operator, count, DEFAULT_TOLERANCE, DEFAULT_MAX_RESTARTS);
+    }
+
+    /**
+     * Computes the specified number of largest eigenvalues, and their eigenvectors, of the
+     * specified symmetric operator by the Lanczos method with thick restarts.
+     *
+     * <p>An orthonormal basis of up to {@code max(2 * count + 1, count + 20)} vectors is built
+     * from the products of the operator, and the eigenvalues of the operator projected on it
+     * approximate the largest eigenvalues of the operator. When the basis is full, it is
+     * shrunk to the best approximations of the eigenvectors, and grown again from there, so
+     * the memory is bounded by the basis. Each basis vector is orthogonalized against all
+     * others, twice, so the method is stable even when many restarts are needed.
+     *
+     * @param operator symmetric operator to decompose
+     * @param count number of eigenvalues to compute
+     * @param tolerance maximum residual, relative to the magnitude of the largest eigenvalue
+     * @param maxRestarts maximum number of times the basis is restarted
+     * @return the decomposition, with the eigenvalues in descending order
+     * @throws IllegalArgumentException if the operator is not square, or the count is less than
+     *                                  one or greater than the size of the operator, or if the
+     *                                  tolerance is negative or NaN, or the maximum number of
+     *                                  restarts is negative
+     * @throws NullPointerException if the operator is null
+     */
+    public static PartialEigenDecomposition lanczos(LinearOperator operator, int count, double tolerance, int maxRestarts) {
+        int size = validateOperator(operator, count);
+        validateTolerance(tolerance);
+        if (maxRestarts < 0) {
+            throw new IllegalArgumentException("Maximum number of restarts must not be negative, but was " + maxRestarts);
+        }
+
+        PrimitiveOps ops = PrimitiveOps.INSTANCE;
+        int capacity = Math.min(size, Math.max(2 * count + 1, count + 20));
+        // The basis, and the next vector, which is the residual when the basis is full
+        double[][] basis = new double[capacity + 1][];
+        basis[0] = startVector(size);
+        for (int j = 1; j <= capacity; j++) {
+            basis[j] = new double[size];
+        }
+        double[] w = new double[size];
+        double[] coefficients = new double[capacity];
+        double[] projected = new double[capacity * capacity];
+        double[] combined = new double[capacity * Math.min(RESTART_BLOCK, size)];
+        double[] values = new double[capacity];
+        double[] offDiagonal = new double[capacity];
+        double[] tau = new double[capacity];
+        SplittableRandom random = new SplittableRandom(SEED + 1);
+
+        int start = 0;
+        int restarts = 0;
+        int iterations = 0;
+        double scale = 0.0;
+        while (true) {
+            double residualNorm = 0.0;
+            for (int j = start; j < capacity; j++) {
+                operator.apply(basis[j], w);
+                iterations++;
+                Arrays.fill(coefficients, 0, j + 1, 0.0);
+                orthogonalize(basis, j + 1, w, coefficients);
+                for (int i = 0; i <= j; i++) {
+                    projected[i * capacity + j] = coefficients[i];
+                    projected[j * capacity + i] = coefficients[i];
+                }
+                scale = Math.max(scale, Math.abs(coefficients[j]));
+                double norm = Math.sqrt(ops.dot(w, 0, w, 0, size));
+                residualNorm = norm;
+                if (norm <= Math.ulp(1.0) * scale || norm == 0.0) {
+                    // The basis spans an invariant subspace, so continue with any orthogonal vector
+                    residualNorm = 0.0;
+                    if (j + 1 == capacity) {
+                        break;
+                    }
+                    for (int i = 0; i < size; i++) {
+                        w[i] = random.nextDouble() - 0.5;
+                    }
+                    orthogonalize(basis, j + 1, w, new double[j + 1]);
+                    norm = Math.sqrt(ops.dot(w, 0, w, 0, size));
+                }
+                double inverse = 1.0 / norm;
+                double[] next = basis[j + 1];
+                for (int i = 0; i < size; i++) {
+                    next[i] = w[i] * inverse;
+                }
+            }
+
+            // Eigenvalues of the projection, in ascending order, with the eigenvectors in rows
+            double[] a = projected.clone();
+            DecompositionKernels.tridiagonalize(a, capacity, values, offDiagonal, tau, null);
+            double[] ritzVectors = DecompositionKernels.accumulateTransposed(a, capacity, tau, null);
+            if (!DecompositionKernels.diagonalize(values, offDiagonal, capacity, ritzVectors, null)) {
+                throw new IllegalStateException("Eigenvalues of the projection did not converge");
+            }
+            scale = Math.max(scale, Math.max(Math.abs(values[0]), Math.abs(values[capacity - 1])));
+
+            boolean converged = true;
+            for (int k = 0; k < count; k++) {
+                int index = capacity - 1 - k;
+                double residual = Math.abs(residualNorm * ritzVectors[index * capacity + capacity - 1]);
+                if (residual > tolerance * scale) {
+                    converged = false;
+                    break;
+                }
+            }
+            if (converged || restarts == maxRestarts || capacity == size) {
+                // With a basis of the whole space, the eigenvalues are exact
+                boolean exact = converged || capacity == size;
+                combine(basis, capacity, ritzVectors, count, size, combined);
+                double[] eigenvalues = new double[count];
+                double[] eigenvectors = new double[count * size];
+                for (int k = 0; k < count; k++) {
+                    eigenvalues[k] = values[capacity - 1 - k];
+                    System.arraycopy(basis[k], 0, eigenvectors, k * size, size);
+                }
+                return new PartialEigenDecomposition(eigenvalues, eigenvectors, size, iterations, exact);
+            }
+
+            // Thick restart, keeping the best approximations and continuing from the residual
+            int keep = Math.min(capacity - 1, count + (capacity - count) / 2);
+            combine(basis, capacity, ritzVectors, keep, size, combined);
+            double[] residualVector = basis[capacity];
+            basis[capacity] = basis[keep];
+            basis[keep] = residualVector;
+            Arrays.fill(projected, 0.0);
+            for (int k = 0; k < keep; k++) {
+                projected[k * capacity + k] = values[capacity - 1 - k];
+            }
+            start = keep;
+            restarts++;
+        }
+    }
+
+    /**
+     * Orthogonalizes {@code w} against the first vectors of the basis, by classical Gram-Schmidt
+     * applied twice, and adds the projections to {@code coefficients}.
+     */
+    private static void orthogonalize(double[][] basis, int count, double[] w, double[] coefficients) {
+        PrimitiveOps ops = PrimitiveOps.INSTANCE;
+        int size = w.length;
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < count; i++) {
+                double projection = ops.dot(basis[i], 0, w, 0, size);
+                coefficients[i] += projection;
+                ops.axpy(-projection, basis[i], 0, w, 0, size);
+            }
+        }
+    }
+
+    /**
+     * Replaces the first {@code keep} vectors of the basis with the approximate eigenvectors of
+     * the largest eigenvalues, in descending order. The basis is combined in place, a block of
+     * elements at a time, so no other vectors of the full size are needed.
+     */
+    private static void combine(double[][] basis, int capacity, double[] ritzVectors, int keep, int size, double[] combined) {
+        PrimitiveOps ops = PrimitiveOps.INSTANCE;
+        for (int from = 0; from < size; from += RESTART_BLOCK) {
+            int length = Math.min(RESTART_BLOCK, size - from);
+            Arrays.fill(combined, 0, keep * length, 0.0);
+            for (int k = 0; k < keep; k++) {
+                int row = (capacity - 1 - k) * capacity;
+                for (int j = 0; j < capacity; j++) {
+                    double coefficient = ritzVectors[row + j];
+                    if (coefficient != 0.0) {
+                        ops.axpy(coefficient, basis[j], from, combined, k * length, length);
+                    }
+                }
+            }
+            for (int k = 0; k < keep; k++) {
+                System.arraycopy(combined, k * length, basis[k], from, length);
+            }
+        }
+    }
+
+    private static int validateOperator(LinearOperator operator, int count) {
+        Objects.requireNonNull(operator);
+        if (!operator.isSquare()) {
+            throw new IllegalArgumentException("Operator must be square, but size was " + operator.rows() + "x" + operator.columns());
+        }
+        int size = operator.rows();
+        if (count < 1 || count > size) {
+            throw new IllegalArgumentException("Count must be between 1 and size of operator " + size + ", but was " + count);
+        }
+        return size;
+    }
+
+    private static void validateTolerance(double tolerance) {
+        if (!(tolerance >= 0.0)) {
+            throw new IllegalArgumentException("Tolerance must not be negative, but was " + tolerance);
+        }
+    }
+
+    /**
+     * Returns a pseudorandom vector of unit length, which is the same for every call.
+     */
+    private static double[] startVector(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        double[] vector = new double[size];
+        double sum = 0.0;
+        for (int i = 0; i < size; i++) {
+            vector[i] = random.nextDouble() - 0.5;
+            sum += vector[i] * vector[i];
+        }
+        double scale = 1.0 / Math.sqrt(sum);
+        for (int i = 0; i < size; i++) {
+            vector[i] *= scale;
+        }
+        return vector;
+    }
+
+    /**
+     * Returns the size of the decomposed operator, which is the size of each eigenvector.
+     *
+     * @return the size of the operator
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of eigenvalues which were computed.
+     *
+     * @return the number of eigenvalues
+     */
+    public int count() {
+        return eigenvalues.length;
+    }
+
+    /**
+     * Returns the number of products with the operator which were computed.
+     *
+     * @return the number of iterations
+     */
+    public int iterations() {
+        return iterations;
+    }
+
+    /**
+     * Returns if the residuals of all eigenvectors are within the tolerance. If not, the
+     * iteration budget was spent first, and the results are the best estimates found.
+     *
+     * @return true if the iteration converged
+     */
+    public boolean isConverged() {
+        return converged;
+    }
+
+    /**
+     * Returns the computed eigenvalues, in descending order.
+     *
+     * @return a new array with the eigenvalues
+     */
+    public DoubleArray eigenvalues() {
+        return new TrustedDoubleArray(eigenvalues.clone());
+    }
+
+    /**
+     * Returns the eigenvector of the eigenvalue at the specified index of {@link #eigenvalues()},
+     * with unit length. Its sign is arbitrary.
+     *
+     * @param index index of the eigenvalue
+     * @return a new array with the eigenvector
+     * @throws ArrayIndexOutOfBoundsException if the index is out of range
+     *                                        ({@code index < 0 || index >= count()})
+     */
+    public DoubleArray eigenvector(int index) {
+        if (index < 0 || index >= eigenvalues.length) {
+            throw new ArrayIndexOutOfBoundsException("Index " + index + " out of bounds for length " + eigenvalues.length);
+        }
+        double[] eigenvector = new double[size];
+        System.arraycopy(eigenvectors, index * size, eigenvector, 0, size);
+        return new TrustedDoubleArray(eigenvector);
+    }
+
+    /**
+     * Returns the computed eigenvectors as the columns of a matrix, with one row per element
+     * and one column per eigenvalue.
+     *
+     * @return a new matrix with the eigenvectors as columns
+     */
+    public DoubleMatrix eigenvectors() {
+        int count = eigenvalues.length;
+        double[] columns = new double[size * count];
+        for (int k = 0; k < count; k++) {
+            for (int i = 0; i < size; i++) {
+                columns[i * count + k] = eigenvectors[k * size + i];
+            }
+        }
+        return new TrustedDoubleMatrix(columns, size, count);
+    }
+
+    private static class TrustedDoubleMatrix extends DoubleMatrix {
+        private TrustedDoubleMatrix(double[] elementData, int rows, int columns) {
+            super(elementData, true, rows, columns);
+        }
+    }
+
+    private static class TrustedDoubleArray extends DoubleArray {
+        private TrustedDoubleArray(double[] elementData) {
+            super(elementData, true);
+        }
+    }
+}
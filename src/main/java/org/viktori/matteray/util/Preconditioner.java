@@ -0,0 +1,89 @@
+package org.viktori.matteray.util;
+
+import org.viktori.matteray.Matrix;
+import org.viktori.matteray.SparseDoubleMatrix;
+
+/**
+ * A preconditioner for the {@link IterativeSolvers}, i.e. an approximation {@code M} of the
+ * matrix {@code A} of a linear system, which is cheap to solve with. Solving {@code M * z = r}
+ * in each iteration makes the system the solver sees better conditioned, so it converges in
+ * fewer iterations.
+ *
+ * <ul>
+ *     <li>{@link #identity} does nothing, which is the same as no preconditioner.</li>
+ *     <li>{@link #jacobi} divides by the diagonal of the matrix, which is the cheapest.</li>
+ *     <li>{@link #incompleteLU} solves with an LU factorization of a sparse matrix which keeps
+ *     the pattern of its non-zero elements, often called ILU(0), which is more expensive but
+ *     much more effective on matrices from grids.</li>
+ * </ul>
+ *
+ * @author Viktor Ingemansson
+ * @see IterativeSolvers
+ */
+public interface Preconditioner {
+
+    /**
+     * Returns the size of this preconditioner, which is the size of the vectors it is applied
+     * to.
+     *
+     * @return the size of this preconditioner
+     */
+    int size();
+
+    /**
+     * Solves {@code M * z = r} for the residual {@code r}, and stores the solution in
+     * {@code z}. Every element of {@code z} is overwritten, and {@code r} is not modified. The
+     * arrays must be distinct, and are not retained.
+     *
+     * @param residual vector to apply this preconditioner to
+     * @param z vector to store the solution in
+     * @throws IllegalArgumentException if the size of either vector is different from the size
+     *                                  of this preconditioner
+     * @throws NullPointerException if either vector is null
+     */
+    void apply(double[] residual, double[] z);
+
+    /**
+     * Returns a preconditioner of the specified size which copies the residual as it is.
+     *
+     * @param size size of the preconditioner
+     * @return an identity preconditioner
+     * @throws IllegalArgumentException if the size is negative
+     */
+    static Preconditioner identity(int size) {
+        return new Preconditioners.Identity(size);
+    }
+
+    /**
+     * Returns a preconditioner which divides by the diagonal of the specified square matrix.
+     * Only the diagonal of the matrix is read, and only the stored elements of a
+     * {@link SparseDoubleMatrix}.
+     *
+     * @param matrix matrix to take the diagonal of
+     * @return a Jacobi preconditioner for the matrix
+     * @throws IllegalArgumentException if the matrix is not square, or any diagonal element is
+     *                                  zero
+     * @throws NullPointerException if the matrix is null, or contains null elements on the
+     *                              diagonal
+     */
+    static Preconditioner jacobi(Matrix<? extends Number> matrix) {
+        return Preconditioners.jacobi(matrix);
+    }
+
+    /**
+     * Returns a preconditioner which solves with the incomplete LU factorization of the
+     * specified square sparse matrix, with no fill, i.e. the factors {@code L} and {@code U}
+     * only have non-zero elements where the matrix does, and {@code L * U} is equal to the
+     * matrix on those elements. The factorization is computed once, in a copy of the values
+     * of the matrix.
+     *
+     * @param matrix matrix to factor
+     * @return an incomplete LU preconditioner for the matrix
+     * @throws IllegalArgumentException if the matrix is not square, or any diagonal element is
+     *                                  missing or becomes zero during the factorization
+     * @throws NullPointerException if the matrix is null
+     */
+    static Preconditioner incompleteLU(SparseDoubleMatrix matrix) {
+        return Preconditioners.incompleteLU(matrix);
+    }
+}
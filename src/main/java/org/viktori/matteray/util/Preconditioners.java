@@ -0,0 +1,159 @@
+package org.viktori.matteray.util;
+
+import org.viktori.matteray.Matrix;
+import org.viktori.matteray.SparseDoubleMatrix;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Internal implementations of {@link Preconditioner}.
+ *
+ * @author Viktor Ingemansson
+ */
+final class Preconditioners {
+
+    private Preconditioners() {
+        // static class
+    }
+
+    static Preconditioner jacobi(Matrix<? extends Number> matrix) {
+        Objects.requireNonNull(matrix);
+        validateSquare(matrix);
+        int size = matrix.rows();
+        double[] inverseDiagonal = new double[size];
+        for (int i = 0; i < size; i++) {
+            double diagonal = matrix instanceof SparseDoubleMatrix sm ? sm.getDouble(i, i) : matrix.get(i, i).doubleValue();
+            if (diagonal == 0.0) {
+                throw new IllegalArgumentException("Diagonal element at " + i + " must not be zero");
+            }
+            inverseDiagonal[i] = 1.0 / diagonal;
+        }
+        return new Jacobi(inverseDiagonal);
+    }
+
+    /**
+     * Computes the ILU(0) factorization row by row: each element left of the diagonal is
+     * divided by the pivot of its column, and the rest of its pivot row is subtracted from the
+     * elements of the current row which are in the pattern, which are found by their column.
+     */
+    static Preconditioner incompleteLU(SparseDoubleMatrix matrix) {
+        Objects.requireNonNull(matrix);
+        validateSquare(matrix);
+        int size = matrix.rows();
+        int[] rowPointers = matrix.toRowPointerArray();
+        int[] columnIndices = matrix.toColumnIndexArray();
+        double[] values = matrix.toValueArray();
+
+        int[] diagonals = new int[size];
+        for (int i = 0; i < size; i++) {
+            int p = Arrays.binarySearch(columnIndices, rowPointers[i], rowPointers[i + 1], i);
+            if (p < 0) {
+                throw new IllegalArgumentException("Diagonal element at " + i + " must not be zero");
+            }
+            diagonals[i] = p;
+        }
+
+        // Position of each column in the current row, or -1
+        int[] positions = new int[size];
+        Arrays.fill(positions, -1);
+        for (int i = 0; i < size; i++) {
+            for (int p = rowPointers[i]; p < rowPointers[i + 1]; p++) {
+                positions[columnIndices[p]] = p;
+            }
+            for (int p = rowPointers[i]; p < diagonals[i]; p++) {
+                int k = columnIndices[p];
+                double multiplier = values[p] /= values[diagonals[k]];
+                for (int q = diagonals[k] + 1; q < rowPointers[k + 1]; q++) {
+                    int position = positions[columnIndices[q]];
+                    if (position >= 0) {
+                        values[position] -= multiplier * values[q];
+                    }
+                }
+            }
+            if (values[diagonals[i]] == 0.0) {
+                throw new IllegalArgumentException("Pivot at " + i + " of the incomplete factorization must not be zero");
+            }
+            for (int p = rowPointers[i]; p < rowPointers[i + 1]; p++) {
+                positions[columnIndices[p]] = -1;
+            }
+        }
+        return new IncompleteLU(rowPointers, columnIndices, values, diagonals);
+    }
+
+    private static void validateSquare(Matrix<?> matrix) {
+        if (!matrix.isSquare()) {
+            throw new IllegalArgumentException("Matrix must be square, but size was " + matrix.rows() + "x" + matrix.columns());
+        }
+    }
+
+    private static void validateSizes(Preconditioner preconditioner, double[] residual, double[] z) {
+        if (residual.length != preconditioner.size() || z.length != preconditioner.size()) {
+            throw new IllegalArgumentException("Sizes of vectors must be " + preconditioner.size() + ", but were "
+                    + residual.length + " and " + z.length);
+        }
+    }
+
+    record Identity(int size) implements Preconditioner {
+
+        Identity {
+            if (size < 0) {
+                throw new IllegalArgumentException("Size must not be negative, but was " + size);
+            }
+        }
+
+        @Override
+        public void apply(double[] residual, double[] z) {
+            validateSizes(this, residual, z);
+            System.arraycopy(residual, 0, z, 0, size);
+        }
+    }
+
+    private record Jacobi(double[] inverseDiagonal) implements Preconditioner {
+
+        @Override
+        public int size() {
+            return inverseDiagonal.length;
+        }
+
+        @Override
+        public void apply(double[] residual, double[] z) {
+            validateSizes(this, residual, z);
+            for (int i = 0; i < inverseDiagonal.length; i++) {
+                z[i] = residual[i] * inverseDiagonal[i];
+            }
+        }
+    }
+
+    /**
+     * Factors stored in the pattern of the matrix, with the unit lower factor left of the
+     * diagonal, and the upper factor on and right of it
+     */
+    private record IncompleteLU(int[] rowPointers, int[] columnIndices, double[] values, int[] diagonals) implements Preconditioner {
+
+        @Override
+        public int size() {
+            return diagonals.length;
+        }
+
+        @Override
+        public void apply(double[] residual, double[] z) {
+            validateSizes(this, residual, z);
+            int size = diagonals.length;
+            for (int i = 0; i < size; i++) {
+                double sum = residual[i];
+                for (int p = rowPointers[i]; p < diagonals[i]; p++) {
+                    sum -= values[p] * z[columnIndices[p]];
+                }
+                z[i] = sum;
+            }
+            for (int i = size - 1; i >= 0; i--) {
+                double sum = z[i];
+                for (int p = diagonals[i] + 1; p < rowPointers[i + 1]; p++) {
+                    sum -= values[p] * z[columnIndices[p]];
+                }
+                z[i] = sum / values[diagonals[i]];
+            }
+        }
+    }
+}
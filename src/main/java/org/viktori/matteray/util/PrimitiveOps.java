@@ -0,0 +1,358 @@
+package org.viktori.matteray.util;
+
+/**
+ * Internal loops on primitive arrays, which are used by the primitive operations in
+ * {@link ArrayUtils} and {@link MatrixUtils}. This class holds the plain scalar
+ * implementations, and {@link SimdPrimitiveOps} overrides them with implementations using
+ * the incubating Vector API.
+ *
+ * <p>{@link #INSTANCE} is the SIMD implementation if the {@code jdk.incubator.vector} module
+ * has been added to the runtime (with {@code --add-modules jdk.incubator.vector}), and the
+ * scalar implementation otherwise. The SIMD implementation can be disabled by setting the
+ * system property {@value #SIMD_PROPERTY} to {@code false}.
+ *
+ * <p>Floating point sums computed with SIMD add the elements in a different order than the
+ * scalar loops, so the results may differ in the last bits. Integer arithmetic overflows
+ * silently in both implementations.
+ *
+ * @author Viktor Ingemansson
+ */
+class PrimitiveOps {
+
+    /**
+     * System property which disables the SIMD implementation when set to {@code false}
+     */
+    static final String SIMD_PROPERTY = "org.viktori.matteray.simd";
+
+    /**
+     * The implementation to use
+     */
+    static final PrimitiveOps INSTANCE = load();
+
+    PrimitiveOps() {
+    }
+
+    private static PrimitiveOps load() {
+        if (!Boolean.parseBoolean(System.getProperty(SIMD_PROPERTY, "true")) ||
+                ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return new PrimitiveOps();
+        }
+        try {
+            // Loaded reflectively, so this class never links against the Vector API by itself
+            return (PrimitiveOps) Class.forName("org.viktori.matteray.util.SimdPrimitiveOps")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new PrimitiveOps();
+        }
+    }
+
+    /**
+     * Returns the dot product of two {@code double} arrays of equal length.
+     */
+    double dot(double[] x, double[] y) {
+        return dot(x, 0, y, 0, x.length);
+    }
+
+    /**
+     * Returns the dot product of {@code length} elements of two {@code double} arrays, starting
+     * at the specified offsets.
+     */
+    double dot(double[] x, int xOffset, double[] y, int yOffset, int length) {
+        double sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += x[xOffset + i] * y[yOffset + i];
+        }
+        return sum;
+    }
+
+    /**
+     * Computes {@code y[i] = alpha * x[i] + y[i]} in place.
+     */
+    void axpy(double alpha, double[] x, double[] y) {
+        axpy(alpha, x, 0, y, 0, x.length);
+    }
+
+    /**
+     * Computes {@code y[yOffset + i] = alpha * x[xOffset + i] + y[yOffset + i]} in place, for
+     * {@code length} elements.
+     */
+    void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            y[yOffset + i] += alpha * x[xOffset + i];
+        }
+    }
+
+    /**
+     * Computes {@code out[i] = x[i] + y[i]}.
+     */
+    void add(double[] x, double[] y, double[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = x[i] + y[i];
+        }
+    }
+
+    /**
+     * Computes {@code out[i] = x[i] * y[i]}.
+     */
+    void multiply(double[] x, double[] y, double[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = x[i] * y[i];
+        }
+    }
+
+    /**
+     * Computes {@code out[i] = x[i] * factor}.
+     */
+    void scale(double[] x, double factor, double[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = x[i] * factor;
+        }
+    }
+
+    /**
+     * Returns the sum of all elements.
+     */
+    double sum(double[] x) {
+        double sum = 0;
+        for (double e : x) {
+            sum += e;
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the smallest element, as by {@link Math#min(double, double)}, of a non-empty array.
+     */
+    double min(double[] x) {
+        double min = x[0];
+        for (int i = 1; i < x.length; i++) {
+            min = Math.min(min, x[i]);
+        }
+        return min;
+    }
+
+    /**
+     * Returns the largest element, as by {@link Math#max(double, double)}, of a non-empty array.
+     */
+    double max(double[] x) {
+        double max = x[0];
+        for (int i = 1; i < x.length; i++) {
+            max = Math.max(max, x[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Returns the dot product of two {@code float} arrays of equal length.
+     */
+    float dot(float[] x, float[] y) {
+        return dot(x, 0, y, 0, x.length);
+    }
+
+    /**
+     * Returns the dot product of {@code length} elements of two {@code float} arrays, starting
+     * at the specified offsets.
+     */
+    float dot(float[] x, int xOffset, float[] y, int yOffset, int length) {
+        float sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += x[xOffset + i] * y[yOffset + i];
+        }
+        return sum;
+    }
+
+    /**
+     * Computes {@code y[i] = alpha * x[i] + y[i]} in place.
+     */
+    void axpy(float alpha, float[] x, float[] y) {
+        axpy(alpha, x, 0, y, 0, x.length);
+    }
+
+    /**
+     * Computes {@code y[yOffset + i] = alpha * x[xOffset + i] + y[yOffset + i]} in place, for
+     * {@code length} elements.
+     */
+    void axpy(float alpha, float[] x, int xOffset, float[] y, int yOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            y[yOffset + i] += alpha * x[xOffset + i];
+        }
+    }
+
+    /**
+     * Computes {@code out[i] = x[i] + y[i]}.
+     */
+    void add(float[] x, float[] y, float[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = x[i] + y[i];
+        }
+    }
+
+    /**
+     * Computes {@code out[i] = x[i] * y[i]}.
+     */
+    void multiply(float[] x, float[] y, float[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = x[i] * y[i];
+        }
+    }
+
+    /**
+     * Computes {@code out[i] = x[i] * factor}.
+     */
+    void scale(float[] x, float factor, float[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = x[i] * factor;
+        }
+    }
+
+    /**
+     * Returns the sum of all elements.
+     */
+    float sum(float[] x) {
+        float sum = 0;
+        for (float e : x) {
+            sum += e;
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the smallest element, as by {@link Math#min(float, float)}, of a non-empty array.
+     */
+    float min(float[] x) {
+        float min = x[0];
+        for (int i = 1; i < x.length; i++) {
+            min = Math.min(min, x[i]);
+        }
+        return min;
+    }
+
+    /**
+     * Returns the largest element, as by {@link Math#max(float, float)}, of a non-empty array.
+     */
+    float max(float[] x) {
+        float max = x[0];
+        for (int i = 1; i < x.length; i++) {
+            max = Math.max(max, x[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Returns the dot product of two {@code int} arrays of equal length.
+     */
+    int dot(int[] x, int[] y) {
+        return dot(x, 0, y, 0, x.length);
+    }
+
+    /**
+     * Returns the dot product of {@code length} elements of two {@code int} arrays, starting
+     * at the specified offsets.
+     */
+    int dot(int[] x, int xOffset, int[] y, int yOffset, int length) {
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += x[xOffset + i] * y[yOffset + i];
+        }
+        return sum;
+    }
+
+    /**
+     * Computes {@code y[i] = alpha * x[i] + y[i]} in place.
+     */
+    void axpy(int alpha, int[] x, int[] y) {
+        axpy(alpha, x, 0, y, 0, x.length);
+    }
+
+    /**
+     * Computes {@code y[yOffset + i] = alpha * x[xOffset + i] + y[yOffset + i]} in place, for
+     * {@code length} elements.
+     */
+    void axpy(int alpha, int[] x, int xOffset, int[] y, int yOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            y[yOffset + i] += alpha * x[xOffset + i];
+        }
+    }
+
+    /**
+     * Computes {@code out[i] = x[i] + y[i]}.
+     */
+    void add(int[] x, int[] y, int[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = x[i] + y[i];
+        }
+    }
+
+    /**
+     * Computes {@code out[i] = x[i] * y[i]}.
+     */
+    void multiply(int[] x, int[] y, int[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = x[i] * y[i];
+        }
+    }
+
+    /**
+     * Computes {@code out[i] = x[i] * factor}.
+     */
+    void scale(int[] x, int factor, int[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = x[i] * factor;
+        }
+    }
+
+    /**
+     * Returns the sum of all elements.
+     */
+    int sum(int[] x) {
+        int sum = 0;
+        for (int e : x) {
+            sum += e;
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the smallest element, as by {@link Math#min(int, int)}, of a non-empty array.
+     */
+    int min(int[] x) {
+        int min = x[0];
+        for (int i = 1; i < x.length; i++) {
+            min = Math.min(min, x[i]);
+        }
+        return min;
+    }
+
+    /**
+     * Returns the largest element, as by {@link Math#max(int, int)}, of a non-empty array.
+     */
+    int max(int[] x) {
+        int max = x[0];
+        for (int i = 1; i < x.length; i++) {
+            max = Math.max(max, x[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Multiplies one packed strip of A with one packed strip of B, and adds the top left
+     * {@code height}x{@code width} part of the resulting tile to {@code c}.
+     *
+     * @see MatrixKernels#multiplyDouble
+     */
+    void microKernelDouble(int kc, double[] a, int aOffset, double[] b, int bOffset, double[] c, int cOffset, int columns,
+                           int height, int width, double[] edge) {
+        MatrixKernels.microKernelDouble(kc, a, aOffset, b, bOffset, c, cOffset, columns, height, width, edge);
+    }
+
+    /**
+     * Multiplies one packed strip of A with one packed strip of B, and adds the top left
+     * {@code height}x{@code width} part of the resulting tile to {@code c}.
+     *
+     * @see MatrixKernels#multiplyFloat
+     */
+    void microKernelFloat(int kc, float[] a, int aOffset, float[] b, int bOffset, float[] c, int cOffset, int columns,
+                          int height, int width, float[] edge) {
+        MatrixKernels.microKernelFloat(kc, a, aOffset, b, bOffset, c, cOffset, columns, height, width, edge);
+    }
+}
@@ -0,0 +1,232 @@
+package org.viktori.matteray.util;
+
+import org.viktori.matteray.Array;
+import org.viktori.matteray.DoubleArray;
+import org.viktori.matteray.DoubleMatrix;
+import org.viktori.matteray.Matrix;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * QR decomposition of a matrix of numbers with at least as many rows as columns, by Householder
+ * reflections. The matrix {@code A} is factored into an orthogonal matrix {@code Q} and an upper
+ * triangular matrix {@code R}, such that {@code A = Q * R}. It is used to solve linear least
+ * squares problems, such as fitting a model with a few parameters to many observations, where
+ * {@code x} minimizes the norm of {@code A * x - b}. This is more accurate than solving the
+ * normal equations {@code A^T * A * x = A^T * b}, and a decomposition can be reused for any
+ * number of right-hand sides.
+ *
+ * <p>The factorization is computed on a single row-major {@code double[]}, which is the only copy
+ * of the matrix that is made. {@code Q} is never formed, but kept as the reflections. It is
+ * blocked, so that the reflections of a panel of columns are applied to the rest of the matrix
+ * together, with passes which run with SIMD instructions when available.
+ *
+ * <p>A decomposition is immutable, and thread safe.
+ *
+ * @author Viktor Ingemansson
+ * @see LUDecomposition
+ */
+public final class QRDecomposition {
+
+    /**
+     * Row-major factors, with R on and above the diagonal, and the reflections below it
+     */
+    private final double[] factors;
+
+    /**
+     * Scale of each reflection
+     */
+    private final double[] tau;
+
+    /**
+     * Row count of the matrix
+     */
+    private final int rows;
+
+    /**
+     * Column count of the matrix
+     */
+    private final int columns;
+
+    private QRDecomposition(double[] factors, double[] tau, int rows, int columns) {
+        this.factors = factors;
+        this.tau = tau;
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    /**
+     * Computes the QR decomposition of the specified matrix.
+     *
+     * @param matrix matrix to decompose, with at least as many rows as columns
+     * @return the decomposition of the matrix
+     * @throws IllegalArgumentException if the matrix has fewer rows than columns
+     * @throws NullPointerException if the matrix is null, or contains null elements
+     */
+    public static QRDecomposition decompose(Matrix<? extends Number> matrix) {
+        Objects.requireNonNull(matrix);
+        if (matrix.rows() < matrix.columns()) {
+            throw new IllegalArgumentException("Matrix must have at least as many rows as columns, but size was " + matrix.rows() + "x" + matrix.columns());
+        }
+        int rows = matrix.rows();
+        int columns = matrix.columns();
+        double[] factors = DecompositionKernels.toRowMajor(matrix);
+        double[] tau = new double[columns];
+        DecompositionKernels.factorQR(factors, rows, columns, tau);
+        return new QRDecomposition(factors, tau, rows, columns);
+    }
+
+    /**
+     * Returns the row count of the decomposed matrix.
+     *
+     * @return the row count of the matrix
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * Returns the column count of the decomposed matrix.
+     *
+     * @return the column count of the matrix
+     */
+    public int columns() {
+        return columns;
+    }
+
+    /**
+     * Returns if the decomposed matrix has full column rank, i.e. if no diagonal element of
+     * {@code R} is exactly zero. A matrix which is nearly rank deficient is not detected, but
+     * solving with it gives very large or infinite elements.
+     *
+     * @return true if the columns of the matrix are linearly independent
+     */
+    public boolean isFullRank() {
+        for (int i = 0; i < columns; i++) {
+            if (factors[i * columns + i] == 0.0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the upper triangular factor {@code R}, with one row and column per column of the
+     * decomposed matrix.
+     *
+     * @return a new matrix with the upper factor
+     */
+    public DoubleMatrix upper() {
+        double[] upper = new double[columns * columns];
+        for (int r = 0; r < columns; r++) {
+            System.arraycopy(factors, r * columns + r, upper, r * columns + r, columns - r);
+        }
+        return new TrustedDoubleMatrix(upper, columns, columns);
+    }
+
+    /**
+     * Returns the first columns of the orthogonal factor {@code Q}, one per column of the
+     * decomposed matrix, which are an orthonormal basis of its column space. They are computed
+     * by applying the reflections to the columns of the identity matrix.
+     *
+     * @return a new matrix with the orthogonal factor, of the same size as the decomposed matrix
+     */
+    public DoubleMatrix orthogonal() {
+        double[] orthogonal = new double[rows * columns];
+        for (int i = 0; i < columns; i++) {
+            orthogonal[i * columns + i] = 1.0;
+        }
+        double[] workspace = new double[columns];
+        for (int j = columns - 1; j >= 0; j--) {
+            if (tau[j] != 0.0) {
+                DecompositionKernels.applyReflection(factors, rows, columns, j, tau[j], orthogonal, columns, 0, columns, workspace);
+            }
+        }
+        return new TrustedDoubleMatrix(orthogonal, rows, columns);
+    }
+
+    /**
+     * Solves the linear least squares problem for the specified vector {@code b}, i.e. returns
+     * the {@code x} which minimizes the norm of {@code A * x - b}, where {@code A} is the
+     * decomposed matrix. If the matrix is square, it is the solution of {@code A * x = b}.
+     *
+     * @param vector right-hand side, with one element per row of the matrix
+     * @return a new array with the solution, with one element per column of the matrix
+     * @throws IllegalArgumentException if the size of the vector is different from the row count
+     *                                  of the matrix
+     * @throws IllegalStateException if the matrix does not have full rank
+     * @throws NullPointerException if the vector is null, or contains null elements
+     */
+    public DoubleArray solve(Array<? extends Number> vector) {
+        Objects.requireNonNull(vector);
+        if (vector.size() != rows) {
+            throw new IllegalArgumentException("Size of vector must be equal to row count of matrix, but was " + vector.size() + " and " + rows);
+        }
+        validateFullRank();
+
+        double[] rightHandSide = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            rightHandSide[i] = vector.get(i).doubleValue();
+        }
+        return new TrustedDoubleArray(solveInPlace(rightHandSide, 1));
+    }
+
+    /**
+     * Solves the linear least squares problem for each column of the specified matrix {@code B},
+     * i.e. returns the {@code X} which minimizes the norm of each column of {@code A * X - B},
+     * where {@code A} is the decomposed matrix. All columns are solved in the same pass.
+     *
+     * @param matrix right-hand sides, with one row per row of the matrix
+     * @return a new matrix with the solutions, with one row per column of the matrix
+     * @throws IllegalArgumentException if the row count of the right-hand sides is different from
+     *                                  the row count of the matrix
+     * @throws IllegalStateException if the matrix does not have full rank
+     * @throws NullPointerException if the matrix is null, or contains null elements
+     */
+    public DoubleMatrix solve(Matrix<? extends Number> matrix) {
+        Objects.requireNonNull(matrix);
+        if (matrix.rows() != rows) {
+            throw new IllegalArgumentException("Row count of matrix must be equal to row count of decomposed matrix, but was " + matrix.rows() + " and " + rows);
+        }
+        validateFullRank();
+
+        int rightHandSides = matrix.columns();
+        return new TrustedDoubleMatrix(solveInPlace(DecompositionKernels.toRowMajor(matrix), rightHandSides), columns, rightHandSides);
+    }
+
+    /**
+     * Applies {@code Q^T} to the right-hand sides, and solves {@code R * X} for the first rows of
+     * the result, which are returned.
+     */
+    private double[] solveInPlace(double[] rightHandSides, int rightHandSideCount) {
+        double[] workspace = new double[rightHandSideCount];
+        for (int j = 0; j < columns; j++) {
+            if (tau[j] != 0.0) {
+                DecompositionKernels.applyReflection(factors, rows, columns, j, tau[j], rightHandSides, rightHandSideCount, 0, rightHandSideCount, workspace);
+            }
+        }
+        double[] solution = rows == columns ? rightHandSides : Arrays.copyOf(rightHandSides, columns * rightHandSideCount);
+        // The first rows of the factors are R, with the same row stride
+        DecompositionKernels.solveUpper(factors, columns, solution, rightHandSideCount);
+        return solution;
+    }
+
+    private void validateFullRank() {
+        if (!isFullRank()) {
+            throw new IllegalStateException("Matrix does not have full rank");
+        }
+    }
+
+    private static class TrustedDoubleMatrix extends DoubleMatrix {
+        private TrustedDoubleMatrix(double[] elementData, int rows, int columns) {
+            super(elementData, true, rows, columns);
+        }
+    }
+
+    private static class TrustedDoubleArray extends DoubleArray {
+        private TrustedDoubleArray(double[] elementData) {
+            super(elementData, true);
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package org.viktori.matteray.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BinaryOperator;
+
+/**
+ * Internal prefix scan kernels used by {@link ArrayUtils}. The kernels write the scan of a raw
+ * array into a new array of the same length, which is then wrapped without copying.
+ *
+ * <p>With a pool, the scan is computed in three passes over blocks of the array, which is the
+ * work-efficient form of the Blelloch scan for a few threads. First the total of each block
+ * is reduced concurrently, then the totals are scanned in the calling thread, which gives the
+ * offset of each block, and finally each block is scanned concurrently from its offset. Each
+ * element is read twice and written once, whatever the number of threads.
+ *
+ * @author Viktor Ingemansson
+ */
+final class ScanKernels {
+
+    /**
+     * Minimum number of elements in each block of a parallel scan
+     */
+    private static final int MINIMUM_BLOCK = 1 << 14;
+
+    private ScanKernels() {
+        // static class
+    }
+
+    /**
+     * The built-in operations of the primitive scans.
+     */
+    enum Op {
+        SUM,
+        MAX,
+        MIN
+    }
+
+    /**
+     * Represents an action on one block of a parallel scan.
+     */
+    @FunctionalInterface
+    private interface BlockAction {
+        void run(int block, int from, int to);
+    }
+
+    /**
+     * Returns the scan of the array with the specified operation, which is inclusive unless
+     * {@code exclusive} is set.
+     *
+     * @param pool pool to scan the blocks in, or null to scan in the calling thread
+     */
+    static double[] scan(double[] a, Op op, boolean exclusive, ForkJoinPool pool) {
+        double identity = switch (op) {
+            case SUM -> 0.0;
+            case MAX -> Double.NEGATIVE_INFINITY;
+            case MIN -> Double.POSITIVE_INFINITY;
+        };
+        double[] out = new double[a.length];
+        if (pool == null) {
+            scanRange(a, out, 0, a.length, identity, op, exclusive);
+            return out;
+        }
+        int grain = ParallelRanges.grainFor(pool, a.length, 64, MINIMUM_BLOCK);
+        double[] offsets = new double[(a.length + grain - 1) / grain];
+        forEachBlock(pool, a.length, grain, (block, from, to) -> offsets[block] = reduceRange(a, from, to, identity, op));
+        double running = identity;
+        for (int block = 0; block < offsets.length; block++) {
+            double total = offsets[block];
+            offsets[block] = running;
+            running = apply(running, total, op);
+        }
+        forEachBlock(pool, a.length, grain, (block, from, to) -> scanRange(a, out, from, to, offsets[block], op, exclusive));
+        return out;
+    }
+
+    private static double apply(double x, double y, Op op) {
+        return switch (op) {
+            case SUM -> x + y;
+            case MAX -> Math.max(x, y);
+            case MIN -> Math.min(x, y);
+        };
+    }
+
+    private static double reduceRange(double[] a, int from, int to, double identity, Op op) {
+        double running = identity;
+        switch (op) {
+            case SUM -> {
+                for (int i = from; i < to; i++) {
+                    running += a[i];
+                }
+            }
+            case MAX -> {
+                for (int i = from; i < to; i++) {
+                    running = Math.max(running, a[i]);
+                }
+            }
+            case MIN -> {
+                for (int i = from; i < to; i++) {
+                    running = Math.min(running, a[i]);
+                }
+            }
+        }
+        return running;
+    }
+
+    private static void scanRange(double[] a, double[] out, int from, int to, double offset, Op op, boolean exclusive) {
+        double running = offset;
+        switch (op) {
+            case SUM -> {
+                if (exclusive) {
+                    for (int i = from; i < to; i++) {
+                        out[i] = running;
+                        running += a[i];
+                    }
+                } else {
+                    for (int i = from; i < to; i++) {
+                        running += a[i];
+                        out[i] = running;
+                    }
+                }
+            }
+            case MAX -> {
+                if (exclusive) {
+                    for (int i = from; i < to; i++) {
+                        out[i] = running;
+                        running = Math.max(running, a[i]);
+                    }
+                } else {
+                    for (int i = from; i < to; i++) {
+                        running = Math.max(running, a[i]);
+                        out[i] = running;
+                    }
+                }
+            }
+            case MIN -> {
+                if (exclusive) {
+                    for (int i = from; i < to; i++) {
+                        out[i] = running;
+                        running = Math.min(running, a[i]);
+                    }
+                } else {
+                    for (int i = from; i < to; i++) {
+                        running = Math.min(running, a[i]);
+                        out[i] = running;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the scan of the array with the specified operation, which is inclusive unless
+     * {@code exclusive} is set. Sums overflow silently like the {@code long} operators.
+     *
+     * @param pool pool to scan the blocks in, or null to scan in the calling thread
+     */
+    static long[] scan(long[] a, Op op, boolean exclusive, ForkJoinPool pool) {
+        long identity = switch (op) {
+            case SUM -> 0L;
+            case MAX -> Long.MIN_VALUE;
+            case MIN -> Long.MAX_VALUE;
+        };
+        long[] out = new long[a.length];
+        if (pool == null) {
+            scanRange(a, out, 0, a.length, identity, op, exclusive);
+            return out;
+        }
+        int grain = ParallelRanges.grainFor(pool, a.length, 64, MINIMUM_BLOCK);
+        long[] offsets = new long[(a.length + grain - 1) / grain];
+        forEachBlock(pool, a.length, grain, (block, from, to) -> offsets[block] = reduceRange(a, from, to, identity, op));
+        long running = identity;
+        for (int block = 0; block < offsets.length; block++) {
+            long total = offsets[block];
+            offsets[block] = running;
+            running = apply(running, total, op);
+        }
+        forEachBlock(pool, a.length, grain, (block, from, to) -> scanRange(a, out, from, to, offsets[block], op, exclusive));
+        return out;
+    }
+
+    private static long apply(long x, long y, Op op) {
+        return switch (op) {
+            case SUM -> x + y;
+            case MAX -> Math.max(x, y);
+            case MIN -> Math.min(x, y);
+        };
+    }
+
+    private static long reduceRange(long[] a, int from, int to, long identity, Op op) {
+        long running = identity;
+        switch (op) {
+            case SUM -> {
+                for (int i = from; i < to; i++) {
+                    running += a[i];
+                }
+            }
+            case MAX -> {
+                for (int i = from; i < to; i++) {
+                    running = Math.max(running, a[i]);
+                }
+            }
+            case MIN -> {
+                for (int i = from; i < to; i++) {
+                    running = Math.min(running, a[i]);
+                }
+            }
+        }
+        return running;
+    }
+
+    private static void scanRange(long[] a, long[] out, int from, int to, long offset, Op op, boolean exclusive) {
+        long running = offset;
+        switch (op) {
+            case SUM -> {
+                if (exclusive) {
+                    for (int i = from; i < to; i++) {
+                        out[i] = running;
+                        running += a[i];
+                    }
+                } else {
+                    for (int i = from; i < to; i++) {
+                        running += a[i];
+                        out[i] = running;
+                    }
+                }
+            }
+            case MAX -> {
+                if (exclusive) {
+                    for (int i = from; i < to; i++) {
+                        out[i] = running;
+                        running = Math.max(running, a[i]);
+                    }
+                } else {
+                    for (int i = from; i < to; i++) {
+                        running = Math.max(running, a[i]);
+                        out[i] = running;
+                    }
+                }
+            }
+            case MIN -> {
+                if (exclusive) {
+                    for (int i = from; i < to; i++) {
+                        out[i] = running;
+                        running = Math.min(running, a[i]);
+                    }
+                } else {
+                    for (int i = from; i < to; i++) {
+                        running = Math.min(running, a[i]);
+                        out[i] = running;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the scan of the array with the specified operation, which is inclusive unless
+     * {@code exclusive} is set. Sums overflow silently like the {@code int} operators.
+     *
+     * @param pool pool to scan the blocks in, or null to scan in the calling thread
+     */
+    static int[] scan(int[] a, Op op, boolean exclusive, ForkJoinPool pool) {
+        int identity = switch (op) {
+            case SUM -> 0;
+            case MAX -> Integer.MIN_VALUE;
+            case MIN -> Integer.MAX_VALUE;
+        };
+        int[] out = new int[a.length];
+        if (pool == null) {
+            scanRange(a, out, 0, a.length, identity, op, exclusive);
+            return out;
+        }
+        int grain = ParallelRanges.grainFor(pool, a.length, 64, MINIMUM_BLOCK);
+        int[] offsets = new int[(a.length + grain - 1) / grain];
+        forEachBlock(pool, a.length, grain, (block, from, to) -> offsets[block] = reduceRange(a, from, to, identity, op));
+        int running = identity;
+        for (int block = 0; block < offsets.length; block++) {
+            int total = offsets[block];
+            offsets[block] = running;
+            running = apply(running, total, op);
+        }
+        forEachBlock(pool, a.length, grain, (block, from, to) -> scanRange(a, out, from, to, offsets[block], op, exclusive));
+        return out;
+    }
+
+    private static int apply(int x, int y, Op op) {
+        return switch (op) {
+            case SUM -> x + y;
+            case MAX -> Math.max(x, y);
+            case MIN -> Math.min(x, y);
+        };
+    }
+
+    private static int reduceRange(int[] a, int from, int to, int identity, Op op) {
+        int running = identity;
+        switch (op) {
+            case SUM -> {
+                for (int i = from; i < to; i++) {
+                    running += a[i];
+                }
+            }
+            case MAX -> {
+                for (int i = from; i < to; i++) {
+                    running = Math.max(running, a[i]);
+                }
+            }
+            case MIN -> {
+                for (int i = from; i < to; i++) {
+                    running = Math.min(running, a[i]);
+                }
+            }
+        }
+        return running;
+    }
+
+    private static void scanRange(int[] a, int[] out, int from, int to, int offset, Op op, boolean exclusive) {
+        int running = offset;
+        switch (op) {
+            case SUM -> {
+                if (exclusive) {
+                    for (int i = from; i < to; i++) {
+                        out[i] = running;
+                        running += a[i];
+                    }
+                } else {
+                    for (int i = from; i < to; i++) {
+                        running += a[i];
+                        out[i] = running;
+                    }
+                }
+            }
+            case MAX -> {
+                if (exclusive) {
+                    for (int i = from; i < to; i++) {
+                        out[i] = running;
+                        running = Math.max(running, a[i]);
+                    }
+                } else {
+                    for (int i = from; i < to; i++) {
+                        running = Math.max(running, a[i]);
+                        out[i] = running;
+                    }
+                }
+            }
+            case MIN -> {
+                if (exclusive) {
+                    for (int i = from; i < to; i++) {
+                        out[i] = running;
+                        running = Math.min(running, a[i]);
+                    }
+                } else {
+                    for (int i = from; i < to; i++) {
+                        running = Math.min(running, a[i]);
+                        out[i] = running;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the scan of the array with the specified operator, which must be associative
+     * for a parallel scan. A scan with an identity starts from it, and an inclusive scan
+     * without one starts from the first element. An exclusive scan always has an identity.
+     *
+     * @param hasIdentity if the scan starts from the identity
+     * @param pool pool to scan the blocks in, or null to scan in the calling thread
+     */
+    static <E> Object[] scan(Object[] a, BinaryOperator<E> operator, E identity, boolean hasIdentity, boolean exclusive,
+                             ForkJoinPool pool) {
+        Object[] out = new Object[a.length];
+        if (pool == null) {
+            scanRange(a, out, 0, a.length, identity, hasIdentity, operator, exclusive);
+            return out;
+        }
+        int grain = ParallelRanges.grainFor(pool, a.length, 64, MINIMUM_BLOCK);
+        Object[] offsets = new Object[(a.length + grain - 1) / grain];
+        forEachBlock(pool, a.length, grain, (block, from, to) -> {
+            E running = elementAt(a, from);
+            for (int i = from + 1; i < to; i++) {
+                running = operator.apply(running, elementAt(a, i));
+            }
+            offsets[block] = running;
+        });
+        E running = identity;
+        for (int block = 0; block < offsets.length; block++) {
+            E total = elementAt(offsets, block);
+            offsets[block] = running;
+            running = block > 0 || hasIdentity ? operator.apply(running, total) : total;
+        }
+        forEachBlock(pool, a.length, grain,
+                (block, from, to) -> scanRange(a, out, from, to, elementAt(offsets, block), block > 0 || hasIdentity, operator, exclusive));
+        return out;
+    }
+
+    private static <E> void scanRange(Object[] a, Object[] out, int from, int to, E offset, boolean hasOffset, BinaryOperator<E> operator,
+                                      boolean exclusive) {
+        E running = offset;
+        int i = from;
+        if (!hasOffset && i < to) {
+            running = elementAt(a, i);
+            out[i++] = running;
+        }
+        if (exclusive) {
+            for (; i < to; i++) {
+                out[i] = running;
+                running = operator.apply(running, elementAt(a, i));
+            }
+        } else {
+            for (; i < to; i++) {
+                running = operator.apply(running, elementAt(a, i));
+                out[i] = running;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> E elementAt(Object[] a, int i) {
+        return (E) a[i];
+    }
+
+    private static void forEachBlock(ForkJoinPool pool, int length, int grain, BlockAction action) {
+        int blocks = (length + grain - 1) / grain;
+        ParallelRanges.forRange(pool, 0, blocks, 1, (from, to) -> {
+            for (int block = from; block < to; block++) {
+                action.run(block, block * grain, Math.min(length, (block + 1) * grain));
+            }
+        });
+    }
+}
@@ -0,0 +1,269 @@
+package org.viktori.matteray.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Internal selection kernels used by {@link ArrayUtils}, which find the element at an index of
+ * the sorted order, or the largest elements, without sorting the whole array.
+ *
+ * <p>The selection is an introselect, i.e. a quickselect which partitions around the median of
+ * three elements, and only keeps the part which holds the index. If the partitions shrink too
+ * slowly, which takes a specially crafted array, the part is sorted instead, so the worst case
+ * is {@code O(n log n)} while the expected time is {@code O(n)}.
+ *
+ * <p>Primitive {@code double} elements are selected as {@code long} keys which are ordered the
+ * same way as {@link Double#compare}, so {@code -0.0} is before {@code 0.0} and NaN is after
+ * everything else, like in a sorted array.
+ *
+ * @author Viktor Ingemansson
+ */
+final class SelectKernels {
+
+    /**
+     * Minimum number of elements in each block of a parallel top k
+     */
+    private static final int MINIMUM_BLOCK = 1 << 14;
+
+    private SelectKernels() {
+        // static class
+    }
+
+    /**
+     * Returns a key for the value, whose order as a {@code long} is the order of
+     * {@link Double#compare}. Negative values have all bits but the sign flipped, so a larger
+     * magnitude gives a smaller key.
+     */
+    static long toKey(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns the value of a key returned by {@link #toKey(double)}.
+     */
+    static double fromKey(long key) {
+        return Double.longBitsToDouble(key ^ ((key >> 63) & Long.MAX_VALUE));
+    }
+
+    /**
+     * Reorders the array so the element at index {@code n} is the one which would be there if
+     * the array was sorted, with no greater element before it and no smaller element after it.
+     */
+    static void select(long[] a, int n) {
+        int from = 0;
+        int to = a.length - 1;
+        int depth = 2 * (32 - Integer.numberOfLeadingZeros(a.length));
+        while (from < to) {
+            if (depth-- == 0) {
+                Arrays.sort(a, from, to + 1);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            // Order the first, middle and last elements, which also guards both scans below
+            if (a[middle] < a[from]) {
+                swap(a, from, middle);
+            }
+            if (a[to] < a[middle]) {
+                swap(a, middle, to);
+                if (a[middle] < a[from]) {
+                    swap(a, from, middle);
+                }
+            }
+            long pivot = a[middle];
+            int i = from;
+            int j = to;
+            while (i <= j) {
+                while (a[i] < pivot) {
+                    i++;
+                }
+                while (pivot < a[j]) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(a, i++, j--);
+                }
+            }
+            // Now everything up to j is at most the pivot, everything from i is at least the
+            // pivot, and anything in between equals the pivot
+            if (n <= j) {
+                to = j;
+            } else if (n >= i) {
+                from = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the smallest element from index {@code from} to the end of the array.
+     */
+    static long min(long[] a, int from) {
+        long min = a[from];
+        for (int i = from + 1; i < a.length; i++) {
+            min = Math.min(min, a[i]);
+        }
+        return min;
+    }
+
+    private static void swap(long[] a, int i, int j) {
+        long t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    /**
+     * Reorders the array so the element at index {@code n} is the one which would be there if
+     * the array was sorted by the comparator, with no greater element before it and no smaller
+     * element after it.
+     */
+    @SuppressWarnings("unchecked")
+    static <E> void select(Object[] a, int n, Comparator<? super E> comparator) {
+        Comparator<Object> c = (Comparator<Object>) comparator;
+        int from = 0;
+        int to = a.length - 1;
+        int depth = 2 * (32 - Integer.numberOfLeadingZeros(a.length));
+        while (from < to) {
+            if (depth-- == 0) {
+                Arrays.sort(a, from, to + 1, c);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            if (c.compare(a[middle], a[from]) < 0) {
+                swap(a, from, middle);
+            }
+            if (c.compare(a[to], a[middle]) < 0) {
+                swap(a, middle, to);
+                if (c.compare(a[middle], a[from]) < 0) {
+                    swap(a, from, middle);
+                }
+            }
+            Object pivot = a[middle];
+            int i = from;
+            int j = to;
+            while (i <= j) {
+                while (c.compare(a[i], pivot) < 0) {
+                    i++;
+                }
+                while (c.compare(pivot, a[j]) < 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(a, i++, j--);
+                }
+            }
+            if (n <= j) {
+                to = j;
+            } else if (n >= i) {
+                from = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static void swap(Object[] a, int i, int j) {
+        Object t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    /**
+     * Returns the {@code k} greatest elements of the array by the comparator, from the
+     * greatest to the smallest. Each part of the array keeps its greatest elements in a
+     * bounded heap, and the heaps of the parts are then merged in the calling thread.
+     *
+     * @param pool pool to find the greatest elements of the parts in, or null to find them in
+     *             the calling thread
+     */
+    @SuppressWarnings("unchecked")
+    static <E> Object[] top(Object[] a, int k, Comparator<? super E> comparator, ForkJoinPool pool) {
+        Comparator<Object> c = (Comparator<Object>) comparator;
+        k = Math.min(k, a.length);
+        Object[] heap;
+        if (pool == null) {
+            heap = new Object[k];
+            int size = offerAll(a, 0, a.length, heap, 0, c);
+            return sortDescending(heap, size, c);
+        }
+        int grain = Math.max(ParallelRanges.grainFor(pool, a.length, 1, MINIMUM_BLOCK), k);
+        int blocks = (a.length + grain - 1) / grain;
+        Object[][] heaps = new Object[blocks][];
+        int[] sizes = new int[blocks];
+        int length = a.length;
+        int capacity = k;
+        ParallelRanges.forRange(pool, 0, blocks, 1, (fromBlock, toBlock) -> {
+            for (int block = fromBlock; block < toBlock; block++) {
+                heaps[block] = new Object[capacity];
+                sizes[block] = offerAll(a, block * grain, Math.min(length, (block + 1) * grain), heaps[block], 0, c);
+            }
+        });
+        heap = new Object[k];
+        int size = 0;
+        for (int block = 0; block < blocks; block++) {
+            size = offerAll(heaps[block], 0, sizes[block], heap, size, c);
+        }
+        return sortDescending(heap, size, c);
+    }
+
+    /**
+     * Offers the elements from {@code from} to {@code to} to a heap of the greatest elements
+     * seen, whose root is the smallest of them, and returns the new size of the heap.
+     */
+    private static int offerAll(Object[] a, int from, int to, Object[] heap, int size, Comparator<Object> c) {
+        int k = heap.length;
+        for (int i = from; i < to; i++) {
+            Object element = a[i];
+            if (size < k) {
+                // Sift up from the new leaf
+                int child = size++;
+                while (child > 0) {
+                    int parent = (child - 1) >>> 1;
+                    if (c.compare(element, heap[parent]) >= 0) {
+                        break;
+                    }
+                    heap[child] = heap[parent];
+                    child = parent;
+                }
+                heap[child] = element;
+            } else if (k > 0 && c.compare(element, heap[0]) > 0) {
+                siftDown(heap, size, element, c);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Puts the element at the root of the heap, replacing the root, and sifts it down.
+     */
+    private static void siftDown(Object[] heap, int size, Object element, Comparator<Object> c) {
+        int parent = 0;
+        int child;
+        while ((child = 2 * parent + 1) < size) {
+            if (child + 1 < size && c.compare(heap[child + 1], heap[child]) < 0) {
+                child++;
+            }
+            if (c.compare(element, heap[child]) <= 0) {
+                break;
+            }
+            heap[parent] = heap[child];
+            parent = child;
+        }
+        heap[parent] = element;
+    }
+
+    /**
+     * Sorts the heap from the greatest to the smallest element, by moving the smallest
+     * element from the root to the end, one at a time.
+     */
+    private static Object[] sortDescending(Object[] heap, int size, Comparator<Object> c) {
+        for (int last = size - 1; last > 0; last--) {
+            Object smallest = heap[0];
+            siftDown(heap, last, heap[last], c);
+            heap[last] = smallest;
+        }
+        return heap;
+    }
+}
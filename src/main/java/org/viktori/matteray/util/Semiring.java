@@ -0,0 +1,166 @@
+package org.viktori.matteray.util;
+
+import java.util.Optional;
+import java.util.function.BinaryOperator;
+
+/**
+ * A semiring, i.e. a set of values with an addition {@link #plus} and a multiplication
+ * {@link #times}, where the addition is associative and commutative with the identity
+ * {@link #zero}, and the multiplication is associative with the identity {@link #one} and
+ * distributes over the addition. Ordinary arithmetic is a semiring, but so is min-plus
+ * arithmetic, where shortest paths are found by matrix multiplication, and boolean or-and
+ * arithmetic, where reachability is.
+ *
+ * <p>A semiring is passed to {@link MatrixUtils#multiply(org.viktori.matteray.Matrix,
+ * org.viktori.matteray.Matrix, Semiring)} and {@link ArrayUtils#dotProduct(org.viktori.matteray.Array,
+ * org.viktori.matteray.Array, Semiring)} instead of separate product and sum functions. Since the
+ * addition is known to be associative and commutative, the terms may be summed in any order,
+ * and products with the {@link #annihilator} may be skipped entirely. The built-in semirings
+ * returned by the static factory methods of this interface are also recognized, and computed
+ * with dedicated loops on unboxed values without calling any functions.
+ *
+ * @param <E> the type of values in this semiring
+ *
+ * @author Viktor Ingemansson
+ * @see MatrixUtils
+ * @see ArrayUtils
+ */
+public interface Semiring<E> {
+
+    /**
+     * Returns the sum of two values.
+     *
+     * @param x first value
+     * @param y second value
+     * @return the sum of the values
+     */
+    E plus(E x, E y);
+
+    /**
+     * Returns the product of two values.
+     *
+     * @param x first value
+     * @param y second value
+     * @return the product of the values
+     */
+    E times(E x, E y);
+
+    /**
+     * Returns the identity of the addition, which is the result of an empty sum.
+     *
+     * @return the zero of this semiring
+     */
+    E zero();
+
+    /**
+     * Returns the identity of the multiplication.
+     *
+     * @return the one of this semiring
+     */
+    E one();
+
+    /**
+     * Returns the annihilator of the multiplication, if this semiring has one which holds for
+     * every value. The annihilator must be equal to {@link #zero}, and the product of it and
+     * any value must be equal to it, so such products can be skipped without changing a sum.
+     *
+     * <p>The default implementation returns an empty optional, so no products are skipped.
+     *
+     * @return the annihilator of this semiring, or {@code Optional.empty()} if there is none
+     */
+    default Optional<E> annihilator() {
+        return Optional.empty();
+    }
+
+    /**
+     * Returns ordinary arithmetic on {@code Double}, with zero {@code 0.0} and one {@code 1.0}.
+     * It has no annihilator, since the product of zero and an infinity or NaN is NaN.
+     *
+     * @return the {@code double} arithmetic semiring
+     */
+    static Semiring<Double> doubleArithmetic() {
+        return Semirings.DOUBLE_ARITHMETIC;
+    }
+
+    /**
+     * Returns ordinary arithmetic on {@code Long}, with zero {@code 0L} and one {@code 1L}, which
+     * overflows silently like the {@code long} operators. Zero is the annihilator.
+     *
+     * @return the {@code long} arithmetic semiring
+     */
+    static Semiring<Long> longArithmetic() {
+        return Semirings.LONG_ARITHMETIC;
+    }
+
+    /**
+     * Returns ordinary arithmetic on {@code Integer}, with zero {@code 0} and one {@code 1},
+     * which overflows silently like the {@code int} operators. Zero is the annihilator.
+     *
+     * @return the {@code int} arithmetic semiring
+     */
+    static Semiring<Integer> intArithmetic() {
+        return Semirings.INT_ARITHMETIC;
+    }
+
+    /**
+     * Returns the tropical min-plus semiring on {@code Double}, where the sum is the minimum and
+     * the product is the ordinary sum. Zero is positive infinity, which also annihilates negative
+     * infinity, and one is {@code 0.0}. Multiplying a matrix of edge weights with itself in this
+     * semiring gives the lengths of the shortest paths of two edges.
+     *
+     * @return the min-plus semiring
+     */
+    static Semiring<Double> minPlus() {
+        return Semirings.MIN_PLUS;
+    }
+
+    /**
+     * Returns the tropical max-plus semiring on {@code Double}, where the sum is the maximum and
+     * the product is the ordinary sum. Zero is negative infinity, which also annihilates positive
+     * infinity, and one is {@code 0.0}.
+     *
+     * @return the max-plus semiring
+     */
+    static Semiring<Double> maxPlus() {
+        return Semirings.MAX_PLUS;
+    }
+
+    /**
+     * Returns the max-times semiring on non-negative {@code Double} values, where the sum is the
+     * maximum and the product is the ordinary product. Zero is {@code 0.0}, which also
+     * annihilates positive infinity, and one is {@code 1.0}. Multiplying matrices of
+     * probabilities in this semiring gives the probabilities of the most likely paths.
+     *
+     * @return the max-times semiring
+     */
+    static Semiring<Double> maxTimes() {
+        return Semirings.MAX_TIMES;
+    }
+
+    /**
+     * Returns the boolean semiring, where the sum is logical or and the product is logical and.
+     * Zero is {@code false} and one is {@code true}. Multiplying adjacency matrices in this
+     * semiring tells which nodes are reachable.
+     *
+     * @return the boolean or-and semiring
+     */
+    static Semiring<Boolean> orAnd() {
+        return Semirings.OR_AND;
+    }
+
+    /**
+     * Returns a semiring with the specified functions and identities. The sum function must be
+     * associative and commutative, and the semiring has no annihilator.
+     *
+     * @param plus  function to calculate the sum of two values, i.e. (x, y) -> x + y
+     * @param times function to calculate the product of two values, i.e. (x, y) -> x * y
+     * @param zero  identity of the sum
+     * @param one   identity of the product
+     * @param <E>   the type of values in the semiring
+     * @return a semiring with the specified functions and identities
+     * @throws NullPointerException if any argument is null
+     */
+    static <E> Semiring<E> of(BinaryOperator<E> plus, BinaryOperator<E> times, E zero, E one) {
+        return new Semirings.FunctionSemiring<>(Semirings.Kind.CUSTOM, "Semiring", plus, times, zero, one, null);
+    }
+}
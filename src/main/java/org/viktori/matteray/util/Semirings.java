@@ -0,0 +1,112 @@
+package org.viktori.matteray.util;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BinaryOperator;
+
+/**
+ * Internal holder of the built-in {@link Semiring} instances. Each instance is tagged with a
+ * {@link Kind}, which {@link MatrixUtils} and {@link ArrayUtils} use to pick a dedicated loop
+ * instead of calling the functions of the semiring.
+ *
+ * @author Viktor Ingemansson
+ */
+final class Semirings {
+
+    enum Kind {
+        DOUBLE_ARITHMETIC,
+        LONG_ARITHMETIC,
+        INT_ARITHMETIC,
+        MIN_PLUS,
+        MAX_PLUS,
+        MAX_TIMES,
+        OR_AND,
+        CUSTOM
+    }
+
+    static final Semiring<Double> DOUBLE_ARITHMETIC = new FunctionSemiring<>(Kind.DOUBLE_ARITHMETIC, "doubleArithmetic",
+            Double::sum, (x, y) -> x * y, 0.0, 1.0, null);
+
+    static final Semiring<Long> LONG_ARITHMETIC = new FunctionSemiring<>(Kind.LONG_ARITHMETIC, "longArithmetic",
+            Long::sum, (x, y) -> x * y, 0L, 1L, 0L);
+
+    static final Semiring<Integer> INT_ARITHMETIC = new FunctionSemiring<>(Kind.INT_ARITHMETIC, "intArithmetic",
+            Integer::sum, (x, y) -> x * y, 0, 1, 0);
+
+    static final Semiring<Double> MIN_PLUS = new FunctionSemiring<>(Kind.MIN_PLUS, "minPlus",
+            Math::min, (x, y) -> x == Double.POSITIVE_INFINITY || y == Double.POSITIVE_INFINITY ? Double.POSITIVE_INFINITY : x + y,
+            Double.POSITIVE_INFINITY, 0.0, Double.POSITIVE_INFINITY);
+
+    static final Semiring<Double> MAX_PLUS = new FunctionSemiring<>(Kind.MAX_PLUS, "maxPlus",
+            Math::max, (x, y) -> x == Double.NEGATIVE_INFINITY || y == Double.NEGATIVE_INFINITY ? Double.NEGATIVE_INFINITY : x + y,
+            Double.NEGATIVE_INFINITY, 0.0, Double.NEGATIVE_INFINITY);
+
+    static final Semiring<Double> MAX_TIMES = new FunctionSemiring<>(Kind.MAX_TIMES, "maxTimes",
+            Math::max, (x, y) -> x == 0.0 || y == 0.0 ? 0.0 : x * y, 0.0, 1.0, 0.0);
+
+    static final Semiring<Boolean> OR_AND = new FunctionSemiring<>(Kind.OR_AND, "orAnd",
+            Boolean::logicalOr, Boolean::logicalAnd, false, true, false);
+
+    private Semirings() {
+        // static class
+    }
+
+    /**
+     * Returns the kind of the specified semiring, which is {@link Kind#CUSTOM} unless it is one
+     * of the built-in instances.
+     */
+    static Kind kindOf(Semiring<?> semiring) {
+        return semiring instanceof FunctionSemiring<?> fs ? fs.kind : Kind.CUSTOM;
+    }
+
+    static final class FunctionSemiring<E> implements Semiring<E> {
+
+        private final Kind kind;
+        private final String name;
+        private final BinaryOperator<E> plus;
+        private final BinaryOperator<E> times;
+        private final E zero;
+        private final E one;
+        private final E annihilator;
+
+        FunctionSemiring(Kind kind, String name, BinaryOperator<E> plus, BinaryOperator<E> times, E zero, E one, E annihilator) {
+            this.kind = kind;
+            this.name = name;
+            this.plus = Objects.requireNonNull(plus);
+            this.times = Objects.requireNonNull(times);
+            this.zero = Objects.requireNonNull(zero);
+            this.one = Objects.requireNonNull(one);
+            this.annihilator = annihilator;
+        }
+
+        @Override
+        public E plus(E x, E y) {
+            return plus.apply(x, y);
+        }
+
+        @Override
+        public E times(E x, E y) {
+            return times.apply(x, y);
+        }
+
+        @Override
+        public E zero() {
+            return zero;
+        }
+
+        @Override
+        public E one() {
+            return one;
+        }
+
+        @Override
+        public Optional<E> annihilator() {
+            return Optional.ofNullable(annihilator);
+        }
+
+        @Override
+        public String toString() {
+            return name + "[zero=" + zero + ", one=" + one + "]";
+        }
+    }
+}
@@ -0,0 +1,448 @@
+package org.viktori.matteray.util;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implementation of {@link PrimitiveOps} with the incubating Vector API, which compiles to
+ * SIMD instructions, such as AVX2 or AVX-512, on supported hardware. Each loop processes as
+ * many elements per instruction as the preferred vector shape of the platform holds, and
+ * finishes the remaining tail elements with scalar code.
+ *
+ * <p>This class must only be loaded when the {@code jdk.incubator.vector} module is
+ * available, which {@link PrimitiveOps#INSTANCE} takes care of.
+ *
+ * @author Viktor Ingemansson
+ */
+final class SimdPrimitiveOps extends PrimitiveOps {
+
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+
+    /**
+     * Species of one row of a register tile, i.e. {@link MatrixKernels#NR} lanes
+     */
+    private static final VectorSpecies<Double> DOUBLE_TILE = DoubleVector.SPECIES_256;
+
+    /**
+     * Species of one row of a register tile, i.e. {@link MatrixKernels#NR} lanes
+     */
+    private static final VectorSpecies<Float> FLOAT_TILE = FloatVector.SPECIES_128;
+
+    SimdPrimitiveOps() {
+    }
+
+    @Override
+    double dot(double[] x, int xOffset, double[] y, int yOffset, int length) {
+        int i = 0;
+        int bound = DOUBLES.loopBound(length);
+        DoubleVector sum = DoubleVector.zero(DOUBLES);
+        for (; i < bound; i += DOUBLES.length()) {
+            sum = DoubleVector.fromArray(DOUBLES, x, xOffset + i).fma(DoubleVector.fromArray(DOUBLES, y, yOffset + i), sum);
+        }
+        double result = sum.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            result += x[xOffset + i] * y[yOffset + i];
+        }
+        return result;
+    }
+
+    @Override
+    void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length) {
+        int i = 0;
+        int bound = DOUBLES.loopBound(length);
+        DoubleVector alphas = DoubleVector.broadcast(DOUBLES, alpha);
+        for (; i < bound; i += DOUBLES.length()) {
+            alphas.fma(DoubleVector.fromArray(DOUBLES, x, xOffset + i), DoubleVector.fromArray(DOUBLES, y, yOffset + i)).intoArray(y, yOffset + i);
+        }
+        for (; i < length; i++) {
+            y[yOffset + i] += alpha * x[xOffset + i];
+        }
+    }
+
+    @Override
+    void add(double[] x, double[] y, double[] out) {
+        int i = 0;
+        int bound = DOUBLES.loopBound(out.length);
+        for (; i < bound; i += DOUBLES.length()) {
+            DoubleVector.fromArray(DOUBLES, x, i).add(DoubleVector.fromArray(DOUBLES, y, i)).intoArray(out, i);
+        }
+        for (; i < out.length; i++) {
+            out[i] = x[i] + y[i];
+        }
+    }
+
+    @Override
+    void multiply(double[] x, double[] y, double[] out) {
+        int i = 0;
+        int bound = DOUBLES.loopBound(out.length);
+        for (; i < bound; i += DOUBLES.length()) {
+            DoubleVector.fromArray(DOUBLES, x, i).mul(DoubleVector.fromArray(DOUBLES, y, i)).intoArray(out, i);
+        }
+        for (; i < out.length; i++) {
+            out[i] = x[i] * y[i];
+        }
+    }
+
+    @Override
+    void scale(double[] x, double factor, double[] out) {
+        int i = 0;
+        int bound = DOUBLES.loopBound(out.length);
+        for (; i < bound; i += DOUBLES.length()) {
+            DoubleVector.fromArray(DOUBLES, x, i).mul(factor).intoArray(out, i);
+        }
+        for (; i < out.length; i++) {
+            out[i] = x[i] * factor;
+        }
+    }
+
+    @Override
+    double sum(double[] x) {
+        int i = 0;
+        int bound = DOUBLES.loopBound(x.length);
+        DoubleVector sum = DoubleVector.zero(DOUBLES);
+        for (; i < bound; i += DOUBLES.length()) {
+            sum = sum.add(DoubleVector.fromArray(DOUBLES, x, i));
+        }
+        double result = sum.reduceLanes(VectorOperators.ADD);
+        for (; i < x.length; i++) {
+            result += x[i];
+        }
+        return result;
+    }
+
+    @Override
+    double min(double[] x) {
+        int bound = DOUBLES.loopBound(x.length);
+        if (bound == 0) {
+            return super.min(x);
+        }
+        DoubleVector min = DoubleVector.fromArray(DOUBLES, x, 0);
+        int i = DOUBLES.length();
+        for (; i < bound; i += DOUBLES.length()) {
+            min = min.min(DoubleVector.fromArray(DOUBLES, x, i));
+        }
+        double result = min.reduceLanes(VectorOperators.MIN);
+        for (; i < x.length; i++) {
+            result = Math.min(result, x[i]);
+        }
+        return result;
+    }
+
+    @Override
+    double max(double[] x) {
+        int bound = DOUBLES.loopBound(x.length);
+        if (bound == 0) {
+            return super.max(x);
+        }
+        DoubleVector max = DoubleVector.fromArray(DOUBLES, x, 0);
+        int i = DOUBLES.length();
+        for (; i < bound; i += DOUBLES.length()) {
+            max = max.max(DoubleVector.fromArray(DOUBLES, x, i));
+        }
+        double result = max.reduceLanes(VectorOperators.MAX);
+        for (; i < x.length; i++) {
+            result = Math.max(result, x[i]);
+        }
+        return result;
+    }
+
+    @Override
+    void microKernelDouble(int kc, double[] a, int aOffset, double[] b, int bOffset, double[] c, int cOffset, int columns,
+                           int height, int width, double[] edge) {
+        DoubleVector c0 = DoubleVector.zero(DOUBLE_TILE);
+        DoubleVector c1 = c0;
+        DoubleVector c2 = c0;
+        DoubleVector c3 = c0;
+        for (int p = 0, i = aOffset, j = bOffset; p < kc; p++, i += MatrixKernels.MR, j += MatrixKernels.NR) {
+            DoubleVector row = DoubleVector.fromArray(DOUBLE_TILE, b, j);
+            c0 = row.fma(DoubleVector.broadcast(DOUBLE_TILE, a[i]), c0);
+            c1 = row.fma(DoubleVector.broadcast(DOUBLE_TILE, a[i + 1]), c1);
+            c2 = row.fma(DoubleVector.broadcast(DOUBLE_TILE, a[i + 2]), c2);
+            c3 = row.fma(DoubleVector.broadcast(DOUBLE_TILE, a[i + 3]), c3);
+        }
+        if (height == MatrixKernels.MR && width == MatrixKernels.NR) {
+            DoubleVector.fromArray(DOUBLE_TILE, c, cOffset).add(c0).intoArray(c, cOffset);
+            DoubleVector.fromArray(DOUBLE_TILE, c, cOffset + columns).add(c1).intoArray(c, cOffset + columns);
+            DoubleVector.fromArray(DOUBLE_TILE, c, cOffset + 2 * columns).add(c2).intoArray(c, cOffset + 2 * columns);
+            DoubleVector.fromArray(DOUBLE_TILE, c, cOffset + 3 * columns).add(c3).intoArray(c, cOffset + 3 * columns);
+        } else {
+            c0.intoArray(edge, 0);
+            c1.intoArray(edge, MatrixKernels.NR);
+            c2.intoArray(edge, 2 * MatrixKernels.NR);
+            c3.intoArray(edge, 3 * MatrixKernels.NR);
+            for (int i = 0; i < height; i++) {
+                for (int j = 0; j < width; j++) {
+                    c[cOffset + i * columns + j] += edge[i * MatrixKernels.NR + j];
+                }
+            }
+        }
+    }
+
+    @Override
+    float dot(float[] x, int xOffset, float[] y, int yOffset, int length) {
+        int i = 0;
+        int bound = FLOATS.loopBound(length);
+        FloatVector sum = FloatVector.zero(FLOATS);
+        for (; i < bound; i += FLOATS.length()) {
+            sum = FloatVector.fromArray(FLOATS, x, xOffset + i).fma(FloatVector.fromArray(FLOATS, y, yOffset + i), sum);
+        }
+        float result = sum.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            result += x[xOffset + i] * y[yOffset + i];
+        }
+        return result;
+    }
+
+    @Override
+    void axpy(float alpha, float[] x, int xOffset, float[] y, int yOffset, int length) {
+        int i = 0;
+        int bound = FLOATS.loopBound(length);
+        FloatVector alphas = FloatVector.broadcast(FLOATS, alpha);
+        for (; i < bound; i += FLOATS.length()) {
+            alphas.fma(FloatVector.fromArray(FLOATS, x, xOffset + i), FloatVector.fromArray(FLOATS, y, yOffset + i)).intoArray(y, yOffset + i);
+        }
+        for (; i < length; i++) {
+            y[yOffset + i] += alpha * x[xOffset + i];
+        }
+    }
+
+    @Override
+    void add(float[] x, float[] y, float[] out) {
+        int i = 0;
+        int bound = FLOATS.loopBound(out.length);
+        for (; i < bound; i += FLOATS.length()) {
+            FloatVector.fromArray(FLOATS, x, i).add(FloatVector.fromArray(FLOATS, y, i)).intoArray(out, i);
+        }
+        for (; i < out.length; i++) {
+            out[i] = x[i] + y[i];
+        }
+    }
+
+    @Override
+    void multiply(float[] x, float[] y, float[] out) {
+        int i = 0;
+        int bound = FLOATS.loopBound(out.length);
+        for (; i < bound; i += FLOATS.length()) {
+            FloatVector.fromArray(FLOATS, x, i).mul(FloatVector.fromArray(FLOATS, y, i)).intoArray(out, i);
+        }
+        for (; i < out.length; i++) {
+            out[i] = x[i] * y[i];
+        }
+    }
+
+    @Override
+    void scale(float[] x, float factor, float[] out) {
+        int i = 0;
+        int bound = FLOATS.loopBound(out.length);
+        for (; i < bound; i += FLOATS.length()) {
+            FloatVector.fromArray(FLOATS, x, i).mul(factor).intoArray(out, i);
+        }
+        for (; i < out.length; i++) {
+            out[i] = x[i] * factor;
+        }
+    }
+
+    @Override
+    float sum(float[] x) {
+        int i = 0;
+        int bound = FLOATS.loopBound(x.length);
+        FloatVector sum = FloatVector.zero(FLOATS);
+        for (; i < bound; i += FLOATS.length()) {
+            sum = sum.add(FloatVector.fromArray(FLOATS, x, i));
+        }
+        float result = sum.reduceLanes(VectorOperators.ADD);
+        for (; i < x.length; i++) {
+            result += x[i];
+        }
+        return result;
+    }
+
+    @Override
+    float min(float[] x) {
+        int bound = FLOATS.loopBound(x.length);
+        if (bound == 0) {
+            return super.min(x);
+        }
+        FloatVector min = FloatVector.fromArray(FLOATS, x, 0);
+        int i = FLOATS.length();
+        for (; i < bound; i += FLOATS.length()) {
+            min = min.min(FloatVector.fromArray(FLOATS, x, i));
+        }
+        float result = min.reduceLanes(VectorOperators.MIN);
+        for (; i < x.length; i++) {
+            result = Math.min(result, x[i]);
+        }
+        return result;
+    }
+
+    @Override
+    float max(float[] x) {
+        int bound = FLOATS.loopBound(x.length);
+        if (bound == 0) {
+            return super.max(x);
+        }
+        FloatVector max = FloatVector.fromArray(FLOATS, x, 0);
+        int i = FLOATS.length();
+        for (; i < bound; i += FLOATS.length()) {
+            max = max.max(FloatVector.fromArray(FLOATS, x, i));
+        }
+        float result = max.reduceLanes(VectorOperators.MAX);
+        for (; i < x.length; i++) {
+            result = Math.max(result, x[i]);
+        }
+        return result;
+    }
+
+    @Override
+    void microKernelFloat(int kc, float[] a, int aOffset, float[] b, int bOffset, float[] c, int cOffset, int columns,
+                          int height, int width, float[] edge) {
+        FloatVector c0 = FloatVector.zero(FLOAT_TILE);
+        FloatVector c1 = c0;
+        FloatVector c2 = c0;
+        FloatVector c3 = c0;
+        for (int p = 0, i = aOffset, j = bOffset; p < kc; p++, i += MatrixKernels.MR, j += MatrixKernels.NR) {
+            FloatVector row = FloatVector.fromArray(FLOAT_TILE, b, j);
+            c0 = row.fma(FloatVector.broadcast(FLOAT_TILE, a[i]), c0);
+            c1 = row.fma(FloatVector.broadcast(FLOAT_TILE, a[i + 1]), c1);
+            c2 = row.fma(FloatVector.broadcast(FLOAT_TILE, a[i + 2]), c2);
+            c3 = row.fma(FloatVector.broadcast(FLOAT_TILE, a[i + 3]), c3);
+        }
+        if (height == MatrixKernels.MR && width == MatrixKernels.NR) {
+            FloatVector.fromArray(FLOAT_TILE, c, cOffset).add(c0).intoArray(c, cOffset);
+            FloatVector.fromArray(FLOAT_TILE, c, cOffset + columns).add(c1).intoArray(c, cOffset + columns);
+            FloatVector.fromArray(FLOAT_TILE, c, cOffset + 2 * columns).add(c2).intoArray(c, cOffset + 2 * columns);
+            FloatVector.fromArray(FLOAT_TILE, c, cOffset + 3 * columns).add(c3).intoArray(c, cOffset + 3 * columns);
+        } else {
+            c0.intoArray(edge, 0);
+            c1.intoArray(edge, MatrixKernels.NR);
+            c2.intoArray(edge, 2 * MatrixKernels.NR);
+            c3.intoArray(edge, 3 * MatrixKernels.NR);
+            for (int i = 0; i < height; i++) {
+                for (int j = 0; j < width; j++) {
+                    c[cOffset + i * columns + j] += edge[i * MatrixKernels.NR + j];
+                }
+            }
+        }
+    }
+
+    @Override
+    int dot(int[] x, int xOffset, int[] y, int yOffset, int length) {
+        int i = 0;
+        int bound = INTS.loopBound(length);
+        IntVector sum = IntVector.zero(INTS);
+        for (; i < bound; i += INTS.length()) {
+            sum = sum.add(IntVector.fromArray(INTS, x, xOffset + i).mul(IntVector.fromArray(INTS, y, yOffset + i)));
+        }
+        int result = sum.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            result += x[xOffset + i] * y[yOffset + i];
+        }
+        return result;
+    }
+
+    @Override
+    void axpy(int alpha, int[] x, int xOffset, int[] y, int yOffset, int length) {
+        int i = 0;
+        int bound = INTS.loopBound(length);
+        IntVector alphas = IntVector.broadcast(INTS, alpha);
+        for (; i < bound; i += INTS.length()) {
+            alphas.mul(IntVector.fromArray(INTS, x, xOffset + i)).add(IntVector.fromArray(INTS, y, yOffset + i)).intoArray(y, yOffset + i);
+        }
+        for (; i < length; i++) {
+            y[yOffset + i] += alpha * x[xOffset + i];
+        }
+    }
+
+    @Override
+    void add(int[] x, int[] y, int[] out) {
+        int i = 0;
+        int bound = INTS.loopBound(out.length);
+        for (; i < bound; i += INTS.length()) {
+            IntVector.fromArray(INTS, x, i).add(IntVector.fromArray(INTS, y, i)).intoArray(out, i);
+        }
+        for (; i < out.length; i++) {
+            out[i] = x[i] + y[i];
+        }
+    }
+
+    @Override
+    void multiply(int[] x, int[] y, int[] out) {
+        int i = 0;
+        int bound = INTS.loopBound(out.length);
+        for (; i < bound; i += INTS.length()) {
+            IntVector.fromArray(INTS, x, i).mul(IntVector.fromArray(INTS, y, i)).intoArray(out, i);
+        }
+        for (; i < out.length; i++) {
+            out[i] = x[i] * y[i];
+        }
+    }
+
+    @Override
+    void scale(int[] x, int factor, int[] out) {
+        int i = 0;
+        int bound = INTS.loopBound(out.length);
+        for (; i < bound; i += INTS.length()) {
+            IntVector.fromArray(INTS, x, i).mul(factor).intoArray(out, i);
+        }
+        for (; i < out.length; i++) {
+            out[i] = x[i] * factor;
+        }
+    }
+
+    @Override
+    int sum(int[] x) {
+        int i = 0;
+        int bound = INTS.loopBound(x.length);
+        IntVector sum = IntVector.zero(INTS);
+        for (; i < bound; i += INTS.length()) {
+            sum = sum.add(IntVector.fromArray(INTS, x, i));
+        }
+        int result = sum.reduceLanes(VectorOperators.ADD);
+        for (; i < x.length; i++) {
+            result += x[i];
+        }
+        return result;
+    }
+
+    @Override
+    int min(int[] x) {
+        int bound = INTS.loopBound(x.length);
+        if (bound == 0) {
+            return super.min(x);
+        }
+        IntVector min = IntVector.fromArray(INTS, x, 0);
+        int i = INTS.length();
+        for (; i < bound; i += INTS.length()) {
+            min = min.min(IntVector.fromArray(INTS, x, i));
+        }
+        int result = min.reduceLanes(VectorOperators.MIN);
+        for (; i < x.length; i++) {
+            result = Math.min(result, x[i]);
+        }
+        return result;
+    }
+
+    @Override
+    int max(int[] x) {
+        int bound = INTS.loopBound(x.length);
+        if (bound == 0) {
+            return super.max(x);
+        }
+        IntVector max = IntVector.fromArray(INTS, x, 0);
+        int i = INTS.length();
+        for (; i < bound; i += INTS.length()) {
+            max = max.max(IntVector.fromArray(INTS, x, i));
+        }
+        int result = max.reduceLanes(VectorOperators.MAX);
+        for (; i < x.length; i++) {
+            result = Math.max(result, x[i]);
+        }
+        return result;
+    }
+
+}
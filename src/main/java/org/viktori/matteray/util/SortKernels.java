@@ -0,0 +1,162 @@
+package org.viktori.matteray.util;
+
+import org.viktori.matteray.Array;
+import org.viktori.matteray.DoubleArray;
+import org.viktori.matteray.FloatArray;
+import org.viktori.matteray.IntArray;
+import org.viktori.matteray.LongArray;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+
+/**
+ * Internal sorting kernels used by {@link ArrayUtils}. Arrays of numbers in their natural
+ * order, or its reverse, are sorted as primitives, which avoids calling
+ * {@link Comparable#compareTo} for every comparison, and reading every element through a
+ * reference. This applies to the primitive arrays, and to any other array whose elements are
+ * all {@code Integer}, {@code Long}, {@code Float} or {@code Double}.
+ *
+ * <p>The primitive sorts order the elements the same way as the {@code compareTo} methods of
+ * the boxed types, so {@code -0.0} is before {@code 0.0}, and NaN is after everything else.
+ * Equal numbers are interchangeable, so the result is the same as a stable sort, except that
+ * the elements of the result are new boxes of the same values.
+ *
+ * @author Viktor Ingemansson
+ */
+final class SortKernels {
+
+    private SortKernels() {
+        // static class
+    }
+
+    /**
+     * Returns the elements of the array sorted by the comparator, which is the natural order
+     * if it is null. The elements are sorted with {@link Arrays#parallelSort} if
+     * {@code parallel} is set, and with {@link Arrays#sort} otherwise.
+     */
+    @SuppressWarnings("unchecked")
+    static Object[] sort(Array<?> array, Comparator<?> comparator, boolean parallel) {
+        boolean reversed = comparator == Collections.reverseOrder();
+        if (comparator == null || reversed || comparator == Comparator.naturalOrder()) {
+            Object[] sorted = sortNumbers(array, reversed, parallel);
+            if (sorted != null) {
+                return sorted;
+            }
+        }
+        Object[] rawArray = array.toArray();
+        if (parallel) {
+            Arrays.parallelSort(rawArray, (Comparator<Object>) comparator);
+        } else if (comparator == null) {
+            Arrays.sort(rawArray);
+        } else {
+            Arrays.sort(rawArray, (Comparator<Object>) comparator);
+        }
+        return rawArray;
+    }
+
+    /**
+     * Returns the elements of the array sorted as primitives, in descending order if
+     * {@code reversed} is set, or null if they are not all numbers of the same boxed type.
+     */
+    private static Object[] sortNumbers(Array<?> array, boolean reversed, boolean parallel) {
+        if (array instanceof DoubleArray doubleArray) {
+            return sortDoubles(doubleArray.toDoubleArray(), reversed, parallel);
+        } else if (array instanceof FloatArray floatArray) {
+            return sortFloats(floatArray.toFloatArray(), reversed, parallel);
+        } else if (array instanceof LongArray longArray) {
+            return sortLongs(longArray.toLongArray(), reversed, parallel);
+        } else if (array instanceof IntArray intArray) {
+            return sortInts(intArray.toIntArray(), reversed, parallel);
+        }
+        Object[] elements = array.toArray();
+        if (elements.length == 0) {
+            return null;
+        }
+        Class<?> type = elements[0] == null ? null : elements[0].getClass();
+        if (type != Integer.class && type != Long.class && type != Double.class && type != Float.class) {
+            return null;
+        }
+        for (Object element : elements) {
+            if (element == null || element.getClass() != type) {
+                return null;
+            }
+        }
+        if (type == Integer.class) {
+            int[] values = new int[elements.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = (Integer) elements[i];
+            }
+            return sortInts(values, reversed, parallel);
+        } else if (type == Long.class) {
+            long[] values = new long[elements.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = (Long) elements[i];
+            }
+            return sortLongs(values, reversed, parallel);
+        } else if (type == Double.class) {
+            double[] values = new double[elements.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = (Double) elements[i];
+            }
+            return sortDoubles(values, reversed, parallel);
+        }
+        float[] values = new float[elements.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (Float) elements[i];
+        }
+        return sortFloats(values, reversed, parallel);
+    }
+
+    private static Object[] sortDoubles(double[] values, boolean reversed, boolean parallel) {
+        if (parallel) {
+            Arrays.parallelSort(values);
+        } else {
+            Arrays.sort(values);
+        }
+        Object[] sorted = new Object[values.length];
+        for (int i = 0, last = values.length - 1; i < values.length; i++) {
+            sorted[i] = values[reversed ? last - i : i];
+        }
+        return sorted;
+    }
+
+    private static Object[] sortFloats(float[] values, boolean reversed, boolean parallel) {
+        if (parallel) {
+            Arrays.parallelSort(values);
+        } else {
+            Arrays.sort(values);
+        }
+        Object[] sorted = new Object[values.length];
+        for (int i = 0, last = values.length - 1; i < values.length; i++) {
+            sorted[i] = values[reversed ? last - i : i];
+        }
+        return sorted;
+    }
+
+    private static Object[] sortLongs(long[] values, boolean reversed, boolean parallel) {
+        if (parallel) {
+            Arrays.parallelSort(values);
+        } else {
+            Arrays.sort(values);
+        }
+        Object[] sorted = new Object[values.length];
+        for (int i = 0, last = values.length - 1; i < values.length; i++) {
+            sorted[i] = values[reversed ? last - i : i];
+        }
+        return sorted;
+    }
+
+    private static Object[] sortInts(int[] values, boolean reversed, boolean parallel) {
+        if (parallel) {
+            Arrays.parallelSort(values);
+        } else {
+            Arrays.sort(values);
+        }
+        Object[] sorted = new Object[values.length];
+        for (int i = 0, last = values.length - 1; i < values.length; i++) {
+            sorted[i] = values[reversed ? last - i : i];
+        }
+        return sorted;
+    }
+}
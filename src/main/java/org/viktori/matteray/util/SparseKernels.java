@@ -0,0 +1,174 @@
+package org.viktori.matteray.util;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Internal kernels for multiplying matrices in compressed sparse row (CSR) format, used by
+ * {@link MatrixUtils} and {@link LinearOperator}. A sparse operand is given as its row pointers,
+ * column indices and values, and only its stored elements are ever read, so the work is
+ * proportional to the number of non-zero elements rather than the size of the matrix.
+ *
+ * <p>All kernels operate on a range of result rows. Since the number of non-zero elements per
+ * row can vary a lot, such as in the adjacency matrix of a graph, {@link #forBalancedRows}
+ * splits the rows into bands with about the same number of non-zero elements instead of the
+ * same number of rows.
+ *
+ * @author Viktor Ingemansson
+ */
+final class SparseKernels {
+
+    private SparseKernels() {
+        // static class
+    }
+
+    /**
+     * Runs the action over all rows of a sparse matrix with the specified row pointers, split
+     * into bands with about the same number of non-zero elements, about four per thread in the
+     * pool. Each band is at least {@code minimumNonZeros} elements, and a band may hold more
+     * when a single row is that large.
+     */
+    static void forBalancedRows(ForkJoinPool pool, int[] rowPointers, int minimumNonZeros, ParallelRanges.RangeAction action) {
+        int rows = rowPointers.length - 1;
+        long nonZeros = rowPointers[rows];
+        int parts = (int) Math.max(1, Math.min(pool.getParallelism() * 4L, nonZeros / Math.max(1, minimumNonZeros)));
+        if (parts == 1) {
+            action.run(0, rows);
+            return;
+        }
+        int[] boundaries = new int[parts + 1];
+        for (int p = 1; p < parts; p++) {
+            int i = Arrays.binarySearch(rowPointers, (int) (nonZeros * p / parts));
+            // The first row which starts at or after the split point
+            boundaries[p] = Math.max(boundaries[p - 1], i >= 0 ? firstRowAt(rowPointers, i) : -i - 1);
+        }
+        boundaries[parts] = rows;
+        ParallelRanges.forRange(pool, 0, parts, 1, (from, to) -> {
+            for (int p = from; p < to; p++) {
+                if (boundaries[p] < boundaries[p + 1]) {
+                    action.run(boundaries[p], boundaries[p + 1]);
+                }
+            }
+        });
+    }
+
+    private static int firstRowAt(int[] rowPointers, int i) {
+        // Empty rows share their pointer with the next row
+        while (i > 0 && rowPointers[i - 1] == rowPointers[i]) {
+            i--;
+        }
+        return i;
+    }
+
+    /**
+     * Computes elements {@code fromRow} to {@code toRow} (exclusive) of the product of the sparse
+     * matrix {@code a} and the vector {@code x}, into {@code y}.
+     */
+    static void multiplySparseVector(int[] aPointers, int[] aColumns, double[] aValues, double[] x, double[] y,
+                                     int fromRow, int toRow) {
+        for (int i = fromRow; i < toRow; i++) {
+            double sum = 0.0;
+            for (int p = aPointers[i]; p < aPointers[i + 1]; p++) {
+                sum += aValues[p] * x[aColumns[p]];
+            }
+            y[i] = sum;
+        }
+    }
+
+    /**
+     * Computes rows {@code fromRow} to {@code toRow} (exclusive) of the product of the sparse
+     * matrix {@code a} and the row-major dense matrix {@code b}, adding it to {@code c}. Each
+     * stored element of {@code a} scales a whole row of {@code b}, which is added to the result
+     * row.
+     */
+    static void multiplySparseDense(int[] aPointers, int[] aColumns, double[] aValues, double[] b, double[] c,
+                                    int fromRow, int toRow, int columns) {
+        PrimitiveOps ops = PrimitiveOps.INSTANCE;
+        for (int i = fromRow; i < toRow; i++) {
+            for (int p = aPointers[i]; p < aPointers[i + 1]; p++) {
+                ops.axpy(aValues[p], b, aColumns[p] * columns, c, i * columns, columns);
+            }
+        }
+    }
+
+    /**
+     * Computes rows {@code fromRow} to {@code toRow} (exclusive) of the product of the row-major
+     * dense matrix {@code a} and the sparse matrix {@code b}, adding it to {@code c}. Each element
+     * of {@code a} scales the stored elements of a row of {@code b}, which are added to the
+     * result row.
+     */
+    static void multiplyDenseSparse(double[] a, int[] bPointers, int[] bColumns, double[] bValues, double[] c,
+                                    int fromRow, int toRow, int inner, int columns) {
+        for (int i = fromRow; i < toRow; i++) {
+            int aOffset = i * inner;
+            int cOffset = i * columns;
+            for (int k = 0; k < inner; k++) {
+                double aValue = a[aOffset + k];
+                for (int p = bPointers[k]; p < bPointers[k + 1]; p++) {
+                    c[cOffset + bColumns[p]] += aValue * bValues[p];
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts the number of distinct columns in each of the rows {@code fromRow} to {@code toRow}
+     * (exclusive) of the product of the sparse matrices {@code a} and {@code b}, into
+     * {@code counts[row + 1]}. This is the symbolic phase of {@link #multiplySparseSparse}.
+     */
+    static void countSparseSparse(int[] aPointers, int[] aColumns, int[] bPointers, int[] bColumns, int[] counts,
+                                  int fromRow, int toRow, int columns) {
+        int[] marker = new int[columns];
+        Arrays.fill(marker, -1);
+        for (int i = fromRow; i < toRow; i++) {
+            int count = 0;
+            for (int p = aPointers[i]; p < aPointers[i + 1]; p++) {
+                int k = aColumns[p];
+                for (int q = bPointers[k]; q < bPointers[k + 1]; q++) {
+                    int j = bColumns[q];
+                    if (marker[j] != i) {
+                        marker[j] = i;
+                        count++;
+                    }
+                }
+            }
+            counts[i + 1] = count;
+        }
+    }
+
+    /**
+     * Computes rows {@code fromRow} to {@code toRow} (exclusive) of the product of the sparse
+     * matrices {@code a} and {@code b}, into the sparse matrix {@code c}, whose row pointers
+     * must already be computed by {@link #countSparseSparse}. Each result row is accumulated in
+     * a dense accumulator, whose touched columns are then sorted, so the work of a row is
+     * proportional to its number of multiply-adds and not to the column count.
+     */
+    static void multiplySparseSparse(int[] aPointers, int[] aColumns, double[] aValues, int[] bPointers, int[] bColumns,
+                                     double[] bValues, int[] cPointers, int[] cColumns, double[] cValues,
+                                     int fromRow, int toRow, int columns) {
+        double[] accumulator = new double[columns];
+        int[] marker = new int[columns];
+        Arrays.fill(marker, -1);
+        for (int i = fromRow; i < toRow; i++) {
+            int count = cPointers[i];
+            for (int p = aPointers[i]; p < aPointers[i + 1]; p++) {
+                int k = aColumns[p];
+                double aValue = aValues[p];
+                for (int q = bPointers[k]; q < bPointers[k + 1]; q++) {
+                    int j = bColumns[q];
+                    if (marker[j] != i) {
+                        marker[j] = i;
+                        accumulator[j] = aValue * bValues[q];
+                        cColumns[count++] = j;
+                    } else {
+                        accumulator[j] += aValue * bValues[q];
+                    }
+                }
+            }
+            Arrays.sort(cColumns, cPointers[i], count);
+            for (int q = cPointers[i]; q < count; q++) {
+                cValues[q] = accumulator[cColumns[q]];
+            }
+        }
+    }
+}
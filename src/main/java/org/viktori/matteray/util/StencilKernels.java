@@ -0,0 +1,221 @@
+package org.viktori.matteray.util;
+
+import org.viktori.matteray.function.DoubleStencilFunction;
+
+import java.util.Arrays;
+
+/**
+ * Internal stencil and convolution kernels used by {@link MatrixUtils}. The kernels work on
+ * raw row-major arrays, and write a range of rows of the result, so a parallel operation can
+ * split the work across threads, and repeated steps can swap between two buffers.
+ *
+ * <p>Each row is split into the elements whose whole neighbourhood is inside the matrix, and
+ * the few elements near the edges. Only the latter resolve their neighbours through the
+ * {@link Border}, so the interior is computed without checking any bounds.
+ *
+ * @author Viktor Ingemansson
+ */
+final class StencilKernels {
+
+    private StencilKernels() {
+        // static class
+    }
+
+    /**
+     * Represents one step of a stencil, from a source buffer to a target buffer.
+     */
+    @FunctionalInterface
+    interface StepAction {
+        /**
+         * Writes the rows {@code fromRow} to {@code toRow} of the target, from the source.
+         */
+        void run(double[] source, double[] target, int fromRow, int toRow);
+    }
+
+    /**
+     * Returns the index to read for the specified index, which may be outside of the length,
+     * or -1 if the constant of the border is read instead.
+     */
+    static int resolve(int index, int length, Border.Kind kind) {
+        if (index >= 0 && index < length) {
+            return index;
+        }
+        return switch (kind) {
+            case CLAMP -> index < 0 ? 0 : length - 1;
+            case WRAP -> Math.floorMod(index, length);
+            case CONSTANT -> -1;
+        };
+    }
+
+    /**
+     * Writes the rows {@code fromRow} to {@code toRow} of the convolution of {@code a} with the
+     * kernel, centered on the element {@code (kernelRows / 2, kernelColumns / 2)} of the kernel.
+     * Every element of the result is summed in the same order, whether it is in the interior or
+     * not, so the result does not depend on how the rows are split.
+     */
+    static void convolve(double[] a, double[] out, int rows, int columns, double[] kernel, int kernelRows, int kernelColumns,
+                         Border border, int fromRow, int toRow) {
+        int top = kernelRows / 2;
+        int left = kernelColumns / 2;
+        int bottom = kernelRows - 1 - top;
+        int firstColumn = Math.min(left, columns);
+        int lastColumn = Math.max(firstColumn, columns - (kernelColumns - 1 - left));
+        for (int r = fromRow; r < toRow; r++) {
+            int offset = r * columns;
+            if (r < top || r >= rows - bottom || firstColumn == lastColumn) {
+                for (int c = 0; c < columns; c++) {
+                    out[offset + c] = convolveAt(a, rows, columns, kernel, kernelRows, kernelColumns, border, r - top, c - left);
+                }
+                continue;
+            }
+            for (int c = 0; c < firstColumn; c++) {
+                out[offset + c] = convolveAt(a, rows, columns, kernel, kernelRows, kernelColumns, border, r - top, c - left);
+            }
+            // One pass over the interior of the row for each kernel element, which vectorizes
+            Arrays.fill(out, offset + firstColumn, offset + lastColumn, 0.0);
+            for (int i = 0; i < kernelRows; i++) {
+                for (int j = 0; j < kernelColumns; j++) {
+                    double weight = kernel[i * kernelColumns + j];
+                    int source = (r + i - top) * columns + j - left;
+                    for (int c = offset + firstColumn, s = source + firstColumn; c < offset + lastColumn; c++, s++) {
+                        out[c] += weight * a[s];
+                    }
+                }
+            }
+            for (int c = lastColumn; c < columns; c++) {
+                out[offset + c] = convolveAt(a, rows, columns, kernel, kernelRows, kernelColumns, border, r - top, c - left);
+            }
+        }
+    }
+
+    private static double convolveAt(double[] a, int rows, int columns, double[] kernel, int kernelRows, int kernelColumns,
+                                     Border border, int firstRow, int firstColumn) {
+        double sum = 0.0;
+        for (int i = 0; i < kernelRows; i++) {
+            int r = resolve(firstRow + i, rows, border.kind());
+            for (int j = 0; j < kernelColumns; j++) {
+                int c = resolve(firstColumn + j, columns, border.kind());
+                sum += kernel[i * kernelColumns + j] * (r < 0 || c < 0 ? border.value() : a[r * columns + c]);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Writes the rows {@code fromRow} to {@code toRow} of the result of the function applied
+     * to the neighbourhood of each element of {@code a}.
+     */
+    static void stencil(double[] a, double[] out, int rows, int columns, int radius, Border border, DoubleStencilFunction function,
+                        int fromRow, int toRow) {
+        InteriorNeighbourhood interior = new InteriorNeighbourhood(a, columns, radius);
+        BorderNeighbourhood outer = new BorderNeighbourhood(a, rows, columns, radius, border);
+        int firstColumn = Math.min(radius, columns);
+        int lastColumn = Math.max(firstColumn, columns - radius);
+        for (int r = fromRow; r < toRow; r++) {
+            int offset = r * columns;
+            outer.row = r;
+            if (r < radius || r >= rows - radius) {
+                for (int c = 0; c < columns; c++) {
+                    outer.column = c;
+                    out[offset + c] = function.valueOf(outer);
+                }
+                continue;
+            }
+            for (int c = 0; c < firstColumn; c++) {
+                outer.column = c;
+                out[offset + c] = function.valueOf(outer);
+            }
+            interior.row = r;
+            for (int c = firstColumn; c < lastColumn; c++) {
+                interior.column = c;
+                out[offset + c] = function.valueOf(interior);
+            }
+            for (int c = lastColumn; c < columns; c++) {
+                outer.column = c;
+                out[offset + c] = function.valueOf(outer);
+            }
+        }
+    }
+
+    private static void validateOffsets(int rowOffset, int columnOffset, int radius) {
+        // Negative if either offset is outside of the radius, with a single branch
+        if (((radius + rowOffset) | (radius - rowOffset) | (radius + columnOffset) | (radius - columnOffset)) < 0) {
+            throw new IndexOutOfBoundsException("Offset (" + rowOffset + ", " + columnOffset + ") out of bounds for radius " + radius);
+        }
+    }
+
+    /**
+     * Neighbourhood of an element whose whole neighbourhood is inside the matrix
+     */
+    private static final class InteriorNeighbourhood implements DoubleStencilFunction.Neighbourhood {
+
+        private final double[] a;
+        private final int columns;
+        private final int radius;
+        private int row;
+        private int column;
+
+        private InteriorNeighbourhood(double[] a, int columns, int radius) {
+            this.a = a;
+            this.columns = columns;
+            this.radius = radius;
+        }
+
+        @Override
+        public double get(int rowOffset, int columnOffset) {
+            validateOffsets(rowOffset, columnOffset, radius);
+            return a[(row + rowOffset) * columns + column + columnOffset];
+        }
+
+        @Override
+        public int rowIndex() {
+            return row;
+        }
+
+        @Override
+        public int columnIndex() {
+            return column;
+        }
+    }
+
+    /**
+     * Neighbourhood of an element near the edges, which reads the neighbours outside of the
+     * matrix through the border
+     */
+    private static final class BorderNeighbourhood implements DoubleStencilFunction.Neighbourhood {
+
+        private final double[] a;
+        private final int rows;
+        private final int columns;
+        private final int radius;
+        private final Border border;
+        private int row;
+        private int column;
+
+        private BorderNeighbourhood(double[] a, int rows, int columns, int radius, Border border) {
+            this.a = a;
+            this.rows = rows;
+            this.columns = columns;
+            this.radius = radius;
+            this.border = border;
+        }
+
+        @Override
+        public double get(int rowOffset, int columnOffset) {
+            validateOffsets(rowOffset, columnOffset, radius);
+            int r = resolve(row + rowOffset, rows, border.kind());
+            int c = resolve(column + columnOffset, columns, border.kind());
+            return r < 0 || c < 0 ? border.value() : a[r * columns + c];
+        }
+
+        @Override
+        public int rowIndex() {
+            return row;
+        }
+
+        @Override
+        public int columnIndex() {
+            return column;
+        }
+    }
+}
@@ -0,0 +1,613 @@
+package org.viktori.matteray.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * Internal Strassen-Winograd multiplication used by {@link MatrixUtils}. Each level splits
+ * both operands into quadrants, and computes the product with seven recursive multiplications
+ * and fifteen additions instead of eight multiplications, which makes the algorithm
+ * O(n<sup>2.81</sup>). Dimensions which are odd are split in halves rounded up, and the
+ * missing row or column of each quadrant is padded with zeros.
+ *
+ * <p>The recursion stops when any dimension is at or below a cutoff, where the classical
+ * kernels in {@link MatrixKernels} are faster. The seven sub-products of the top levels can
+ * be computed in parallel on a {@link ForkJoinPool}.
+ *
+ * @author Viktor Ingemansson
+ */
+final class StrassenKernels {
+
+    /**
+     * Dimension at or below which primitive products use the classical kernel
+     */
+    static final int CUTOFF = 512;
+
+    /**
+     * Dimension at or below which generic products use the classical kernel. It is lower than
+     * for primitives, as every saved multiplication is a function call.
+     */
+    static final int GENERIC_CUTOFF = 64;
+
+    /**
+     * Number of recursion levels whose sub-products are computed in parallel, i.e. up to
+     * 7<sup>2</sup> = 49 concurrent tasks
+     */
+    private static final int PARALLEL_DEPTH = 2;
+
+    private StrassenKernels() {
+        // static class
+    }
+
+    private static boolean isRecursive(int m, int k, int n) {
+        return isRecursive(m, k, n, CUTOFF);
+    }
+
+    private static boolean isRecursive(int m, int k, int n, int cutoff) {
+        return m > cutoff && k > cutoff && n > cutoff;
+    }
+
+    /**
+     * Returns the product of the row-major {@code double} matrices {@code a} ({@code m}x{@code k})
+     * and {@code b} ({@code k}x{@code n}), using Strassen-Winograd recursion down to
+     * {@link #CUTOFF}, and the classical kernel below it.
+     *
+     * @param pool pool to compute the sub-products in, or {@code null} to compute them serially
+     */
+    static double[] multiplyDouble(double[] a, double[] b, int m, int k, int n, ForkJoinPool pool) {
+        if (pool == null || !isRecursive(m, k, n)) {
+            return multiplyDouble(a, b, m, k, n, false, 0);
+        }
+        return pool.invoke(new DoubleProductTask(a, b, m, k, n, 0));
+    }
+
+    private static double[] multiplyDouble(double[] a, double[] b, int m, int k, int n, boolean parallel, int depth) {
+        if (!isRecursive(m, k, n)) {
+            double[] c = new double[m * n];
+            MatrixKernels.multiplyDouble(a, b, c, 0, m, k, n);
+            return c;
+        }
+        int m2 = (m + 1) / 2;
+        int k2 = (k + 1) / 2;
+        int n2 = (n + 1) / 2;
+        double[] a11 = quadrant(a, m, k, 0, 0, m2, k2);
+        double[] a12 = quadrant(a, m, k, 0, k2, m2, k2);
+        double[] a21 = quadrant(a, m, k, m2, 0, m2, k2);
+        double[] a22 = quadrant(a, m, k, m2, k2, m2, k2);
+        double[] b11 = quadrant(b, k, n, 0, 0, k2, n2);
+        double[] b12 = quadrant(b, k, n, 0, n2, k2, n2);
+        double[] b21 = quadrant(b, k, n, k2, 0, k2, n2);
+        double[] b22 = quadrant(b, k, n, k2, n2, k2, n2);
+
+        double[] s1 = add(a21, a22);
+        double[] s2 = subtract(s1, a11);
+        double[] s3 = subtract(a11, a21);
+        double[] s4 = subtract(a12, s2);
+        double[] t1 = subtract(b12, b11);
+        double[] t2 = subtract(b22, t1);
+        double[] t3 = subtract(b22, b12);
+        double[] t4 = subtract(t2, b21);
+        double[][] left = {a11, a12, s4, a22, s1, s2, s3};
+        double[][] right = {b11, b21, b22, t4, t1, t2, t3};
+
+        double[][] p = new double[7][];
+        if (parallel && depth < PARALLEL_DEPTH) {
+            List<DoubleProductTask> tasks = new ArrayList<>(7);
+            for (int i = 0; i < 7; i++) {
+                tasks.add(new DoubleProductTask(left[i], right[i], m2, k2, n2, depth + 1));
+            }
+            ForkJoinTask.invokeAll(tasks);
+            for (int i = 0; i < 7; i++) {
+                p[i] = tasks.get(i).join();
+            }
+        } else {
+            for (int i = 0; i < 7; i++) {
+                p[i] = multiplyDouble(left[i], right[i], m2, k2, n2, false, depth + 1);
+            }
+        }
+
+        double[] c = new double[m * n];
+        for (int i = 0; i < m2; i++) {
+            for (int j = 0; j < n2; j++) {
+                int q = i * n2 + j;
+                double u2 = p[0][q] + p[5][q];
+                double u3 = u2 + p[6][q];
+                c[i * n + j] = p[0][q] + p[1][q];
+                if (n2 + j < n) {
+                    c[i * n + n2 + j] = u2 + p[4][q] + p[2][q];
+                }
+                if (m2 + i < m) {
+                    c[(m2 + i) * n + j] = u3 - p[3][q];
+                    if (n2 + j < n) {
+                        c[(m2 + i) * n + n2 + j] = u3 + p[4][q];
+                    }
+                }
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Copies the {@code height}x{@code width} block at {@code (row, column)} of a row-major matrix,
+     * padding the parts outside the matrix with zeros.
+     */
+    private static double[] quadrant(double[] matrix, int rows, int columns, int row, int column, int height, int width) {
+        double[] block = new double[height * width];
+        int length = Math.min(width, columns - column);
+        for (int i = 0; i < height && row + i < rows; i++) {
+            System.arraycopy(matrix, (row + i) * columns + column, block, i * width, length);
+        }
+        return block;
+    }
+
+    private static double[] add(double[] x, double[] y) {
+        double[] sum = new double[x.length];
+        for (int i = 0; i < sum.length; i++) {
+            sum[i] = x[i] + y[i];
+        }
+        return sum;
+    }
+
+    private static double[] subtract(double[] x, double[] y) {
+        double[] difference = new double[x.length];
+        for (int i = 0; i < difference.length; i++) {
+            difference[i] = x[i] - y[i];
+        }
+        return difference;
+    }
+
+    private static final class DoubleProductTask extends RecursiveTask<double[]> {
+
+        @java.io.Serial
+        private static final long serialVersionUID = -1943455404689221858L;
+
+        private final double[] a;
+        private final double[] b;
+        private final int m;
+        private final int k;
+        private final int n;
+        private final int depth;
+
+        private DoubleProductTask(double[] a, double[] b, int m, int k, int n, int depth) {
+            this.a = a;
+            this.b = b;
+            this.m = m;
+            this.k = k;
+            this.n = n;
+            this.depth = depth;
+        }
+
+        @Override
+        protected double[] compute() {
+            return multiplyDouble(a, b, m, k, n, true, depth);
+        }
+    }
+
+    /**
+     * Returns the product of the row-major {@code float} matrices {@code a} ({@code m}x{@code k})
+     * and {@code b} ({@code k}x{@code n}), using Strassen-Winograd recursion down to
+     * {@link #CUTOFF}, and the classical kernel below it.
+     *
+     * @param pool pool to compute the sub-products in, or {@code null} to compute them serially
+     */
+    static float[] multiplyFloat(float[] a, float[] b, int m, int k, int n, ForkJoinPool pool) {
+        if (pool == null || !isRecursive(m, k, n)) {
+            return multiplyFloat(a, b, m, k, n, false, 0);
+        }
+        return pool.invoke(new FloatProductTask(a, b, m, k, n, 0));
+    }
+
+    private static float[] multiplyFloat(float[] a, float[] b, int m, int k, int n, boolean parallel, int depth) {
+        if (!isRecursive(m, k, n)) {
+            float[] c = new float[m * n];
+            MatrixKernels.multiplyFloat(a, b, c, 0, m, k, n);
+            return c;
+        }
+        int m2 = (m + 1) / 2;
+        int k2 = (k + 1) / 2;
+        int n2 = (n + 1) / 2;
+        float[] a11 = quadrant(a, m, k, 0, 0, m2, k2);
+        float[] a12 = quadrant(a, m, k, 0, k2, m2, k2);
+        float[] a21 = quadrant(a, m, k, m2, 0, m2, k2);
+        float[] a22 = quadrant(a, m, k, m2, k2, m2, k2);
+        float[] b11 = quadrant(b, k, n, 0, 0, k2, n2);
+        float[] b12 = quadrant(b, k, n, 0, n2, k2, n2);
+        float[] b21 = quadrant(b, k, n, k2, 0, k2, n2);
+        float[] b22 = quadrant(b, k, n, k2, n2, k2, n2);
+
+        float[] s1 = add(a21, a22);
+        float[] s2 = subtract(s1, a11);
+        float[] s3 = subtract(a11, a21);
+        float[] s4 = subtract(a12, s2);
+        float[] t1 = subtract(b12, b11);
+        float[] t2 = subtract(b22, t1);
+        float[] t3 = subtract(b22, b12);
+        float[] t4 = subtract(t2, b21);
+        float[][] left = {a11, a12, s4, a22, s1, s2, s3};
+        float[][] right = {b11, b21, b22, t4, t1, t2, t3};
+
+        float[][] p = new float[7][];
+        if (parallel && depth < PARALLEL_DEPTH) {
+            List<FloatProductTask> tasks = new ArrayList<>(7);
+            for (int i = 0; i < 7; i++) {
+                tasks.add(new FloatProductTask(left[i], right[i], m2, k2, n2, depth + 1));
+            }
+            ForkJoinTask.invokeAll(tasks);
+            for (int i = 0; i < 7; i++) {
+                p[i] = tasks.get(i).join();
+            }
+        } else {
+            for (int i = 0; i < 7; i++) {
+                p[i] = multiplyFloat(left[i], right[i], m2, k2, n2, false, depth + 1);
+            }
+        }
+
+        float[] c = new float[m * n];
+        for (int i = 0; i < m2; i++) {
+            for (int j = 0; j < n2; j++) {
+                int q = i * n2 + j;
+                float u2 = p[0][q] + p[5][q];
+                float u3 = u2 + p[6][q];
+                c[i * n + j] = p[0][q] + p[1][q];
+                if (n2 + j < n) {
+                    c[i * n + n2 + j] = u2 + p[4][q] + p[2][q];
+                }
+                if (m2 + i < m) {
+                    c[(m2 + i) * n + j] = u3 - p[3][q];
+                    if (n2 + j < n) {
+                        c[(m2 + i) * n + n2 + j] = u3 + p[4][q];
+                    }
+                }
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Copies the {@code height}x{@code width} block at {@code (row, column)} of a row-major matrix,
+     * padding the parts outside the matrix with zeros.
+     */
+    private static float[] quadrant(float[] matrix, int rows, int columns, int row, int column, int height, int width) {
+        float[] block = new float[height * width];
+        int length = Math.min(width, columns - column);
+        for (int i = 0; i < height && row + i < rows; i++) {
+            System.arraycopy(matrix, (row + i) * columns + column, block, i * width, length);
+        }
+        return block;
+    }
+
+    private static float[] add(float[] x, float[] y) {
+        float[] sum = new float[x.length];
+        for (int i = 0; i < sum.length; i++) {
+            sum[i] = x[i] + y[i];
+        }
+        return sum;
+    }
+
+    private static float[] subtract(float[] x, float[] y) {
+        float[] difference = new float[x.length];
+        for (int i = 0; i < difference.length; i++) {
+            difference[i] = x[i] - y[i];
+        }
+        return difference;
+    }
+
+    private static final class FloatProductTask extends RecursiveTask<float[]> {
+
+        @java.io.Serial
+        private static final long serialVersionUID = -225143229761951886L;
+
+        private final float[] a;
+        private final float[] b;
+        private final int m;
+        private final int k;
+        private final int n;
+        private final int depth;
+
+        private FloatProductTask(float[] a, float[] b, int m, int k, int n, int depth) {
+            this.a = a;
+            this.b = b;
+            this.m = m;
+            this.k = k;
+            this.n = n;
+            this.depth = depth;
+        }
+
+        @Override
+        protected float[] compute() {
+            return multiplyFloat(a, b, m, k, n, true, depth);
+        }
+    }
+
+    /**
+     * Returns the product of the row-major {@code long} matrices {@code a} ({@code m}x{@code k})
+     * and {@code b} ({@code k}x{@code n}), using Strassen-Winograd recursion down to
+     * {@link #CUTOFF}, and the classical kernel below it.
+     *
+     * @param pool pool to compute the sub-products in, or {@code null} to compute them serially
+     */
+    static long[] multiplyLong(long[] a, long[] b, int m, int k, int n, ForkJoinPool pool) {
+        if (pool == null || !isRecursive(m, k, n)) {
+            return multiplyLong(a, b, m, k, n, false, 0);
+        }
+        return pool.invoke(new LongProductTask(a, b, m, k, n, 0));
+    }
+
+    private static long[] multiplyLong(long[] a, long[] b, int m, int k, int n, boolean parallel, int depth) {
+        if (!isRecursive(m, k, n)) {
+            long[] c = new long[m * n];
+            MatrixKernels.multiplyLong(a, b, c, 0, m, k, n);
+            return c;
+        }
+        int m2 = (m + 1) / 2;
+        int k2 = (k + 1) / 2;
+        int n2 = (n + 1) / 2;
+        long[] a11 = quadrant(a, m, k, 0, 0, m2, k2);
+        long[] a12 = quadrant(a, m, k, 0, k2, m2, k2);
+        long[] a21 = quadrant(a, m, k, m2, 0, m2, k2);
+        long[] a22 = quadrant(a, m, k, m2, k2, m2, k2);
+        long[] b11 = quadrant(b, k, n, 0, 0, k2, n2);
+        long[] b12 = quadrant(b, k, n, 0, n2, k2, n2);
+        long[] b21 = quadrant(b, k, n, k2, 0, k2, n2);
+        long[] b22 = quadrant(b, k, n, k2, n2, k2, n2);
+
+        long[] s1 = add(a21, a22);
+        long[] s2 = subtract(s1, a11);
+        long[] s3 = subtract(a11, a21);
+        long[] s4 = subtract(a12, s2);
+        long[] t1 = subtract(b12, b11);
+        long[] t2 = subtract(b22, t1);
+        long[] t3 = subtract(b22, b12);
+        long[] t4 = subtract(t2, b21);
+        long[][] left = {a11, a12, s4, a22, s1, s2, s3};
+        long[][] right = {b11, b21, b22, t4, t1, t2, t3};
+
+        long[][] p = new long[7][];
+        if (parallel && depth < PARALLEL_DEPTH) {
+            List<LongProductTask> tasks = new ArrayList<>(7);
+            for (int i = 0; i < 7; i++) {
+                tasks.add(new LongProductTask(left[i], right[i], m2, k2, n2, depth + 1));
+            }
+            ForkJoinTask.invokeAll(tasks);
+            for (int i = 0; i < 7; i++) {
+                p[i] = tasks.get(i).join();
+            }
+        } else {
+            for (int i = 0; i < 7; i++) {
+                p[i] = multiplyLong(left[i], right[i], m2, k2, n2, false, depth + 1);
+            }
+        }
+
+        long[] c = new long[m * n];
+        for (int i = 0; i < m2; i++) {
+            for (int j = 0; j < n2; j++) {
+                int q = i * n2 + j;
+                long u2 = p[0][q] + p[5][q];
+                long u3 = u2 + p[6][q];
+                c[i * n + j] = p[0][q] + p[1][q];
+                if (n2 + j < n) {
+                    c[i * n + n2 + j] = u2 + p[4][q] + p[2][q];
+                }
+                if (m2 + i < m) {
+                    c[(m2 + i) * n + j] = u3 - p[3][q];
+                    if (n2 + j < n) {
+                        c[(m2 + i) * n + n2 + j] = u3 + p[4][q];
+                    }
+                }
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Copies the {@code height}x{@code width} block at {@code (row, column)} of a row-major matrix,
+     * padding the parts outside the matrix with zeros.
+     */
+    private static long[] quadrant(long[] matrix, int rows, int columns, int row, int column, int height, int width) {
+        long[] block = new long[height * width];
+        int length = Math.min(width, columns - column);
+        for (int i = 0; i < height && row + i < rows; i++) {
+            System.arraycopy(matrix, (row + i) * columns + column, block, i * width, length);
+        }
+        return block;
+    }
+
+    private static long[] add(long[] x, long[] y) {
+        long[] sum = new long[x.length];
+        for (int i = 0; i < sum.length; i++) {
+            sum[i] = x[i] + y[i];
+        }
+        return sum;
+    }
+
+    private static long[] subtract(long[] x, long[] y) {
+        long[] difference = new long[x.length];
+        for (int i = 0; i < difference.length; i++) {
+            difference[i] = x[i] - y[i];
+        }
+        return difference;
+    }
+
+    private static final class LongProductTask extends RecursiveTask<long[]> {
+
+        @java.io.Serial
+        private static final long serialVersionUID = -4163031898604804275L;
+
+        private final long[] a;
+        private final long[] b;
+        private final int m;
+        private final int k;
+        private final int n;
+        private final int depth;
+
+        private LongProductTask(long[] a, long[] b, int m, int k, int n, int depth) {
+            this.a = a;
+            this.b = b;
+            this.m = m;
+            this.k = k;
+            this.n = n;
+            this.depth = depth;
+        }
+
+        @Override
+        protected long[] compute() {
+            return multiplyLong(a, b, m, k, n, true, depth);
+        }
+    }
+
+    /**
+     * Returns the product of the matrices {@code a} ({@code m}x{@code k}) and {@code b}
+     * ({@code k}x{@code n}), using Strassen-Winograd recursion down to {@link #GENERIC_CUTOFF},
+     * and the classical generic kernel below it. Blocks are padded with {@code zero}.
+     *
+     * @param pool pool to compute the sub-products in, or {@code null} to compute them serially
+     */
+    static <E> Object[][] multiplyGeneric(Object[][] a, Object[][] b, int m, int k, int n, Ring<E> ring, ForkJoinPool pool) {
+        if (pool == null || !isRecursive(m, k, n, GENERIC_CUTOFF)) {
+            return multiplyGeneric(a, b, m, k, n, ring, false, 0);
+        }
+        return pool.invoke(new GenericProductTask<>(a, b, m, k, n, ring, 0));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> Object[][] multiplyGeneric(Object[][] a, Object[][] b, int m, int k, int n, Ring<E> ring, boolean parallel, int depth) {
+        if (!isRecursive(m, k, n, GENERIC_CUTOFF)) {
+            Object[][] c = MatrixKernels.newGenericResult(m, n, true, ring.zero);
+            MatrixKernels.multiplyGeneric(a, b, c, 0, m, k, n, ring.product, ring.sum, true);
+            return c;
+        }
+        int m2 = (m + 1) / 2;
+        int k2 = (k + 1) / 2;
+        int n2 = (n + 1) / 2;
+        Object[][] a11 = quadrant(a, m, k, 0, 0, m2, k2, ring.zero);
+        Object[][] a12 = quadrant(a, m, k, 0, k2, m2, k2, ring.zero);
+        Object[][] a21 = quadrant(a, m, k, m2, 0, m2, k2, ring.zero);
+        Object[][] a22 = quadrant(a, m, k, m2, k2, m2, k2, ring.zero);
+        Object[][] b11 = quadrant(b, k, n, 0, 0, k2, n2, ring.zero);
+        Object[][] b12 = quadrant(b, k, n, 0, n2, k2, n2, ring.zero);
+        Object[][] b21 = quadrant(b, k, n, k2, 0, k2, n2, ring.zero);
+        Object[][] b22 = quadrant(b, k, n, k2, n2, k2, n2, ring.zero);
+
+        Object[][] s1 = combine(a21, a22, ring.sum);
+        Object[][] s2 = combine(s1, a11, ring.difference);
+        Object[][] s3 = combine(a11, a21, ring.difference);
+        Object[][] s4 = combine(a12, s2, ring.difference);
+        Object[][] t1 = combine(b12, b11, ring.difference);
+        Object[][] t2 = combine(b22, t1, ring.difference);
+        Object[][] t3 = combine(b22, b12, ring.difference);
+        Object[][] t4 = combine(t2, b21, ring.difference);
+        Object[][][] left = {a11, a12, s4, a22, s1, s2, s3};
+        Object[][][] right = {b11, b21, b22, t4, t1, t2, t3};
+
+        Object[][][] p = new Object[7][][];
+        if (parallel && depth < PARALLEL_DEPTH) {
+            List<GenericProductTask<E>> tasks = new ArrayList<>(7);
+            for (int i = 0; i < 7; i++) {
+                tasks.add(new GenericProductTask<>(left[i], right[i], m2, k2, n2, ring, depth + 1));
+            }
+            ForkJoinTask.invokeAll(tasks);
+            for (int i = 0; i < 7; i++) {
+                p[i] = tasks.get(i).join();
+            }
+        } else {
+            for (int i = 0; i < 7; i++) {
+                p[i] = multiplyGeneric(left[i], right[i], m2, k2, n2, ring, false, depth + 1);
+            }
+        }
+
+        BinaryOperator<E> sum = ring.sum;
+        Object[][] c = new Object[m][n];
+        for (int i = 0; i < m2; i++) {
+            for (int j = 0; j < n2; j++) {
+                E p1 = (E) p[0][i][j];
+                E u2 = sum.apply(p1, (E) p[5][i][j]);
+                E u3 = sum.apply(u2, (E) p[6][i][j]);
+                c[i][j] = sum.apply(p1, (E) p[1][i][j]);
+                if (n2 + j < n) {
+                    c[i][n2 + j] = sum.apply(sum.apply(u2, (E) p[4][i][j]), (E) p[2][i][j]);
+                }
+                if (m2 + i < m) {
+                    c[m2 + i][j] = ring.difference.apply(u3, (E) p[3][i][j]);
+                    if (n2 + j < n) {
+                        c[m2 + i][n2 + j] = sum.apply(u3, (E) p[4][i][j]);
+                    }
+                }
+            }
+        }
+        return c;
+    }
+
+    private static Object[][] quadrant(Object[][] matrix, int rows, int columns, int row, int column, int height, int width, Object zero) {
+        Object[][] block = new Object[height][width];
+        int length = Math.max(0, Math.min(width, columns - column));
+        for (int i = 0; i < height; i++) {
+            if (row + i < rows) {
+                System.arraycopy(matrix[row + i], column, block[i], 0, length);
+            }
+            if (zero != null) {
+                Arrays.fill(block[i], row + i < rows ? length : 0, width, zero);
+            }
+        }
+        return block;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> Object[][] combine(Object[][] x, Object[][] y, BinaryOperator<E> function) {
+        Object[][] result = new Object[x.length][];
+        for (int i = 0; i < x.length; i++) {
+            Object[] xRow = x[i];
+            Object[] yRow = y[i];
+            Object[] row = new Object[xRow.length];
+            for (int j = 0; j < row.length; j++) {
+                row[j] = function.apply((E) xRow[j], (E) yRow[j]);
+            }
+            result[i] = row;
+        }
+        return result;
+    }
+
+    /**
+     * The operations of a ring, which Strassen-Winograd requires of generic elements.
+     *
+     * @param product    function to calculate the product of two values
+     * @param sum        function to calculate the sum of two values
+     * @param difference function to calculate the difference of two values
+     * @param zero       the additive identity
+     */
+    record Ring<E>(BinaryOperator<E> product, BinaryOperator<E> sum, BinaryOperator<E> difference, E zero) {
+    }
+
+    private static final class GenericProductTask<E> extends RecursiveTask<Object[][]> {
+
+        @java.io.Serial
+        private static final long serialVersionUID = -3900558921401520201L;
+
+        private final Object[][] a;
+        private final Object[][] b;
+        private final int m;
+        private final int k;
+        private final int n;
+        private final transient Ring<E> ring;
+        private final int depth;
+
+        private GenericProductTask(Object[][] a, Object[][] b, int m, int k, int n, Ring<E> ring, int depth) {
+            this.a = a;
+            this.b = b;
+            this.m = m;
+            this.k = k;
+            this.n = n;
+            this.ring = ring;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Object[][] compute() {
+            return multiplyGeneric(a, b, m, k, n, ring, true, depth);
+        }
+    }
+}
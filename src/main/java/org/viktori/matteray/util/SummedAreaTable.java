@@ -0,0 +1,172 @@
+package org.viktori.matteray.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BinaryOperator;
+
+/**
+ * A summed-area table of a matrix of any element type, as built by
+ * {@link MatrixUtils#summedAreaTable(org.viktori.matteray.Matrix, BinaryOperator, BinaryOperator, Object)},
+ * which answers the sum and count of any rectangle of the matrix in constant time.
+ *
+ * <p>The table holds the sum of every rectangle which starts at the top left corner of the
+ * matrix, so the sum of any other rectangle is found from the four rectangles which end at
+ * its corners. This needs the sum to form a commutative group with the difference, i.e. the
+ * sum must be associative and commutative with the identity zero, and the difference must
+ * undo it, so {@code minus(plus(x, y), y)} equals {@code x}. Sums such as the maximum, which
+ * cannot be undone, need the whole rectangle instead. The sums are stored in a row-major array
+ * with an extra leading row and column of zeros, so no query needs to check whether a corner
+ * is on an edge of the matrix.
+ *
+ * <p>Use {@link DoubleSummedAreaTable} or {@link LongSummedAreaTable} for primitive elements,
+ * which store the sums unboxed and call no functions.
+ *
+ * <p>The table is immutable, and thread safe if the functions are.
+ *
+ * @param <E> the type of the sums
+ *
+ * @author Viktor Ingemansson
+ */
+public final class SummedAreaTable<E> {
+
+    private final Object[] sums;
+    private final int rows;
+    private final int columns;
+    private final BinaryOperator<E> minus;
+
+    private SummedAreaTable(Object[] sums, int rows, int columns, BinaryOperator<E> minus) {
+        this.sums = sums;
+        this.rows = rows;
+        this.columns = columns;
+        this.minus = minus;
+    }
+
+    /**
+     * Builds the table of the specified elements. Without a pool, the table is built in a
+     * single pass. With a pool, the prefix sums of each row are summed in bands of rows, and
+     * then down each column in bands of columns, which sums the same values in the same order,
+     * so the table is the same either way.
+     *
+     * @param pool pool to build the table in, or null to build it in the calling thread
+     */
+    static <E> SummedAreaTable<E> build(Object[][] elements, int rows, int columns, BinaryOperator<E> plus,
+                                        BinaryOperator<E> minus, E zero, ForkJoinPool pool) {
+        int width = columns + 1;
+        Object[] sums = new Object[Math.multiplyExact(rows + 1, width)];
+        for (int i = 0; i < width; i++) {
+            sums[i] = zero;
+        }
+        if (pool == null) {
+            for (int r = 0; r < rows; r++) {
+                E rowSum = zero;
+                int i = (r + 1) * width;
+                sums[i++] = zero;
+                for (int c = 0; c < columns; c++, i++) {
+                    rowSum = plus.apply(rowSum, elementAt(elements[r], c));
+                    sums[i] = plus.apply(sumAt(sums, i - width), rowSum);
+                }
+            }
+        } else {
+            ParallelRanges.forRange(pool, 0, rows, ParallelRanges.grainFor(pool, rows, 1, 1), (from, to) -> {
+                for (int r = from; r < to; r++) {
+                    E rowSum = zero;
+                    int i = (r + 1) * width;
+                    sums[i++] = zero;
+                    for (int c = 0; c < columns; c++, i++) {
+                        rowSum = plus.apply(rowSum, elementAt(elements[r], c));
+                        sums[i] = rowSum;
+                    }
+                }
+            });
+            ParallelRanges.forRange(pool, 1, width, ParallelRanges.grainFor(pool, columns, 8, 64), (from, to) -> {
+                for (int r = 1; r <= rows; r++) {
+                    for (int i = r * width + from, end = r * width + to; i < end; i++) {
+                        sums[i] = plus.apply(sumAt(sums, i - width), sumAt(sums, i));
+                    }
+                }
+            });
+        }
+        return new SummedAreaTable<>(sums, rows, columns, minus);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> E elementAt(Object[] row, int c) {
+        return (E) row[c];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> E sumAt(Object[] sums, int i) {
+        return (E) sums[i];
+    }
+
+    /**
+     * Returns the number of rows of the matrix of this table.
+     *
+     * @return the number of rows
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns of the matrix of this table.
+     *
+     * @return the number of columns
+     */
+    public int columns() {
+        return columns;
+    }
+
+    /**
+     * Returns the sum of the elements in the specified rectangle of the matrix, i.e. of the
+     * elements of {@code subMatrix(fromRowIndex, toRowIndex, fromColumnIndex, toColumnIndex)}.
+     * The sum is found with three differences of the sums in the table, whatever the size of
+     * the rectangle.
+     *
+     * @param fromRowIndex    first row of the rectangle (inclusive)
+     * @param toRowIndex      last row of the rectangle (exclusive)
+     * @param fromColumnIndex first column of the rectangle (inclusive)
+     * @param toColumnIndex   last column of the rectangle (exclusive)
+     * @return the sum of the elements in the rectangle
+     * @throws ArrayIndexOutOfBoundsException for an illegal endpoint index value
+     * @throws IllegalArgumentException       if the endpoint indices are out of order
+     */
+    public E sum(int fromRowIndex, int toRowIndex, int fromColumnIndex, int toColumnIndex) {
+        validateRange(fromRowIndex, toRowIndex, rows);
+        validateRange(fromColumnIndex, toColumnIndex, columns);
+        int width = columns + 1;
+        int top = fromRowIndex * width;
+        int bottom = toRowIndex * width;
+        E right = minus.apply(sumAt(sums, bottom + toColumnIndex), sumAt(sums, top + toColumnIndex));
+        E left = minus.apply(sumAt(sums, bottom + fromColumnIndex), sumAt(sums, top + fromColumnIndex));
+        return minus.apply(right, left);
+    }
+
+    /**
+     * Returns the number of elements in the specified rectangle of the matrix.
+     *
+     * @param fromRowIndex    first row of the rectangle (inclusive)
+     * @param toRowIndex      last row of the rectangle (exclusive)
+     * @param fromColumnIndex first column of the rectangle (inclusive)
+     * @param toColumnIndex   last column of the rectangle (exclusive)
+     * @return the number of elements in the rectangle
+     * @throws ArrayIndexOutOfBoundsException for an illegal endpoint index value
+     * @throws IllegalArgumentException       if the endpoint indices are out of order
+     */
+    public int count(int fromRowIndex, int toRowIndex, int fromColumnIndex, int toColumnIndex) {
+        validateRange(fromRowIndex, toRowIndex, rows);
+        validateRange(fromColumnIndex, toColumnIndex, columns);
+        return (toRowIndex - fromRowIndex) * (toColumnIndex - fromColumnIndex);
+    }
+
+    static void validateRange(int fromIndex, int toIndex, int size) {
+        if (fromIndex < 0) {
+            throw new ArrayIndexOutOfBoundsException("fromIndex = " + fromIndex);
+        }
+        if (toIndex > size) {
+            throw new ArrayIndexOutOfBoundsException("toIndex = " + toIndex);
+        }
+        if (fromIndex > toIndex) {
+            throw new IllegalArgumentException("fromIndex(" + fromIndex + ") > toIndex(" + toIndex + ")");
+        }
+    }
+}
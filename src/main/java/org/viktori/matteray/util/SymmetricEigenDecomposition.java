@@ -0,0 +1,276 @@
+package org.viktori.matteray.util;
+
+import org.viktori.matteray.DoubleArray;
+import org.viktori.matteray.DoubleMatrix;
+import org.viktori.matteray.Matrix;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Eigendecomposition of a symmetric matrix of numbers, such as a covariance matrix or the
+ * Laplacian of a graph. The matrix {@code A} is factored into an orthogonal matrix {@code V},
+ * whose columns are the eigenvectors, and a diagonal matrix {@code D} of the eigenvalues, such
+ * that {@code A = V * D * V^T}. The eigenvalues are real, and sorted in ascending order.
+ *
+ * <p>Only the lower triangle of the matrix, including the diagonal, is used, so the upper
+ * triangle may hold anything, and {@link Matrix#get} is never called above the diagonal. The
+ * matrix is reduced to tridiagonal form by Householder reflections, whose eigenvalues are then
+ * found by the QL algorithm with implicit shifts. When only the eigenvalues are needed,
+ * {@link #eigenvaluesOf} skips the eigenvectors, which is several times faster.
+ *
+ * <p>All work is done on row-major {@code double[]}. {@link #parallelDecompose} and
+ * {@link #parallelEigenvaluesOf} apply the reflections, and the rotations of each QL sweep, to
+ * bands of the matrix concurrently, with the same result as the serial versions.
+ *
+ * <p>A decomposition is immutable, and thread safe.
+ *
+ * @author Viktor Ingemansson
+ * @see CholeskyDecomposition
+ */
+public final class SymmetricEigenDecomposition {
+
+    /**
+     * Eigenvalues, in ascending order
+     */
+    private final double[] eigenvalues;
+
+    /**
+     * Row-major eigenvectors, one per row, in the order of the eigenvalues
+     */
+    private final double[] eigenvectors;
+
+    /**
+     * Row and column count of the matrix
+     */
+    private final int size;
+
+    private SymmetricEigenDecomposition(double[] eigenvalues, double[] eigenvectors, int size) {
+        this.eigenvalues = eigenvalues;
+        this.eigenvectors = eigenvectors;
+        this.size = size;
+    }
+
+    /**
+     * Computes the eigendecomposition of the specified symmetric matrix, reading only its lower
+     * triangle.
+     *
+     * @param matrix matrix to decompose
+     * @return the decomposition of the matrix
+     * @throws IllegalArgumentException if the matrix is not square, or has elements which are
+     *                                  not finite
+     * @throws IllegalStateException if the eigenvalues do not converge
+     * @throws NullPointerException if the matrix is null, or contains null elements
+     */
+    public static SymmetricEigenDecomposition decompose(Matrix<? extends Number> matrix) {
+        return decompose(matrix, null);
+    }
+
+    /**
+     * Computes the eigendecomposition of the specified symmetric matrix, reading only its lower
+     * triangle, with the reflections and rotations applied in parallel on the common
+     * {@link ForkJoinPool}. The result is the same as {@link #decompose(Matrix)}. Small matrices
+     * are decomposed in the calling thread.
+     *
+     * @param matrix matrix to decompose
+     * @return the decomposition of the matrix
+     * @throws IllegalArgumentException if the matrix is not square, or has elements which are
+     *                                  not finite
+     * @throws IllegalStateException if the eigenvalues do not converge
+     * @throws NullPointerException if the matrix is null, or contains null elements
+     */
+    public static SymmetricEigenDecomposition parallelDecompose(Matrix<? extends Number> matrix) {
+        return parallelDecompose(matrix, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the eigendecomposition of the specified symmetric matrix, reading only its lower
+     * triangle, with the reflections and rotations applied in parallel on the specified
+     * {@link ForkJoinPool}. The result is the same as {@link #decompose(Matrix)}. Small matrices
+     * are decomposed in the calling thread.
+     *
+     * @param matrix matrix to decompose
+     * @param pool pool to apply the reflections and rotations in
+     * @return the decomposition of the matrix
+     * @throws IllegalArgumentException if the matrix is not square, or has elements which are
+     *                                  not finite
+     * @throws IllegalStateException if the eigenvalues do not converge
+     * @throws NullPointerException if the matrix or the pool is null, or the matrix contains null
+     *                              elements
+     */
+    public static SymmetricEigenDecomposition parallelDecompose(Matrix<? extends Number> matrix, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return decompose(matrix, pool);
+    }
+
+    private static SymmetricEigenDecomposition decompose(Matrix<? extends Number> matrix, ForkJoinPool pool) {
+        int size = validateSymmetric(matrix);
+        double[] a = toSymmetric(matrix);
+        double[] diagonal = new double[size];
+        double[] offDiagonal = new double[size];
+        double[] tau = new double[size];
+        DecompositionKernels.tridiagonalize(a, size, diagonal, offDiagonal, tau, pool);
+        double[] eigenvectors = DecompositionKernels.accumulateTransposed(a, size, tau, pool);
+        diagonalize(diagonal, offDiagonal, size, eigenvectors, pool);
+        return new SymmetricEigenDecomposition(diagonal, eigenvectors, size);
+    }
+
+    /**
+     * Computes the eigenvalues of the specified symmetric matrix, reading only its lower
+     * triangle, without the eigenvectors.
+     *
+     * @param matrix matrix to compute the eigenvalues of
+     * @return a new array with the eigenvalues, in ascending order
+     * @throws IllegalArgumentException if the matrix is not square, or has elements which are
+     *                                  not finite
+     * @throws IllegalStateException if the eigenvalues do not converge
+     * @throws NullPointerException if the matrix is null, or contains null elements
+     */
+    public static DoubleArray eigenvaluesOf(Matrix<? extends Number> matrix) {
+        return eigenvaluesOf(matrix, null);
+    }
+
+    /**
+     * Computes the eigenvalues of the specified symmetric matrix, reading only its lower
+     * triangle, without the eigenvectors, with the reduction to tridiagonal form computed in
+     * parallel on the common {@link ForkJoinPool}. The result is the same as
+     * {@link #eigenvaluesOf(Matrix)}.
+     *
+     * @param matrix matrix to compute the eigenvalues of
+     * @return a new array with the eigenvalues, in ascending order
+     * @throws IllegalArgumentException if the matrix is not square, or has elements which are
+     *                                  not finite
+     * @throws IllegalStateException if the eigenvalues do not converge
+     * @throws NullPointerException if the matrix is null, or contains null elements
+     */
+    public static DoubleArray parallelEigenvaluesOf(Matrix<? extends Number> matrix) {
+        return parallelEigenvaluesOf(matrix, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the eigenvalues of the specified symmetric matrix, reading only its lower
+     * triangle, without the eigenvectors, with the reduction to tridiagonal form computed in
+     * parallel on the specified {@link ForkJoinPool}. The result is the same as
+     * {@link #eigenvaluesOf(Matrix)}.
+     *
+     * @param matrix matrix to compute the eigenvalues of
+     * @param pool pool to compute the reduction in
+     * @return a new array with the eigenvalues, in ascending order
+     * @throws IllegalArgumentException if the matrix is not square, or has elements which are
+     *                                  not finite
+     * @throws IllegalStateException if the eigenvalues do not converge
+     * @throws NullPointerException if the matrix or the pool is null, or the matrix contains null
+     *                              elements
+     */
+    public static DoubleArray parallelEigenvaluesOf(Matrix<? extends Number> matrix, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return eigenvaluesOf(matrix, pool);
+    }
+
+    private static DoubleArray eigenvaluesOf(Matrix<? extends Number> matrix, ForkJoinPool pool) {
+        int size = validateSymmetric(matrix);
+        double[] a = toSymmetric(matrix);
+        double[] diagonal = new double[size];
+        double[] offDiagonal = new double[size];
+        DecompositionKernels.tridiagonalize(a, size, diagonal, offDiagonal, new double[size], pool);
+        diagonalize(diagonal, offDiagonal, size, null, pool);
+        return new TrustedDoubleArray(diagonal);
+    }
+
+    private static int validateSymmetric(Matrix<? extends Number> matrix) {
+        Objects.requireNonNull(matrix);
+        if (!matrix.isSquare()) {
+            throw new IllegalArgumentException("Matrix must be square, but size was " + matrix.rows() + "x" + matrix.columns());
+        }
+        return matrix.rows();
+    }
+
+    /**
+     * Returns the matrix in full, with the lower triangle mirrored to the upper one.
+     */
+    private static double[] toSymmetric(Matrix<? extends Number> matrix) {
+        int size = matrix.rows();
+        double[] a = DecompositionKernels.toRowMajorLower(matrix);
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c <= r; c++) {
+                double value = a[r * size + c];
+                if (!Double.isFinite(value)) {
+                    throw new IllegalArgumentException("Matrix must only have finite elements, but element at " + r + ", " + c + " was " + value);
+                }
+                a[c * size + r] = value;
+            }
+        }
+        return a;
+    }
+
+    private static void diagonalize(double[] diagonal, double[] offDiagonal, int size, double[] eigenvectors, ForkJoinPool pool) {
+        if (!DecompositionKernels.diagonalize(diagonal, offDiagonal, size, eigenvectors, pool)) {
+            throw new IllegalStateException("Eigenvalues did not converge");
+        }
+    }
+
+    /**
+     * Returns the row and column count of the decomposed matrix.
+     *
+     * @return the size of the matrix
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the eigenvalues of the decomposed matrix, in ascending order. Each eigenvalue is
+     * repeated as many times as its multiplicity.
+     *
+     * @return a new array with the eigenvalues
+     */
+    public DoubleArray eigenvalues() {
+        return new TrustedDoubleArray(eigenvalues.clone());
+    }
+
+    /**
+     * Returns the eigenvector of the eigenvalue at the specified index of {@link #eigenvalues()},
+     * with unit length. Its sign is arbitrary.
+     *
+     * @param index index of the eigenvalue
+     * @return a new array with the eigenvector
+     * @throws ArrayIndexOutOfBoundsException if the index is out of range
+     *                                        ({@code index < 0 || index >= size()})
+     */
+    public DoubleArray eigenvector(int index) {
+        if (index < 0 || index >= size) {
+            throw new ArrayIndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        double[] eigenvector = new double[size];
+        System.arraycopy(eigenvectors, index * size, eigenvector, 0, size);
+        return new TrustedDoubleArray(eigenvector);
+    }
+
+    /**
+     * Returns the orthogonal matrix {@code V}, whose columns are the eigenvectors in the order of
+     * {@link #eigenvalues()}.
+     *
+     * @return a new matrix with the eigenvectors as columns
+     */
+    public DoubleMatrix eigenvectors() {
+        double[] columns = new double[size * size];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                columns[c * size + r] = eigenvectors[r * size + c];
+            }
+        }
+        return new TrustedDoubleMatrix(columns, size, size);
+    }
+
+    private static class TrustedDoubleMatrix extends DoubleMatrix {
+        private TrustedDoubleMatrix(double[] elementData, int rows, int columns) {
+            super(elementData, true, rows, columns);
+        }
+    }
+
+    private static class TrustedDoubleArray extends DoubleArray {
+        private TrustedDoubleArray(double[] elementData) {
+            super(elementData, true);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.viktori.matteray;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class ComplexArrayTest {
+
+    @Test
+    public void testGet() {
+        ComplexArray array = new ComplexArray(new double[]{1, 2, 3}, new double[]{4, 5, 6});
+        assertEquals(3, array.size());
+        assertEquals(Complex.of(2, 5), array.get(1));
+        assertEquals(3.0, array.getReal(2));
+        assertEquals(6.0, array.getImaginary(2));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> array.get(3));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> array.getImaginary(-1));
+    }
+
+    @Test
+    public void testConstructors() {
+        ComplexArray array = new ComplexArray(List.of(Complex.of(1, 4), Complex.of(2, 5)));
+        assertEquals(new ComplexArray(new double[]{1, 2}, new double[]{4, 5}), array);
+        assertEquals(new ComplexArray(2, i -> Complex.of(i + 1, i + 4)), array);
+        assertEquals(Array.of(Complex.of(1, 4), Complex.of(2, 5)), array);
+        assertEquals(Array.of(Complex.of(1, 4), Complex.of(2, 5)).hashCode(), array.hashCode());
+        assertThrowsExactly(IllegalArgumentException.class, () -> new ComplexArray(new double[]{1}, new double[]{}));
+        assertThrowsExactly(IllegalArgumentException.class, () -> new ComplexArray(-1, i -> Complex.ZERO));
+    }
+
+    @Test
+    public void testRawArrays() {
+        ComplexArray array = new ComplexArray(new double[]{1, 2}, new double[]{4, 5});
+        assertArrayEquals(new double[]{1, 4, 2, 5}, array.toInterleavedArray());
+        assertArrayEquals(new double[]{1, 2}, array.toRealArray());
+        assertArrayEquals(new double[]{4, 5}, array.toImaginaryArray());
+    }
+
+    @Test
+    public void testIndexOfAndSubList() {
+        ComplexArray array = new ComplexArray(new double[]{1, 2, 1}, new double[]{4, 5, 4});
+        assertEquals(0, array.indexOf(Complex.of(1, 4)));
+        assertEquals(2, array.lastIndexOf(Complex.of(1, 4)));
+        assertEquals(-1, array.indexOf(Complex.of(4, 1)));
+        assertEquals(new ComplexArray(new double[]{2, 1}, new double[]{5, 4}), array.subList(1, 3));
+        assertEquals("[1.0+4.0i, 2.0+5.0i, 1.0+4.0i]", array.toString());
+    }
+}
@@ -0,0 +1,68 @@
+package org.viktori.matteray;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class ComplexMatrixTest {
+
+    private static final ComplexMatrix MATRIX = new ComplexMatrix(
+            new double[][]{{1, 2, 3}, {4, 5, 6}},
+            new double[][]{{-1, 0, 1}, {2, 3, 4}});
+
+    @Test
+    public void testGet() {
+        assertEquals(2, MATRIX.rows());
+        assertEquals(3, MATRIX.columns());
+        assertEquals(Complex.of(3, 1), MATRIX.get(0, 2));
+        assertEquals(5.0, MATRIX.getReal(1, 1));
+        assertEquals(3.0, MATRIX.getImaginary(1, 1));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> MATRIX.get(2, 0));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> MATRIX.getReal(0, 3));
+    }
+
+    @Test
+    public void testConstructors() {
+        ComplexMatrix fromFunction = new ComplexMatrix(2, 3, (r, c) -> MATRIX.get(r, c));
+        assertEquals(MATRIX, fromFunction);
+        assertEquals(MATRIX, new ComplexMatrix(Matrix.copyOf(MATRIX)));
+        assertEquals(Matrix.copyOf(MATRIX), MATRIX);
+        assertEquals(Matrix.copyOf(MATRIX).hashCode(), MATRIX.hashCode());
+        assertTrue(new ComplexMatrix().isEmpty());
+        assertThrowsExactly(IllegalArgumentException.class, () -> new ComplexMatrix(new double[][]{{1, 2}}, new double[][]{{1}}));
+        assertThrowsExactly(IllegalArgumentException.class, () -> new ComplexMatrix(new double[][]{{1}}, new double[][]{}));
+    }
+
+    @Test
+    public void testConjugateTranspose() {
+        ComplexMatrix transposed = MATRIX.conjugateTranspose();
+        assertEquals(3, transposed.rows());
+        assertEquals(2, transposed.columns());
+        assertEquals(Complex.of(3, -1), transposed.get(2, 0));
+        assertEquals(Complex.of(4, -2), transposed.get(0, 1));
+        assertEquals(new ComplexMatrix(3, 2, (r, c) -> MATRIX.get(c, r).conjugate()), transposed);
+        assertEquals(new ComplexMatrix(3, 2, (r, c) -> MATRIX.get(c, r).conjugate()).hashCode(), transposed.hashCode());
+        assertEquals(MATRIX, transposed.conjugateTranspose());
+        assertArrayEquals(new double[]{1, 1, 4, -2, 2, -0.0, 5, -3, 3, -1, 6, -4}, transposed.toInterleavedArray());
+    }
+
+    @Test
+    public void testRowsColumnsAndSubMatrixOfView() {
+        ComplexMatrix transposed = MATRIX.conjugateTranspose();
+        assertEquals(new ComplexArray(new double[]{2, 5}, new double[]{-0.0, -3}), transposed.row(1));
+        assertEquals(new ComplexArray(new double[]{4, 5, 6}, new double[]{-2, -3, -4}), transposed.column(1));
+        assertEquals(new ComplexMatrix(new double[][]{{5}, {6}}, new double[][]{{-3}, {-4}}), transposed.subMatrix(1, 3, 1, 2));
+    }
+
+    @Test
+    public void testContains() {
+        assertTrue(MATRIX.contains(Complex.of(6, 4)));
+        assertFalse(MATRIX.contains(Complex.of(6, -4)));
+        assertTrue(MATRIX.conjugateTranspose().contains(Complex.of(6, -4)));
+        assertFalse(MATRIX.contains(6.0));
+    }
+}
@@ -0,0 +1,85 @@
+package org.viktori.matteray;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class DoubleArrayTest {
+
+    @Test
+    public void testVarargsConstructor() {
+        DoubleArray array = new DoubleArray(1.5, 2.5, -3.0);
+        assertEquals(3, array.size());
+        assertEquals(1.5, array.get(0));
+        assertEquals(2.5, array.getDouble(1));
+        assertEquals(-3.0, array.getDouble(2));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> array.get(3));
+    }
+
+    @Test
+    public void testVarargsConstructorCopiesInput() {
+        double[] values = {1.0, 2.0};
+        DoubleArray array = new DoubleArray(values);
+        values[0] = 10.0;
+        assertEquals(1.0, array.getDouble(0));
+    }
+
+    @Test
+    public void testFunctionConstructor() {
+        DoubleArray array = new DoubleArray(4, i -> i * 0.5);
+        assertArrayEquals(new double[]{0.0, 0.5, 1.0, 1.5}, array.toDoubleArray());
+        assertThrowsExactly(IllegalArgumentException.class, () -> new DoubleArray(-1, i -> 0.0));
+    }
+
+    @Test
+    public void testCollectionConstructor() {
+        DoubleArray array = new DoubleArray(List.of(1, 2.5, 3L));
+        assertArrayEquals(new double[]{1.0, 2.5, 3.0}, array.toDoubleArray());
+    }
+
+    @Test
+    public void testEqualsAndHashCodeMatchesImmutableArray() {
+        DoubleArray array = new DoubleArray(1.0, 2.0, 3.0);
+        Array<Double> boxed = Array.of(1.0, 2.0, 3.0);
+        assertEquals(boxed, array);
+        assertEquals(array, boxed);
+        assertEquals(boxed.hashCode(), array.hashCode());
+        assertEquals(boxed.toString(), array.toString());
+    }
+
+    @Test
+    public void testIndexOfAndContains() {
+        DoubleArray array = new DoubleArray(1.0, 2.0, 1.0);
+        assertEquals(0, array.indexOf(1.0));
+        assertEquals(2, array.lastIndexOf(1.0));
+        assertEquals(-1, array.indexOf(1.0f));
+        assertTrue(array.contains(2.0));
+        assertFalse(array.contains(5.0));
+    }
+
+    @Test
+    public void testSubList() {
+        DoubleArray array = new DoubleArray(1.0, 2.0, 3.0, 4.0);
+        assertEquals(new DoubleArray(2.0, 3.0), array.subList(1, 3));
+        assertSame(array, array.subList(0, 4));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> array.subList(0, 5));
+        assertThrowsExactly(IllegalArgumentException.class, () -> array.subList(3, 1));
+    }
+
+    @Test
+    public void testIsImmutable() {
+        DoubleArray array = new DoubleArray(1.0, 2.0);
+        assertThrowsExactly(UnsupportedOperationException.class, () -> array.set(0, 3.0));
+        assertThrowsExactly(UnsupportedOperationException.class, () -> array.add(3.0));
+        double[] raw = array.toDoubleArray();
+        raw[0] = 5.0;
+        assertEquals(1.0, array.getDouble(0));
+    }
+}
@@ -0,0 +1,82 @@
+package org.viktori.matteray;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class DoubleMatrixTest {
+
+    @Test
+    public void testRowsConstructor() {
+        DoubleMatrix matrix = new DoubleMatrix(new double[]{1.0, 2.0, 3.0}, new double[]{4.0, 5.0, 6.0});
+        assertEquals(2, matrix.rows());
+        assertEquals(3, matrix.columns());
+        assertEquals(6, matrix.size());
+        assertEquals(2.0, matrix.get(0, 1));
+        assertEquals(6.0, matrix.getDouble(1, 2));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> matrix.get(2, 0));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> matrix.get(0, 3));
+        assertThrowsExactly(IllegalArgumentException.class, () -> new DoubleMatrix(new double[]{1.0}, new double[]{1.0, 2.0}));
+    }
+
+    @Test
+    public void testFunctionConstructor() {
+        DoubleMatrix matrix = new DoubleMatrix(2, 3, (r, c) -> r * 10 + c);
+        assertArrayEquals(new double[]{0, 1, 2, 10, 11, 12}, matrix.toDoubleArray());
+        assertTrue(new DoubleMatrix(3, (r, c) -> 0).isSquare());
+        assertThrowsExactly(IllegalArgumentException.class, () -> new DoubleMatrix(-1, 2, (r, c) -> 0));
+    }
+
+    @Test
+    public void testEqualsAndHashCodeMatchesImmutableMatrix() {
+        DoubleMatrix matrix = new DoubleMatrix(2, 2, (r, c) -> r + c);
+        Matrix<Double> boxed = Matrix.of(Array.of(0.0, 1.0), Array.of(1.0, 2.0));
+        assertEquals(boxed, matrix);
+        assertEquals(matrix, boxed);
+        assertEquals(boxed.hashCode(), matrix.hashCode());
+        assertEquals(boxed.toString(), matrix.toString());
+        assertEquals(matrix, new DoubleMatrix(boxed));
+    }
+
+    @Test
+    public void testRowsAndColumns() {
+        DoubleMatrix matrix = new DoubleMatrix(2, 3, (r, c) -> r * 10 + c);
+        assertEquals(new DoubleArray(10, 11, 12), matrix.row(1));
+        assertEquals(new DoubleArray(2, 12), matrix.column(2));
+        assertEquals(Array.of(new DoubleArray(0, 1, 2), new DoubleArray(10, 11, 12)), matrix.rowArray());
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> matrix.row(2));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> matrix.column(-1));
+    }
+
+    @Test
+    public void testSubMatrix() {
+        DoubleMatrix matrix = new DoubleMatrix(3, 3, (r, c) -> r * 3 + c);
+        assertEquals(new DoubleMatrix(new double[]{4, 5}, new double[]{7, 8}), matrix.subMatrix(1, 3, 1, 3));
+        assertSame(matrix, matrix.subMatrix(0, 3, 0, 3));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> matrix.subMatrix(0, 4, 0, 1));
+    }
+
+    @Test
+    public void testContainsAndIterator() {
+        DoubleMatrix matrix = new DoubleMatrix(2, 2, (r, c) -> r * 2 + c);
+        assertTrue(matrix.contains(3.0));
+        assertFalse(matrix.contains(3.0f));
+        double expected = 0;
+        for (double value : matrix) {
+            assertEquals(expected++, value);
+        }
+        assertEquals(4.0, expected);
+    }
+
+    @Test
+    public void testEmpty() {
+        DoubleMatrix matrix = new DoubleMatrix();
+        assertTrue(matrix.isEmpty());
+        assertEquals(Matrix.of(), matrix);
+    }
+}
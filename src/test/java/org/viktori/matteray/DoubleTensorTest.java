@@ -0,0 +1,40 @@
+package org.viktori.matteray;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+
+import org.junit.jupiter.api.Test;
+
+public class DoubleTensorTest {
+
+    @Test
+    public void testFlatConstructor() {
+        DoubleTensor tensor = new DoubleTensor(new double[]{1, 2, 3, 4, 5, 6, 7, 8}, 2, 2, 2);
+        assertEquals(3, tensor.rank());
+        assertEquals(7.0, tensor.getDouble(1, 1, 0));
+        assertEquals(7.0, tensor.get(1, 1, 0));
+        assertThrowsExactly(IllegalArgumentException.class, () -> new DoubleTensor(new double[]{1, 2, 3}, 2, 2));
+        assertThrowsExactly(IllegalArgumentException.class, () -> new DoubleTensor(new double[]{}, -1));
+    }
+
+    @Test
+    public void testViewsKeepPrimitiveType() {
+        DoubleTensor tensor = new DoubleTensor(new double[]{1, 2, 3, 4, 5, 6}, 2, 3);
+        DoubleTensor transposed = tensor.permute(1, 0);
+        assertArrayEquals(new double[]{1, 4, 2, 5, 3, 6}, transposed.toDoubleArray());
+        assertArrayEquals(new double[]{4, 5, 6}, tensor.slice(0, 1).toDoubleArray());
+        assertArrayEquals(new double[]{2, 5}, tensor.subTensor(1, 1, 2).toDoubleArray());
+        assertArrayEquals(new double[]{1, 4, 2, 5, 3, 6}, transposed.reshape(3, 2).toDoubleArray());
+    }
+
+    @Test
+    public void testConversionAndEquality() {
+        Tensor<Integer> ints = new IntTensor(new int[]{1, 2, 3, 4}, 2, 2);
+        DoubleTensor doubles = new DoubleTensor(ints);
+        assertEquals(new DoubleTensor(new double[]{1, 2, 3, 4}, 2, 2), doubles);
+        assertEquals(new ImmutableTensor<>(new Double[]{1.0, 2.0, 3.0, 4.0}, 2, 2), doubles);
+        assertEquals(Matrix.of(Array.of(1.0, 2.0), Array.of(3.0, 4.0)), doubles.asMatrix());
+        assertEquals(new FloatTensor(new float[]{1, 3}, 2), new FloatTensor(doubles).slice(1, 0));
+    }
+}
@@ -0,0 +1,85 @@
+package org.viktori.matteray;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class FloatArrayTest {
+
+    @Test
+    public void testVarargsConstructor() {
+        FloatArray array = new FloatArray(1.5f, 2.5f, -3.0f);
+        assertEquals(3, array.size());
+        assertEquals(1.5f, array.get(0));
+        assertEquals(2.5f, array.getFloat(1));
+        assertEquals(-3.0f, array.getFloat(2));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> array.get(3));
+    }
+
+    @Test
+    public void testVarargsConstructorCopiesInput() {
+        float[] values = {1.0f, 2.0f};
+        FloatArray array = new FloatArray(values);
+        values[0] = 10.0f;
+        assertEquals(1.0f, array.getFloat(0));
+    }
+
+    @Test
+    public void testFunctionConstructor() {
+        FloatArray array = new FloatArray(4, i -> i * 0.5f);
+        assertArrayEquals(new float[]{0.0f, 0.5f, 1.0f, 1.5f}, array.toFloatArray());
+        assertThrowsExactly(IllegalArgumentException.class, () -> new FloatArray(-1, i -> 0.0f));
+    }
+
+    @Test
+    public void testCollectionConstructor() {
+        FloatArray array = new FloatArray(List.of(1, 2.5, 3L));
+        assertArrayEquals(new float[]{1.0f, 2.5f, 3.0f}, array.toFloatArray());
+    }
+
+    @Test
+    public void testEqualsAndHashCodeMatchesImmutableArray() {
+        FloatArray array = new FloatArray(1.0f, 2.0f, 3.0f);
+        Array<Float> boxed = Array.of(1.0f, 2.0f, 3.0f);
+        assertEquals(boxed, array);
+        assertEquals(array, boxed);
+        assertEquals(boxed.hashCode(), array.hashCode());
+        assertEquals(boxed.toString(), array.toString());
+    }
+
+    @Test
+    public void testIndexOfAndContains() {
+        FloatArray array = new FloatArray(1.0f, 2.0f, 1.0f);
+        assertEquals(0, array.indexOf(1.0f));
+        assertEquals(2, array.lastIndexOf(1.0f));
+        assertEquals(-1, array.indexOf(1.0));
+        assertTrue(array.contains(2.0f));
+        assertFalse(array.contains(5.0f));
+    }
+
+    @Test
+    public void testSubList() {
+        FloatArray array = new FloatArray(1.0f, 2.0f, 3.0f, 4.0f);
+        assertEquals(new FloatArray(2.0f, 3.0f), array.subList(1, 3));
+        assertSame(array, array.subList(0, 4));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> array.subList(0, 5));
+        assertThrowsExactly(IllegalArgumentException.class, () -> array.subList(3, 1));
+    }
+
+    @Test
+    public void testIsImmutable() {
+        FloatArray array = new FloatArray(1.0f, 2.0f);
+        assertThrowsExactly(UnsupportedOperationException.class, () -> array.set(0, 3.0f));
+        assertThrowsExactly(UnsupportedOperationException.class, () -> array.add(3.0f));
+        float[] raw = array.toFloatArray();
+        raw[0] = 5.0f;
+        assertEquals(1.0f, array.getFloat(0));
+    }
+}
@@ -0,0 +1,82 @@
+package org.viktori.matteray;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class FloatMatrixTest {
+
+    @Test
+    public void testRowsConstructor() {
+        FloatMatrix matrix = new FloatMatrix(new float[]{1.0f, 2.0f, 3.0f}, new float[]{4.0f, 5.0f, 6.0f});
+        assertEquals(2, matrix.rows());
+        assertEquals(3, matrix.columns());
+        assertEquals(6, matrix.size());
+        assertEquals(2.0f, matrix.get(0, 1));
+        assertEquals(6.0f, matrix.getFloat(1, 2));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> matrix.get(2, 0));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> matrix.get(0, 3));
+        assertThrowsExactly(IllegalArgumentException.class, () -> new FloatMatrix(new float[]{1.0f}, new float[]{1.0f, 2.0f}));
+    }
+
+    @Test
+    public void testFunctionConstructor() {
+        FloatMatrix matrix = new FloatMatrix(2, 3, (r, c) -> r * 10 + c);
+        assertArrayEquals(new float[]{0, 1, 2, 10, 11, 12}, matrix.toFloatArray());
+        assertTrue(new FloatMatrix(3, (r, c) -> 0).isSquare());
+        assertThrowsExactly(IllegalArgumentException.class, () -> new FloatMatrix(-1, 2, (r, c) -> 0));
+    }
+
+    @Test
+    public void testEqualsAndHashCodeMatchesImmutableMatrix() {
+        FloatMatrix matrix = new FloatMatrix(2, 2, (r, c) -> r + c);
+        Matrix<Float> boxed = Matrix.of(Array.of(0.0f, 1.0f), Array.of(1.0f, 2.0f));
+        assertEquals(boxed, matrix);
+        assertEquals(matrix, boxed);
+        assertEquals(boxed.hashCode(), matrix.hashCode());
+        assertEquals(boxed.toString(), matrix.toString());
+        assertEquals(matrix, new FloatMatrix(boxed));
+    }
+
+    @Test
+    public void testRowsAndColumns() {
+        FloatMatrix matrix = new FloatMatrix(2, 3, (r, c) -> r * 10 + c);
+        assertEquals(new FloatArray(10, 11, 12), matrix.row(1));
+        assertEquals(new FloatArray(2, 12), matrix.column(2));
+        assertEquals(Array.of(new FloatArray(0, 1, 2), new FloatArray(10, 11, 12)), matrix.rowArray());
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> matrix.row(2));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> matrix.column(-1));
+    }
+
+    @Test
+    public void testSubMatrix() {
+        FloatMatrix matrix = new FloatMatrix(3, 3, (r, c) -> r * 3 + c);
+        assertEquals(new FloatMatrix(new float[]{4, 5}, new float[]{7, 8}), matrix.subMatrix(1, 3, 1, 3));
+        assertSame(matrix, matrix.subMatrix(0, 3, 0, 3));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> matrix.subMatrix(0, 4, 0, 1));
+    }
+
+    @Test
+    public void testContainsAndIterator() {
+        FloatMatrix matrix = new FloatMatrix(2, 2, (r, c) -> r * 2 + c);
+        assertTrue(matrix.contains(3.0f));
+        assertFalse(matrix.contains(3.0));
+        float expected = 0;
+        for (float value : matrix) {
+            assertEquals(expected++, value);
+        }
+        assertEquals(4.0f, expected);
+    }
+
+    @Test
+    public void testEmpty() {
+        FloatMatrix matrix = new FloatMatrix();
+        assertTrue(matrix.isEmpty());
+        assertEquals(Matrix.of(), matrix);
+    }
+}
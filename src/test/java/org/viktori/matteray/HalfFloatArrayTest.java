@@ -0,0 +1,50 @@
+package org.viktori.matteray;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class HalfFloatArrayTest {
+
+    @Test
+    public void testExactValuesAreKept() {
+        HalfFloatArray array = new HalfFloatArray(0.0f, 1.0f, -2.5f, 0.125f, 65504.0f);
+        assertArrayEquals(new float[]{0.0f, 1.0f, -2.5f, 0.125f, 65504.0f}, array.toFloatArray());
+        assertEquals(-2.5, array.getDouble(2));
+        assertEquals(0.125f, array.get(3));
+    }
+
+    @Test
+    public void testValuesAreRoundedToNearestEven() {
+        // Half-precision has 10 explicit mantissa bits, so the spacing between 1 and 2 is 2^-10
+        float ulp = 0x1p-10f;
+        HalfFloatArray array = new HalfFloatArray(1.0f + ulp / 2, 1.0f + 3 * ulp / 2, 1.0f + ulp * 0.75f, 0.1f);
+        assertEquals(1.0f, array.getFloat(0));
+        assertEquals(1.0f + 2 * ulp, array.getFloat(1));
+        assertEquals(1.0f + ulp, array.getFloat(2));
+        assertEquals(0.0999755859375f, array.getFloat(3));
+    }
+
+    @Test
+    public void testOutOfRangeValues() {
+        HalfFloatArray array = new HalfFloatArray(1e6f, -1e6f, 1e-9f, 0x1p-24f, Float.NaN);
+        assertEquals(Float.POSITIVE_INFINITY, array.getFloat(0));
+        assertEquals(Float.NEGATIVE_INFINITY, array.getFloat(1));
+        assertEquals(0.0f, array.getFloat(2));
+        assertEquals(0x1p-24f, array.getFloat(3));
+        assertTrue(Float.isNaN(array.getFloat(4)));
+    }
+
+    @Test
+    public void testEqualsFloatArrayWithSameValues() {
+        HalfFloatArray array = new HalfFloatArray(List.of(1, 2, 3));
+        assertEquals(new FloatArray(1.0f, 2.0f, 3.0f), array);
+        assertEquals(Array.of(1.0f, 2.0f, 3.0f), array);
+        assertEquals(Array.of(1.0f, 2.0f, 3.0f).hashCode(), array.hashCode());
+        assertEquals(new HalfFloatArray(2.0f, 3.0f), array.subList(1, 3));
+    }
+}
@@ -0,0 +1,45 @@
+package org.viktori.matteray;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+
+import org.junit.jupiter.api.Test;
+
+public class HalfFloatMatrixTest {
+
+    @Test
+    public void testRowsConstructor() {
+        HalfFloatMatrix matrix = new HalfFloatMatrix(new float[]{1.0f, 2.0f, 3.0f}, new float[]{4.0f, 5.0f, 6.0f});
+        assertEquals(2, matrix.rows());
+        assertEquals(3, matrix.columns());
+        assertEquals(2.0f, matrix.get(0, 1));
+        assertEquals(6.0f, matrix.getFloat(1, 2));
+        assertEquals(5.0, matrix.getDouble(1, 1));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> matrix.get(2, 0));
+    }
+
+    @Test
+    public void testValuesAreRounded() {
+        HalfFloatMatrix matrix = new HalfFloatMatrix(1, 3, (r, c) -> new float[]{0.1f, 1e5f, 1024.4f}[c]);
+        assertArrayEquals(new float[]{0.0999755859375f, Float.POSITIVE_INFINITY, 1024.0f}, matrix.toFloatArray());
+    }
+
+    @Test
+    public void testEqualsFloatMatrixWithSameValues() {
+        HalfFloatMatrix matrix = new HalfFloatMatrix(2, 2, (r, c) -> r + c * 0.5f);
+        FloatMatrix floatMatrix = new FloatMatrix(2, 2, (r, c) -> r + c * 0.5f);
+        assertEquals(floatMatrix, matrix);
+        assertEquals(matrix, floatMatrix);
+        assertEquals(floatMatrix.hashCode(), matrix.hashCode());
+        assertEquals(matrix, new HalfFloatMatrix(floatMatrix));
+    }
+
+    @Test
+    public void testRowsColumnsAndSubMatrix() {
+        HalfFloatMatrix matrix = new HalfFloatMatrix(3, 3, (r, c) -> r * 3 + c);
+        assertEquals(new HalfFloatArray(3, 4, 5), matrix.row(1));
+        assertEquals(new HalfFloatArray(2, 5, 8), matrix.column(2));
+        assertEquals(new HalfFloatMatrix(new float[]{4, 5}, new float[]{7, 8}), matrix.subMatrix(1, 3, 1, 3));
+    }
+}
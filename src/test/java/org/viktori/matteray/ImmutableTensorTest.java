@@ -0,0 +1,142 @@
+package org.viktori.matteray;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.viktori.matteray.util.MatrixUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImmutableTensorTest {
+
+    private static Tensor<Integer> tensor234() {
+        // Element at (i, j, k) is i * 100 + j * 10 + k
+        return Tensor.of(new int[]{2, 3, 4}, indices -> indices[0] * 100 + indices[1] * 10 + indices[2]);
+    }
+
+    @Test
+    public void testShapeAndGet() {
+        Tensor<Integer> tensor = tensor234();
+        assertEquals(3, tensor.rank());
+        assertArrayEquals(new int[]{2, 3, 4}, tensor.shape());
+        assertEquals(24, tensor.size());
+        assertEquals(3, tensor.dimension(1));
+        assertEquals(123, tensor.get(1, 2, 3));
+        assertEquals(0, tensor.get(0, 0, 0));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> tensor.get(2, 0, 0));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> tensor.get(0, 0, -1));
+        assertThrowsExactly(IllegalArgumentException.class, () -> tensor.get(0, 0));
+    }
+
+    @Test
+    public void testIteratesInRowMajorOrder() {
+        Tensor<Integer> tensor = new ImmutableTensor<>(new Integer[]{1, 2, 3, 4, 5, 6}, 2, 3);
+        List<Integer> elements = new ArrayList<>(tensor);
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), elements);
+        assertArrayEquals(new Object[]{1, 2, 3, 4, 5, 6}, tensor.toArray());
+        assertThrowsExactly(IllegalArgumentException.class, () -> new ImmutableTensor<>(new Integer[]{1, 2, 3}, 2, 2));
+    }
+
+    @Test
+    public void testSlice() {
+        Tensor<Integer> tensor = tensor234();
+        Tensor<Integer> slice = tensor.slice(0, 1);
+        assertArrayEquals(new int[]{3, 4}, slice.shape());
+        assertEquals(123, slice.get(2, 3));
+
+        Tensor<Integer> middle = tensor.slice(1, 2);
+        assertArrayEquals(new int[]{2, 4}, middle.shape());
+        assertEquals(Matrix.of(Array.of(20, 21, 22, 23), Array.of(120, 121, 122, 123)), middle.asMatrix());
+
+        Tensor<Integer> scalar = tensor.slice(0, 1).slice(0, 1).slice(0, 1);
+        assertEquals(0, scalar.rank());
+        assertEquals(111, scalar.get());
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> tensor.slice(3, 0));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> tensor.slice(0, 2));
+    }
+
+    @Test
+    public void testSubTensor() {
+        Tensor<Integer> tensor = tensor234().subTensor(2, 1, 3);
+        assertArrayEquals(new int[]{2, 3, 2}, tensor.shape());
+        assertEquals(List.of(1, 2, 11, 12, 21, 22, 101, 102, 111, 112, 121, 122), new ArrayList<>(tensor));
+        assertThrowsExactly(IllegalArgumentException.class, () -> tensor.subTensor(0, 2, 1));
+    }
+
+    @Test
+    public void testPermute() {
+        Tensor<Integer> tensor = tensor234().permute(2, 0, 1);
+        assertArrayEquals(new int[]{4, 2, 3}, tensor.shape());
+        assertEquals(123, tensor.get(3, 1, 2));
+        assertThrowsExactly(IllegalArgumentException.class, () -> tensor.permute(0, 0, 1));
+        assertThrowsExactly(IllegalArgumentException.class, () -> tensor.permute(0, 1));
+    }
+
+    @Test
+    public void testReshape() {
+        Tensor<Integer> tensor = new ImmutableTensor<>(new Integer[]{1, 2, 3, 4, 5, 6}, 2, 3);
+        assertEquals(new ImmutableTensor<>(new Integer[]{1, 2, 3, 4, 5, 6}, 3, 2), tensor.reshape(3, 2));
+        assertEquals(new ImmutableTensor<>(new Integer[]{1, 2, 3, 4, 5, 6}, 6), tensor.reshape(6));
+        // A transposed tensor is not contiguous, so its elements are copied in their new order
+        assertEquals(new ImmutableTensor<>(new Integer[]{1, 4, 2, 5, 3, 6}, 6), tensor.permute(1, 0).reshape(6));
+        assertThrowsExactly(IllegalArgumentException.class, () -> tensor.reshape(4, 2));
+    }
+
+    @Test
+    public void testAsMatrixAndAsArray() {
+        Tensor<Integer> tensor = new ImmutableTensor<>(new Integer[]{1, 2, 3, 4, 5, 6}, 2, 3);
+        Matrix<Integer> matrix = tensor.asMatrix();
+        assertEquals(Matrix.of(Array.of(1, 2, 3), Array.of(4, 5, 6)), matrix);
+        assertEquals(Array.of(2, 5), matrix.column(1));
+        assertEquals(Array.of(4, 5, 6), matrix.row(1));
+        assertEquals(Matrix.of(Array.of(5, 6)), matrix.subMatrix(1, 2, 1, 3));
+        assertEquals(Matrix.of(Array.of(1, 4), Array.of(2, 5), Array.of(3, 6)), tensor.permute(1, 0).asMatrix());
+        assertEquals(Array.of(4, 5, 6), tensor.slice(0, 1).asArray());
+        assertEquals(Array.of(5, 6), tensor.slice(0, 1).asArray().subList(1, 3));
+        assertThrowsExactly(IllegalStateException.class, tensor::asArray);
+        assertThrowsExactly(IllegalStateException.class, () -> tensor.slice(0, 0).asMatrix());
+    }
+
+    @Test
+    public void testMatrixViewWorksWithMatrixUtils() {
+        Tensor<Integer> tensor = tensor234();
+        Matrix<Integer> slice = tensor.slice(0, 0).asMatrix();
+        Matrix<Integer> transposed = tensor.slice(0, 0).permute(1, 0).asMatrix();
+        assertEquals(MatrixUtils.multiply(Matrix.copyOf(slice), Matrix.copyOf(transposed), (x, y) -> x * y, Integer::sum),
+                MatrixUtils.multiply(slice, transposed, (x, y) -> x * y, Integer::sum));
+    }
+
+    @Test
+    public void testCopyOfMatrixAndArray() {
+        Matrix<String> matrix = Matrix.of(Array.of("a", "b"), Array.of("c", "d"));
+        Tensor<String> tensor = Tensor.copyOf(matrix);
+        assertArrayEquals(new int[]{2, 2}, tensor.shape());
+        assertEquals(matrix, tensor.asMatrix());
+        assertEquals(Array.of("a", "b"), Tensor.copyOf(Array.of("a", "b")).asArray());
+    }
+
+    @Test
+    public void testEqualsAndHashCode() {
+        Tensor<Integer> tensor = new ImmutableTensor<>(new Integer[]{1, 2, 3, 4}, 2, 2);
+        assertEquals(new ImmutableTensor<>(new Integer[]{1, 2, 3, 4}, 2, 2), tensor);
+        assertEquals(new ImmutableTensor<>(new Integer[]{1, 2, 3, 4}, 2, 2).hashCode(), tensor.hashCode());
+        assertNotEquals(new ImmutableTensor<>(new Integer[]{1, 2, 3, 4}, 4), tensor);
+        assertEquals("[[1, 2], [3, 4]]", tensor.toString());
+        assertTrue(tensor.contains(3));
+        assertFalse(tensor.contains(5));
+    }
+
+    @Test
+    public void testIsImmutable() {
+        Tensor<Integer> tensor = tensor234();
+        assertThrowsExactly(UnsupportedOperationException.class, () -> tensor.add(1));
+        assertThrowsExactly(UnsupportedOperationException.class, () -> tensor.remove(1));
+        assertThrowsExactly(UnsupportedOperationException.class, tensor::clear);
+    }
+}
@@ -0,0 +1,50 @@
+package org.viktori.matteray;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class IntArrayTest {
+
+    @Test
+    public void testVarargsConstructor() {
+        IntArray array = new IntArray(1, 2, -3);
+        assertEquals(3, array.size());
+        assertEquals(1, array.get(0));
+        assertEquals(-3, array.getInt(2));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> array.getInt(3));
+    }
+
+    @Test
+    public void testFunctionAndCollectionConstructors() {
+        assertArrayEquals(new int[]{0, 10, 20}, new IntArray(3, i -> i * 10).toIntArray());
+        assertEquals(new IntArray(1, 2), new IntArray(List.of(1L, 2L)));
+        assertThrowsExactly(IllegalArgumentException.class, () -> new IntArray(-1, i -> 0));
+    }
+
+    @Test
+    public void testEqualsAndHashCodeMatchesImmutableArray() {
+        IntArray array = new IntArray(1, 2, 3);
+        Array<Integer> boxed = Array.of(1, 2, 3);
+        assertEquals(boxed, array);
+        assertEquals(array, boxed);
+        assertEquals(boxed.hashCode(), array.hashCode());
+        assertEquals(boxed.toString(), array.toString());
+    }
+
+    @Test
+    public void testIndexOfAndSubList() {
+        IntArray array = new IntArray(1, 2, 1);
+        assertEquals(2, array.lastIndexOf(1));
+        assertEquals(-1, array.indexOf(1L));
+        assertTrue(array.contains(2));
+        assertFalse(array.contains(5));
+        assertEquals(new IntArray(2, 1), array.subList(1, 3));
+    }
+}
@@ -0,0 +1,44 @@
+package org.viktori.matteray;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class IntMatrixTest {
+
+    @Test
+    public void testRowsConstructor() {
+        IntMatrix matrix = new IntMatrix(new int[]{1, 2, 3}, new int[]{4, 5, 6});
+        assertEquals(2, matrix.rows());
+        assertEquals(3, matrix.columns());
+        assertEquals(2, matrix.get(0, 1));
+        assertEquals(6, matrix.getInt(1, 2));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> matrix.getInt(2, 0));
+        assertThrowsExactly(IllegalArgumentException.class, () -> new IntMatrix(new int[]{1}, new int[]{1, 2}));
+    }
+
+    @Test
+    public void testEqualsAndHashCodeMatchesImmutableMatrix() {
+        IntMatrix matrix = new IntMatrix(2, 2, (r, c) -> r + c);
+        Matrix<Integer> boxed = Matrix.of(Array.of(0, 1), Array.of(1, 2));
+        assertEquals(boxed, matrix);
+        assertEquals(matrix, boxed);
+        assertEquals(boxed.hashCode(), matrix.hashCode());
+        assertEquals(matrix, new IntMatrix(Matrix.of(Array.of(0L, 1L), Array.of(1L, 2L))));
+    }
+
+    @Test
+    public void testRowsColumnsAndSubMatrix() {
+        IntMatrix matrix = new IntMatrix(3, 3, (r, c) -> r * 3 + c);
+        assertEquals(new IntArray(3, 4, 5), matrix.row(1));
+        assertEquals(new IntArray(2, 5, 8), matrix.column(2));
+        assertEquals(new IntMatrix(new int[]{4, 5}, new int[]{7, 8}), matrix.subMatrix(1, 3, 1, 3));
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5, 6, 7, 8}, matrix.toIntArray());
+        assertTrue(matrix.contains(8));
+        assertFalse(matrix.contains(8L));
+    }
+}
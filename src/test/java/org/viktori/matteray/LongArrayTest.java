@@ -0,0 +1,50 @@
+package org.viktori.matteray;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class LongArrayTest {
+
+    @Test
+    public void testVarargsConstructor() {
+        LongArray array = new LongArray(1L, 2L, -3L);
+        assertEquals(3, array.size());
+        assertEquals(1L, array.get(0));
+        assertEquals(-3L, array.getLong(2));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> array.getLong(3));
+    }
+
+    @Test
+    public void testFunctionAndCollectionConstructors() {
+        assertArrayEquals(new long[]{0, 10, 20}, new LongArray(3, i -> i * 10L).toLongArray());
+        assertEquals(new LongArray(1, 2), new LongArray(List.of(1, 2)));
+        assertThrowsExactly(IllegalArgumentException.class, () -> new LongArray(-1, i -> 0L));
+    }
+
+    @Test
+    public void testEqualsAndHashCodeMatchesImmutableArray() {
+        LongArray array = new LongArray(1, 2, 3);
+        Array<Long> boxed = Array.of(1L, 2L, 3L);
+        assertEquals(boxed, array);
+        assertEquals(array, boxed);
+        assertEquals(boxed.hashCode(), array.hashCode());
+        assertEquals(boxed.toString(), array.toString());
+    }
+
+    @Test
+    public void testIndexOfAndSubList() {
+        LongArray array = new LongArray(1, 2, 1);
+        assertEquals(2, array.lastIndexOf(1L));
+        assertEquals(-1, array.indexOf(1));
+        assertTrue(array.contains(2L));
+        assertFalse(array.contains(5L));
+        assertEquals(new LongArray(2, 1), array.subList(1, 3));
+    }
+}
@@ -0,0 +1,44 @@
+package org.viktori.matteray;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class LongMatrixTest {
+
+    @Test
+    public void testRowsConstructor() {
+        LongMatrix matrix = new LongMatrix(new long[]{1, 2, 3}, new long[]{4, 5, 6});
+        assertEquals(2, matrix.rows());
+        assertEquals(3, matrix.columns());
+        assertEquals(2L, matrix.get(0, 1));
+        assertEquals(6L, matrix.getLong(1, 2));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> matrix.getLong(2, 0));
+        assertThrowsExactly(IllegalArgumentException.class, () -> new LongMatrix(new long[]{1}, new long[]{1, 2}));
+    }
+
+    @Test
+    public void testEqualsAndHashCodeMatchesImmutableMatrix() {
+        LongMatrix matrix = new LongMatrix(2, 2, (r, c) -> r + c);
+        Matrix<Long> boxed = Matrix.of(Array.of(0L, 1L), Array.of(1L, 2L));
+        assertEquals(boxed, matrix);
+        assertEquals(matrix, boxed);
+        assertEquals(boxed.hashCode(), matrix.hashCode());
+        assertEquals(matrix, new LongMatrix(Matrix.of(Array.of(0, 1), Array.of(1, 2))));
+    }
+
+    @Test
+    public void testRowsColumnsAndSubMatrix() {
+        LongMatrix matrix = new LongMatrix(3, 3, (r, c) -> r * 3 + c);
+        assertEquals(new LongArray(3, 4, 5), matrix.row(1));
+        assertEquals(new LongArray(2, 5, 8), matrix.column(2));
+        assertEquals(new LongMatrix(new long[]{4, 5}, new long[]{7, 8}), matrix.subMatrix(1, 3, 1, 3));
+        assertArrayEquals(new long[]{0, 1, 2, 3, 4, 5, 6, 7, 8}, matrix.toLongArray());
+        assertTrue(matrix.contains(8L));
+        assertFalse(matrix.contains(8));
+    }
+}
@@ -0,0 +1,109 @@
+package org.viktori.matteray;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class SparseDoubleMatrixTest {
+
+    @Test
+    public void testFunctionConstructor() {
+        SparseDoubleMatrix matrix = new SparseDoubleMatrix(3, 4, (r, c) -> r == c ? r + 1 : 0.0);
+        assertEquals(3, matrix.rows());
+        assertEquals(4, matrix.columns());
+        assertEquals(3, matrix.nonZeroCount());
+        assertEquals(2.0, matrix.get(1, 1));
+        assertEquals(0.0, matrix.getDouble(1, 2));
+        assertArrayEquals(new int[]{0, 1, 2, 3}, matrix.toRowPointerArray());
+        assertArrayEquals(new int[]{0, 1, 2}, matrix.toColumnIndexArray());
+        assertArrayEquals(new double[]{1, 2, 3}, matrix.toValueArray());
+        assertArrayEquals(new double[]{1, 0, 0, 0, 0, 2, 0, 0, 0, 0, 3, 0}, matrix.toDoubleArray());
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> matrix.get(3, 0));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> matrix.get(0, -1));
+        assertThrowsExactly(IllegalArgumentException.class, () -> new SparseDoubleMatrix(-1, 2, (r, c) -> 0));
+    }
+
+    @Test
+    public void testCompressedRowsConstructor() {
+        SparseDoubleMatrix matrix = new SparseDoubleMatrix(2, 3, new int[]{0, 2, 3}, new int[]{0, 2, 1}, new double[]{1, 0, 5});
+        assertEquals(new DoubleMatrix(new double[]{1, 0, 0}, new double[]{0, 5, 0}), matrix);
+        // The stored zero is dropped
+        assertEquals(2, matrix.nonZeroCount());
+        assertThrowsExactly(IllegalArgumentException.class, () -> new SparseDoubleMatrix(2, 3, new int[]{0, 2}, new int[]{0, 2}, new double[]{1, 2}));
+        assertThrowsExactly(IllegalArgumentException.class, () -> new SparseDoubleMatrix(1, 3, new int[]{0, 2}, new int[]{2, 1}, new double[]{1, 2}));
+        assertThrowsExactly(IllegalArgumentException.class, () -> new SparseDoubleMatrix(1, 3, new int[]{0, 1}, new int[]{3}, new double[]{1}));
+        assertThrowsExactly(IllegalArgumentException.class, () -> new SparseDoubleMatrix(1, 3, new int[]{0, 1}, new int[]{0}, new double[]{1, 2}));
+    }
+
+    @Test
+    public void testFromTriplets() {
+        SparseDoubleMatrix matrix = SparseDoubleMatrix.fromTriplets(3, 3,
+                new int[]{2, 0, 2, 0, 1}, new int[]{1, 2, 1, 0, 1}, new double[]{1, 2, 3, 4, -5});
+        assertEquals(new DoubleMatrix(new double[]{4, 0, 2}, new double[]{0, -5, 0}, new double[]{0, 4, 0}), matrix);
+        assertEquals(new SparseDoubleMatrix(0, 3, (r, c) -> 1), SparseDoubleMatrix.fromTriplets(0, 3, new int[0], new int[0], new double[0]));
+        // Values which sum to zero are not stored
+        assertEquals(0, SparseDoubleMatrix.fromTriplets(1, 1, new int[]{0, 0}, new int[]{0, 0}, new double[]{1, -1}).nonZeroCount());
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> SparseDoubleMatrix.fromTriplets(1, 1, new int[]{0}, new int[]{1}, new double[]{1}));
+        assertThrowsExactly(IllegalArgumentException.class, () -> SparseDoubleMatrix.fromTriplets(1, 1, new int[]{0}, new int[0], new double[]{1}));
+    }
+
+    @Test
+    public void testEqualsAndHashCodeMatchesImmutableMatrix() {
+        SparseDoubleMatrix matrix = new SparseDoubleMatrix(2, 3, (r, c) -> r == 1 ? c : 0);
+        Matrix<Double> boxed = Matrix.of(Array.of(0.0, 0.0, 0.0), Array.of(0.0, 1.0, 2.0));
+        assertEquals(boxed, matrix);
+        assertEquals(matrix, boxed);
+        assertEquals(boxed.hashCode(), matrix.hashCode());
+        assertEquals(boxed.toString(), matrix.toString());
+        assertEquals(matrix, new SparseDoubleMatrix(boxed));
+        assertEquals(new DoubleMatrix(boxed), new DoubleMatrix(matrix));
+    }
+
+    @Test
+    public void testTranspose() {
+        SparseDoubleMatrix matrix = new SparseDoubleMatrix(3, 4, (r, c) -> (r + c) % 3 == 0 ? r * 4 + c + 1 : 0);
+        SparseDoubleMatrix transpose = matrix.transpose();
+        assertEquals(new SparseDoubleMatrix(4, 3, (r, c) -> matrix.getDouble(c, r)), transpose);
+        assertEquals(matrix, transpose.transpose());
+    }
+
+    @Test
+    public void testRowsColumnsAndSubMatrix() {
+        SparseDoubleMatrix matrix = new SparseDoubleMatrix(3, 3, (r, c) -> r == c || c == 2 ? r * 3 + c : 0);
+        assertEquals(new DoubleArray(0, 4, 5), matrix.row(1));
+        assertEquals(new DoubleArray(2, 5, 8), matrix.column(2));
+        assertEquals(new DoubleMatrix(new double[]{4, 5}, new double[]{0, 8}), matrix.subMatrix(1, 3, 1, 3));
+        assertSame(matrix, matrix.subMatrix(0, 3, 0, 3));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> matrix.row(3));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> matrix.subMatrix(0, 4, 0, 1));
+    }
+
+    @Test
+    public void testContainsAndIterator() {
+        SparseDoubleMatrix matrix = new SparseDoubleMatrix(2, 2, (r, c) -> r == c ? 1 : 0);
+        assertTrue(matrix.contains(1.0));
+        assertTrue(matrix.contains(0.0));
+        assertFalse(matrix.contains(-0.0));
+        assertFalse(matrix.contains(1.0f));
+        assertFalse(new SparseDoubleMatrix(1, 1, (r, c) -> 1).contains(0.0));
+        double sum = 0;
+        for (double value : matrix) {
+            sum += value;
+        }
+        assertEquals(2.0, sum);
+    }
+
+    @Test
+    public void testEmpty() {
+        SparseDoubleMatrix matrix = new SparseDoubleMatrix();
+        assertTrue(matrix.isEmpty());
+        assertEquals(Matrix.of(), matrix);
+        assertEquals(0, matrix.nonZeroCount());
+        assertEquals(matrix, matrix.transpose());
+    }
+}
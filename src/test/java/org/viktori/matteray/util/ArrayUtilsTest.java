@@ -7,10 +7,19 @@ import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
 
 import org.junit.jupiter.api.Test;
 import org.viktori.matteray.Array;
+import org.viktori.matteray.Complex;
+import org.viktori.matteray.ComplexArray;
+import org.viktori.matteray.DoubleArray;
+import org.viktori.matteray.FloatArray;
+import org.viktori.matteray.IntArray;
 import org.viktori.matteray.ImmutableArray;
+import org.viktori.matteray.LongArray;
 
 import java.util.Comparator;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BinaryOperator;
 
 public class ArrayUtilsTest {
@@ -73,6 +82,35 @@ public class ArrayUtilsTest {
         assertEquals(Array.of("of", "test", "applyForEach"), ArrayUtils.toSorted(array, Comparator.comparing(String::length)));
     }
 
+    @Test
+    public void testToSortedAsPrimitives() {
+        DoubleArray doubles = new DoubleArray(3.0, Double.NaN, 0.0, -0.0, -1.5);
+        assertEquals(Array.of(-1.5, -0.0, 0.0, 3.0, Double.NaN), ArrayUtils.toSorted(doubles));
+        assertEquals(Array.of(Double.NaN, 3.0, 0.0, -0.0, -1.5), ArrayUtils.toSorted(doubles, Comparator.reverseOrder()));
+        assertEquals(Array.of(1L, 2L, 3L), ArrayUtils.toSorted(new LongArray(3L, 1L, 2L), Comparator.naturalOrder()));
+        assertEquals(Array.of(2.5f, 1.0f), ArrayUtils.toSorted(new FloatArray(1.0f, 2.5f), Comparator.reverseOrder()));
+        assertEquals(Array.of(-7, 0, 1000, 1000), ArrayUtils.toSorted(Array.of(1000, -7, 1000, 0)));
+        assertEquals(Array.of(), ArrayUtils.toSorted(new IntArray()));
+
+        Array<Number> mixed = Array.of(2, 1L, 0.5);
+        assertEquals(Array.of(0.5, 1L, 2), ArrayUtils.toSorted(mixed, Comparator.comparingDouble(Number::doubleValue)));
+        assertThrows(NullPointerException.class, () -> ArrayUtils.toSorted(Array.of(2, null, 1)));
+    }
+
+    @Test
+    public void testParallelToSorted() {
+        Random random = new Random(42);
+        IntArray ints = new IntArray(100_000, i -> random.nextInt());
+        Array<Integer> boxed = new ImmutableArray<>(ints);
+        assertEquals(ArrayUtils.toSorted(boxed), ArrayUtils.parallelToSorted(ints));
+        assertEquals(ArrayUtils.toSorted(ints, Comparator.reverseOrder()), ArrayUtils.parallelToSorted(boxed, Comparator.reverseOrder()));
+
+        Array<String> strings = ArrayUtils.toMapped(boxed, i -> Integer.toString(i % 1000));
+        Comparator<String> byLength = Comparator.comparing(String::length);
+        assertEquals(ArrayUtils.toSorted(strings, byLength), ArrayUtils.parallelToSorted(strings, byLength));
+        assertEquals(ArrayUtils.toSorted(strings), ArrayUtils.parallelToSorted(strings));
+    }
+
     @Test
     public void testToSortedReturnsNewInstance() {
         Array<String> array = Array.of("test", "of", "applyForEach");
@@ -201,4 +239,226 @@ public class ArrayUtilsTest {
         assertThrowsExactly(IllegalArgumentException.class, () -> ArrayUtils.dotProduct(vector2, vector1, (x, y) -> x * y, (x, y) -> x + y));
         assertEquals(0, ArrayUtils.dotProduct(vector2, vector1, (x, y) -> x * y, (x, y) -> x + y, 0));
     }
+
+    @Test
+    public void testComplexDotProduct() {
+        ComplexArray vector1 = new ComplexArray(new double[]{1, 2}, new double[]{1, 0});
+        ComplexArray vector2 = new ComplexArray(new double[]{3, 1}, new double[]{-1, 2});
+
+        assertEquals(Complex.of(6, 6), ArrayUtils.dotProduct(vector1, vector2));
+        assertEquals(ArrayUtils.dotProduct(vector1, vector2, Complex::times, Complex::plus), ArrayUtils.dotProduct(vector1, vector2));
+        assertEquals(Complex.ZERO, ArrayUtils.dotProduct(new ComplexArray(new double[0], new double[0]), new ComplexArray(new double[0], new double[0])));
+        assertThrowsExactly(IllegalArgumentException.class, () -> ArrayUtils.dotProduct(vector1, vector2.subList(0, 1)));
+    }
+
+    @Test
+    public void testComplexElementWiseOperations() {
+        ComplexArray array1 = new ComplexArray(new double[]{1, 2}, new double[]{1, -1});
+        ComplexArray array2 = new ComplexArray(new double[]{3, 0}, new double[]{0, 2});
+
+        assertEquals(Array.of(Complex.of(4, 1), Complex.of(2, 1)), ArrayUtils.add(array1, array2));
+        assertEquals(Array.of(Complex.of(-2, 1), Complex.of(2, -3)), ArrayUtils.subtract(array1, array2));
+        assertEquals(Array.of(Complex.of(3, 3), Complex.of(2, 4)), ArrayUtils.multiplyElementWise(array1, array2));
+        assertEquals(Array.of(Complex.of(-1, 1), Complex.of(1, 2)), ArrayUtils.scale(array1, Complex.I));
+        assertThrowsExactly(IllegalArgumentException.class, () -> ArrayUtils.add(array1, array2.subList(0, 1)));
+    }
+
+    @Test
+    public void testPrimitiveDotProduct() {
+        DoubleArray vector1 = new DoubleArray(37, i -> i % 5 - 2);
+        DoubleArray vector2 = new DoubleArray(37, i -> i % 3);
+        double expected = ArrayUtils.dotProduct(vector1, vector2, (x, y) -> x * y, Double::sum, 0.0);
+
+        assertEquals(expected, ArrayUtils.dotProduct(vector1, vector2));
+        assertEquals((float) expected, ArrayUtils.dotProduct(new FloatArray(vector1), new FloatArray(vector2)));
+        assertEquals((int) expected, ArrayUtils.dotProduct(new IntArray(vector1), new IntArray(vector2)));
+        assertEquals(0.0, ArrayUtils.dotProduct(new DoubleArray(), new DoubleArray()));
+        assertThrowsExactly(IllegalArgumentException.class, () -> ArrayUtils.dotProduct(vector1, vector2.subList(0, 36)));
+    }
+
+    @Test
+    public void testPrimitiveElementWiseOperations() {
+        DoubleArray array1 = new DoubleArray(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11);
+        DoubleArray array2 = new DoubleArray(11, i -> 2);
+
+        assertEquals(ArrayUtils.mergeForEach(array1, array2, Double::sum), ArrayUtils.add(array1, array2));
+        assertEquals(ArrayUtils.mergeForEach(array1, array2, (x, y) -> x * y), ArrayUtils.multiplyElementWise(array1, array2));
+        assertEquals(ArrayUtils.applyForEach(array1, x -> x * 3), ArrayUtils.scale(array1, 3));
+        assertEquals(ArrayUtils.mergeForEach(array1, array2, (x, y) -> 3 * x + y), ArrayUtils.axpy(3, array1, array2));
+        assertEquals(new IntArray(3, 5, 7, 9, 11, 13, 15, 17, 19, 21, 23), ArrayUtils.add(ArrayUtils.scale(new IntArray(array1), 2), new IntArray(11, i -> 1)));
+        assertEquals(new FloatArray(5, 8, 11, 14, 17, 20, 23, 26, 29, 32, 35), ArrayUtils.axpy(3, new FloatArray(array1), new FloatArray(array2)));
+        assertThrowsExactly(IllegalArgumentException.class, () -> ArrayUtils.add(array1, array2.subList(0, 1)));
+        assertThrowsExactly(IllegalArgumentException.class, () -> ArrayUtils.axpy(1, array1, array2.subList(0, 1)));
+    }
+
+    @Test
+    public void testPrimitiveSumMinAndMax() {
+        IntArray array = new IntArray(41, i -> (i * 17) % 41 - 20);
+
+        assertEquals(0, ArrayUtils.sum(array));
+        assertEquals(-20, ArrayUtils.min(array));
+        assertEquals(20, ArrayUtils.max(array));
+        assertEquals(0.0, ArrayUtils.sum(new DoubleArray(array)));
+        assertEquals(-20.0f, ArrayUtils.min(new FloatArray(array)));
+        assertEquals(20.0, ArrayUtils.max(new DoubleArray(array)));
+        assertEquals(Double.NaN, ArrayUtils.max(new DoubleArray(1, Double.NaN, 3)));
+        assertEquals(0.0, ArrayUtils.sum(new DoubleArray()));
+        assertThrowsExactly(NoSuchElementException.class, () -> ArrayUtils.min(new DoubleArray()));
+        assertThrowsExactly(NoSuchElementException.class, () -> ArrayUtils.max(new IntArray()));
+    }
+
+    @Test
+    public void testDotProductInSemiring() {
+        Array<Double> vector1 = new DoubleArray(1, 5, 2, 7);
+        Array<Double> vector2 = new DoubleArray(4, 0.5, 3, Double.POSITIVE_INFINITY);
+
+        assertEquals(Double.POSITIVE_INFINITY, ArrayUtils.dotProduct(vector1, vector2, Semiring.doubleArithmetic()));
+        assertEquals(5.0, ArrayUtils.dotProduct(vector1, vector2, Semiring.minPlus()));
+        assertEquals(Double.POSITIVE_INFINITY, ArrayUtils.dotProduct(vector1, vector2, Semiring.maxPlus()));
+        assertEquals(Double.POSITIVE_INFINITY, ArrayUtils.dotProduct(vector1, vector2, Semiring.maxTimes()));
+        assertEquals(6.0, ArrayUtils.dotProduct(vector1, new DoubleArray(4, 0.5, 3, 0), Semiring.maxTimes()));
+        assertEquals(29L, ArrayUtils.dotProduct(Array.of(1L, 2L, 3L), Array.of(4L, 5L, 5L), Semiring.longArithmetic()));
+        assertEquals(Integer.MIN_VALUE, ArrayUtils.dotProduct(Array.of(Integer.MAX_VALUE, 1), Array.of(1, 1), Semiring.intArithmetic()));
+        assertEquals(true, ArrayUtils.dotProduct(Array.of(false, true, true), Array.of(true, false, true), Semiring.orAnd()));
+        assertEquals(false, ArrayUtils.dotProduct(Array.of(false, true), Array.of(true, false), Semiring.orAnd()));
+        assertEquals(Double.POSITIVE_INFINITY, ArrayUtils.dotProduct(Array.<Double>of(), Array.<Double>of(), Semiring.minPlus()));
+        assertEquals("ac", ArrayUtils.dotProduct(Array.of("a", "b"), Array.of("c", "d"), Semiring.of((x, y) -> x.compareTo(y) <= 0 ? x : y, String::concat, "~", "")));
+        assertThrowsExactly(IllegalArgumentException.class, () -> ArrayUtils.dotProduct(vector1, vector2.subList(0, 3), Semiring.minPlus()));
+    }
+
+    @Test
+    public void testScan() {
+        Array<String> array = Array.of("a", "b", "c");
+        assertEquals(Array.of("a", "ab", "abc"), ArrayUtils.scan(array, String::concat));
+        assertEquals(Array.of(">a", ">ab", ">abc"), ArrayUtils.scan(array, String::concat, ">", ArrayUtils.ScanMode.INCLUSIVE));
+        assertEquals(Array.of("", "a", "ab"), ArrayUtils.scan(array, String::concat, "", ArrayUtils.ScanMode.EXCLUSIVE));
+        assertEquals(Array.of(), ArrayUtils.scan(Array.<String>of(), String::concat));
+        assertThrows(NullPointerException.class, () -> ArrayUtils.scan(array, String::concat, "", null));
+        assertThrows(NullPointerException.class, () -> ArrayUtils.scan(array, null));
+    }
+
+    @Test
+    public void testPrimitiveCumulativeSumMaxAndMin() {
+        DoubleArray doubles = new DoubleArray(2.0, -1.0, 4.0, 3.0);
+        assertEquals(new DoubleArray(2.0, 1.0, 5.0, 8.0), ArrayUtils.cumulativeSum(doubles, ArrayUtils.ScanMode.INCLUSIVE));
+        assertEquals(new DoubleArray(0.0, 2.0, 1.0, 5.0), ArrayUtils.cumulativeSum(doubles, ArrayUtils.ScanMode.EXCLUSIVE));
+        assertEquals(new DoubleArray(2.0, 2.0, 4.0, 4.0), ArrayUtils.cumulativeMax(doubles, ArrayUtils.ScanMode.INCLUSIVE));
+        assertEquals(new DoubleArray(Double.POSITIVE_INFINITY, 2.0, -1.0, -1.0), ArrayUtils.cumulativeMin(doubles, ArrayUtils.ScanMode.EXCLUSIVE));
+
+        LongArray longs = new LongArray(Long.MAX_VALUE, 1L, -5L);
+        assertEquals(new LongArray(Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE - 4L), ArrayUtils.cumulativeSum(longs, ArrayUtils.ScanMode.INCLUSIVE));
+        assertEquals(new LongArray(Long.MIN_VALUE, Long.MAX_VALUE, Long.MAX_VALUE), ArrayUtils.cumulativeMax(longs, ArrayUtils.ScanMode.EXCLUSIVE));
+        assertEquals(new LongArray(Long.MAX_VALUE, 1L, -5L), ArrayUtils.cumulativeMin(longs, ArrayUtils.ScanMode.INCLUSIVE));
+
+        IntArray ints = new IntArray(3, 1, 2);
+        assertEquals(new IntArray(0, 3, 4), ArrayUtils.cumulativeSum(ints, ArrayUtils.ScanMode.EXCLUSIVE));
+        assertEquals(new IntArray(3, 3, 3), ArrayUtils.cumulativeMax(ints, ArrayUtils.ScanMode.INCLUSIVE));
+        assertEquals(new IntArray(3, 1, 1), ArrayUtils.cumulativeMin(ints, ArrayUtils.ScanMode.INCLUSIVE));
+        assertEquals(new IntArray(), ArrayUtils.cumulativeSum(new IntArray(), ArrayUtils.ScanMode.EXCLUSIVE));
+    }
+
+    @Test
+    public void testParallelScanMatchesSequentialScan() {
+        int size = 300_001;
+        Random random = new Random(42);
+        IntArray ints = new IntArray(size, i -> random.nextInt(2001) - 1000);
+        LongArray longs = new LongArray(size, i -> ints.getInt(i) * 1_000_003L);
+        DoubleArray doubles = new DoubleArray(size, i -> ints.getInt(i) / 8.0);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (ArrayUtils.ScanMode mode : ArrayUtils.ScanMode.values()) {
+                assertEquals(ArrayUtils.cumulativeSum(ints, mode), ArrayUtils.parallelCumulativeSum(ints, mode, pool));
+                assertEquals(ArrayUtils.cumulativeMax(ints, mode), ArrayUtils.parallelCumulativeMax(ints, mode, pool));
+                assertEquals(ArrayUtils.cumulativeMin(ints, mode), ArrayUtils.parallelCumulativeMin(ints, mode, pool));
+                assertEquals(ArrayUtils.cumulativeSum(longs, mode), ArrayUtils.parallelCumulativeSum(longs, mode, pool));
+                assertEquals(ArrayUtils.cumulativeMax(longs, mode), ArrayUtils.parallelCumulativeMax(longs, mode, pool));
+                assertEquals(ArrayUtils.cumulativeMin(doubles, mode), ArrayUtils.parallelCumulativeMin(doubles, mode, pool));
+                // The sums of eighths are exact, so they do not depend on the order of the additions
+                assertEquals(ArrayUtils.cumulativeSum(doubles, mode), ArrayUtils.parallelCumulativeSum(doubles, mode, pool));
+                assertEquals(ArrayUtils.scan(ints, Integer::sum, 7, mode), ArrayUtils.parallelScan(ints, Integer::sum, 7, mode, pool));
+            }
+            Array<Integer> running = ArrayUtils.parallelScan(ints, Math::max, pool);
+            assertEquals(ArrayUtils.cumulativeMax(ints, ArrayUtils.ScanMode.INCLUSIVE), new IntArray(running));
+            assertEquals(ArrayUtils.scan(ints, Integer::sum), ArrayUtils.parallelScan(ints, Integer::sum, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testTopK() {
+        Array<Integer> array = Array.of(5, 1, 9, 3, 9, 7);
+        assertEquals(Array.of(9, 9, 7), ArrayUtils.topK(array, 3));
+        assertEquals(Array.of(1, 3), ArrayUtils.topK(array, 2, Comparator.reverseOrder()));
+        assertEquals(Array.of("ccc", "bb"), ArrayUtils.topK(Array.of("a", "ccc", "bb"), 2, Comparator.comparing(String::length)));
+        assertEquals(Array.of(9, 9, 7, 5, 3, 1), ArrayUtils.topK(array, 100));
+        assertEquals(Array.of(), ArrayUtils.topK(array, 0));
+        assertThrowsExactly(IllegalArgumentException.class, () -> ArrayUtils.topK(array, -1));
+        assertThrows(NullPointerException.class, () -> ArrayUtils.topK(array, 1, null));
+    }
+
+    @Test
+    public void testParallelTopKMatchesSortedArray() {
+        Random random = new Random(42);
+        IntArray ints = new IntArray(300_000, i -> random.nextInt(50_000));
+        Array<Integer> sorted = ArrayUtils.toSorted(ints, Comparator.reverseOrder());
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int k : new int[]{0, 1, 100, 20_000}) {
+                assertEquals(sorted.subList(0, k), ArrayUtils.topK(ints, k));
+                assertEquals(sorted.subList(0, k), ArrayUtils.parallelTopK(ints, k, Comparator.naturalOrder(), pool));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testNthElement() {
+        Array<String> array = Array.of("d", "a", "c", "b");
+        assertEquals("a", ArrayUtils.nthElement(array, 0));
+        assertEquals("c", ArrayUtils.nthElement(array, 2));
+        assertEquals("b", ArrayUtils.nthElement(array, 2, Comparator.reverseOrder()));
+        assertEquals(-0.0, ArrayUtils.nthElement(new DoubleArray(0.0, Double.NaN, -0.0), 0));
+        assertEquals(Double.NaN, ArrayUtils.nthElement(new DoubleArray(0.0, Double.NaN, -0.0), 2));
+        assertEquals(Long.MIN_VALUE, ArrayUtils.nthElement(new LongArray(Long.MAX_VALUE, Long.MIN_VALUE), 0));
+        assertEquals(3, ArrayUtils.nthElement(new IntArray(3, -3, 3), 1));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> ArrayUtils.nthElement(array, 4));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> ArrayUtils.nthElement(new IntArray(), 0));
+    }
+
+    @Test
+    public void testNthElementMatchesSortedArray() {
+        Random random = new Random(42);
+        DoubleArray random1 = new DoubleArray(10_001, i -> random.nextInt(100) - 50.0);
+        DoubleArray ascending = new DoubleArray(10_000, i -> i);
+        DoubleArray equal = new DoubleArray(10_000, i -> 1.0);
+        DoubleArray organPipe = new DoubleArray(10_000, i -> Math.min(i, 10_000 - i));
+        for (DoubleArray array : new DoubleArray[]{random1, ascending, equal, organPipe}) {
+            Array<Double> sorted = ArrayUtils.toSorted(array);
+            LongArray longs = new LongArray(array.size(), i -> (long) array.getDouble(i));
+            for (int n : new int[]{0, 1, array.size() / 3, array.size() / 2, array.size() - 1}) {
+                assertEquals(sorted.get(n), ArrayUtils.nthElement(array, n));
+                assertEquals(sorted.get(n), ArrayUtils.nthElement(array, n, Comparator.<Double>naturalOrder()));
+                assertEquals(sorted.get(n).longValue(), ArrayUtils.nthElement(longs, n));
+            }
+        }
+    }
+
+    @Test
+    public void testMedianAndPercentile() {
+        assertEquals(2.5, ArrayUtils.median(new DoubleArray(4.0, 1.0, 3.0, 2.0)));
+        assertEquals(3.0, ArrayUtils.median(new IntArray(5, 3, 1)));
+        assertEquals(1.5, ArrayUtils.median(new LongArray(2L, 1L)));
+        DoubleArray array = new DoubleArray(40.0, 10.0, 30.0, 20.0, 50.0);
+        assertEquals(10.0, ArrayUtils.percentile(array, 0.0));
+        assertEquals(50.0, ArrayUtils.percentile(array, 100.0));
+        assertEquals(20.0, ArrayUtils.percentile(array, 25.0));
+        assertEquals(46.0, ArrayUtils.percentile(array, 90.0), 1e-12);
+        assertEquals(Double.POSITIVE_INFINITY, ArrayUtils.percentile(new DoubleArray(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY), 50.0));
+        assertEquals(Long.MAX_VALUE, ArrayUtils.percentile(new LongArray(Long.MAX_VALUE, Long.MAX_VALUE), 50.0));
+        assertThrowsExactly(IllegalArgumentException.class, () -> ArrayUtils.percentile(array, 100.5));
+        assertThrowsExactly(IllegalArgumentException.class, () -> ArrayUtils.percentile(array, Double.NaN));
+        assertThrowsExactly(NoSuchElementException.class, () -> ArrayUtils.median(new DoubleArray()));
+    }
 }
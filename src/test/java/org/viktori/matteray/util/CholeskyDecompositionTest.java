@@ -0,0 +1,62 @@
+package org.viktori.matteray.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+
+import org.junit.jupiter.api.Test;
+import org.viktori.matteray.Array;
+import org.viktori.matteray.DoubleArray;
+import org.viktori.matteray.DoubleMatrix;
+import org.viktori.matteray.Matrix;
+
+public class CholeskyDecompositionTest {
+
+    @Test
+    public void testDecompose() {
+        DoubleMatrix matrix = new DoubleMatrix(new double[]{4, 12, -16}, new double[]{12, 37, -43}, new double[]{-16, -43, 98});
+        CholeskyDecomposition cholesky = CholeskyDecomposition.decompose(matrix);
+        assertEquals(3, cholesky.size());
+        assertEquals(new DoubleMatrix(new double[]{2, 0, 0}, new double[]{6, 1, 0}, new double[]{-8, 5, 3}), cholesky.lower());
+        assertEquals(36.0, cholesky.determinant(), 1e-9);
+    }
+
+    @Test
+    public void testDecomposeIgnoresUpperTriangle() {
+        DoubleMatrix expected = new DoubleMatrix(new double[]{2, 0, 0}, new double[]{6, 1, 0}, new double[]{-8, 5, 3});
+        double[][] lower = {{4}, {12, 37}, {-16, -43, 98}};
+        // Anything above the diagonal is ignored
+        assertEquals(expected, CholeskyDecomposition.decompose(new DoubleMatrix(3, (r, c) -> c > r ? Double.NaN : lower[r][c])).lower());
+        assertEquals(expected, CholeskyDecomposition.decompose(Matrix.of(3, 3, (r, c) -> c > r ? -1e300 : lower[r][c])).lower());
+    }
+
+    @Test
+    public void testSolve() {
+        int size = 90;
+        // Diagonally dominant, and so positive definite
+        DoubleMatrix matrix = new DoubleMatrix(size, (r, c) -> r == c ? size : 1.0 / (1 + r + c));
+        CholeskyDecomposition cholesky = CholeskyDecomposition.decompose(matrix);
+        DoubleArray vector = new DoubleArray(size, i -> i % 7 - 3);
+        assertArrayEquals(vector.toDoubleArray(), MatrixUtils.multiply(matrix, cholesky.solve(vector)).toDoubleArray(), 1e-10);
+        assertArrayEquals(LUDecomposition.decompose(matrix).solve(vector).toDoubleArray(), cholesky.solve(vector).toDoubleArray(), 1e-12);
+
+        DoubleMatrix rightHandSides = new DoubleMatrix(size, 3, (r, c) -> (r + c) % 5);
+        assertArrayEquals(rightHandSides.toDoubleArray(), MatrixUtils.multiply(matrix, cholesky.solve(rightHandSides)).toDoubleArray(), 1e-10);
+        DoubleMatrix identity = MatrixUtils.multiply(matrix, cholesky.inverse());
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                assertEquals(r == c ? 1.0 : 0.0, identity.getDouble(r, c), 1e-12);
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrowsExactly(IllegalArgumentException.class, () -> CholeskyDecomposition.decompose(new DoubleMatrix(2, 3, (r, c) -> 1)));
+        assertThrowsExactly(IllegalArgumentException.class, () -> CholeskyDecomposition.decompose(new DoubleMatrix(new double[]{1, 2}, new double[]{2, 1})));
+        assertThrowsExactly(IllegalArgumentException.class, () -> CholeskyDecomposition.decompose(new DoubleMatrix(new double[]{0})));
+        CholeskyDecomposition cholesky = CholeskyDecomposition.decompose(new DoubleMatrix(new double[]{4}));
+        assertThrowsExactly(IllegalArgumentException.class, () -> cholesky.solve(Array.of(1, 2)));
+        assertThrowsExactly(IllegalArgumentException.class, () -> cholesky.solve(new DoubleMatrix(2, 1, (r, c) -> 1)));
+    }
+}
@@ -0,0 +1,147 @@
+package org.viktori.matteray.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.viktori.matteray.Array;
+import org.viktori.matteray.IntMatrix;
+import org.viktori.matteray.Matrix;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class ConnectedComponentsTest {
+
+    @Test
+    public void testConnectedComponentsOfEqualValues() {
+        Matrix<Character> grid = Matrix.of(
+                Array.of('a', 'a', 'b', 'b'),
+                Array.of('c', 'a', 'c', 'b'),
+                Array.of('c', 'c', 'a', 'a'));
+
+        ConnectedComponents four = MatrixUtils.connectedComponents(grid, ConnectedComponents.Connectivity.FOUR);
+        assertEquals(5, four.count());
+        assertEquals(new IntMatrix(new int[]{0, 0, 1, 1}, new int[]{2, 0, 3, 1}, new int[]{2, 2, 4, 4}), four.labels());
+        assertEquals(3, four.size(0));
+        assertEquals(3, four.size(2));
+        assertEquals(2, four.size(4));
+
+        ConnectedComponents eight = MatrixUtils.connectedComponents(grid, ConnectedComponents.Connectivity.EIGHT);
+        assertEquals(3, eight.count());
+        assertEquals(new IntMatrix(new int[]{0, 0, 1, 1}, new int[]{2, 0, 2, 1}, new int[]{2, 2, 0, 0}), eight.labels());
+        assertEquals(5, eight.size(0));
+        assertEquals(0, eight.minRow(0));
+        assertEquals(0, eight.minColumn(0));
+        assertEquals(2, eight.maxRow(0));
+        assertEquals(3, eight.maxColumn(0));
+        assertEquals(1, eight.label(1, 3));
+    }
+
+    @Test
+    public void testConnectedComponentsMatchingPredicate() {
+        IntMatrix image = new IntMatrix(
+                new int[]{0, 9, 0, 0, 7},
+                new int[]{0, 8, 0, 6, 0},
+                new int[]{5, 0, 0, 0, 0});
+        ConnectedComponents components = MatrixUtils.connectedComponents(image, x -> x > 0, ConnectedComponents.Connectivity.FOUR);
+        assertEquals(4, components.count());
+        assertEquals(new IntMatrix(new int[]{-1, 0, -1, -1, 1}, new int[]{-1, 0, -1, 2, -1}, new int[]{3, -1, -1, -1, -1}), components.labels());
+        assertEquals(2, components.size(0));
+        assertEquals(1, components.minRow(2));
+        assertEquals(3, components.maxColumn(2));
+
+        ConnectedComponents diagonal = MatrixUtils.connectedComponents(image, x -> x > 0, ConnectedComponents.Connectivity.EIGHT);
+        assertEquals(2, diagonal.count());
+        assertEquals(3, diagonal.size(0));
+        assertEquals(2, diagonal.size(1));
+        assertEquals(3, diagonal.minColumn(1));
+        assertEquals(4, diagonal.maxColumn(1));
+    }
+
+    @Test
+    public void testConnectedComponentsWhenEmpty() {
+        ConnectedComponents components = MatrixUtils.connectedComponents(new IntMatrix(), ConnectedComponents.Connectivity.FOUR);
+        assertEquals(0, components.count());
+        assertEquals(new IntMatrix(), components.labels());
+        assertEquals(0, MatrixUtils.connectedComponents(new IntMatrix(new int[]{1, 2}), x -> x > 2, ConnectedComponents.Connectivity.EIGHT).count());
+    }
+
+    @Test
+    public void testParallelConnectedComponentsMatchFloodFill() {
+        int rows = 700;
+        int columns = 450;
+        Random random = new Random(42);
+        IntMatrix grid = new IntMatrix(rows, columns, (r, c) -> random.nextInt(3));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (ConnectedComponents.Connectivity connectivity : ConnectedComponents.Connectivity.values()) {
+                IntMatrix expected = floodFill(grid, connectivity == ConnectedComponents.Connectivity.EIGHT);
+                ConnectedComponents components = MatrixUtils.parallelConnectedComponents(grid, connectivity, pool);
+                assertEquals(expected, components.labels());
+                assertEquals(expected, MatrixUtils.connectedComponents(grid, connectivity).labels());
+                assertEquals(expected, MatrixUtils.parallelConnectedComponents(Matrix.of(rows, columns, grid::get), connectivity, pool).labels());
+
+                int total = 0;
+                for (int label = 0; label < components.count(); label++) {
+                    total += components.size(label);
+                }
+                assertEquals(rows * columns, total);
+            }
+            ConnectedComponents matching = MatrixUtils.parallelConnectedComponents(grid, x -> x == 0, ConnectedComponents.Connectivity.FOUR, pool);
+            assertEquals(MatrixUtils.connectedComponents(grid, x -> x == 0, ConnectedComponents.Connectivity.FOUR).labels(), matching.labels());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testConnectedComponentsWhenInvalidArguments() {
+        ConnectedComponents components = MatrixUtils.connectedComponents(new IntMatrix(new int[]{1, 1}), ConnectedComponents.Connectivity.FOUR);
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> components.size(1));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> components.label(1, 0));
+        assertThrows(NullPointerException.class, () -> MatrixUtils.connectedComponents(new IntMatrix(), null));
+        assertThrows(NullPointerException.class, () -> MatrixUtils.connectedComponents(Matrix.of(), null, ConnectedComponents.Connectivity.FOUR));
+    }
+
+    /**
+     * Labels the components with a breadth-first flood fill from each unlabeled element, in
+     * row-major order.
+     */
+    private static IntMatrix floodFill(IntMatrix grid, boolean eight) {
+        int rows = grid.rows();
+        int columns = grid.columns();
+        int[][] labels = new int[rows][columns];
+        for (int[] row : labels) {
+            java.util.Arrays.fill(row, -1);
+        }
+        int count = 0;
+        ArrayDeque<int[]> queue = new ArrayDeque<>();
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                if (labels[r][c] >= 0) {
+                    continue;
+                }
+                labels[r][c] = count;
+                queue.add(new int[]{r, c});
+                while (!queue.isEmpty()) {
+                    int[] position = queue.poll();
+                    for (int dr = -1; dr <= 1; dr++) {
+                        for (int dc = -1; dc <= 1; dc++) {
+                            int nr = position[0] + dr;
+                            int nc = position[1] + dc;
+                            if ((dr != 0 || dc != 0) && (eight || dr == 0 || dc == 0) && nr >= 0 && nr < rows && nc >= 0 && nc < columns
+                                    && labels[nr][nc] < 0 && grid.getInt(nr, nc) == grid.getInt(position[0], position[1])) {
+                                labels[nr][nc] = count;
+                                queue.add(new int[]{nr, nc});
+                            }
+                        }
+                    }
+                }
+                count++;
+            }
+        }
+        return new IntMatrix(labels);
+    }
+}
@@ -0,0 +1,167 @@
+package org.viktori.matteray.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.viktori.matteray.Array;
+import org.viktori.matteray.DoubleArray;
+import org.viktori.matteray.DoubleMatrix;
+import org.viktori.matteray.SparseDoubleMatrix;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class IterativeSolversTest {
+
+    /**
+     * The five-point Laplacian of a square grid, plus a convection term if not symmetric
+     */
+    private static SparseDoubleMatrix grid(int side, double convection) {
+        int size = side * side;
+        return new SparseDoubleMatrix(size, size, (r, c) -> {
+            if (r == c) {
+                return 4.0;
+            }
+            int rx = r % side;
+            int ry = r / side;
+            int cx = c % side;
+            int cy = c / side;
+            if (Math.abs(rx - cx) + Math.abs(ry - cy) == 1) {
+                return c > r ? -1.0 + convection : -1.0 - convection;
+            }
+            return 0.0;
+        });
+    }
+
+    private static void assertSolves(SparseDoubleMatrix matrix, DoubleArray rightHandSide, IterativeSolution solution, double tolerance) {
+        assertTrue(solution.isConverged());
+        DoubleArray product = MatrixUtils.multiply(matrix, solution.solution());
+        double norm = 0.0;
+        double residual = 0.0;
+        for (int i = 0; i < product.size(); i++) {
+            norm += rightHandSide.getDouble(i) * rightHandSide.getDouble(i);
+            double difference = rightHandSide.getDouble(i) - product.getDouble(i);
+            residual += difference * difference;
+        }
+        assertTrue(Math.sqrt(residual) <= tolerance * Math.sqrt(norm) * 10, "Residual was " + Math.sqrt(residual));
+        assertEquals(Math.sqrt(residual), solution.residualNorm(), 1e-6 * Math.sqrt(norm));
+    }
+
+    @Test
+    public void testConjugateGradient() {
+        SparseDoubleMatrix matrix = grid(30, 0.0);
+        DoubleArray rightHandSide = new DoubleArray(900, i -> i % 30 == 15 ? 1.0 : 0.0);
+        IterativeSolution solution = IterativeSolvers.conjugateGradient(LinearOperator.of(matrix), rightHandSide, 1e-10, 1000);
+        assertSolves(matrix, rightHandSide, solution, 1e-10);
+
+        DoubleMatrix small = new DoubleMatrix(new double[]{4, 1}, new double[]{1, 3});
+        IterativeSolution exact = IterativeSolvers.conjugateGradient(LinearOperator.of(small), Array.of(1, 2), 1e-12, 10);
+        assertArrayEquals(new double[]{1.0 / 11, 7.0 / 11}, exact.solution().toDoubleArray(), 1e-12);
+        assertTrue(exact.iterations() <= 2);
+    }
+
+    @Test
+    public void testPreconditionedConjugateGradient() {
+        SparseDoubleMatrix matrix = grid(40, 0.0);
+        DoubleArray rightHandSide = new DoubleArray(1600, i -> Math.sin(i));
+        LinearOperator operator = LinearOperator.of(matrix);
+        IterativeSolution plain = IterativeSolvers.conjugateGradient(operator, rightHandSide, 1e-10, 1000);
+        IterativeSolution jacobi = IterativeSolvers.conjugateGradient(operator, rightHandSide, Preconditioner.jacobi(matrix), 1e-10, 1000,
+                (iteration, residualNorm) -> { });
+        List<Double> residuals = new ArrayList<>();
+        IterativeSolution ilu = IterativeSolvers.conjugateGradient(operator, rightHandSide, Preconditioner.incompleteLU(matrix), 1e-10, 1000,
+                (iteration, residualNorm) -> {
+                    assertEquals(residuals.size() + 1, iteration);
+                    residuals.add(residualNorm);
+                });
+        assertSolves(matrix, rightHandSide, jacobi, 1e-10);
+        assertSolves(matrix, rightHandSide, ilu, 1e-10);
+        assertEquals(ilu.iterations(), residuals.size());
+        assertEquals(ilu.residualNorm(), residuals.get(residuals.size() - 1));
+        assertTrue(ilu.iterations() < plain.iterations() * 2 / 3, ilu.iterations() + " and " + plain.iterations());
+    }
+
+    @Test
+    public void testBiConjugateGradientStabilized() {
+        SparseDoubleMatrix matrix = grid(30, 0.4);
+        DoubleArray rightHandSide = new DoubleArray(900, i -> 1.0 + i % 3);
+        LinearOperator operator = LinearOperator.of(matrix);
+        IterativeSolution plain = IterativeSolvers.biConjugateGradientStabilized(operator, rightHandSide, 1e-10, 1000);
+        assertSolves(matrix, rightHandSide, plain, 1e-10);
+        IterativeSolution ilu = IterativeSolvers.biConjugateGradientStabilized(operator, rightHandSide, Preconditioner.incompleteLU(matrix),
+                1e-10, 1000, (iteration, residualNorm) -> { });
+        assertSolves(matrix, rightHandSide, ilu, 1e-10);
+        assertTrue(ilu.iterations() < plain.iterations());
+    }
+
+    @Test
+    public void testIncompleteLU() {
+        // Without fill outside of the pattern, ILU(0) of a tridiagonal matrix is its exact LU
+        SparseDoubleMatrix matrix = new SparseDoubleMatrix(5, 5, (r, c) -> r == c ? 3 : Math.abs(r - c) == 1 ? -1 - r : 0);
+        Preconditioner preconditioner = Preconditioner.incompleteLU(matrix);
+        assertEquals(5, preconditioner.size());
+        double[] z = new double[5];
+        preconditioner.apply(new double[]{1, 2, 3, 4, 5}, z);
+        assertArrayEquals(LUDecomposition.decompose(matrix).solve(Array.of(1, 2, 3, 4, 5)).toDoubleArray(), z, 1e-12);
+        assertThrowsExactly(IllegalArgumentException.class, () -> Preconditioner.incompleteLU(new SparseDoubleMatrix(2, 2, (r, c) -> r == c ? 0 : 1)));
+        assertThrowsExactly(IllegalArgumentException.class, () -> Preconditioner.incompleteLU(new SparseDoubleMatrix(2, 2, (r, c) -> 1)));
+        assertThrowsExactly(IllegalArgumentException.class, () -> Preconditioner.jacobi(new DoubleMatrix(2, (r, c) -> c)));
+        assertThrowsExactly(IllegalArgumentException.class, () -> preconditioner.apply(new double[4], z));
+    }
+
+    @Test
+    public void testParallel() {
+        SparseDoubleMatrix matrix = grid(300, 0.0);
+        DoubleArray rightHandSide = new DoubleArray(90000, i -> i % 7 - 3);
+        Preconditioner jacobi = Preconditioner.jacobi(matrix);
+        IterativeSolution serial = IterativeSolvers.conjugateGradient(LinearOperator.of(matrix), rightHandSide, jacobi, 1e-6, 200,
+                (iteration, residualNorm) -> { });
+        IterativeSolution serialStabilized = IterativeSolvers.biConjugateGradientStabilized(LinearOperator.of(matrix), rightHandSide, jacobi,
+                1e-6, 200, (iteration, residualNorm) -> { });
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            LinearOperator operator = LinearOperator.parallelOf(matrix, pool);
+            IterativeSolution parallel = IterativeSolvers.parallelConjugateGradient(operator, rightHandSide, jacobi, 1e-6, 200,
+                    (iteration, residualNorm) -> { }, pool);
+            assertEquals(serial.solution(), parallel.solution());
+            assertEquals(serial.iterations(), parallel.iterations());
+            IterativeSolution parallelStabilized = IterativeSolvers.parallelBiConjugateGradientStabilized(operator, rightHandSide, jacobi,
+                    1e-6, 200, (iteration, residualNorm) -> { }, pool);
+            assertEquals(serialStabilized.solution(), parallelStabilized.solution());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testBudgetAndZeroRightHandSide() {
+        SparseDoubleMatrix matrix = grid(20, 0.0);
+        IterativeSolution solution = IterativeSolvers.conjugateGradient(LinearOperator.of(matrix), new DoubleArray(400, i -> 1), 1e-12, 3);
+        assertFalse(solution.isConverged());
+        assertEquals(3, solution.iterations());
+        IterativeSolution zero = IterativeSolvers.biConjugateGradientStabilized(LinearOperator.of(matrix), new DoubleArray(400, i -> 0), 1e-12, 3);
+        assertTrue(zero.isConverged());
+        assertEquals(0, zero.iterations());
+        assertEquals(new DoubleArray(400, i -> 0), zero.solution());
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        LinearOperator operator = LinearOperator.of(new DoubleMatrix(2, (r, c) -> r == c ? 1 : 0));
+        assertThrowsExactly(IllegalArgumentException.class, () -> IterativeSolvers.conjugateGradient(LinearOperator.of(new DoubleMatrix(2, 3, (r, c) -> 1)), Array.of(1, 2), 1e-8, 10));
+        assertThrowsExactly(IllegalArgumentException.class, () -> IterativeSolvers.conjugateGradient(operator, Array.of(1, 2, 3), 1e-8, 10));
+        assertThrowsExactly(IllegalArgumentException.class, () -> IterativeSolvers.conjugateGradient(operator, Array.of(1, 2), Preconditioner.identity(3), 1e-8, 10, (i, r) -> { }));
+        assertThrowsExactly(IllegalArgumentException.class, () -> IterativeSolvers.conjugateGradient(operator, Array.of(1, 2), -1, 10));
+        assertThrowsExactly(IllegalArgumentException.class, () -> IterativeSolvers.biConjugateGradientStabilized(operator, Array.of(1, 2), 1e-8, 0));
+        // Not positive definite
+        assertThrowsExactly(IllegalArgumentException.class, () -> IterativeSolvers.conjugateGradient(LinearOperator.of(new DoubleMatrix(2, (r, c) -> r == c ? -1 : 0)), Array.of(1, 2), 1e-8, 10));
+        assertThrows(NullPointerException.class, () -> IterativeSolvers.conjugateGradient(operator, Array.of(1, 2), Preconditioner.identity(2), 1e-8, 10, null));
+        assertThrows(NullPointerException.class, () -> IterativeSolvers.parallelConjugateGradient(operator, Array.of(1, 2), Preconditioner.identity(2), 1e-8, 10, (i, r) -> { }, null));
+    }
+}
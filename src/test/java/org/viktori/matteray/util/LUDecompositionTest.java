@@ -0,0 +1,107 @@
+package org.viktori.matteray.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.viktori.matteray.Array;
+import org.viktori.matteray.DoubleArray;
+import org.viktori.matteray.DoubleMatrix;
+import org.viktori.matteray.Matrix;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class LUDecompositionTest {
+
+    @Test
+    public void testDecompose() {
+        Matrix<Double> matrix = Matrix.of(Array.of(2.0, 1.0, 1.0), Array.of(4.0, -6.0, 0.0), Array.of(-2.0, 7.0, 2.0));
+        LUDecomposition lu = LUDecomposition.decompose(matrix);
+        assertEquals(3, lu.size());
+        assertFalse(lu.isSingular());
+        assertEquals(-16.0, lu.determinant(), 1e-12);
+        // The largest element of the first column is pivoted to the top
+        assertEquals(1, lu.toPermutationArray()[0]);
+        DoubleMatrix product = MatrixUtils.multiply(lu.lower(), lu.upper());
+        int[] permutation = lu.toPermutationArray();
+        for (int r = 0; r < 3; r++) {
+            for (int c = 0; c < 3; c++) {
+                assertEquals(matrix.get(permutation[r], c), product.getDouble(r, c), 1e-12);
+            }
+        }
+    }
+
+    @Test
+    public void testSolve() {
+        DoubleMatrix matrix = new DoubleMatrix(new double[]{2, 1, 1}, new double[]{4, -6, 0}, new double[]{-2, 7, 2});
+        LUDecomposition lu = LUDecomposition.decompose(matrix);
+        assertArrayEquals(new double[]{1, 1, 2}, lu.solve(Array.of(5, -2, 9)).toDoubleArray(), 1e-12);
+        assertArrayEquals(new double[]{1, 1, 2}, lu.solve(new DoubleArray(5, -2, 9)).toDoubleArray(), 1e-12);
+
+        DoubleMatrix rightHandSides = new DoubleMatrix(new double[]{5, 2}, new double[]{-2, 4}, new double[]{9, -2});
+        DoubleMatrix solution = lu.solve(rightHandSides);
+        assertArrayEquals(new double[]{1, 1, 2}, solution.column(0).toDoubleArray(), 1e-12);
+        assertArrayEquals(lu.solve(rightHandSides.column(1)).toDoubleArray(), solution.column(1).toDoubleArray(), 1e-12);
+    }
+
+    @Test
+    public void testInverse() {
+        DoubleMatrix matrix = new DoubleMatrix(7, (r, c) -> r == c ? 10 : (r * 3 + c * 5) % 7 - 3);
+        DoubleMatrix inverse = LUDecomposition.decompose(matrix).inverse();
+        DoubleMatrix identity = MatrixUtils.multiply(matrix, inverse);
+        for (int r = 0; r < 7; r++) {
+            for (int c = 0; c < 7; c++) {
+                assertEquals(r == c ? 1.0 : 0.0, identity.getDouble(r, c), 1e-12);
+            }
+        }
+    }
+
+    @Test
+    public void testSingular() {
+        LUDecomposition lu = LUDecomposition.decompose(new DoubleMatrix(new double[]{1, 2}, new double[]{2, 4}));
+        assertTrue(lu.isSingular());
+        assertEquals(0.0, lu.determinant(), 0.0);
+        assertThrowsExactly(IllegalStateException.class, () -> lu.solve(Array.of(1, 2)));
+        assertThrowsExactly(IllegalStateException.class, lu::inverse);
+    }
+
+    @Test
+    public void testEmpty() {
+        LUDecomposition lu = LUDecomposition.decompose(new DoubleMatrix());
+        assertEquals(1.0, lu.determinant());
+        assertEquals(new DoubleMatrix(), lu.inverse());
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrowsExactly(IllegalArgumentException.class, () -> LUDecomposition.decompose(new DoubleMatrix(2, 3, (r, c) -> 1)));
+        LUDecomposition lu = LUDecomposition.decompose(new DoubleMatrix(2, (r, c) -> r == c ? 1 : 0));
+        assertThrowsExactly(IllegalArgumentException.class, () -> lu.solve(Array.of(1, 2, 3)));
+        assertThrowsExactly(IllegalArgumentException.class, () -> lu.solve(new DoubleMatrix(3, 1, (r, c) -> 1)));
+        assertThrows(NullPointerException.class, () -> LUDecomposition.parallelDecompose(new DoubleMatrix(), null));
+    }
+
+    @Test
+    public void testParallelDecompose() {
+        // Large enough for several panels, and for the trailing updates to be split
+        DoubleMatrix matrix = new DoubleMatrix(301, (r, c) -> ((r * 31 + c * 17) % 23 - 11) / 7.0 + (r == c ? 3 : 0));
+        DoubleArray vector = new DoubleArray(301, i -> i % 5 - 2);
+        LUDecomposition serial = LUDecomposition.decompose(matrix);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            LUDecomposition parallel = LUDecomposition.parallelDecompose(matrix, pool);
+            assertEquals(serial.upper(), parallel.upper());
+            assertEquals(serial.lower(), parallel.lower());
+            assertEquals(serial.determinant(), parallel.determinant());
+            assertEquals(serial.solve(vector), LUDecomposition.parallelDecompose(matrix).solve(vector));
+        } finally {
+            pool.shutdown();
+        }
+        DoubleArray product = MatrixUtils.multiply(matrix, serial.solve(vector));
+        assertArrayEquals(vector.toDoubleArray(), product.toDoubleArray(), 1e-9);
+    }
+}
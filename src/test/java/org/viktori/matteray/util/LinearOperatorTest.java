@@ -0,0 +1,85 @@
+package org.viktori.matteray.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.viktori.matteray.Array;
+import org.viktori.matteray.DoubleArray;
+import org.viktori.matteray.DoubleMatrix;
+import org.viktori.matteray.Matrix;
+import org.viktori.matteray.SparseDoubleMatrix;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class LinearOperatorTest {
+
+    @Test
+    public void testOfMatrix() {
+        Matrix<Integer> matrix = Matrix.of(Array.of(1, 2, 3), Array.of(4, 5, 6));
+        LinearOperator operator = LinearOperator.of(matrix);
+        assertEquals(2, operator.rows());
+        assertEquals(3, operator.columns());
+        assertFalse(operator.isSquare());
+        double[] y = {-1, -1};
+        operator.apply(new double[]{1, 0, -1}, y);
+        assertArrayEquals(new double[]{-2, -2}, y);
+
+        SparseDoubleMatrix sparse = new SparseDoubleMatrix(matrix);
+        LinearOperator.of(sparse).apply(new double[]{1, 1, 1}, y);
+        assertArrayEquals(new double[]{6, 15}, y);
+    }
+
+    @Test
+    public void testOfFunction() {
+        // The second difference operator, never stored as a matrix
+        LinearOperator operator = LinearOperator.of(4, (x, y) -> {
+            for (int i = 0; i < x.length; i++) {
+                y[i] = 2 * x[i] - (i > 0 ? x[i - 1] : 0) - (i + 1 < x.length ? x[i + 1] : 0);
+            }
+        });
+        assertTrue(operator.isSquare());
+        double[] y = new double[4];
+        operator.apply(new double[]{1, 2, 3, 4}, y);
+        assertArrayEquals(new double[]{0, 0, 0, 5}, y);
+    }
+
+    @Test
+    public void testParallelOf() {
+        int size = 1000;
+        DoubleMatrix dense = new DoubleMatrix(size, (r, c) -> (r * 7 + c * 3) % 11 - 5);
+        SparseDoubleMatrix sparse = new SparseDoubleMatrix(size, size, (r, c) -> (r + c) % 3 == 0 ? r - c : 0);
+        double[] x = new DoubleArray(size, i -> i % 4 - 1.5).toDoubleArray();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            double[] expected = new double[size];
+            double[] actual = new double[size];
+            LinearOperator.of(dense).apply(x, expected);
+            LinearOperator.parallelOf(dense, pool).apply(x, actual);
+            assertArrayEquals(MatrixUtils.multiply(dense, new DoubleArray(x)).toDoubleArray(), actual);
+            assertArrayEquals(expected, actual);
+            LinearOperator.of(sparse).apply(x, expected);
+            LinearOperator.parallelOf(sparse, pool).apply(x, actual);
+            assertArrayEquals(expected, actual);
+            LinearOperator.parallelOf(sparse).apply(x, actual);
+            assertArrayEquals(expected, actual);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        LinearOperator operator = LinearOperator.of(new DoubleMatrix(2, 3, (r, c) -> 1));
+        assertThrowsExactly(IllegalArgumentException.class, () -> operator.apply(new double[2], new double[2]));
+        assertThrowsExactly(IllegalArgumentException.class, () -> operator.apply(new double[3], new double[3]));
+        assertThrowsExactly(IllegalArgumentException.class, () -> LinearOperator.of(-1, (x, y) -> { }));
+        assertThrows(NullPointerException.class, () -> LinearOperator.of(2, null));
+        assertThrows(NullPointerException.class, () -> LinearOperator.of(null));
+        assertThrows(NullPointerException.class, () -> LinearOperator.parallelOf(new DoubleMatrix(), null));
+    }
+}
@@ -6,7 +6,24 @@ import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
 
 import org.junit.jupiter.api.Test;
 import org.viktori.matteray.Array;
+import org.viktori.matteray.Complex;
+import org.viktori.matteray.ComplexMatrix;
+import org.viktori.matteray.DoubleArray;
+import org.viktori.matteray.DoubleMatrix;
+import org.viktori.matteray.FloatArray;
+import org.viktori.matteray.FloatMatrix;
+import org.viktori.matteray.ImmutableMatrix;
+import org.viktori.matteray.IntMatrix;
+import org.viktori.matteray.LongArray;
+import org.viktori.matteray.LongMatrix;
 import org.viktori.matteray.Matrix;
+import org.viktori.matteray.SparseDoubleMatrix;
+import org.viktori.matteray.function.DoubleStencilFunction;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BinaryOperator;
 
 public class MatrixUtilsTest {
 
@@ -115,6 +132,161 @@ public class MatrixUtilsTest {
         assertEquals(columnsMirrored, MatrixUtils.toMirrored(sourceMatrix, Matrix.Axis.COLUMNS));
     }
 
+    @Test
+    public void testTranspose() {
+        Matrix<Character> sourceMatrix = Matrix.of(Array.of('a', 'b', 'c', 'd'), Array.of('e', 'f', 'g', 'h'), Array.of('i', 'j', 'k', 'l'));
+        Matrix<Character> transposed = Matrix.of(Array.of('a', 'e', 'i'), Array.of('b', 'f', 'j'), Array.of('c', 'g', 'k'), Array.of('d', 'h', 'l'));
+
+        assertEquals(transposed, MatrixUtils.transpose(sourceMatrix));
+        assertEquals(sourceMatrix, MatrixUtils.transpose(transposed));
+        assertEquals(Matrix.of(), MatrixUtils.transpose(Matrix.of()));
+        assertEquals(new DoubleMatrix(new double[]{1, 3}, new double[]{2, 4}), MatrixUtils.transpose(new DoubleMatrix(new double[]{1, 2}, new double[]{3, 4})));
+        assertEquals(new IntMatrix(new int[]{1}, new int[]{2}, new int[]{3}), MatrixUtils.transpose(new IntMatrix(new int[]{1, 2, 3})));
+        assertThrows(NullPointerException.class, () -> MatrixUtils.transpose((Matrix<?>) null));
+    }
+
+    @Test
+    public void testParallelTransposeWhenLargerThanTiles() {
+        Matrix<Integer> sourceMatrix = Matrix.of(700, 450, (r, c) -> r * 1000 + c);
+        Matrix<Integer> transposed = Matrix.of(450, 700, (r, c) -> c * 1000 + r);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(transposed, MatrixUtils.transpose(sourceMatrix));
+            assertEquals(transposed, MatrixUtils.parallelTranspose(sourceMatrix, pool));
+            assertEquals(new DoubleMatrix(transposed), MatrixUtils.parallelTranspose(new DoubleMatrix(sourceMatrix), pool));
+            assertEquals(new FloatMatrix(transposed), MatrixUtils.parallelTranspose(new FloatMatrix(sourceMatrix), pool));
+            assertEquals(new LongMatrix(transposed), MatrixUtils.parallelTranspose(new LongMatrix(sourceMatrix), pool));
+            assertEquals(new IntMatrix(transposed), MatrixUtils.parallelTranspose(new IntMatrix(sourceMatrix)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testTransposeInPlace() {
+        Integer[][] elements = {{1, 2, 3}, {4, 5, 6}, {7, 8, 9}};
+        MatrixUtils.transposeInPlace(elements);
+        assertEquals(Matrix.of(Array.of(1, 4, 7), Array.of(2, 5, 8), Array.of(3, 6, 9)), new ImmutableMatrix<>(elements));
+
+        int size = 601;
+        Matrix<Integer> sourceMatrix = Matrix.of(size, size, (r, c) -> r * size + c);
+        DoubleMatrix transposed = new DoubleMatrix(MatrixUtils.transpose(sourceMatrix));
+        double[] doubles = new DoubleMatrix(sourceMatrix).toDoubleArray();
+        MatrixUtils.transposeInPlace(doubles, size);
+        assertEquals(transposed, new DoubleMatrix(size, size, (r, c) -> doubles[r * size + c]));
+
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            int[] ints = new IntMatrix(sourceMatrix).toIntArray();
+            MatrixUtils.parallelTransposeInPlace(ints, size, pool);
+            assertEquals(transposed, new DoubleMatrix(size, size, (r, c) -> ints[r * size + c]));
+            Object[][] objects = sourceMatrix.toArray2D();
+            MatrixUtils.parallelTransposeInPlace(objects, pool);
+            assertEquals(transposed, new DoubleMatrix(size, size, (r, c) -> (Integer) objects[r][c]));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testTransposeInPlaceWhenNotSquare() {
+        assertThrows(IllegalArgumentException.class, () -> MatrixUtils.transposeInPlace(new Integer[][]{{1, 2}, {3}}));
+        assertThrows(IllegalArgumentException.class, () -> MatrixUtils.transposeInPlace(new double[6], 2));
+        assertThrows(IllegalArgumentException.class, () -> MatrixUtils.parallelTransposeInPlace(new long[4], -2));
+        assertThrows(NullPointerException.class, () -> MatrixUtils.transposeInPlace((float[]) null, 0));
+    }
+
+    @Test
+    public void testRotateInPlace() {
+        for (int size : new int[]{0, 1, 4, 5, 67}) {
+            Matrix<Integer> sourceMatrix = Matrix.of(size, size, (r, c) -> r * size + c);
+            for (Matrix.Rotation rotation : Matrix.Rotation.values()) {
+                Matrix<Integer> rotated = MatrixUtils.toRotated(sourceMatrix, rotation);
+
+                Object[][] objects = sourceMatrix.toArray2D();
+                MatrixUtils.rotateInPlace(objects, rotation);
+                assertEquals(rotated, new ImmutableMatrix<>(size, size, (r, c) -> (Integer) objects[r][c]));
+
+                int[] ints = new IntMatrix(sourceMatrix).toIntArray();
+                MatrixUtils.rotateInPlace(ints, size, rotation);
+                assertEquals(new IntMatrix(rotated), new IntMatrix(size, size, (r, c) -> ints[r * size + c]));
+
+                double[] doubles = new DoubleMatrix(sourceMatrix).toDoubleArray();
+                MatrixUtils.rotateInPlace(doubles, size, rotation);
+                assertEquals(new DoubleMatrix(rotated), new DoubleMatrix(size, size, (r, c) -> doubles[r * size + c]));
+            }
+        }
+    }
+
+    @Test
+    public void testParallelRotateInPlace() {
+        int size = 601;
+        Matrix<Integer> sourceMatrix = Matrix.of(size, size, (r, c) -> r * size + c);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (Matrix.Rotation rotation : Matrix.Rotation.values()) {
+                LongMatrix rotated = new LongMatrix(MatrixUtils.toRotated(sourceMatrix, rotation));
+
+                long[] longs = new LongMatrix(sourceMatrix).toLongArray();
+                MatrixUtils.parallelRotateInPlace(longs, size, rotation, pool);
+                assertEquals(rotated, new LongMatrix(size, size, (r, c) -> longs[r * size + c]));
+
+                float[] floats = new FloatMatrix(sourceMatrix).toFloatArray();
+                MatrixUtils.parallelRotateInPlace(floats, size, rotation, pool);
+                assertEquals(new FloatMatrix(rotated), new FloatMatrix(size, size, (r, c) -> floats[r * size + c]));
+
+                Object[][] objects = sourceMatrix.toArray2D();
+                MatrixUtils.parallelRotateInPlace(objects, rotation, pool);
+                assertEquals(rotated, new LongMatrix(size, size, (r, c) -> (Integer) objects[r][c]));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testMirrorInPlace() {
+        Character[][] elements = {{'a', 'b', 'c', 'd'}, {'e', 'f', 'g', 'h'}, {'i', 'j', 'k', 'l'}};
+        MatrixUtils.mirrorInPlace(elements, Matrix.Axis.ROWS);
+        assertEquals(Matrix.of(Array.of('d', 'c', 'b', 'a'), Array.of('h', 'g', 'f', 'e'), Array.of('l', 'k', 'j', 'i')), new ImmutableMatrix<>(elements));
+        MatrixUtils.mirrorInPlace(elements, Matrix.Axis.COLUMNS);
+        assertEquals(Matrix.of(Array.of('l', 'k', 'j', 'i'), Array.of('h', 'g', 'f', 'e'), Array.of('d', 'c', 'b', 'a')), new ImmutableMatrix<>(elements));
+
+        int rows = 700;
+        int columns = 451;
+        Matrix<Integer> sourceMatrix = Matrix.of(rows, columns, (r, c) -> r * columns + c);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            for (Matrix.Axis axis : Matrix.Axis.values()) {
+                IntMatrix mirrored = new IntMatrix(MatrixUtils.toMirrored(sourceMatrix, axis));
+
+                int[] ints = new IntMatrix(sourceMatrix).toIntArray();
+                MatrixUtils.mirrorInPlace(ints, rows, columns, axis);
+                assertEquals(mirrored, new IntMatrix(rows, columns, (r, c) -> ints[r * columns + c]));
+
+                double[] doubles = new DoubleMatrix(sourceMatrix).toDoubleArray();
+                MatrixUtils.parallelMirrorInPlace(doubles, rows, columns, axis, pool);
+                assertEquals(new DoubleMatrix(mirrored), new DoubleMatrix(rows, columns, (r, c) -> doubles[r * columns + c]));
+
+                Object[][] objects = sourceMatrix.toArray2D();
+                MatrixUtils.parallelMirrorInPlace(objects, axis, pool);
+                assertEquals(mirrored, new IntMatrix(rows, columns, (r, c) -> (Integer) objects[r][c]));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testRotateAndMirrorInPlaceWhenInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> MatrixUtils.rotateInPlace(new Integer[][]{{1, 2}, {3, 4}, {5, 6}}, Matrix.Rotation.LEFT));
+        assertThrows(IllegalArgumentException.class, () -> MatrixUtils.rotateInPlace(new int[8], 3, Matrix.Rotation.RIGHT));
+        assertThrows(IllegalArgumentException.class, () -> MatrixUtils.mirrorInPlace(new Integer[][]{{1, 2}, {3}}, Matrix.Axis.ROWS));
+        assertThrows(IllegalArgumentException.class, () -> MatrixUtils.mirrorInPlace(new long[6], 4, 2, Matrix.Axis.COLUMNS));
+        assertThrows(NullPointerException.class, () -> MatrixUtils.rotateInPlace(new double[4], 2, null));
+        assertThrows(NullPointerException.class, () -> MatrixUtils.mirrorInPlace((Object[][]) null, Matrix.Axis.ROWS));
+    }
+
     @Test
     public void testToMapped() {
         Matrix<String> matrix = Matrix.of(Array.of("This", "is"), Array.of("a", "test"), Array.of("for", "matrix"));
@@ -206,4 +378,606 @@ public class MatrixUtilsTest {
         assertEquals(Matrix.of(), MatrixUtils.multiply(matrix2, matrix1, (x, y) -> x * y, (x, y) -> x + y));
         assertEquals(Matrix.of(), MatrixUtils.multiply(matrix2, matrix1, (x, y) -> x * y, (x, y) -> x + y, 0));
     }
+
+    @Test
+    public void testMultiplyComplexMatrices() {
+        ComplexMatrix matrix1 = new ComplexMatrix(new double[][]{{1, 2}, {3, 4}}, new double[][]{{1, 0}, {-1, 2}});
+        ComplexMatrix matrix2 = new ComplexMatrix(new double[][]{{0, 1, 2}, {1, 0, -1}}, new double[][]{{1, 1, 0}, {0, 2, 1}});
+        Matrix<Complex> expected = MatrixUtils.multiply(Matrix.copyOf(matrix1), Matrix.copyOf(matrix2), Complex::times, Complex::plus);
+
+        assertEquals(expected, MatrixUtils.multiply(matrix1, matrix2));
+        assertEquals(Complex.of(0, 6), MatrixUtils.multiply(matrix1, matrix2).get(0, 1));
+        assertThrowsExactly(IllegalArgumentException.class, () -> MatrixUtils.multiply(matrix2, matrix1));
+    }
+
+    @Test
+    public void testMultiplyComplexMatrixWithConjugateTranspose() {
+        ComplexMatrix matrix = new ComplexMatrix(new double[][]{{1, 2}, {3, 4}}, new double[][]{{1, 0}, {2, 2}});
+        ComplexMatrix gram = MatrixUtils.multiply(matrix, matrix.conjugateTranspose());
+
+        // A * A^H is Hermitian, with the squared row norms on the diagonal
+        assertEquals(Complex.of(6, 0), gram.get(0, 0));
+        assertEquals(Complex.of(33, 0), gram.get(1, 1));
+        assertEquals(Complex.of(13, -3), gram.get(0, 1));
+        assertEquals(Complex.of(13, 3), gram.get(1, 0));
+    }
+
+    @Test
+    public void testMultiplyComplexMatricesWithEmptyInnerDimension() {
+        ComplexMatrix matrix1 = new ComplexMatrix(2, 0, (r, c) -> Complex.ONE);
+        ComplexMatrix matrix2 = new ComplexMatrix(0, 3, (r, c) -> Complex.ONE);
+        assertEquals(new ComplexMatrix(2, 3, (r, c) -> Complex.ZERO), MatrixUtils.multiply(matrix1, matrix2));
+    }
+
+    @Test
+    public void testComplexElementWiseOperations() {
+        ComplexMatrix matrix1 = new ComplexMatrix(new double[][]{{1, 2}}, new double[][]{{1, -1}});
+        ComplexMatrix matrix2 = new ComplexMatrix(new double[][]{{3, 0}}, new double[][]{{0, 2}});
+
+        assertEquals(Matrix.of(Array.of(Complex.of(4, 1), Complex.of(2, 1))), MatrixUtils.add(matrix1, matrix2));
+        assertEquals(Matrix.of(Array.of(Complex.of(-2, 1), Complex.of(2, -3))), MatrixUtils.subtract(matrix1, matrix2));
+        assertEquals(Matrix.of(Array.of(Complex.of(3, 3), Complex.of(2, 4))), MatrixUtils.multiplyElementWise(matrix1, matrix2));
+        assertEquals(Matrix.of(Array.of(Complex.of(-1, 1), Complex.of(1, 2))), MatrixUtils.scale(matrix1, Complex.I));
+        assertEquals(Matrix.of(Array.of(Complex.of(2, -2)), Array.of(Complex.of(4, 2))), MatrixUtils.add(matrix1.conjugateTranspose(), matrix1.conjugateTranspose()));
+        assertThrowsExactly(IllegalArgumentException.class, () -> MatrixUtils.add(matrix1, matrix1.conjugateTranspose()));
+        assertThrows(NullPointerException.class, () -> MatrixUtils.scale(matrix1, null));
+    }
+
+    @Test
+    public void testMultiplyAcrossBlockBoundaries() {
+        Matrix<Long> matrix1 = Matrix.of(70, 130, (r, c) -> (long) (r * 7 + c * 3) % 11 - 5);
+        Matrix<Long> matrix2 = Matrix.of(130, 65, (r, c) -> (long) (r * 5 + c * 2) % 13 - 6);
+        Matrix<Long> expected = Matrix.of(70, 65, (r, c) -> {
+            long sum = 0;
+            for (int k = 0; k < 130; k++) {
+                sum += matrix1.get(r, k) * matrix2.get(k, c);
+            }
+            return sum;
+        });
+
+        assertEquals(expected, MatrixUtils.multiply(matrix1, matrix2, (x, y) -> x * y, Long::sum));
+        assertEquals(expected, MatrixUtils.multiply(matrix1, matrix2, (x, y) -> x * y, Long::sum, 0L));
+    }
+
+    @Test
+    public void testMultiplySumsTermsFromLeftToRight() {
+        Matrix<String> matrix1 = Matrix.of(1, 100, (r, c) -> "a" + c);
+        Matrix<String> matrix2 = Matrix.of(100, 1, (r, c) -> "b" + r);
+        StringBuilder expected = new StringBuilder();
+        for (int k = 0; k < 100; k++) {
+            expected.append("(a").append(k).append("*b").append(k).append(")");
+        }
+
+        assertEquals(Matrix.of(Array.of(expected.toString())), MatrixUtils.multiply(matrix1, matrix2, (x, y) -> "(" + x + "*" + y + ")", String::concat));
+        assertEquals(Matrix.of(Array.of(">" + expected)), MatrixUtils.multiply(matrix1, matrix2, (x, y) -> "(" + x + "*" + y + ")", String::concat, ">"));
+    }
+
+    @Test
+    public void testMultiplyDoubleMatrices() {
+        DoubleMatrix matrix1 = new DoubleMatrix(new double[]{1, 2, 3}, new double[]{4, 5, 6});
+        DoubleMatrix matrix2 = new DoubleMatrix(new double[]{1, 2}, new double[]{3, 4}, new double[]{5, 6});
+
+        assertEquals(new DoubleMatrix(new double[]{22, 28}, new double[]{49, 64}), MatrixUtils.multiply(matrix1, matrix2));
+        assertEquals(Matrix.of(Array.of(22.0, 28.0), Array.of(49.0, 64.0)), MatrixUtils.multiply(matrix1, matrix2));
+        assertThrowsExactly(IllegalArgumentException.class, () -> MatrixUtils.multiply(matrix1, matrix1));
+    }
+
+    @Test
+    public void testMultiplyPrimitiveMatricesAcrossPanelBoundaries() {
+        // Sizes which are not multiples of the register tile, and an inner dimension larger than one panel
+        Matrix<Long> matrix1 = Matrix.of(67, 300, (r, c) -> (long) (r * 7 + c * 3) % 11 - 5);
+        Matrix<Long> matrix2 = Matrix.of(300, 70, (r, c) -> (long) (r * 5 + c * 2) % 13 - 6);
+        Matrix<Long> expected = MatrixUtils.multiply(matrix1, matrix2, (x, y) -> x * y, Long::sum);
+
+        assertEquals(expected, MatrixUtils.multiply(new LongMatrix(matrix1), new LongMatrix(matrix2)));
+        assertEquals(new DoubleMatrix(expected), MatrixUtils.multiply(new DoubleMatrix(matrix1), new DoubleMatrix(matrix2)));
+        assertEquals(new FloatMatrix(expected), MatrixUtils.multiply(new FloatMatrix(matrix1), new FloatMatrix(matrix2)));
+    }
+
+    @Test
+    public void testMultiplyPrimitiveMatricesWithEmptyDimensions() {
+        assertEquals(new LongMatrix(2, 3, (r, c) -> 0), MatrixUtils.multiply(new LongMatrix(2, 0, (r, c) -> 1), new LongMatrix(0, 3, (r, c) -> 1)));
+        assertEquals(new DoubleMatrix(0, 3, (r, c) -> 0), MatrixUtils.multiply(new DoubleMatrix(0, 2, (r, c) -> 1), new DoubleMatrix(2, 3, (r, c) -> 1)));
+    }
+
+    @Test
+    public void testParallelMultiply() {
+        Matrix<Long> matrix1 = Matrix.of(150, 90, (r, c) -> (long) (r * 7 + c * 3) % 11 - 5);
+        Matrix<Long> matrix2 = Matrix.of(90, 110, (r, c) -> (long) (r * 5 + c * 2) % 13 - 6);
+        Matrix<Long> expected = MatrixUtils.multiply(matrix1, matrix2, (x, y) -> x * y, Long::sum);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(expected, MatrixUtils.parallelMultiply(matrix1, matrix2, (x, y) -> x * y, Long::sum));
+            assertEquals(expected, MatrixUtils.parallelMultiply(matrix1, matrix2, (x, y) -> x * y, Long::sum, pool));
+            assertEquals(expected, MatrixUtils.parallelMultiply(matrix1, matrix2, (x, y) -> x * y, Long::sum, 0L, pool));
+            assertEquals(expected, MatrixUtils.parallelMultiply(new LongMatrix(matrix1), new LongMatrix(matrix2), pool));
+            assertEquals(new DoubleMatrix(expected), MatrixUtils.parallelMultiply(new DoubleMatrix(matrix1), new DoubleMatrix(matrix2), pool));
+            assertEquals(new FloatMatrix(expected), MatrixUtils.parallelMultiply(new FloatMatrix(matrix1), new FloatMatrix(matrix2), pool));
+            assertEquals(new DoubleMatrix(expected), MatrixUtils.parallelMultiply(new DoubleMatrix(matrix1), new DoubleMatrix(matrix2)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelMultiplyKeepsSumOrder() {
+        Matrix<String> matrix1 = Matrix.of(200, 40, (r, c) -> "a" + c);
+        Matrix<String> matrix2 = Matrix.of(40, 40, (r, c) -> "b" + r);
+        BinaryOperator<String> product = (x, y) -> "(" + x + "*" + y + ")";
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            assertEquals(MatrixUtils.multiply(matrix1, matrix2, product, String::concat), MatrixUtils.parallelMultiply(matrix1, matrix2, product, String::concat, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelMultiplyWhenInvalidArguments() {
+        Matrix<Integer> matrix = Matrix.of(Array.of(1, 2));
+        assertThrowsExactly(IllegalArgumentException.class, () -> MatrixUtils.parallelMultiply(matrix, matrix, (x, y) -> x * y, Integer::sum));
+        assertThrows(NullPointerException.class, () -> MatrixUtils.parallelMultiply(matrix, matrix, (x, y) -> x * y, Integer::sum, null));
+        assertThrows(NullPointerException.class, () -> MatrixUtils.parallelMultiply(new DoubleMatrix(), (DoubleMatrix) null));
+    }
+
+    @Test
+    public void testMultiplyMatrixWithVector() {
+        Matrix<Integer> matrix = Matrix.of(Array.of(1, 2, 3), Array.of(4, 5, 6));
+        assertEquals(Array.of(14, 32), MatrixUtils.multiply(matrix, Array.of(1, 2, 3), (x, y) -> x * y, Integer::sum));
+        assertEquals(Array.of(14, 32), MatrixUtils.multiply(matrix, Array.of(1, 2, 3), (x, y) -> x * y, Integer::sum, 0));
+        assertEquals(Array.of(9, 12, 15), MatrixUtils.multiply(Array.of(1, 2), matrix, (x, y) -> x * y, Integer::sum));
+        assertEquals(Array.of(9, 12, 15), MatrixUtils.multiply(Array.of(1, 2), matrix, (x, y) -> x * y, Integer::sum, 0));
+        assertEquals(Array.of("a1b1+a2b2"), MatrixUtils.multiply(Matrix.of(Array.of("a1", "a2")), Array.of("b1", "b2"), String::concat, (x, y) -> x + "+" + y));
+        assertEquals(Array.of("a1b1+a2b2"), MatrixUtils.multiply(Array.of("a1", "a2"), Matrix.fromColumn(Array.of("b1", "b2")), String::concat, (x, y) -> x + "+" + y));
+    }
+
+    @Test
+    public void testMultiplyMatrixWithVectorWhenEmpty() {
+        Matrix<Integer> empty = new ImmutableMatrix<>(2, 0, (r, c) -> 0);
+        assertEquals(Array.of(0, 0), MatrixUtils.multiply(empty, Array.of(), (x, y) -> x * y, Integer::sum, 0));
+        assertEquals(Array.of(), MatrixUtils.multiply(Array.of(1, 2), empty, (x, y) -> x * y, Integer::sum));
+        assertEquals(new DoubleArray(0.0, 0.0), MatrixUtils.multiply(new DoubleMatrix(2, 0, (r, c) -> 0.0), new DoubleArray()));
+        assertThrowsExactly(IllegalArgumentException.class, () -> MatrixUtils.multiply(empty, Array.of(), (x, y) -> x * y, Integer::sum));
+    }
+
+    @Test
+    public void testMultiplyMatrixWithVectorWhenInvalidSize() {
+        Matrix<Integer> matrix = Matrix.of(Array.of(1, 2, 3), Array.of(4, 5, 6));
+        assertThrowsExactly(IllegalArgumentException.class, () -> MatrixUtils.multiply(matrix, Array.of(1, 2), (x, y) -> x * y, Integer::sum));
+        assertThrowsExactly(IllegalArgumentException.class, () -> MatrixUtils.multiply(Array.of(1, 2, 3), matrix, (x, y) -> x * y, Integer::sum, 0));
+        assertThrowsExactly(IllegalArgumentException.class, () -> MatrixUtils.multiply(new DoubleMatrix(matrix), new DoubleArray(1.0, 2.0)));
+        assertThrowsExactly(IllegalArgumentException.class, () -> MatrixUtils.multiply(new LongArray(1L, 2L, 3L), new LongMatrix(matrix)));
+        assertThrows(NullPointerException.class, () -> MatrixUtils.multiply((FloatMatrix) null, new FloatArray()));
+    }
+
+    @Test
+    public void testMultiplyPrimitiveMatrixWithVector() {
+        // Odd sizes, so that both the vector loops and their tails are used
+        Matrix<Long> matrix = Matrix.of(37, 23, (r, c) -> (long) (r * 7 + c * 3) % 11 - 5);
+        Array<Long> columnVector = Array.of(23, i -> (long) (i % 5) - 2);
+        Array<Long> rowVector = Array.of(37, i -> (long) (i % 7) - 3);
+        Array<Long> expectedColumn = MatrixUtils.multiply(matrix, Matrix.fromColumn(columnVector), (x, y) -> x * y, Long::sum).column(0);
+        Array<Long> expectedRow = MatrixUtils.multiply(Matrix.fromRow(rowVector), matrix, (x, y) -> x * y, Long::sum).row(0);
+
+        assertEquals(expectedColumn, MatrixUtils.multiply(matrix, columnVector, (x, y) -> x * y, Long::sum));
+        assertEquals(expectedRow, MatrixUtils.multiply(rowVector, matrix, (x, y) -> x * y, Long::sum));
+        assertEquals(new LongArray(expectedColumn), MatrixUtils.multiply(new LongMatrix(matrix), new LongArray(columnVector)));
+        assertEquals(new LongArray(expectedRow), MatrixUtils.multiply(new LongArray(rowVector), new LongMatrix(matrix)));
+        assertEquals(new DoubleArray(expectedColumn), MatrixUtils.multiply(new DoubleMatrix(matrix), new DoubleArray(columnVector)));
+        assertEquals(new DoubleArray(expectedRow), MatrixUtils.multiply(new DoubleArray(rowVector), new DoubleMatrix(matrix)));
+        assertEquals(new FloatArray(expectedColumn), MatrixUtils.multiply(new FloatMatrix(matrix), new FloatArray(columnVector)));
+        assertEquals(new FloatArray(expectedRow), MatrixUtils.multiply(new FloatArray(rowVector), new FloatMatrix(matrix)));
+    }
+
+    @Test
+    public void testParallelMultiplyMatrixWithVector() {
+        Matrix<Long> matrix = Matrix.of(700, 450, (r, c) -> (long) (r * 7 + c * 3) % 11 - 5);
+        Array<Long> columnVector = Array.of(450, i -> (long) (i % 5) - 2);
+        Array<Long> rowVector = Array.of(700, i -> (long) (i % 7) - 3);
+        Array<Long> expectedColumn = MatrixUtils.multiply(matrix, columnVector, (x, y) -> x * y, Long::sum);
+        Array<Long> expectedRow = MatrixUtils.multiply(rowVector, matrix, (x, y) -> x * y, Long::sum);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(expectedColumn, MatrixUtils.parallelMultiply(matrix, columnVector, (x, y) -> x * y, Long::sum));
+            assertEquals(expectedColumn, MatrixUtils.parallelMultiply(matrix, columnVector, (x, y) -> x * y, Long::sum, pool));
+            assertEquals(expectedColumn, MatrixUtils.parallelMultiply(matrix, columnVector, (x, y) -> x * y, Long::sum, 0L, pool));
+            assertEquals(expectedRow, MatrixUtils.parallelMultiply(rowVector, matrix, (x, y) -> x * y, Long::sum));
+            assertEquals(expectedRow, MatrixUtils.parallelMultiply(rowVector, matrix, (x, y) -> x * y, Long::sum, pool));
+            assertEquals(expectedRow, MatrixUtils.parallelMultiply(rowVector, matrix, (x, y) -> x * y, Long::sum, 0L, pool));
+            assertEquals(new LongArray(expectedColumn), MatrixUtils.parallelMultiply(new LongMatrix(matrix), new LongArray(columnVector), pool));
+            assertEquals(new LongArray(expectedRow), MatrixUtils.parallelMultiply(new LongArray(rowVector), new LongMatrix(matrix), pool));
+            assertEquals(new DoubleArray(expectedColumn), MatrixUtils.parallelMultiply(new DoubleMatrix(matrix), new DoubleArray(columnVector)));
+            assertEquals(new DoubleArray(expectedRow), MatrixUtils.parallelMultiply(new DoubleArray(rowVector), new DoubleMatrix(matrix), pool));
+            assertEquals(new FloatArray(expectedColumn), MatrixUtils.parallelMultiply(new FloatMatrix(matrix), new FloatArray(columnVector), pool));
+            assertEquals(new FloatArray(expectedRow), MatrixUtils.parallelMultiply(new FloatArray(rowVector), new FloatMatrix(matrix)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelMultiplyVectorWithMatrixKeepsSumOrder() {
+        Matrix<String> matrix = Matrix.of(40, 900, (r, c) -> "b" + r);
+        Array<String> vector = Array.of(40, i -> "a" + i);
+        BinaryOperator<String> product = (x, y) -> "(" + x + "*" + y + ")";
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            assertEquals(MatrixUtils.multiply(vector, matrix, product, String::concat), MatrixUtils.parallelMultiply(vector, matrix, product, String::concat, pool));
+            assertEquals(MatrixUtils.multiply(Matrix.fromRow(vector), matrix, product, String::concat).row(0), MatrixUtils.multiply(vector, matrix, product, String::concat));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testMultiplySparse() {
+        SparseDoubleMatrix sparse1 = new SparseDoubleMatrix(37, 23, (r, c) -> (r * 7 + c * 3) % 5 == 0 ? (r + c) % 11 - 5 : 0);
+        SparseDoubleMatrix sparse2 = new SparseDoubleMatrix(23, 29, (r, c) -> (r * 5 + c * 2) % 7 == 0 ? (r * c) % 13 - 6 : 0);
+        DoubleMatrix dense1 = new DoubleMatrix(sparse1);
+        DoubleMatrix dense2 = new DoubleMatrix(sparse2);
+        DoubleMatrix expected = MatrixUtils.multiply(dense1, dense2);
+        DoubleArray vector = new DoubleArray(23, i -> i % 4 - 1.5);
+
+        assertEquals(MatrixUtils.multiply(dense1, vector), MatrixUtils.multiply(sparse1, vector));
+        assertEquals(expected, MatrixUtils.multiply(sparse1, dense2));
+        assertEquals(expected, MatrixUtils.multiply(dense1, sparse2));
+        assertEquals(new SparseDoubleMatrix(expected), MatrixUtils.multiply(sparse1, sparse2));
+        assertEquals(expected, MatrixUtils.multiply(sparse1, (Matrix<Double>) dense2, Semiring.doubleArithmetic()));
+        assertEquals(expected, MatrixUtils.multiply((Matrix<Double>) dense1, sparse2, Semiring.doubleArithmetic()));
+        assertEquals(SparseDoubleMatrix.class, MatrixUtils.multiply(sparse1, sparse2, Semiring.doubleArithmetic()).getClass().getSuperclass());
+    }
+
+    @Test
+    public void testMultiplySparseSkipsZerosWhichAreNotStored() {
+        SparseDoubleMatrix identity = new SparseDoubleMatrix(2, 2, (r, c) -> r == c ? 1 : 0);
+        DoubleMatrix matrix = new DoubleMatrix(new double[]{Double.POSITIVE_INFINITY, 1}, new double[]{2, 3});
+        assertEquals(matrix, MatrixUtils.multiply(identity, matrix));
+        // Terms which cancel out are not stored
+        SparseDoubleMatrix row = new SparseDoubleMatrix(1, 2, (r, c) -> 1);
+        SparseDoubleMatrix column = new SparseDoubleMatrix(2, 1, (r, c) -> r == 0 ? 1 : -1);
+        assertEquals(0, MatrixUtils.multiply(row, column).nonZeroCount());
+        assertEquals(new DoubleMatrix(new double[]{0}), MatrixUtils.multiply(row, column));
+    }
+
+    @Test
+    public void testMultiplySparseWhenInvalidArguments() {
+        SparseDoubleMatrix sparse = new SparseDoubleMatrix(2, 3, (r, c) -> 1);
+        assertThrowsExactly(IllegalArgumentException.class, () -> MatrixUtils.multiply(sparse, sparse));
+        assertThrowsExactly(IllegalArgumentException.class, () -> MatrixUtils.multiply(sparse, new DoubleArray(1, 2)));
+        assertThrowsExactly(IllegalArgumentException.class, () -> MatrixUtils.multiply(sparse, new DoubleMatrix(2, 2, (r, c) -> 1)));
+        assertThrowsExactly(IllegalArgumentException.class, () -> MatrixUtils.multiply(new DoubleMatrix(2, 2, (r, c) -> 1), sparse.transpose()));
+        assertThrows(NullPointerException.class, () -> MatrixUtils.parallelMultiply(sparse, sparse.transpose(), (ForkJoinPool) null));
+    }
+
+    @Test
+    public void testParallelMultiplySparse() {
+        // A skewed graph, where the first rows hold most of the edges
+        int size = 3000;
+        int[] rowIndices = new int[300000];
+        int[] columnIndices = new int[rowIndices.length];
+        double[] values = new double[rowIndices.length];
+        for (int i = 0; i < rowIndices.length; i++) {
+            rowIndices[i] = i < 150000 ? i % 7 : (i * 31) % size;
+            columnIndices[i] = (i * 17 + i / 7) % size;
+            values[i] = i % 9 - 4;
+        }
+        SparseDoubleMatrix sparse = SparseDoubleMatrix.fromTriplets(size, size, rowIndices, columnIndices, values);
+        DoubleMatrix dense = new DoubleMatrix(size, 70, (r, c) -> (r * 3 + c) % 5 - 2);
+        DoubleMatrix denseLeft = new DoubleMatrix(70, size, (r, c) -> (r + c * 3) % 5 - 2);
+        DoubleArray vector = new DoubleArray(size, i -> i % 3 - 1);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(MatrixUtils.multiply(sparse, vector), MatrixUtils.parallelMultiply(sparse, vector, pool));
+            assertEquals(MatrixUtils.multiply(sparse, vector), MatrixUtils.parallelMultiply(sparse, vector));
+            assertEquals(MatrixUtils.multiply(sparse, dense), MatrixUtils.parallelMultiply(sparse, dense, pool));
+            assertEquals(MatrixUtils.multiply(denseLeft, sparse), MatrixUtils.parallelMultiply(denseLeft, sparse, pool));
+            assertEquals(MatrixUtils.multiply(sparse, sparse), MatrixUtils.parallelMultiply(sparse, sparse, pool));
+            assertEquals(MatrixUtils.multiply(sparse, sparse), MatrixUtils.parallelMultiply(sparse, sparse));
+            assertEquals(MatrixUtils.multiply(sparse, sparse), MatrixUtils.parallelMultiply(sparse, sparse, Semiring.doubleArithmetic(), pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testStrassenMultiplyGeneric() {
+        // Odd sizes above the generic cutoff, so two levels of recursion pad their quadrants
+        Matrix<Long> matrix1 = Matrix.of(150, 131, (r, c) -> (long) (r * 7 + c * 3) % 11 - 5);
+        Matrix<Long> matrix2 = Matrix.of(131, 141, (r, c) -> (long) (r * 5 + c * 2) % 13 - 6);
+        Matrix<Long> expected = MatrixUtils.multiply(matrix1, matrix2, (x, y) -> x * y, Long::sum);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(expected, MatrixUtils.strassenMultiply(matrix1, matrix2, (x, y) -> x * y, Long::sum, (x, y) -> x - y, 0L));
+            assertEquals(expected, MatrixUtils.strassenMultiply(matrix1, matrix2, (x, y) -> x * y, Long::sum, (x, y) -> x - y, 0L, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testStrassenMultiplyPrimitive() {
+        LongMatrix matrix1 = new LongMatrix(601, 515, (r, c) -> (r * 7L + c * 3L) % 11 - 5);
+        LongMatrix matrix2 = new LongMatrix(515, 530, (r, c) -> (r * 5L + c * 2L) % 13 - 6);
+        LongMatrix expected = MatrixUtils.multiply(matrix1, matrix2);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(expected, MatrixUtils.strassenMultiply(matrix1, matrix2));
+            assertEquals(expected, MatrixUtils.strassenMultiply(matrix1, matrix2, pool));
+            // Small integers, so every intermediate double is exact
+            assertEquals(new DoubleMatrix(expected), MatrixUtils.strassenMultiply(new DoubleMatrix(matrix1), new DoubleMatrix(matrix2), pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testStrassenMultiplyBelowCutoff() {
+        DoubleMatrix matrix1 = new DoubleMatrix(new double[]{1, 2, 3}, new double[]{4, 5, 6});
+        DoubleMatrix matrix2 = new DoubleMatrix(new double[]{1, 2}, new double[]{3, 4}, new double[]{5, 6});
+        assertEquals(MatrixUtils.multiply(matrix1, matrix2), MatrixUtils.strassenMultiply(matrix1, matrix2));
+        assertEquals(new FloatMatrix(new float[]{22, 28}, new float[]{49, 64}), MatrixUtils.strassenMultiply(new FloatMatrix(matrix1), new FloatMatrix(matrix2)));
+        assertThrowsExactly(IllegalArgumentException.class, () -> MatrixUtils.strassenMultiply(matrix1, matrix1));
+        assertThrows(NullPointerException.class, () -> MatrixUtils.strassenMultiply(Matrix.of(Array.of(1)), Matrix.of(Array.of(1)), (x, y) -> x * y, Integer::sum, (x, y) -> x - y, null));
+    }
+
+    @Test
+    public void testPrimitiveElementWiseOperations() {
+        DoubleMatrix matrix1 = new DoubleMatrix(5, 7, (r, c) -> r * 7 + c);
+        DoubleMatrix matrix2 = new DoubleMatrix(5, 7, (r, c) -> r - c);
+
+        assertEquals(new DoubleMatrix(5, 7, (r, c) -> r * 8), MatrixUtils.add(matrix1, matrix2));
+        assertEquals(new DoubleMatrix(5, 7, (r, c) -> (r * 7 + c) * (r - c)), MatrixUtils.multiplyElementWise(matrix1, matrix2));
+        assertEquals(new DoubleMatrix(5, 7, (r, c) -> (r * 7 + c) * 0.5), MatrixUtils.scale(matrix1, 0.5));
+        assertEquals(new FloatMatrix(MatrixUtils.add(matrix1, matrix2)), MatrixUtils.add(new FloatMatrix(matrix1), new FloatMatrix(matrix2)));
+        assertEquals(new IntMatrix(5, 7, (r, c) -> -3 * (r * 7 + c)), MatrixUtils.scale(new IntMatrix(matrix1), -3));
+        assertEquals(new IntMatrix(MatrixUtils.multiplyElementWise(matrix1, matrix2)), MatrixUtils.multiplyElementWise(new IntMatrix(matrix1), new IntMatrix(matrix2)));
+        assertThrowsExactly(IllegalArgumentException.class, () -> MatrixUtils.add(matrix1, new DoubleMatrix(7, 5, (r, c) -> 0)));
+    }
+
+    @Test
+    public void testMultiplyInSemiring() {
+        Matrix<Double> matrix1 = new DoubleMatrix(6, 70, (r, c) -> (r * 7 + c * 3) % 11 - 4);
+        Matrix<Double> matrix2 = new DoubleMatrix(70, 5, (r, c) -> (r * 5 + c * 2) % 13 - 6);
+
+        assertEquals(MatrixUtils.multiply(matrix1, matrix2, (x, y) -> x * y, Double::sum), MatrixUtils.multiply(matrix1, matrix2, Semiring.doubleArithmetic()));
+        Matrix<Long> longs1 = new LongMatrix(matrix1);
+        Matrix<Long> longs2 = new LongMatrix(matrix2);
+        assertEquals(MatrixUtils.multiply(longs1, longs2, (x, y) -> x * y, Long::sum), MatrixUtils.multiply(longs1, longs2, Semiring.longArithmetic()));
+        Matrix<Integer> ints1 = new IntMatrix(matrix1);
+        Matrix<Integer> ints2 = new IntMatrix(70, 2, (r, c) -> Integer.MAX_VALUE - r);
+        assertEquals(MatrixUtils.multiply(ints1, ints2, (x, y) -> x * y, Integer::sum), MatrixUtils.multiply(ints1, ints2, Semiring.intArithmetic()));
+        for (Semiring<Double> semiring : List.of(Semiring.minPlus(), Semiring.maxPlus(), Semiring.maxTimes())) {
+            Matrix<Double> nonNegative = MatrixUtils.applyForEach(matrix1, x -> x < 0 ? semiring.zero() : x);
+            Matrix<Double> expected = MatrixUtils.multiply(nonNegative, matrix2, semiring::times, semiring::plus, semiring.zero());
+            assertEquals(expected, MatrixUtils.multiply(nonNegative, matrix2, semiring), semiring.toString());
+            assertEquals(expected, MatrixUtils.multiply(nonNegative, matrix2, Semiring.of(semiring::plus, semiring::times, semiring.zero(), semiring.one())));
+        }
+        assertEquals(Matrix.of(3, 2, (r, c) -> 0L), MatrixUtils.multiply(new LongMatrix(3, 0, (r, c) -> 0L), new LongMatrix(0, 2, (r, c) -> 0L), Semiring.longArithmetic()));
+        assertThrowsExactly(IllegalArgumentException.class, () -> MatrixUtils.multiply(matrix1, matrix1, Semiring.minPlus()));
+    }
+
+    @Test
+    public void testMultiplyMinPlusShortestPaths() {
+        double inf = Double.POSITIVE_INFINITY;
+        Matrix<Double> distances = new DoubleMatrix(
+                new double[]{0, 4, inf, 1},
+                new double[]{4, 0, 2, inf},
+                new double[]{inf, 2, 0, 5},
+                new double[]{1, inf, 5, 0});
+        Matrix<Double> twoEdges = MatrixUtils.multiply(distances, distances, Semiring.minPlus());
+        assertEquals(new DoubleMatrix(
+                new double[]{0, 4, 6, 1},
+                new double[]{4, 0, 2, 5},
+                new double[]{6, 2, 0, 5},
+                new double[]{1, 5, 5, 0}), twoEdges);
+        assertEquals(twoEdges, MatrixUtils.parallelMultiply(distances, distances, Semiring.minPlus()));
+    }
+
+    @Test
+    public void testMultiplyOrAnd() {
+        Matrix<Boolean> matrix1 = Matrix.of(5, 130, (r, c) -> (r * 31 + c * 17) % 23 == 0);
+        Matrix<Boolean> matrix2 = Matrix.of(130, 131, (r, c) -> (r * 13 + c * 7) % 29 == 0);
+        Matrix<Boolean> expected = MatrixUtils.multiply(matrix1, matrix2, Boolean::logicalAnd, Boolean::logicalOr);
+
+        assertEquals(expected, MatrixUtils.multiply(matrix1, matrix2, Semiring.orAnd()));
+        assertEquals(expected, MatrixUtils.multiply(matrix1, matrix2, Semiring.of(Boolean::logicalOr, Boolean::logicalAnd, false, true)));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Matrix<Boolean> large = Matrix.of(300, 300, (r, c) -> (r * 31 + c * 17) % 97 == 0);
+            assertEquals(MatrixUtils.multiply(large, large, Boolean::logicalAnd, Boolean::logicalOr), MatrixUtils.parallelMultiply(large, large, Semiring.orAnd(), pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testMultiplySkipsAnnihilatorOfCustomSemiring() {
+        int[] products = new int[1];
+        Semiring<Long> counting = new Semiring<>() {
+            @Override
+            public Long plus(Long x, Long y) {
+                return x + y;
+            }
+
+            @Override
+            public Long times(Long x, Long y) {
+                products[0]++;
+                return x * y;
+            }
+
+            @Override
+            public Long zero() {
+                return 0L;
+            }
+
+            @Override
+            public Long one() {
+                return 1L;
+            }
+
+            @Override
+            public Optional<Long> annihilator() {
+                return Optional.of(0L);
+            }
+        };
+        Matrix<Long> matrix1 = Matrix.of(Array.of(1L, 0L, 0L), Array.of(0L, 2L, 0L));
+        Matrix<Long> matrix2 = Matrix.of(Array.of(1L, 2L), Array.of(3L, 4L), Array.of(5L, 6L));
+
+        assertEquals(Matrix.of(Array.of(1L, 2L), Array.of(6L, 8L)), MatrixUtils.multiply(matrix1, matrix2, counting));
+        assertEquals(4, products[0]);
+    }
+
+    @Test
+    public void testPower() {
+        Matrix<Long> fibonacci = Matrix.of(Array.of(1L, 1L), Array.of(1L, 0L));
+        assertEquals(Matrix.of(Array.of(89L, 55L), Array.of(55L, 34L)), MatrixUtils.power(fibonacci, 10, (x, y) -> x * y, Long::sum));
+        assertEquals(Matrix.of(Array.of(89L, 55L), Array.of(55L, 34L)), MatrixUtils.power(fibonacci, 10, (x, y) -> x * y, Long::sum, 0L));
+        assertEquals(fibonacci, MatrixUtils.power(fibonacci, 1, (x, y) -> x * y, Long::sum));
+
+        Matrix<Integer> matrix = Matrix.of(5, 5, (r, c) -> (r * 3 + c) % 4 - 1);
+        for (int exponent = 1; exponent <= 9; exponent++) {
+            Matrix<Integer> expected = matrix;
+            for (int i = 1; i < exponent; i++) {
+                expected = MatrixUtils.multiply(expected, matrix, (x, y) -> x * y, Integer::sum);
+            }
+            assertEquals(expected, MatrixUtils.power(matrix, exponent, (x, y) -> x * y, Integer::sum), "exponent " + exponent);
+            assertEquals(expected, MatrixUtils.power(matrix, exponent, Semiring.intArithmetic()), "exponent " + exponent);
+            assertEquals(new LongMatrix(expected), MatrixUtils.power(new LongMatrix(matrix), exponent));
+            assertEquals(new DoubleMatrix(expected), MatrixUtils.power(new DoubleMatrix(matrix), exponent));
+        }
+        assertThrowsExactly(IllegalArgumentException.class, () -> MatrixUtils.power(matrix, 0, (x, y) -> x * y, Integer::sum));
+        assertThrowsExactly(IllegalArgumentException.class, () -> MatrixUtils.power(Matrix.of(2, 3, (r, c) -> 1), 2, (x, y) -> x * y, Integer::sum));
+        assertThrowsExactly(IllegalArgumentException.class, () -> MatrixUtils.power(new DoubleMatrix(2, 2, (r, c) -> 1), -1));
+    }
+
+    @Test
+    public void testPowerWithExponentZero() {
+        assertEquals(new DoubleMatrix(new double[]{1, 0}, new double[]{0, 1}), MatrixUtils.power(new DoubleMatrix(2, 2, (r, c) -> 5), 0));
+        assertEquals(new FloatMatrix(new float[]{1, 0}, new float[]{0, 1}), MatrixUtils.power(new FloatMatrix(2, 2, (r, c) -> 5), 0));
+        assertEquals(Matrix.of(Array.of(true, false), Array.of(false, true)), MatrixUtils.power(Matrix.of(2, 2, (r, c) -> false), 0, Semiring.orAnd()));
+        double inf = Double.POSITIVE_INFINITY;
+        assertEquals(new DoubleMatrix(new double[]{0, inf}, new double[]{inf, 0}), MatrixUtils.power(new DoubleMatrix(2, 2, (r, c) -> 3), 0, Semiring.minPlus()));
+    }
+
+    @Test
+    public void testPowerInSemiring() {
+        double inf = Double.POSITIVE_INFINITY;
+        // A cycle 0 -> 1 -> 2 -> 3 -> 0 with a shortcut 0 -> 2
+        Matrix<Double> edges = new DoubleMatrix(
+                new double[]{inf, 1, 5, inf},
+                new double[]{inf, inf, 1, inf},
+                new double[]{inf, inf, inf, 1},
+                new double[]{1, inf, inf, inf});
+        Matrix<Double> threeEdges = MatrixUtils.multiply(MatrixUtils.multiply(edges, edges, Semiring.minPlus()), edges, Semiring.minPlus());
+        assertEquals(threeEdges, MatrixUtils.power(edges, 3, Semiring.minPlus()));
+        assertEquals(3.0, MatrixUtils.power(edges, 3, Semiring.minPlus()).get(0, 3));
+        assertEquals(MatrixUtils.power(edges, 7, (x, y) -> x + y, Math::min, inf), MatrixUtils.power(edges, 7, Semiring.minPlus()));
+
+        Matrix<Boolean> reachable = MatrixUtils.applyForEach(edges, x -> x < inf);
+        assertEquals(MatrixUtils.applyForEach(MatrixUtils.power(edges, 6, Semiring.minPlus()), x -> x < inf), MatrixUtils.power(reachable, 6, Semiring.orAnd()));
+
+        // The chain has a stationary distribution of (2/3, 1/3)
+        DoubleMatrix markov = new DoubleMatrix(new double[]{0.75, 0.25}, new double[]{0.5, 0.5});
+        DoubleMatrix steps = MatrixUtils.power(markov, 1_000_000);
+        assertEquals(2.0 / 3.0, steps.getDouble(1, 0), 1e-12);
+        assertEquals(1.0 / 3.0, steps.getDouble(0, 1), 1e-12);
+        assertEquals(steps, MatrixUtils.power(markov, 1_000_000, Semiring.doubleArithmetic()));
+    }
+
+    @Test
+    public void testConvolve() {
+        DoubleMatrix matrix = new DoubleMatrix(new double[]{1, 2, 3}, new double[]{4, 5, 6});
+        DoubleMatrix kernel = new DoubleMatrix(new double[]{0, 1, 0}, new double[]{1, 1, 1}, new double[]{0, 1, 0});
+
+        assertEquals(new DoubleMatrix(new double[]{7, 11, 11}, new double[]{10, 17, 14}), MatrixUtils.convolve(matrix, kernel, Border.constant(0)));
+        assertEquals(new DoubleMatrix(new double[]{9, 13, 17}, new double[]{18, 22, 26}), MatrixUtils.convolve(matrix, kernel, Border.clamp()));
+        assertEquals(new DoubleMatrix(new double[]{14, 16, 18}, new double[]{17, 19, 21}), MatrixUtils.convolve(matrix, kernel, Border.wrap()));
+        // The kernel is not flipped, and an even kernel is centered on its later element
+        assertEquals(new DoubleMatrix(new double[]{-1, 1, 2}, new double[]{-1, 4, 5}), MatrixUtils.convolve(matrix, new DoubleMatrix(new double[]{1, 0}), Border.constant(-1)));
+        assertEquals(matrix, MatrixUtils.convolve(matrix, kernel, Border.clamp(), 0));
+    }
+
+    @Test
+    public void testConvolveMatchesNeighbourhoodSum() {
+        int rows = 90;
+        int columns = 70;
+        DoubleMatrix matrix = new DoubleMatrix(rows, columns, (r, c) -> Math.sin(r * 0.3) + Math.cos(c * 0.7));
+        DoubleMatrix kernel = new DoubleMatrix(5, 4, (i, j) -> i - 2 * j + 0.5);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (Border border : new Border[]{Border.clamp(), Border.wrap(), Border.constant(2.5)}) {
+                DoubleMatrix expected = new DoubleMatrix(rows, columns, (r, c) -> {
+                    double sum = 0.0;
+                    for (int i = 0; i < 5; i++) {
+                        for (int j = 0; j < 4; j++) {
+                            int rr = r + i - 2;
+                            int cc = c + j - 2;
+                            double x = switch (border.toString()) {
+                                case "clamp" -> matrix.getDouble(Math.max(0, Math.min(rows - 1, rr)), Math.max(0, Math.min(columns - 1, cc)));
+                                case "wrap" -> matrix.getDouble(Math.floorMod(rr, rows), Math.floorMod(cc, columns));
+                                default -> rr < 0 || rr >= rows || cc < 0 || cc >= columns ? 2.5 : matrix.getDouble(rr, cc);
+                            };
+                            sum += kernel.getDouble(i, j) * x;
+                        }
+                    }
+                    return sum;
+                });
+                assertEquals(expected, MatrixUtils.convolve(matrix, kernel, border));
+                assertEquals(expected, MatrixUtils.parallelConvolve(matrix, kernel, border, pool));
+                assertEquals(MatrixUtils.convolve(expected, kernel, border), MatrixUtils.parallelConvolve(matrix, kernel, border, 2, pool));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testStencilGameOfLife() {
+        DoubleStencilFunction life = n -> {
+            double neighbours = -n.get(0, 0);
+            for (int dr = -1; dr <= 1; dr++) {
+                for (int dc = -1; dc <= 1; dc++) {
+                    neighbours += n.get(dr, dc);
+                }
+            }
+            return neighbours == 3 || neighbours == 2 && n.get(0, 0) == 1 ? 1 : 0;
+        };
+        // A glider on a torus is back in its shape after 4 generations, moved one step diagonally
+        DoubleMatrix glider = new DoubleMatrix(8, 8, (r, c) -> r == 0 && c == 1 || r == 1 && c == 2 || r == 2 && c <= 2 ? 1 : 0);
+        DoubleMatrix moved = new DoubleMatrix(8, 8, (r, c) -> glider.getDouble(Math.floorMod(r - 1, 8), Math.floorMod(c - 1, 8)));
+        assertEquals(moved, MatrixUtils.stencil(glider, 1, Border.wrap(), life, 4));
+        assertEquals(moved, MatrixUtils.stencil(MatrixUtils.stencil(glider, 1, Border.wrap(), life, 3), 1, Border.wrap(), life));
+
+        // Repeated steps wrap around the torus back to the start
+        DoubleMatrix large = new DoubleMatrix(600, 600, (r, c) -> glider.getDouble(r % 8, c % 8));
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            assertEquals(large, MatrixUtils.parallelStencil(large, 1, Border.wrap(), life, 32, pool));
+            assertEquals(MatrixUtils.stencil(large, 1, Border.constant(0), life), MatrixUtils.parallelStencil(large, 1, Border.constant(0), life, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testStencilNeighbourhood() {
+        DoubleMatrix matrix = new DoubleMatrix(new double[]{1, 2, 3}, new double[]{4, 5, 6});
+        assertEquals(new DoubleMatrix(new double[]{0, 1, 2}, new double[]{10, 11, 12}),
+                MatrixUtils.stencil(matrix, 0, Border.clamp(), n -> n.rowIndex() * 10 + n.columnIndex()));
+        assertEquals(new DoubleMatrix(new double[]{4, 5, 6}, new double[]{-1, -1, -1}),
+                MatrixUtils.stencil(matrix, 1, Border.constant(-1), n -> n.get(1, 0)));
+        assertEquals(new DoubleMatrix(new double[]{3, 1, 2}, new double[]{6, 4, 5}),
+                MatrixUtils.stencil(matrix, 2, Border.wrap(), n -> n.get(0, -1)));
+        assertThrows(IndexOutOfBoundsException.class, () -> MatrixUtils.stencil(matrix, 1, Border.clamp(), n -> n.get(2, 0)));
+    }
+
+    @Test
+    public void testStencilWhenInvalidArguments() {
+        DoubleMatrix matrix = new DoubleMatrix(new double[]{1, 2, 3});
+        assertThrows(IllegalArgumentException.class, () -> MatrixUtils.stencil(matrix, -1, Border.clamp(), n -> 0));
+        assertThrows(IllegalArgumentException.class, () -> MatrixUtils.stencil(matrix, 1, Border.clamp(), n -> 0, -1));
+        assertThrows(IllegalArgumentException.class, () -> MatrixUtils.convolve(matrix, new DoubleMatrix(), Border.clamp()));
+        assertThrows(NullPointerException.class, () -> MatrixUtils.convolve(matrix, matrix, null));
+        assertThrows(NullPointerException.class, () -> MatrixUtils.parallelStencil(matrix, 1, Border.wrap(), null));
+    }
 }
@@ -0,0 +1,134 @@
+package org.viktori.matteray.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.viktori.matteray.DoubleArray;
+import org.viktori.matteray.DoubleMatrix;
+import org.viktori.matteray.SparseDoubleMatrix;
+
+public class PartialEigenDecompositionTest {
+
+    /**
+     * Adjacency matrix of a ring of nodes, with a chord from every seventh node
+     */
+    private static SparseDoubleMatrix graph(int size) {
+        return new SparseDoubleMatrix(size, size, (r, c) -> {
+            int distance = Math.abs(r - c);
+            if (distance == 1 || distance == size - 1) {
+                return 1.0;
+            }
+            return (r % 7 == 0 && c == (r * 3) % size) || (c % 7 == 0 && r == (c * 3) % size) ? 0.5 : 0.0;
+        });
+    }
+
+    @Test
+    public void testPowerIteration() {
+        DoubleMatrix matrix = new DoubleMatrix(new double[]{2, 1, 0}, new double[]{1, 3, 1}, new double[]{0, 1, 4});
+        PartialEigenDecomposition eigen = PartialEigenDecomposition.powerIteration(LinearOperator.of(matrix));
+        DoubleArray expected = SymmetricEigenDecomposition.eigenvaluesOf(matrix);
+        assertTrue(eigen.isConverged());
+        assertEquals(1, eigen.count());
+        assertEquals(3, eigen.size());
+        assertEquals(expected.getDouble(2), eigen.eigenvalues().getDouble(0), 1e-9);
+        assertResidual(LinearOperator.of(matrix), eigen, 0, 1e-9);
+    }
+
+    @Test
+    public void testPowerIterationBudget() {
+        // The two largest eigenvalues are close, so convergence is slow
+        DoubleMatrix matrix = new DoubleMatrix(3, (r, c) -> r == c ? 10 - r * 0.01 : 0.1);
+        PartialEigenDecomposition eigen = PartialEigenDecomposition.powerIteration(LinearOperator.of(matrix), 1e-14, 5);
+        assertFalse(eigen.isConverged());
+        assertEquals(5, eigen.iterations());
+    }
+
+    @Test
+    public void testLanczos() {
+        int size = 500;
+        SparseDoubleMatrix matrix = graph(size);
+        double[] expected = SymmetricEigenDecomposition.eigenvaluesOf(matrix).toDoubleArray();
+        LinearOperator operator = LinearOperator.parallelOf(matrix);
+        PartialEigenDecomposition eigen = PartialEigenDecomposition.lanczos(operator, 4);
+        assertTrue(eigen.isConverged());
+        assertEquals(4, eigen.count());
+        assertEquals(size, eigen.size());
+        for (int k = 0; k < 4; k++) {
+            assertEquals(expected[size - 1 - k], eigen.eigenvalues().getDouble(k), 1e-8);
+            assertResidual(operator, eigen, k, 1e-8);
+        }
+        // The eigenvectors are orthonormal
+        DoubleMatrix vectors = eigen.eigenvectors();
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                double dot = 0.0;
+                for (int r = 0; r < size; r++) {
+                    dot += vectors.getDouble(r, i) * vectors.getDouble(r, j);
+                }
+                assertEquals(i == j ? 1.0 : 0.0, dot, 1e-10);
+            }
+        }
+        assertEquals(vectors.column(2), eigen.eigenvector(2));
+    }
+
+    @Test
+    public void testLanczosFunctionOperator() {
+        // The negated second difference operator, whose largest eigenvalues are the smallest of the original
+        int size = 300;
+        LinearOperator operator = LinearOperator.of(size, (x, y) -> {
+            for (int i = 0; i < size; i++) {
+                y[i] = -2 * x[i] + (i > 0 ? x[i - 1] : 0) + (i + 1 < size ? x[i + 1] : 0);
+            }
+        });
+        PartialEigenDecomposition eigen = PartialEigenDecomposition.lanczos(operator, 2, 1e-8, 1000);
+        assertTrue(eigen.isConverged());
+        for (int k = 0; k < 2; k++) {
+            double expected = -2 + 2 * Math.cos((k + 1) * Math.PI / (size + 1));
+            assertEquals(expected, eigen.eigenvalues().getDouble(k), 1e-10);
+        }
+    }
+
+    @Test
+    public void testLanczosSmallOperator() {
+        // A basis of the whole space gives the exact eigenvalues
+        DoubleMatrix matrix = new DoubleMatrix(new double[]{2, 1, 0}, new double[]{1, 3, 1}, new double[]{0, 1, 4});
+        double[] expected = SymmetricEigenDecomposition.eigenvaluesOf(matrix).toDoubleArray();
+        PartialEigenDecomposition eigen = PartialEigenDecomposition.lanczos(LinearOperator.of(matrix), 3);
+        assertTrue(eigen.isConverged());
+        assertArrayEquals(new double[]{expected[2], expected[1], expected[0]}, eigen.eigenvalues().toDoubleArray(), 1e-12);
+        // An identity has a one-dimensional invariant subspace for any start vector
+        PartialEigenDecomposition identity = PartialEigenDecomposition.lanczos(LinearOperator.of(5, (x, y) -> System.arraycopy(x, 0, y, 0, 5)), 2);
+        assertArrayEquals(new double[]{1, 1}, identity.eigenvalues().toDoubleArray(), 1e-12);
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        LinearOperator square = LinearOperator.of(new DoubleMatrix(3, (r, c) -> r == c ? 1 : 0));
+        assertThrowsExactly(IllegalArgumentException.class, () -> PartialEigenDecomposition.lanczos(LinearOperator.of(new DoubleMatrix(2, 3, (r, c) -> 1)), 1));
+        assertThrowsExactly(IllegalArgumentException.class, () -> PartialEigenDecomposition.lanczos(square, 0));
+        assertThrowsExactly(IllegalArgumentException.class, () -> PartialEigenDecomposition.lanczos(square, 4));
+        assertThrowsExactly(IllegalArgumentException.class, () -> PartialEigenDecomposition.lanczos(square, 1, -1, 10));
+        assertThrowsExactly(IllegalArgumentException.class, () -> PartialEigenDecomposition.lanczos(square, 1, 1e-8, -1));
+        assertThrowsExactly(IllegalArgumentException.class, () -> PartialEigenDecomposition.powerIteration(square, Double.NaN, 10));
+        assertThrowsExactly(IllegalArgumentException.class, () -> PartialEigenDecomposition.powerIteration(square, 1e-8, 0));
+        assertThrowsExactly(IllegalArgumentException.class, () -> PartialEigenDecomposition.powerIteration(LinearOperator.of(new DoubleMatrix())));
+        assertThrows(NullPointerException.class, () -> PartialEigenDecomposition.powerIteration(null));
+        PartialEigenDecomposition eigen = PartialEigenDecomposition.powerIteration(square);
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> eigen.eigenvector(1));
+    }
+
+    private static void assertResidual(LinearOperator operator, PartialEigenDecomposition eigen, int index, double tolerance) {
+        double[] x = eigen.eigenvector(index).toDoubleArray();
+        double[] y = new double[x.length];
+        operator.apply(x, y);
+        double lambda = eigen.eigenvalues().getDouble(index);
+        for (int i = 0; i < x.length; i++) {
+            assertEquals(lambda * x[i], y[i], tolerance);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.viktori.matteray.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class PrimitiveOpsTest {
+
+    private final PrimitiveOps scalar = new PrimitiveOps();
+    private final PrimitiveOps simd = new SimdPrimitiveOps();
+
+    @Test
+    public void testDoubleOpsMatchScalar() {
+        // Every length up to several vectors, so both the vector loops and the tails are covered
+        for (int length = 0; length < 40; length++) {
+            double[] x = new double[length];
+            double[] y = new double[length];
+            for (int i = 0; i < length; i++) {
+                x[i] = (i * 7) % 11 - 5;
+                y[i] = (i * 3) % 5 + 0.5;
+            }
+            assertEquals(scalar.dot(x, y), simd.dot(x, y));
+            assertEquals(scalar.sum(x), simd.sum(x));
+            if (length > 0) {
+                assertEquals(scalar.min(y), simd.min(y));
+                assertEquals(scalar.max(x), simd.max(x));
+            }
+            double[] expected = new double[length];
+            double[] actual = new double[length];
+            scalar.add(x, y, expected);
+            simd.add(x, y, actual);
+            assertArrayEquals(expected, actual);
+            scalar.multiply(x, y, expected);
+            simd.multiply(x, y, actual);
+            assertArrayEquals(expected, actual);
+            scalar.scale(x, -1.5, expected);
+            simd.scale(x, -1.5, actual);
+            assertArrayEquals(expected, actual);
+            scalar.axpy(2.0, x, expected);
+            simd.axpy(2.0, x, actual);
+            assertArrayEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testFloatOpsMatchScalar() {
+        for (int length = 0; length < 70; length++) {
+            float[] x = new float[length];
+            float[] y = new float[length];
+            for (int i = 0; i < length; i++) {
+                x[i] = (i * 7) % 11 - 5;
+                y[i] = (i * 3) % 5 + 0.5f;
+            }
+            assertEquals(scalar.dot(x, y), simd.dot(x, y));
+            assertEquals(scalar.sum(x), simd.sum(x));
+            if (length > 0) {
+                assertEquals(scalar.min(x), simd.min(x));
+                assertEquals(scalar.max(y), simd.max(y));
+            }
+            float[] expected = new float[length];
+            float[] actual = new float[length];
+            scalar.add(x, y, expected);
+            simd.add(x, y, actual);
+            assertArrayEquals(expected, actual);
+            scalar.multiply(x, y, expected);
+            simd.multiply(x, y, actual);
+            assertArrayEquals(expected, actual);
+            scalar.axpy(-3.0f, y, expected);
+            simd.axpy(-3.0f, y, actual);
+            assertArrayEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testIntOpsMatchScalar() {
+        for (int length = 0; length < 70; length++) {
+            int[] x = new int[length];
+            int[] y = new int[length];
+            for (int i = 0; i < length; i++) {
+                x[i] = (i * 7) % 11 - 5;
+                y[i] = Integer.MAX_VALUE - i;
+            }
+            assertEquals(scalar.dot(x, y), simd.dot(x, y));
+            assertEquals(scalar.sum(y), simd.sum(y));
+            if (length > 0) {
+                assertEquals(scalar.min(x), simd.min(x));
+                assertEquals(scalar.max(x), simd.max(x));
+            }
+            int[] expected = new int[length];
+            int[] actual = new int[length];
+            scalar.add(x, y, expected);
+            simd.add(x, y, actual);
+            assertArrayEquals(expected, actual);
+            scalar.scale(y, 3, expected);
+            simd.scale(y, 3, actual);
+            assertArrayEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testMicroKernelsMatchScalar() {
+        int kc = 5;
+        double[] a = new double[MatrixKernels.MR * kc];
+        double[] b = new double[MatrixKernels.NR * kc];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = i % 7 - 3;
+        }
+        for (int i = 0; i < b.length; i++) {
+            b[i] = i % 5 - 2;
+        }
+        float[] af = new float[a.length];
+        float[] bf = new float[b.length];
+        for (int i = 0; i < a.length; i++) {
+            af[i] = (float) a[i];
+        }
+        for (int i = 0; i < b.length; i++) {
+            bf[i] = (float) b[i];
+        }
+        // Full tiles are written directly, partial tiles through the edge buffer
+        for (int[] size : new int[][]{{4, 4}, {3, 2}, {1, 4}}) {
+            double[] expected = new double[MatrixKernels.MR * 6];
+            double[] actual = new double[MatrixKernels.MR * 6];
+            scalar.microKernelDouble(kc, a, 0, b, 0, expected, 1, 6, size[0], size[1], new double[16]);
+            simd.microKernelDouble(kc, a, 0, b, 0, actual, 1, 6, size[0], size[1], new double[16]);
+            assertArrayEquals(expected, actual);
+            float[] expectedFloat = new float[MatrixKernels.MR * 6];
+            float[] actualFloat = new float[MatrixKernels.MR * 6];
+            scalar.microKernelFloat(kc, af, 0, bf, 0, expectedFloat, 1, 6, size[0], size[1], new float[16]);
+            simd.microKernelFloat(kc, af, 0, bf, 0, actualFloat, 1, 6, size[0], size[1], new float[16]);
+            assertArrayEquals(expectedFloat, actualFloat);
+        }
+    }
+}
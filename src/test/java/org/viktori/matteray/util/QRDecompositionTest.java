@@ -0,0 +1,78 @@
+package org.viktori.matteray.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.viktori.matteray.Array;
+import org.viktori.matteray.DoubleArray;
+import org.viktori.matteray.DoubleMatrix;
+
+public class QRDecompositionTest {
+
+    @Test
+    public void testDecompose() {
+        // Large enough for several blocks of reflections
+        DoubleMatrix matrix = new DoubleMatrix(150, 90, (r, c) -> ((r * 31 + c * 17) % 23 - 11) / 7.0 + (r == c ? 3 : 0));
+        QRDecomposition qr = QRDecomposition.decompose(matrix);
+        assertEquals(150, qr.rows());
+        assertEquals(90, qr.columns());
+        assertTrue(qr.isFullRank());
+
+        DoubleMatrix orthogonal = qr.orthogonal();
+        DoubleMatrix upper = qr.upper();
+        DoubleMatrix product = MatrixUtils.multiply(orthogonal, upper);
+        assertArrayEquals(matrix.toDoubleArray(), product.toDoubleArray(), 1e-10);
+        for (int r = 1; r < 90; r++) {
+            for (int c = 0; c < r; c++) {
+                assertEquals(0.0, upper.getDouble(r, c));
+            }
+        }
+        DoubleMatrix gram = MatrixUtils.multiply(new DoubleMatrix(90, 150, (r, c) -> orthogonal.getDouble(c, r)), orthogonal);
+        for (int r = 0; r < 90; r++) {
+            for (int c = 0; c < 90; c++) {
+                assertEquals(r == c ? 1.0 : 0.0, gram.getDouble(r, c), 1e-12);
+            }
+        }
+    }
+
+    @Test
+    public void testSolveLeastSquares() {
+        // Points on the line 2 + 3 * x, with noise that cancels out
+        DoubleMatrix matrix = new DoubleMatrix(new double[]{1, 0}, new double[]{1, 1}, new double[]{1, 2}, new double[]{1, 3});
+        QRDecomposition qr = QRDecomposition.decompose(matrix);
+        assertArrayEquals(new double[]{2, 3}, qr.solve(Array.of(2.5, 4.5, 7.5, 11.5)).toDoubleArray(), 1e-12);
+
+        DoubleMatrix rightHandSides = new DoubleMatrix(new double[]{2.5, 1}, new double[]{4.5, 1}, new double[]{7.5, 1}, new double[]{11.5, 1});
+        DoubleMatrix solution = qr.solve(rightHandSides);
+        assertEquals(2, solution.rows());
+        assertArrayEquals(new double[]{2, 3}, solution.column(0).toDoubleArray(), 1e-12);
+        assertArrayEquals(new double[]{1, 0}, solution.column(1).toDoubleArray(), 1e-12);
+    }
+
+    @Test
+    public void testSolveSquare() {
+        DoubleMatrix matrix = new DoubleMatrix(70, (r, c) -> r == c ? 10 : (r * 3 + c * 5) % 7 - 3);
+        DoubleArray vector = new DoubleArray(70, i -> i % 5 - 2);
+        assertArrayEquals(LUDecomposition.decompose(matrix).solve(vector).toDoubleArray(),
+                QRDecomposition.decompose(matrix).solve(vector).toDoubleArray(), 1e-12);
+    }
+
+    @Test
+    public void testRankDeficient() {
+        QRDecomposition qr = QRDecomposition.decompose(new DoubleMatrix(new double[]{1, 0}, new double[]{2, 0}, new double[]{3, 0}));
+        assertFalse(qr.isFullRank());
+        assertThrowsExactly(IllegalStateException.class, () -> qr.solve(Array.of(1, 2, 3)));
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrowsExactly(IllegalArgumentException.class, () -> QRDecomposition.decompose(new DoubleMatrix(2, 3, (r, c) -> 1)));
+        QRDecomposition qr = QRDecomposition.decompose(new DoubleMatrix(3, 2, (r, c) -> r == c ? 1 : 0));
+        assertThrowsExactly(IllegalArgumentException.class, () -> qr.solve(Array.of(1, 2)));
+        assertThrowsExactly(IllegalArgumentException.class, () -> qr.solve(new DoubleMatrix(2, 1, (r, c) -> 1)));
+    }
+}
@@ -0,0 +1,77 @@
+package org.viktori.matteray.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+public class SemiringTest {
+
+    private static final double INF = Double.POSITIVE_INFINITY;
+
+    @Test
+    public void testArithmetic() {
+        assertEquals(5.0, Semiring.doubleArithmetic().plus(2.0, 3.0));
+        assertEquals(6.0, Semiring.doubleArithmetic().times(2.0, 3.0));
+        assertEquals(Optional.empty(), Semiring.doubleArithmetic().annihilator());
+        assertEquals(Long.MIN_VALUE, Semiring.longArithmetic().plus(Long.MAX_VALUE, 1L));
+        assertEquals(Optional.of(0L), Semiring.longArithmetic().annihilator());
+        assertEquals(1, Semiring.intArithmetic().one());
+        assertEquals(Optional.of(0), Semiring.intArithmetic().annihilator());
+    }
+
+    @Test
+    public void testTropical() {
+        Semiring<Double> minPlus = Semiring.minPlus();
+        assertEquals(2.0, minPlus.plus(2.0, 3.0));
+        assertEquals(5.0, minPlus.times(2.0, 3.0));
+        assertEquals(INF, minPlus.zero());
+        assertEquals(0.0, minPlus.one());
+        assertEquals(INF, minPlus.times(-INF, INF));
+        assertEquals(Optional.of(INF), minPlus.annihilator());
+
+        Semiring<Double> maxPlus = Semiring.maxPlus();
+        assertEquals(3.0, maxPlus.plus(2.0, 3.0));
+        assertEquals(-INF, maxPlus.times(INF, -INF));
+
+        Semiring<Double> maxTimes = Semiring.maxTimes();
+        assertEquals(0.5, maxTimes.plus(0.25, 0.5));
+        assertEquals(0.125, maxTimes.times(0.25, 0.5));
+        assertEquals(0.0, maxTimes.times(INF, 0.0));
+    }
+
+    @Test
+    public void testOrAnd() {
+        Semiring<Boolean> orAnd = Semiring.orAnd();
+        assertEquals(true, orAnd.plus(false, true));
+        assertEquals(false, orAnd.times(false, true));
+        assertEquals(false, orAnd.zero());
+        assertEquals(true, orAnd.one());
+        assertEquals(Optional.of(false), orAnd.annihilator());
+    }
+
+    @Test
+    public void testIdentitiesOfBuiltInSemirings() {
+        List<Semiring<Double>> semirings = List.of(Semiring.doubleArithmetic(), Semiring.minPlus(), Semiring.maxPlus(), Semiring.maxTimes());
+        for (Semiring<Double> semiring : semirings) {
+            for (double value : new double[]{0.0, 0.5, 3.0, 7.25}) {
+                assertEquals(value, semiring.plus(semiring.zero(), value), semiring.toString());
+                assertEquals(value, semiring.times(semiring.one(), value), semiring.toString());
+                assertEquals(semiring.zero(), semiring.annihilator().map(z -> semiring.times(z, value)).orElse(semiring.zero()), semiring.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testOf() {
+        Semiring<String> semiring = Semiring.of((x, y) -> x.compareTo(y) <= 0 ? x : y, String::concat, "~", "");
+        assertEquals("ab", semiring.times("a", "b"));
+        assertEquals("a", semiring.plus("a", "b"));
+        assertEquals(Optional.empty(), semiring.annihilator());
+        assertEquals("Semiring[zero=~, one=]", semiring.toString());
+        assertThrows(NullPointerException.class, () -> Semiring.of(String::concat, String::concat, null, ""));
+    }
+}
@@ -0,0 +1,131 @@
+package org.viktori.matteray.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.viktori.matteray.Array;
+import org.viktori.matteray.DoubleMatrix;
+import org.viktori.matteray.IntMatrix;
+import org.viktori.matteray.LongMatrix;
+import org.viktori.matteray.Matrix;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+
+public class SummedAreaTableTest {
+
+    @Test
+    public void testSummedAreaTableOfDoubleMatrix() {
+        DoubleMatrix matrix = new DoubleMatrix(
+                new double[]{1.0, 2.0, 3.0},
+                new double[]{4.0, 5.0, 6.0},
+                new double[]{7.0, 8.0, 9.5});
+        DoubleSummedAreaTable table = MatrixUtils.summedAreaTable(matrix);
+        assertEquals(3, table.rows());
+        assertEquals(3, table.columns());
+        assertEquals(45.5, table.sum(0, 3, 0, 3));
+        assertEquals(28.5, table.sum(1, 3, 1, 3));
+        assertEquals(5.0, table.sum(1, 2, 1, 2));
+        assertEquals(0.0, table.sum(2, 2, 0, 3));
+        assertEquals(4, table.count(1, 3, 1, 3));
+        assertEquals(7.125, table.mean(1, 3, 1, 3));
+        assertTrue(Double.isNaN(table.mean(0, 3, 1, 1)));
+    }
+
+    @Test
+    public void testSummedAreaTableOfLongAndIntMatrix() {
+        LongSummedAreaTable longTable = MatrixUtils.summedAreaTable(new LongMatrix(
+                new long[]{Long.MAX_VALUE, 1L},
+                new long[]{-2L, 3L}));
+        assertEquals(Long.MAX_VALUE - 2L, longTable.sum(0, 2, 0, 1));
+        assertEquals(4L, longTable.sum(0, 2, 1, 2));
+        assertEquals(0.5, longTable.mean(1, 2, 0, 2));
+
+        LongSummedAreaTable intTable = MatrixUtils.summedAreaTable(new IntMatrix(
+                new int[]{Integer.MAX_VALUE, Integer.MAX_VALUE},
+                new int[]{Integer.MAX_VALUE, 1}));
+        assertEquals(3L * Integer.MAX_VALUE + 1L, intTable.sum(0, 2, 0, 2));
+        assertEquals(2L * Integer.MAX_VALUE, intTable.sum(0, 2, 0, 1));
+    }
+
+    @Test
+    public void testSummedAreaTableCountingMatches() {
+        Matrix<Character> grid = Matrix.of(
+                Array.of('a', 'b', 'a'),
+                Array.of('a', 'a', 'c'));
+        LongSummedAreaTable table = MatrixUtils.summedAreaTable(grid, x -> x == 'a');
+        assertEquals(4L, table.sum(0, 2, 0, 3));
+        assertEquals(1L, table.sum(1, 2, 1, 3));
+        assertEquals(6, table.count(0, 2, 0, 3));
+    }
+
+    @Test
+    public void testSummedAreaTableOfGroup() {
+        Matrix<BigInteger> matrix = Matrix.of(2, 3, (r, c) -> BigInteger.TEN.pow(r * 3 + c));
+        SummedAreaTable<BigInteger> table = MatrixUtils.summedAreaTable(matrix, BigInteger::add, BigInteger::subtract, BigInteger.ZERO);
+        assertEquals(new BigInteger("111111"), table.sum(0, 2, 0, 3));
+        assertEquals(new BigInteger("110110"), table.sum(0, 2, 1, 3));
+        assertEquals(new BigInteger("10000"), table.sum(1, 2, 1, 2));
+        assertEquals(BigInteger.ZERO, table.sum(0, 0, 0, 3));
+        assertEquals(2, table.count(0, 2, 1, 2));
+    }
+
+    @Test
+    public void testParallelSummedAreaTableMatchesSubMatrixSums() {
+        int rows = 640;
+        int columns = 500;
+        Random random = new Random(42);
+        IntMatrix matrix = new IntMatrix(rows, columns, (r, c) -> random.nextInt(2001) - 1000);
+        DoubleMatrix doubles = new DoubleMatrix(rows, columns, (r, c) -> matrix.getInt(r, c) / 4.0);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            LongSummedAreaTable ints = MatrixUtils.parallelSummedAreaTable(matrix, pool);
+            LongSummedAreaTable longs = MatrixUtils.parallelSummedAreaTable(new LongMatrix(matrix), pool);
+            LongSummedAreaTable matches = MatrixUtils.parallelSummedAreaTable(matrix, x -> x > 0, pool);
+            DoubleSummedAreaTable parallelDoubles = MatrixUtils.parallelSummedAreaTable(doubles, pool);
+            DoubleSummedAreaTable sequentialDoubles = MatrixUtils.summedAreaTable(doubles);
+            SummedAreaTable<Integer> boxed = MatrixUtils.parallelSummedAreaTable(matrix, Integer::sum, (x, y) -> x - y, 0, pool);
+            for (int i = 0; i < 50; i++) {
+                int fromRow = random.nextInt(rows + 1);
+                int toRow = fromRow + random.nextInt(rows + 1 - fromRow);
+                int fromColumn = random.nextInt(columns + 1);
+                int toColumn = fromColumn + random.nextInt(columns + 1 - fromColumn);
+                IntMatrix rectangle = matrix.subMatrix(fromRow, toRow, fromColumn, toColumn);
+                long sum = 0;
+                long positive = 0;
+                for (int r = 0; r < rectangle.rows(); r++) {
+                    for (int c = 0; c < rectangle.columns(); c++) {
+                        sum += rectangle.getInt(r, c);
+                        positive += rectangle.getInt(r, c) > 0 ? 1 : 0;
+                    }
+                }
+                assertEquals(sum, ints.sum(fromRow, toRow, fromColumn, toColumn));
+                assertEquals(sum, longs.sum(fromRow, toRow, fromColumn, toColumn));
+                assertEquals(positive, matches.sum(fromRow, toRow, fromColumn, toColumn));
+                assertEquals((int) sum, boxed.sum(fromRow, toRow, fromColumn, toColumn));
+                assertEquals(sum / 4.0, parallelDoubles.sum(fromRow, toRow, fromColumn, toColumn));
+                assertEquals(sequentialDoubles.sum(fromRow, toRow, fromColumn, toColumn), parallelDoubles.sum(fromRow, toRow, fromColumn, toColumn));
+                assertEquals(rectangle.size(), ints.count(fromRow, toRow, fromColumn, toColumn));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testSummedAreaTableWhenInvalidArguments() {
+        DoubleSummedAreaTable table = MatrixUtils.summedAreaTable(new DoubleMatrix(2, 3, (r, c) -> r + c));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> table.sum(-1, 1, 0, 1));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> table.sum(0, 1, 0, 4));
+        assertThrows(IllegalArgumentException.class, () -> table.sum(2, 1, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> table.count(0, 1, 3, 2));
+        assertEquals(0.0, MatrixUtils.summedAreaTable(new DoubleMatrix()).sum(0, 0, 0, 0));
+        assertThrows(NullPointerException.class, () -> MatrixUtils.summedAreaTable(new IntMatrix(), (Predicate<Integer>) null));
+        assertThrows(NullPointerException.class, () -> MatrixUtils.summedAreaTable(Matrix.<Integer>of(), Integer::sum, null, 0));
+        assertThrows(NullPointerException.class, () -> MatrixUtils.parallelSummedAreaTable(new LongMatrix(), (ForkJoinPool) null));
+    }
+}
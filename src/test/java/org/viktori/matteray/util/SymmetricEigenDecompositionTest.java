@@ -0,0 +1,100 @@
+package org.viktori.matteray.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+
+import org.junit.jupiter.api.Test;
+import org.viktori.matteray.DoubleArray;
+import org.viktori.matteray.DoubleMatrix;
+import org.viktori.matteray.Matrix;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class SymmetricEigenDecompositionTest {
+
+    @Test
+    public void testDecompose() {
+        DoubleMatrix matrix = new DoubleMatrix(new double[]{2, -1, 0}, new double[]{-1, 2, -1}, new double[]{0, -1, 2});
+        SymmetricEigenDecomposition eigen = SymmetricEigenDecomposition.decompose(matrix);
+        assertEquals(3, eigen.size());
+        double root = Math.sqrt(2);
+        assertArrayEquals(new double[]{2 - root, 2, 2 + root}, eigen.eigenvalues().toDoubleArray(), 1e-12);
+        DoubleArray first = eigen.eigenvector(0);
+        double sign = Math.signum(first.getDouble(0));
+        assertArrayEquals(new double[]{0.5, root / 2, 0.5}, new double[]{sign * first.getDouble(0), sign * first.getDouble(1), sign * first.getDouble(2)}, 1e-12);
+        assertArrayEquals(eigen.eigenvalues().toDoubleArray(), SymmetricEigenDecomposition.eigenvaluesOf(matrix).toDoubleArray(), 0.0);
+    }
+
+    @Test
+    public void testReconstruct() {
+        // Large enough for the reductions and rotations to be split
+        int size = 200;
+        DoubleMatrix matrix = new DoubleMatrix(size, (r, c) -> ((r + 1) * (c + 1) % 13 - 6) / 3.0 + (r == c ? r % 5 : 0));
+        SymmetricEigenDecomposition eigen = SymmetricEigenDecomposition.decompose(matrix);
+        DoubleMatrix vectors = eigen.eigenvectors();
+        DoubleArray values = eigen.eigenvalues();
+        for (int i = 1; i < size; i++) {
+            assertEquals(true, values.getDouble(i - 1) <= values.getDouble(i));
+        }
+        // V * D * V^T = A, and V^T * V = I
+        DoubleMatrix scaled = new DoubleMatrix(size, (r, c) -> vectors.getDouble(r, c) * values.getDouble(c));
+        DoubleMatrix transposed = new DoubleMatrix(size, (r, c) -> vectors.getDouble(c, r));
+        assertArrayEquals(matrix.toDoubleArray(), MatrixUtils.multiply(scaled, transposed).toDoubleArray(), 1e-10);
+        DoubleMatrix identity = MatrixUtils.multiply(transposed, vectors);
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                assertEquals(r == c ? 1.0 : 0.0, identity.getDouble(r, c), 1e-12);
+            }
+        }
+        assertArrayEquals(values.toDoubleArray(), SymmetricEigenDecomposition.eigenvaluesOf(matrix).toDoubleArray(), 1e-12);
+        assertEquals(vectors.column(7), eigen.eigenvector(7));
+    }
+
+    @Test
+    public void testDecomposeIgnoresUpperTriangle() {
+        double[][] lower = {{4}, {1, 3}, {-2, 0.5, 5}};
+        DoubleArray expected = SymmetricEigenDecomposition.eigenvaluesOf(new DoubleMatrix(3, (r, c) -> c > r ? lower[c][r] : lower[r][c]));
+        assertEquals(expected, SymmetricEigenDecomposition.eigenvaluesOf(Matrix.of(3, 3, (r, c) -> c > r ? 1e300 : lower[r][c])));
+        assertEquals(expected, SymmetricEigenDecomposition.decompose(new DoubleMatrix(3, (r, c) -> c > r ? Double.NaN : lower[r][c])).eigenvalues());
+    }
+
+    @Test
+    public void testDiagonalAndEmpty() {
+        SymmetricEigenDecomposition eigen = SymmetricEigenDecomposition.decompose(new DoubleMatrix(3, (r, c) -> r == c ? 3 - r : 0));
+        assertEquals(new DoubleArray(1, 2, 3), eigen.eigenvalues());
+        assertEquals(new DoubleArray(0, 0, 1), eigen.eigenvector(0));
+        assertEquals(new DoubleArray(), SymmetricEigenDecomposition.eigenvaluesOf(new DoubleMatrix()));
+        assertEquals(new DoubleMatrix(), SymmetricEigenDecomposition.decompose(new DoubleMatrix()).eigenvectors());
+    }
+
+    @Test
+    public void testParallelDecompose() {
+        int size = 300;
+        DoubleMatrix matrix = new DoubleMatrix(size, (r, c) -> Math.cos(r * c + r + c) + (r == c ? 2 : 0));
+        SymmetricEigenDecomposition serial = SymmetricEigenDecomposition.decompose(matrix);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            SymmetricEigenDecomposition parallel = SymmetricEigenDecomposition.parallelDecompose(matrix, pool);
+            assertEquals(serial.eigenvalues(), parallel.eigenvalues());
+            assertEquals(serial.eigenvectors(), parallel.eigenvectors());
+            assertEquals(serial.eigenvalues(), SymmetricEigenDecomposition.parallelEigenvaluesOf(matrix, pool));
+            assertEquals(serial.eigenvalues(), SymmetricEigenDecomposition.parallelDecompose(matrix).eigenvalues());
+            assertEquals(serial.eigenvalues(), SymmetricEigenDecomposition.parallelEigenvaluesOf(matrix));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrowsExactly(IllegalArgumentException.class, () -> SymmetricEigenDecomposition.decompose(new DoubleMatrix(2, 3, (r, c) -> 1)));
+        assertThrowsExactly(IllegalArgumentException.class, () -> SymmetricEigenDecomposition.eigenvaluesOf(new DoubleMatrix(new double[]{Double.POSITIVE_INFINITY})));
+        assertThrows(NullPointerException.class, () -> SymmetricEigenDecomposition.parallelDecompose(new DoubleMatrix(), null));
+        assertThrows(NullPointerException.class, () -> SymmetricEigenDecomposition.eigenvaluesOf(null));
+        SymmetricEigenDecomposition eigen = SymmetricEigenDecomposition.decompose(new DoubleMatrix(new double[]{1}));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> eigen.eigenvector(1));
+        assertThrowsExactly(ArrayIndexOutOfBoundsException.class, () -> eigen.eigenvector(-1));
+    }
+}